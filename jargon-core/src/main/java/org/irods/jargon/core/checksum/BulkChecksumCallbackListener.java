@@ -0,0 +1,23 @@
+package org.irods.jargon.core.checksum;
+
+/**
+ * Receives the result of each data object checksummed by a bulk checksum, as
+ * each completes. Results arrive out of order, from the worker threads of the
+ * bulk checksum, but calls are serialized so that implementations need not be
+ * thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface BulkChecksumCallbackListener {
+
+	/**
+	 * Called once for each data object, whether computed, mismatched, skipped,
+	 * or failed
+	 *
+	 * @param bulkChecksumResult
+	 *            {@link BulkChecksumResult} for one data object
+	 */
+	void checksumResultCallback(BulkChecksumResult bulkChecksumResult);
+
+}
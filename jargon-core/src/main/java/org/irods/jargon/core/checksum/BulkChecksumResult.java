@@ -0,0 +1,168 @@
+package org.irods.jargon.core.checksum;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * Result of the checksum of one data object as part of a bulk checksum, as
+ * given to a {@link BulkChecksumCallbackListener}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkChecksumResult {
+
+	public enum BulkChecksumStatus {
+		/**
+		 * The server computed (or verified) the checksum
+		 */
+		COMPUTED,
+		/**
+		 * The checksum computed by the server does not match the one in the
+		 * catalog
+		 */
+		MISMATCH,
+		/**
+		 * The catalog checksum is newer than the time given in the options, so
+		 * no checksum was done
+		 */
+		SKIPPED,
+		/**
+		 * The checksum could not be done, see the exception
+		 */
+		FAILED
+	}
+
+	private final String irodsAbsolutePath;
+	private final String resourceName;
+	private final String catalogChecksum;
+	private final ChecksumValue checksumValue;
+	private final BulkChecksumStatus bulkChecksumStatus;
+	private final JargonException exception;
+
+	/**
+	 * Create a result for a checksum computed by the server
+	 *
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path of the data object
+	 * @param resourceName
+	 *            {@code String} with the resource of the data object, blank
+	 *            if not known
+	 * @param catalogChecksum
+	 *            {@code String} with the checksum that was in the catalog,
+	 *            blank if none or not known
+	 * @param checksumValue
+	 *            {@link ChecksumValue} returned by the server
+	 * @return {@link BulkChecksumResult}
+	 */
+	public static BulkChecksumResult instanceForComputed(final String irodsAbsolutePath, final String resourceName,
+			final String catalogChecksum, final ChecksumValue checksumValue) {
+		return new BulkChecksumResult(irodsAbsolutePath, resourceName, catalogChecksum, checksumValue,
+				BulkChecksumStatus.COMPUTED, null);
+	}
+
+	/**
+	 * Create a result for a data object whose catalog checksum is current
+	 *
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path of the data object
+	 * @param resourceName
+	 *            {@code String} with the resource of the data object, blank
+	 *            if not known
+	 * @param catalogChecksum
+	 *            {@code String} with the checksum that is in the catalog
+	 * @return {@link BulkChecksumResult}
+	 */
+	public static BulkChecksumResult instanceForSkipped(final String irodsAbsolutePath, final String resourceName,
+			final String catalogChecksum) {
+		return new BulkChecksumResult(irodsAbsolutePath, resourceName, catalogChecksum, null,
+				BulkChecksumStatus.SKIPPED, null);
+	}
+
+	/**
+	 * Create a result for a checksum that did not match, or could not be done
+	 *
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path of the data object
+	 * @param resourceName
+	 *            {@code String} with the resource of the data object, blank
+	 *            if not known
+	 * @param catalogChecksum
+	 *            {@code String} with the checksum that was in the catalog,
+	 *            blank if none or not known
+	 * @param bulkChecksumStatus
+	 *            {@link BulkChecksumStatus} of {@code MISMATCH} or
+	 *            {@code FAILED}
+	 * @param exception
+	 *            {@link JargonException} with the error
+	 * @return {@link BulkChecksumResult}
+	 */
+	public static BulkChecksumResult instanceForError(final String irodsAbsolutePath, final String resourceName,
+			final String catalogChecksum, final BulkChecksumStatus bulkChecksumStatus,
+			final JargonException exception) {
+		if (bulkChecksumStatus != BulkChecksumStatus.MISMATCH && bulkChecksumStatus != BulkChecksumStatus.FAILED) {
+			throw new IllegalArgumentException("status must be MISMATCH or FAILED");
+		}
+		if (exception == null) {
+			throw new IllegalArgumentException("null exception");
+		}
+		return new BulkChecksumResult(irodsAbsolutePath, resourceName, catalogChecksum, null, bulkChecksumStatus,
+				exception);
+	}
+
+	private BulkChecksumResult(final String irodsAbsolutePath, final String resourceName,
+			final String catalogChecksum, final ChecksumValue checksumValue,
+			final BulkChecksumStatus bulkChecksumStatus, final JargonException exception) {
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+		this.irodsAbsolutePath = irodsAbsolutePath;
+		this.resourceName = resourceName == null ? "" : resourceName;
+		this.catalogChecksum = catalogChecksum == null ? "" : catalogChecksum;
+		this.checksumValue = checksumValue;
+		this.bulkChecksumStatus = bulkChecksumStatus;
+		this.exception = exception;
+	}
+
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	public String getResourceName() {
+		return resourceName;
+	}
+
+	public String getCatalogChecksum() {
+		return catalogChecksum;
+	}
+
+	/**
+	 * @return {@link ChecksumValue} returned by the server, {@code null}
+	 *         unless the status is {@code COMPUTED}
+	 */
+	public ChecksumValue getChecksumValue() {
+		return checksumValue;
+	}
+
+	public BulkChecksumStatus getBulkChecksumStatus() {
+		return bulkChecksumStatus;
+	}
+
+	/**
+	 * @return {@link JargonException} with the error, {@code null} unless the
+	 *         status is {@code MISMATCH} or {@code FAILED}
+	 */
+	public JargonException getException() {
+		return exception;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BulkChecksumResult [irodsAbsolutePath=").append(irodsAbsolutePath).append(", resourceName=")
+				.append(resourceName).append(", catalogChecksum=").append(catalogChecksum)
+				.append(", checksumValue=").append(checksumValue).append(", bulkChecksumStatus=")
+				.append(bulkChecksumStatus).append(", exception=").append(exception).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,62 @@
+package org.irods.jargon.core.checksum;
+
+/**
+ * Counts of the results of a completed bulk checksum
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkChecksumSummary {
+
+	private final int computedCount;
+	private final int mismatchCount;
+	private final int skippedCount;
+	private final int failedCount;
+	private final long elapsedMillis;
+
+	public BulkChecksumSummary(final int computedCount, final int mismatchCount, final int skippedCount,
+			final int failedCount, final long elapsedMillis) {
+		this.computedCount = computedCount;
+		this.mismatchCount = mismatchCount;
+		this.skippedCount = skippedCount;
+		this.failedCount = failedCount;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public int getComputedCount() {
+		return computedCount;
+	}
+
+	public int getMismatchCount() {
+		return mismatchCount;
+	}
+
+	public int getSkippedCount() {
+		return skippedCount;
+	}
+
+	public int getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * @return {@code int} with the number of data objects seen
+	 */
+	public int getTotalCount() {
+		return computedCount + mismatchCount + skippedCount + failedCount;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BulkChecksumSummary [computedCount=").append(computedCount).append(", mismatchCount=")
+				.append(mismatchCount).append(", skippedCount=").append(skippedCount).append(", failedCount=")
+				.append(failedCount).append(", elapsedMillis=").append(elapsedMillis).append("]");
+		return builder.toString();
+	}
+
+}
@@ -11,6 +11,7 @@ import java.net.Socket;
 import java.nio.channels.ClosedChannelException;
 
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.transfer.TransferThrottle;
 import org.irods.jargon.core.utils.Host;
 import org.irods.jargon.core.utils.LocalFileUtils;
 import org.slf4j.Logger;
@@ -49,6 +50,11 @@ public abstract class AbstractConnection {
 	}
 
 	private EncryptionType encryptionType = EncryptionType.NONE;
+	/**
+	 * Session and account rate limits, for streaming without a transfer bound
+	 * to the thread
+	 */
+	private TransferThrottle sessionTransferThrottle = null;
 	/**
 	 * 4 bytes at the front of the header, outside XML
 	 */
@@ -306,20 +312,7 @@ public abstract class AbstractConnection {
 				return;
 			}
 
-			if (pipelineConfiguration.getInternalCacheBufferSize() <= 0) {
-				irodsOutputStream.write(value);
-			} else if ((value.length + outputOffset) >= pipelineConfiguration.getInternalCacheBufferSize()) {
-				// in cases where OUTPUT_BUFFER_LENGTH isn't big enough
-				irodsOutputStream.write(outputBuffer, 0, outputOffset);
-				irodsOutputStream.write(value);
-				outputOffset = 0;
-			} else {
-
-				// the message sent isn't longer than OUTPUT_BUFFER_LENGTH
-				System.arraycopy(value, 0, outputBuffer, outputOffset, value.length);
-				outputOffset += value.length;
-
-			}
+			sendBytes(value, 0, value.length);
 		} catch (IOException ioe) {
 			getIrodsSession().discardSessionForErrors(getIrodsAccount());
 			log.error("ioException in send", ioe);
@@ -367,11 +360,34 @@ public abstract class AbstractConnection {
 			throw new IllegalArgumentException(err);
 		}
 
-		byte temp[] = new byte[length];
+		try {
+			sendBytes(value, offset, length);
+		} catch (IOException ioe) {
+			getIrodsSession().discardSessionForErrors(getIrodsAccount());
+			log.error("ioException in send", ioe);
+			throw ioe;
+		}
+	}
 
-		System.arraycopy(value, offset, temp, 0, length);
+	/**
+	 * Write through the internal cache buffer, without copying the bytes to a
+	 * new array first
+	 */
+	private void sendBytes(final byte[] value, final int offset, final int length) throws IOException {
+		if (pipelineConfiguration.getInternalCacheBufferSize() <= 0) {
+			irodsOutputStream.write(value, offset, length);
+		} else if ((length + outputOffset) >= pipelineConfiguration.getInternalCacheBufferSize()) {
+			// in cases where OUTPUT_BUFFER_LENGTH isn't big enough
+			irodsOutputStream.write(outputBuffer, 0, outputOffset);
+			irodsOutputStream.write(value, offset, length);
+			outputOffset = 0;
+		} else {
+
+			// the message sent isn't longer than OUTPUT_BUFFER_LENGTH
+			System.arraycopy(value, offset, outputBuffer, outputOffset, length);
+			outputOffset += length;
 
-		send(temp);
+		}
 	}
 
 	/**
@@ -479,6 +495,7 @@ public abstract class AbstractConnection {
 
 			length -= lenThisRead;
 			dataSent += lenThisRead;
+			throttle(lenThisRead);
 			send(temp, 0, lenThisRead);
 			/*
 			 * If a listener is specified, send call-backs with progress
@@ -603,6 +620,7 @@ public abstract class AbstractConnection {
 
 				if (n > 0) {
 					length -= n;
+					throttle(n);
 					bos.write(temp, 0, n);
 					/*
 					 * If a listener is specified, send call-backs with progress
@@ -627,6 +645,31 @@ public abstract class AbstractConnection {
 		}
 	}
 
+	/**
+	 * Wait for the byte rate limits to allow a buffer of a streaming send or
+	 * read. These are the limits of the transfer bound to this thread, if any,
+	 * or else the global and account limits of the session.
+	 *
+	 * @param bytes
+	 *            {@code int} with the size of the buffer
+	 * @throws InterruptedIOException
+	 *             if interrupted while waiting
+	 */
+	private void throttle(final int bytes) throws InterruptedIOException {
+		TransferThrottle transferThrottle = TransferThrottle.getCurrentThreadTransferThrottle();
+		if (transferThrottle == null) {
+			if (irodsSession == null) {
+				return;
+			}
+			if (sessionTransferThrottle == null) {
+				sessionTransferThrottle = irodsSession.getTransferBandwidthScheduler()
+						.instanceTransferThrottle(irodsAccount, null);
+			}
+			transferThrottle = sessionTransferThrottle;
+		}
+		transferThrottle.acquire(bytes);
+	}
+
 	/**
 	 * Reads a byte array from the server. Blocks until {@code length}
 	 * number of bytes are read.
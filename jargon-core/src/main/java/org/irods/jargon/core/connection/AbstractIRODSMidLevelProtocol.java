@@ -6,14 +6,23 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.irods.jargon.core.connection.auth.AuthResponse;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.AbstractIRODSPackingInstruction;
 import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.NativePackTable;
+import org.irods.jargon.core.packinstr.NativePacker;
+import org.irods.jargon.core.packinstr.NativeUnpacker;
+import org.irods.jargon.core.packinstr.PackedMessage;
 import org.irods.jargon.core.packinstr.RErrMsg;
+import org.irods.jargon.core.packinstr.StreamingPackingInstruction;
 import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TagWriter;
 import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
 import org.irods.jargon.core.protovalues.RequestTypes;
 import org.irods.jargon.core.utils.IRODSConstants;
 import org.slf4j.Logger;
@@ -50,6 +59,30 @@ public abstract class AbstractIRODSMidLevelProtocol {
 	 */
 	private AuthResponse authResponse = null;
 
+	/**
+	 * Buffer that packing instructions are written into before sending, kept
+	 * for the life of the connection
+	 */
+	private TagWriter tagWriter = null;
+
+	/**
+	 * Buffer that packing instructions are packed into when api messages are
+	 * in the native protocol, kept for the life of the connection
+	 */
+	private NativePacker nativePacker = null;
+
+	/**
+	 * Api numbers of the requests sent whose replies have not been read, to
+	 * know how to unpack a reply in the native protocol
+	 */
+	private final PendingApiReplies pendingApiReplies = new PendingApiReplies();
+
+	/**
+	 * Whether the message being read is an api reply in the native protocol,
+	 * which its error is also in
+	 */
+	private boolean readingNativeReply = false;
+
 	/**
 	 * This account will represent the account information used for the actual
 	 * connection, as specified when the user originally logged in. This is
@@ -207,6 +240,197 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			final int errorOffset, final int errorLength, final byte[] bytes, final int byteOffset,
 			final int byteStringLength, final int intInfo) throws JargonException;
 
+	/**
+	 * Send the given iRODS protocol request, with the message already encoded,
+	 * and return the iRODS response as a {@code Tag} object. This is the same
+	 * as
+	 * {@link #irodsFunction(String, String, byte[], int, int, byte[], int, int, int)}
+	 * without the encoding of the message.
+	 *
+	 * @param type
+	 *            {@code String} with the type of request, typically an
+	 *            iRODS protocol request
+	 * @param messageBytes
+	 *            {@code byte[]} with the XML formatted message in the encoding
+	 *            of the connection, can be {@code null} if there is no message
+	 * @param messageLength
+	 *            {@code int} with the length of the message in
+	 *            {@code messageBytes}
+	 * @param errorBytes
+	 *            {@code byte[]} with any error data to send to iRODS, can
+	 *            be set to {@code null}
+	 * @param errorOffset
+	 *            {@code int} with offset into the error data to send
+	 * @param errorLength
+	 *            {@code int} with the length of error data
+	 * @param bytes
+	 *            {@code byte[]} with binary data to send to iRODS.
+	 * @param byteOffset
+	 *            {@code int} with an offset into the byte array to send
+	 * @param byteStringLength
+	 *            {@code int} with the length of the bytes to send
+	 * @param intInfo
+	 *            {@code int} with the iRODS API number
+	 * @return {@link Tag}
+	 * @throws JargonException
+	 */
+	public abstract Tag irodsFunctionWithMessageBytes(final String type, final byte[] messageBytes,
+			final int messageLength, final byte[] errorBytes, final int errorOffset, final int errorLength,
+			final byte[] bytes, final int byteOffset, final int byteStringLength, final int intInfo)
+			throws JargonException;
+
+	/**
+	 * Pack the message of an api request into the buffer of this connection,
+	 * in the native protocol if it was asked for in the startup pack, or
+	 * otherwise as XML by {@link #serializeXmlMessage(IRodsPI)}
+	 *
+	 * @param irodsPI
+	 *            {@link IRodsPI} with the message
+	 * @return {@link PackedMessage} holding the message, reused by the next
+	 *         call
+	 * @throws JargonException
+	 */
+	protected PackedMessage serializeMessage(final IRodsPI irodsPI) throws JargonException {
+		if (!isNativeProtocol()) {
+			return serializeXmlMessage(irodsPI);
+		}
+
+		Tag message;
+		if (irodsPI instanceof AbstractIRODSPackingInstruction) {
+			message = ((AbstractIRODSPackingInstruction) irodsPI).getTagValue();
+		} else {
+			message = parseMessageText(irodsPI.getParsedTags());
+		}
+
+		return packNativeMessage(message);
+	}
+
+	/**
+	 * Pack an api request message given as XML text. In the native protocol
+	 * the text is read into tags and packed again.
+	 *
+	 * @param message
+	 *            {@code String} with the XML message
+	 * @return {@link PackedMessage} holding the message, reused by the next
+	 *         call
+	 * @throws JargonException
+	 */
+	protected PackedMessage packMessageText(final String message) throws JargonException {
+		if (!isNativeProtocol()) {
+			TagWriter writer = resetTagWriter();
+			writer.writeText(message);
+			return writer;
+		}
+
+		return packNativeMessage(parseMessageText(message));
+	}
+
+	/**
+	 * Write the message of a packing instruction into the buffer of this
+	 * connection as XML, as negotiation requests are in either protocol.
+	 * Packing instructions that implement {@link StreamingPackingInstruction}
+	 * write their tags directly, others are written from
+	 * {@link IRodsPI#getParsedTags()}.
+	 *
+	 * @param irodsPI
+	 *            {@link IRodsPI} with the message
+	 * @return {@link TagWriter} holding the message, reused by the next call
+	 * @throws JargonException
+	 */
+	protected TagWriter serializeXmlMessage(final IRodsPI irodsPI) throws JargonException {
+		TagWriter writer = resetTagWriter();
+		if (irodsPI instanceof StreamingPackingInstruction) {
+			((StreamingPackingInstruction) irodsPI).writeTags(writer);
+		} else {
+			String message = irodsPI.getParsedTags();
+			if (message != null) {
+				writer.writeText(message);
+			}
+		}
+
+		return writer;
+	}
+
+	/**
+	 * @return {@code boolean} that is {@code true} if api messages are packed
+	 *         in the native protocol, as asked for in the startup pack
+	 */
+	public boolean isNativeProtocol() {
+		return getPipelineConfiguration().getProtocolType() == ProtocolTypeEnum.NATIVE;
+	}
+
+	/**
+	 * Note a message sent to iRODS, so that an api reply in the native
+	 * protocol may be unpacked as the response of the api
+	 *
+	 * @param type
+	 *            {@code String} with the type of the message
+	 * @param intInfo
+	 *            {@code int} with the api number of a request
+	 */
+	synchronized void noteMessageSent(final String type, final int intInfo) {
+		if (isNativeProtocol() && IRODSConstants.RODS_API_REQ.equals(type)) {
+			pendingApiReplies.requestSent(intInfo);
+		}
+	}
+
+	private TagWriter resetTagWriter() throws JargonException {
+		if (tagWriter == null) {
+			try {
+				tagWriter = new TagWriter(getEncoding());
+			} catch (IllegalArgumentException e) {
+				log.error("cannot write messages in the encoding of the connection", e);
+				throw new JargonException("cannot write messages in the encoding of the connection", e);
+			}
+		}
+
+		tagWriter.reset();
+		return tagWriter;
+	}
+
+	private PackedMessage packNativeMessage(final Tag message) throws JargonException {
+		if (nativePacker == null) {
+			try {
+				nativePacker = new NativePacker(getEncoding());
+			} catch (IllegalArgumentException e) {
+				log.error("cannot pack messages in the encoding of the connection", e);
+				throw new JargonException("cannot pack messages in the encoding of the connection", e);
+			}
+		}
+
+		nativePacker.reset();
+		if (message != null) {
+			nativePacker.pack(message);
+		}
+		return nativePacker;
+	}
+
+	private Tag parseMessageText(final String message) throws JargonException {
+		if (message == null) {
+			return null;
+		}
+
+		try {
+			return Tag.readNextTag(message.getBytes(getEncoding()), getEncoding());
+		} catch (UnsupportedEncodingException e) {
+			log.error("Unsupported encoding for:{}", getEncoding());
+			throw new JargonException("Unsupported encoding for:" + getEncoding());
+		}
+	}
+
+	/**
+	 * @return {@code String} with the packing instruction of the next api
+	 *         reply, or {@code null} if the api is not in the
+	 *         {@link NativePackTable}
+	 */
+	private String nextNativeReplyStructName() {
+		Integer apiNumber = pendingApiReplies.replyReceived();
+		if (apiNumber == null) {
+			return null;
+		}
+		return NativePackTable.getOutputStructName(apiNumber);
+	}
+
 	/**
 	 * iRODS protocol request that sends data to iRODS using the
 	 * {@code OpenedDataObjInp} protocol interaction to send binary data in
@@ -260,13 +484,11 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		long dataSent = 0;
 
 		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(irodsConnection.getPipelineConfiguration().getDefaultEncoding()).length;
+			PackedMessage message = serializeMessage(irodsPI);
+			sendHeader(IRODSConstants.RODS_API_REQ, message.getLength(), 0, byteStreamLength, irodsPI.getApiNumber());
+			if (message.getLength() > 0) {
+				irodsConnection.send(message.getBuffer(), 0, message.getLength());
 			}
-			sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
-			irodsConnection.send(message);
 
 			if (byteStreamLength > 0) {
 				dataSent += irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
@@ -350,16 +572,16 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		log.debug("api number is:{}", irodsPI.getApiNumber());
 
 		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(getEncoding()).length;
-			}
+			PackedMessage message = serializeMessage(irodsPI);
 
-			log.debug("message:{}", message);
+			if (log.isDebugEnabled()) {
+				log.debug("message:{}", message);
+			}
 
-			sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
-			irodsConnection.send(message);
+			sendHeader(IRODSConstants.RODS_API_REQ, message.getLength(), 0, byteStreamLength, irodsPI.getApiNumber());
+			if (message.getLength() > 0) {
+				irodsConnection.send(message.getBuffer(), 0, message.getLength());
+			}
 
 			if (byteStreamLength > 0) {
 				irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
@@ -397,22 +619,22 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		String out = irodsPI.getParsedTags();
+		PackedMessage out = serializeMessage(irodsPI);
 
-		if (out == null || out.length() == 0) {
+		if (out.getLength() == 0) {
 			String err = "null or missing message returned from parse";
 			log.error(err);
 			throw new IllegalArgumentException(err);
 		}
 
 		if (log.isDebugEnabled()) {
-			log.debug(out);
+			log.debug(out.toString());
 		}
 
 		try {
-			sendHeader(IRODSConstants.RODS_API_REQ, out.getBytes(getEncoding()).length, errorLength, byteStreamLength,
+			sendHeader(IRODSConstants.RODS_API_REQ, out.getLength(), errorLength, byteStreamLength,
 					irodsPI.getApiNumber());
-			irodsConnection.send(out);
+			irodsConnection.send(out.getBuffer(), 0, out.getLength());
 
 			if (byteStreamLength > 0) {
 				irodsConnection.send(bytes, byteOffset, byteStreamLength);
@@ -546,7 +768,143 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		return irodsFunction(IRODSConstants.RODS_API_REQ, irodsPI.getParsedTags(), irodsPI.getApiNumber());
+		PackedMessage message = serializeMessage(irodsPI);
+		return irodsFunctionWithMessageBytes(IRODSConstants.RODS_API_REQ, message.getBuffer(), message.getLength(),
+				null, 0, 0, null, 0, 0, irodsPI.getApiNumber());
+	}
+
+	/**
+	 * Send a list of independent iRODS requests in pipelined fashion, using
+	 * the window size configured in the jargon properties.
+	 *
+	 * @param irodsPIs
+	 *            {@code List} of {@link IRodsPI} requests that do not stream
+	 *            any binary data in either direction
+	 * @return {@code List} of {@link PipelinedRequestResult}, one per request,
+	 *         in request order
+	 * @throws JargonException
+	 *             if the connection fails, individual iRODS errors are
+	 *             reported in the results
+	 */
+	public synchronized List<PipelinedRequestResult> irodsFunctionPipelined(final List<? extends IRodsPI> irodsPIs)
+			throws JargonException {
+		return irodsFunctionPipelined(irodsPIs, getPipelineConfiguration().getPipelinedRequestWindowSize());
+	}
+
+	/**
+	 * Send a list of independent iRODS requests in pipelined fashion. Up to
+	 * {@code windowSize} requests are written back-to-back with a single flush,
+	 * and then the responses are read in the same order. This avoids paying the
+	 * network round trip for each request, which dominates bulk catalog
+	 * operations (AVU, ACL, delete) over high latency links.
+	 * <p>
+	 * Requests must be independent of each other, and must be simple api
+	 * requests that do not send or receive a binary byte stream or require
+	 * client status message processing. An iRODS error on one request is
+	 * captured in its {@link PipelinedRequestResult} and does not stop the
+	 * batch. A network or protocol failure will disconnect and throw, as with
+	 * the other {@code irodsFunction} methods.
+	 *
+	 * @param irodsPIs
+	 *            {@code List} of {@link IRodsPI} requests that do not stream
+	 *            any binary data in either direction
+	 * @param windowSize
+	 *            {@code int} with the maximum number of requests in flight,
+	 *            values less than 1 are treated as 1 (no pipelining)
+	 * @return {@code List} of {@link PipelinedRequestResult}, one per request,
+	 *         in request order
+	 * @throws JargonException
+	 *             if the connection fails, individual iRODS errors are
+	 *             reported in the results
+	 */
+	public synchronized List<PipelinedRequestResult> irodsFunctionPipelined(final List<? extends IRodsPI> irodsPIs,
+			final int windowSize) throws JargonException {
+
+		if (irodsPIs == null) {
+			throw new IllegalArgumentException("null irodsPIs");
+		}
+
+		log.debug("irodsFunctionPipelined() for {} requests", irodsPIs.size());
+
+		// checked up front, so that no request is left unanswered on the wire
+		for (IRodsPI irodsPI : irodsPIs) {
+			if (irodsPI == null) {
+				throw new IllegalArgumentException("null irodsPI in request list");
+			}
+		}
+
+		int effectiveWindow = windowSize < 1 ? 1 : windowSize;
+		log.debug("window size:{}", effectiveWindow);
+
+		List<PipelinedRequestResult> results = new ArrayList<PipelinedRequestResult>(irodsPIs.size());
+		int start = 0;
+
+		while (start < irodsPIs.size()) {
+			int end = Math.min(start + effectiveWindow, irodsPIs.size());
+
+			int sent = start;
+			try {
+				for (; sent < end; sent++) {
+					IRodsPI irodsPI = irodsPIs.get(sent);
+					// sent before the writer is reused for the next request
+					PackedMessage out = serializeMessage(irodsPI);
+					sendHeader(IRODSConstants.RODS_API_REQ, out.getLength(), 0, 0, irodsPI.getApiNumber());
+					if (out.getLength() > 0) {
+						irodsConnection.send(out.getBuffer(), 0, out.getLength());
+					}
+				}
+				irodsConnection.flush();
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				disconnectIfPipelineSent(sent > start);
+				throw new JargonException(e);
+			} catch (JargonException e) {
+				log.error("error serializing pipelined irods command", e);
+				disconnectIfPipelineSent(sent > start);
+				throw e;
+			} catch (RuntimeException e) {
+				log.error("error serializing pipelined irods command", e);
+				disconnectIfPipelineSent(sent > start);
+				throw e;
+			} catch (IOException e) {
+				log.error("io exception sending pipelined irods commands", e);
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+
+			for (int i = start; i < end; i++) {
+				try {
+					results.add(PipelinedRequestResult.instanceForResponse(irodsPIs.get(i), readMessage()));
+				} catch (JargonException je) {
+					if (!isConnected() || je.getCause() instanceof IOException) {
+						log.error("connection lost reading pipelined responses", je);
+						throw je;
+					}
+					log.debug("error in pipelined response is captured in results:{}", je.getMessage());
+					results.add(PipelinedRequestResult.instanceForException(irodsPIs.get(i), je));
+				}
+			}
+
+			start = end;
+		}
+
+		log.debug("pipelined requests complete");
+		return results;
+	}
+
+	/**
+	 * A pipelined send that stopped part way leaves requests on the wire whose
+	 * replies will not be read, so the connection cannot be used again
+	 *
+	 * @param anySent
+	 *            {@code boolean} that is {@code true} if requests of the
+	 *            window were sent
+	 */
+	private void disconnectIfPipelineSent(final boolean anySent) throws JargonException {
+		if (anySent) {
+			log.error("pipelined requests were left unanswered, disconnecting");
+			disconnectWithForce();
+		}
 	}
 
 	/**
@@ -563,7 +921,9 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		return irodsFunction(IRODSConstants.RODS_NEG_REQ, irodsPI.getParsedTags(), irodsPI.getApiNumber());
+		TagWriter message = serializeXmlMessage(irodsPI);
+		return irodsFunctionWithMessageBytes(IRODSConstants.RODS_NEG_REQ, message.getBuffer(), message.getLength(),
+				null, 0, 0, null, 0, 0, irodsPI.getApiNumber());
 	}
 
 	/**
@@ -675,6 +1035,13 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		Tag header = readHeader();
 		Tag message = null;
 
+		String nativeReplyStructName = null;
+		readingNativeReply = isNativeProtocol()
+				&& IRODSConstants.RODS_API_REPLY.equals(header.getTags()[0].getStringValue());
+		if (readingNativeReply) {
+			nativeReplyStructName = nextNativeReplyStructName();
+		}
+
 		int messageLength = header.getTags()[1].getIntValue();
 		int errorLength = header.getTags()[2].getIntValue();
 		int bytesLength = header.getTags()[3].getIntValue();
@@ -697,7 +1064,11 @@ public abstract class AbstractIRODSMidLevelProtocol {
 
 		if (messageLength > 0) {
 			log.debug("message length greater than zero");
-			message = readMessageBody(messageLength, decode);
+			if (readingNativeReply) {
+				message = readNativeMessageBody(messageLength, nativeReplyStructName);
+			} else {
+				message = readMessageBody(messageLength, decode);
+			}
 
 			// squelch genqueryout data for nicer logs
 			if (log.isDebugEnabled()) {
@@ -1103,6 +1474,50 @@ public abstract class AbstractIRODSMidLevelProtocol {
 		}
 	}
 
+	Tag readNativeMessageBody(final int length, final String structName) throws JargonException {
+		byte[] body = new byte[length];
+		try {
+			irodsConnection.read(body, 0, length);
+		} catch (ClosedChannelException e) {
+			log.error("closed channel", e);
+			disconnectWithForce();
+			throw new JargonException(e);
+		} catch (InterruptedIOException e) {
+			log.error("interrupted io", e);
+			disconnectWithForce();
+			throw new JargonException(e);
+		} catch (IOException e) {
+			log.error("io exception", e);
+			disconnectWithForce();
+			throw new JargonException(e);
+		}
+
+		if (structName == null) {
+			log.error("reply to an api that is not in the native pack table");
+			throw new JargonException(
+					"cannot unpack the reply in the native protocol, the api is not supported, use the XML protocol");
+		}
+
+		return NativeUnpacker.unpack(body, 0, length, structName, getEncoding());
+	}
+
+	/**
+	 * Read an error message into tags, unpacking it if it is part of an api
+	 * reply in the native protocol
+	 */
+	private Tag readErrorTag(final byte[] errorMessage) throws JargonException {
+		if (readingNativeReply) {
+			return NativeUnpacker.unpack(errorMessage, 0, errorMessage.length, RErrMsg.RERROR_PI, getEncoding());
+		}
+
+		try {
+			return Tag.readNextTag(errorMessage, getEncoding());
+		} catch (UnsupportedEncodingException e) {
+			log.error("Unsupported encoding for:{}", getEncoding());
+			throw new JargonException("Unsupported encoding for:" + getEncoding());
+		}
+	}
+
 	void processMessageErrorNotEqualZero(final int errorLength) throws JargonException {
 		log.debug("error length is not zero, process error");
 		byte[] errorMessage = new byte[errorLength];
@@ -1121,13 +1536,7 @@ public abstract class AbstractIRODSMidLevelProtocol {
 			disconnectWithForce();
 			throw new JargonException(e);
 		}
-		Tag errorTag;
-		try {
-			errorTag = Tag.readNextTag(errorMessage, getEncoding());
-		} catch (UnsupportedEncodingException e) {
-			log.error("Unsupported encoding for:{}", getEncoding());
-			throw new JargonException("Unsupported encoding for:" + getEncoding());
-		}
+		Tag errorTag = readErrorTag(errorMessage);
 
 		Tag errorPITag = errorTag.getTag(RErrMsg.PI_TAG);
 		if (errorPITag == null) {
@@ -1227,21 +1636,13 @@ public abstract class AbstractIRODSMidLevelProtocol {
 				throw new JargonException(e);
 			}
 
-			Tag errorTag;
-
-			try {
-				errorTag = Tag.readNextTag(errorMessage, getEncoding());
-
-				if (errorTag != null) {
-					log.error("IRODS error occured " + errorTag.getTag(RErrMsg.PI_TAG).getTag(IRodsPI.MESSAGE_TAG)
-							+ " : " + info);
+			Tag errorTag = readErrorTag(errorMessage);
 
-					additionalMessage = errorTag.getTag(RErrMsg.PI_TAG).getTag(IRodsPI.MESSAGE_TAG).getStringValue();
-				}
+			if (errorTag != null && errorTag.getTag(RErrMsg.PI_TAG) != null) {
+				log.error("IRODS error occured " + errorTag.getTag(RErrMsg.PI_TAG).getTag(IRodsPI.MESSAGE_TAG) + " : "
+						+ info);
 
-			} catch (UnsupportedEncodingException e) {
-				log.error("Unsupported encoding for: {}", getEncoding());
-				throw new JargonException("Unsupported encoding for: " + getEncoding());
+				additionalMessage = errorTag.getTag(RErrMsg.PI_TAG).getTag(IRodsPI.MESSAGE_TAG).getStringValue();
 			}
 
 		}
@@ -327,7 +327,8 @@ abstract class AuthMechanism {
 		}
 
 		StartupPack startupPack = new StartupPack(irodsAccount, irodsCommands
-				.getPipelineConfiguration().isReconnect(), myOption);
+				.getPipelineConfiguration().isReconnect(), myOption,
+				irodsCommands.getPipelineConfiguration().getProtocolType());
 
 		String startupPackData = startupPack.getParsedTags();
 		log.debug("startupPackData:{}", startupPackData);
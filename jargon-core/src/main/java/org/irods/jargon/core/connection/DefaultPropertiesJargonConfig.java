@@ -11,6 +11,7 @@ import org.irods.jargon.core.connection.ClientServerNegotiationPolicy.SslNegotia
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
 import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
 import org.irods.jargon.core.utils.PropertyUtils;
 
 /**
@@ -608,4 +609,61 @@ public class DefaultPropertiesJargonConfig implements JargonProperties {
 		return verifyPropExistsAndGetAsBoolean("rule.engine.set.destination.when.auto");
 
 	}
+
+	@Override
+	public int getPipelinedRequestWindowSize() {
+		return verifyPropExistsAndGetAsInt("jargon.pipelined.request.window.size");
+	}
+
+	@Override
+	public int getConcurrentReplicationThreads() {
+		return verifyPropExistsAndGetAsInt("transfer.concurrent.replication.threads");
+	}
+
+	@Override
+	public int getConcurrentReplicationMaxPerResource() {
+		return verifyPropExistsAndGetAsInt("transfer.concurrent.replication.max.per.resource");
+	}
+
+	@Override
+	public boolean isAdaptiveParallelTransfer() {
+		return verifyPropExistsAndGetAsBoolean("transfer.adaptive.parallel");
+	}
+
+	@Override
+	public boolean isUseNIOForParallelTransfers() {
+		return verifyPropExistsAndGetAsBoolean("transfer.use.nio.for.parallel");
+	}
+
+	@Override
+	public int getParallelPutMapWindowSize() {
+		return verifyPropExistsAndGetAsInt("transfer.parallel.put.map.window.size");
+	}
+
+	@Override
+	public int getReroutedHostCacheTimeToLiveSeconds() {
+		return verifyPropExistsAndGetAsInt("transfer.reroute.host.cache.ttl.seconds");
+	}
+
+	@Override
+	public int getReroutedMaxIdleConnectionsPerHost() {
+		return verifyPropExistsAndGetAsInt("transfer.reroute.max.idle.connections.per.host");
+	}
+
+	@Override
+	public int getReroutedConnectionIdleTimeoutSeconds() {
+		return verifyPropExistsAndGetAsInt("transfer.reroute.connection.idle.timeout.seconds");
+	}
+
+	@Override
+	public ProtocolTypeEnum getProtocolType() {
+		String propVal = ((String) jargonProperties.get("protocol.type"));
+
+		if (propVal == null || propVal.isEmpty()) {
+			return ProtocolTypeEnum.XML;
+		} else {
+			return ProtocolTypeEnum.findTypeByString(propVal);
+		}
+	}
+
 }
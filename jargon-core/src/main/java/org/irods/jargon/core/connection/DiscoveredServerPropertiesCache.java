@@ -51,6 +51,13 @@ public class DiscoveredServerPropertiesCache {
 	public static final String EIRODS = "eirods";
 	public static final String RULE_BASE = "loadedRules";
 	public static final String CHECKSUM_TYPE = "checksumType";
+	/*
+	 * learned parallel transfer tuning, see AdaptiveParallelTransferTuner
+	 */
+	public static final String ADAPTIVE_PARALLEL_THREADS = "adaptiveParallelThreads";
+	public static final String ADAPTIVE_PARALLEL_BUFFER_SIZE = "adaptiveParallelBufferSize";
+	public static final String ADAPTIVE_PARALLEL_BEST_THREADS = "adaptiveParallelBestThreads";
+	public static final String ADAPTIVE_PARALLEL_BEST_THROUGHPUT = "adaptiveParallelBestThroughput";
 
 	public static final String IS_TRUE = "true";
 	public static final String IS_FALSE = "false";
@@ -46,6 +46,14 @@ public class IRODSAccount implements Serializable {
 
 	private List<String> authenticatedRoles = new ArrayList<String>();
 
+	/**
+	 * Optional group of equivalent servers that connections for this account
+	 * are spread over. If this is left {@code null} (the default), connections
+	 * go to the host and port of the account. Not serialized, as the group
+	 * holds live state about the servers.
+	 */
+	private transient IRODSEndpointGroup endpointGroup;
+
 	/**
 	 * Creates an object to hold iRODS account information. All parameters need
 	 * to be initialized to use this initializer.
@@ -644,4 +652,21 @@ public class IRODSAccount implements Serializable {
 		this.clientServerNegotiationPolicy = clientServerNegotiationPolicy;
 	}
 
+	public synchronized IRODSEndpointGroup getEndpointGroup() {
+		return endpointGroup;
+	}
+
+	/**
+	 * Spread the connections of this account over a group of equivalent
+	 * servers. The host and port of the account still identify its
+	 * connections, see {@link IRODSEndpointGroup}.
+	 *
+	 * @param endpointGroup
+	 *            {@link IRODSEndpointGroup}, or {@code null} to connect to the
+	 *            host and port of the account
+	 */
+	public synchronized void setEndpointGroup(final IRODSEndpointGroup endpointGroup) {
+		this.endpointGroup = endpointGroup;
+	}
+
 }
@@ -30,6 +30,13 @@ import org.slf4j.LoggerFactory;
  */
 class IRODSBasicTCPConnection extends AbstractConnection {
 
+	/**
+	 * Group and endpoint the socket was connected to, if the account has an
+	 * {@link IRODSEndpointGroup}, so the group can count the connection closed
+	 */
+	private IRODSEndpointGroup connectedEndpointGroup = null;
+	private IRODSEndpoint connectedEndpoint = null;
+
 	/**
 	 * Default constructor that gives the account and pipeline setup
 	 * information.
@@ -120,6 +127,12 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 			return;
 		}
 
+		IRODSEndpointGroup endpointGroup = irodsAccount.getEndpointGroup();
+		if (endpointGroup != null) {
+			connectToEndpointGroup(irodsAccount, endpointGroup);
+			return;
+		}
+
 		int attemptCount = 3;
 
 		for (int i = 0; i < attemptCount; i++) {
@@ -127,35 +140,9 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 			try {
 
 				log.debug("normal iRODS connection");
-				connection = new Socket();
-				connection.setSoTimeout(getPipelineConfiguration()
-						.getIrodsSocketTimeout() * 1000); // time is specified
-				// in seconds
-
-				if (getPipelineConfiguration().getPrimaryTcpSendWindowSize() > 0) {
-					connection.setSendBufferSize(getPipelineConfiguration()
-							.getPrimaryTcpSendWindowSize() * 1024);
-				}
-
-				if (getPipelineConfiguration().getPrimaryTcpReceiveWindowSize() > 0) {
-					connection.setReceiveBufferSize(getPipelineConfiguration()
-							.getPrimaryTcpReceiveWindowSize() * 1024);
-				}
-
-				connection.setPerformancePreferences(getPipelineConfiguration()
-						.getPrimaryTcpPerformancePrefsConnectionTime(),
-						getPipelineConfiguration()
-						.getPrimaryTcpPerformancePrefsLatency(),
-						getPipelineConfiguration()
-						.getPrimaryTcpPerformancePrefsBandwidth());
+				connection = createConfiguredSocket();
 				InetSocketAddress address = new InetSocketAddress(
 						irodsAccount.getHost(), irodsAccount.getPort());
-				connection.setKeepAlive(getPipelineConfiguration()
-						.isPrimaryTcpKeepAlive());
-
-				// assume reuse, nodelay
-				connection.setReuseAddress(true);
-				connection.setTcpNoDelay(false);
 				connection.connect(address);
 
 				// success, so break out of reconnect loop
@@ -195,6 +182,119 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 		log.debug("socket opened successfully");
 	}
 
+	/**
+	 * Connect to the first endpoint of the group that answers, in the order
+	 * the group prefers, without sleeping between endpoints. Endpoints that do
+	 * not answer within the connect timeout of the group are marked failed.
+	 *
+	 * @param irodsAccount
+	 * @param endpointGroup
+	 * @throws JargonException
+	 *             if no endpoint could be connected to
+	 */
+	private void connectToEndpointGroup(final IRODSAccount irodsAccount,
+			final IRODSEndpointGroup endpointGroup) throws JargonException {
+		log.debug("connecting to endpoint group:{}", endpointGroup);
+		int connectTimeoutMillis = endpointGroup.getConnectTimeoutMillis();
+		IOException lastException = null;
+
+		for (IRODSEndpoint endpoint : endpointGroup.selectEndpoints()) {
+			Socket socket = null;
+			try {
+				socket = createConfiguredSocket();
+				socket.connect(
+						new InetSocketAddress(endpoint.getHost(), endpoint
+								.getPort()), connectTimeoutMillis);
+				connection = socket;
+				endpointGroup.connectionOpened(endpoint);
+				connectedEndpointGroup = endpointGroup;
+				connectedEndpoint = endpoint;
+				log.debug("connected to endpoint:{}", endpoint);
+				break;
+			} catch (IOException ioe) {
+				log.warn("cannot connect to endpoint:{}, try next", endpoint,
+						ioe);
+				endpointGroup.markFailed(endpoint);
+				lastException = ioe;
+				if (socket != null) {
+					try {
+						socket.close();
+					} catch (IOException e) {
+						// ignore
+					}
+				}
+			}
+		}
+
+		if (connectedEndpoint == null) {
+			log.error("no endpoint of group could be connected to:{}",
+					endpointGroup);
+			throw new JargonException(
+					"no endpoint of group could be connected to", lastException);
+		}
+
+		try {
+			setUpSocketAndStreamsAfterConnection(irodsAccount);
+		} catch (JargonException je) {
+			try {
+				connection.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			releaseConnectedEndpoint();
+			throw je;
+		}
+		connected = true;
+		log.debug("socket opened successfully");
+	}
+
+	/**
+	 * Create an unconnected socket with the options of the pipeline
+	 * configuration
+	 *
+	 * @return {@link Socket}
+	 * @throws IOException
+	 */
+	private Socket createConfiguredSocket() throws IOException {
+		Socket socket = new Socket();
+		socket.setSoTimeout(getPipelineConfiguration().getIrodsSocketTimeout() * 1000); // time
+		// is specified in seconds
+
+		if (getPipelineConfiguration().getPrimaryTcpSendWindowSize() > 0) {
+			socket.setSendBufferSize(getPipelineConfiguration()
+					.getPrimaryTcpSendWindowSize() * 1024);
+		}
+
+		if (getPipelineConfiguration().getPrimaryTcpReceiveWindowSize() > 0) {
+			socket.setReceiveBufferSize(getPipelineConfiguration()
+					.getPrimaryTcpReceiveWindowSize() * 1024);
+		}
+
+		socket.setPerformancePreferences(getPipelineConfiguration()
+				.getPrimaryTcpPerformancePrefsConnectionTime(),
+				getPipelineConfiguration().getPrimaryTcpPerformancePrefsLatency(),
+				getPipelineConfiguration()
+				.getPrimaryTcpPerformancePrefsBandwidth());
+		socket.setKeepAlive(getPipelineConfiguration().isPrimaryTcpKeepAlive());
+
+		// assume reuse, nodelay
+		socket.setReuseAddress(true);
+		socket.setTcpNoDelay(false);
+		return socket;
+	}
+
+	/**
+	 * Count the connection closed in the endpoint group it was made from, if
+	 * any
+	 */
+	private void releaseConnectedEndpoint() {
+		if (connectedEndpoint != null) {
+			connectedEndpointGroup.connectionClosed(connectedEndpoint);
+			connectedEndpoint = null;
+			connectedEndpointGroup = null;
+		}
+	}
+
 	/**
 	 * @param irodsAccount
 	 * @throws JargonException
@@ -278,6 +378,7 @@ class IRODSBasicTCPConnection extends AbstractConnection {
 			connected = false;
 			log.debug("now disconnected");
 		}
+		releaseConnectedEndpoint();
 	}
 
 	/*
@@ -0,0 +1,78 @@
+package org.irods.jargon.core.connection;
+
+import java.io.Serializable;
+
+/**
+ * Host and port of one iRODS server in an {@link IRODSEndpointGroup}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class IRODSEndpoint implements Serializable {
+
+	private static final long serialVersionUID = -3512367094581322210L;
+
+	private final String host;
+	private final int port;
+
+	/**
+	 * Create an endpoint
+	 *
+	 * @param host
+	 *            {@code String} with the iRODS server host name
+	 * @param port
+	 *            {@code int} with the iRODS server port
+	 * @return {@link IRODSEndpoint}
+	 */
+	public static IRODSEndpoint instance(final String host, final int port) {
+		return new IRODSEndpoint(host, port);
+	}
+
+	private IRODSEndpoint(final String host, final int port) {
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+
+		if (port <= 0) {
+			throw new IllegalArgumentException("port must be > 0");
+		}
+
+		this.host = host;
+		this.port = port;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IRODSEndpoint)) {
+			return false;
+		}
+		IRODSEndpoint other = (IRODSEndpoint) obj;
+		return host.equals(other.host) && port == other.port;
+	}
+
+	@Override
+	public int hashCode() {
+		return host.hashCode() + port;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(host);
+		sb.append(':');
+		sb.append(port);
+		return sb.toString();
+	}
+
+}
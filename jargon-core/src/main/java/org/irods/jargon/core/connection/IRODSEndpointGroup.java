@@ -0,0 +1,440 @@
+package org.irods.jargon.core.connection;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A set of equivalent iRODS servers, such as the catalog providers of one zone,
+ * that connections of an {@link IRODSAccount} are spread over. Set the group on
+ * an account with {@link IRODSAccount#setEndpointGroup(IRODSEndpointGroup)}.
+ * The host and port of the account still identify its connections in the
+ * {@link IRODSSession}, while the group decides which server each new socket
+ * goes to.
+ * <p>
+ * Each connect asks the group for its endpoints in order of preference, and
+ * tries them in that order with a short connect timeout and no sleep between
+ * tries. An endpoint that cannot be connected to is marked failed and is
+ * passed over until its back-off expires. The back-off doubles with each
+ * failure in a row, up to a maximum, and is reset when the endpoint is
+ * connected to again. When all endpoints are failed they are still tried,
+ * soonest to expire first, rather than failing the connect outright.
+ * <p>
+ * Endpoints are preferred either round robin, or by fewest open connections.
+ * As a connection carries one request at a time, the open connections to a
+ * server are the requests that may be outstanding on it, so the second policy
+ * steers new connections away from busy servers.
+ * <p>
+ * {@link #startHealthProbes(long)} checks the endpoints in the background by
+ * opening and closing a socket, so that failed servers are found before a
+ * connect has to wait on them, and recovered ones are used again. The probe
+ * does not log in, and a server may log the probe as an agent that closed
+ * early. Call {@link #shutdown()} when done with the group to stop the probes.
+ * <p>
+ * This class is thread safe, and one group is meant to be shared by all
+ * accounts for the servers.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSEndpointGroup {
+
+	public static final Logger log = LoggerFactory.getLogger(IRODSEndpointGroup.class);
+
+	/**
+	 * How endpoints that are not failed are ordered for a connect
+	 */
+	public enum SelectionPolicy {
+		/**
+		 * Take turns
+		 */
+		ROUND_ROBIN,
+		/**
+		 * Fewest open connections first, taking turns between equals
+		 */
+		LEAST_OUTSTANDING_REQUESTS
+	}
+
+	/**
+	 * Default time to wait for a socket to an endpoint to connect
+	 */
+	public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 2000;
+
+	/**
+	 * Default back-off after the first failure of an endpoint
+	 */
+	public static final long DEFAULT_INITIAL_BACK_OFF_MILLIS = 1000;
+
+	/**
+	 * Default longest back-off of an endpoint
+	 */
+	public static final long DEFAULT_MAX_BACK_OFF_MILLIS = 5 * 60 * 1000;
+
+	private final List<EndpointState> endpointStates;
+	private final SelectionPolicy selectionPolicy;
+	private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+	private long initialBackOffMillis = DEFAULT_INITIAL_BACK_OFF_MILLIS;
+	private long maxBackOffMillis = DEFAULT_MAX_BACK_OFF_MILLIS;
+	private int nextTurn = 0;
+	private ScheduledExecutorService healthProbeExecutor = null;
+
+	/**
+	 * Create a group of endpoints
+	 *
+	 * @param endpoints
+	 *            {@code List} of {@link IRODSEndpoint}, in no particular order
+	 * @param selectionPolicy
+	 *            {@link SelectionPolicy} used to order endpoints for a connect
+	 * @return {@link IRODSEndpointGroup}
+	 */
+	public static IRODSEndpointGroup instance(final List<IRODSEndpoint> endpoints,
+			final SelectionPolicy selectionPolicy) {
+		return new IRODSEndpointGroup(endpoints, selectionPolicy);
+	}
+
+	private IRODSEndpointGroup(final List<IRODSEndpoint> endpoints, final SelectionPolicy selectionPolicy) {
+		if (endpoints == null || endpoints.isEmpty()) {
+			throw new IllegalArgumentException("null or empty endpoints");
+		}
+
+		if (selectionPolicy == null) {
+			throw new IllegalArgumentException("null selectionPolicy");
+		}
+
+		endpointStates = new ArrayList<EndpointState>(endpoints.size());
+		for (IRODSEndpoint endpoint : endpoints) {
+			if (endpoint == null) {
+				throw new IllegalArgumentException("null endpoint in endpoints");
+			}
+			endpointStates.add(new EndpointState(endpoint));
+		}
+		this.selectionPolicy = selectionPolicy;
+	}
+
+	/**
+	 * Get the endpoints in the order a connect should try them. Endpoints that
+	 * are not failed, or whose back-off has expired, come first, ordered by the
+	 * {@link SelectionPolicy}. Failed endpoints follow, soonest back-off
+	 * expiry first.
+	 *
+	 * @return {@code List} of {@link IRODSEndpoint}
+	 */
+	public synchronized List<IRODSEndpoint> selectEndpoints() {
+		long now = System.currentTimeMillis();
+		List<EndpointState> available = new ArrayList<EndpointState>();
+		List<EndpointState> failed = new ArrayList<EndpointState>();
+
+		int count = endpointStates.size();
+		int start = nextTurn;
+		nextTurn = (nextTurn + 1) % count;
+		for (int i = 0; i < count; i++) {
+			EndpointState endpointState = endpointStates.get((start + i) % count);
+			if (endpointState.retryAt <= now) {
+				available.add(endpointState);
+			} else {
+				failed.add(endpointState);
+			}
+		}
+
+		if (selectionPolicy == SelectionPolicy.LEAST_OUTSTANDING_REQUESTS) {
+			// stable, so equals stay in turn order
+			Collections.sort(available, new Comparator<EndpointState>() {
+				@Override
+				public int compare(final EndpointState o1, final EndpointState o2) {
+					return o1.openConnections < o2.openConnections ? -1
+							: (o1.openConnections == o2.openConnections ? 0 : 1);
+				}
+			});
+		}
+
+		Collections.sort(failed, new Comparator<EndpointState>() {
+			@Override
+			public int compare(final EndpointState o1, final EndpointState o2) {
+				return o1.retryAt < o2.retryAt ? -1 : (o1.retryAt == o2.retryAt ? 0 : 1);
+			}
+		});
+
+		List<IRODSEndpoint> selected = new ArrayList<IRODSEndpoint>(count);
+		for (EndpointState endpointState : available) {
+			selected.add(endpointState.endpoint);
+		}
+		for (EndpointState endpointState : failed) {
+			selected.add(endpointState.endpoint);
+		}
+		return selected;
+	}
+
+	/**
+	 * Get the endpoints that are not failed, or whose back-off has expired
+	 *
+	 * @return {@code List} of {@link IRODSEndpoint}
+	 */
+	public synchronized List<IRODSEndpoint> getAvailableEndpoints() {
+		long now = System.currentTimeMillis();
+		List<IRODSEndpoint> available = new ArrayList<IRODSEndpoint>();
+		for (EndpointState endpointState : endpointStates) {
+			if (endpointState.retryAt <= now) {
+				available.add(endpointState.endpoint);
+			}
+		}
+		return available;
+	}
+
+	/**
+	 * Get the number of connections open to an endpoint
+	 *
+	 * @param endpoint
+	 *            {@link IRODSEndpoint} of the group
+	 * @return {@code int} with the open connections
+	 */
+	public synchronized int getOpenConnectionCount(final IRODSEndpoint endpoint) {
+		return findState(endpoint).openConnections;
+	}
+
+	/**
+	 * Note that a connection to an endpoint was opened, which also clears any
+	 * failure of the endpoint
+	 *
+	 * @param endpoint
+	 *            {@link IRODSEndpoint} of the group
+	 */
+	public synchronized void connectionOpened(final IRODSEndpoint endpoint) {
+		EndpointState endpointState = findState(endpoint);
+		endpointState.openConnections++;
+		clearFailure(endpointState);
+	}
+
+	/**
+	 * Note that a connection to an endpoint was closed
+	 *
+	 * @param endpoint
+	 *            {@link IRODSEndpoint} of the group
+	 */
+	public synchronized void connectionClosed(final IRODSEndpoint endpoint) {
+		EndpointState endpointState = findState(endpoint);
+		if (endpointState.openConnections > 0) {
+			endpointState.openConnections--;
+		}
+	}
+
+	/**
+	 * Mark an endpoint failed, so that it is passed over until its back-off
+	 * expires. The back-off doubles with each failure in a row.
+	 *
+	 * @param endpoint
+	 *            {@link IRODSEndpoint} of the group
+	 */
+	public synchronized void markFailed(final IRODSEndpoint endpoint) {
+		EndpointState endpointState = findState(endpoint);
+		endpointState.consecutiveFailures++;
+
+		long backOff = initialBackOffMillis;
+		for (int i = 1; i < endpointState.consecutiveFailures && backOff < maxBackOffMillis; i++) {
+			backOff *= 2;
+		}
+		backOff = Math.min(backOff, maxBackOffMillis);
+
+		endpointState.retryAt = System.currentTimeMillis() + backOff;
+		log.warn("endpoint:{} failed, back off for {} ms", endpoint, backOff);
+	}
+
+	/**
+	 * Mark an endpoint healthy, clearing any failure and back-off
+	 *
+	 * @param endpoint
+	 *            {@link IRODSEndpoint} of the group
+	 */
+	public synchronized void markHealthy(final IRODSEndpoint endpoint) {
+		clearFailure(findState(endpoint));
+	}
+
+	/**
+	 * Start checking the endpoints in the background. Failed endpoints are
+	 * only checked once their back-off has expired.
+	 *
+	 * @param intervalMillis
+	 *            {@code long} with the time between checks
+	 */
+	public synchronized void startHealthProbes(final long intervalMillis) {
+		if (intervalMillis <= 0) {
+			throw new IllegalArgumentException("intervalMillis must be > 0");
+		}
+
+		if (healthProbeExecutor != null) {
+			log.warn("health probes already started, ignored");
+			return;
+		}
+
+		log.info("starting endpoint health probes every {} ms", intervalMillis);
+		healthProbeExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "irods-endpoint-health-probe");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		healthProbeExecutor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					probeEndpoints();
+				} catch (Exception e) {
+					log.error("error probing endpoints, ignored", e);
+				}
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop the background health probes, if started
+	 */
+	public synchronized void shutdown() {
+		if (healthProbeExecutor != null) {
+			log.info("stopping endpoint health probes");
+			healthProbeExecutor.shutdownNow();
+			healthProbeExecutor = null;
+		}
+	}
+
+	/**
+	 * Check each endpoint that is not in back-off once, marking it healthy or
+	 * failed
+	 */
+	void probeEndpoints() {
+		List<IRODSEndpoint> toProbe = getAvailableEndpoints();
+		int timeout = getConnectTimeoutMillis();
+
+		for (IRODSEndpoint endpoint : toProbe) {
+			Socket socket = new Socket();
+			try {
+				socket.connect(new InetSocketAddress(endpoint.getHost(), endpoint.getPort()), timeout);
+				log.debug("endpoint probe ok:{}", endpoint);
+				markHealthy(endpoint);
+			} catch (IOException e) {
+				log.debug("endpoint probe failed:{}", endpoint, e);
+				markFailed(endpoint);
+			} finally {
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	public SelectionPolicy getSelectionPolicy() {
+		return selectionPolicy;
+	}
+
+	public synchronized int getConnectTimeoutMillis() {
+		return connectTimeoutMillis;
+	}
+
+	/**
+	 * @param connectTimeoutMillis
+	 *            {@code int} with the time to wait for a socket to an endpoint
+	 *            to connect before trying the next one
+	 */
+	public synchronized void setConnectTimeoutMillis(final int connectTimeoutMillis) {
+		if (connectTimeoutMillis <= 0) {
+			throw new IllegalArgumentException("connectTimeoutMillis must be > 0");
+		}
+		this.connectTimeoutMillis = connectTimeoutMillis;
+	}
+
+	public synchronized long getInitialBackOffMillis() {
+		return initialBackOffMillis;
+	}
+
+	/**
+	 * @param initialBackOffMillis
+	 *            {@code long} with the back-off after the first failure of an
+	 *            endpoint
+	 */
+	public synchronized void setInitialBackOffMillis(final long initialBackOffMillis) {
+		if (initialBackOffMillis <= 0) {
+			throw new IllegalArgumentException("initialBackOffMillis must be > 0");
+		}
+		this.initialBackOffMillis = initialBackOffMillis;
+	}
+
+	public synchronized long getMaxBackOffMillis() {
+		return maxBackOffMillis;
+	}
+
+	/**
+	 * @param maxBackOffMillis
+	 *            {@code long} with the longest back-off of an endpoint
+	 */
+	public synchronized void setMaxBackOffMillis(final long maxBackOffMillis) {
+		if (maxBackOffMillis <= 0) {
+			throw new IllegalArgumentException("maxBackOffMillis must be > 0");
+		}
+		this.maxBackOffMillis = maxBackOffMillis;
+	}
+
+	private EndpointState findState(final IRODSEndpoint endpoint) {
+		if (endpoint == null) {
+			throw new IllegalArgumentException("null endpoint");
+		}
+
+		for (EndpointState endpointState : endpointStates) {
+			if (endpointState.endpoint.equals(endpoint)) {
+				return endpointState;
+			}
+		}
+		throw new IllegalArgumentException("endpoint not in group:" + endpoint);
+	}
+
+	private void clearFailure(final EndpointState endpointState) {
+		if (endpointState.consecutiveFailures > 0) {
+			log.info("endpoint:{} healthy again", endpointState.endpoint);
+		}
+		endpointState.consecutiveFailures = 0;
+		endpointState.retryAt = 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("IRODSEndpointGroup [selectionPolicy=");
+		sb.append(selectionPolicy);
+		sb.append(", endpoints=");
+		synchronized (this) {
+			for (int i = 0; i < endpointStates.size(); i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				sb.append(endpointStates.get(i).endpoint);
+			}
+		}
+		sb.append("]");
+		return sb.toString();
+	}
+
+	private static class EndpointState {
+		private final IRODSEndpoint endpoint;
+		private int openConnections = 0;
+		private int consecutiveFailures = 0;
+		private long retryAt = 0;
+
+		EndpointState(final IRODSEndpoint endpoint) {
+			this.endpoint = endpoint;
+		}
+	}
+
+}
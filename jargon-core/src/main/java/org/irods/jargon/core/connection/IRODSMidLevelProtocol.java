@@ -5,8 +5,10 @@ import java.io.UnsupportedEncodingException;
 
 import org.irods.jargon.core.connection.AbstractConnection.EncryptionType;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.PackedMessage;
 import org.irods.jargon.core.packinstr.SSLEndInp;
 import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.utils.IRODSConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -173,6 +175,67 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 			log.debug("calling irods function with:{}", message);
 		}
 
+		// message may be null for some operations
+
+		byte[] messageBytes = null;
+		int messageLength = 0;
+
+		if (message != null && isNativeProtocol()
+				&& IRODSConstants.RODS_API_REQ.equals(type)) {
+			PackedMessage packedMessage = packMessageText(message);
+			messageBytes = packedMessage.getBuffer();
+			messageLength = packedMessage.getLength();
+		} else if (message != null) {
+			try {
+				messageBytes = message.getBytes(getEncoding());
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			}
+			messageLength = messageBytes.length;
+		}
+
+		return sendAndReadMessage(type, messageBytes, messageLength,
+				errorLength, bytes, byteOffset, byteBufferLength, intInfo);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol#
+	 * irodsFunctionWithMessageBytes(java.lang.String, byte[], int, byte[],
+	 * int, int, byte[], int, int, int)
+	 */
+	@Override
+	public synchronized Tag irodsFunctionWithMessageBytes(final String type,
+			final byte[] messageBytes, final int messageLength,
+			final byte[] errorBytes, final int errorOffset,
+			final int errorLength, final byte[] bytes, final int byteOffset,
+			final int byteBufferLength, final int intInfo)
+			throws JargonException {
+
+		log.debug("calling irods function with message bytes");
+
+		if (intInfo != 1201 && log.isDebugEnabled() && messageBytes != null
+				&& !isNativeProtocol()) {
+			try {
+				log.debug("calling irods function with:{}", new String(
+						messageBytes, 0, messageLength, getEncoding()));
+			} catch (UnsupportedEncodingException e) {
+				log.debug("message not logged, unsupported encoding");
+			}
+		}
+
+		return sendAndReadMessage(type, messageBytes, messageLength,
+				errorLength, bytes, byteOffset, byteBufferLength, intInfo);
+	}
+
+	private Tag sendAndReadMessage(final String type,
+			final byte[] messageBytes, final int messageLength,
+			final int errorLength, final byte[] bytes, final int byteOffset,
+			final int byteBufferLength, final int intInfo)
+			throws JargonException {
+
 		log.debug("api number is:{}", intInfo);
 
 		if (type == null || type.length() == 0) {
@@ -181,15 +244,7 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 			throw new JargonException(err);
 		}
 
-		// message may be null for some operations
-
 		try {
-			int messageLength = 0;
-
-			if (message != null) {
-				messageLength = message.getBytes(getEncoding()).length;
-			}
-
 			sendHeader(type, messageLength, errorLength, byteBufferLength,
 					intInfo);
 
@@ -200,7 +255,9 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 				getIrodsConnection().flush();
 			}
 
-			getIrodsConnection().send(message);
+			if (messageLength > 0) {
+				getIrodsConnection().send(messageBytes, 0, messageLength);
+			}
 			getIrodsConnection().flush();
 
 			if (byteBufferLength > 0) {
@@ -209,9 +266,6 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 
 			getIrodsConnection().flush();
 
-		} catch (UnsupportedEncodingException e) {
-			log.error("unsupported encoding", e);
-			throw new JargonException(e);
 		} catch (IOException e) {
 			disconnectWithForce();
 			throw new JargonException(e);
@@ -319,6 +373,7 @@ public class IRODSMidLevelProtocol extends AbstractIRODSMidLevelProtocol {
 
 		byte[] header = createHeader(type, messageLength, errorLength,
 				byteStringLength, intInfo);
+		noteMessageSent(type, intInfo);
 
 		int len = header.length;
 
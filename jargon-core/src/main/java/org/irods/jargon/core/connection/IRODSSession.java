@@ -33,6 +33,7 @@ import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
 import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManager;
+import org.irods.jargon.core.transfer.TransferBandwidthScheduler;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.utils.MiscIRODSUtils;
 import org.slf4j.Logger;
@@ -155,6 +156,22 @@ public class IRODSSession {
 	 */
 	private final DiscoveredServerPropertiesCache discoveredServerPropertiesCache = new DiscoveredServerPropertiesCache();
 
+	/**
+	 * Resource server hosts that gets and puts were rerouted to, shared by the
+	 * transfers of this session
+	 */
+	private final ReroutedHostCache reroutedHostCache = new ReroutedHostCache();
+
+	/**
+	 * Idle connections to rerouted resource servers, reused across threads
+	 */
+	private final ReroutedConnectionPool reroutedConnectionPool = new ReroutedConnectionPool();
+
+	/**
+	 * Byte rate limits and priorities shared by the transfers of this session
+	 */
+	private final TransferBandwidthScheduler transferBandwidthScheduler = new TransferBandwidthScheduler();
+
 	/**
 	 * Get the {@code JargonProperties} that contains metadata to tune the
 	 * behavior of Jargon. This will either be the default, loaded from the
@@ -227,6 +244,10 @@ public class IRODSSession {
 			transferOptions.setIntraFileStatusCallbacksTotalBytesInterval(
 					jargonProperties.getIntraFileStatusCallbacksTotalBytesInterval());
 			transferOptions.setChecksumEncoding(jargonProperties.getChecksumEncoding());
+			transferOptions.setConcurrentReplicationThreads(jargonProperties.getConcurrentReplicationThreads());
+			transferOptions.setConcurrentReplicationMaxPerResource(
+					jargonProperties.getConcurrentReplicationMaxPerResource());
+			transferOptions.setAdaptiveParallelTransfer(jargonProperties.isAdaptiveParallelTransfer());
 
 		}
 
@@ -238,7 +259,9 @@ public class IRODSSession {
 	/**
 	 * Close all sessions to iRODS that exist for this Thread. This method can
 	 * be safely called by multiple threads, as the connections are in a
-	 * {@code ThreadLocal}
+	 * {@code ThreadLocal}. The idle pooled connections to rerouted resource
+	 * servers belong to no thread, and are left for other threads, see
+	 * {@link #closeIdleReroutedConnections()}
 	 *
 	 * @throws JargonException
 	 */
@@ -629,6 +652,181 @@ public class IRODSSession {
 
 	}
 
+	/**
+	 * Give this thread an idle, pooled connection for a rerouted account, if
+	 * there is one and the thread holds no connection for the account yet, so
+	 * that the next {@link #currentConnection(IRODSAccount)} for the account
+	 * skips the connect and login. Otherwise this does nothing, and a
+	 * connection is made as usual.
+	 *
+	 * @param reroutedAccount
+	 *            {@link IRODSAccount} for the resource server a transfer was
+	 *            rerouted to
+	 * @return {@code boolean} that is {@code true} if a pooled connection was
+	 *         attached
+	 */
+	public boolean attachPooledReroutedConnection(final IRODSAccount reroutedAccount) {
+
+		if (reroutedAccount == null) {
+			throw new IllegalArgumentException("null reroutedAccount");
+		}
+
+		Map<String, AbstractIRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+		if (irodsProtocols != null && irodsProtocols.get(reroutedAccount.toString()) != null) {
+			return false;
+		}
+
+		AbstractIRODSMidLevelProtocol irodsProtocol = reroutedConnectionPool.checkOut(reroutedAccount,
+				getReroutedIdleTimeoutMillis(), getIrodsProtocolManager());
+		if (irodsProtocol == null) {
+			return false;
+		}
+
+		log.debug("attaching pooled rerouted connection for:{}", reroutedAccount);
+		if (irodsProtocols == null) {
+			irodsProtocols = new HashMap<String, AbstractIRODSMidLevelProtocol>();
+			sessionMap.set(irodsProtocols);
+		}
+		irodsProtocols.put(reroutedAccount.toString(), irodsProtocol);
+		return true;
+	}
+
+	/**
+	 * Done with the connection of this thread for a rerouted account, after a
+	 * transfer that completed cleanly. The connection is moved to the pool of
+	 * idle rerouted connections if it is still good and the pool has room for
+	 * the host, and closed otherwise. After a failed or cancelled transfer use
+	 * {@link #closeSession(IRODSAccount)} instead, as the connection may be
+	 * left part way through the transfer. The pool is closed by
+	 * {@link #closeIdleReroutedConnections()}.
+	 *
+	 * @param reroutedAccount
+	 *            {@link IRODSAccount} for the resource server a transfer was
+	 *            rerouted to
+	 * @throws JargonException
+	 *             if an error occurs closing the connection
+	 */
+	public void releaseReroutedSession(final IRODSAccount reroutedAccount) throws JargonException {
+
+		if (reroutedAccount == null) {
+			throw new IllegalArgumentException("null reroutedAccount");
+		}
+
+		final Map<String, AbstractIRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+		if (irodsProtocols == null) {
+			log.debug("no rerouted connection held, ignore");
+			return;
+		}
+
+		final AbstractIRODSMidLevelProtocol irodsProtocol = irodsProtocols.get(reroutedAccount.toString());
+		if (irodsProtocol == null) {
+			log.debug("no rerouted connection held, ignore");
+			return;
+		}
+
+		int maxIdlePerHost = getJargonProperties().getReroutedMaxIdleConnectionsPerHost();
+		if (maxIdlePerHost > 0 && irodsProtocol.isConnected()
+				&& reroutedConnectionPool.checkIn(reroutedAccount, irodsProtocol, maxIdlePerHost,
+						getReroutedIdleTimeoutMillis(), getIrodsProtocolManager())) {
+			log.debug("rerouted connection returned to pool for:{}", reroutedAccount);
+			irodsProtocols.remove(reroutedAccount.toString());
+			if (irodsProtocols.isEmpty()) {
+				sessionMap.set(null);
+			}
+			return;
+		}
+
+		closeSession(reroutedAccount);
+	}
+
+	/**
+	 * Take the connection this thread holds for an account away from the
+	 * thread, so that it may be given to another thread with
+	 * {@link #attachConnection(IRODSAccount, AbstractIRODSMidLevelProtocol)}.
+	 * The next {@link #currentConnection(IRODSAccount)} in this thread makes a
+	 * new connection. The caller owns a detached connection, and must attach
+	 * it again to use or close it.
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} of the connection
+	 * @return {@link AbstractIRODSMidLevelProtocol} that was held by this
+	 *         thread, or {@code null} if there was none
+	 */
+	public AbstractIRODSMidLevelProtocol detachConnection(final IRODSAccount irodsAccount) {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		final Map<String, AbstractIRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+		if (irodsProtocols == null) {
+			return null;
+		}
+
+		AbstractIRODSMidLevelProtocol irodsProtocol = irodsProtocols.remove(irodsAccount.toString());
+		if (irodsProtocols.isEmpty()) {
+			sessionMap.set(null);
+		}
+		return irodsProtocol;
+	}
+
+	/**
+	 * Give this thread a connection detached from another with
+	 * {@link #detachConnection(IRODSAccount)}, so that access objects for the
+	 * account use it. A connection must only be used by one thread at a time.
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} of the connection
+	 * @param irodsProtocol
+	 *            {@link AbstractIRODSMidLevelProtocol} to attach
+	 * @return {@link AbstractIRODSMidLevelProtocol} that this thread held for
+	 *         the account before, now detached, or {@code null} if there was
+	 *         none
+	 */
+	public AbstractIRODSMidLevelProtocol attachConnection(final IRODSAccount irodsAccount,
+			final AbstractIRODSMidLevelProtocol irodsProtocol) {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (irodsProtocol == null) {
+			throw new IllegalArgumentException("null irodsProtocol");
+		}
+
+		Map<String, AbstractIRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+		if (irodsProtocols == null) {
+			irodsProtocols = new HashMap<String, AbstractIRODSMidLevelProtocol>();
+			sessionMap.set(irodsProtocols);
+		}
+		return irodsProtocols.put(irodsAccount.toString(), irodsProtocol);
+	}
+
+	/**
+	 * Close all idle connections to rerouted resource servers. These are
+	 * shared by all threads of the session, so this is called when the session
+	 * is shut down, as by {@code IRODSFileSystem.close()}, rather than as each
+	 * thread closes its connections.
+	 */
+	public void closeIdleReroutedConnections() {
+		log.info("closing idle rerouted connections");
+		reroutedConnectionPool.clear(getIrodsProtocolManager());
+	}
+
+	/**
+	 * Get the cache of the resource server hosts that gets and puts were
+	 * rerouted to
+	 *
+	 * @return {@link ReroutedHostCache}
+	 */
+	public ReroutedHostCache getReroutedHostCache() {
+		return reroutedHostCache;
+	}
+
+	private long getReroutedIdleTimeoutMillis() {
+		return getJargonProperties().getReroutedConnectionIdleTimeoutSeconds() * 1000L;
+	}
+
 	/**
 	 * This method is not particularly useful, but does provide a route to get a
 	 * direct handle on the connections for this Thread in cases where such
@@ -746,6 +944,17 @@ public class IRODSSession {
 		return localChecksumComputerFactory;
 	}
 
+	/**
+	 * Get the scheduler that enforces byte rate limits on the transfers of this
+	 * session. Limits may be set globally or per account here, and per
+	 * transfer in the {@code TransferControlBlock}.
+	 *
+	 * @return {@link TransferBandwidthScheduler}
+	 */
+	public TransferBandwidthScheduler getTransferBandwidthScheduler() {
+		return transferBandwidthScheduler;
+	}
+
 	public synchronized AbstractRestartManager getRestartManager() {
 
 		if (restartManager == null) {
@@ -4,6 +4,7 @@ import org.irods.jargon.core.connection.ClientServerNegotiationPolicy.SslNegotia
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
 import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
 import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
 
 /**
@@ -579,4 +580,100 @@ public interface JargonProperties {
 	 */
 	boolean isRulesSetDestinationWhenAuto();
 
+	/**
+	 * Get the maximum number of independent requests that will be written
+	 * back-to-back on one connection before the responses are read, when using
+	 * pipelined (batched) catalog operations. A value of 1 or less disables
+	 * pipelining, so that each request waits for its response.
+	 *
+	 * @return {@code int} with the pipelined request window size
+	 */
+	int getPipelinedRequestWindowSize();
+
+	/**
+	 * Get the number of threads (and thus connections) used to replicate or
+	 * copy the data objects in a collection in parallel. A value of 1 keeps the
+	 * traditional serial behavior.
+	 *
+	 * @return {@code int} with the number of concurrent replication or copy
+	 *         threads
+	 */
+	int getConcurrentReplicationThreads();
+
+	/**
+	 * Get the maximum number of concurrent replications or copies that may
+	 * target any one storage resource
+	 *
+	 * @return {@code int} with the per-resource concurrency limit
+	 */
+	int getConcurrentReplicationMaxPerResource();
+
+	/**
+	 * Get whether parallel transfers measure their throughput and adapt the
+	 * thread count and copy buffer size for later transfers to the same host,
+	 * remembering the learned values in the DiscoveredServerPropertiesCache
+	 *
+	 * @return {@code boolean} that is {@code true} if adaptive tuning is
+	 *         enabled
+	 */
+	boolean isAdaptiveParallelTransfer();
+
+	/**
+	 * Indicates whether parallel transfers move data with NIO channels, writing
+	 * into a shared local file channel at each stream's offset. Encrypted (SSL
+	 * negotiated) parallel transfers always use the stream based threads.
+	 *
+	 * @return {@code boolean} that will be {@code true} if NIO parallel
+	 *         transfers are used
+	 */
+	boolean isUseNIOForParallelTransfers();
+
+	/**
+	 * Size in bytes of the windows of the local file that are memory mapped and
+	 * written straight to the socket by NIO parallel put threads. 0 or less
+	 * sends with {@code FileChannel.transferTo()} instead. Only used when
+	 * {@code transfer.use.nio.for.parallel} is set.
+	 *
+	 * @return {@code int} with the map window size, or 0 if mapping is not used
+	 */
+	int getParallelPutMapWindowSize();
+
+	/**
+	 * Time in seconds that the resource server host a get or put was redirected
+	 * to is cached for other transfers in the same collection and resource. 0
+	 * or less looks up the host for each transfer. Only used when redirects
+	 * are allowed.
+	 *
+	 * @return {@code int} with the route cache time to live in seconds
+	 */
+	int getReroutedHostCacheTimeToLiveSeconds();
+
+	/**
+	 * Number of idle, authenticated connections kept per redirected resource
+	 * server, so that later transfers redirected to the same server skip the
+	 * connect and login. 0 or less closes the connection after each transfer.
+	 *
+	 * @return {@code int} with the idle connections kept per host
+	 */
+	int getReroutedMaxIdleConnectionsPerHost();
+
+	/**
+	 * Time in seconds that an idle connection to a redirected resource server
+	 * is kept for reuse
+	 *
+	 * @return {@code int} with the idle timeout in seconds
+	 */
+	int getReroutedConnectionIdleTimeoutSeconds();
+
+	/**
+	 * Protocol that api messages are packed in after the startup pack. The
+	 * native binary protocol is smaller and quicker to pack than XML, but only
+	 * covers the startup, authentication, query and data object apis, see
+	 * {@link org.irods.jargon.core.packinstr.NativePackTable}.
+	 *
+	 * @return {@link ProtocolTypeEnum} with the protocol, {@code XML} by
+	 *         default
+	 */
+	ProtocolTypeEnum getProtocolType();
+
 }
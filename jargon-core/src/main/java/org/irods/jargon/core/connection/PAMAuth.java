@@ -94,6 +94,7 @@ public class PAMAuth extends AuthMechanism {
 				irodsAccount.getPort(), irodsAccount.getUserName(), tempPasswordForPam, irodsAccount.getHomeDirectory(),
 				irodsAccount.getZone(), irodsAccount.getDefaultStorageResource());
 		irodsAccountUsingTemporaryIRODSPassword.setAuthenticationScheme(AuthScheme.STANDARD);
+		irodsAccountUsingTemporaryIRODSPassword.setEndpointGroup(irodsAccount.getEndpointGroup());
 
 		log.info("derived and logging in with temporary password from a new agent:{}",
 				irodsAccountUsingTemporaryIRODSPassword);
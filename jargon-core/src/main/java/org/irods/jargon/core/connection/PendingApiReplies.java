@@ -0,0 +1,54 @@
+package org.irods.jargon.core.connection;
+
+import java.util.LinkedList;
+
+/**
+ * Api numbers of the requests sent on a connection whose replies have not
+ * been read, so that an api reply in the native protocol may be unpacked as
+ * the response of its api. Replies come back in the order the requests were
+ * sent, one for each request, so each reply takes the oldest request. A reply
+ * with no request waiting, such as the collection status messages of a
+ * recursive operation, belongs to the api of the reply before it.
+ * <p>
+ * This class is not thread safe, it is guarded by the connection.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class PendingApiReplies {
+
+	private final LinkedList<Integer> pendingApiNumbers = new LinkedList<Integer>();
+	private Integer lastApiNumber = null;
+
+	/**
+	 * Note a request sent
+	 *
+	 * @param apiNumber
+	 *            {@code int} with the api number of the request
+	 */
+	void requestSent(final int apiNumber) {
+		pendingApiNumbers.addLast(apiNumber);
+	}
+
+	/**
+	 * Take the api of a reply that has arrived
+	 *
+	 * @return {@code Integer} with the api number of the reply, or
+	 *         {@code null} if no request was sent
+	 */
+	Integer replyReceived() {
+		if (!pendingApiNumbers.isEmpty()) {
+			lastApiNumber = pendingApiNumbers.removeFirst();
+		}
+		return lastApiNumber;
+	}
+
+	/**
+	 * @return {@code int} with the count of requests whose replies have not
+	 *         arrived
+	 */
+	int getPendingCount() {
+		return pendingApiNumbers.size();
+	}
+
+}
@@ -5,6 +5,7 @@ package org.irods.jargon.core.connection;
 
 import org.irods.jargon.core.connection.ClientServerNegotiationPolicy.SslNegotiationPolicy;
 import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
 
 /**
  * Immutable object represents the options controlling the behavior of the io
@@ -70,6 +71,17 @@ public class PipelineConfiguration {
 	 */
 	private final int encryptionNumberHashRounds;
 
+	/**
+	 * Number of requests written back-to-back before responses are read in
+	 * pipelined catalog operations
+	 */
+	private final int pipelinedRequestWindowSize;
+
+	/**
+	 * Protocol api messages are packed in after the startup pack
+	 */
+	private final ProtocolTypeEnum protocolType;
+
 	/**
 	 * Static initializer method will derive an immutable
 	 * {@code PipelineConfiguration} based on the prevailing
@@ -141,6 +153,9 @@ public class PipelineConfiguration {
 		encryptionNumberHashRounds = jargonProperties
 				.getEncryptionNumberHashRounds();
 		encryptionSaltSize = jargonProperties.getEncryptionSaltSize();
+		pipelinedRequestWindowSize = jargonProperties
+				.getPipelinedRequestWindowSize();
+		protocolType = jargonProperties.getProtocolType();
 
 	}
 
@@ -352,6 +367,10 @@ public class PipelineConfiguration {
 		builder.append(primaryTcpPerformancePrefsBandwidth);
 		builder.append(", socketRenewalIntervalInSeconds=");
 		builder.append(socketRenewalIntervalInSeconds);
+		builder.append(", pipelinedRequestWindowSize=");
+		builder.append(pipelinedRequestWindowSize);
+		builder.append(", protocolType=");
+		builder.append(protocolType);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -383,4 +402,20 @@ public class PipelineConfiguration {
 		return encryptionNumberHashRounds;
 	}
 
+	/**
+	 * @return {@code int} with the number of requests written back-to-back
+	 *         before responses are read in pipelined catalog operations
+	 */
+	public int getPipelinedRequestWindowSize() {
+		return pipelinedRequestWindowSize;
+	}
+
+	/**
+	 * @return {@link ProtocolTypeEnum} with the protocol api messages are
+	 *         packed in after the startup pack
+	 */
+	public ProtocolTypeEnum getProtocolType() {
+		return protocolType;
+	}
+
 }
@@ -0,0 +1,113 @@
+/**
+ *
+ */
+package org.irods.jargon.core.connection;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.Tag;
+
+/**
+ * Result of one request sent as part of a pipelined batch by
+ * {@link AbstractIRODSMidLevelProtocol#irodsFunctionPipelined(java.util.List, int)}
+ * . Each request in the batch gets one result, in the order the requests were
+ * given, holding either the iRODS response (which may be {@code null} for
+ * operations that return no message) or the exception that iRODS reported for
+ * that request.
+ * <p>
+ * An error on one request does not stop the rest of the batch, so the caller
+ * inspects each result rather than relying on an exception being thrown.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class PipelinedRequestResult {
+
+	private final IRodsPI irodsPI;
+	private final Tag response;
+	private final JargonException exception;
+
+	/**
+	 * Create a result for a request that iRODS processed without error
+	 *
+	 * @param irodsPI
+	 *            {@link IRodsPI} that was sent
+	 * @param response
+	 *            {@link Tag} with the response, which may be {@code null}
+	 * @return {@link PipelinedRequestResult}
+	 */
+	public static PipelinedRequestResult instanceForResponse(final IRodsPI irodsPI, final Tag response) {
+		return new PipelinedRequestResult(irodsPI, response, null);
+	}
+
+	/**
+	 * Create a result for a request where iRODS returned an error
+	 *
+	 * @param irodsPI
+	 *            {@link IRodsPI} that was sent
+	 * @param exception
+	 *            {@link JargonException} derived from the iRODS error
+	 * @return {@link PipelinedRequestResult}
+	 */
+	public static PipelinedRequestResult instanceForException(final IRodsPI irodsPI,
+			final JargonException exception) {
+		if (exception == null) {
+			throw new IllegalArgumentException("null exception");
+		}
+		return new PipelinedRequestResult(irodsPI, null, exception);
+	}
+
+	private PipelinedRequestResult(final IRodsPI irodsPI, final Tag response, final JargonException exception) {
+		if (irodsPI == null) {
+			throw new IllegalArgumentException("null irodsPI");
+		}
+		this.irodsPI = irodsPI;
+		this.response = response;
+		this.exception = exception;
+	}
+
+	/**
+	 * @return {@code true} if iRODS did not report an error for the request
+	 */
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	/**
+	 * @return the {@link IRodsPI} that was sent
+	 */
+	public IRodsPI getIrodsPI() {
+		return irodsPI;
+	}
+
+	/**
+	 * @return the response {@link Tag}, or {@code null} if no message was
+	 *         returned or an error occurred
+	 */
+	public Tag getResponse() {
+		return response;
+	}
+
+	/**
+	 * @return the {@link JargonException} reported for the request, or
+	 *         {@code null} if successful
+	 */
+	public JargonException getException() {
+		return exception;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("PipelinedRequestResult [");
+		builder.append("apiNumber=");
+		builder.append(irodsPI.getApiNumber());
+		if (exception != null) {
+			builder.append(", exception=");
+			builder.append(exception);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
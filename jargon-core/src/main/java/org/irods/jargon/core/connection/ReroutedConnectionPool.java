@@ -0,0 +1,168 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Idle, authenticated connections to resource servers that transfers were
+ * rerouted to, kept by rerouted account so that the next transfer rerouted to
+ * the same host skips the connect and login. Connections idle past the
+ * timeout are closed the next time the pool is used.
+ * <p>
+ * The pool is held by the {@link IRODSSession}, which moves connections
+ * between the pool and the connections of a thread.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class ReroutedConnectionPool {
+
+	public static final Logger log = LoggerFactory.getLogger(ReroutedConnectionPool.class);
+
+	private final Map<String, LinkedList<IdleConnection>> idleConnections = new HashMap<String, LinkedList<IdleConnection>>();
+
+	/**
+	 * Take an idle connection for the rerouted account, most recently used
+	 * first
+	 *
+	 * @return {@link AbstractIRODSMidLevelProtocol} or {@code null} if there
+	 *         is none
+	 */
+	AbstractIRODSMidLevelProtocol checkOut(final IRODSAccount reroutedAccount, final long idleTimeoutMillis,
+			final IRODSProtocolManager irodsProtocolManager) {
+		List<AbstractIRODSMidLevelProtocol> expired = new ArrayList<AbstractIRODSMidLevelProtocol>();
+		AbstractIRODSMidLevelProtocol found = null;
+
+		synchronized (this) {
+			removeExpired(idleTimeoutMillis, expired);
+			LinkedList<IdleConnection> connections = idleConnections.get(buildPoolKey(reroutedAccount));
+			while (connections != null && !connections.isEmpty()) {
+				IdleConnection idleConnection = connections.removeFirst();
+				if (idleConnection.irodsProtocol.isConnected()) {
+					found = idleConnection.irodsProtocol;
+					break;
+				}
+				expired.add(idleConnection.irodsProtocol);
+			}
+		}
+
+		closeAll(expired, irodsProtocolManager);
+		return found;
+	}
+
+	/**
+	 * Keep a connection for reuse
+	 *
+	 * @return {@code true} if the connection is kept, {@code false} if there
+	 *         are already enough idle connections for the host and the caller
+	 *         should close it
+	 */
+	boolean checkIn(final IRODSAccount reroutedAccount, final AbstractIRODSMidLevelProtocol irodsProtocol,
+			final int maxIdlePerHost, final long idleTimeoutMillis, final IRODSProtocolManager irodsProtocolManager) {
+		List<AbstractIRODSMidLevelProtocol> expired = new ArrayList<AbstractIRODSMidLevelProtocol>();
+		boolean kept = false;
+
+		synchronized (this) {
+			removeExpired(idleTimeoutMillis, expired);
+			String poolKey = buildPoolKey(reroutedAccount);
+			LinkedList<IdleConnection> connections = idleConnections.get(poolKey);
+			if (connections == null) {
+				connections = new LinkedList<IdleConnection>();
+				idleConnections.put(poolKey, connections);
+			}
+
+			if (connections.size() < maxIdlePerHost) {
+				connections.addFirst(new IdleConnection(irodsProtocol));
+				kept = true;
+			}
+		}
+
+		closeAll(expired, irodsProtocolManager);
+		return kept;
+	}
+
+	/**
+	 * Close all idle connections
+	 */
+	void clear(final IRODSProtocolManager irodsProtocolManager) {
+		List<AbstractIRODSMidLevelProtocol> all = new ArrayList<AbstractIRODSMidLevelProtocol>();
+		synchronized (this) {
+			for (LinkedList<IdleConnection> connections : idleConnections.values()) {
+				for (IdleConnection idleConnection : connections) {
+					all.add(idleConnection.irodsProtocol);
+				}
+			}
+			idleConnections.clear();
+		}
+		closeAll(all, irodsProtocolManager);
+	}
+
+	synchronized int getIdleCount() {
+		int count = 0;
+		for (LinkedList<IdleConnection> connections : idleConnections.values()) {
+			count += connections.size();
+		}
+		return count;
+	}
+
+	private void removeExpired(final long idleTimeoutMillis, final List<AbstractIRODSMidLevelProtocol> expired) {
+		long now = System.currentTimeMillis();
+		Iterator<LinkedList<IdleConnection>> hostIterator = idleConnections.values().iterator();
+		while (hostIterator.hasNext()) {
+			LinkedList<IdleConnection> connections = hostIterator.next();
+			Iterator<IdleConnection> connectionIterator = connections.iterator();
+			while (connectionIterator.hasNext()) {
+				IdleConnection idleConnection = connectionIterator.next();
+				if (now - idleConnection.idleSince > idleTimeoutMillis) {
+					expired.add(idleConnection.irodsProtocol);
+					connectionIterator.remove();
+				}
+			}
+			if (connections.isEmpty()) {
+				hostIterator.remove();
+			}
+		}
+	}
+
+	private static void closeAll(final List<AbstractIRODSMidLevelProtocol> irodsProtocols,
+			final IRODSProtocolManager irodsProtocolManager) {
+		for (AbstractIRODSMidLevelProtocol irodsProtocol : irodsProtocols) {
+			try {
+				irodsProtocolManager.returnIRODSProtocol(irodsProtocol);
+			} catch (Exception e) {
+				log.warn("error closing idle rerouted connection, ignored", e);
+			}
+		}
+	}
+
+	/**
+	 * Key on the identity of the rerouted account, as the session key of
+	 * {@code IRODSAccount.toString()} leaves out the zone
+	 */
+	static String buildPoolKey(final IRODSAccount reroutedAccount) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(reroutedAccount.toString());
+		sb.append('#');
+		sb.append(reroutedAccount.getZone());
+		return sb.toString();
+	}
+
+	private static class IdleConnection {
+		private final AbstractIRODSMidLevelProtocol irodsProtocol;
+		private final long idleSince = System.currentTimeMillis();
+
+		IdleConnection(final AbstractIRODSMidLevelProtocol irodsProtocol) {
+			this.irodsProtocol = irodsProtocol;
+		}
+	}
+
+}
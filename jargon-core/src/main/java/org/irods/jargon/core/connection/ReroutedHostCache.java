@@ -0,0 +1,147 @@
+package org.irods.jargon.core.connection;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the resource server hosts that gets and puts are rerouted to, so
+ * that a batch of transfers within a collection and resource asks iRODS for
+ * the host once. The answer that no rerouting is needed is cached as well.
+ * <p>
+ * Routes are kept by the iRODS host, port and zone connected to, the kind of
+ * operation, the resource asked for, and the parent collection of the data
+ * object. A route that has gone stale, or that does not fit one object in a
+ * collection whose objects live on different resources, still works, as any
+ * server of the zone can serve any object, only less directly. Routes expire
+ * after a time to live set in the {@link JargonProperties}.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ReroutedHostCache {
+
+	public static final Logger log = LoggerFactory.getLogger(ReroutedHostCache.class);
+
+	/**
+	 * Operation type of a route for a get
+	 */
+	public static final String GET_OPERATION = "get";
+
+	/**
+	 * Operation type of a route for a put
+	 */
+	public static final String PUT_OPERATION = "put";
+
+	private final ConcurrentHashMap<String, CachedRoute> routes = new ConcurrentHashMap<String, CachedRoute>();
+
+	/**
+	 * Get a cached route
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} connected to before any rerouting
+	 * @param operation
+	 *            {@code String} with {@link #GET_OPERATION} or
+	 *            {@link #PUT_OPERATION}
+	 * @param resource
+	 *            {@code String} with the resource asked for, blank if none
+	 * @param collection
+	 *            {@code String} with the parent collection of the data object
+	 * @param timeToLiveMillis
+	 *            {@code long} with the age after which a route is not used
+	 * @return {@code String} with the host as returned by iRODS, or
+	 *         {@code null} if not cached
+	 */
+	public String getHost(final IRODSAccount irodsAccount, final String operation, final String resource,
+			final String collection, final long timeToLiveMillis) {
+		String routeKey = buildRouteKey(irodsAccount, operation, resource, collection);
+		CachedRoute cachedRoute = routes.get(routeKey);
+		if (cachedRoute == null) {
+			return null;
+		}
+
+		if (System.currentTimeMillis() - cachedRoute.cachedAt > timeToLiveMillis) {
+			log.debug("route expired:{}", routeKey);
+			routes.remove(routeKey, cachedRoute);
+			return null;
+		}
+
+		return cachedRoute.host;
+	}
+
+	/**
+	 * Cache a route
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} connected to before any rerouting
+	 * @param operation
+	 *            {@code String} with {@link #GET_OPERATION} or
+	 *            {@link #PUT_OPERATION}
+	 * @param resource
+	 *            {@code String} with the resource asked for, blank if none
+	 * @param collection
+	 *            {@code String} with the parent collection of the data object
+	 * @param host
+	 *            {@code String} with the host as returned by iRODS
+	 */
+	public void putHost(final IRODSAccount irodsAccount, final String operation, final String resource,
+			final String collection, final String host) {
+		if (host == null) {
+			return;
+		}
+		routes.put(buildRouteKey(irodsAccount, operation, resource, collection), new CachedRoute(host));
+	}
+
+	/**
+	 * Drop the routes to a host, for instance after it could not be reached
+	 *
+	 * @param host
+	 *            {@code String} with the rerouted host
+	 */
+	public void invalidateHost(final String host) {
+		Iterator<CachedRoute> iterator = routes.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().host.equals(host)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Drop all routes
+	 */
+	public void clear() {
+		routes.clear();
+	}
+
+	private static String buildRouteKey(final IRODSAccount irodsAccount, final String operation,
+			final String resource, final String collection) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getHost());
+		sb.append(':');
+		sb.append(irodsAccount.getPort());
+		sb.append(':');
+		sb.append(irodsAccount.getZone());
+		sb.append('|');
+		sb.append(operation);
+		sb.append('|');
+		sb.append(resource == null ? "" : resource);
+		sb.append('|');
+		sb.append(collection);
+		return sb.toString();
+	}
+
+	private static class CachedRoute {
+		private final String host;
+		private final long cachedAt = System.currentTimeMillis();
+
+		CachedRoute(final String host) {
+			this.host = host;
+		}
+	}
+
+}
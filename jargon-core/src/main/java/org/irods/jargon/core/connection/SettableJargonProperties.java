@@ -4,6 +4,7 @@ import org.irods.jargon.core.connection.ClientServerNegotiationPolicy.SslNegotia
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
 import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
 
 /**
  * Implementation of the {@code JargonProperties} interface that is suitable for
@@ -21,7 +22,7 @@ import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
 public class SettableJargonProperties implements JargonProperties {
 
 	private boolean useParallelTransfer = true;
-	private final boolean useNIOForParallelTransfers = false;
+	private boolean useNIOForParallelTransfers = false;
 	private int maxParallelThreads = 4;
 	private int maxFilesAndDirsQueryMax = 5000;
 	private boolean useTransferThreadsPool = false;
@@ -119,6 +120,53 @@ public class SettableJargonProperties implements JargonProperties {
 	 */
 	private boolean bypassSslCertChecks;
 
+	/**
+	 * Number of requests written back-to-back before responses are read in
+	 * pipelined catalog operations
+	 */
+	private int pipelinedRequestWindowSize = 32;
+
+	/**
+	 * Number of threads (and connections) used to replicate or copy the
+	 * contents of a collection, 1 is serial
+	 */
+	private int concurrentReplicationThreads = 1;
+
+	/**
+	 * Cap on concurrent replications or copies per target resource
+	 */
+	private int concurrentReplicationMaxPerResource = 4;
+
+	/**
+	 * Tune parallel thread count and copy buffer size from measured throughput
+	 */
+	private boolean adaptiveParallelTransfer = false;
+
+	/**
+	 * Size of memory mapped windows for NIO parallel puts, 0 to not map
+	 */
+	private int parallelPutMapWindowSize = 0;
+
+	/**
+	 * Seconds to cache the host a transfer was redirected to, 0 to not cache
+	 */
+	private int reroutedHostCacheTimeToLiveSeconds = 300;
+
+	/**
+	 * Idle connections kept per redirected resource server, 0 to not keep
+	 */
+	private int reroutedMaxIdleConnectionsPerHost = 2;
+
+	/**
+	 * Seconds an idle connection to a redirected resource server is kept
+	 */
+	private int reroutedConnectionIdleTimeoutSeconds = 30;
+
+	/**
+	 * Protocol api messages are packed in after the startup pack
+	 */
+	private ProtocolTypeEnum protocolType = ProtocolTypeEnum.XML;
+
 	/**
 	 * Construct a default properties set based on the provided initial set of
 	 * {@code JargonProperties}. This can be used to wire in properties via
@@ -207,6 +255,16 @@ public class SettableJargonProperties implements JargonProperties {
 		defaultPythonRuleEngineIdentifier = jargonProperties.getDefaultPythonRuleEngineIdentifier();
 		defaultCppRuleEngineIdentifier = jargonProperties.getDefaultCppRuleEngineIdentifier();
 		this.rulesSetDestinationWhenAuto = jargonProperties.isRulesSetDestinationWhenAuto();
+		pipelinedRequestWindowSize = jargonProperties.getPipelinedRequestWindowSize();
+		concurrentReplicationThreads = jargonProperties.getConcurrentReplicationThreads();
+		concurrentReplicationMaxPerResource = jargonProperties.getConcurrentReplicationMaxPerResource();
+		adaptiveParallelTransfer = jargonProperties.isAdaptiveParallelTransfer();
+		useNIOForParallelTransfers = jargonProperties.isUseNIOForParallelTransfers();
+		parallelPutMapWindowSize = jargonProperties.getParallelPutMapWindowSize();
+		reroutedHostCacheTimeToLiveSeconds = jargonProperties.getReroutedHostCacheTimeToLiveSeconds();
+		reroutedMaxIdleConnectionsPerHost = jargonProperties.getReroutedMaxIdleConnectionsPerHost();
+		reroutedConnectionIdleTimeoutSeconds = jargonProperties.getReroutedConnectionIdleTimeoutSeconds();
+		protocolType = jargonProperties.getProtocolType();
 	}
 
 	/*
@@ -1256,10 +1314,8 @@ public class SettableJargonProperties implements JargonProperties {
 		this.defaultPythonRuleEngineIdentifier = defaultPythonRuleEngineIdentifier;
 	}
 
-	/**
-	 * @return the useNIOForParallelTransfers
-	 */
-	public boolean isUseNIOForParallelTransfers() {
+	@Override
+	public synchronized boolean isUseNIOForParallelTransfers() {
 		return useNIOForParallelTransfers;
 	}
 
@@ -1289,4 +1345,164 @@ public class SettableJargonProperties implements JargonProperties {
 		this.rulesSetDestinationWhenAuto = rulesSetDestinationWhenAuto;
 	}
 
+	@Override
+	public synchronized int getPipelinedRequestWindowSize() {
+		return pipelinedRequestWindowSize;
+	}
+
+	/**
+	 * Set the maximum number of independent requests that will be written
+	 * back-to-back on one connection before the responses are read in pipelined
+	 * catalog operations. Values of 1 or less turn pipelining off.
+	 *
+	 * @param pipelinedRequestWindowSize
+	 *            {@code int} with the pipelined request window size
+	 */
+	public synchronized void setPipelinedRequestWindowSize(final int pipelinedRequestWindowSize) {
+		this.pipelinedRequestWindowSize = pipelinedRequestWindowSize;
+	}
+
+	@Override
+	public synchronized int getConcurrentReplicationThreads() {
+		return concurrentReplicationThreads;
+	}
+
+	/**
+	 * Set the number of threads (and thus connections) used to replicate or
+	 * copy the data objects in a collection in parallel
+	 *
+	 * @param concurrentReplicationThreads
+	 *            {@code int} with the number of concurrent replication or
+	 *            copy threads
+	 */
+	public synchronized void setConcurrentReplicationThreads(final int concurrentReplicationThreads) {
+		this.concurrentReplicationThreads = concurrentReplicationThreads;
+	}
+
+	@Override
+	public synchronized int getConcurrentReplicationMaxPerResource() {
+		return concurrentReplicationMaxPerResource;
+	}
+
+	/**
+	 * Set the maximum number of concurrent replications or copies that may
+	 * target any one storage resource
+	 *
+	 * @param concurrentReplicationMaxPerResource
+	 *            {@code int} with the per-resource concurrency limit
+	 */
+	public synchronized void setConcurrentReplicationMaxPerResource(final int concurrentReplicationMaxPerResource) {
+		this.concurrentReplicationMaxPerResource = concurrentReplicationMaxPerResource;
+	}
+
+	@Override
+	public synchronized boolean isAdaptiveParallelTransfer() {
+		return adaptiveParallelTransfer;
+	}
+
+	/**
+	 * Set whether parallel transfers adapt their thread count and copy buffer
+	 * size based on measured throughput
+	 *
+	 * @param adaptiveParallelTransfer
+	 *            {@code boolean} that is {@code true} if adaptive tuning is
+	 *            enabled
+	 */
+	public synchronized void setAdaptiveParallelTransfer(final boolean adaptiveParallelTransfer) {
+		this.adaptiveParallelTransfer = adaptiveParallelTransfer;
+	}
+
+	/**
+	 * Set whether parallel transfers use NIO channels
+	 *
+	 * @param useNIOForParallelTransfers
+	 *            {@code boolean} that will be {@code true} if NIO parallel
+	 *            transfers are used
+	 */
+	public synchronized void setUseNIOForParallelTransfers(final boolean useNIOForParallelTransfers) {
+		this.useNIOForParallelTransfers = useNIOForParallelTransfers;
+	}
+
+	@Override
+	public synchronized int getParallelPutMapWindowSize() {
+		return parallelPutMapWindowSize;
+	}
+
+	/**
+	 * Set the size of the memory mapped windows used by NIO parallel puts
+	 *
+	 * @param parallelPutMapWindowSize
+	 *            {@code int} with the map window size, or 0 if mapping is not
+	 *            used
+	 */
+	public synchronized void setParallelPutMapWindowSize(final int parallelPutMapWindowSize) {
+		this.parallelPutMapWindowSize = parallelPutMapWindowSize;
+	}
+
+	@Override
+	public synchronized int getReroutedHostCacheTimeToLiveSeconds() {
+		return reroutedHostCacheTimeToLiveSeconds;
+	}
+
+	/**
+	 * Set the time the host a transfer was redirected to is cached
+	 *
+	 * @param reroutedHostCacheTimeToLiveSeconds
+	 *            {@code int} with the time to live in seconds, 0 to look up
+	 *            the host for each transfer
+	 */
+	public synchronized void setReroutedHostCacheTimeToLiveSeconds(final int reroutedHostCacheTimeToLiveSeconds) {
+		this.reroutedHostCacheTimeToLiveSeconds = reroutedHostCacheTimeToLiveSeconds;
+	}
+
+	@Override
+	public synchronized int getReroutedMaxIdleConnectionsPerHost() {
+		return reroutedMaxIdleConnectionsPerHost;
+	}
+
+	/**
+	 * Set the number of idle connections kept per redirected resource server
+	 *
+	 * @param reroutedMaxIdleConnectionsPerHost
+	 *            {@code int} with the idle connections kept, 0 to close after
+	 *            each transfer
+	 */
+	public synchronized void setReroutedMaxIdleConnectionsPerHost(final int reroutedMaxIdleConnectionsPerHost) {
+		this.reroutedMaxIdleConnectionsPerHost = reroutedMaxIdleConnectionsPerHost;
+	}
+
+	@Override
+	public synchronized int getReroutedConnectionIdleTimeoutSeconds() {
+		return reroutedConnectionIdleTimeoutSeconds;
+	}
+
+	/**
+	 * Set the time an idle connection to a redirected resource server is kept
+	 *
+	 * @param reroutedConnectionIdleTimeoutSeconds
+	 *            {@code int} with the idle timeout in seconds
+	 */
+	public synchronized void setReroutedConnectionIdleTimeoutSeconds(final int reroutedConnectionIdleTimeoutSeconds) {
+		this.reroutedConnectionIdleTimeoutSeconds = reroutedConnectionIdleTimeoutSeconds;
+	}
+
+	@Override
+	public synchronized ProtocolTypeEnum getProtocolType() {
+		return protocolType;
+	}
+
+	/**
+	 * Set the protocol api messages are packed in, used by connections made
+	 * after the change
+	 *
+	 * @param protocolType
+	 *            {@link ProtocolTypeEnum} with the protocol
+	 */
+	public synchronized void setProtocolType(final ProtocolTypeEnum protocolType) {
+		if (protocolType == null) {
+			throw new IllegalArgumentException("null protocolType");
+		}
+		this.protocolType = protocolType;
+	}
+
 }
@@ -15,7 +15,7 @@ import org.slf4j.LoggerFactory;
  * @author Mike Conway - DICE (www.irods.org)
  *
  */
-public abstract class AbstractIRODSPackingInstruction implements IRodsPI {
+public abstract class AbstractIRODSPackingInstruction implements StreamingPackingInstruction {
 
 	public static final String KEY_VAL_PAIR_PI = "KeyValPair_PI";
 	public static final String SS_LEN = "ssLen";
@@ -206,6 +206,83 @@ public abstract class AbstractIRODSPackingInstruction implements IRodsPI {
 
 	}
 
+	/**
+	 * Write the {@code Tag} structure of {@link #getTagValue()} into the
+	 * writer, without turning it into a {@code String}. Packing instructions
+	 * sent often override this to write their tags directly.
+	 *
+	 * @see org.irods.jargon.core.packinstr.StreamingPackingInstruction#writeTags
+	 *      (org.irods.jargon.core.packinstr.TagWriter)
+	 */
+	@Override
+	public void writeTags(final TagWriter tagWriter) throws JargonException {
+
+		Tag message = getTagValue();
+
+		if (message == null) {
+			return;
+		}
+
+		tagWriter.writeTag(message);
+
+	}
+
+	/**
+	 * Write a KeyValPair_PI tag with the same content as
+	 * {@link #createKeyValueTag(List)}
+	 *
+	 * @param tagWriter
+	 *            {@link TagWriter} to write to
+	 * @param kvps
+	 *            {@code List<KeyValuePair>} with the data to be written
+	 * @throws JargonException
+	 */
+	protected void writeKeyValueTag(final TagWriter tagWriter,
+			final List<KeyValuePair> kvps) throws JargonException {
+
+		if (kvps == null) {
+			throw new JargonException("kvps are null");
+		}
+
+		tagWriter.startTag(KEY_VAL_PAIR_PI);
+		tagWriter.writeTag(SS_LEN, kvps.size());
+		for (KeyValuePair kvp : kvps) {
+			tagWriter.writeTag(KEYWORD, kvp.getKey());
+		}
+		for (KeyValuePair kvp : kvps) {
+			tagWriter.writeTag(S_VALUE, kvp.getValue());
+		}
+		tagWriter.endTag(KEY_VAL_PAIR_PI);
+	}
+
+	/**
+	 * Write an InxValPair_PI tag with the same content as
+	 * {@link #createInxValueTag(List)}
+	 *
+	 * @param tagWriter
+	 *            {@link TagWriter} to write to
+	 * @param ivps
+	 *            {@code List<InxVal>} with the data to be written
+	 * @throws JargonException
+	 */
+	protected void writeInxValueTag(final TagWriter tagWriter,
+			final List<InxVal> ivps) throws JargonException {
+
+		if (ivps == null) {
+			throw new JargonException("ivps is null");
+		}
+
+		tagWriter.startTag(INX_VAL_PAIR_PI);
+		tagWriter.writeTag(IS_LEN, ivps.size());
+		for (InxVal ivp : ivps) {
+			tagWriter.writeTag(INX, ivp.getName().intValue());
+		}
+		for (InxVal ivp : ivps) {
+			tagWriter.writeTag(S_VALUE, ivp.getValue());
+		}
+		tagWriter.endTag(INX_VAL_PAIR_PI);
+	}
+
 	/**
 	 * Abstract method returns the {@code Tag} structure for the given
 	 * packing instruction. Implemented by the specific subclass.
@@ -39,8 +39,30 @@ public class DataObjInpForChecksum extends AbstractIRODSPackingInstruction {
 	private final String resourceName;
 	private final int replicaNumber;
 
-	// public static DataObjInpForChecksum instanceForChecksumDataObject(final
-	// String irodsAbsolutePath )
+	/**
+	 * Create an instance of the protocol for a checksum of a data object,
+	 * computed by the server
+	 *
+	 * @param fileAbsolutePath
+	 *            {@code String} with the absolute path to the data object
+	 * @param resourceName
+	 *            {@code String} with the resource holding the replica to
+	 *            checksum, blank if not specified
+	 * @param replicaNumber
+	 *            {@code int} with the replica to checksum, used if no resource
+	 *            is given, -1 if not specified
+	 * @param checksumOptions
+	 *            {@link ChecksumOptions} for the checksum
+	 * @return {@link DataObjInpForChecksum}
+	 */
+	public static final DataObjInpForChecksum instance(
+			final String fileAbsolutePath, final String resourceName,
+			final int replicaNumber, final ChecksumOptions checksumOptions) {
+		DataObjInpForChecksum dataObjInp = new DataObjInpForChecksum(
+				fileAbsolutePath, resourceName, replicaNumber, checksumOptions);
+		dataObjInp.setApiNumber(CHECKSUM_API_NBR);
+		return dataObjInp;
+	}
 
 	private DataObjInpForChecksum(final String fileAbsolutePath,
 			final String resourceName, final int replicaNumber,
@@ -105,7 +127,8 @@ public class DataObjInpForChecksum extends AbstractIRODSPackingInstruction {
 		if (!resourceName.isEmpty()) {
 			kvps.add(KeyValuePair.instance(RESC_NAME_KW, resourceName));
 		} else if (replicaNumber > -1) {
-			kvps.add(KeyValuePair.instance(REPL_NUM_KW, resourceName));
+			kvps.add(KeyValuePair.instance(REPL_NUM_KW,
+					String.valueOf(replicaNumber)));
 		}
 
 		/*
@@ -191,21 +191,7 @@ public class GenQueryInp extends AbstractIRODSPackingInstruction implements
 				new Tag(CONTINUE_INX, continueIndex), // new query
 				new Tag(PARTIAL_START_INDEX, partialStartIndex) });
 
-		int optionVal = 0;
-
-		if (!getTranslatedIRODSQuery().isDistinct()) {
-			optionVal += 1;
-		}
-
-		if (getTranslatedIRODSQuery().isUpperCase()) {
-			optionVal += UPPER_CASE_WHERE;
-		}
-
-		if (getTranslatedIRODSQuery().isComputeTotalRowCount()) {
-			optionVal += RETURN_TOTAL_ROW_COUNT;
-		}
-
-		message.addTag(new Tag(IRODSConstants.options, optionVal));
+		message.addTag(new Tag(IRODSConstants.options, computeOptions()));
 
 		/*
 		 * If a zoneName is specified, this means the query is for another
@@ -220,10 +206,8 @@ public class GenQueryInp extends AbstractIRODSPackingInstruction implements
 		}
 
 		Tag[] subTags = null;
-		int[] orderByFlags = new int[translatedIRODSQuery.getSelectFields()
-				.size()];
+		int[] selectValues = computeSelectValues();
 		int j = 1;
-		int k = 0;
 
 		subTags = new Tag[translatedIRODSQuery.getSelectFields().size() * 2 + 1];
 		subTags[0] = new Tag(IILEN, translatedIRODSQuery.getSelectFields()
@@ -232,6 +216,130 @@ public class GenQueryInp extends AbstractIRODSPackingInstruction implements
 		for (GenQuerySelectField select : translatedIRODSQuery
 				.getSelectFields()) {
 			subTags[j] = new Tag(INX, select.getSelectFieldNumericTranslation());
+			j++;
+		}
+
+		for (int selectValue : selectValues) {
+			subTags[j] = new Tag(IVALUE, selectValue);
+			j++;
+		}
+
+		message.addTag(new Tag(INX_IVAL_PAIR_PI, subTags));
+
+		if (translatedIRODSQuery.getTranslatedQueryConditions().size() > 0) {
+
+			// package the conditions
+
+			subTags = new Tag[translatedIRODSQuery
+					.getTranslatedQueryConditions().size() * 2 + 1];
+			subTags[0] = new Tag(ISLEN, translatedIRODSQuery
+					.getTranslatedQueryConditions().size());
+			j = 1;
+			for (TranslatedGenQueryCondition queryCondition : translatedIRODSQuery
+					.getTranslatedQueryConditions()) {
+				subTags[j] = new Tag(INX,
+						queryCondition.getColumnNumericTranslation());
+				j++;
+			}
+			for (TranslatedGenQueryCondition queryCondition : translatedIRODSQuery
+					.getTranslatedQueryConditions()) {
+				// New for loop because they have to be in a certain order...
+				subTags[j] = new Tag(SVALUE, buildConditionValue(queryCondition));
+				j++;
+			}
+			message.addTag(new Tag(INX_VAL_PAIR_PI, subTags));
+		} else {
+			// need this tag, just create a blank one
+			message.addTag(new Tag(INX_VAL_PAIR_PI, new Tag(ISLEN, 0)));
+		}
+
+		return message;
+	}
+
+	/**
+	 * Write the same message as {@link #getTagValue()} without building the
+	 * tags, as queries are sent often and may have many selects and
+	 * conditions
+	 *
+	 * @see org.irods.jargon.core.packinstr.AbstractIRODSPackingInstruction#writeTags
+	 *      (org.irods.jargon.core.packinstr.TagWriter)
+	 */
+	@Override
+	public void writeTags(final TagWriter tagWriter) throws JargonException {
+		tagWriter.startTag(PI_TAG);
+		tagWriter.writeTag(MAX_ROWS, maxRowCount);
+		tagWriter.writeTag(CONTINUE_INX, continueIndex);
+		tagWriter.writeTag(PARTIAL_START_INDEX, partialStartIndex);
+		tagWriter.writeTag(IRODSConstants.options, computeOptions());
+
+		tagWriter.startTag(IRODSConstants.KeyValPair_PI);
+		if (zoneName == null || zoneName.isEmpty()) {
+			tagWriter.writeTag(IRODSConstants.ssLen, 0);
+		} else {
+			tagWriter.writeTag(IRODSConstants.ssLen, 1);
+			tagWriter.writeTag(IRODSConstants.keyWord, "zone");
+			tagWriter.writeTag(IRODSConstants.svalue, zoneName);
+		}
+		tagWriter.endTag(IRODSConstants.KeyValPair_PI);
+
+		int[] selectValues = computeSelectValues();
+		tagWriter.startTag(INX_IVAL_PAIR_PI);
+		tagWriter.writeTag(IILEN, translatedIRODSQuery.getSelectFields().size());
+		for (GenQuerySelectField select : translatedIRODSQuery
+				.getSelectFields()) {
+			tagWriter.writeTag(INX, select.getSelectFieldNumericTranslation());
+		}
+		for (int selectValue : selectValues) {
+			tagWriter.writeTag(IVALUE, selectValue);
+		}
+		tagWriter.endTag(INX_IVAL_PAIR_PI);
+
+		tagWriter.startTag(INX_VAL_PAIR_PI);
+		tagWriter.writeTag(ISLEN, translatedIRODSQuery
+				.getTranslatedQueryConditions().size());
+		for (TranslatedGenQueryCondition queryCondition : translatedIRODSQuery
+				.getTranslatedQueryConditions()) {
+			tagWriter.writeTag(INX,
+					queryCondition.getColumnNumericTranslation());
+		}
+		for (TranslatedGenQueryCondition queryCondition : translatedIRODSQuery
+				.getTranslatedQueryConditions()) {
+			tagWriter.writeTag(SVALUE, buildConditionValue(queryCondition));
+		}
+		tagWriter.endTag(INX_VAL_PAIR_PI);
+
+		tagWriter.endTag(PI_TAG);
+	}
+
+	private int computeOptions() throws JargonException {
+		int optionVal = 0;
+
+		if (!getTranslatedIRODSQuery().isDistinct()) {
+			optionVal += 1;
+		}
+
+		if (getTranslatedIRODSQuery().isUpperCase()) {
+			optionVal += UPPER_CASE_WHERE;
+		}
+
+		if (getTranslatedIRODSQuery().isComputeTotalRowCount()) {
+			optionVal += RETURN_TOTAL_ROW_COUNT;
+		}
+
+		return optionVal;
+	}
+
+	/**
+	 * @return {@code int[]} with the ivalue of each select, giving the order
+	 *         by or the aggregate of the select
+	 */
+	private int[] computeSelectValues() throws JargonException {
+		int[] orderByFlags = new int[translatedIRODSQuery.getSelectFields()
+				.size()];
+		int k = 0;
+
+		for (GenQuerySelectField select : translatedIRODSQuery
+				.getSelectFields()) {
 
 			// see if there is a matching order by field and twiddle the bits
 
@@ -250,9 +358,10 @@ public class GenQueryInp extends AbstractIRODSPackingInstruction implements
 
 			}
 			orderByFlags[k++] = orderByFlag;
-			j++;
 		}
 
+		int[] selectValues = new int[orderByFlags.length];
+		int i = 0;
 		k = 0;
 		for (GenQuerySelectField select : translatedIRODSQuery
 				.getSelectFields()) {
@@ -280,41 +389,21 @@ public class GenQueryInp extends AbstractIRODSPackingInstruction implements
 								+ select.getSelectFieldType());
 			}
 
-			subTags[j] = new Tag(IVALUE, val);
-			j++;
+			selectValues[i++] = val;
 		}
 
-		message.addTag(new Tag(INX_IVAL_PAIR_PI, subTags));
-
-		if (translatedIRODSQuery.getTranslatedQueryConditions().size() > 0) {
-
-			// package the conditions
-
-			subTags = new Tag[translatedIRODSQuery
-					.getTranslatedQueryConditions().size() * 2 + 1];
-			subTags[0] = new Tag(ISLEN, translatedIRODSQuery
-					.getTranslatedQueryConditions().size());
-			j = 1;
-			for (TranslatedGenQueryCondition queryCondition : translatedIRODSQuery
-					.getTranslatedQueryConditions()) {
-				subTags[j] = new Tag(INX,
-						queryCondition.getColumnNumericTranslation());
-				j++;
-			}
-			for (TranslatedGenQueryCondition queryCondition : translatedIRODSQuery
-					.getTranslatedQueryConditions()) {
-				// New for loop because they have to be in a certain order...
-				subTags[j] = new Tag(SVALUE, " " + queryCondition.getOperator()
-						+ " " + queryCondition.getValue() + " ");
-				j++;
-			}
-			message.addTag(new Tag(INX_VAL_PAIR_PI, subTags));
-		} else {
-			// need this tag, just create a blank one
-			message.addTag(new Tag(INX_VAL_PAIR_PI, new Tag(ISLEN, 0)));
-		}
+		return selectValues;
+	}
 
-		return message;
+	private static String buildConditionValue(
+			final TranslatedGenQueryCondition queryCondition) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(' ');
+		sb.append(queryCondition.getOperator());
+		sb.append(' ');
+		sb.append(queryCondition.getValue());
+		sb.append(' ');
+		return sb.toString();
 	}
 
 }
@@ -0,0 +1,237 @@
+package org.irods.jargon.core.packinstr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.irods.jargon.core.utils.IRODSConstants;
+
+/**
+ * Definitions of the packing instructions that may be sent and received in the
+ * iRODS native binary protocol, in the syntax of {@code rodsPackTable.h} on the
+ * server, along with the packing instruction of the response of each api.
+ * <p>
+ * The native protocol is only used for api requests and replies. The startup
+ * pack, client server negotiation and version messages are XML in both
+ * protocols. The table covers the startup, authentication (standard, PAM and
+ * the auth plugin request), general and specific query, data object open,
+ * create, delete, copy, rename, checksum, get, put and object stat, and opened
+ * data object read, write, seek and close apis. Other apis, for instance
+ * collection operations and metadata, are not covered, and fail with an
+ * exception when sent over a connection using the native protocol.
+ * <p>
+ * This class is immutable and thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class NativePackTable {
+
+	/**
+	 * What a {@code null} pointer is packed as in the native protocol, followed
+	 * by a zero byte
+	 */
+	public static final String NULL_POINTER = "%@#ANULLSTR$%";
+
+	private static final Pattern ITEM_PATTERN = Pattern
+			.compile("(int|double|str|bin|struct)\\s+(\\*?)\\s*(\\w+)((?:\\[\\w+\\]|\\(\\w+\\))*)");
+	private static final Pattern DIMENSION_PATTERN = Pattern
+			.compile("[\\[(](\\w+)[\\])]");
+
+	private static final Map<String, Integer> CONSTANTS = new HashMap<String, Integer>();
+	private static final Map<String, List<PackItem>> STRUCTS = new HashMap<String, List<PackItem>>();
+	private static final Map<Integer, String> API_OUTPUTS = new HashMap<Integer, String>();
+
+	static {
+		CONSTANTS.put("NAME_LEN", 64);
+		CONSTANTS.put("LONG_NAME_LEN", 256);
+		CONSTANTS.put("MAX_NAME_LEN", 1088);
+		CONSTANTS.put("ERR_MSG_LEN", 1024);
+		CONSTANTS.put("CHALLENGE_LEN", 64);
+		CONSTANTS.put("RESPONSE_LEN", 16);
+		CONSTANTS.put("TIME_LEN", 32);
+		CONSTANTS.put("MAX_SQL_ATTR", 50);
+
+		define("INT_PI", "int myInt;");
+		define("STR_PI", "str myStr;");
+		define("KeyValPair_PI",
+				"int ssLen; str *keyWord[ssLen]; str *svalue[ssLen];");
+		define("InxIvalPair_PI",
+				"int iiLen; int *inx(iiLen); int *ivalue(iiLen);");
+		define("InxValPair_PI",
+				"int isLen; int *inx(isLen); str *svalue[isLen];");
+		define("RErrMsg_PI", "int status; str msg[ERR_MSG_LEN];");
+		define("RError_PI", "int count; struct *RErrMsg_PI[count];");
+
+		// startup and authentication
+		define("authRequestOut_PI", "bin *challenge(CHALLENGE_LEN);");
+		define("authResponseInp_PI",
+				"bin *response(RESPONSE_LEN); str *username;");
+		define("pamAuthRequestInp_PI",
+				"str *pamUser; str *pamPassword; int timeToLive;");
+		define("pamAuthRequestOut_PI", "str *irodsPamPassword;");
+		define("authPlugReqInp_PI",
+				"str auth_scheme_[NAME_LEN]; str context_[MAX_NAME_LEN];");
+		define("authPlugReqOut_PI", "str result_[MAX_NAME_LEN];");
+		define("sslStartInp_PI", "str *arg0;");
+		define("sslEndInp_PI", "str *arg0;");
+
+		// query
+		define("GenQueryInp_PI",
+				"int maxRows; int continueInx; int partialStartIndex; int options; "
+						+ "struct KeyValPair_PI; struct InxIvalPair_PI; struct InxValPair_PI;");
+		define("SqlResult_PI",
+				"int attriInx; int reslen; str *value(rowCnt)(reslen);");
+		define("GenQueryOut_PI",
+				"int rowCnt; int attriCnt; int continueInx; int totalRowCount; "
+						+ "struct SqlResult_PI[MAX_SQL_ATTR];");
+		define("specificQueryInp_PI",
+				"str *sql; str *arg1; str *arg2; str *arg3; str *arg4; str *arg5; "
+						+ "str *arg6; str *arg7; str *arg8; str *arg9; str *arg10; "
+						+ "int maxRows; int continueInx; int rowOffset; int options; "
+						+ "struct KeyValPair_PI;");
+
+		// data objects
+		define("SpecColl_PI",
+				"int collClass; int type; str collection[MAX_NAME_LEN]; "
+						+ "str objPath[MAX_NAME_LEN]; str resource[NAME_LEN]; "
+						+ "str rescHier[MAX_NAME_LEN]; str phyPath[MAX_NAME_LEN]; "
+						+ "str cacheDir[MAX_NAME_LEN]; int cacheDirty; int replNum;");
+		define("DataObjInp_PI",
+				"str objPath[MAX_NAME_LEN]; int createMode; int openFlags; "
+						+ "double offset; double dataSize; int numThreads; int oprType; "
+						+ "struct *SpecColl_PI; struct KeyValPair_PI;");
+		define("DataObjCopyInp_PI", "struct DataObjInp_PI; struct DataObjInp_PI;");
+		define("OpenedDataObjInp_PI",
+				"int l1descInx; int len; int whence; int oprType; double offset; "
+						+ "double bytesWritten; struct KeyValPair_PI;");
+		define("fileLseekOut_PI", "double offset;");
+		define("PortList_PI",
+				"int portNum; int cookie; int sock; int windowSize; "
+						+ "str hostAddr[LONG_NAME_LEN];");
+		define("RodsObjStat_PI",
+				"double objSize; int objType; int dataMode; str dataId[NAME_LEN]; "
+						+ "str chksum[NAME_LEN]; str ownerName[NAME_LEN]; "
+						+ "str ownerZone[NAME_LEN]; str createTime[TIME_LEN]; "
+						+ "str modifyTime[TIME_LEN]; struct *SpecColl_PI; "
+						+ "str rescHier[MAX_NAME_LEN];");
+		define("PortalOprOut_PI",
+				"int status; int l1descInx; int numThreads; str chksum[NAME_LEN]; "
+						+ "struct PortList_PI;");
+
+		API_OUTPUTS.put(GenQueryInp.API_NBR, "GenQueryOut_PI");
+		API_OUTPUTS.put(SpecificQueryInp.SPECIFIC_QUERY_API_NBR,
+				"GenQueryOut_PI");
+		API_OUTPUTS.put(IRODSConstants.AUTH_REQUEST_AN, "authRequestOut_PI");
+		API_OUTPUTS.put(PamAuthRequestInp.PAM_API_NBR, "pamAuthRequestOut_PI");
+		API_OUTPUTS.put(AuthReqPluginRequestInp.AUTH_REQ_API_NBR,
+				"authPlugReqOut_PI");
+		API_OUTPUTS.put(OpenedDataObjInp.SEEK_API_NBR, "fileLseekOut_PI");
+		API_OUTPUTS.put(DataObjInp.PUT_FILE_API_NBR, "PortalOprOut_PI");
+		API_OUTPUTS.put(DataObjInp.GET_FILE_API_NBR, "PortalOprOut_PI");
+		API_OUTPUTS.put(DataObjInp.CHECKSUM_API_NBR, "STR_PI");
+		API_OUTPUTS.put(DataObjInpForObjStat.OBJ_STAT_API_NBR,
+				"RodsObjStat_PI");
+		API_OUTPUTS.put(DataObjInp.GET_HOST_FOR_GET_API_NBR, "STR_PI");
+		API_OUTPUTS.put(DataObjInp.GET_HOST_FOR_PUT_API_NBR, "STR_PI");
+	}
+
+	private NativePackTable() {
+	}
+
+	/**
+	 * @param structName
+	 *            {@code String} with the name of a packing instruction, such
+	 *            as {@code GenQueryInp_PI}
+	 * @return {@code boolean} that is {@code true} if the packing instruction
+	 *         may be packed in the native protocol
+	 */
+	public static boolean isDefined(final String structName) {
+		return STRUCTS.containsKey(structName);
+	}
+
+	/**
+	 * @param apiNumber
+	 *            {@code int} with an api number
+	 * @return {@code String} with the name of the packing instruction of the
+	 *         response of the api, or {@code null} if it is not known
+	 */
+	public static String getOutputStructName(final int apiNumber) {
+		return API_OUTPUTS.get(apiNumber);
+	}
+
+	static List<PackItem> getItems(final String structName) {
+		return STRUCTS.get(structName);
+	}
+
+	private static void define(final String structName, final String definition) {
+		List<PackItem> items = new ArrayList<PackItem>();
+		for (String itemDefinition : definition.split(";")) {
+			itemDefinition = itemDefinition.trim();
+			if (itemDefinition.isEmpty()) {
+				continue;
+			}
+
+			Matcher matcher = ITEM_PATTERN.matcher(itemDefinition);
+			if (!matcher.matches()) {
+				throw new IllegalStateException("bad pack table item:"
+						+ itemDefinition);
+			}
+
+			List<String> dimensions = new ArrayList<String>();
+			Matcher dimensionMatcher = DIMENSION_PATTERN.matcher(matcher
+					.group(4));
+			while (dimensionMatcher.find()) {
+				dimensions.add(dimensionMatcher.group(1));
+			}
+
+			items.add(new PackItem(PackType.valueOf(matcher.group(1)
+					.toUpperCase()), matcher.group(3), !matcher.group(2)
+					.isEmpty(), dimensions));
+		}
+		STRUCTS.put(structName, Collections.unmodifiableList(items));
+	}
+
+	enum PackType {
+		INT, DOUBLE, STR, BIN, STRUCT
+	}
+
+	/**
+	 * One item of a packing instruction. The name is the member name, or the
+	 * packing instruction name of a struct, as in the XML protocol.
+	 */
+	static final class PackItem {
+		final PackType type;
+		final String name;
+		final boolean pointer;
+		final List<String> dimensions;
+
+		PackItem(final PackType type, final String name,
+				final boolean pointer, final List<String> dimensions) {
+			this.type = type;
+			this.name = name;
+			this.pointer = pointer;
+			this.dimensions = dimensions;
+		}
+
+		/**
+		 * @return {@code Integer} with the value of a dimension that is a
+		 *         constant, or {@code null} if it is the name of an earlier
+		 *         item
+		 */
+		static Integer constantValue(final String dimension) {
+			if (CONSTANTS.containsKey(dimension)) {
+				return CONSTANTS.get(dimension);
+			}
+			if (dimension.matches("\\d+")) {
+				return Integer.valueOf(dimension);
+			}
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,326 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.NativePackTable.PackItem;
+import org.irods.jargon.core.packinstr.NativePackTable.PackType;
+import org.irods.jargon.core.utils.Base64;
+
+/**
+ * Reusable byte sink that packs a {@link Tag} tree in the iRODS native binary
+ * protocol, following the definitions in {@link NativePackTable}. The tag
+ * tree is the same one that is sent as XML, so any packing instruction whose
+ * definition is in the table may be packed.
+ * <p>
+ * As in {@code packStruct()} on the server, integers are 4 bytes and doubles
+ * 8 bytes in network order, strings are encoded and ended with a zero byte,
+ * binary values are sent as is, and {@code null} pointers, including arrays of
+ * length zero, are sent as {@link NativePackTable#NULL_POINTER}. Nothing is
+ * padded. A missing tag is packed as zero or an empty string, or a
+ * {@code null} pointer.
+ * <p>
+ * A connection keeps one packer and calls {@link #reset()} before each
+ * message. This class is not thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class NativePacker implements PackedMessage {
+
+	private final String encoding;
+	private byte[] buffer = new byte[TagWriter.DEFAULT_CAPACITY];
+	private int length = 0;
+
+	/**
+	 * Create a packer
+	 *
+	 * @param encoding
+	 *            {@code String} with the encoding of the connection
+	 */
+	public NativePacker(final String encoding) {
+		if (encoding == null || encoding.isEmpty()) {
+			throw new IllegalArgumentException("null or empty encoding");
+		}
+
+		if (!Charset.isSupported(encoding)) {
+			throw new IllegalArgumentException("unsupported encoding:"
+					+ encoding);
+		}
+
+		this.encoding = encoding;
+	}
+
+	/**
+	 * Empty the packer for the next message
+	 */
+	public void reset() {
+		if (buffer.length > TagWriter.MAX_RETAINED_CAPACITY) {
+			buffer = new byte[TagWriter.DEFAULT_CAPACITY];
+		}
+		length = 0;
+	}
+
+	/**
+	 * Pack a message
+	 *
+	 * @param tag
+	 *            {@link Tag} with the message, named after a packing
+	 *            instruction in the {@link NativePackTable}
+	 * @throws JargonException
+	 *             if the packing instruction is not in the table, or a value
+	 *             does not fit
+	 */
+	public void pack(final Tag tag) throws JargonException {
+		if (tag == null) {
+			throw new IllegalArgumentException("null tag");
+		}
+
+		packStruct(tag.getName(), tag, null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.packinstr.PackedMessage#getBuffer()
+	 */
+	@Override
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.packinstr.PackedMessage#getLength()
+	 */
+	@Override
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return {@code String} describing the message, for logging
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("native message of ");
+		sb.append(length);
+		sb.append(" bytes");
+		return sb.toString();
+	}
+
+	private void packStruct(final String structName, final Tag tag,
+			final NativeScope parentScope) throws JargonException {
+		List<PackItem> items = NativePackTable.getItems(structName);
+		if (items == null) {
+			throw new JargonException(
+					"packing instruction is not supported in the native protocol:"
+							+ structName);
+		}
+
+		NativeScope scope = new NativeScope(parentScope);
+		Map<String, Integer> nextIndexes = new HashMap<String, Integer>();
+
+		for (PackItem item : items) {
+			if (item.type == PackType.STRUCT) {
+				packStructItem(item, tag, scope, nextIndexes);
+			} else if (!item.pointer) {
+				if (item.type == PackType.INT) {
+					int value = intValue(nextTag(tag, item.name, nextIndexes));
+					scope.put(item.name, value);
+					writeInt(value);
+				} else if (item.type == PackType.DOUBLE) {
+					writeLong(longValue(nextTag(tag, item.name, nextIndexes)));
+				} else if (item.type == PackType.STR) {
+					Tag valueTag = nextTag(tag, item.name, nextIndexes);
+					String value = valueTag == null
+							|| valueTag.getStringValue() == null ? ""
+							: valueTag.getStringValue();
+					writeString(value, item.dimensions.isEmpty() ? 0 : scope
+							.resolve(item.dimensions.get(0)));
+				} else {
+					throw new JargonException("unsupported pack item:"
+							+ item.name);
+				}
+			} else if (item.type == PackType.BIN) {
+				Tag valueTag = nextTag(tag, item.name, nextIndexes);
+				if (valueTag == null || valueTag.getStringValue() == null) {
+					writeNullPointer();
+				} else {
+					writeBinary(Base64.fromString(valueTag.getStringValue()),
+							scope.resolve(item.dimensions.get(0)));
+				}
+			} else if (item.dimensions.isEmpty()) {
+				// single string
+				Tag valueTag = nextTag(tag, item.name, nextIndexes);
+				if (valueTag == null || valueTag.getStringValue() == null) {
+					writeNullPointer();
+				} else {
+					writeString(valueTag.getStringValue(), 0);
+				}
+			} else {
+				int count = scope.resolve(item.dimensions.get(0));
+				if (count <= 0) {
+					writeNullPointer();
+					continue;
+				}
+				for (int i = 0; i < count; i++) {
+					Tag valueTag = nextTag(tag, item.name, nextIndexes);
+					if (item.type == PackType.INT) {
+						writeInt(intValue(valueTag));
+					} else if (item.type == PackType.DOUBLE) {
+						writeLong(longValue(valueTag));
+					} else {
+						writeString(valueTag == null
+								|| valueTag.getStringValue() == null ? ""
+								: valueTag.getStringValue(), 0);
+					}
+				}
+			}
+		}
+	}
+
+	private void packStructItem(final PackItem item, final Tag tag,
+			final NativeScope scope, final Map<String, Integer> nextIndexes)
+			throws JargonException {
+		if (item.dimensions.isEmpty()) {
+			Tag structTag = nextTag(tag, item.name, nextIndexes);
+			if (structTag == null && item.pointer) {
+				writeNullPointer();
+			} else {
+				packStruct(item.name, structTag == null ? new Tag(item.name)
+						: structTag, scope);
+			}
+			return;
+		}
+
+		int count = scope.resolve(item.dimensions.get(0));
+		if (item.pointer && count <= 0) {
+			writeNullPointer();
+			return;
+		}
+
+		for (int i = 0; i < count; i++) {
+			Tag structTag = nextTag(tag, item.name, nextIndexes);
+			packStruct(item.name, structTag == null ? new Tag(item.name)
+					: structTag, scope);
+		}
+	}
+
+	/**
+	 * Get the next tag of the given name, so that repeated names, such as the
+	 * {@code inx} of a pair or the two structs of a copy, are taken in order
+	 */
+	private static Tag nextTag(final Tag tag, final String name,
+			final Map<String, Integer> nextIndexes) {
+		Integer index = nextIndexes.get(name);
+		int i = index == null ? 0 : index;
+		nextIndexes.put(name, i + 1);
+		return tag.getTag(name, i);
+	}
+
+	private static int intValue(final Tag tag) throws JargonException {
+		if (tag == null || tag.getStringValue() == null
+				|| tag.getStringValue().isEmpty()) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(tag.getStringValue().trim());
+		} catch (NumberFormatException e) {
+			throw new JargonException("not an int value in tag:"
+					+ tag.getName(), e);
+		}
+	}
+
+	private static long longValue(final Tag tag) throws JargonException {
+		if (tag == null || tag.getStringValue() == null
+				|| tag.getStringValue().isEmpty()) {
+			return 0L;
+		}
+		try {
+			return Long.parseLong(tag.getStringValue().trim());
+		} catch (NumberFormatException e) {
+			throw new JargonException("not a double value in tag:"
+					+ tag.getName(), e);
+		}
+	}
+
+	private void writeInt(final int value) {
+		ensureCapacity(4);
+		buffer[length++] = (byte) (value >>> 24);
+		buffer[length++] = (byte) (value >>> 16);
+		buffer[length++] = (byte) (value >>> 8);
+		buffer[length++] = (byte) value;
+	}
+
+	private void writeLong(final long value) {
+		writeInt((int) (value >>> 32));
+		writeInt((int) value);
+	}
+
+	/**
+	 * @param maxLength
+	 *            {@code int} with the size of the string in the server
+	 *            struct, including the zero byte, or 0 if not limited
+	 */
+	private void writeString(final String value, final int maxLength)
+			throws JargonException {
+		byte[] encoded;
+		try {
+			encoded = value.getBytes(encoding);
+		} catch (UnsupportedEncodingException e) {
+			// checked in the constructor
+			throw new JargonException("unsupported encoding", e);
+		}
+
+		if (maxLength > 0 && encoded.length >= maxLength) {
+			throw new JargonException("string is too long for the native protocol, max length is "
+					+ (maxLength - 1) + ":" + value);
+		}
+
+		ensureCapacity(encoded.length + 1);
+		System.arraycopy(encoded, 0, buffer, length, encoded.length);
+		length += encoded.length;
+		buffer[length++] = 0;
+	}
+
+	private void writeBinary(final byte[] value, final int binaryLength)
+			throws JargonException {
+		if (value.length > binaryLength) {
+			throw new JargonException("binary value is longer than "
+					+ binaryLength + " bytes");
+		}
+
+		ensureCapacity(binaryLength);
+		System.arraycopy(value, 0, buffer, length, value.length);
+		for (int i = value.length; i < binaryLength; i++) {
+			buffer[length + i] = 0;
+		}
+		length += binaryLength;
+	}
+
+	private void writeNullPointer() {
+		int nullLength = NativePackTable.NULL_POINTER.length();
+		ensureCapacity(nullLength + 1);
+		for (int i = 0; i < nullLength; i++) {
+			buffer[length++] = (byte) NativePackTable.NULL_POINTER.charAt(i);
+		}
+		buffer[length++] = 0;
+	}
+
+	private void ensureCapacity(final int extra) {
+		if (length + extra > buffer.length) {
+			int newCapacity = Math.max(buffer.length * 2, length + extra);
+			byte[] newBuffer = new byte[newCapacity];
+			System.arraycopy(buffer, 0, newBuffer, 0, length);
+			buffer = newBuffer;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.irods.jargon.core.packinstr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.NativePackTable.PackItem;
+
+/**
+ * The int items packed or unpacked so far in a struct and the structs that
+ * hold it, which the length of a later array may refer to, as
+ * {@code str *value(rowCnt)(reslen)} in {@code SqlResult_PI} refers to the
+ * {@code rowCnt} of the enclosing {@code GenQueryOut_PI}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class NativeScope {
+
+	private final NativeScope parent;
+	private final Map<String, Integer> values = new HashMap<String, Integer>();
+
+	NativeScope(final NativeScope parent) {
+		this.parent = parent;
+	}
+
+	void put(final String name, final int value) {
+		values.put(name, value);
+	}
+
+	/**
+	 * @return {@code int} with the value of a dimension, which is a constant
+	 *         or the name of an int item of this or an enclosing struct
+	 */
+	int resolve(final String dimension) throws JargonException {
+		Integer constant = PackItem.constantValue(dimension);
+		if (constant != null) {
+			return constant;
+		}
+
+		for (NativeScope scope = this; scope != null; scope = scope.parent) {
+			Integer value = scope.values.get(dimension);
+			if (value != null) {
+				return value;
+			}
+		}
+
+		throw new JargonException("no value for the length of a native array:"
+				+ dimension);
+	}
+
+}
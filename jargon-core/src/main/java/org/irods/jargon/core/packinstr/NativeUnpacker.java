@@ -0,0 +1,225 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.NativePackTable.PackItem;
+import org.irods.jargon.core.packinstr.NativePackTable.PackType;
+import org.irods.jargon.core.utils.Base64;
+
+/**
+ * Unpacks a message in the iRODS native binary protocol into the same
+ * {@link Tag} tree that the XML protocol is read into, so that responses are
+ * processed the same way in either protocol. Binary values are given in
+ * base 64, as in XML, and {@code null} pointers are left out.
+ * <p>
+ * This class is not thread safe, an instance unpacks one message.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class NativeUnpacker {
+
+	private static final byte[] NULL_POINTER_BYTES;
+
+	static {
+		String nullPointer = NativePackTable.NULL_POINTER;
+		NULL_POINTER_BYTES = new byte[nullPointer.length() + 1];
+		for (int i = 0; i < nullPointer.length(); i++) {
+			NULL_POINTER_BYTES[i] = (byte) nullPointer.charAt(i);
+		}
+	}
+
+	private final byte[] data;
+	private final int end;
+	private final String encoding;
+	private int position;
+
+	/**
+	 * Unpack a message
+	 *
+	 * @param data
+	 *            {@code byte[]} with the message
+	 * @param offset
+	 *            {@code int} with the start of the message in {@code data}
+	 * @param length
+	 *            {@code int} with the length of the message
+	 * @param structName
+	 *            {@code String} with the packing instruction of the message,
+	 *            as given by {@link NativePackTable#getOutputStructName(int)}
+	 * @param encoding
+	 *            {@code String} with the encoding of the connection
+	 * @return {@link Tag} with the message
+	 * @throws JargonException
+	 *             if the packing instruction is not in the table, or the
+	 *             message is shorter than the packing instruction
+	 */
+	public static Tag unpack(final byte[] data, final int offset,
+			final int length, final String structName, final String encoding)
+			throws JargonException {
+		if (data == null) {
+			throw new IllegalArgumentException("null data");
+		}
+
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new IllegalArgumentException("offset or length out of range");
+		}
+
+		if (structName == null || structName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty structName");
+		}
+
+		if (encoding == null || encoding.isEmpty()) {
+			throw new IllegalArgumentException("null or empty encoding");
+		}
+
+		return new NativeUnpacker(data, offset, length, encoding).unpackStruct(
+				structName, null);
+	}
+
+	private NativeUnpacker(final byte[] data, final int offset,
+			final int length, final String encoding) {
+		this.data = data;
+		position = offset;
+		end = offset + length;
+		this.encoding = encoding;
+	}
+
+	private Tag unpackStruct(final String structName,
+			final NativeScope parentScope) throws JargonException {
+		List<PackItem> items = NativePackTable.getItems(structName);
+		if (items == null) {
+			throw new JargonException(
+					"packing instruction is not supported in the native protocol:"
+							+ structName);
+		}
+
+		NativeScope scope = new NativeScope(parentScope);
+		Tag tag = new Tag(structName);
+
+		for (PackItem item : items) {
+			if (item.type == PackType.STRUCT) {
+				unpackStructItem(item, tag, scope);
+			} else if (!item.pointer) {
+				if (item.type == PackType.INT) {
+					int value = readInt();
+					scope.put(item.name, value);
+					tag.addTag(new Tag(item.name, value));
+				} else if (item.type == PackType.DOUBLE) {
+					tag.addTag(new Tag(item.name, readLong()));
+				} else if (item.type == PackType.STR) {
+					tag.addTag(new Tag(item.name, readString()));
+				} else {
+					throw new JargonException("unsupported pack item:"
+							+ item.name);
+				}
+			} else if (readNullPointer()) {
+				continue;
+			} else if (item.type == PackType.BIN) {
+				tag.addTag(new Tag(item.name, Base64.toString(readBinary(scope
+						.resolve(item.dimensions.get(0))))));
+			} else if (item.dimensions.isEmpty()) {
+				tag.addTag(new Tag(item.name, readString()));
+			} else {
+				int count = scope.resolve(item.dimensions.get(0));
+				for (int i = 0; i < count; i++) {
+					if (item.type == PackType.INT) {
+						tag.addTag(new Tag(item.name, readInt()));
+					} else if (item.type == PackType.DOUBLE) {
+						tag.addTag(new Tag(item.name, readLong()));
+					} else {
+						tag.addTag(new Tag(item.name, readString()));
+					}
+				}
+			}
+		}
+
+		return tag;
+	}
+
+	private void unpackStructItem(final PackItem item, final Tag tag,
+			final NativeScope scope) throws JargonException {
+		if (item.pointer && readNullPointer()) {
+			return;
+		}
+
+		int count = item.dimensions.isEmpty() ? 1 : scope
+				.resolve(item.dimensions.get(0));
+		for (int i = 0; i < count; i++) {
+			tag.addTag(unpackStruct(item.name, scope));
+		}
+	}
+
+	/**
+	 * Skip a {@code null} pointer if there is one at the current position
+	 *
+	 * @return {@code boolean} that is {@code true} if one was skipped
+	 */
+	private boolean readNullPointer() {
+		if (end - position < NULL_POINTER_BYTES.length) {
+			return false;
+		}
+
+		for (int i = 0; i < NULL_POINTER_BYTES.length; i++) {
+			if (data[position + i] != NULL_POINTER_BYTES[i]) {
+				return false;
+			}
+		}
+
+		position += NULL_POINTER_BYTES.length;
+		return true;
+	}
+
+	private int readInt() throws JargonException {
+		require(4);
+		int value = ((data[position] & 0xff) << 24)
+				| ((data[position + 1] & 0xff) << 16)
+				| ((data[position + 2] & 0xff) << 8)
+				| (data[position + 3] & 0xff);
+		position += 4;
+		return value;
+	}
+
+	private long readLong() throws JargonException {
+		long high = readInt();
+		long low = readInt() & 0xffffffffL;
+		return (high << 32) | low;
+	}
+
+	private String readString() throws JargonException {
+		int zero = position;
+		while (zero < end && data[zero] != 0) {
+			zero++;
+		}
+
+		if (zero == end) {
+			throw new JargonException(
+					"native message ended inside of a string");
+		}
+
+		String value;
+		try {
+			value = new String(data, position, zero - position, encoding);
+		} catch (UnsupportedEncodingException e) {
+			throw new JargonException("unsupported encoding:" + encoding, e);
+		}
+		position = zero + 1;
+		return value;
+	}
+
+	private byte[] readBinary(final int binaryLength) throws JargonException {
+		require(binaryLength);
+		byte[] value = new byte[binaryLength];
+		System.arraycopy(data, position, value, 0, binaryLength);
+		position += binaryLength;
+		return value;
+	}
+
+	private void require(final int needed) throws JargonException {
+		if (end - position < needed) {
+			throw new JargonException("native message is shorter than its packing instruction");
+		}
+	}
+
+}
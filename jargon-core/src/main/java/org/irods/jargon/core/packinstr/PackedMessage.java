@@ -0,0 +1,23 @@
+package org.irods.jargon.core.packinstr;
+
+/**
+ * A message packed for sending to iRODS, in the XML or the native protocol,
+ * held in a buffer that may be reused for the next message
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface PackedMessage {
+
+	/**
+	 * @return {@code byte[]} with the buffer, of which the first
+	 *         {@link #getLength()} bytes are the message
+	 */
+	byte[] getBuffer();
+
+	/**
+	 * @return {@code int} with the length in bytes of the message
+	 */
+	int getLength();
+
+}
@@ -3,5 +3,6 @@ package org.irods.jargon.core.packinstr;
 public class RErrMsg {
 
 	public static final String PI_TAG = "RErrMsg_PI";
+	public static final String RERROR_PI = "RError_PI";
 
 }
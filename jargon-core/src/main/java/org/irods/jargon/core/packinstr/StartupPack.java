@@ -2,6 +2,7 @@ package org.irods.jargon.core.packinstr;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
 
 public class StartupPack extends AbstractIRODSPackingInstruction {
 
@@ -13,6 +14,7 @@ public class StartupPack extends AbstractIRODSPackingInstruction {
 	private int reconnFlag = 0;
 	private int connectCnt = 0;
 	private String option = "";
+	private ProtocolTypeEnum protocolTypeEnum = ProtocolTypeEnum.XML;
 	public static final String NEGOTIATE_OPTION = "request_server_negotiation";
 
 	public StartupPack(final IRODSAccount irodsAccount) {
@@ -35,11 +37,34 @@ public class StartupPack extends AbstractIRODSPackingInstruction {
 		this.option = option;
 	}
 
+	/**
+	 * Create a startup pack asking for api messages in the given protocol. The
+	 * startup pack itself is always sent as XML.
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} connecting
+	 * @param reconnect
+	 *            {@code boolean} that asks for a reconnect port
+	 * @param option
+	 *            {@code String} with the startup option
+	 * @param protocolTypeEnum
+	 *            {@link ProtocolTypeEnum} that api messages will be packed in
+	 */
+	public StartupPack(final IRODSAccount irodsAccount,
+			final boolean reconnect, final String option,
+			final ProtocolTypeEnum protocolTypeEnum) {
+		this(irodsAccount, reconnect, option);
+		if (protocolTypeEnum == null) {
+			throw new IllegalArgumentException("null protocolTypeEnum");
+		}
+		this.protocolTypeEnum = protocolTypeEnum;
+	}
+
 	@Override
 	public Tag getTagValue() throws JargonException {
 		Tag startupPacket = new Tag(PI_TAG,
 				new Tag[] {
-				new Tag("irodsProt", "1"),
+				new Tag("irodsProt", protocolTypeEnum.getProtocolNumber()),
 				new Tag("reconnFlag", reconnFlag),
 				new Tag("connectCnt", connectCnt),
 				new Tag("proxyUser", irodsAccount.getProxyName()),
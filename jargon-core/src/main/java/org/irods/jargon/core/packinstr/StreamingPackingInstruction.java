@@ -0,0 +1,27 @@
+package org.irods.jargon.core.packinstr;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * A packing instruction that writes its XML protocol message straight into a
+ * {@link TagWriter}, which the connection sends as is. This skips building a
+ * {@link Tag} tree and a {@code String} per request. What is written must be
+ * the same as {@link IRodsPI#getParsedTags()}, which is kept for callers that
+ * want the message as a {@code String}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface StreamingPackingInstruction extends IRodsPI {
+
+	/**
+	 * Write the message of the packing instruction, writing nothing if there
+	 * is no message
+	 *
+	 * @param tagWriter
+	 *            {@link TagWriter} that has been reset for this message
+	 * @throws JargonException
+	 */
+	void writeTags(TagWriter tagWriter) throws JargonException;
+
+}
@@ -359,13 +359,22 @@ public class Tag implements Cloneable {
 		// If something isn't a string and you try to send a
 		// non-printable character this way, it will get all messed up.
 		// so...not sure if should be converted to Base64
-		StringBuffer parsed = new StringBuffer();
+		StringBuilder parsed = new StringBuilder();
+		parseTag(parsed);
+		return parsed.toString();
+	}
+
+	/**
+	 * Append this tag and its sub tags to one builder, so nested tags are not
+	 * copied once per level
+	 */
+	private void parseTag(final StringBuilder parsed) {
 		parsed.append(OPEN_START_TAG);
 		parsed.append(tagName);
 		parsed.append(CLOSE_START_TAG);
 		if (tags != null) {
 			for (Tag tag : tags) {
-				parsed.append(tag.parseTag());
+				tag.parseTag(parsed);
 			}
 		} else {
 			parsed.append(escapeChars(value));
@@ -373,9 +382,7 @@ public class Tag implements Cloneable {
 		parsed.append(OPEN_END_TAG);
 		parsed.append(tagName);
 		parsed.append(CLOSE_END_TAG);
-		parsed.append("\n");
-
-		return parsed.toString();
+		parsed.append('\n');
 	}
 
 	String escapeChars(final String out) {
@@ -0,0 +1,366 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonRuntimeException;
+
+/**
+ * Reusable byte sink that packing instructions write the XML protocol into
+ * directly, as an alternative to building a {@link Tag} tree and turning it
+ * into a {@code String}. Values are escaped and encoded in place, and numbers
+ * are written without making a {@code String}.
+ * <p>
+ * The output is byte for byte what {@link Tag#parseTag()} gives for the same
+ * tags, including the newline after each end tag and the quirks of
+ * {@code Tag}, so that a packing instruction may switch between the two.
+ * <p>
+ * A connection keeps one writer and calls {@link #reset()} before each
+ * message, so the buffer is not allocated per request. This class is not
+ * thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class TagWriter implements PackedMessage {
+
+	/**
+	 * Size of the buffer of a new writer
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * A buffer grown past this for one large message is given up on the next
+	 * {@link #reset()}, rather than kept for the life of the connection
+	 */
+	public static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final Charset US_ASCII = Charset.forName("US-ASCII");
+	private static final byte[] ASCII_CHECK = "<a_Z/>&;0-9 \n".getBytes(US_ASCII);
+
+	private final String encoding;
+	private final boolean utf8;
+	private byte[] buffer = new byte[DEFAULT_CAPACITY];
+	private int length = 0;
+
+	/**
+	 * Create a writer
+	 *
+	 * @param encoding
+	 *            {@code String} with the encoding of the connection, which
+	 *            must encode ascii as ascii, as UTF-8 and the ISO-8859 family
+	 *            do
+	 */
+	public TagWriter(final String encoding) {
+		if (encoding == null || encoding.isEmpty()) {
+			throw new IllegalArgumentException("null or empty encoding");
+		}
+
+		if (!Charset.isSupported(encoding)) {
+			throw new IllegalArgumentException("unsupported encoding:" + encoding);
+		}
+
+		Charset charset = Charset.forName(encoding);
+		if (!new String(ASCII_CHECK, US_ASCII).equals(new String(ASCII_CHECK, charset))) {
+			throw new IllegalArgumentException("encoding does not keep ascii as is:" + encoding);
+		}
+
+		this.encoding = encoding;
+		utf8 = charset.equals(UTF8);
+	}
+
+	/**
+	 * Empty the writer for the next message
+	 */
+	public void reset() {
+		if (buffer.length > MAX_RETAINED_CAPACITY) {
+			buffer = new byte[DEFAULT_CAPACITY];
+		}
+		length = 0;
+	}
+
+	/**
+	 * Write a start tag
+	 *
+	 * @param tagName
+	 *            {@code String} with the tag name
+	 */
+	public void startTag(final String tagName) {
+		writeByte(Tag.OPEN_START_TAG);
+		writeName(tagName);
+		writeByte(Tag.CLOSE_START_TAG);
+	}
+
+	/**
+	 * Write an end tag, followed by the newline that iRODS expects
+	 *
+	 * @param tagName
+	 *            {@code String} with the tag name
+	 */
+	public void endTag(final String tagName) {
+		writeByte('<');
+		writeByte('/');
+		writeName(tagName);
+		writeByte(Tag.CLOSE_END_TAG);
+		writeByte('\n');
+	}
+
+	/**
+	 * Write a tag with an escaped text value. A {@code null} value is written
+	 * as the text {@code null}, as {@link Tag#parseTag()} does.
+	 *
+	 * @param tagName
+	 *            {@code String} with the tag name
+	 * @param value
+	 *            {@code String} with the value
+	 */
+	public void writeTag(final String tagName, final String value) {
+		startTag(tagName);
+		writeEscaped(value == null ? "null" : value);
+		endTag(tagName);
+	}
+
+	/**
+	 * Write a tag with an {@code int} value
+	 *
+	 * @param tagName
+	 *            {@code String} with the tag name
+	 * @param value
+	 *            {@code int} with the value
+	 */
+	public void writeTag(final String tagName, final int value) {
+		writeTag(tagName, (long) value);
+	}
+
+	/**
+	 * Write a tag with a {@code long} value
+	 *
+	 * @param tagName
+	 *            {@code String} with the tag name
+	 * @param value
+	 *            {@code long} with the value
+	 */
+	public void writeTag(final String tagName, final long value) {
+		startTag(tagName);
+		writeLong(value);
+		endTag(tagName);
+	}
+
+	/**
+	 * Write text that is already in the XML protocol, such as the result of
+	 * {@link IRodsPI#getParsedTags()}, encoding it but not escaping it
+	 *
+	 * @param text
+	 *            {@code String} with the text
+	 */
+	public void writeText(final String text) {
+		if (text == null) {
+			throw new IllegalArgumentException("null text");
+		}
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isHighSurrogate(c) && i + 1 < text.length()
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				writeSurrogatePair(c, text.charAt(i + 1));
+				i++;
+			} else {
+				writeChar(c, text, i);
+			}
+		}
+	}
+
+	/**
+	 * Write a {@link Tag} and all of its sub tags
+	 *
+	 * @param tag
+	 *            {@link Tag} to write
+	 */
+	public void writeTag(final Tag tag) {
+		if (tag == null) {
+			throw new IllegalArgumentException("null tag");
+		}
+
+		if (tag.tags != null) {
+			startTag(tag.tagName);
+			List<Tag> subTags = tag.tags;
+			for (int i = 0; i < subTags.size(); i++) {
+				writeTag(subTags.get(i));
+			}
+			endTag(tag.tagName);
+		} else {
+			writeTag(tag.tagName, tag.value);
+		}
+	}
+
+	/**
+	 * @return {@code byte[]} with the buffer, of which the first
+	 *         {@link #getLength()} bytes are the message. The buffer is reused
+	 *         after {@link #reset()}.
+	 */
+	@Override
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return {@code int} with the length in bytes of the message written
+	 */
+	@Override
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Write the message to a stream
+	 *
+	 * @param outputStream
+	 *            {@link OutputStream} to write to
+	 * @throws IOException
+	 */
+	public void writeTo(final OutputStream outputStream) throws IOException {
+		outputStream.write(buffer, 0, length);
+	}
+
+	/**
+	 * @return {@code String} with the message, for logging
+	 */
+	@Override
+	public String toString() {
+		try {
+			return new String(buffer, 0, length, encoding);
+		} catch (UnsupportedEncodingException e) {
+			// checked in the constructor
+			throw new JargonRuntimeException("unsupported encoding", e);
+		}
+	}
+
+	private void writeName(final String tagName) {
+		for (int i = 0; i < tagName.length(); i++) {
+			writeChar(tagName.charAt(i), tagName, i);
+		}
+	}
+
+	/**
+	 * Escape as {@code Tag.escapeChars} does, and encode, one char at a time
+	 */
+	private void writeEscaped(final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '&') {
+				writeAscii(Tag.AMP);
+			} else if (c == '<') {
+				writeAscii(Tag.LT);
+			} else if (c == '>') {
+				writeAscii(Tag.GT);
+			} else if (c == '"') {
+				writeAscii(Tag.QUOTE);
+			} else if (c == '`') {
+				writeAscii(Tag.APOS);
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+					&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				writeSurrogatePair(c, value.charAt(i + 1));
+				i++;
+			} else {
+				writeChar(c, value, i);
+			}
+		}
+	}
+
+	private void writeChar(final char c, final String source, final int index) {
+		if (c < 0x80) {
+			writeByte(c);
+		} else if (!utf8) {
+			writeEncoded(source.substring(index, index + 1));
+		} else if (c < 0x800) {
+			ensureCapacity(2);
+			buffer[length++] = (byte) (0xc0 | (c >> 6));
+			buffer[length++] = (byte) (0x80 | (c & 0x3f));
+		} else if (Character.isSurrogate(c)) {
+			// unpaired surrogate, replaced as String.getBytes() does
+			writeByte('?');
+		} else {
+			ensureCapacity(3);
+			buffer[length++] = (byte) (0xe0 | (c >> 12));
+			buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+			buffer[length++] = (byte) (0x80 | (c & 0x3f));
+		}
+	}
+
+	private void writeSurrogatePair(final char high, final char low) {
+		if (!utf8) {
+			writeEncoded(new String(new char[] { high, low }));
+			return;
+		}
+		int codePoint = Character.toCodePoint(high, low);
+		ensureCapacity(4);
+		buffer[length++] = (byte) (0xf0 | (codePoint >> 18));
+		buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+		buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+		buffer[length++] = (byte) (0x80 | (codePoint & 0x3f));
+	}
+
+	private void writeEncoded(final String chars) {
+		byte[] encoded;
+		try {
+			encoded = chars.getBytes(encoding);
+		} catch (UnsupportedEncodingException e) {
+			// checked in the constructor
+			throw new JargonRuntimeException("unsupported encoding", e);
+		}
+		ensureCapacity(encoded.length);
+		System.arraycopy(encoded, 0, buffer, length, encoded.length);
+		length += encoded.length;
+	}
+
+	private void writeAscii(final String ascii) {
+		ensureCapacity(ascii.length());
+		for (int i = 0; i < ascii.length(); i++) {
+			buffer[length++] = (byte) ascii.charAt(i);
+		}
+	}
+
+	private void writeLong(final long value) {
+		if (value == Long.MIN_VALUE) {
+			writeAscii(String.valueOf(value));
+			return;
+		}
+
+		long remaining = value;
+		if (remaining < 0) {
+			writeByte('-');
+			remaining = -remaining;
+		}
+
+		int digits = 1;
+		for (long limit = 10; digits < 19 && remaining >= limit; limit *= 10) {
+			digits++;
+		}
+
+		ensureCapacity(digits);
+		for (int i = length + digits - 1; i >= length; i--) {
+			buffer[i] = (byte) ('0' + (remaining % 10));
+			remaining /= 10;
+		}
+		length += digits;
+	}
+
+	private void writeByte(final int b) {
+		ensureCapacity(1);
+		buffer[length++] = (byte) b;
+	}
+
+	private void ensureCapacity(final int extra) {
+		if (length + extra > buffer.length) {
+			int newCapacity = Math.max(buffer.length * 2, length + extra);
+			byte[] newBuffer = new byte[newCapacity];
+			System.arraycopy(buffer, 0, newBuffer, 0, length);
+			buffer = newBuffer;
+		}
+	}
+
+}
@@ -71,6 +71,39 @@ public class TransferOptions {
 	 */
 	private boolean computeAndVerifyChecksumAfterTransfer = false;
 
+	/**
+	 * Number of threads, each with its own connection, used to replicate or
+	 * copy the data objects underneath a collection. 1 is the traditional
+	 * serial behavior.
+	 */
+	private int concurrentReplicationThreads = 1;
+
+	/**
+	 * Cap on the number of replications or copies that may be in flight to any
+	 * one target resource at a time
+	 */
+	private int concurrentReplicationMaxPerResource = 4;
+
+	/**
+	 * Measure parallel transfer throughput and adapt the thread count and copy
+	 * buffer size for later transfers to the same host. When set,
+	 * {@code maxThreads} acts as a ceiling on the learned thread count.
+	 */
+	private boolean adaptiveParallelTransfer = false;
+
+	/**
+	 * In a recursive put or get, only transfer files that are new or changed,
+	 * skipping files whose size and modify time show them to be the same at
+	 * the target. Changed files are overwritten without asking.
+	 */
+	private boolean synchMode = false;
+
+	/**
+	 * In {@code synchMode}, compare the checksums of files of the same size,
+	 * rather than their modify times
+	 */
+	private boolean synchCompareChecksums = false;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -117,6 +150,16 @@ public class TransferOptions {
 		builder.append(computeChecksumAfterTransfer);
 		builder.append(", computeAndVerifyChecksumAfterTransfer=");
 		builder.append(computeAndVerifyChecksumAfterTransfer);
+		builder.append(", concurrentReplicationThreads=");
+		builder.append(concurrentReplicationThreads);
+		builder.append(", concurrentReplicationMaxPerResource=");
+		builder.append(concurrentReplicationMaxPerResource);
+		builder.append(", adaptiveParallelTransfer=");
+		builder.append(adaptiveParallelTransfer);
+		builder.append(", synchMode=");
+		builder.append(synchMode);
+		builder.append(", synchCompareChecksums=");
+		builder.append(synchCompareChecksums);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -152,6 +195,15 @@ public class TransferOptions {
 						.getIntraFileStatusCallbacksNumberCallsInterval());
 				setIntraFileStatusCallbacksTotalBytesInterval(transferOptions
 						.getIntraFileStatusCallbacksTotalBytesInterval());
+				setConcurrentReplicationThreads(transferOptions
+						.getConcurrentReplicationThreads());
+				setConcurrentReplicationMaxPerResource(transferOptions
+						.getConcurrentReplicationMaxPerResource());
+				setAdaptiveParallelTransfer(transferOptions
+						.isAdaptiveParallelTransfer());
+				setSynchMode(transferOptions.isSynchMode());
+				setSynchCompareChecksums(transferOptions
+						.isSynchCompareChecksums());
 			}
 		}
 	}
@@ -406,4 +458,88 @@ public class TransferOptions {
 			final long intraFileStatusCallbacksTotalBytesInterval) {
 		this.intraFileStatusCallbacksTotalBytesInterval = intraFileStatusCallbacksTotalBytesInterval;
 	}
+
+	/**
+	 * @return the concurrentReplicationThreads
+	 */
+	public synchronized int getConcurrentReplicationThreads() {
+		return concurrentReplicationThreads;
+	}
+
+	/**
+	 * @param concurrentReplicationThreads
+	 *            {@code int} with the number of threads used to replicate or
+	 *            copy a collection, 1 for serial processing
+	 */
+	public synchronized void setConcurrentReplicationThreads(
+			final int concurrentReplicationThreads) {
+		this.concurrentReplicationThreads = concurrentReplicationThreads;
+	}
+
+	/**
+	 * @return the concurrentReplicationMaxPerResource
+	 */
+	public synchronized int getConcurrentReplicationMaxPerResource() {
+		return concurrentReplicationMaxPerResource;
+	}
+
+	/**
+	 * @param concurrentReplicationMaxPerResource
+	 *            {@code int} with the maximum number of replications or
+	 *            copies in flight to one target resource
+	 */
+	public synchronized void setConcurrentReplicationMaxPerResource(
+			final int concurrentReplicationMaxPerResource) {
+		this.concurrentReplicationMaxPerResource = concurrentReplicationMaxPerResource;
+	}
+
+	/**
+	 * @return the adaptiveParallelTransfer
+	 */
+	public synchronized boolean isAdaptiveParallelTransfer() {
+		return adaptiveParallelTransfer;
+	}
+
+	/**
+	 * @param adaptiveParallelTransfer
+	 *            {@code boolean} that enables adaptive tuning of parallel
+	 *            thread count and copy buffer size
+	 */
+	public synchronized void setAdaptiveParallelTransfer(
+			final boolean adaptiveParallelTransfer) {
+		this.adaptiveParallelTransfer = adaptiveParallelTransfer;
+	}
+
+	/**
+	 * @return the synchMode
+	 */
+	public synchronized boolean isSynchMode() {
+		return synchMode;
+	}
+
+	/**
+	 * @param synchMode
+	 *            {@code boolean} that has recursive puts and gets skip files
+	 *            that are unchanged at the target
+	 */
+	public synchronized void setSynchMode(final boolean synchMode) {
+		this.synchMode = synchMode;
+	}
+
+	/**
+	 * @return the synchCompareChecksums
+	 */
+	public synchronized boolean isSynchCompareChecksums() {
+		return synchCompareChecksums;
+	}
+
+	/**
+	 * @param synchCompareChecksums
+	 *            {@code boolean} that has {@code synchMode} compare checksums
+	 *            in place of modify times
+	 */
+	public synchronized void setSynchCompareChecksums(
+			final boolean synchCompareChecksums) {
+		this.synchCompareChecksums = synchCompareChecksums;
+	}
 }
@@ -0,0 +1,54 @@
+package org.irods.jargon.core.protovalues;
+
+/**
+ * Packing protocols that api messages may be exchanged with iRODS in, as sent
+ * in the {@code irodsProt} of the startup pack
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ */
+public enum ProtocolTypeEnum {
+
+	NATIVE("NATIVE", 0), XML("XML", 1);
+
+	private String textValue;
+	private int protocolNumber;
+
+	ProtocolTypeEnum(final String textValue, final int protocolNumber) {
+		this.textValue = textValue;
+		this.protocolNumber = protocolNumber;
+	}
+
+	public String getTextValue() {
+		return textValue;
+	}
+
+	/**
+	 * @return {@code int} with the value of {@code irodsProt} in the startup
+	 *         pack
+	 */
+	public int getProtocolNumber() {
+		return protocolNumber;
+	}
+
+	/**
+	 * Given a text value resolve the protocol, defaulting to {@link #XML}
+	 *
+	 * @param protocolType
+	 * @return {@link ProtocolTypeEnum}
+	 */
+	public static ProtocolTypeEnum findTypeByString(final String protocolType) {
+		ProtocolTypeEnum protocolTypeValue = null;
+		for (ProtocolTypeEnum protocolTypeEnumValue : ProtocolTypeEnum
+				.values()) {
+			if (protocolTypeEnumValue.getTextValue().equals(protocolType)) {
+				protocolTypeValue = protocolTypeEnumValue;
+				break;
+			}
+		}
+		if (protocolTypeValue == null) {
+			protocolTypeValue = ProtocolTypeEnum.XML;
+		}
+		return protocolTypeValue;
+
+	}
+}
@@ -0,0 +1,141 @@
+package org.irods.jargon.core.pub;
+
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.FilePermissionEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+
+/**
+ * Batch operations against the iRODS catalog (AVU metadata, ACLs, and deletes)
+ * that send many independent requests over one connection using request
+ * pipelining. Up to {@code jargon.pipelined.request.window.size} requests are
+ * written back-to-back before the responses are read, so the network round
+ * trip is paid once per window rather than once per item.
+ * <p>
+ * Each method reports a per-item result rather than failing on the first
+ * error, in the manner of
+ * {@link DataObjectAO#addBulkAVUMetadataToDataObject(String, List)}. Note that,
+ * unlike the single item methods in {@link DataObjectAO} and
+ * {@link CollectionAO}, paths are sent as given, without an ObjStat round trip
+ * per item to resolve soft links or to check for special collections.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface BatchCatalogOperationsAO extends IRODSAccessObject {
+
+	/**
+	 * Add a list of AVUs to a data object, pipelining the requests
+	 *
+	 * @param absolutePath
+	 *            {@code String} with the absolute path to the data object
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} to add
+	 * @return {@code List} of {@link BulkAVUOperationResponse} in the order of
+	 *         the given AVUs
+	 * @throws JargonException
+	 */
+	List<BulkAVUOperationResponse> addBulkAVUMetadataToDataObject(String absolutePath, List<AvuData> avuData)
+			throws JargonException;
+
+	/**
+	 * Delete a list of AVUs from a data object, pipelining the requests
+	 *
+	 * @param absolutePath
+	 *            {@code String} with the absolute path to the data object
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} to delete
+	 * @return {@code List} of {@link BulkAVUOperationResponse} in the order of
+	 *         the given AVUs
+	 * @throws JargonException
+	 */
+	List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromDataObject(String absolutePath, List<AvuData> avuData)
+			throws JargonException;
+
+	/**
+	 * Add a list of AVUs to a collection, pipelining the requests
+	 *
+	 * @param absolutePath
+	 *            {@code String} with the absolute path to the collection
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} to add
+	 * @return {@code List} of {@link BulkAVUOperationResponse} in the order of
+	 *         the given AVUs
+	 * @throws JargonException
+	 */
+	List<BulkAVUOperationResponse> addBulkAVUMetadataToCollection(String absolutePath, List<AvuData> avuData)
+			throws JargonException;
+
+	/**
+	 * Delete a list of AVUs from a collection, pipelining the requests
+	 *
+	 * @param absolutePath
+	 *            {@code String} with the absolute path to the collection
+	 * @param avuData
+	 *            {@code List} of {@link AvuData} to delete
+	 * @return {@code List} of {@link BulkAVUOperationResponse} in the order of
+	 *         the given AVUs
+	 * @throws JargonException
+	 */
+	List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromCollection(String absolutePath, List<AvuData> avuData)
+			throws JargonException;
+
+	/**
+	 * Add the same AVU to each of a list of data objects, pipelining the
+	 * requests
+	 *
+	 * @param absolutePaths
+	 *            {@code List<String>} of data object absolute paths
+	 * @param avuData
+	 *            {@link AvuData} to add to each data object
+	 * @return {@code List} of {@link BatchOperationResponse} in the order of the
+	 *         given paths
+	 * @throws JargonException
+	 */
+	List<BatchOperationResponse> addAVUMetadataToDataObjects(List<String> absolutePaths, AvuData avuData)
+			throws JargonException;
+
+	/**
+	 * Set the access permission for a user on each of a list of data objects or
+	 * collections, pipelining the requests. This is equivalent to calling
+	 * {@code ichmod} on each path.
+	 *
+	 * @param zone
+	 *            {@code String} with an optional zone for the user, blank if
+	 *            not used
+	 * @param absolutePaths
+	 *            {@code List<String>} of absolute paths to data objects or
+	 *            collections
+	 * @param userName
+	 *            {@code String} with the user or group name to receive the
+	 *            permission
+	 * @param filePermission
+	 *            {@link FilePermissionEnum} that is one of {@code READ},
+	 *            {@code WRITE}, {@code OWN}, or {@code NONE} to remove the
+	 *            permission
+	 * @param recursive
+	 *            {@code boolean} that applies the permission recursively to
+	 *            collections
+	 * @return {@code List} of {@link BatchOperationResponse} in the order of the
+	 *         given paths
+	 * @throws JargonException
+	 */
+	List<BatchOperationResponse> setAccessPermissions(String zone, List<String> absolutePaths, String userName,
+			FilePermissionEnum filePermission, boolean recursive) throws JargonException;
+
+	/**
+	 * Delete each of a list of data objects, pipelining the requests
+	 *
+	 * @param absolutePaths
+	 *            {@code List<String>} of data object absolute paths
+	 * @param force
+	 *            {@code boolean} that bypasses the trash if {@code true}
+	 * @return {@code List} of {@link BatchOperationResponse} in the order of the
+	 *         given paths
+	 * @throws JargonException
+	 */
+	List<BatchOperationResponse> deleteDataObjects(List<String> absolutePaths, boolean force)
+			throws JargonException;
+
+}
@@ -0,0 +1,318 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.PipelinedRequestResult;
+import org.irods.jargon.core.exception.CatNoAccessException;
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.DuplicateDataException;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInp;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.ModAccessControlInp;
+import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
+import org.irods.jargon.core.protovalues.FilePermissionEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of batch catalog operations using pipelined requests over
+ * the current connection. See {@link BatchCatalogOperationsAO} for details.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BatchCatalogOperationsAOImpl extends IRODSGenericAO implements BatchCatalogOperationsAO {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchCatalogOperationsAOImpl.class);
+
+	private static final String NULL_OR_EMPTY_ABSOLUTE_PATH = "null or empty absolutePath";
+	private static final String NULL_OR_EMPTY_AVU_DATA = "null or empty avuData";
+	private static final String NULL_OR_EMPTY_ABSOLUTE_PATHS = "null or empty absolutePaths";
+
+	/**
+	 * @param irodsSession
+	 * @param irodsAccount
+	 * @throws JargonException
+	 */
+	protected BatchCatalogOperationsAOImpl(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		super(irodsSession, irodsAccount);
+	}
+
+	@Override
+	public List<BulkAVUOperationResponse> addBulkAVUMetadataToDataObject(final String absolutePath,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("addBulkAVUMetadataToDataObject()");
+		checkPathAndAvus(absolutePath, avuData);
+		log.info("absolutePath:{}", absolutePath);
+
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
+		for (AvuData value : avuData) {
+			requests.add(ModAvuMetadataInp.instanceForAddDataObjectMetadata(absolutePath, value));
+		}
+
+		return sendAvuRequests(requests, avuData);
+	}
+
+	@Override
+	public List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromDataObject(final String absolutePath,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("deleteBulkAVUMetadataFromDataObject()");
+		checkPathAndAvus(absolutePath, avuData);
+		log.info("absolutePath:{}", absolutePath);
+
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
+		for (AvuData value : avuData) {
+			requests.add(ModAvuMetadataInp.instanceForDeleteDataObjectMetadata(absolutePath, value));
+		}
+
+		return sendAvuRequests(requests, avuData);
+	}
+
+	@Override
+	public List<BulkAVUOperationResponse> addBulkAVUMetadataToCollection(final String absolutePath,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("addBulkAVUMetadataToCollection()");
+		checkPathAndAvus(absolutePath, avuData);
+		log.info("absolutePath:{}", absolutePath);
+
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
+		for (AvuData value : avuData) {
+			requests.add(ModAvuMetadataInp.instanceForAddCollectionMetadata(absolutePath, value));
+		}
+
+		return sendAvuRequests(requests, avuData);
+	}
+
+	@Override
+	public List<BulkAVUOperationResponse> deleteBulkAVUMetadataFromCollection(final String absolutePath,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.info("deleteBulkAVUMetadataFromCollection()");
+		checkPathAndAvus(absolutePath, avuData);
+		log.info("absolutePath:{}", absolutePath);
+
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
+		for (AvuData value : avuData) {
+			requests.add(ModAvuMetadataInp.instanceForDeleteCollectionMetadata(absolutePath, value));
+		}
+
+		return sendAvuRequests(requests, avuData);
+	}
+
+	@Override
+	public List<BatchOperationResponse> addAVUMetadataToDataObjects(final List<String> absolutePaths,
+			final AvuData avuData) throws JargonException {
+
+		log.info("addAVUMetadataToDataObjects()");
+		checkPaths(absolutePaths);
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		log.info("avuData:{}", avuData);
+
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(absolutePaths.size());
+		for (String absolutePath : absolutePaths) {
+			requests.add(ModAvuMetadataInp.instanceForAddDataObjectMetadata(absolutePath, avuData));
+		}
+
+		return sendPathRequests(requests, absolutePaths, false);
+	}
+
+	@Override
+	public List<BatchOperationResponse> setAccessPermissions(final String zone, final List<String> absolutePaths,
+			final String userName, final FilePermissionEnum filePermission, final boolean recursive)
+			throws JargonException {
+
+		log.info("setAccessPermissions()");
+		checkPaths(absolutePaths);
+
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null or empty userName");
+		}
+
+		if (filePermission == null) {
+			throw new IllegalArgumentException("null filePermission");
+		}
+
+		String permission;
+		if (filePermission == FilePermissionEnum.READ) {
+			permission = ModAccessControlInp.READ_PERMISSION;
+		} else if (filePermission == FilePermissionEnum.WRITE) {
+			permission = ModAccessControlInp.WRITE_PERMISSION;
+		} else if (filePermission == FilePermissionEnum.OWN) {
+			permission = ModAccessControlInp.OWN_PERMISSION;
+		} else if (filePermission == FilePermissionEnum.NONE || filePermission == FilePermissionEnum.NULL) {
+			permission = ModAccessControlInp.NULL_PERMISSION;
+		} else {
+			throw new IllegalArgumentException("unsupported filePermission for batch operation:" + filePermission);
+		}
+
+		String myZone = zone == null ? "" : zone;
+
+		log.info("userName:{}", userName);
+		log.info("permission:{}", permission);
+		log.info("recursive:{}", recursive);
+
+		List<ModAccessControlInp> requests = new ArrayList<ModAccessControlInp>(absolutePaths.size());
+		for (String absolutePath : absolutePaths) {
+			requests.add(ModAccessControlInp.instanceForSetPermission(recursive, myZone, absolutePath, userName,
+					permission));
+		}
+
+		return sendPathRequests(requests, absolutePaths, false);
+	}
+
+	@Override
+	public List<BatchOperationResponse> deleteDataObjects(final List<String> absolutePaths, final boolean force)
+			throws JargonException {
+
+		log.info("deleteDataObjects()");
+		checkPaths(absolutePaths);
+		log.info("force:{}", force);
+
+		List<DataObjInp> requests = new ArrayList<DataObjInp>(absolutePaths.size());
+		for (String absolutePath : absolutePaths) {
+			if (force) {
+				requests.add(DataObjInp.instanceForDeleteWithForce(absolutePath));
+			} else {
+				requests.add(DataObjInp.instanceForDeleteWithNoForce(absolutePath));
+			}
+		}
+
+		/*
+		 * see GForge: [#639] 809000 errors on delete operations when trash file
+		 * already exists, treated as success as in IRODSFileSystemAOImpl
+		 */
+		return sendPathRequests(requests, absolutePaths, true);
+	}
+
+	private List<BulkAVUOperationResponse> sendAvuRequests(final List<? extends IRodsPI> requests,
+			final List<AvuData> avuData) throws JargonException {
+
+		log.debug("sending {} pipelined avu requests", requests.size());
+		List<PipelinedRequestResult> results = getIRODSProtocol().irodsFunctionPipelined(requests);
+		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>(results.size());
+
+		for (int i = 0; i < results.size(); i++) {
+			PipelinedRequestResult result = results.get(i);
+			AvuData value = avuData.get(i);
+
+			if (result.isSuccess()) {
+				responses.add(BulkAVUOperationResponse.instance(BulkAVUOperationResponse.ResultStatus.OK, value, ""));
+				continue;
+			}
+
+			JargonException je = result.getException();
+			BatchOperationResponse.ResultStatus status = statusFromException(je);
+			log.error("error in batch avu operation for avu:{}", value, je);
+
+			if (status == BatchOperationResponse.ResultStatus.MISSING_TARGET) {
+				responses.add(BulkAVUOperationResponse.instance(
+						BulkAVUOperationResponse.ResultStatus.MISSING_METADATA_TARGET, value, je.getMessage()));
+			} else if (status == BatchOperationResponse.ResultStatus.DUPLICATE) {
+				responses.add(BulkAVUOperationResponse.instance(BulkAVUOperationResponse.ResultStatus.DUPLICATE_AVU,
+						value, je.getMessage()));
+			} else {
+				responses.add(BulkAVUOperationResponse.instance(BulkAVUOperationResponse.ResultStatus.OTHER_ERROR,
+						value, String.valueOf(je.getMessage())));
+			}
+		}
+
+		log.info("...complete");
+		return responses;
+	}
+
+	private List<BatchOperationResponse> sendPathRequests(final List<? extends IRodsPI> requests,
+			final List<String> absolutePaths, final boolean duplicateIsSuccess) throws JargonException {
+
+		log.debug("sending {} pipelined requests", requests.size());
+		List<PipelinedRequestResult> results = getIRODSProtocol().irodsFunctionPipelined(requests);
+		List<BatchOperationResponse> responses = new ArrayList<BatchOperationResponse>(results.size());
+
+		for (int i = 0; i < results.size(); i++) {
+			PipelinedRequestResult result = results.get(i);
+			String absolutePath = absolutePaths.get(i);
+
+			if (result.isSuccess()) {
+				responses.add(BatchOperationResponse.instance(BatchOperationResponse.ResultStatus.OK, absolutePath, ""));
+				continue;
+			}
+
+			JargonException je = result.getException();
+			BatchOperationResponse.ResultStatus status = statusFromException(je);
+
+			if (status == BatchOperationResponse.ResultStatus.DUPLICATE && duplicateIsSuccess) {
+				log.warn("duplicate data exception logged and ignored for path:{}", absolutePath);
+				responses.add(BatchOperationResponse.instance(BatchOperationResponse.ResultStatus.OK, absolutePath, ""));
+				continue;
+			}
+
+			log.error("error in batch operation for path:{}", absolutePath, je);
+			responses.add(BatchOperationResponse.instance(status, absolutePath, String.valueOf(je.getMessage())));
+		}
+
+		log.info("...complete");
+		return responses;
+	}
+
+	/**
+	 * Classify an iRODS error, using the exception type produced by the
+	 * {@code IRODSErrorScanner}, and falling back to the error codes in the
+	 * message as {@link DataObjectAOImpl} does for AVU operations
+	 */
+	private BatchOperationResponse.ResultStatus statusFromException(final JargonException je) {
+		String message = String.valueOf(je.getMessage());
+		if (je instanceof DataNotFoundException || je instanceof FileNotFoundException
+				|| message.indexOf("-817000") > -1) {
+			return BatchOperationResponse.ResultStatus.MISSING_TARGET;
+		} else if (je instanceof DuplicateDataException || message.indexOf("-809000") > -1) {
+			return BatchOperationResponse.ResultStatus.DUPLICATE;
+		} else if (je instanceof CatNoAccessException) {
+			return BatchOperationResponse.ResultStatus.NO_ACCESS;
+		} else {
+			return BatchOperationResponse.ResultStatus.OTHER_ERROR;
+		}
+	}
+
+	private void checkPathAndAvus(final String absolutePath, final List<AvuData> avuData) throws JargonException {
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException(NULL_OR_EMPTY_ABSOLUTE_PATH);
+		}
+
+		if (avuData == null || avuData.isEmpty()) {
+			throw new IllegalArgumentException(NULL_OR_EMPTY_AVU_DATA);
+		}
+
+		MiscIRODSUtils.checkPathSizeForMax(absolutePath);
+	}
+
+	private void checkPaths(final List<String> absolutePaths) throws JargonException {
+		if (absolutePaths == null || absolutePaths.isEmpty()) {
+			throw new IllegalArgumentException(NULL_OR_EMPTY_ABSOLUTE_PATHS);
+		}
+
+		for (String absolutePath : absolutePaths) {
+			if (absolutePath == null || absolutePath.isEmpty()) {
+				throw new IllegalArgumentException(NULL_OR_EMPTY_ABSOLUTE_PATH);
+			}
+			MiscIRODSUtils.checkPathSizeForMax(absolutePath);
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+/**
+ * Represents a response to one item in a batch catalog operation (such as an
+ * ACL change or delete) against a target path, including success or failure
+ * for that item. This is the path-oriented sibling of
+ * {@link BulkAVUOperationResponse}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BatchOperationResponse {
+
+	public enum ResultStatus {
+		OK, DUPLICATE, MISSING_TARGET, NO_ACCESS, OTHER_ERROR
+	}
+
+	private String targetPath;
+	private ResultStatus resultStatus;
+	private String message;
+
+	public static BatchOperationResponse instance(final ResultStatus resultStatus, final String targetPath,
+			final String message) {
+		return new BatchOperationResponse(resultStatus, targetPath, message);
+	}
+
+	private BatchOperationResponse(final ResultStatus resultStatus, final String targetPath, final String message) {
+
+		if (resultStatus == null) {
+			throw new IllegalArgumentException("null resultStatus");
+		}
+
+		if (targetPath == null) {
+			throw new IllegalArgumentException("null targetPath");
+		}
+
+		if (message == null) {
+			throw new IllegalArgumentException("null message");
+		}
+
+		this.resultStatus = resultStatus;
+		this.targetPath = targetPath;
+		this.message = message;
+
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sBuilder = new StringBuilder();
+		sBuilder.append("BatchOperationResponse");
+		sBuilder.append("\n\ttargetPath:");
+		sBuilder.append(targetPath);
+		sBuilder.append("\n\tresultStatus:");
+		sBuilder.append(resultStatus);
+		sBuilder.append("\n\tmessage:");
+		sBuilder.append(message);
+		return sBuilder.toString();
+	}
+
+	/**
+	 * @return the targetPath
+	 */
+	public String getTargetPath() {
+		return targetPath;
+	}
+
+	/**
+	 * @param targetPath
+	 *            the targetPath to set
+	 */
+	public void setTargetPath(final String targetPath) {
+		this.targetPath = targetPath;
+	}
+
+	/**
+	 * @return the resultStatus
+	 */
+	public ResultStatus getResultStatus() {
+		return resultStatus;
+	}
+
+	/**
+	 * @param resultStatus
+	 *            the resultStatus to set
+	 */
+	public void setResultStatus(final ResultStatus resultStatus) {
+		this.resultStatus = resultStatus;
+	}
+
+	/**
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @param message
+	 *            the message to set
+	 */
+	public void setMessage(final String message) {
+		this.message = message;
+	}
+
+}
@@ -0,0 +1,658 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.checksum.BulkChecksumCallbackListener;
+import org.irods.jargon.core.checksum.BulkChecksumResult;
+import org.irods.jargon.core.checksum.BulkChecksumResult.BulkChecksumStatus;
+import org.irods.jargon.core.checksum.BulkChecksumSummary;
+import org.irods.jargon.core.checksum.ChecksumManager;
+import org.irods.jargon.core.checksum.ChecksumManagerImpl;
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.FileIntegrityException;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInpForChecksum;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryOrderByField.OrderByType;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.utils.CollectionAndPath;
+import org.irods.jargon.core.utils.IRODSDataConversionUtil;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ *         Bulk counterpart to
+ *         {@link DataObjectChecksumUtilitiesAO#computeChecksumOnDataObject(org.irods.jargon.core.pub.io.IRODSFile)}
+ *         . The calling thread reads the data objects to checksum, a page of
+ *         catalog rows at a time, and queues them, while a bounded set of
+ *         worker threads, each holding its own connection, send the checksum
+ *         requests, so that the time of each round trip to the server is
+ *         overlapped with the others.
+ *         <p>
+ *         The number of checksums in progress against any one resource is
+ *         capped by a semaphore per resource, as in
+ *         {@link ConcurrentTransferOperationsHelper}. Each checksum is asked
+ *         for on the replica of the resource it is counted against. When all
+ *         replicas are checksummed, the work on the other resources of a data
+ *         object is not counted against their limits. The limits belong to
+ *         one bulk checksum. Results are given to the
+ *         {@link BulkChecksumCallbackListener} as each completes, with calls
+ *         serialized so that listeners need not be thread-safe. These are
+ *         used internally. See {@link DataObjectChecksumUtilitiesAO} for
+ *         public methods.
+ *
+ */
+final class BulkChecksumExecutor {
+
+	static Logger log = LoggerFactory.getLogger(BulkChecksumExecutor.class);
+
+	/**
+	 * Data objects queued per worker, ahead of the workers
+	 */
+	private static final int ITEMS_QUEUED_PER_THREAD = 16;
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final ChecksumManager checksumManager;
+
+	/**
+	 * Initializer creates an instance of this class.
+	 *
+	 * @param irodsSession
+	 *            {@code IRODSSession} that can connect to iRODS
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} for this connection.
+	 * @return {@link BulkChecksumExecutor}
+	 * @throws JargonException
+	 */
+	final static BulkChecksumExecutor instance(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		return new BulkChecksumExecutor(irodsSession, irodsAccount);
+	}
+
+	private BulkChecksumExecutor(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		if (irodsSession == null || irodsAccount == null) {
+			throw new JargonException("null irodsSession or irodsAccount");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		irodsAccessObjectFactory = IRODSAccessObjectFactoryImpl.instance(irodsSession);
+		checksumManager = new ChecksumManagerImpl(irodsAccount, irodsAccessObjectFactory);
+	}
+
+	/**
+	 * Checksum every data object in a collection and its sub-collections
+	 *
+	 * @param collectionAbsolutePath
+	 *            {@code String} with the absolute path to the collection
+	 * @param bulkChecksumOptions
+	 *            {@link BulkChecksumOptions} for the checksums
+	 * @param bulkChecksumCallbackListener
+	 *            {@link BulkChecksumCallbackListener} to receive each result
+	 * @return {@link BulkChecksumSummary} with the counts of the results
+	 * @throws FileNotFoundException
+	 *             if the collection does not exist
+	 * @throws JargonException
+	 */
+	BulkChecksumSummary checksumCollection(final String collectionAbsolutePath,
+			final BulkChecksumOptions bulkChecksumOptions,
+			final BulkChecksumCallbackListener bulkChecksumCallbackListener) throws FileNotFoundException,
+			JargonException {
+
+		ObjStat objStat = irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+				.retrieveObjectStatForPath(collectionAbsolutePath);
+		if (!objStat.isSomeTypeOfCollection()) {
+			throw new JargonException("path is not a collection:" + collectionAbsolutePath);
+		}
+
+		String zone = MiscIRODSUtils.getZoneInPath(collectionAbsolutePath);
+		BulkChecksumRun run = new BulkChecksumRun(bulkChecksumOptions, bulkChecksumCallbackListener);
+		run.start();
+		boolean queued = false;
+		try {
+			boolean more = true;
+			if (!"/".equals(collectionAbsolutePath)) {
+				more = queueDataObjects(buildDataObjectQuery(QueryConditionOperators.EQUAL, collectionAbsolutePath),
+						zone, run);
+			}
+			if (more) {
+				String childPattern = "/".equals(collectionAbsolutePath) ? "/%" : collectionAbsolutePath + "/%";
+				queueDataObjects(buildDataObjectQuery(QueryConditionOperators.LIKE, childPattern), zone, run);
+			}
+			queued = true;
+		} finally {
+			if (!queued) {
+				run.finish(false);
+			}
+		}
+		return run.finish(true);
+	}
+
+	/**
+	 * Checksum each of the given data objects. The catalog is only read for
+	 * each data object when skipping is asked for.
+	 *
+	 * @param dataObjectAbsolutePaths
+	 *            {@code List<String>} with the absolute paths of the data
+	 *            objects
+	 * @param bulkChecksumOptions
+	 *            {@link BulkChecksumOptions} for the checksums
+	 * @param bulkChecksumCallbackListener
+	 *            {@link BulkChecksumCallbackListener} to receive each result
+	 * @return {@link BulkChecksumSummary} with the counts of the results
+	 * @throws JargonException
+	 */
+	BulkChecksumSummary checksumDataObjects(final List<String> dataObjectAbsolutePaths,
+			final BulkChecksumOptions bulkChecksumOptions,
+			final BulkChecksumCallbackListener bulkChecksumCallbackListener) throws JargonException {
+
+		boolean lookupNeeded = bulkChecksumOptions.getSkipIfChecksummedAfter() > 0L;
+		BulkChecksumRun run = new BulkChecksumRun(bulkChecksumOptions, bulkChecksumCallbackListener);
+		run.start();
+		boolean queued = false;
+		try {
+			for (String dataObjectAbsolutePath : dataObjectAbsolutePaths) {
+				if (run.isStopped()) {
+					break;
+				}
+				if (dataObjectAbsolutePath == null || dataObjectAbsolutePath.isEmpty()) {
+					throw new IllegalArgumentException("null or empty path in dataObjectAbsolutePaths");
+				}
+				run.submit(new WorkItem(dataObjectAbsolutePath, "", "", lookupNeeded));
+			}
+			queued = true;
+		} finally {
+			if (!queued) {
+				run.finish(false);
+			}
+		}
+		return run.finish(true);
+	}
+
+	/**
+	 * Query for the data objects in the collections matching the condition,
+	 * ordered so that the replicas of a data object are together
+	 */
+	static IRODSGenQueryBuilder buildDataObjectQuery(final QueryConditionOperators operator, final String value)
+			throws JargonException {
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_RESC_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_CHECKSUM)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME)
+					.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, operator, value)
+					.addOrderByGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, OrderByType.ASC)
+					.addOrderByGenQueryField(RodsGenQueryEnum.COL_DATA_NAME, OrderByType.ASC);
+			return builder;
+		} catch (GenQueryBuilderException e) {
+			log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException("error building checksum query", e);
+		}
+	}
+
+	/**
+	 * Read every page of a data object query, queueing each data object once,
+	 * however many replicas it has
+	 *
+	 * @return {@code boolean} that is {@code false} if the run stopped early
+	 */
+	private boolean queueDataObjects(final IRODSGenQueryBuilder builder, final String zone,
+			final BulkChecksumRun run) throws JargonException {
+
+		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory
+				.getIRODSGenQueryExecutor(irodsAccount);
+		IRODSQueryResultSet resultSet = null;
+		ReplicaGroup group = null;
+
+		try {
+			IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(irodsSession
+					.getJargonProperties().getMaxFilesAndDirsQueryMax());
+			resultSet = irodsGenQueryExecutor.executeIRODSQueryInZone(irodsQuery, 0, zone);
+
+			while (true) {
+				for (IRODSQueryResultRow row : resultSet.getResults()) {
+					String path = MiscIRODSUtils.buildAbsolutePathFromCollectionParentAndFileName(row.getColumn(0),
+							row.getColumn(1));
+					if (group != null && !group.path.equals(path)) {
+						if (!queueGroup(group, run)) {
+							return false;
+						}
+						group = null;
+					}
+					if (group == null) {
+						group = new ReplicaGroup(path, row.getColumn(2), row.getColumn(3));
+					}
+					group.addReplica(run.bulkChecksumOptions, row.getColumn(3),
+							IRODSDataConversionUtil.getDateFromIRODSValue(row.getColumn(4)));
+				}
+
+				if (!resultSet.isHasMoreRecords()) {
+					break;
+				}
+
+				log.debug("reading next page of data objects to checksum");
+				resultSet = irodsGenQueryExecutor.getMoreResultsInZone(resultSet, zone);
+			}
+
+			if (group != null) {
+				return queueGroup(group, run);
+			}
+			return true;
+
+		} catch (GenQueryBuilderException e) {
+			log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException("error building checksum query", e);
+		} catch (JargonQueryException e) {
+			log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException("error in checksum query", e);
+		} finally {
+			if (resultSet != null && resultSet.isHasMoreRecords()) {
+				try {
+					irodsGenQueryExecutor.closeResults(resultSet);
+				} catch (JargonException e) {
+					log.warn("error closing checksum query results, ignored", e);
+				}
+			}
+		}
+	}
+
+	private boolean queueGroup(final ReplicaGroup group, final BulkChecksumRun run) throws JargonException {
+		if (run.isStopped()) {
+			return false;
+		}
+
+		if (group.allReplicasCurrent) {
+			log.debug("checksum is current, skipping:{}", group.path);
+			run.report(BulkChecksumResult.instanceForSkipped(group.path, group.resourceName, group.catalogChecksum));
+		} else {
+			run.submit(new WorkItem(group.path, group.resourceName, group.catalogChecksum, false));
+		}
+		return true;
+	}
+
+	/**
+	 * The catalog rows of the replicas of one data object
+	 */
+	private static final class ReplicaGroup {
+		final String path;
+		final String resourceName;
+		final String catalogChecksum;
+		boolean allReplicasCurrent = true;
+
+		ReplicaGroup(final String path, final String resourceName, final String catalogChecksum) {
+			this.path = path;
+			this.resourceName = resourceName;
+			this.catalogChecksum = catalogChecksum;
+		}
+
+		void addReplica(final BulkChecksumOptions bulkChecksumOptions, final String replicaChecksum,
+				final Date modifiedAt) {
+			if (!bulkChecksumOptions.isChecksumCurrent(replicaChecksum, modifiedAt)) {
+				allReplicasCurrent = false;
+			}
+		}
+	}
+
+	/**
+	 * One data object to checksum
+	 */
+	private static final class WorkItem {
+		static final WorkItem END = new WorkItem("/", "", "", false);
+
+		final String irodsAbsolutePath;
+		final String resourceName;
+		final String catalogChecksum;
+		/**
+		 * The catalog values are not known, and must be read by the worker
+		 */
+		final boolean lookupNeeded;
+
+		WorkItem(final String irodsAbsolutePath, final String resourceName, final String catalogChecksum,
+				final boolean lookupNeeded) {
+			this.irodsAbsolutePath = irodsAbsolutePath;
+			this.resourceName = resourceName;
+			this.catalogChecksum = catalogChecksum;
+			this.lookupNeeded = lookupNeeded;
+		}
+	}
+
+	/**
+	 * State for one bulk checksum
+	 */
+	private final class BulkChecksumRun {
+		private final BulkChecksumOptions bulkChecksumOptions;
+		private final BulkChecksumCallbackListener bulkChecksumCallbackListener;
+		private final int numberOfThreads;
+		private final BlockingQueue<WorkItem> workQueue;
+		private final ConcurrentMap<String, Semaphore> resourceSemaphores = new ConcurrentHashMap<String, Semaphore>();
+		private final AtomicReference<JargonException> firstError = new AtomicReference<JargonException>();
+		private final AtomicInteger computedCount = new AtomicInteger();
+		private final AtomicInteger mismatchCount = new AtomicInteger();
+		private final AtomicInteger skippedCount = new AtomicInteger();
+		private final AtomicInteger failedCount = new AtomicInteger();
+		private final List<Future<Void>> workers = new ArrayList<Future<Void>>();
+		private final long startMillis = System.currentTimeMillis();
+		private ExecutorService executorService = null;
+		private BulkChecksumSummary bulkChecksumSummary = null;
+
+		BulkChecksumRun(final BulkChecksumOptions bulkChecksumOptions,
+				final BulkChecksumCallbackListener bulkChecksumCallbackListener) {
+			this.bulkChecksumOptions = bulkChecksumOptions;
+			this.bulkChecksumCallbackListener = bulkChecksumCallbackListener;
+			numberOfThreads = bulkChecksumOptions.getNumberOfThreads();
+			workQueue = new ArrayBlockingQueue<WorkItem>(numberOfThreads * ITEMS_QUEUED_PER_THREAD);
+		}
+
+		void start() {
+			log.info("starting {} bulk checksum workers with options:{}", numberOfThreads, bulkChecksumOptions);
+			executorService = Executors.newFixedThreadPool(numberOfThreads);
+			for (int i = 0; i < numberOfThreads; i++) {
+				workers.add(executorService.submit(new Worker()));
+			}
+		}
+
+		boolean isStopped() {
+			return firstError.get() != null || Thread.currentThread().isInterrupted();
+		}
+
+		/**
+		 * Queue a data object for the workers, waiting for room
+		 *
+		 * @return {@code boolean} that is {@code false} if interrupted before
+		 *         the item was queued
+		 */
+		boolean submit(final WorkItem workItem) throws JargonException {
+			try {
+				while (!workQueue.offer(workItem, 1, TimeUnit.SECONDS)) {
+					if (allWorkersDone()) {
+						throw new JargonException("bulk checksum workers have stopped unexpectedly");
+					}
+				}
+				return true;
+			} catch (InterruptedException e) {
+				log.info("interrupted while queueing, stopping bulk checksum");
+				firstError.compareAndSet(null, new JargonException("bulk checksum interrupted"));
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		/**
+		 * Count a result and give it to the listener, one call at a time. A
+		 * listener that throws stops the run.
+		 */
+		synchronized void report(final BulkChecksumResult bulkChecksumResult) {
+			switch (bulkChecksumResult.getBulkChecksumStatus()) {
+			case COMPUTED:
+				computedCount.incrementAndGet();
+				break;
+			case MISMATCH:
+				mismatchCount.incrementAndGet();
+				break;
+			case SKIPPED:
+				skippedCount.incrementAndGet();
+				break;
+			default:
+				failedCount.incrementAndGet();
+				break;
+			}
+
+			try {
+				bulkChecksumCallbackListener.checksumResultCallback(bulkChecksumResult);
+			} catch (RuntimeException e) {
+				log.error("bulk checksum listener failed, stopping", e);
+				firstError.compareAndSet(null, new JargonException("bulk checksum listener failed", e));
+			}
+		}
+
+		/**
+		 * Signal the workers that no more data objects are coming, wait for
+		 * them to drain the queue, and rethrow the first error. If the end
+		 * markers cannot all be queued, or the wait is interrupted, the
+		 * workers are interrupted so that they close their connections and
+		 * exit.
+		 *
+		 * @param rethrow
+		 *            {@code boolean} that is {@code false} when the caller is
+		 *            already propagating an exception
+		 */
+		BulkChecksumSummary finish(final boolean rethrow) throws JargonException {
+			if (bulkChecksumSummary != null) {
+				return bulkChecksumSummary;
+			}
+
+			boolean stopWorkers = true;
+			try {
+				boolean allEndsQueued = true;
+				for (int i = 0; i < numberOfThreads && allEndsQueued; i++) {
+					allEndsQueued = submit(WorkItem.END);
+				}
+
+				if (allEndsQueued) {
+					boolean interrupted = false;
+					for (Future<Void> worker : workers) {
+						try {
+							worker.get();
+						} catch (ExecutionException e) {
+							firstError.compareAndSet(null, new JargonException(e.getCause()));
+						} catch (InterruptedException e) {
+							log.info("interrupted while awaiting bulk checksum workers");
+							firstError.compareAndSet(null, new JargonException("bulk checksum interrupted"));
+							Thread.currentThread().interrupt();
+							interrupted = true;
+							break;
+						}
+					}
+					stopWorkers = interrupted;
+				}
+			} finally {
+				if (stopWorkers) {
+					log.info("interrupting bulk checksum workers");
+					executorService.shutdownNow();
+				} else {
+					executorService.shutdown();
+				}
+			}
+
+			bulkChecksumSummary = new BulkChecksumSummary(computedCount.get(), mismatchCount.get(),
+					skippedCount.get(), failedCount.get(), System.currentTimeMillis() - startMillis);
+			log.info("bulk checksum complete:{}", bulkChecksumSummary);
+
+			JargonException error = firstError.get();
+			if (rethrow && error != null) {
+				log.error("rethrowing first error from bulk checksum", error);
+				throw error;
+			}
+			return bulkChecksumSummary;
+		}
+
+		private boolean allWorkersDone() {
+			for (Future<Void> worker : workers) {
+				if (!worker.isDone()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private Semaphore semaphoreForResource(final String resourceName) {
+			String key = resourceName == null ? "" : resourceName;
+			Semaphore semaphore = resourceSemaphores.get(key);
+			if (semaphore == null) {
+				semaphore = new Semaphore(bulkChecksumOptions.getMaxPerResource(), true);
+				Semaphore existing = resourceSemaphores.putIfAbsent(key, semaphore);
+				if (existing != null) {
+					semaphore = existing;
+				}
+			}
+			return semaphore;
+		}
+
+		/**
+		 * Takes data objects from the queue until the end marker, using its
+		 * own connection, which is closed when the worker exits. Once the run
+		 * is stopped, remaining data objects are drained without a checksum.
+		 */
+		private final class Worker implements Callable<Void> {
+
+			@Override
+			public Void call() throws Exception {
+				try {
+					while (true) {
+						WorkItem workItem = workQueue.take();
+						if (workItem == WorkItem.END) {
+							break;
+						}
+
+						if (isStopped()) {
+							continue;
+						}
+
+						process(workItem);
+					}
+				} finally {
+					try {
+						irodsSession.closeSession(irodsAccount);
+					} catch (JargonException e) {
+						log.warn("error closing bulk checksum connection, ignored", e);
+					}
+				}
+				return null;
+			}
+
+			private void process(final WorkItem workItem) throws InterruptedException {
+				String resourceName = workItem.resourceName;
+				String catalogChecksum = workItem.catalogChecksum;
+
+				if (workItem.lookupNeeded) {
+					try {
+						ReplicaGroup group = lookup(workItem.irodsAbsolutePath);
+						resourceName = group.resourceName;
+						catalogChecksum = group.catalogChecksum;
+						if (group.allReplicasCurrent) {
+							report(BulkChecksumResult.instanceForSkipped(workItem.irodsAbsolutePath, resourceName,
+									catalogChecksum));
+							return;
+						}
+					} catch (JargonException e) {
+						log.error("error reading catalog for:{}", workItem.irodsAbsolutePath, e);
+						report(BulkChecksumResult.instanceForError(workItem.irodsAbsolutePath, resourceName,
+								catalogChecksum, BulkChecksumStatus.FAILED, e));
+						return;
+					}
+				}
+
+				/*
+				 * checksum the replica on the resource the limit is taken
+				 * for, unless every replica is asked for
+				 */
+				String checksumResourceName = resourceName;
+				if (checksumResourceName == null
+						|| bulkChecksumOptions.getChecksumOptions().isChecksumAllReplicas()) {
+					checksumResourceName = "";
+				}
+
+				Semaphore resourceSemaphore = semaphoreForResource(resourceName);
+				resourceSemaphore.acquire();
+				try {
+					DataObjInpForChecksum dataObjInp = DataObjInpForChecksum.instance(workItem.irodsAbsolutePath,
+							checksumResourceName, -1, bulkChecksumOptions.getChecksumOptions());
+					Tag response = irodsSession.currentConnection(irodsAccount).irodsFunction(dataObjInp);
+					if (response == null) {
+						throw new JargonException("null response to checksum of:" + workItem.irodsAbsolutePath);
+					}
+
+					ChecksumValue checksumValue = checksumManager.determineChecksumEncodingFromIrodsData(response
+							.getTag(DataObjInpForChecksum.MY_STR).getStringValue().trim());
+					report(BulkChecksumResult.instanceForComputed(workItem.irodsAbsolutePath, resourceName,
+							catalogChecksum, checksumValue));
+
+				} catch (FileIntegrityException e) {
+					log.warn("checksum mismatch for:{}", workItem.irodsAbsolutePath);
+					report(BulkChecksumResult.instanceForError(workItem.irodsAbsolutePath, resourceName,
+							catalogChecksum, BulkChecksumStatus.MISMATCH, e));
+				} catch (JargonException e) {
+					log.error("error computing checksum for:{}", workItem.irodsAbsolutePath, e);
+					report(BulkChecksumResult.instanceForError(workItem.irodsAbsolutePath, resourceName,
+							catalogChecksum, BulkChecksumStatus.FAILED, e));
+				} finally {
+					resourceSemaphore.release();
+				}
+			}
+
+			/**
+			 * Read the catalog rows of the replicas of one data object
+			 */
+			private ReplicaGroup lookup(final String irodsAbsolutePath) throws JargonException {
+				CollectionAndPath collectionAndPath = MiscIRODSUtils
+						.separateCollectionAndPathFromGivenAbsolutePath(irodsAbsolutePath);
+				IRODSGenQueryBuilder builder = buildDataObjectQuery(QueryConditionOperators.EQUAL,
+						collectionAndPath.getCollectionParent());
+				IRODSQueryResultSet resultSet;
+				try {
+					builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_DATA_NAME,
+							QueryConditionOperators.EQUAL, collectionAndPath.getChildName());
+					resultSet = irodsAccessObjectFactory.getIRODSGenQueryExecutor(irodsAccount)
+							.executeIRODSQueryAndCloseResultInZone(builder.exportIRODSQueryFromBuilder(
+									irodsSession.getJargonProperties().getMaxFilesAndDirsQueryMax()), 0,
+									MiscIRODSUtils.getZoneInPath(irodsAbsolutePath));
+				} catch (GenQueryBuilderException e) {
+					log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+					throw new JargonException("error building checksum query", e);
+				} catch (JargonQueryException e) {
+					log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+					throw new JargonException("error in checksum query", e);
+				}
+
+				if (resultSet.getResults().isEmpty()) {
+					throw new FileNotFoundException("data object not found:" + irodsAbsolutePath);
+				}
+
+				ReplicaGroup group = null;
+				for (IRODSQueryResultRow row : resultSet.getResults()) {
+					if (group == null) {
+						group = new ReplicaGroup(irodsAbsolutePath, row.getColumn(2), row.getColumn(3));
+					}
+					group.addReplica(bulkChecksumOptions, row.getColumn(3),
+							IRODSDataConversionUtil.getDateFromIRODSValue(row.getColumn(4)));
+				}
+				return group;
+			}
+		}
+	}
+
+}
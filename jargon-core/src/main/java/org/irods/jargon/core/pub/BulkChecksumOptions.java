@@ -0,0 +1,119 @@
+package org.irods.jargon.core.pub;
+
+import java.util.Date;
+
+import org.irods.jargon.core.packinstr.ChecksumOptions;
+
+/**
+ * Options for a bulk checksum of many data objects, see
+ * {@link DataObjectChecksumUtilitiesAO#computeChecksumsUnderCollection(String, BulkChecksumOptions, org.irods.jargon.core.checksum.BulkChecksumCallbackListener)}
+ * <p>
+ * Checksums are computed by the server, with requests sent at the same time
+ * from a number of worker threads, each holding its own connection.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkChecksumOptions {
+
+	/**
+	 * Number of worker threads, each with its own connection
+	 */
+	private int numberOfThreads = 4;
+
+	/**
+	 * Number of checksums in progress at once on any one resource
+	 */
+	private int maxPerResource = 4;
+
+	/**
+	 * Skip data objects that have a catalog checksum and were last modified
+	 * after this time, in epoch millis. The catalog modify time is updated
+	 * when a checksum is registered. 0 means no data objects are skipped.
+	 */
+	private long skipIfChecksummedAfter = 0L;
+
+	/**
+	 * Options sent with each checksum request, by default verifying each
+	 * replica against the catalog
+	 */
+	private ChecksumOptions checksumOptions = new ChecksumOptions();
+
+	public BulkChecksumOptions() {
+	}
+
+	/**
+	 * Decide whether a data object may be skipped, given its catalog values
+	 *
+	 * @param catalogChecksum
+	 *            {@code String} with the catalog checksum, blank if none
+	 * @param modifiedAt
+	 *            {@code Date} with the catalog modify time, may be
+	 *            {@code null}
+	 * @return {@code boolean} of {@code true} if the catalog checksum is
+	 *         newer than {@link #getSkipIfChecksummedAfter()}
+	 */
+	public boolean isChecksumCurrent(final String catalogChecksum, final Date modifiedAt) {
+		if (skipIfChecksummedAfter <= 0L) {
+			return false;
+		}
+		if (catalogChecksum == null || catalogChecksum.isEmpty() || modifiedAt == null) {
+			return false;
+		}
+		return modifiedAt.getTime() > skipIfChecksummedAfter;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(final int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads < 1");
+		}
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public int getMaxPerResource() {
+		return maxPerResource;
+	}
+
+	public void setMaxPerResource(final int maxPerResource) {
+		if (maxPerResource < 1) {
+			throw new IllegalArgumentException("maxPerResource < 1");
+		}
+		this.maxPerResource = maxPerResource;
+	}
+
+	public long getSkipIfChecksummedAfter() {
+		return skipIfChecksummedAfter;
+	}
+
+	public void setSkipIfChecksummedAfter(final long skipIfChecksummedAfter) {
+		if (skipIfChecksummedAfter < 0L) {
+			throw new IllegalArgumentException("skipIfChecksummedAfter < 0");
+		}
+		this.skipIfChecksummedAfter = skipIfChecksummedAfter;
+	}
+
+	public ChecksumOptions getChecksumOptions() {
+		return checksumOptions;
+	}
+
+	public void setChecksumOptions(final ChecksumOptions checksumOptions) {
+		if (checksumOptions == null) {
+			throw new IllegalArgumentException("null checksumOptions");
+		}
+		this.checksumOptions = checksumOptions;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BulkChecksumOptions [numberOfThreads=").append(numberOfThreads).append(", maxPerResource=")
+				.append(maxPerResource).append(", skipIfChecksummedAfter=").append(skipIfChecksummedAfter)
+				.append(", checksumOptions=").append(checksumOptions).append("]");
+		return builder.toString();
+	}
+
+}
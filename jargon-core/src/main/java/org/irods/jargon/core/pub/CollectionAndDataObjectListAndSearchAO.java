@@ -7,6 +7,7 @@ import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.domain.IRODSDomainObject;
 import org.irods.jargon.core.pub.domain.ObjStat;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.CompactListingEntryList;
 import org.irods.jargon.core.query.PagingAwareCollectionListing;
 
 /**
@@ -164,6 +165,36 @@ public interface CollectionAndDataObjectListAndSearchAO extends
 			final String absolutePathToParent) throws FileNotFoundException,
 			JargonException;
 
+	/**
+	 * List all of the collections and then all of the data objects that are
+	 * direct children of the given parent, reading every page of each, into a
+	 * memory efficient {@link CompactListingEntryList}. This is meant for
+	 * collections with very many children, where the listing of
+	 * {@link #listDataObjectsAndCollectionsUnderPath(String)} would be paged.
+	 * <p>
+	 * The list holds the values of the entries in arrays, with repeated
+	 * strings, such as the parent path and owner, shared across the listing
+	 * and times held as epoch millis. Each entry is given as a
+	 * {@link org.irods.jargon.core.query.CompactCollectionAndDataObjectListingEntry}
+	 * , which has the accessors of
+	 * {@link org.irods.jargon.core.query.CollectionAndDataObjectListingEntry}.
+	 * Permissions are not included.
+	 * <p>
+	 * Soft links are supported as in
+	 * {@link #listDataObjectsAndCollectionsUnderPath(String)}.
+	 *
+	 * @param absolutePathToParent
+	 *            {@code String} with the absolute path to the parent.
+	 * @return {@link CompactListingEntryList} containing both files and
+	 *         collections
+	 * @throws FileNotFoundException
+	 *             if the given path does not exist
+	 * @throws JargonException
+	 */
+	CompactListingEntryList listDataObjectsAndCollectionsUnderPathCompact(
+			String absolutePathToParent) throws FileNotFoundException,
+			JargonException;
+
 	/**
 	 * This method is in support of applications and interfaces that need to
 	 * support listing and paging of collections. This method returns a simple
@@ -369,6 +400,33 @@ public interface CollectionAndDataObjectListAndSearchAO extends
 	List<CollectionAndDataObjectListingEntry> searchCollectionsAndDataObjectsBasedOnName(
 			String searchTerm) throws JargonException;
 
+	/**
+	 * Search for collections and data objects by name, as in
+	 * {@link #searchCollectionsAndDataObjectsBasedOnName(String)}, with the
+	 * collection and data object queries, and optionally one pair per
+	 * federated zone, run at the same time, each on its own connection.
+	 * <p>
+	 * The results are read as they arrive, optionally merged in order of
+	 * absolute path, and all pages of each query are read as the stream is
+	 * read, up to the limit given in the options. The stream must be closed
+	 * if it is not read to the end, which cancels the queries still running.
+	 *
+	 * @param searchTerm
+	 *            {@code String} that is the path search term, note that
+	 *            the "%" is added in the method and should not be provided as a
+	 *            parameter.
+	 * @param concurrentSearchOptions
+	 *            {@link ConcurrentSearchOptions} with the zones, sort order and
+	 *            limit of the search
+	 * @return {@link SearchResultStream} of
+	 *         {@link org.irods.jargon.core.query.CollectionAndDataObjectListingEntry}
+	 *         that match the search term
+	 * @throws JargonException
+	 */
+	SearchResultStream searchCollectionsAndDataObjectsBasedOnNameConcurrently(
+			String searchTerm, ConcurrentSearchOptions concurrentSearchOptions)
+			throws JargonException;
+
 	/**
 	 * Handy method will get the full domain object, DataObject or Collection,
 	 * based on the given absolute path. This can be handy for display in
@@ -22,6 +22,7 @@ import org.irods.jargon.core.pub.io.IRODSFileSystemAOHelper;
 import org.irods.jargon.core.query.AbstractIRODSQueryResultSet;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
 import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.irods.jargon.core.query.CompactListingEntryList;
 import org.irods.jargon.core.query.GenQueryBuilderException;
 import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
 import org.irods.jargon.core.query.IRODSGenQueryBuilder;
@@ -291,6 +292,84 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 		return entries;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO#
+	 * listDataObjectsAndCollectionsUnderPathCompact(java.lang.String)
+	 * 
+	 * softlink
+	 */
+	@Override
+	public CompactListingEntryList listDataObjectsAndCollectionsUnderPathCompact(
+			final String absolutePathToParent) throws FileNotFoundException,
+			JargonException {
+
+		if (absolutePathToParent == null || absolutePathToParent.isEmpty()) {
+			throw new IllegalArgumentException(
+					"absolutePathToParent is null or empty");
+		}
+
+		log.info("listDataObjectsAndCollectionsUnderPathCompact:{}",
+				absolutePathToParent);
+
+		CompactListingEntryList entries = new CompactListingEntryList();
+		CollectionListingUtils collectionListingUtils = new CollectionListingUtils(
+				this);
+		ObjStat objStat;
+
+		try {
+			objStat = retrieveObjectStatForPath(absolutePathToParent);
+		} catch (FileNotFoundException fnf) {
+			log.info("didn't find an objStat for the path, account for cases where there are strict acls and give Jargon a chance to drill down to a place where the user has permissions");
+			entries.addAll(collectionListingUtils
+					.handleNoListingUnderRootOrHomeByLookingForPublicAndHome(absolutePathToParent));
+			entries.trimToSize();
+			return entries;
+		}
+
+		MiscIRODSUtils.evaluateSpecCollSupport(objStat);
+
+		int offset = 0;
+		List<CollectionAndDataObjectListingEntry> page;
+		do {
+			page = collectionListingUtils.listCollectionsUnderPath(objStat,
+					offset);
+			entries.addAll(page);
+			offset = nextPageOffset(page, offset);
+		} while (offset > 0);
+
+		offset = 0;
+		do {
+			page = collectionListingUtils.listDataObjectsUnderPath(objStat,
+					offset);
+			entries.addAll(page);
+			offset = nextPageOffset(page, offset);
+		} while (offset > 0);
+
+		entries.trimToSize();
+		log.info("compact listing of {} entries", entries.size());
+		return entries;
+	}
+
+	/**
+	 * @return {@code int} with the offset of the page after the given one,
+	 *         or 0 if it was the last page
+	 */
+	private int nextPageOffset(
+			final List<CollectionAndDataObjectListingEntry> page,
+			final int offset) {
+		if (page.isEmpty()) {
+			return 0;
+		}
+
+		CollectionAndDataObjectListingEntry last = page.get(page.size() - 1);
+		if (last.isLastResult() || last.getCount() <= offset) {
+			return 0;
+		}
+		return last.getCount();
+	}
+
 	@Override
 	public List<CollectionAndDataObjectListingEntry> listDataObjectsAndCollectionsUnderPath(
 			final ObjStat objStat) throws FileNotFoundException,
@@ -1362,18 +1441,9 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 
 		try {
 			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
-			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
-					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
-					.addSelectAsGenQueryValue(
-							RodsGenQueryEnum.COL_D_CREATE_TIME)
-					.addSelectAsGenQueryValue(
-							RodsGenQueryEnum.COL_D_MODIFY_TIME)
-					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
-					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_OWNER_NAME)
-					.addConditionAsGenQueryField(
-							RodsGenQueryEnum.COL_DATA_NAME,
-							QueryConditionOperators.LIKE,
-							"%" + searchTerm + "%");
+			buildSelectsNeededForDataObjectSearch(builder);
+			builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_DATA_NAME,
+					QueryConditionOperators.LIKE, "%" + searchTerm + "%");
 			IRODSGenQueryFromBuilder irodsQuery = builder
 					.exportIRODSQueryFromBuilder(getJargonProperties()
 							.getMaxFilesAndDirsQueryMax());
@@ -1389,28 +1459,61 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 
 		List<CollectionAndDataObjectListingEntry> entries = new ArrayList<CollectionAndDataObjectListingEntry>();
 		for (IRODSQueryResultRow row : resultSet.getResults()) {
-			CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
-			entry.setParentPath(row.getColumn(0));
-			entry.setObjectType(ObjectType.DATA_OBJECT);
-			entry.setPathOrName(row.getColumn(1));
-			entry.setCreatedAt(IRODSDataConversionUtil
-					.getDateFromIRODSValue(row.getColumn(2)));
-			entry.setModifiedAt(IRODSDataConversionUtil
-					.getDateFromIRODSValue(row.getColumn(3)));
-			entry.setDataSize(IRODSDataConversionUtil
-					.getLongOrZeroFromIRODSValue(row.getColumn(4)));
-			entry.setOwnerName(row.getColumn(5));
-			entry.setCount(row.getRecordCount());
-			entry.setLastResult(row.isLastResult());
-
-			log.info("listing entry built {}", entry.toString());
-			entries.add(entry);
+			entries.add(buildDataObjectSearchEntryFromResultSetRow(row));
 		}
 
 		return entries;
 
 	}
 
+	/**
+	 * Add the selects used by {@link #searchDataObjectsBasedOnName(String)}
+	 * to the {@code IRODSGenQueryBuilder} provided
+	 *
+	 * @param builder
+	 *            {@link IRODSGenQueryBuilder}
+	 * @throws GenQueryBuilderException
+	 */
+	static void buildSelectsNeededForDataObjectSearch(
+			final IRODSGenQueryBuilder builder)
+			throws GenQueryBuilderException {
+		builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_CREATE_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_OWNER_NAME);
+	}
+
+	/**
+	 * Build a listing entry from a row of a query built with
+	 * {@link #buildSelectsNeededForDataObjectSearch(IRODSGenQueryBuilder)}
+	 *
+	 * @param row
+	 *            {@link IRODSQueryResultRow}
+	 * @return {@link CollectionAndDataObjectListingEntry}
+	 * @throws JargonException
+	 */
+	static CollectionAndDataObjectListingEntry buildDataObjectSearchEntryFromResultSetRow(
+			final IRODSQueryResultRow row) throws JargonException {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setParentPath(row.getColumn(0));
+		entry.setObjectType(ObjectType.DATA_OBJECT);
+		entry.setPathOrName(row.getColumn(1));
+		entry.setCreatedAt(IRODSDataConversionUtil.getDateFromIRODSValue(row
+				.getColumn(2)));
+		entry.setModifiedAt(IRODSDataConversionUtil.getDateFromIRODSValue(row
+				.getColumn(3)));
+		entry.setDataSize(IRODSDataConversionUtil
+				.getLongOrZeroFromIRODSValue(row.getColumn(4)));
+		entry.setOwnerName(row.getColumn(5));
+		entry.setCount(row.getRecordCount());
+		entry.setLastResult(row.isLastResult());
+
+		log.debug("listing entry built {}", entry);
+		return entry;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1436,6 +1539,38 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO#
+	 * searchCollectionsAndDataObjectsBasedOnNameConcurrently(java.lang.String,
+	 * org.irods.jargon.core.pub.ConcurrentSearchOptions)
+	 */
+	@Override
+	@FederationEnabled
+	public SearchResultStream searchCollectionsAndDataObjectsBasedOnNameConcurrently(
+			final String searchTerm,
+			final ConcurrentSearchOptions concurrentSearchOptions)
+			throws JargonException {
+
+		if (searchTerm == null || searchTerm.trim().isEmpty()) {
+			throw new IllegalArgumentException("null or empty search term");
+		}
+
+		if (concurrentSearchOptions == null) {
+			throw new IllegalArgumentException("null concurrentSearchOptions");
+		}
+
+		log.info(
+				"searchCollectionsAndDataObjectsBasedOnNameConcurrently for search term:{}",
+				searchTerm);
+		log.info("options:{}", concurrentSearchOptions);
+
+		return ConcurrentSearchExecutor.instance(getIRODSSession(),
+				getIRODSAccount()).search(searchTerm.trim(),
+				concurrentSearchOptions);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
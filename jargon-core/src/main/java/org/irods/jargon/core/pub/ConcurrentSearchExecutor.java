@@ -0,0 +1,277 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.aohelper.CollectionAOHelper;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryOrderByField.OrderByType;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ *         Concurrent counterpart to
+ *         {@link CollectionAndDataObjectListAndSearchAO#searchCollectionsAndDataObjectsBasedOnName(String)}
+ *         . The search is split into a sub-query for collections and one for
+ *         data objects in each zone searched, and each sub-query runs on a
+ *         worker thread holding its own connection, which is closed when the
+ *         sub-query is done. Each sub-query reads every page of its results,
+ *         keeping the query open on the server between pages, and hands them
+ *         to a {@link SearchResultStream} that merges them for the caller.
+ *         <p>
+ *         These are used internally. See
+ *         {@link CollectionAndDataObjectListAndSearchAO} for public methods.
+ *
+ */
+final class ConcurrentSearchExecutor {
+
+	static Logger log = LoggerFactory.getLogger(ConcurrentSearchExecutor.class);
+
+	/**
+	 * Results buffered per queue, ahead of the reader
+	 */
+	private static final int RESULTS_BUFFERED_PER_QUERY = 256;
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+
+	/**
+	 * Initializer creates an instance of this class.
+	 *
+	 * @param irodsSession
+	 *            {@code IRODSSession} that can connect to iRODS
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} for this connection.
+	 * @return {@link ConcurrentSearchExecutor}
+	 * @throws JargonException
+	 */
+	final static ConcurrentSearchExecutor instance(final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount) throws JargonException {
+		return new ConcurrentSearchExecutor(irodsSession, irodsAccount);
+	}
+
+	private ConcurrentSearchExecutor(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		if (irodsSession == null || irodsAccount == null) {
+			throw new JargonException("null irodsSession or irodsAccount");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		irodsAccessObjectFactory = IRODSAccessObjectFactoryImpl.instance(irodsSession);
+	}
+
+	/**
+	 * Start the sub-queries of a search, returning as soon as they are
+	 * started
+	 *
+	 * @param searchTerm
+	 *            {@code String} with the search term, without "%"
+	 * @param concurrentSearchOptions
+	 *            {@link ConcurrentSearchOptions} for the search
+	 * @return {@link SearchResultStream} with the merged results
+	 * @throws JargonException
+	 */
+	SearchResultStream search(final String searchTerm, final ConcurrentSearchOptions concurrentSearchOptions)
+			throws JargonException {
+
+		List<SubQuery> subQueries = buildSubQueries(searchTerm, concurrentSearchOptions);
+		if (subQueries.isEmpty()) {
+			throw new IllegalArgumentException("neither collections nor data objects are searched");
+		}
+
+		boolean sorted = concurrentSearchOptions.isSorted();
+		List<BlockingQueue<Object>> queues = new ArrayList<BlockingQueue<Object>>();
+		int[] sourcesPerQueue;
+		int numberOfThreads;
+
+		if (sorted) {
+			// every head is needed to choose the next result
+			sourcesPerQueue = new int[subQueries.size()];
+			for (int i = 0; i < subQueries.size(); i++) {
+				queues.add(new ArrayBlockingQueue<Object>(RESULTS_BUFFERED_PER_QUERY));
+				sourcesPerQueue[i] = 1;
+				subQueries.get(i).queueIndex = i;
+			}
+			numberOfThreads = subQueries.size();
+		} else {
+			queues.add(new ArrayBlockingQueue<Object>(RESULTS_BUFFERED_PER_QUERY * 2));
+			sourcesPerQueue = new int[] { subQueries.size() };
+			numberOfThreads = Math.min(subQueries.size(), concurrentSearchOptions.getMaxConcurrentQueries());
+		}
+
+		log.info("starting {} search sub-queries on {} threads", subQueries.size(), numberOfThreads);
+		ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+		SearchResultStream searchResultStream = new SearchResultStream(queues, sourcesPerQueue, sorted,
+				concurrentSearchOptions.getMaxResults());
+		for (SubQuery subQuery : subQueries) {
+			subQuery.searchResultStream = searchResultStream;
+			executorService.submit(subQuery);
+		}
+		// threads end once their sub-queries are done or cancelled
+		executorService.shutdown();
+		return searchResultStream;
+	}
+
+	private List<SubQuery> buildSubQueries(final String searchTerm,
+			final ConcurrentSearchOptions concurrentSearchOptions) throws JargonException {
+
+		List<String> zones;
+		if (concurrentSearchOptions.isAllFederatedZones()) {
+			zones = irodsAccessObjectFactory.getZoneAO(irodsAccount).listZoneNames();
+			log.info("searching all zones:{}", zones);
+		} else if (concurrentSearchOptions.getZones().isEmpty()) {
+			zones = new ArrayList<String>();
+			zones.add("");
+		} else {
+			zones = concurrentSearchOptions.getZones();
+		}
+
+		int maxRows = irodsSession.getJargonProperties().getMaxFilesAndDirsQueryMax();
+		List<SubQuery> subQueries = new ArrayList<SubQuery>();
+
+		try {
+			for (String zone : zones) {
+				if (concurrentSearchOptions.isSearchCollections()) {
+					IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+					CollectionAOHelper.buildSelectsNeededForCollectionsInCollectionsAndDataObjectsListingEntry(builder);
+					builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+							QueryConditionOperators.LIKE, "%" + searchTerm);
+					if (concurrentSearchOptions.isSorted()) {
+						builder.addOrderByGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, OrderByType.ASC);
+					}
+					subQueries.add(new SubQuery(builder.exportIRODSQueryFromBuilder(maxRows), zone, true));
+				}
+
+				if (concurrentSearchOptions.isSearchDataObjects()) {
+					IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+					CollectionAndDataObjectListAndSearchAOImpl.buildSelectsNeededForDataObjectSearch(builder);
+					builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_DATA_NAME,
+							QueryConditionOperators.LIKE, "%" + searchTerm + "%");
+					if (concurrentSearchOptions.isSorted()) {
+						builder.addOrderByGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, OrderByType.ASC)
+								.addOrderByGenQueryField(RodsGenQueryEnum.COL_DATA_NAME, OrderByType.ASC);
+					}
+					subQueries.add(new SubQuery(builder.exportIRODSQueryFromBuilder(maxRows), zone, false));
+				}
+			}
+		} catch (GenQueryBuilderException e) {
+			log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+			throw new JargonException("error building search query", e);
+		}
+
+		return subQueries;
+	}
+
+	/**
+	 * One query for collections or data objects in one zone, reading all of
+	 * its pages on its own connection until done or the stream is closed
+	 */
+	private final class SubQuery implements Callable<Void> {
+		private final IRODSGenQueryFromBuilder irodsQuery;
+		private final String zone;
+		private final boolean collections;
+		private int queueIndex = 0;
+		private SearchResultStream searchResultStream = null;
+
+		SubQuery(final IRODSGenQueryFromBuilder irodsQuery, final String zone, final boolean collections) {
+			this.irodsQuery = irodsQuery;
+			this.zone = zone;
+			this.collections = collections;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			IRODSGenQueryExecutor irodsGenQueryExecutor = null;
+			IRODSQueryResultSet resultSet = null;
+			try {
+				if (searchResultStream.isCancelled()) {
+					return null;
+				}
+
+				log.info("running search sub-query for {} in zone:{}", collections ? "collections"
+						: "data objects", zone);
+				irodsGenQueryExecutor = irodsAccessObjectFactory.getIRODSGenQueryExecutor(irodsAccount);
+				resultSet = irodsGenQueryExecutor.executeIRODSQueryInZone(irodsQuery, 0, zone);
+
+				while (true) {
+					for (IRODSQueryResultRow row : resultSet.getResults()) {
+						if (!searchResultStream.offer(queueIndex, buildEntry(row, resultSet))) {
+							return null;
+						}
+					}
+
+					if (!resultSet.isHasMoreRecords()) {
+						break;
+					}
+
+					log.debug("reading next page of search results");
+					resultSet = irodsGenQueryExecutor.getMoreResultsInZone(resultSet, zone);
+				}
+
+				searchResultStream.offer(queueIndex, SearchResultStream.END);
+
+			} catch (JargonQueryException e) {
+				log.error(CollectionListingUtils.QUERY_EXCEPTION_FOR_QUERY, e);
+				fail(new JargonException("error in search query", e));
+			} catch (JargonException e) {
+				log.error("error in search sub-query", e);
+				fail(e);
+			} catch (RuntimeException e) {
+				log.error("unexpected error in search sub-query", e);
+				fail(new JargonException("unexpected error in search sub-query", e));
+			} catch (InterruptedException e) {
+				log.info("search sub-query interrupted");
+				Thread.currentThread().interrupt();
+			} finally {
+				if (resultSet != null && resultSet.isHasMoreRecords()) {
+					try {
+						irodsGenQueryExecutor.closeResults(resultSet);
+					} catch (JargonException e) {
+						log.warn("error closing search results, ignored", e);
+					}
+				}
+
+				try {
+					irodsSession.closeSession(irodsAccount);
+				} catch (JargonException e) {
+					log.warn("error closing search connection, ignored", e);
+				}
+			}
+			return null;
+		}
+
+		private Object buildEntry(final IRODSQueryResultRow row, final IRODSQueryResultSet resultSet)
+				throws JargonException {
+			if (collections) {
+				return CollectionAOHelper.buildCollectionListEntryFromResultSetRowForCollectionQuery(row,
+						resultSet.getTotalRecords());
+			} else {
+				return CollectionAndDataObjectListAndSearchAOImpl.buildDataObjectSearchEntryFromResultSetRow(row);
+			}
+		}
+
+		private void fail(final JargonException jargonException) throws InterruptedException {
+			searchResultStream.offer(queueIndex, new SearchResultStream.SubQueryFailure(jargonException));
+		}
+	}
+
+}
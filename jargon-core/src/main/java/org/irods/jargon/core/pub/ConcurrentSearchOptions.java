@@ -0,0 +1,136 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Options for a concurrent search of collections and data objects by name, see
+ * {@link CollectionAndDataObjectListAndSearchAO#searchCollectionsAndDataObjectsBasedOnNameConcurrently(String, ConcurrentSearchOptions)}
+ * <p>
+ * A search is split into sub-queries, one for collections and one for data
+ * objects in each zone searched, which are run at the same time, each on its
+ * own connection.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ConcurrentSearchOptions {
+
+	/**
+	 * Search for collections whose name ends with the search term
+	 */
+	private boolean searchCollections = true;
+
+	/**
+	 * Search for data objects whose name contains the search term
+	 */
+	private boolean searchDataObjects = true;
+
+	/**
+	 * Zones to search, if empty only the zone of the account is searched
+	 */
+	private List<String> zones = new ArrayList<String>();
+
+	/**
+	 * Search every zone known to the zone of the account, in place of the
+	 * given zones
+	 */
+	private boolean allFederatedZones = false;
+
+	/**
+	 * Merge the results in order of absolute path, rather than as they arrive
+	 */
+	private boolean sorted = false;
+
+	/**
+	 * Stop the search after this many results, 0 means no limit
+	 */
+	private int maxResults = 0;
+
+	/**
+	 * Number of sub-queries run at once when the results are not sorted. A
+	 * sorted search runs every sub-query at once, as each is needed to choose
+	 * the next result.
+	 */
+	private int maxConcurrentQueries = 4;
+
+	public ConcurrentSearchOptions() {
+	}
+
+	public boolean isSearchCollections() {
+		return searchCollections;
+	}
+
+	public void setSearchCollections(final boolean searchCollections) {
+		this.searchCollections = searchCollections;
+	}
+
+	public boolean isSearchDataObjects() {
+		return searchDataObjects;
+	}
+
+	public void setSearchDataObjects(final boolean searchDataObjects) {
+		this.searchDataObjects = searchDataObjects;
+	}
+
+	public List<String> getZones() {
+		return zones;
+	}
+
+	public void setZones(final List<String> zones) {
+		if (zones == null) {
+			throw new IllegalArgumentException("null zones");
+		}
+		this.zones = zones;
+	}
+
+	public boolean isAllFederatedZones() {
+		return allFederatedZones;
+	}
+
+	public void setAllFederatedZones(final boolean allFederatedZones) {
+		this.allFederatedZones = allFederatedZones;
+	}
+
+	public boolean isSorted() {
+		return sorted;
+	}
+
+	public void setSorted(final boolean sorted) {
+		this.sorted = sorted;
+	}
+
+	public int getMaxResults() {
+		return maxResults;
+	}
+
+	public void setMaxResults(final int maxResults) {
+		if (maxResults < 0) {
+			throw new IllegalArgumentException("maxResults < 0");
+		}
+		this.maxResults = maxResults;
+	}
+
+	public int getMaxConcurrentQueries() {
+		return maxConcurrentQueries;
+	}
+
+	public void setMaxConcurrentQueries(final int maxConcurrentQueries) {
+		if (maxConcurrentQueries < 1) {
+			throw new IllegalArgumentException("maxConcurrentQueries < 1");
+		}
+		this.maxConcurrentQueries = maxConcurrentQueries;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ConcurrentSearchOptions [searchCollections=").append(searchCollections)
+				.append(", searchDataObjects=").append(searchDataObjects).append(", zones=").append(zones)
+				.append(", allFederatedZones=").append(allFederatedZones).append(", sorted=").append(sorted)
+				.append(", maxResults=").append(maxResults).append(", maxConcurrentQueries=")
+				.append(maxConcurrentQueries).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,565 @@
+package org.irods.jargon.core.pub;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatus;
+import org.irods.jargon.core.transfer.TransferStatus.TransferState;
+import org.irods.jargon.core.transfer.TransferStatus.TransferType;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ *         Concurrent counterpart to the recursive replicate and copy methods
+ *         in {@link TransferOperationsHelper}. The calling thread walks the
+ *         source collection and queues each data object, while a bounded set
+ *         of worker threads, each holding its own connection, issue the
+ *         server-side replications or copies.
+ *         <p>
+ *         The number of in-flight operations against any one target resource
+ *         is capped by a semaphore that is shared by all operations in this
+ *         JVM, so that several concurrent collection replications do not
+ *         overrun a storage target. The permit count is fixed the first time
+ *         a resource is seen.
+ *         <p>
+ *         Each data object is processed through
+ *         {@link TransferOperationsHelper}, so filtering, restart, error
+ *         counting, and per-file callbacks behave as in the serial case.
+ *         Callbacks to the {@link TransferStatusCallbackListener} are
+ *         serialized so that listeners need not be thread-safe, though files
+ *         will complete out of order. These are used internally. See
+ *         {@link org.irods.jargon.core.pub.DataTransferOperations} for public
+ *         methods.
+ *
+ */
+final class ConcurrentTransferOperationsHelper {
+
+	static Logger log = LoggerFactory.getLogger(ConcurrentTransferOperationsHelper.class);
+
+	/**
+	 * Per-resource concurrency limits, keyed by host, port, zone, and resource
+	 */
+	private static final ConcurrentMap<String, Semaphore> resourceSemaphores = new ConcurrentHashMap<String, Semaphore>();
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final CollectionAO collectionAO;
+
+	/**
+	 * Initializer creates an instance of this class.
+	 *
+	 * @param irodsSession
+	 *            {@code IRODSSession} that can connect to iRODS
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} for this connection.
+	 * @return {@link ConcurrentTransferOperationsHelper}
+	 * @throws JargonException
+	 */
+	final static ConcurrentTransferOperationsHelper instance(final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount) throws JargonException {
+		return new ConcurrentTransferOperationsHelper(irodsSession, irodsAccount);
+	}
+
+	private ConcurrentTransferOperationsHelper(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		if (irodsSession == null || irodsAccount == null) {
+			throw new JargonException("null irodsSession or irodsAccount");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		collectionAO = new CollectionAOImpl(irodsSession, irodsAccount);
+	}
+
+	/**
+	 * Check whether the transfer options in the given control block ask for
+	 * concurrent replication or copy of collections
+	 *
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the operation, may be
+	 *            {@code null}
+	 * @return {@code boolean} of {@code true} if more than one thread is
+	 *         configured
+	 */
+	static boolean isConcurrent(final TransferControlBlock transferControlBlock) {
+		if (transferControlBlock == null) {
+			return false;
+		}
+		TransferOptions transferOptions = transferControlBlock.getTransferOptions();
+		return transferOptions != null && transferOptions.getConcurrentReplicationThreads() > 1;
+	}
+
+	/**
+	 * Replicate every data object underneath a collection to the target
+	 * resource using concurrent workers.
+	 *
+	 * @param sourceFile
+	 *            {@link IRODSFile} that is the collection to replicate
+	 * @param targetResource
+	 *            {@code String} with the resource to which the files should
+	 *            be replicated.
+	 * @param transferStatusCallbackListener
+	 *            optional {@link TransferStatusCallbackListener}, if
+	 *            {@code null} the first error is rethrown once the workers
+	 *            have stopped
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} with the transfer options and
+	 *            cancellation flags
+	 * @throws JargonException
+	 */
+	void recursivelyReplicate(final IRODSFile sourceFile, final String targetResource,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
+		if (!sourceFile.isDirectory()) {
+			throw new JargonException("source file is not a directory, cannot recursively replicate");
+		}
+
+		log.info("concurrently replicating source file: {}", sourceFile.getAbsolutePath());
+		log.info("    into resource: {}", targetResource);
+
+		ConcurrentOperation operation = new ConcurrentOperation(TransferType.REPLICATE, targetResource,
+				transferStatusCallbackListener, transferControlBlock);
+		operation.start();
+		boolean queued = false;
+		try {
+			queueReplications(sourceFile, operation);
+			queued = true;
+		} finally {
+			operation.finish(queued);
+		}
+	}
+
+	/**
+	 * Copy every data object underneath a collection to the target
+	 * collection using concurrent workers. Target sub-collections are created
+	 * by the calling thread before their contents are queued.
+	 *
+	 * @param irodsSourceFile
+	 *            {@link IRODSFile} that is the collection to copy
+	 * @param targetResource
+	 *            {@code String} with the optional (blank if not specified)
+	 *            resource to which the files will be copied
+	 * @param targetIrodsFileAbsolutePath
+	 *            {@code String} with the absolute path of the target
+	 *            collection, which must already exist
+	 * @param transferStatusCallbackListener
+	 *            optional {@link TransferStatusCallbackListener}, if
+	 *            {@code null} the first error is rethrown once the workers
+	 *            have stopped
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} with the transfer options and
+	 *            cancellation flags
+	 * @throws JargonException
+	 */
+	void recursivelyCopy(final IRODSFile irodsSourceFile, final String targetResource,
+			final String targetIrodsFileAbsolutePath,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) throws JargonException {
+
+		if (!irodsSourceFile.isDirectory()) {
+			throw new JargonException("source file is not a directory, cannot recursively copy");
+		}
+
+		log.info("concurrently copying source file: {}", irodsSourceFile.getAbsolutePath());
+		log.info("to target file: {}", targetIrodsFileAbsolutePath);
+		log.info("resource: {}", targetResource);
+
+		ConcurrentOperation operation = new ConcurrentOperation(TransferType.COPY, targetResource,
+				transferStatusCallbackListener, transferControlBlock);
+		operation.start();
+		boolean queued = false;
+		try {
+			queueCopies(irodsSourceFile, targetIrodsFileAbsolutePath, operation);
+			queued = true;
+		} finally {
+			operation.finish(queued);
+		}
+	}
+
+	/**
+	 * Walk a collection, queueing each data object for replication
+	 *
+	 * @return {@code boolean} that is {@code false} if the walk stopped early
+	 */
+	private boolean queueReplications(final IRODSFile collection, final ConcurrentOperation operation)
+			throws JargonException {
+
+		for (File fileInSourceCollection : collection.listFiles()) {
+
+			if (operation.checkForInterruption(fileInSourceCollection.getAbsolutePath(), "")) {
+				return false;
+			}
+
+			if (fileInSourceCollection.isDirectory()) {
+				if (!queueReplications((IRODSFile) fileInSourceCollection, operation)) {
+					return false;
+				}
+			} else {
+				operation.submit(new WorkItem(fileInSourceCollection.getAbsolutePath(), ""));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Walk a collection, creating target collections and queueing each data
+	 * object for copy
+	 *
+	 * @return {@code boolean} that is {@code false} if the walk stopped early
+	 */
+	private boolean queueCopies(final IRODSFile collection, final String targetCollectionAbsolutePath,
+			final ConcurrentOperation operation) throws JargonException {
+
+		for (File fileInSourceCollection : collection.listFiles()) {
+
+			if (operation.checkForInterruption(fileInSourceCollection.getAbsolutePath(),
+					targetCollectionAbsolutePath)) {
+				return false;
+			}
+
+			StringBuilder sb = new StringBuilder();
+			sb.append(targetCollectionAbsolutePath);
+			sb.append("/");
+			sb.append(fileInSourceCollection.getName());
+			String childTargetPath = sb.toString();
+
+			if (fileInSourceCollection.isDirectory()) {
+				log.debug("source is a collection, create the target");
+				IRODSFile childTargetFile = collectionAO.instanceIRODSFileForCollectionPath(childTargetPath);
+				childTargetFile.mkdirs();
+				if (!queueCopies((IRODSFile) fileInSourceCollection, childTargetPath, operation)) {
+					return false;
+				}
+			} else {
+				operation.submit(new WorkItem(fileInSourceCollection.getAbsolutePath(), childTargetPath));
+			}
+		}
+		return true;
+	}
+
+	private Semaphore semaphoreForResource(final String targetResource, final int maxPerResource) {
+		String resource = targetResource;
+		if (resource == null || resource.isEmpty()) {
+			resource = irodsAccount.getDefaultStorageResource();
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getHost());
+		sb.append(":");
+		sb.append(irodsAccount.getPort());
+		sb.append("/");
+		sb.append(irodsAccount.getZone());
+		sb.append("/");
+		sb.append(resource);
+		String key = sb.toString();
+
+		Semaphore semaphore = resourceSemaphores.get(key);
+		if (semaphore == null) {
+			semaphore = new Semaphore(Math.max(1, maxPerResource), true);
+			Semaphore existing = resourceSemaphores.putIfAbsent(key, semaphore);
+			if (existing != null) {
+				semaphore = existing;
+			} else {
+				log.info("per-resource limit of {} for {}", semaphore.availablePermits(), key);
+			}
+		}
+		return semaphore;
+	}
+
+	/**
+	 * One data object to replicate or copy
+	 */
+	private static final class WorkItem {
+		static final WorkItem END = new WorkItem("", "");
+
+		final String sourceAbsolutePath;
+		final String targetAbsolutePath;
+
+		WorkItem(final String sourceAbsolutePath, final String targetAbsolutePath) {
+			this.sourceAbsolutePath = sourceAbsolutePath;
+			this.targetAbsolutePath = targetAbsolutePath;
+		}
+	}
+
+	/**
+	 * State for one concurrent replicate or copy of a collection
+	 */
+	private final class ConcurrentOperation {
+		private final TransferType transferType;
+		private final String targetResource;
+		private final TransferStatusCallbackListener transferStatusCallbackListener;
+		private final TransferControlBlock transferControlBlock;
+		private final int numberOfThreads;
+		private final Semaphore resourceSemaphore;
+		private final BlockingQueue<WorkItem> workQueue;
+		private final AtomicReference<JargonException> firstError = new AtomicReference<JargonException>();
+		private final List<Future<Void>> workers = new ArrayList<Future<Void>>();
+		private ExecutorService executorService = null;
+
+		ConcurrentOperation(final TransferType transferType, final String targetResource,
+				final TransferStatusCallbackListener transferStatusCallbackListener,
+				final TransferControlBlock transferControlBlock) {
+			if (transferControlBlock == null) {
+				throw new IllegalArgumentException("null transferControlBlock");
+			}
+
+			this.transferType = transferType;
+			this.targetResource = targetResource;
+			this.transferControlBlock = transferControlBlock;
+			if (transferStatusCallbackListener == null) {
+				this.transferStatusCallbackListener = null;
+			} else {
+				this.transferStatusCallbackListener = new SerializedTransferStatusCallbackListener(
+						transferStatusCallbackListener);
+			}
+
+			TransferOptions transferOptions = transferControlBlock.getTransferOptions();
+			if (transferOptions == null) {
+				transferOptions = irodsSession.buildTransferOptionsBasedOnJargonProperties();
+			}
+			numberOfThreads = Math.max(1, transferOptions.getConcurrentReplicationThreads());
+			resourceSemaphore = semaphoreForResource(targetResource,
+					transferOptions.getConcurrentReplicationMaxPerResource());
+			workQueue = new ArrayBlockingQueue<WorkItem>(numberOfThreads * 4);
+		}
+
+		void start() {
+			log.info("starting {} workers for {}", numberOfThreads, transferType);
+			executorService = Executors.newFixedThreadPool(numberOfThreads);
+			for (int i = 0; i < numberOfThreads; i++) {
+				workers.add(executorService.submit(new Worker()));
+			}
+		}
+
+		boolean isStopped() {
+			return transferControlBlock.isCancelled() || transferControlBlock.isPaused() || firstError.get() != null;
+		}
+
+		/**
+		 * Check for a cancel, pause, or worker error before queueing the next
+		 * file, sending the same interrupt callback as the serial walk
+		 *
+		 * @return {@code boolean} of {@code true} if the walk should stop
+		 */
+		boolean checkForInterruption(final String sourceAbsolutePath, final String targetAbsolutePath)
+				throws JargonException {
+
+			if (Thread.interrupted()) {
+				log.info("cancellation detected, set cancelled in tcb");
+				transferControlBlock.setCancelled(true);
+			}
+
+			if (firstError.get() != null) {
+				log.info("worker reported an error, stop queueing");
+				return true;
+			}
+
+			if (!transferControlBlock.isCancelled() && !transferControlBlock.isPaused()) {
+				return false;
+			}
+
+			log.info("transfer cancelled or paused");
+			if (transferStatusCallbackListener != null) {
+				TransferState interruptStatus;
+				if (transferControlBlock.shouldTransferBeAbandonedDueToNumberOfErrors()) {
+					interruptStatus = TransferState.FAILURE;
+				} else if (transferControlBlock.isCancelled()) {
+					interruptStatus = TransferState.CANCELLED;
+				} else {
+					interruptStatus = TransferState.PAUSED;
+				}
+
+				TransferStatus status = TransferStatus.instance(transferType, sourceAbsolutePath,
+						targetAbsolutePath, targetResource, 0L, 0L,
+						transferControlBlock.getTotalFilesTransferredSoFar(),
+						transferControlBlock.getTotalFilesSkippedSoFar(),
+						transferControlBlock.getTotalFilesToTransfer(), interruptStatus, irodsAccount.getHost(),
+						irodsAccount.getZone());
+				transferStatusCallbackListener.statusCallback(status);
+			}
+			return true;
+		}
+
+		void submit(final WorkItem workItem) throws JargonException {
+			try {
+				while (!workQueue.offer(workItem, 1, TimeUnit.SECONDS)) {
+					if (allWorkersDone()) {
+						throw new JargonException("concurrent transfer workers have stopped unexpectedly");
+					}
+				}
+			} catch (InterruptedException e) {
+				log.info("interrupted while queueing, set cancelled in tcb");
+				transferControlBlock.setCancelled(true);
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/**
+		 * Signal the workers that no more files are coming, wait for them to
+		 * drain the queue, and rethrow the first error if there is no
+		 * listener to receive it
+		 *
+		 * @param rethrow
+		 *            {@code boolean} that is {@code false} when the caller is
+		 *            already propagating an exception
+		 */
+		void finish(final boolean rethrow) throws JargonException {
+			try {
+				for (int i = 0; i < numberOfThreads; i++) {
+					submit(WorkItem.END);
+				}
+
+				for (Future<Void> worker : workers) {
+					try {
+						worker.get();
+					} catch (ExecutionException e) {
+						firstError.compareAndSet(null, new JargonException(e.getCause()));
+					} catch (InterruptedException e) {
+						log.info("interrupted while awaiting workers, set cancelled in tcb");
+						transferControlBlock.setCancelled(true);
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+			} finally {
+				if (Thread.currentThread().isInterrupted()) {
+					/*
+					 * the end markers may not all be queued, or the workers
+					 * not awaited, so interrupt the workers out of the queue
+					 * rather than leave them waiting on it
+					 */
+					log.info("interrupted, stopping concurrent workers");
+					executorService.shutdownNow();
+				} else {
+					executorService.shutdown();
+				}
+			}
+
+			log.info("concurrent {} complete", transferType);
+
+			JargonException error = firstError.get();
+			if (rethrow && error != null) {
+				log.error("rethrowing first error from concurrent workers", error);
+				throw error;
+			}
+		}
+
+		private boolean allWorkersDone() {
+			for (Future<Void> worker : workers) {
+				if (!worker.isDone()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Takes files from the queue until the end marker, or until
+		 * interrupted, using its own connection, which is closed when the
+		 * worker exits. Once the operation is cancelled, paused, or has
+		 * failed, remaining files are drained without processing.
+		 */
+		private final class Worker implements Callable<Void> {
+
+			@Override
+			public Void call() throws Exception {
+				try {
+					TransferOperationsHelper transferOperationsHelper = TransferOperationsHelper
+							.instance(irodsSession, irodsAccount);
+
+					while (true) {
+						WorkItem workItem = workQueue.take();
+						if (workItem == WorkItem.END) {
+							break;
+						}
+
+						if (isStopped()) {
+							continue;
+						}
+
+						resourceSemaphore.acquire();
+						try {
+							if (transferType == TransferType.REPLICATE) {
+								transferOperationsHelper.processReplicationOfSingleFile(
+										workItem.sourceAbsolutePath, targetResource,
+										transferStatusCallbackListener, transferControlBlock);
+							} else {
+								transferOperationsHelper.processCopyOfSingleFile(workItem.sourceAbsolutePath,
+										targetResource, workItem.targetAbsolutePath,
+										transferStatusCallbackListener, transferControlBlock);
+							}
+						} catch (JargonException je) {
+							// only rethrown by the helper when there is no
+							// listener, stop the operation
+							log.error("error in concurrent {} of {}", transferType, workItem.sourceAbsolutePath);
+							firstError.compareAndSet(null, je);
+						} finally {
+							resourceSemaphore.release();
+						}
+					}
+				} finally {
+					try {
+						irodsSession.closeSession(irodsAccount);
+					} catch (JargonException e) {
+						log.warn("error closing worker connection, ignored", e);
+					}
+				}
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Serializes callbacks from the workers to the caller's listener
+	 */
+	private static final class SerializedTransferStatusCallbackListener implements TransferStatusCallbackListener {
+
+		private final TransferStatusCallbackListener delegate;
+
+		SerializedTransferStatusCallbackListener(final TransferStatusCallbackListener delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public synchronized FileStatusCallbackResponse statusCallback(final TransferStatus transferStatus)
+				throws JargonException {
+			return delegate.statusCallback(transferStatus);
+		}
+
+		@Override
+		public synchronized void overallStatusCallback(final TransferStatus transferStatus)
+				throws JargonException {
+			delegate.overallStatusCallback(transferStatus);
+		}
+
+		@Override
+		public synchronized CallbackResponse transferAsksWhetherToForceOperation(final String irodsAbsolutePath,
+				final boolean isCollection) {
+			return delegate.transferAsksWhetherToForceOperation(irodsAbsolutePath, isCollection);
+		}
+	}
+
+}
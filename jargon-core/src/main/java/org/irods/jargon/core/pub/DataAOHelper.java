@@ -844,7 +844,7 @@ public final class DataAOHelper extends AOHelper {
 		entry.setLastResult(row.isLastResult());
 		entry.setTotalRecords(totalRecords);
 
-		log.debug("listing entry built {}", entry.toString());
+		log.debug("listing entry built {}", entry);
 
 		return entry;
 
@@ -64,6 +64,7 @@ import org.irods.jargon.core.rule.IRODSRuleExecResult;
 import org.irods.jargon.core.rule.IRODSRuleParameter;
 import org.irods.jargon.core.rule.RuleInvocationConfiguration;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
+import org.irods.jargon.core.transfer.AdaptiveParallelTransferTuner;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
 import org.irods.jargon.core.transfer.FileRestartInfo;
 import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
@@ -77,6 +78,7 @@ import org.irods.jargon.core.transfer.RestartFailedException;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.transfer.TransferStatus.TransferType;
 import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.irods.jargon.core.transfer.TransferThrottle;
 import org.irods.jargon.core.utils.CollectionAndPath;
 import org.irods.jargon.core.utils.IRODSConstants;
 import org.irods.jargon.core.utils.IRODSDataConversionUtil;
@@ -489,6 +491,25 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			final TransferStatusCallbackListener transferStatusCallbackListener)
 			throws DataNotFoundException, JargonException, JargonRuntimeException, OverwriteException {
 
+		TransferThrottle previousTransferThrottle = TransferThrottle
+				.bindToCurrentThread(buildTransferThrottle(transferControlBlock));
+		try {
+			putCommonProcessingWithThrottleBound(localFile, irodsFileDestination, ignoreChecks,
+					transferControlBlock, transferStatusCallbackListener);
+		} finally {
+			TransferThrottle.bindToCurrentThread(previousTransferThrottle);
+		}
+	}
+
+	/**
+	 * Body of {@link #putCommonProcessing(File, IRODSFile, boolean, TransferControlBlock, TransferStatusCallbackListener)}
+	 * with the rate limits of the transfer bound to this thread
+	 */
+	private void putCommonProcessingWithThrottleBound(final File localFile, final IRODSFile irodsFileDestination,
+			final boolean ignoreChecks, final TransferControlBlock transferControlBlock,
+			final TransferStatusCallbackListener transferStatusCallbackListener)
+			throws DataNotFoundException, JargonException, JargonRuntimeException, OverwriteException {
+
 		log.info("putCommonProcessing()");
 
 		if (!localFile.exists()) {
@@ -759,6 +780,13 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			myTransferOptions.setMaxThreads(-1);
 		}
 
+		AdaptiveParallelTransferTuner adaptiveParallelTransferTuner = buildAdaptiveParallelTransferTunerIfConfigured(
+				transferControlBlock.getTransferOptions());
+		if (adaptiveParallelTransferTuner != null) {
+			myTransferOptions.setMaxThreads(adaptiveParallelTransferTuner.getRecommendedThreads());
+			log.info("adaptive parallel transfer will request {} threads", myTransferOptions.getMaxThreads());
+		}
+
 		ConnectionProgressStatusListener intraFileStatusListener = null;
 
 		boolean execFlag = false;
@@ -804,7 +832,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 				 * restart processing is done inside of the parallel put code
 				 */
 				parallelPutTransfer(localFile, targetFile.getAbsolutePath(), responseToInitialCallForPut,
-						numberOfThreads, localFile.length(), transferControlBlock, transferStatusCallbackListener);
+						numberOfThreads, localFile.length(), transferControlBlock, transferStatusCallbackListener,
+						adaptiveParallelTransferTuner, myTransferOptions.getMaxThreads());
 			} else {
 				log.info(
 						"parallel operation deferred by server sending 0 threads back in PortalOperOut, revert to single thread transfer");
@@ -847,11 +876,17 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 	 * @param transferLength
 	 * @param transferControlBlock
 	 * @param transferStatusCallbackListener
+	 * @param adaptiveParallelTransferTuner
+	 *            {@link AdaptiveParallelTransferTuner} that will measure the
+	 *            transfer, or {@code null} if adaptive tuning is not configured
+	 * @param requestedThreads
+	 *            {@code int} with the number of threads that was asked of iRODS
 	 */
 	private void parallelPutTransfer(final File localFile, final String irodsAbsolutePath,
 			final Tag responseToInitialCallForPut, final int numberOfThreads, final long transferLength,
 			final TransferControlBlock transferControlBlock,
-			final TransferStatusCallbackListener transferStatusCallbackListener)
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final AdaptiveParallelTransferTuner adaptiveParallelTransferTuner, final int requestedThreads)
 			throws DataNotFoundException, OverwriteException, JargonException {
 
 		/*
@@ -875,9 +910,19 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 				getIRODSProtocol().getStartupResponseData().getNegotiatedClientServerConfiguration());
 		log.info("getting ready to initiate parallel file transfer strategy:{}", parallelPutFileStrategy);
 
+		if (adaptiveParallelTransferTuner != null) {
+			parallelPutFileStrategy.setAdaptiveParallelTransferTuner(adaptiveParallelTransferTuner);
+		}
+		parallelPutFileStrategy.setTransferThrottle(buildTransferThrottle(transferControlBlock));
+
 		try {
+			long transferStart = System.nanoTime();
 			parallelPutFileStrategy.transfer();
 			log.info("transfer process is complete");
+			if (adaptiveParallelTransferTuner != null) {
+				adaptiveParallelTransferTuner.learn(requestedThreads, numberOfThreads, transferLength,
+						System.nanoTime() - transferStart);
+			}
 			int statusForComplete = responseToInitialCallForPut.getTag(IRODSConstants.L1_DESC_INX).getIntValue();
 			log.debug("status for complete:{}", statusForComplete);
 
@@ -964,6 +1009,26 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		TransferControlBlock operativeTransferControlBlock = checkTransferControlBlockForOptionsAndSetDefaultsIfNotSpecified(
 				transferControlBlock);
+
+		TransferThrottle previousTransferThrottle = TransferThrottle
+				.bindToCurrentThread(buildTransferThrottle(operativeTransferControlBlock));
+		try {
+			getDataObjectFromIrodsWithThrottleBound(irodsFileToGet, localFileToHoldData,
+					operativeTransferControlBlock, transferStatusCallbackListener);
+		} finally {
+			TransferThrottle.bindToCurrentThread(previousTransferThrottle);
+		}
+	}
+
+	/**
+	 * Body of {@link #getDataObjectFromIrods(IRODSFile, File, TransferControlBlock, TransferStatusCallbackListener)}
+	 * with the rate limits of the transfer bound to this thread
+	 */
+	private void getDataObjectFromIrodsWithThrottleBound(final IRODSFile irodsFileToGet,
+			final File localFileToHoldData, final TransferControlBlock operativeTransferControlBlock,
+			final TransferStatusCallbackListener transferStatusCallbackListener)
+			throws OverwriteException, DataNotFoundException, JargonException {
+
 		TransferOptions thisFileTransferOptions = new TransferOptions(
 				operativeTransferControlBlock.getTransferOptions());
 
@@ -1021,6 +1086,14 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 					log.info("no parallel transfer set in transferOptions");
 					thisFileTransferOptions.setMaxThreads(-1);
 				}
+
+				AdaptiveParallelTransferTuner adaptiveParallelTransferTuner = buildAdaptiveParallelTransferTunerIfConfigured(
+						operativeTransferControlBlock.getTransferOptions());
+				if (adaptiveParallelTransferTuner != null) {
+					thisFileTransferOptions.setMaxThreads(adaptiveParallelTransferTuner.getRecommendedThreads());
+					log.info("adaptive parallel transfer will request {} threads",
+							thisFileTransferOptions.getMaxThreads());
+				}
 			} else {
 				thisFileTransferOptions.setMaxThreads(0);
 			}
@@ -1506,8 +1579,20 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 					irodsFileLength, transferControlBlock, transferStatusCallbackListener, fileRestartInfo,
 					getIRODSProtocol().getStartupResponseData().getNegotiatedClientServerConfiguration());
 
+			AdaptiveParallelTransferTuner adaptiveParallelTransferTuner = buildAdaptiveParallelTransferTunerIfConfigured(
+					transferControlBlock.getTransferOptions());
+			if (adaptiveParallelTransferTuner != null) {
+				parallelGetTransferStrategy.setAdaptiveParallelTransferTuner(adaptiveParallelTransferTuner);
+			}
+			parallelGetTransferStrategy.setTransferThrottle(buildTransferThrottle(transferControlBlock));
+
 			try {
+				long transferStart = System.nanoTime();
 				parallelGetTransferStrategy.transfer();
+				if (adaptiveParallelTransferTuner != null) {
+					adaptiveParallelTransferTuner.learn(transferOptions.getMaxThreads(), numberOfThreads,
+							irodsFileLength, System.nanoTime() - transferStart);
+				}
 
 			} catch (Throwable e) {
 
@@ -1518,6 +1603,29 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		}
 	}
 
+	/**
+	 * Build a tuner for a parallel transfer if adaptive tuning is set in the
+	 * transfer options, and parallel transfers are allowed
+	 *
+	 * @param configuredTransferOptions
+	 *            {@link TransferOptions} as configured by the caller, before any
+	 *            per-file adjustment, as {@code maxThreads} is the ceiling for
+	 *            learned thread counts
+	 * @return {@link AdaptiveParallelTransferTuner} or {@code null} if not
+	 *         configured
+	 */
+	private AdaptiveParallelTransferTuner buildAdaptiveParallelTransferTunerIfConfigured(
+			final TransferOptions configuredTransferOptions) {
+		if (configuredTransferOptions == null || !configuredTransferOptions.isAdaptiveParallelTransfer()
+				|| !configuredTransferOptions.isUseParallelTransfer() || configuredTransferOptions.getMaxThreads() < 0) {
+			return null;
+		}
+
+		return AdaptiveParallelTransferTuner.instance(getIRODSSession().getDiscoveredServerPropertiesCache(),
+				getIRODSAccount().getHost(), getIRODSAccount().getZone(), configuredTransferOptions.getMaxThreads(),
+				getJargonProperties().getParallelCopyBufferSize());
+	}
+
 	/**
 	 * See if jargon props say to do long file restarts, and a restart manager is
 	 * configured
@@ -3864,6 +3972,19 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		return effectiveTransferControlBlock;
 	}
 
+	/**
+	 * Create a throttle applying the session, account and transfer rate limits
+	 *
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} of the transfer, may be
+	 *            {@code null}
+	 * @return {@link TransferThrottle}
+	 */
+	private TransferThrottle buildTransferThrottle(final TransferControlBlock transferControlBlock) {
+		return getIRODSSession().getTransferBandwidthScheduler().instanceTransferThrottle(getIRODSAccount(),
+				transferControlBlock);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
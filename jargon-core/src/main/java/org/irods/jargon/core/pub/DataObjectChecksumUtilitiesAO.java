@@ -1,5 +1,9 @@
 package org.irods.jargon.core.pub;
 
+import java.util.List;
+
+import org.irods.jargon.core.checksum.BulkChecksumCallbackListener;
+import org.irods.jargon.core.checksum.BulkChecksumSummary;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.exception.ChecksumInvalidException;
 import org.irods.jargon.core.exception.FileNotFoundException;
@@ -70,4 +74,57 @@ public interface DataObjectChecksumUtilitiesAO {
 					throws FileNotFoundException, ChecksumInvalidException,
 					JargonException;
 
-}
\ No newline at end of file
+	/**
+	 * Have the server checksum every data object in a collection and its
+	 * sub-collections. Requests are sent at the same time from a number of
+	 * worker threads, each with its own connection, limited per resource as
+	 * given in the options. Each result, including mismatches against the
+	 * catalog and data objects skipped because their catalog checksum is
+	 * current, is given to the listener as it completes.
+	 * <p>
+	 * An error on a data object is reported to the listener and does not stop
+	 * the others.
+	 *
+	 * @param collectionAbsolutePath
+	 *            {@code String} with the absolute path to the collection
+	 * @param bulkChecksumOptions
+	 *            {@link BulkChecksumOptions} with the number of threads,
+	 *            per-resource limit, skip time and checksum options
+	 * @param bulkChecksumCallbackListener
+	 *            {@link BulkChecksumCallbackListener} to receive each result
+	 * @return {@link BulkChecksumSummary} with the counts of the results
+	 * @throws FileNotFoundException
+	 *             if the collection does not exist
+	 * @throws JargonException
+	 */
+	BulkChecksumSummary computeChecksumsUnderCollection(
+			String collectionAbsolutePath,
+			BulkChecksumOptions bulkChecksumOptions,
+			BulkChecksumCallbackListener bulkChecksumCallbackListener)
+			throws FileNotFoundException, JargonException;
+
+	/**
+	 * Have the server checksum each of the given data objects, as described
+	 * in
+	 * {@link #computeChecksumsUnderCollection(String, BulkChecksumOptions, BulkChecksumCallbackListener)}
+	 * . The catalog is only read for each data object if a skip time is set in
+	 * the options.
+	 *
+	 * @param dataObjectAbsolutePaths
+	 *            {@code List<String>} with the absolute paths of the data
+	 *            objects
+	 * @param bulkChecksumOptions
+	 *            {@link BulkChecksumOptions} with the number of threads,
+	 *            per-resource limit, skip time and checksum options
+	 * @param bulkChecksumCallbackListener
+	 *            {@link BulkChecksumCallbackListener} to receive each result
+	 * @return {@link BulkChecksumSummary} with the counts of the results
+	 * @throws JargonException
+	 */
+	BulkChecksumSummary computeChecksumsForDataObjects(
+			List<String> dataObjectAbsolutePaths,
+			BulkChecksumOptions bulkChecksumOptions,
+			BulkChecksumCallbackListener bulkChecksumCallbackListener)
+			throws JargonException;
+
+}
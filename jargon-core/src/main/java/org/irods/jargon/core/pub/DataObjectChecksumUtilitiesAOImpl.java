@@ -4,8 +4,11 @@
 package org.irods.jargon.core.pub;
 
 import java.io.File;
+import java.util.List;
 
 import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
+import org.irods.jargon.core.checksum.BulkChecksumCallbackListener;
+import org.irods.jargon.core.checksum.BulkChecksumSummary;
 import org.irods.jargon.core.checksum.ChecksumManager;
 import org.irods.jargon.core.checksum.ChecksumManagerImpl;
 import org.irods.jargon.core.checksum.ChecksumValue;
@@ -203,4 +206,77 @@ DataObjectChecksumUtilitiesAO {
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.DataObjectChecksumUtilitiesAO#
+	 * computeChecksumsUnderCollection(java.lang.String,
+	 * org.irods.jargon.core.pub.BulkChecksumOptions,
+	 * org.irods.jargon.core.checksum.BulkChecksumCallbackListener)
+	 */
+	@Override
+	public BulkChecksumSummary computeChecksumsUnderCollection(
+			final String collectionAbsolutePath,
+			final BulkChecksumOptions bulkChecksumOptions,
+			final BulkChecksumCallbackListener bulkChecksumCallbackListener)
+			throws FileNotFoundException, JargonException {
+
+		log.info("computeChecksumsUnderCollection()");
+
+		if (collectionAbsolutePath == null || collectionAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty collectionAbsolutePath");
+		}
+
+		if (bulkChecksumOptions == null) {
+			throw new IllegalArgumentException("null bulkChecksumOptions");
+		}
+
+		if (bulkChecksumCallbackListener == null) {
+			throw new IllegalArgumentException(
+					"null bulkChecksumCallbackListener");
+		}
+
+		log.info("collectionAbsolutePath:{}", collectionAbsolutePath);
+		return BulkChecksumExecutor.instance(getIRODSSession(),
+				getIRODSAccount()).checksumCollection(collectionAbsolutePath,
+				bulkChecksumOptions, bulkChecksumCallbackListener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.DataObjectChecksumUtilitiesAO#
+	 * computeChecksumsForDataObjects(java.util.List,
+	 * org.irods.jargon.core.pub.BulkChecksumOptions,
+	 * org.irods.jargon.core.checksum.BulkChecksumCallbackListener)
+	 */
+	@Override
+	public BulkChecksumSummary computeChecksumsForDataObjects(
+			final List<String> dataObjectAbsolutePaths,
+			final BulkChecksumOptions bulkChecksumOptions,
+			final BulkChecksumCallbackListener bulkChecksumCallbackListener)
+			throws JargonException {
+
+		log.info("computeChecksumsForDataObjects()");
+
+		if (dataObjectAbsolutePaths == null) {
+			throw new IllegalArgumentException("null dataObjectAbsolutePaths");
+		}
+
+		if (bulkChecksumOptions == null) {
+			throw new IllegalArgumentException("null bulkChecksumOptions");
+		}
+
+		if (bulkChecksumCallbackListener == null) {
+			throw new IllegalArgumentException(
+					"null bulkChecksumCallbackListener");
+		}
+
+		log.info("checksum of {} data objects", dataObjectAbsolutePaths.size());
+		return BulkChecksumExecutor.instance(getIRODSSession(),
+				getIRODSAccount()).checksumDataObjects(dataObjectAbsolutePaths,
+				bulkChecksumOptions, bulkChecksumCallbackListener);
+	}
+
 }
@@ -284,6 +284,13 @@ public interface DataTransferOperations extends IRODSAccessObject {
 	/**
 	 * Perform a replication operation. This will copy the given file to a
 	 * target iRODS resource.
+	 * <p>
+	 * When a collection is replicated and the {@code TransferOptions} set
+	 * {@code concurrentReplicationThreads} above 1, the data objects are
+	 * replicated in parallel, each thread using its own connection, with no
+	 * more than {@code concurrentReplicationMaxPerResource} in flight to the
+	 * target resource. Status callbacks are serialized, but files complete out
+	 * of order.
 	 *
 	 * @param irodsFileAbsolutePath
 	 *            {@code String} with the absolute path to an iRODS file
@@ -453,6 +460,11 @@ public interface DataTransferOperations extends IRODSAccessObject {
 	 * {@code TransferStatusCallbackListener} will receive a message asking
 	 * for the overwrite option for this transfer operation. This is the
 	 * appropriate mode when the client is interactive.
+	 * <p>
+	 * The contents of a collection are copied in parallel when the
+	 * {@code TransferOptions} set {@code concurrentReplicationThreads} above
+	 * 1, as described for
+	 * {@link #replicate(String, String, TransferStatusCallbackListener, TransferControlBlock)}
 	 *
 	 * @param irodsSourceFileAbsolutePath
 	 *            {@code String} with the absolute path to the source file
@@ -4,6 +4,7 @@ import java.io.File;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.ReroutedHostCache;
 import org.irods.jargon.core.exception.CatNoAccessException;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.DuplicateDataException;
@@ -12,6 +13,8 @@ import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.JargonFileOrCollAlreadyExistsException;
 import org.irods.jargon.core.exception.OverwriteException;
 import org.irods.jargon.core.packinstr.DataObjCopyInp;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.packinstr.TransferOptions.ForceOption;
 import org.irods.jargon.core.pub.domain.ObjStat;
 import org.irods.jargon.core.pub.io.IRODSFile;
 import org.irods.jargon.core.pub.io.IRODSFileFactory;
@@ -256,6 +259,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 		log.info("  local file for get: {}", targetLocalFile.getAbsolutePath());
 
 		IRODSAccount reroutedAccount = null;
+		int errorCountBefore = operativeTransferControlBlock.getErrorCount();
+		boolean transferred = false;
 
 		try {
 
@@ -274,12 +279,14 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			}
 
 			if (reroutedAccount != null) {
-				// re-routing...go to another host, the finally below will close
+				// re-routing...go to another host, the finally below will release
 				// this spawned new connection
+				getIRODSSession().attachPooledReroutedConnection(reroutedAccount);
 				DataTransferOperationsImpl reroutedDataTransferOperations = (DataTransferOperationsImpl) getIRODSAccessObjectFactory()
 						.getDataTransferOperations(reroutedAccount);
 				reroutedDataTransferOperations.processGetAfterAnyConnectionRerouting(irodsSourceFile, targetLocalFile,
 						transferStatusCallbackListener, operativeTransferControlBlock, targetLocalFileNameForCallbacks);
+				transferred = true;
 
 			} else {
 				processGetAfterAnyConnectionRerouting(irodsSourceFile, targetLocalFile, transferStatusCallbackListener,
@@ -299,8 +306,9 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 					operativeTransferControlBlock, new JargonException(e));
 		} finally {
 			if (reroutedAccount != null) {
-				log.info("closing re-routed account");
-				getIRODSAccessObjectFactory().closeSessionAndEatExceptions(reroutedAccount);
+				log.info("releasing re-routed account");
+				releaseReroutedSessionAndEatExceptions(reroutedAccount,
+						transferred && isTransferClean(operativeTransferControlBlock, errorCountBefore));
 			}
 		}
 	}
@@ -310,7 +318,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 	 * must be rerouted
 	 *
 	 * @param irodsSourceFile
-	 * @return
+	 * @return {@link IRODSAccount} for the resource server, or {@code null} if
+	 *         the get is not rerouted
 	 * @throws JargonException
 	 */
 	private IRODSAccount checkForReroutedConnectionDuringGetOperation(final IRODSFile irodsSourceFile)
@@ -319,14 +328,11 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 		IRODSAccount reroutedAccount = null;
 		log.info("redirects are available, check to see if I need to redirect to a resource server");
 
-		// make a call to see if I need to go to a different host
-		String detectedHost = dataObjectAO.getHostForGetOperation(irodsSourceFile.getAbsolutePath(),
-				irodsSourceFile.getResource());
+		String detectedHost = lookUpReroutedHost(ReroutedHostCache.GET_OPERATION, irodsSourceFile);
 
 		if (detectedHost == null || detectedHost.equals(FileCatalogObjectAOImpl.USE_THIS_ADDRESS)
 				|| detectedHost.equals("localhost")) {
 			log.info("using given resource connection");
-			reroutedAccount = getIRODSAccount();
 		} else {
 			log.info("will reroute to host:{}", detectedHost);
 			reroutedAccount = IRODSAccount.instanceForReroutedHost(getIRODSAccount(), detectedHost);
@@ -334,6 +340,82 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 		return reroutedAccount;
 	}
 
+	/**
+	 * Find the host a get or put of the file is rerouted to, from the rerouted
+	 * host cache of the session when the route is known, otherwise asking iRODS
+	 * and caching the answer for the other files of the collection and resource
+	 *
+	 * @param operation
+	 *            {@code String} with {@code ReroutedHostCache.GET_OPERATION}
+	 *            or {@code ReroutedHostCache.PUT_OPERATION}
+	 * @param irodsFile
+	 *            {@link IRODSFile} that is transferred
+	 * @return {@code String} with the host as returned by iRODS
+	 * @throws JargonException
+	 */
+	private String lookUpReroutedHost(final String operation, final IRODSFile irodsFile) throws JargonException {
+
+		ReroutedHostCache reroutedHostCache = getIRODSSession().getReroutedHostCache();
+		long timeToLiveMillis = getJargonProperties().getReroutedHostCacheTimeToLiveSeconds() * 1000L;
+		String collection = irodsFile.getParent();
+
+		if (timeToLiveMillis > 0) {
+			String cachedHost = reroutedHostCache.getHost(getIRODSAccount(), operation, irodsFile.getResource(),
+					collection, timeToLiveMillis);
+			if (cachedHost != null) {
+				log.info("using cached rerouted host:{}", cachedHost);
+				return cachedHost;
+			}
+		}
+
+		// make a call to see if I need to go to a different host
+		String detectedHost;
+		if (operation.equals(ReroutedHostCache.PUT_OPERATION)) {
+			detectedHost = dataObjectAO.getHostForPutOperation(irodsFile.getAbsolutePath(), irodsFile.getResource());
+		} else {
+			detectedHost = dataObjectAO.getHostForGetOperation(irodsFile.getAbsolutePath(), irodsFile.getResource());
+		}
+
+		if (timeToLiveMillis > 0) {
+			reroutedHostCache.putHost(getIRODSAccount(), operation, irodsFile.getResource(), collection, detectedHost);
+		}
+
+		return detectedHost;
+	}
+
+	/**
+	 * Done with a rerouted account, logging and ignoring errors. The connection
+	 * is kept for reuse when the transfer went cleanly and the pool of rerouted
+	 * connections has room. After an error or cancel it is closed, as it may be
+	 * left part way through the transfer.
+	 *
+	 * @param reroutedAccount
+	 *            {@link IRODSAccount} for the resource server
+	 * @param reusable
+	 *            {@code boolean} that is {@code true} if the transfer went
+	 *            cleanly, so the connection may be pooled
+	 */
+	private void releaseReroutedSessionAndEatExceptions(final IRODSAccount reroutedAccount, final boolean reusable) {
+		try {
+			if (reusable) {
+				getIRODSSession().releaseReroutedSession(reroutedAccount);
+			} else {
+				log.info("transfer did not complete cleanly, closing re-routed connection");
+				getIRODSSession().closeSession(reroutedAccount);
+			}
+		} catch (Exception e) {
+			log.error("exception releasing rerouted connection, this is logged and ignored", e);
+		}
+	}
+
+	/**
+	 * @return {@code boolean} that is {@code true} if the transfer was not
+	 *         cancelled and added no errors
+	 */
+	private boolean isTransferClean(final TransferControlBlock transferControlBlock, final int errorCountBefore) {
+		return !transferControlBlock.isCancelled() && transferControlBlock.getErrorCount() == errorCountBefore;
+	}
+
 	/**
 	 * Process a get transfer, having established any re-routed connections
 	 * necessary.
@@ -597,8 +679,13 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 
 		log.debug("new parent directory created locally:{}", newParentDirectory.getAbsolutePath());
 
-		transferOperationsHelper.recursivelyGet(irodsSourceFile, newParentDirectory, transferStatusCallbackListener,
-				transferControlBlock);
+		TransferOptions callerTransferOptions = forceChangedFilesIfSynchMode(transferControlBlock);
+		try {
+			transferOperationsHelper.recursivelyGet(irodsSourceFile, newParentDirectory,
+					transferStatusCallbackListener, transferControlBlock);
+		} finally {
+			restoreTransferOptions(transferControlBlock, callerTransferOptions);
+		}
 	}
 
 	/*
@@ -617,6 +704,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 		TransferControlBlock operativeTransferControlBlock = buildTransferControlBlockAndOptionsBasedOnParameters(
 				transferControlBlock);
 		IRODSAccount reroutedAccount = null;
+		int errorCountBefore = operativeTransferControlBlock.getErrorCount();
+		boolean transferred = false;
 
 		try {
 
@@ -645,10 +734,7 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 					&& getIRODSServerProperties().isSupportsConnectionRerouting()) {
 				log.info("redirects are available, check to see if I need to redirect to a resource server");
 
-				// make a call to see if I need to go to a different host
-
-				String detectedHost = dataObjectAO.getHostForPutOperation(targetIrodsFile.getAbsolutePath(),
-						targetIrodsFile.getResource());
+				String detectedHost = lookUpReroutedHost(ReroutedHostCache.PUT_OPERATION, targetIrodsFile);
 				if (detectedHost == null || detectedHost.equals(FileCatalogObjectAOImpl.USE_THIS_ADDRESS)) {
 					log.info("using given resource connection");
 				} else {
@@ -664,10 +750,12 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			 */
 			if (reroutedAccount != null) {
 				log.info("connection was rerouted");
+				getIRODSSession().attachPooledReroutedConnection(reroutedAccount);
 				DataTransferOperationsImpl reroutedDataTransferOperations = (DataTransferOperationsImpl) getIRODSAccessObjectFactory()
 						.getDataTransferOperations(reroutedAccount);
 				reroutedDataTransferOperations.processPutAfterAnyConnectionRerouting(sourceFile, targetIrodsFile,
 						transferStatusCallbackListener, operativeTransferControlBlock);
+				transferred = true;
 			} else {
 				log.info("process put with no rerouting");
 				processPutAfterAnyConnectionRerouting(sourceFile, targetIrodsFile, transferStatusCallbackListener,
@@ -686,8 +774,9 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 					operativeTransferControlBlock, new JargonException(e));
 		} finally {
 			if (reroutedAccount != null) {
-				log.info("closing re-routed account");
-				getIRODSAccessObjectFactory().closeSessionAndEatExceptions(reroutedAccount);
+				log.info("releasing re-routed account");
+				releaseReroutedSessionAndEatExceptions(reroutedAccount,
+						transferred && isTransferClean(operativeTransferControlBlock, errorCountBefore));
 			}
 		}
 	}
@@ -1033,8 +1122,13 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			throw new JargonException(e);
 		}
 
-		transferOperationsHelper.recursivelyPut(sourceFile, newIrodsParentDirectory, transferStatusCallbackListener,
-				transferControlBlock);
+		TransferOptions callerTransferOptions = forceChangedFilesIfSynchMode(transferControlBlock);
+		try {
+			transferOperationsHelper.recursivelyPut(sourceFile, newIrodsParentDirectory,
+					transferStatusCallbackListener, transferControlBlock);
+		} finally {
+			restoreTransferOptions(transferControlBlock, callerTransferOptions);
+		}
 
 		/**
 		 * Send an overall status callback. If the state is cancelled, see if it was
@@ -1074,6 +1168,48 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 		}
 	}
 
+	/**
+	 * In synch mode, unchanged files are skipped, so any file that is
+	 * transferred has changed and overwrites the target. Force is set on a copy
+	 * of the transfer options, given to the control block for the walk, so
+	 * that the options of the caller are left as they were.
+	 *
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the transfer
+	 * @return {@link TransferOptions} of the caller, to be put back with
+	 *         {@link #restoreTransferOptions(TransferControlBlock, TransferOptions)}
+	 *         once the walk is done, or {@code null} if not in synch mode
+	 */
+	private TransferOptions forceChangedFilesIfSynchMode(final TransferControlBlock transferControlBlock) {
+		if (!TransferOperationsHelper.isSynchMode(transferControlBlock)) {
+			return null;
+		}
+
+		log.info("synch mode, changed files will be overwritten");
+		TransferOptions callerTransferOptions = transferControlBlock.getTransferOptions();
+		TransferOptions forcedTransferOptions = new TransferOptions(callerTransferOptions);
+		forcedTransferOptions.setForceOption(ForceOption.USE_FORCE);
+		transferControlBlock.setTransferOptions(forcedTransferOptions);
+		return callerTransferOptions;
+	}
+
+	/**
+	 * Put back the transfer options replaced by
+	 * {@link #forceChangedFilesIfSynchMode(TransferControlBlock)}
+	 *
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the transfer
+	 * @param callerTransferOptions
+	 *            {@link TransferOptions} of the caller, or {@code null} if
+	 *            they were not replaced
+	 */
+	private void restoreTransferOptions(final TransferControlBlock transferControlBlock,
+			final TransferOptions callerTransferOptions) {
+		if (callerTransferOptions != null) {
+			transferControlBlock.setTransferOptions(callerTransferOptions);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1128,8 +1264,14 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			}
 
 			try {
-				transferOperationsHelper.recursivelyReplicate(sourceFile, targetResource,
-						transferStatusCallbackListener, operativeTransferControlBlock);
+				if (ConcurrentTransferOperationsHelper.isConcurrent(operativeTransferControlBlock)) {
+					ConcurrentTransferOperationsHelper.instance(getIRODSSession(), getIRODSAccount())
+							.recursivelyReplicate(sourceFile, targetResource, transferStatusCallbackListener,
+									operativeTransferControlBlock);
+				} else {
+					transferOperationsHelper.recursivelyReplicate(sourceFile, targetResource,
+							transferStatusCallbackListener, operativeTransferControlBlock);
+				}
 
 				// send completion status callback
 				if (transferStatusCallbackListener != null) {
@@ -1473,8 +1615,14 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			transferStatusCallbackListener.overallStatusCallback(status);
 		}
 
-		transferOperationsHelper.recursivelyCopy(sourceFile, targetResource, targetFile.getAbsolutePath(),
-				transferStatusCallbackListener, operativeTransferControlBlock);
+		if (ConcurrentTransferOperationsHelper.isConcurrent(operativeTransferControlBlock)) {
+			ConcurrentTransferOperationsHelper.instance(getIRODSSession(), getIRODSAccount()).recursivelyCopy(
+					sourceFile, targetResource, targetFile.getAbsolutePath(), transferStatusCallbackListener,
+					operativeTransferControlBlock);
+		} else {
+			transferOperationsHelper.recursivelyCopy(sourceFile, targetResource, targetFile.getAbsolutePath(),
+					transferStatusCallbackListener, operativeTransferControlBlock);
+		}
 
 		// send status callback that indicates completion of the process
 		if (transferStatusCallbackListener != null) {
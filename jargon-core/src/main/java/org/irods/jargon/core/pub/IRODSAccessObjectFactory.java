@@ -533,4 +533,15 @@ public interface IRODSAccessObjectFactory {
 	 */
 	TrashOperationsAO getTrashOperationsAO(IRODSAccount irodsAccount) throws JargonException;
 
+	/**
+	 * Get object that handles batch catalog operations (AVUs, ACLs, deletes)
+	 * using pipelined requests
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} with the authenticating principal
+	 * @return {@link BatchCatalogOperationsAO}
+	 * @throws JargonException
+	 */
+	BatchCatalogOperationsAO getBatchCatalogOperationsAO(IRODSAccount irodsAccount) throws JargonException;
+
 }
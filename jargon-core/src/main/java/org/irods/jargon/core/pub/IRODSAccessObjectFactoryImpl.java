@@ -641,6 +641,19 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		return new DataObjectChecksumUtilitiesAOImpl(irodsSession, irodsAccount);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.core.pub.IRODSAccessObjectFactory#
+	 * getBatchCatalogOperationsAO(org.irods.jargon.core.connection.IRODSAccount)
+	 */
+	@Override
+	public BatchCatalogOperationsAO getBatchCatalogOperationsAO(final IRODSAccount irodsAccount)
+			throws JargonException {
+		checkIrodsSessionSet();
+		return new BatchCatalogOperationsAOImpl(irodsSession, irodsAccount);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
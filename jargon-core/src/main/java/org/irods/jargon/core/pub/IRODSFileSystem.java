@@ -146,10 +146,13 @@ public final class IRODSFileSystem {
 	 * {@code IRODSFileSystem}, that Thread must close their own
 	 * connection. Connections are stored in a {@code ThreadLocal} which
 	 * means a Thread's connections to iRODS are only visible from that Thread.
+	 * The idle pooled connections to rerouted resource servers, shared by all
+	 * threads, are closed as well.
 	 *
 	 * @throws JargonException
 	 */
 	public void close() throws JargonException {
+		irodsSession.closeIdleReroutedConnections();
 		irodsSession.closeSession();
 	}
 
@@ -161,6 +164,7 @@ public final class IRODSFileSystem {
 	 */
 	public void closeAndEatExceptions() {
 		try {
+			irodsSession.closeIdleReroutedConnections();
 			irodsSession.closeSession();
 		} catch (Exception e) {
 			log.error(
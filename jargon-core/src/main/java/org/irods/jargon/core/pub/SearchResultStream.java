@@ -0,0 +1,295 @@
+package org.irods.jargon.core.pub;
+
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Results of a concurrent search, merged from the sub-queries as they arrive.
+ * Each sub-query hands its results to a bounded queue, so a slow reader holds
+ * the sub-queries back rather than having every result held in memory.
+ * <p>
+ * When unsorted, results are given in the order they arrive from any
+ * sub-query. When sorted, each sub-query reads its results in catalog order,
+ * and the next result is the first of the heads of the sub-queries, as in a
+ * merge sort. Collections sort by path, data objects by parent collection and
+ * then name, so a collection comes before its contents.
+ * <p>
+ * Once the limit on results is reached, or {@link #close()} is called, the
+ * sub-queries still running are cancelled. A caller that stops early must call
+ * {@link #close()}. Errors in a sub-query are thrown as
+ * {@link JargonRuntimeException} from {@link #hasNext()}, as the
+ * {@code Iterator} contract has no checked exceptions.
+ * <p>
+ * This class is not thread safe, and is read on one thread.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class SearchResultStream implements Iterator<CollectionAndDataObjectListingEntry>, Closeable {
+
+	public static final Logger log = LoggerFactory.getLogger(SearchResultStream.class);
+
+	/**
+	 * Order of a sorted search, matching the order by of each sub-query
+	 */
+	static final Comparator<CollectionAndDataObjectListingEntry> CATALOG_ORDER = new Comparator<CollectionAndDataObjectListingEntry>() {
+		@Override
+		public int compare(final CollectionAndDataObjectListingEntry entry1,
+				final CollectionAndDataObjectListingEntry entry2) {
+			int result = collectionOf(entry1).compareTo(collectionOf(entry2));
+			if (result != 0) {
+				return result;
+			}
+			return nameOf(entry1).compareTo(nameOf(entry2));
+		}
+
+		private String collectionOf(final CollectionAndDataObjectListingEntry entry) {
+			return entry.isCollection() ? entry.getPathOrName() : entry.getParentPath();
+		}
+
+		private String nameOf(final CollectionAndDataObjectListingEntry entry) {
+			return entry.isCollection() ? "" : entry.getPathOrName();
+		}
+	};
+
+	/**
+	 * Put on a queue by a sub-query when it has no more results
+	 */
+	static final Object END = new Object();
+
+	private static final long OFFER_WAIT_MILLIS = 250;
+
+	private final List<BlockingQueue<Object>> queues;
+	private final int[] sourcesRemaining;
+	private final boolean sorted;
+	private final int maxResults;
+	private final AtomicBoolean cancelled = new AtomicBoolean(false);
+	private final CollectionAndDataObjectListingEntry[] heads;
+	private CollectionAndDataObjectListingEntry nextEntry = null;
+	private int resultCount = 0;
+	private boolean limitReached = false;
+	private boolean closed = false;
+
+	/**
+	 * Failure of a sub-query, handed to the reader in place of a result
+	 */
+	static final class SubQueryFailure {
+		final JargonException jargonException;
+
+		SubQueryFailure(final JargonException jargonException) {
+			this.jargonException = jargonException;
+		}
+	}
+
+	/**
+	 * Constructor used by the {@link ConcurrentSearchExecutor}
+	 *
+	 * @param queues
+	 *            {@code List} of {@code BlockingQueue} the sub-queries hand
+	 *            results to. When sorted there is one per sub-query, otherwise
+	 *            one shared by every sub-query
+	 * @param sourcesPerQueue
+	 *            {@code int[]} with the number of sub-queries handing results
+	 *            to each queue, each ends with an {@link #END}
+	 * @param sorted
+	 *            {@code boolean} that is {@code true} if the queues are merged
+	 *            in {@link #CATALOG_ORDER}
+	 * @param maxResults
+	 *            {@code int} with the limit on results, 0 if not limited
+	 */
+	SearchResultStream(final List<BlockingQueue<Object>> queues, final int[] sourcesPerQueue,
+			final boolean sorted, final int maxResults) {
+
+		if (queues == null || queues.isEmpty()) {
+			throw new IllegalArgumentException("null or empty queues");
+		}
+
+		if (sourcesPerQueue == null || sourcesPerQueue.length != queues.size()) {
+			throw new IllegalArgumentException("sourcesPerQueue does not match queues");
+		}
+
+		if (maxResults < 0) {
+			throw new IllegalArgumentException("maxResults < 0");
+		}
+
+		this.queues = queues;
+		sourcesRemaining = sourcesPerQueue.clone();
+		this.sorted = sorted;
+		this.maxResults = maxResults;
+		heads = new CollectionAndDataObjectListingEntry[queues.size()];
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextEntry != null) {
+			return true;
+		}
+
+		if (closed) {
+			return false;
+		}
+
+		try {
+			nextEntry = sorted ? takeFirstOfHeads() : takeFromAny();
+		} catch (InterruptedException e) {
+			log.info("interrupted waiting for search results, closing");
+			Thread.currentThread().interrupt();
+			close();
+			throw new JargonRuntimeException("interrupted waiting for search results", e);
+		} catch (JargonException e) {
+			log.error("error in search sub-query, closing", e);
+			close();
+			throw new JargonRuntimeException("error in search sub-query", e);
+		}
+
+		if (nextEntry == null) {
+			log.info("search complete with {} results", resultCount);
+			close();
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public CollectionAndDataObjectListingEntry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		CollectionAndDataObjectListingEntry entry = nextEntry;
+		nextEntry = null;
+		resultCount++;
+
+		if (maxResults > 0 && resultCount >= maxResults) {
+			log.info("search limit of {} reached, cancelling sub-queries", maxResults);
+			limitReached = true;
+			close();
+		}
+
+		return entry;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("remove not supported");
+	}
+
+	/**
+	 * Cancel the sub-queries still running and release their connections. A
+	 * result already read ahead by {@link #hasNext()} may still be taken.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		cancelled.set(true);
+
+		// free any sub-query waiting to hand over a result
+		for (BlockingQueue<Object> queue : queues) {
+			queue.clear();
+		}
+	}
+
+	/**
+	 * @return {@code int} with the number of results read so far
+	 */
+	public int getResultCount() {
+		return resultCount;
+	}
+
+	/**
+	 * @return {@code boolean} that is {@code true} if the search stopped
+	 *         because the limit on results was reached, so more results may
+	 *         be available
+	 */
+	public boolean isLimitReached() {
+		return limitReached;
+	}
+
+	/**
+	 * @return {@code boolean} that is {@code true} once the stream is closed,
+	 *         and the sub-queries should stop
+	 */
+	boolean isCancelled() {
+		return cancelled.get();
+	}
+
+	/**
+	 * Hand a result, {@link #END} or {@link SubQueryFailure} to the reader,
+	 * waiting while the queue is full
+	 *
+	 * @return {@code boolean} that is {@code false} if the stream was closed
+	 *         first
+	 */
+	boolean offer(final int queueIndex, final Object item) throws InterruptedException {
+		BlockingQueue<Object> queue = queues.get(queueIndex);
+		while (!cancelled.get()) {
+			if (queue.offer(item, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private CollectionAndDataObjectListingEntry takeFromAny() throws InterruptedException, JargonException {
+		BlockingQueue<Object> queue = queues.get(0);
+		while (sourcesRemaining[0] > 0) {
+			Object item = queue.take();
+			if (item == END) {
+				sourcesRemaining[0]--;
+			} else {
+				return entryOf(item);
+			}
+		}
+		return null;
+	}
+
+	private CollectionAndDataObjectListingEntry takeFirstOfHeads() throws InterruptedException, JargonException {
+		int first = -1;
+		for (int i = 0; i < heads.length; i++) {
+			while (heads[i] == null && sourcesRemaining[i] > 0) {
+				Object item = queues.get(i).take();
+				if (item == END) {
+					sourcesRemaining[i]--;
+				} else {
+					heads[i] = entryOf(item);
+				}
+			}
+
+			if (heads[i] != null && (first == -1 || CATALOG_ORDER.compare(heads[i], heads[first]) < 0)) {
+				first = i;
+			}
+		}
+
+		if (first == -1) {
+			return null;
+		}
+
+		CollectionAndDataObjectListingEntry entry = heads[first];
+		heads[first] = null;
+		return entry;
+	}
+
+	private static CollectionAndDataObjectListingEntry entryOf(final Object item) throws JargonException {
+		if (item instanceof SubQueryFailure) {
+			throw ((SubQueryFailure) item).jargonException;
+		}
+		return (CollectionAndDataObjectListingEntry) item;
+	}
+
+}
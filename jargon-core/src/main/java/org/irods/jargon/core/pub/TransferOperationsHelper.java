@@ -1,6 +1,7 @@
 package org.irods.jargon.core.pub;
 
 import java.io.File;
+import java.util.Map;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
@@ -8,7 +9,9 @@ import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.FileNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.OverwriteException;
+import org.irods.jargon.core.packinstr.TransferOptions;
 import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.transfer.TransferStatus;
 import org.irods.jargon.core.transfer.TransferStatus.TransferState;
@@ -31,6 +34,7 @@ final class TransferOperationsHelper {
 	static Logger log = LoggerFactory.getLogger(TransferOperationsHelper.class);
 	private final DataObjectAOImpl dataObjectAO;
 	private final CollectionAO collectionAO;
+	private TransferSynchHelper transferSynchHelper = null;
 
 	/**
 	 * Initializer creates an instance of this class.
@@ -95,6 +99,12 @@ final class TransferOperationsHelper {
 				irodsSourceFile.getAbsolutePath());
 		log.info("    into iRODS file: {}", targetLocalFile.getAbsolutePath());
 
+		Map<String, CollectionAndDataObjectListingEntry> synchEntries = null;
+		if (isSynchMode(transferControlBlock)) {
+			synchEntries = getTransferSynchHelper().listDataObjects(
+					irodsSourceFile.getAbsolutePath());
+		}
+
 		for (File fileInSourceCollection : irodsSourceFile.listFiles()) {
 
 			if (Thread.interrupted()) {
@@ -177,6 +187,22 @@ final class TransferOperationsHelper {
 							transferControlBlock);
 
 				} else {
+					File targetLocalFileAsFile = new File(targetLocalFile,
+							fileInSourceCollection.getName());
+					if (synchEntries != null
+							&& getTransferSynchHelper().isUnchangedForGet(
+									synchEntries.get(fileInSourceCollection
+											.getName()), targetLocalFileAsFile,
+									transferControlBlock.getTransferOptions())) {
+						notifySkippedAsUnchanged(TransferType.GET,
+								fileInSourceCollection.getAbsolutePath(),
+								targetLocalFileAsFile.getAbsolutePath(),
+								targetLocalFileAsFile.length(),
+								transferStatusCallbackListener,
+								transferControlBlock);
+						continue;
+					}
+
 					processGetOfSingleFile((IRODSFile) fileInSourceCollection,
 							targetLocalFile, transferStatusCallbackListener,
 							transferControlBlock);
@@ -458,6 +484,12 @@ final class TransferOperationsHelper {
 		log.info("     to resource:{}", targetIrodsCollection.getResource());
 
 		try {
+			Map<String, CollectionAndDataObjectListingEntry> synchEntries = null;
+			if (isSynchMode(transferControlBlock)) {
+				synchEntries = getTransferSynchHelper().listDataObjects(
+						targetIrodsCollection.getAbsolutePath());
+			}
+
 			File[] files = sourceFile.listFiles();
 			if (files != null) {
 				for (File fileInSourceCollection : files) {
@@ -494,6 +526,21 @@ final class TransferOperationsHelper {
 								transferStatusCallbackListener,
 								transferControlBlock, fileInSourceCollection);
 
+					} else if (synchEntries != null
+							&& getTransferSynchHelper().isUnchangedForPut(
+									fileInSourceCollection,
+									synchEntries.get(fileInSourceCollection
+											.getName()),
+									transferControlBlock.getTransferOptions())) {
+
+						notifySkippedAsUnchanged(TransferType.PUT,
+								fileInSourceCollection.getAbsolutePath(),
+								targetIrodsCollection.getAbsolutePath() + '/'
+								+ fileInSourceCollection.getName(),
+								fileInSourceCollection.length(),
+								transferStatusCallbackListener,
+								transferControlBlock);
+
 					} else {
 
 						processPutOfSingleFile(fileInSourceCollection,
@@ -513,6 +560,64 @@ final class TransferOperationsHelper {
 		}
 	}
 
+	/**
+	 * Check whether the transfer options ask for only new or changed files to
+	 * be transferred
+	 *
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} for the transfer, may be
+	 *            {@code null}
+	 * @return {@code boolean} of {@code true} if in synch mode
+	 */
+	static boolean isSynchMode(final TransferControlBlock transferControlBlock) {
+		if (transferControlBlock == null) {
+			return false;
+		}
+		TransferOptions transferOptions = transferControlBlock
+				.getTransferOptions();
+		return transferOptions != null && transferOptions.isSynchMode();
+	}
+
+	private TransferSynchHelper getTransferSynchHelper() throws JargonException {
+		if (transferSynchHelper == null) {
+			transferSynchHelper = TransferSynchHelper.instance(
+					dataObjectAO.getIRODSSession(),
+					dataObjectAO.getIRODSAccount());
+		}
+		return transferSynchHelper;
+	}
+
+	/**
+	 * A file in a synch mode transfer is unchanged at the target, count it as
+	 * skipped and give a skipping callback
+	 *
+	 * @throws JargonException
+	 */
+	private void notifySkippedAsUnchanged(
+			final TransferType transferType,
+			final String sourceAbsolutePath,
+			final String targetAbsolutePath,
+			final long length,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock)
+					throws JargonException {
+
+		log.info("file is unchanged at the target, skipping:{}",
+				sourceAbsolutePath);
+		transferControlBlock.incrementFilesSkippedSoFar();
+
+		if (transferStatusCallbackListener != null) {
+			TransferStatus status = TransferStatus.instance(transferType,
+					sourceAbsolutePath, targetAbsolutePath, "", length, 0,
+					transferControlBlock.getTotalFilesTransferredSoFar(),
+					transferControlBlock.getTotalFilesSkippedSoFar(),
+					transferControlBlock.getTotalFilesToTransfer(),
+					TransferState.SKIPPING, dataObjectAO.getIRODSAccount()
+					.getHost(), dataObjectAO.getIRODSAccount().getZone());
+			transferStatusCallbackListener.statusCallback(status);
+		}
+	}
+
 	/**
 	 * A put operation has been cancelled or paused, give the appropraite
 	 * callback
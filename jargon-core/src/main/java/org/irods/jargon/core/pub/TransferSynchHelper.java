@@ -0,0 +1,219 @@
+package org.irods.jargon.core.pub;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ *         Decides which files of a recursive put or get in
+ *         {@link TransferOptions#isSynchMode()} are unchanged at the target,
+ *         and may be skipped. The data objects of each iRODS collection are
+ *         listed once, with their sizes and modify times, rather than asking
+ *         for each file.
+ *         <p>
+ *         A file is unchanged if it exists at the target with the same size,
+ *         and the target was written no earlier than the source was last
+ *         modified, as iRODS sets the modify time of a data object when it is
+ *         written, and a get sets the modify time of the local file. Times are
+ *         compared in seconds, as kept by iRODS. If
+ *         {@link TransferOptions#isSynchCompareChecksums()} is set, files of
+ *         the same size are compared by checksum instead of modify time.
+ *         <p>
+ *         These are used internally. See
+ *         {@link org.irods.jargon.core.pub.DataTransferOperations} for public
+ *         methods.
+ *
+ */
+final class TransferSynchHelper {
+
+	static Logger log = LoggerFactory.getLogger(TransferSynchHelper.class);
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final CollectionAndDataObjectListAndSearchAO collectionAndDataObjectListAndSearchAO;
+	private final DataObjectChecksumUtilitiesAO dataObjectChecksumUtilitiesAO;
+
+	/**
+	 * Initializer creates an instance of this class.
+	 *
+	 * @param irodsSession
+	 *            {@code IRODSSession} that can connect to iRODS
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} for this connection.
+	 * @return {@link TransferSynchHelper}
+	 * @throws JargonException
+	 */
+	final static TransferSynchHelper instance(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		return new TransferSynchHelper(irodsSession, irodsAccount);
+	}
+
+	private TransferSynchHelper(final IRODSSession irodsSession, final IRODSAccount irodsAccount)
+			throws JargonException {
+		if (irodsSession == null || irodsAccount == null) {
+			throw new JargonException("null irodsSession or irodsAccount");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		irodsAccessObjectFactory = IRODSAccessObjectFactoryImpl.instance(irodsSession);
+		collectionAndDataObjectListAndSearchAO = irodsAccessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(irodsAccount);
+		dataObjectChecksumUtilitiesAO = irodsAccessObjectFactory.getDataObjectChecksumUtilitiesAO(irodsAccount);
+	}
+
+	/**
+	 * List the data objects in one collection, reading every page
+	 *
+	 * @param collectionAbsolutePath
+	 *            {@code String} with the absolute path to the collection
+	 * @return {@code Map} of listing entries by data object name, empty if the
+	 *         collection does not exist
+	 * @throws JargonException
+	 */
+	Map<String, CollectionAndDataObjectListingEntry> listDataObjects(final String collectionAbsolutePath)
+			throws JargonException {
+
+		log.debug("listing data objects for synch of:{}", collectionAbsolutePath);
+		Map<String, CollectionAndDataObjectListingEntry> entries = new HashMap<String, CollectionAndDataObjectListingEntry>();
+		int offset = 0;
+
+		try {
+			while (true) {
+				List<CollectionAndDataObjectListingEntry> page = collectionAndDataObjectListAndSearchAO
+						.listDataObjectsUnderPath(collectionAbsolutePath, offset);
+				for (CollectionAndDataObjectListingEntry entry : page) {
+					entries.put(entry.getPathOrName(), entry);
+				}
+
+				if (page.isEmpty()) {
+					break;
+				}
+
+				CollectionAndDataObjectListingEntry last = page.get(page.size() - 1);
+				if (last.isLastResult() || last.getCount() <= offset) {
+					break;
+				}
+				offset = last.getCount();
+			}
+		} catch (FileNotFoundException e) {
+			log.debug("collection does not exist, nothing to compare");
+		}
+
+		log.debug("{} data objects to compare", entries.size());
+		return entries;
+	}
+
+	/**
+	 * Decide whether a local file is unchanged in iRODS, and need not be put
+	 *
+	 * @param sourceFile
+	 *            {@code File} that is the source of the put
+	 * @param irodsEntry
+	 *            {@link CollectionAndDataObjectListingEntry} for the data
+	 *            object of the same name in the target collection, or
+	 *            {@code null} if there is none
+	 * @param transferOptions
+	 *            {@link TransferOptions} for the transfer
+	 * @return {@code boolean} of {@code true} if the put may be skipped
+	 * @throws JargonException
+	 */
+	boolean isUnchangedForPut(final File sourceFile, final CollectionAndDataObjectListingEntry irodsEntry,
+			final TransferOptions transferOptions) throws JargonException {
+
+		if (irodsEntry == null || irodsEntry.getDataSize() != sourceFile.length()) {
+			return false;
+		}
+
+		if (transferOptions.isSynchCompareChecksums()) {
+			return checksumsMatch(sourceFile, irodsEntry.getFormattedAbsolutePath());
+		}
+
+		return isNoEarlier(modifiedAtMillis(irodsEntry), sourceFile.lastModified());
+	}
+
+	/**
+	 * Decide whether a data object is unchanged in the local file system, and
+	 * need not be gotten
+	 *
+	 * @param irodsEntry
+	 *            {@link CollectionAndDataObjectListingEntry} for the data
+	 *            object that is the source of the get
+	 * @param targetFile
+	 *            {@code File} that would be written by the get
+	 * @param transferOptions
+	 *            {@link TransferOptions} for the transfer
+	 * @return {@code boolean} of {@code true} if the get may be skipped
+	 * @throws JargonException
+	 */
+	boolean isUnchangedForGet(final CollectionAndDataObjectListingEntry irodsEntry, final File targetFile,
+			final TransferOptions transferOptions) throws JargonException {
+
+		if (irodsEntry == null || !targetFile.isFile() || irodsEntry.getDataSize() != targetFile.length()) {
+			return false;
+		}
+
+		if (transferOptions.isSynchCompareChecksums()) {
+			return checksumsMatch(targetFile, irodsEntry.getFormattedAbsolutePath());
+		}
+
+		return isNoEarlier(targetFile.lastModified(), modifiedAtMillis(irodsEntry));
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if the target time is the same
+	 *         as, or after, the source time, to the second
+	 */
+	static boolean isNoEarlier(final long targetMillis, final long sourceMillis) {
+		if (targetMillis <= 0L || sourceMillis <= 0L) {
+			return false;
+		}
+		return targetMillis / 1000L >= sourceMillis / 1000L;
+	}
+
+	private static long modifiedAtMillis(final CollectionAndDataObjectListingEntry irodsEntry) {
+		return irodsEntry.getModifiedAt() == null ? 0L : irodsEntry.getModifiedAt().getTime();
+	}
+
+	/**
+	 * Compare the checksum of a local file with that of a data object, using
+	 * the catalog checksum if there is one, or having iRODS compute it
+	 */
+	private boolean checksumsMatch(final File localFile, final String irodsAbsolutePath) throws JargonException {
+		ChecksumValue irodsChecksum = dataObjectChecksumUtilitiesAO
+				.retrieveExistingChecksumForDataObject(irodsAbsolutePath);
+		if (irodsChecksum == null) {
+			log.debug("no catalog checksum, compute for:{}", irodsAbsolutePath);
+			irodsChecksum = dataObjectChecksumUtilitiesAO.computeChecksumOnDataObject(irodsAccessObjectFactory
+					.getIRODSFileFactory(irodsAccount).instanceIRODSFile(irodsAbsolutePath));
+		}
+
+		ChecksumValue localChecksum;
+		try {
+			localChecksum = irodsSession.getLocalChecksumComputerFactory()
+					.instance(irodsChecksum.getChecksumEncoding())
+					.computeChecksumValueForLocalFile(localFile.getAbsolutePath());
+		} catch (java.io.FileNotFoundException e) {
+			throw new FileNotFoundException("local file not found during synch checksum");
+		}
+
+		boolean match = localChecksum.getChecksumStringValue().equals(irodsChecksum.getChecksumStringValue());
+		log.debug("checksums match:{} for:{}", match, irodsAbsolutePath);
+		return match;
+	}
+
+}
@@ -305,7 +305,7 @@ public class CollectionAOHelper extends AOHelper {
 		entry.setTotalRecords(totalRecords);
 		entry.setLastResult(row.isLastResult());
 
-		log.debug("listing entry built {}", entry.toString());
+		log.debug("listing entry built {}", entry);
 
 		return entry;
 	}
@@ -344,7 +344,7 @@ public class CollectionAOHelper extends AOHelper {
 		entry.setLastResult(row.isLastResult());
 		entry.setTotalRecords(totalRecords);
 
-		log.debug("listing entry built {}", entry.toString());
+		log.debug("listing entry built {}", entry);
 
 		return entry;
 	}
@@ -0,0 +1,90 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool of same sized heap {@link ByteBuffer}s, so that streamed chunks reuse
+ * their buffers rather than making garbage. Heap buffers are used as the data
+ * is copied through byte arrays to the socket in any case.
+ * <p>
+ * A buffer not released is left to the garbage collector, and a buffer
+ * released to a full pool is dropped, so the pool never holds more than its
+ * maximum.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ByteBufferPool {
+
+	private final int bufferSize;
+	private final ArrayBlockingQueue<ByteBuffer> pooledBuffers;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bufferSize
+	 *            {@code int} with the capacity of each buffer
+	 * @param maxPooledBuffers
+	 *            {@code int} with the most idle buffers to keep
+	 */
+	public ByteBufferPool(final int bufferSize, final int maxPooledBuffers) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be at least 1");
+		}
+
+		if (maxPooledBuffers < 1) {
+			throw new IllegalArgumentException(
+					"maxPooledBuffers must be at least 1");
+		}
+
+		this.bufferSize = bufferSize;
+		pooledBuffers = new ArrayBlockingQueue<ByteBuffer>(maxPooledBuffers);
+	}
+
+	/**
+	 * Take a cleared buffer from the pool, or a new one if none are idle
+	 *
+	 * @return {@link ByteBuffer} of the pool buffer size
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = pooledBuffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocate(bufferSize);
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Give back a buffer that is no longer used. Buffers of another size are
+	 * ignored.
+	 *
+	 * @param buffer
+	 *            {@link ByteBuffer} to reuse
+	 */
+	public void release(final ByteBuffer buffer) {
+		if (buffer == null) {
+			throw new IllegalArgumentException("null buffer");
+		}
+
+		if (buffer.capacity() == bufferSize && buffer.hasArray()
+				&& !buffer.isReadOnly()) {
+			pooledBuffers.offer(buffer);
+		}
+	}
+
+	/**
+	 * @return {@code int} with the buffers idle in the pool
+	 */
+	public int getPooledBufferCount() {
+		return pooledBuffers.size();
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+}
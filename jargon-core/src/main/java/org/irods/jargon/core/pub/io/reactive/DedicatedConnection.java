@@ -0,0 +1,78 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connection held for one stream rather than one thread, so that the stream
+ * may be read or written by whichever pool thread is free. Around each use the
+ * connection is attached to the thread, moving aside any connection the thread
+ * holds for the account, which is put back after. The connection is made on
+ * first use.
+ * <p>
+ * Not thread safe, the stream must use it from one thread at a time.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class DedicatedConnection {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(DedicatedConnection.class);
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private AbstractIRODSMidLevelProtocol irodsProtocol = null;
+	private AbstractIRODSMidLevelProtocol displaced = null;
+
+	DedicatedConnection(final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount) {
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+	}
+
+	/**
+	 * Attach the connection to this thread, before using the stream
+	 */
+	void enter() {
+		displaced = irodsSession.detachConnection(irodsAccount);
+		if (irodsProtocol != null) {
+			irodsSession.attachConnection(irodsAccount, irodsProtocol);
+		}
+	}
+
+	/**
+	 * Take the connection back from this thread, after using the stream
+	 */
+	void exit() {
+		irodsProtocol = irodsSession.detachConnection(irodsAccount);
+		if (displaced != null) {
+			irodsSession.attachConnection(irodsAccount, displaced);
+			displaced = null;
+		}
+	}
+
+	/**
+	 * Close the connection, if one was made
+	 */
+	void close() {
+		if (irodsProtocol == null) {
+			return;
+		}
+
+		enter();
+		try {
+			irodsSession.closeSession(irodsAccount);
+		} catch (JargonException e) {
+			log.warn("error closing dedicated connection, ignored", e);
+		} finally {
+			exit();
+			irodsProtocol = null;
+		}
+	}
+
+}
@@ -0,0 +1,372 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the contents of a data object as {@link ByteBuffer} chunks, read
+ * only as the subscriber asks for them, so that a non-blocking server need not
+ * hold a thread for each download.
+ * <p>
+ * Each subscriber reads the data object afresh, on a connection of its own.
+ * The reads run on the given {@link Executor}, which may be shared by many
+ * streams, and at most {@code prefetch} chunks are read ahead of what the
+ * subscriber has asked for. {@link Subscriber#onNext(Object)} is called on an
+ * executor thread, and the subscriber should give each buffer back to the
+ * {@link ByteBufferPool} when done with it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSDataObjectPublisher implements Publisher<ByteBuffer> {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSDataObjectPublisher.class);
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+	private final String irodsAbsolutePath;
+	private final Executor executor;
+	private final ByteBufferPool byteBufferPool;
+	private final int prefetch;
+
+	/**
+	 * Constructor
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} to open the data object
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to read as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path to the data object
+	 * @param executor
+	 *            {@link Executor} to run the reads
+	 * @param byteBufferPool
+	 *            {@link ByteBufferPool} to take the chunk buffers from
+	 * @param prefetch
+	 *            {@code int} with the most chunks to read ahead of demand
+	 */
+	public IRODSDataObjectPublisher(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final String irodsAbsolutePath,
+			final Executor executor, final ByteBufferPool byteBufferPool,
+			final int prefetch) {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		if (executor == null) {
+			throw new IllegalArgumentException("null executor");
+		}
+
+		if (byteBufferPool == null) {
+			throw new IllegalArgumentException("null byteBufferPool");
+		}
+
+		if (prefetch < 1) {
+			throw new IllegalArgumentException("prefetch must be at least 1");
+		}
+
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+		this.irodsAbsolutePath = irodsAbsolutePath;
+		this.executor = executor;
+		this.byteBufferPool = byteBufferPool;
+		this.prefetch = prefetch;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.io.reactive.Publisher#subscribe(org.irods.jargon
+	 * .core.pub.io.reactive.Subscriber)
+	 */
+	@Override
+	public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("null subscriber");
+		}
+
+		log.info("subscribe to:{}", irodsAbsolutePath);
+		ReadSubscription readSubscription = new ReadSubscription(subscriber,
+				createDedicatedConnection());
+		subscriber.onSubscribe(readSubscription);
+	}
+
+	/**
+	 * @return {@link DedicatedConnection} for one subscription, or
+	 *         {@code null} to use the connection of the thread
+	 */
+	DedicatedConnection createDedicatedConnection() {
+		return new DedicatedConnection(irodsAccessObjectFactory.getIrodsSession(),
+				irodsAccount);
+	}
+
+	/**
+	 * Open the data object, with the dedicated connection attached
+	 *
+	 * @return {@code InputStream} for the data object
+	 * @throws JargonException
+	 */
+	InputStream openStream() throws JargonException {
+		return irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFileInputStream(irodsAbsolutePath);
+	}
+
+	/**
+	 * One subscriber reading the data object. All the stream and buffer work is
+	 * done in {@link #run()}, which runs on one executor thread at a time.
+	 */
+	private class ReadSubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super ByteBuffer> subscriber;
+		private final DedicatedConnection dedicatedConnection;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private volatile boolean cancelled = false;
+		private volatile Throwable requestError = null;
+
+		private final ArrayDeque<ByteBuffer> readAhead = new ArrayDeque<ByteBuffer>();
+		private InputStream inputStream = null;
+		private boolean endOfData = false;
+		private boolean done = false;
+
+		ReadSubscription(final Subscriber<? super ByteBuffer> subscriber,
+				final DedicatedConnection dedicatedConnection) {
+			this.subscriber = subscriber;
+			this.dedicatedConnection = dedicatedConnection;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.irods.jargon.core.pub.io.reactive.Subscription#request(long)
+		 */
+		@Override
+		public void request(final long n) {
+			if (n <= 0) {
+				requestError = new IllegalArgumentException(
+						"request must be more than zero");
+			} else {
+				long current;
+				long next;
+				do {
+					current = requested.get();
+					next = current + n < 0 ? Long.MAX_VALUE : current + n;
+				} while (!requested.compareAndSet(current, next));
+			}
+			schedule();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.irods.jargon.core.pub.io.reactive.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException e) {
+					log.error("executor rejected read of:{}", irodsAbsolutePath);
+					wip.set(0);
+					if (!cancelled) {
+						cancelled = true;
+						subscriber.onError(e);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			while (true) {
+				drain();
+				missed = wip.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Send what is asked for, reading until the read ahead is full or
+		 * the data object ends
+		 */
+		private void drain() {
+			if (done) {
+				return;
+			}
+
+			if (cancelled) {
+				log.info("read cancelled for:{}", irodsAbsolutePath);
+				finish();
+				return;
+			}
+
+			if (requestError != null) {
+				finish();
+				subscriber.onError(requestError);
+				return;
+			}
+
+			try {
+				while (true) {
+					while (!readAhead.isEmpty() && requested.get() > 0
+							&& !cancelled) {
+						if (requested.get() != Long.MAX_VALUE) {
+							requested.decrementAndGet();
+						}
+						subscriber.onNext(readAhead.poll());
+					}
+
+					if (cancelled) {
+						finish();
+						return;
+					}
+
+					if (endOfData && readAhead.isEmpty()) {
+						log.info("read complete for:{}", irodsAbsolutePath);
+						finish();
+						subscriber.onComplete();
+						return;
+					}
+
+					if (endOfData || readAhead.size() >= prefetch) {
+						return;
+					}
+
+					readChunk();
+				}
+			} catch (IOException e) {
+				log.error("io exception reading:{}", irodsAbsolutePath, e);
+				finish();
+				subscriber.onError(e);
+			} catch (JargonException e) {
+				log.error("jargon exception reading:{}", irodsAbsolutePath, e);
+				finish();
+				subscriber.onError(e);
+			} catch (RuntimeException e) {
+				log.error("exception reading:{}", irodsAbsolutePath, e);
+				finish();
+				subscriber.onError(e);
+			}
+		}
+
+		/**
+		 * Read one chunk, filling the buffer unless the data ends first
+		 */
+		private void readChunk() throws IOException, JargonException {
+			ByteBuffer buffer = byteBufferPool.acquire();
+			enter();
+			try {
+				if (inputStream == null) {
+					inputStream = openStream();
+				}
+
+				while (buffer.hasRemaining()) {
+					int read = inputStream.read(buffer.array(),
+							buffer.arrayOffset() + buffer.position(),
+							buffer.remaining());
+					if (read < 0) {
+						endOfData = true;
+						break;
+					}
+					buffer.position(buffer.position() + read);
+				}
+			} catch (IOException e) {
+				byteBufferPool.release(buffer);
+				throw e;
+			} catch (JargonException e) {
+				byteBufferPool.release(buffer);
+				throw e;
+			} finally {
+				exit();
+			}
+
+			if (buffer.position() == 0) {
+				byteBufferPool.release(buffer);
+			} else {
+				buffer.flip();
+				readAhead.add(buffer);
+			}
+		}
+
+		/**
+		 * Close the stream and connection, and give back unsent buffers
+		 */
+		private void finish() {
+			done = true;
+			while (!readAhead.isEmpty()) {
+				byteBufferPool.release(readAhead.poll());
+			}
+
+			if (inputStream != null) {
+				enter();
+				try {
+					inputStream.close();
+				} catch (IOException e) {
+					log.warn("error closing stream, ignored", e);
+				} finally {
+					exit();
+					inputStream = null;
+				}
+			}
+
+			if (dedicatedConnection != null) {
+				dedicatedConnection.close();
+			}
+		}
+
+		private void enter() {
+			if (dedicatedConnection != null) {
+				dedicatedConnection.enter();
+			}
+		}
+
+		private void exit() {
+			if (dedicatedConnection != null) {
+				dedicatedConnection.exit();
+			}
+		}
+	}
+
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+}
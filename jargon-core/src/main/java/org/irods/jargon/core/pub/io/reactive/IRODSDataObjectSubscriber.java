@@ -0,0 +1,395 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the {@link ByteBuffer}s of a {@link Publisher} to a data object, so
+ * that a non-blocking server can upload without holding a thread for each
+ * stream. Subscribe this to the publisher of the data.
+ * <p>
+ * The data object is written on a connection of its own, by tasks on the
+ * given {@link Executor}, which may be shared by many streams. No more than
+ * {@code prefetch} buffers are asked for ahead of what has been written. The
+ * remaining bytes of each buffer are copied as it arrives, and the buffer is
+ * not kept or recycled, so a publisher may reuse its arrays once
+ * {@link #onNext(ByteBuffer)} returns.
+ * <p>
+ * {@link #getCompletion()} is completed with the bytes written once the
+ * publisher completes and the data object is closed, or exceptionally if the
+ * publisher or the write fails. After a failure the partly written data object
+ * is deleted.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IRODSDataObjectSubscriber implements Subscriber<ByteBuffer> {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSDataObjectSubscriber.class);
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+	private final String irodsAbsolutePath;
+	private final Executor executor;
+	private final int prefetch;
+	private final DedicatedConnection dedicatedConnection;
+	private final CompletableFuture<Long> completion = new CompletableFuture<Long>();
+
+	private final AtomicBoolean subscribed = new AtomicBoolean(false);
+	private final AtomicInteger wip = new AtomicInteger();
+	private final ConcurrentLinkedQueue<byte[]> received = new ConcurrentLinkedQueue<byte[]>();
+	private volatile Subscription subscription = null;
+	private volatile boolean upstreamDone = false;
+	private volatile Throwable upstreamError = null;
+
+	private OutputStream outputStream = null;
+	private boolean opened = false;
+	private long bytesWritten = 0L;
+	private int writtenSinceRequest = 0;
+	private boolean done = false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} to open the data object
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to write as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path to the data object
+	 * @param executor
+	 *            {@link Executor} to run the writes
+	 * @param prefetch
+	 *            {@code int} with the most buffers to ask for ahead of the
+	 *            writes
+	 */
+	public IRODSDataObjectSubscriber(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final String irodsAbsolutePath,
+			final Executor executor, final int prefetch) {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		if (executor == null) {
+			throw new IllegalArgumentException("null executor");
+		}
+
+		if (prefetch < 1) {
+			throw new IllegalArgumentException("prefetch must be at least 1");
+		}
+
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+		this.irodsAbsolutePath = irodsAbsolutePath;
+		this.executor = executor;
+		this.prefetch = prefetch;
+		dedicatedConnection = createDedicatedConnection();
+	}
+
+	/**
+	 * @return {@link DedicatedConnection} for the writes, or {@code null} to
+	 *         use the connection of the thread
+	 */
+	DedicatedConnection createDedicatedConnection() {
+		return new DedicatedConnection(
+				irodsAccessObjectFactory.getIrodsSession(), irodsAccount);
+	}
+
+	/**
+	 * Open the data object, with the dedicated connection attached
+	 *
+	 * @return {@code OutputStream} for the data object
+	 * @throws JargonException
+	 */
+	OutputStream openStream() throws JargonException {
+		return irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFileOutputStream(irodsAbsolutePath);
+	}
+
+	/**
+	 * Delete the partly written data object, with the dedicated connection
+	 * attached
+	 *
+	 * @throws JargonException
+	 */
+	void deleteDataObject() throws JargonException {
+		irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFile(irodsAbsolutePath).deleteWithForceOption();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.io.reactive.Subscriber#onSubscribe(org.irods
+	 * .jargon.core.pub.io.reactive.Subscription)
+	 */
+	@Override
+	public void onSubscribe(final Subscription subscription) {
+		if (subscription == null) {
+			throw new NullPointerException("null subscription");
+		}
+
+		if (!subscribed.compareAndSet(false, true)) {
+			log.warn("already subscribed, cancel the second subscription");
+			subscription.cancel();
+			return;
+		}
+
+		log.info("writing publisher to:{}", irodsAbsolutePath);
+		this.subscription = subscription;
+		schedule();
+		subscription.request(prefetch);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.io.reactive.Subscriber#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(final ByteBuffer item) {
+		if (item == null) {
+			throw new NullPointerException("null item");
+		}
+		byte[] bytes = new byte[item.remaining()];
+		item.duplicate().get(bytes);
+		received.offer(bytes);
+		schedule();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.pub.io.reactive.Subscriber#onError(java.lang.Throwable
+	 * )
+	 */
+	@Override
+	public void onError(final Throwable throwable) {
+		if (throwable == null) {
+			throw new NullPointerException("null throwable");
+		}
+		log.error("publisher failed writing:{}", irodsAbsolutePath, throwable);
+		upstreamError = throwable;
+		upstreamDone = true;
+		schedule();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.io.reactive.Subscriber#onComplete()
+	 */
+	@Override
+	public void onComplete() {
+		upstreamDone = true;
+		schedule();
+	}
+
+	private void schedule() {
+		if (wip.getAndIncrement() == 0) {
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						int missed = 1;
+						while (true) {
+							drain();
+							missed = wip.addAndGet(-missed);
+							if (missed == 0) {
+								return;
+							}
+						}
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				log.error("executor rejected write of:{}", irodsAbsolutePath);
+				wip.set(0);
+				subscription.cancel();
+				completion.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Write what has been received, ask for more, and close once the
+	 * publisher is done. Runs on one executor thread at a time.
+	 */
+	private void drain() {
+		if (done) {
+			return;
+		}
+
+		try {
+			if (outputStream == null && upstreamError == null) {
+				enter();
+				try {
+					outputStream = openStream();
+					opened = true;
+				} finally {
+					exit();
+				}
+			}
+
+			if (upstreamError != null) {
+				received.clear();
+			}
+
+			byte[] bytes;
+			while ((bytes = received.poll()) != null) {
+				write(bytes);
+				writtenSinceRequest++;
+			}
+
+			if (upstreamDone && received.isEmpty()) {
+				closeStream();
+				if (upstreamError != null) {
+					finish(true);
+					completion.completeExceptionally(upstreamError);
+				} else {
+					finish(false);
+					log.info("wrote {} bytes to:{}", bytesWritten,
+							irodsAbsolutePath);
+					completion.complete(bytesWritten);
+				}
+				return;
+			}
+
+			if (writtenSinceRequest >= Math.max(1, prefetch / 2)) {
+				int toRequest = writtenSinceRequest;
+				writtenSinceRequest = 0;
+				subscription.request(toRequest);
+			}
+		} catch (IOException e) {
+			fail(e);
+		} catch (JargonException e) {
+			fail(e);
+		} catch (RuntimeException e) {
+			fail(e);
+		}
+	}
+
+	private void write(final byte[] bytes) throws IOException {
+		enter();
+		try {
+			outputStream.write(bytes);
+			bytesWritten += bytes.length;
+		} finally {
+			exit();
+		}
+	}
+
+	private void fail(final Exception e) {
+		log.error("error writing:{}", irodsAbsolutePath, e);
+		subscription.cancel();
+		received.clear();
+		finish(true);
+		completion.completeExceptionally(e);
+	}
+
+	/**
+	 * Close the data object, which may fail as the last of the data is sent
+	 */
+	private void closeStream() throws IOException {
+		if (outputStream != null) {
+			enter();
+			try {
+				outputStream.close();
+			} finally {
+				exit();
+				outputStream = null;
+			}
+		}
+	}
+
+	/**
+	 * Close the stream, if still open, delete the data object if the write
+	 * failed, and close the connection
+	 *
+	 * @param failed
+	 *            {@code boolean} that is {@code true} if the publisher or the
+	 *            write failed
+	 */
+	private void finish(final boolean failed) {
+		done = true;
+		try {
+			closeStream();
+		} catch (IOException e) {
+			log.warn("error closing stream, ignored", e);
+		}
+
+		if (failed && opened) {
+			log.warn("deleting partly written:{}", irodsAbsolutePath);
+			enter();
+			try {
+				deleteDataObject();
+			} catch (JargonException e) {
+				log.error("unable to delete partly written data object, ignored", e);
+			} catch (RuntimeException e) {
+				log.error("unable to delete partly written data object, ignored", e);
+			} finally {
+				exit();
+			}
+		}
+
+		if (dedicatedConnection != null) {
+			dedicatedConnection.close();
+		}
+	}
+
+	private void enter() {
+		if (dedicatedConnection != null) {
+			dedicatedConnection.enter();
+		}
+	}
+
+	private void exit() {
+		if (dedicatedConnection != null) {
+			dedicatedConnection.exit();
+		}
+	}
+
+	/**
+	 * @return {@code CompletableFuture} completed with the bytes written once
+	 *         the data object is closed
+	 */
+	public CompletableFuture<Long> getCompletion() {
+		return completion;
+	}
+
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+}
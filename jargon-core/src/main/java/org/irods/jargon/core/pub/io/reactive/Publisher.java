@@ -0,0 +1,25 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+/**
+ * Source of items sent to a {@link Subscriber} as it asks for them. This has
+ * the same methods as {@code java.util.concurrent.Flow.Publisher} and the
+ * Reactive Streams {@code Publisher}, which are not available to Java 8.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ * @param <T>
+ *            type of the items
+ */
+public interface Publisher<T> {
+
+	/**
+	 * Start sending items to a subscriber. {@link Subscriber#onSubscribe}
+	 * is called first, and items are sent as they are requested through the
+	 * {@link Subscription}.
+	 *
+	 * @param subscriber
+	 *            {@link Subscriber} for the items
+	 */
+	void subscribe(Subscriber<? super T> subscriber);
+
+}
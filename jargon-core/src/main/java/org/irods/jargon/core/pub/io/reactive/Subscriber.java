@@ -0,0 +1,45 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+/**
+ * Receiver of items from a {@link Publisher}. This has the same methods as
+ * {@code java.util.concurrent.Flow.Subscriber} and the Reactive Streams
+ * {@code Subscriber}. The methods are called one at a time, and not after
+ * {@link #onError(Throwable)} or {@link #onComplete()}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ * @param <T>
+ *            type of the items
+ */
+public interface Subscriber<T> {
+
+	/**
+	 * Called first, with the subscription used to ask for items
+	 *
+	 * @param subscription
+	 *            {@link Subscription} to request items or cancel
+	 */
+	void onSubscribe(Subscription subscription);
+
+	/**
+	 * The next item, sent only as requested
+	 *
+	 * @param item
+	 *            the item
+	 */
+	void onNext(T item);
+
+	/**
+	 * The items ended in an error
+	 *
+	 * @param throwable
+	 *            {@code Throwable} with the error
+	 */
+	void onError(Throwable throwable);
+
+	/**
+	 * All the items have been sent
+	 */
+	void onComplete();
+
+}
@@ -0,0 +1,27 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+/**
+ * Link between a {@link Publisher} and a {@link Subscriber}. This has the same
+ * methods as {@code java.util.concurrent.Flow.Subscription} and the Reactive
+ * Streams {@code Subscription}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface Subscription {
+
+	/**
+	 * Ask for up to {@code n} more items. Requests add up, and
+	 * {@code Long.MAX_VALUE} asks for all of them.
+	 *
+	 * @param n
+	 *            {@code long} with the items wanted, more than zero
+	 */
+	void request(long n);
+
+	/**
+	 * Ask for no more items, and release what the subscription holds
+	 */
+	void cancel();
+
+}
@@ -0,0 +1,18 @@
+/**
+ * Reactive, non-blocking reading and writing of data objects, with
+ * backpressure, for servers that should not hold a thread for each stream.
+ * <p>
+ * {@link org.irods.jargon.core.pub.io.reactive.IRODSDataObjectPublisher}
+ * publishes a data object as pooled {@code ByteBuffer} chunks, and
+ * {@link org.irods.jargon.core.pub.io.reactive.IRODSDataObjectSubscriber}
+ * writes a publisher of buffers to a data object. Each stream has a connection
+ * of its own, used by tasks on a shared {@code Executor}.
+ * <p>
+ * Jargon builds for Java 8, which lacks {@code java.util.concurrent.Flow}, so
+ * {@link org.irods.jargon.core.pub.io.reactive.Publisher},
+ * {@link org.irods.jargon.core.pub.io.reactive.Subscriber} and
+ * {@link org.irods.jargon.core.pub.io.reactive.Subscription} are given here
+ * with the same methods as {@code Flow} and Reactive Streams, so that adapting
+ * to either is a matter of delegating each method.
+ */
+package org.irods.jargon.core.pub.io.reactive;
@@ -45,7 +45,10 @@ public class CollectionAndDataObjectListingEntry extends IRODSDomainObject
 	private long dataSize = 0L;
 	private String ownerName = "";
 	private String ownerZone = "";
-	private List<UserFilePermission> userFilePermission = new ArrayList<UserFilePermission>();
+	/**
+	 * Created when first asked for, as most listings carry no permissions
+	 */
+	private List<UserFilePermission> userFilePermission = null;
 	private int id;
 	private ObjStat.SpecColType specColType = SpecColType.NORMAL;
 
@@ -232,6 +235,9 @@ public class CollectionAndDataObjectListingEntry extends IRODSDomainObject
 	 *         otherwise, empty
 	 */
 	public List<UserFilePermission> getUserFilePermission() {
+		if (userFilePermission == null) {
+			userFilePermission = new ArrayList<UserFilePermission>();
+		}
 		return userFilePermission;
 	}
 
@@ -0,0 +1,78 @@
+package org.irods.jargon.core.query;
+
+import java.util.Date;
+
+/**
+ * Listing entry as given by a {@link CompactListingEntryList}, holding the
+ * create and modify times as epoch millis, and only creating a {@code Date}
+ * when one is asked for. The strings it holds are shared with the other
+ * entries of the listing. The accessors are those of
+ * {@link CollectionAndDataObjectListingEntry}, so it may be used wherever a
+ * listing entry is.
+ * <p>
+ * Changes to an entry are not seen by the list it came from, use
+ * {@link CompactListingEntryList#set(int, CollectionAndDataObjectListingEntry)}
+ * to change the list.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class CompactCollectionAndDataObjectListingEntry extends CollectionAndDataObjectListingEntry {
+
+	/**
+	 * Millis value of a create or modify time that is not set
+	 */
+	public static final long NO_TIME = Long.MIN_VALUE;
+
+	private long createdAtMillis = NO_TIME;
+	private long modifiedAtMillis = NO_TIME;
+
+	public CompactCollectionAndDataObjectListingEntry() {
+		super();
+	}
+
+	@Override
+	public Date getCreatedAt() {
+		return createdAtMillis == NO_TIME ? null : new Date(createdAtMillis);
+	}
+
+	@Override
+	public void setCreatedAt(final Date createdAt) {
+		createdAtMillis = createdAt == null ? NO_TIME : createdAt.getTime();
+	}
+
+	@Override
+	public Date getModifiedAt() {
+		return modifiedAtMillis == NO_TIME ? null : new Date(modifiedAtMillis);
+	}
+
+	@Override
+	public void setModifiedAt(final Date modifiedAt) {
+		modifiedAtMillis = modifiedAt == null ? NO_TIME : modifiedAt.getTime();
+	}
+
+	/**
+	 * @return {@code long} with the create time in epoch millis, or
+	 *         {@link #NO_TIME}
+	 */
+	public long getCreatedAtMillis() {
+		return createdAtMillis;
+	}
+
+	public void setCreatedAtMillis(final long createdAtMillis) {
+		this.createdAtMillis = createdAtMillis;
+	}
+
+	/**
+	 * @return {@code long} with the modify time in epoch millis, or
+	 *         {@link #NO_TIME}
+	 */
+	public long getModifiedAtMillis() {
+		return modifiedAtMillis;
+	}
+
+	public void setModifiedAtMillis(final long modifiedAtMillis) {
+		this.modifiedAtMillis = modifiedAtMillis;
+	}
+
+}
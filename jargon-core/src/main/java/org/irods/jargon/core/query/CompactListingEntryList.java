@@ -0,0 +1,237 @@
+package org.irods.jargon.core.query;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.irods.jargon.core.pub.domain.ObjStat.SpecColType;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+
+/**
+ * Memory efficient list of listing entries, meant for listings of very large
+ * collections. Rather than holding an entry object per row, the values of the
+ * entries are held in arrays, one per field, with the create and modify times
+ * as epoch millis. The parent path, owner, zone and special object path
+ * strings, which repeat across a listing, are shared through an interning
+ * table that belongs to the list.
+ * <p>
+ * {@link #get(int)} builds a {@link CompactCollectionAndDataObjectListingEntry}
+ * from the arrays on each call, so entries that are no longer used are
+ * collected, and changes to an entry are only kept by calling
+ * {@link #set(int, CollectionAndDataObjectListingEntry)}. User permissions are
+ * not held.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class CompactListingEntryList extends AbstractList<CollectionAndDataObjectListingEntry> implements
+		RandomAccess {
+
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private static final ObjectType[] OBJECT_TYPES = ObjectType.values();
+	private static final SpecColType[] SPEC_COL_TYPES = SpecColType.values();
+
+	private final Map<String, String> internTable = new HashMap<String, String>();
+
+	private int size = 0;
+	private String[] parentPaths;
+	private String[] pathOrNames;
+	private String[] specialObjectPaths;
+	private String[] ownerNames;
+	private String[] ownerZones;
+	/**
+	 * ordinal + 1 of the enum value, 0 for {@code null}
+	 */
+	private byte[] objectTypes;
+	private byte[] specColTypes;
+	private long[] createdAts;
+	private long[] modifiedAts;
+	private long[] dataSizes;
+	private int[] ids;
+	private int[] counts;
+	private int[] totalRecords;
+	private final BitSet lastResults = new BitSet();
+
+	public CompactListingEntryList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param initialCapacity
+	 *            {@code int} with the number of entries to allocate room
+	 *            for
+	 */
+	public CompactListingEntryList(final int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity < 0");
+		}
+		allocate(initialCapacity);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public CollectionAndDataObjectListingEntry get(final int index) {
+		checkIndex(index);
+
+		CompactCollectionAndDataObjectListingEntry entry = new CompactCollectionAndDataObjectListingEntry();
+		entry.setParentPath(parentPaths[index]);
+		entry.setPathOrName(pathOrNames[index]);
+		entry.setSpecialObjectPath(specialObjectPaths[index]);
+		entry.setOwnerName(ownerNames[index]);
+		entry.setOwnerZone(ownerZones[index]);
+		entry.setObjectType(objectTypes[index] == 0 ? null : OBJECT_TYPES[objectTypes[index] - 1]);
+		entry.setSpecColType(specColTypes[index] == 0 ? null : SPEC_COL_TYPES[specColTypes[index] - 1]);
+		entry.setCreatedAtMillis(createdAts[index]);
+		entry.setModifiedAtMillis(modifiedAts[index]);
+		entry.setDataSize(dataSizes[index]);
+		entry.setId(ids[index]);
+		entry.setCount(counts[index]);
+		entry.setTotalRecords(totalRecords[index]);
+		entry.setLastResult(lastResults.get(index));
+		return entry;
+	}
+
+	@Override
+	public boolean add(final CollectionAndDataObjectListingEntry entry) {
+		if (entry == null) {
+			throw new IllegalArgumentException("null entry");
+		}
+
+		if (size == ids.length) {
+			allocate(Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+		}
+
+		store(size, entry);
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public CollectionAndDataObjectListingEntry set(final int index, final CollectionAndDataObjectListingEntry entry) {
+		if (entry == null) {
+			throw new IllegalArgumentException("null entry");
+		}
+
+		CollectionAndDataObjectListingEntry previous = get(index);
+		store(index, entry);
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+		internTable.clear();
+		parentPaths = null;
+		allocate(DEFAULT_CAPACITY);
+		lastResults.clear();
+		modCount++;
+	}
+
+	/**
+	 * Shrink the arrays to the number of entries, and drop the interning
+	 * table, once the listing is complete. Entries may still be added.
+	 */
+	public void trimToSize() {
+		allocate(size);
+		internTable.clear();
+	}
+
+	/**
+	 * @return {@code int} with the number of distinct shared strings held by
+	 *         the interning table
+	 */
+	public int getInternedStringCount() {
+		return internTable.size();
+	}
+
+	private void store(final int index, final CollectionAndDataObjectListingEntry entry) {
+		parentPaths[index] = intern(entry.getParentPath());
+		pathOrNames[index] = entry.getPathOrName();
+		specialObjectPaths[index] = intern(entry.getSpecialObjectPath());
+		ownerNames[index] = intern(entry.getOwnerName());
+		ownerZones[index] = intern(entry.getOwnerZone());
+		objectTypes[index] = (byte) (entry.getObjectType() == null ? 0 : entry.getObjectType().ordinal() + 1);
+		specColTypes[index] = (byte) (entry.getSpecColType() == null ? 0 : entry.getSpecColType().ordinal() + 1);
+
+		if (entry instanceof CompactCollectionAndDataObjectListingEntry) {
+			CompactCollectionAndDataObjectListingEntry compactEntry = (CompactCollectionAndDataObjectListingEntry) entry;
+			createdAts[index] = compactEntry.getCreatedAtMillis();
+			modifiedAts[index] = compactEntry.getModifiedAtMillis();
+		} else {
+			createdAts[index] = entry.getCreatedAt() == null ? CompactCollectionAndDataObjectListingEntry.NO_TIME
+					: entry.getCreatedAt().getTime();
+			modifiedAts[index] = entry.getModifiedAt() == null ? CompactCollectionAndDataObjectListingEntry.NO_TIME
+					: entry.getModifiedAt().getTime();
+		}
+
+		dataSizes[index] = entry.getDataSize();
+		ids[index] = entry.getId();
+		counts[index] = entry.getCount();
+		totalRecords[index] = entry.getTotalRecords();
+		lastResults.set(index, entry.isLastResult());
+	}
+
+	private String intern(final String value) {
+		if (value == null) {
+			return null;
+		}
+
+		String interned = internTable.get(value);
+		if (interned == null) {
+			internTable.put(value, value);
+			interned = value;
+		}
+		return interned;
+	}
+
+	private void allocate(final int capacity) {
+		if (parentPaths == null) {
+			parentPaths = new String[capacity];
+			pathOrNames = new String[capacity];
+			specialObjectPaths = new String[capacity];
+			ownerNames = new String[capacity];
+			ownerZones = new String[capacity];
+			objectTypes = new byte[capacity];
+			specColTypes = new byte[capacity];
+			createdAts = new long[capacity];
+			modifiedAts = new long[capacity];
+			dataSizes = new long[capacity];
+			ids = new int[capacity];
+			counts = new int[capacity];
+			totalRecords = new int[capacity];
+			return;
+		}
+
+		parentPaths = Arrays.copyOf(parentPaths, capacity);
+		pathOrNames = Arrays.copyOf(pathOrNames, capacity);
+		specialObjectPaths = Arrays.copyOf(specialObjectPaths, capacity);
+		ownerNames = Arrays.copyOf(ownerNames, capacity);
+		ownerZones = Arrays.copyOf(ownerZones, capacity);
+		objectTypes = Arrays.copyOf(objectTypes, capacity);
+		specColTypes = Arrays.copyOf(specColTypes, capacity);
+		createdAts = Arrays.copyOf(createdAts, capacity);
+		modifiedAts = Arrays.copyOf(modifiedAts, capacity);
+		dataSizes = Arrays.copyOf(dataSizes, capacity);
+		ids = Arrays.copyOf(ids, capacity);
+		counts = Arrays.copyOf(counts, capacity);
+		totalRecords = Arrays.copyOf(totalRecords, capacity);
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index:" + index + ", size:" + size);
+		}
+	}
+
+}
@@ -1,16 +1,26 @@
 package org.irods.jargon.core.transfer;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 
+import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.JargonException;
-import org.irods.jargon.core.utils.Host;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Abstract superclasss for a parallel file transfer operation via NIO
+ * Abstract superclasss for a parallel file transfer operation via NIO. The
+ * socket is a blocking {@link SocketChannel}, and the header ints and longs
+ * sent by iRODS are read through one small buffer that is reused for the life
+ * of the thread, so no allocation is done per header or per chunk of data.
+ * <p>
+ * Note that the socket timeout set on a {@code Socket} does not apply to reads
+ * on its channel, so a stalled iRODS stream is detected by TCP keep alive
+ * rather than by {@code getParallelSocketTimeoutInSecs()}.
  *
  * @author Mike Conway - DICE (www.irods.org)
  *
@@ -21,64 +31,142 @@ public class AbstractNIOParallelTransferThread {
 	protected static final String IO_EXEPTION_IN_PARALLEL_TRANSFER = "IOExeption in parallel transfer";
 	private SocketChannel s;
 
+	/**
+	 * Holds one header int or long, in network order, the byte order of a new
+	 * {@code ByteBuffer}
+	 */
+	private final ByteBuffer headerBuffer = ByteBuffer.allocate(8);
+
 	private Exception exceptionInTransfer = null;
 	public static final int DONE_OPR = 9999;
 	public static final int PUT_OPR = 1;
 	public static final int GET_OPR = 2;
 
+	/**
+	 * Index of the given thread. 0 based index
+	 */
+	private final int threadNumber;
+
 	public static final Logger log = LoggerFactory
 			.getLogger(AbstractNIOParallelTransferThread.class);
 
-	protected AbstractNIOParallelTransferThread() {
+	protected AbstractNIOParallelTransferThread(final int threadNumber) {
 		super();
+		this.threadNumber = threadNumber;
 	}
 
-	private ByteBuffer readLenFromSocket(final int length)
-			throws JargonException {
-		final ByteBuffer b = ByteBuffer.allocate(length);
-
-		int read;
-		int tot = 0;
-		try {
+	/**
+	 * Open a blocking socket channel to the iRODS parallel transfer port,
+	 * applying the TCP settings from the pipeline configuration, and send the
+	 * cookie
+	 *
+	 * @param host
+	 *            {@code String} with the iRODS host
+	 * @param port
+	 *            {@code int} with the parallel transfer port
+	 * @param password
+	 *            {@code int} with the cookie sent by iRODS for this transfer
+	 * @param pipelineConfiguration
+	 *            {@link PipelineConfiguration} with TCP settings
+	 * @return {@code long} with the nanoseconds taken to connect
+	 * @throws IOException
+	 */
+	protected long connect(final String host, final int port,
+			final int password,
+			final PipelineConfiguration pipelineConfiguration)
+			throws IOException {
+
+		SocketChannel channel = SocketChannel.open();
+		setS(channel);
+		Socket socket = channel.socket();
+		if (pipelineConfiguration.getParallelTcpSendWindowSize() > 0) {
+			socket.setSendBufferSize(pipelineConfiguration
+					.getParallelTcpSendWindowSize() * 1024);
+		}
 
-			read = getS().read(b);
-			while (read != -1) {
-				if (Thread.interrupted()) {
-					throw new IOException(
+		if (pipelineConfiguration.getParallelTcpReceiveWindowSize() > 0) {
+			socket.setReceiveBufferSize(pipelineConfiguration
+					.getParallelTcpReceiveWindowSize() * 1024);
+		}
 
-							"interrupted, consider connection corrupted and return IOException to clear");
-				}
-				tot += read;
-				if (tot == length) {
-					break;
-				}
-				read = getS().read(b);
+		socket.setPerformancePreferences(
+				pipelineConfiguration
+						.getParallelTcpPerformancePrefsConnectionTime(),
+				pipelineConfiguration.getParallelTcpPerformancePrefsLatency(),
+				pipelineConfiguration.getParallelTcpPerformancePrefsBandwidth());
+		socket.setKeepAlive(pipelineConfiguration.isParallelTcpKeepAlive());
+		// assume reuse, nodelay
+		socket.setReuseAddress(true);
+		socket.setTcpNoDelay(false);
+
+		long connectStart = System.nanoTime();
+		channel.connect(new InetSocketAddress(host, port));
+		long connectNanos = System.nanoTime() - connectStart;
+
+		log.debug("socket channel established, sending cookie to iRODS listener");
+		headerBuffer.clear();
+		headerBuffer.putInt(password);
+		headerBuffer.flip();
+		writeFully(headerBuffer);
+		log.debug("cookie written");
+		return connectNanos;
+	}
 
+	/**
+	 * Fill the buffer from the socket, up to its limit
+	 *
+	 * @param buffer
+	 *            {@code ByteBuffer} to fill
+	 * @throws IOException
+	 *             if the stream ends early or the thread is interrupted
+	 */
+	protected void readFully(final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (Thread.interrupted()) {
+				throw new IOException(
+						"interrupted, consider connection corrupted and return IOException to clear");
+			}
+			if (getS().read(buffer) < 0) {
+				throw new EOFException(
+						"unexpected end of stream in parallel transfer");
 			}
+		}
+	}
+
+	/**
+	 * Write the remaining contents of the buffer to the socket
+	 *
+	 * @param buffer
+	 *            {@code ByteBuffer} to drain
+	 * @throws IOException
+	 */
+	protected void writeFully(final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			getS().write(buffer);
+		}
+	}
+
+	private ByteBuffer readLenFromSocket(final int length)
+			throws JargonException {
+		headerBuffer.clear();
+		headerBuffer.limit(length);
+		try {
+			readFully(headerBuffer);
 		} catch (Exception e) {
 			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER, e);
 			throw new JargonException(
 					IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
 		}
-		return b;
+		headerBuffer.flip();
+		return headerBuffer;
 	}
 
 	protected int readInt() throws JargonException {
-		int len = 4;
-		final byte[] bAsByte = new byte[len];
-		ByteBuffer b = readLenFromSocket(len);
-		b.flip();
-		b.get(bAsByte);
-		return Host.castToInt(bAsByte);
+		return readLenFromSocket(4).getInt();
 	}
 
 	protected long readLong() throws JargonException {
-		int len = 8;
-		final byte[] bAsByte = new byte[len];
-		ByteBuffer b = readLenFromSocket(len);
-		b.flip();
-		b.get(bAsByte);
-		return Host.castToLong(bAsByte);
+		return readLenFromSocket(8).getLong();
 	}
 
 	public void close() throws JargonException {
@@ -115,4 +203,11 @@ public class AbstractNIOParallelTransferThread {
 	protected void setExceptionInTransfer(final Exception exceptionInTransfer) {
 		this.exceptionInTransfer = exceptionInTransfer;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return the threadNumber
+	 */
+	protected int getThreadNumber() {
+		return threadNumber;
+	}
+}
@@ -1,6 +1,7 @@
 package org.irods.jargon.core.transfer;
 
 import java.io.File;
+import java.io.InterruptedIOException;
 
 import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
 import org.irods.jargon.core.connection.JargonProperties;
@@ -54,7 +55,9 @@ public abstract class AbstractParallelFileTransferStrategy {
 	private final TransferStatusCallbackListener transferStatusCallbackListener;
 	private ConnectionProgressStatusListener connectionProgressStatusListener = null;
 	private final int parallelSocketTimeoutInSecs;
-	private final JargonProperties jargonProperties;
+	private final SettableJargonProperties jargonProperties;
+	private AdaptiveParallelTransferTuner adaptiveParallelTransferTuner = null;
+	private TransferThrottle transferThrottle = null;
 
 	/**
 	 * Constructor for a parallel file transfer runner. This runner will create
@@ -322,6 +325,70 @@ public abstract class AbstractParallelFileTransferStrategy {
 		return jargonProperties;
 	}
 
+	/**
+	 * @return the {@link AdaptiveParallelTransferTuner} measuring this
+	 *         transfer, or {@code null} if adaptive tuning is not in use
+	 */
+	public AdaptiveParallelTransferTuner getAdaptiveParallelTransferTuner() {
+		return adaptiveParallelTransferTuner;
+	}
+
+	/**
+	 * Set a tuner that will measure the throughput of this transfer. The
+	 * tuner's recommended copy buffer size replaces the configured
+	 * {@code parallelCopyBufferSize} for this transfer only. This must be set
+	 * before calling {@link #transfer()}.
+	 *
+	 * @param adaptiveParallelTransferTuner
+	 *            {@link AdaptiveParallelTransferTuner} for this transfer
+	 */
+	public void setAdaptiveParallelTransferTuner(final AdaptiveParallelTransferTuner adaptiveParallelTransferTuner) {
+		if (adaptiveParallelTransferTuner == null) {
+			throw new IllegalArgumentException("null adaptiveParallelTransferTuner");
+		}
+		adaptiveParallelTransferTuner.startTransfer(numberOfThreads);
+		jargonProperties.setParallelCopyBufferSize(adaptiveParallelTransferTuner.getRecommendedBufferSize());
+		log.info("adaptive parallel copy buffer size:{}", jargonProperties.getParallelCopyBufferSize());
+		this.adaptiveParallelTransferTuner = adaptiveParallelTransferTuner;
+	}
+
+	/**
+	 * @return the {@link TransferThrottle} limiting this transfer, or
+	 *         {@code null} if it is not limited
+	 */
+	public TransferThrottle getTransferThrottle() {
+		return transferThrottle;
+	}
+
+	/**
+	 * Set a throttle that every thread of this transfer waits on for each
+	 * buffer. This must be set before calling {@link #transfer()}.
+	 *
+	 * @param transferThrottle
+	 *            {@link TransferThrottle} for this transfer
+	 */
+	public void setTransferThrottle(final TransferThrottle transferThrottle) {
+		if (transferThrottle == null) {
+			throw new IllegalArgumentException("null transferThrottle");
+		}
+		this.transferThrottle = transferThrottle;
+	}
+
+	/**
+	 * Handy method for threads to wait on the byte rate limits, if any, for a
+	 * buffer
+	 *
+	 * @param bytes
+	 *            {@code int} with the size of the buffer
+	 * @throws InterruptedIOException
+	 *             if interrupted while waiting
+	 */
+	void throttle(final int bytes) throws InterruptedIOException {
+		if (transferThrottle != null) {
+			transferThrottle.acquire(bytes);
+		}
+	}
+
 	public FileRestartInfo getFileRestartInfo() {
 		return fileRestartInfo;
 	}
@@ -338,6 +405,17 @@ public abstract class AbstractParallelFileTransferStrategy {
 				.getRestartManager();
 	}
 
+	/**
+	 * Determine whether the NIO transfer threads should be used. These are
+	 * configured by {@code transfer.use.nio.for.parallel}, and are not used for
+	 * encrypted transfers.
+	 *
+	 * @return {@code boolean} of {@code true} if NIO threads should be used
+	 */
+	boolean useNIO() {
+		return jargonProperties.isUseNIOForParallelTransfers() && !doEncryption();
+	}
+
 	/**
 	 * Handy method for threads to determine whether encryption should be done
 	 *
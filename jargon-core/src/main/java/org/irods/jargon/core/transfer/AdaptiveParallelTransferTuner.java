@@ -0,0 +1,389 @@
+package org.irods.jargon.core.transfer;
+
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the throughput of a parallel transfer and adapts the thread count
+ * and copy buffer size used for later transfers to the same host. Learned
+ * values are kept in the {@link DiscoveredServerPropertiesCache} by host and
+ * zone.
+ * <p>
+ * An instance is created for each parallel transfer. Before the transfer,
+ * {@link #getRecommendedThreads()} and {@link #getRecommendedBufferSize()}
+ * give the values to request, which are the configured values until something
+ * has been learned. During the transfer each stream reports its progress, and
+ * the throughput of the first {@link #PROBE_BYTES} of each stream is sampled,
+ * along with the socket connect time as an estimate of the round trip time.
+ * After a successful transfer, {@link #learn(int, int, long, long)} updates
+ * the cache:
+ * <ul>
+ * <li>The copy buffer is sized to the per-stream bandwidth-delay product, but
+ * never below the configured size.</li>
+ * <li>The thread count hill-climbs. While the streams scale well (aggregate
+ * throughput close to the per-stream rate times the number of streams) more
+ * threads are tried, up to the configured maximum. If more threads lowered
+ * the aggregate throughput, the best known count is restored, and a count
+ * whose streams contend badly is stepped down.</li>
+ * </ul>
+ * iRODS fixes the number of streams when the transfer is opened, so the
+ * thread count cannot change within a transfer. Transfers where the server
+ * granted fewer streams than were asked for (for example due to the file
+ * size) adjust the buffer size only.
+ * <p>
+ * Stream progress is recorded without locking, as each stream only touches
+ * its own slot, and the results are read after the streams have been joined.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class AdaptiveParallelTransferTuner {
+
+	/**
+	 * Bytes of each stream that are timed to compute per-stream throughput
+	 */
+	public static final long PROBE_BYTES = 8 * 1024 * 1024;
+
+	/**
+	 * Thread ceiling when the configured max threads defers to the server
+	 */
+	public static final int DEFAULT_MAX_THREADS = 16;
+
+	/**
+	 * Largest copy buffer that will be chosen
+	 */
+	public static final int MAX_BUFFER_SIZE = 32 * 1024 * 1024;
+
+	private static final double SCALING_EFFICIENCY = 0.8;
+	private static final double CONTENTION_EFFICIENCY = 0.5;
+	private static final double IMPROVEMENT_MARGIN = 1.05;
+	private static final double REGRESSION_MARGIN = 0.95;
+
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveParallelTransferTuner.class);
+
+	private final DiscoveredServerPropertiesCache discoveredServerPropertiesCache;
+	private final String host;
+	private final String zone;
+	private final int configuredMaxThreads;
+	private final int configuredBufferSize;
+
+	private long[] streamStartNanos = new long[0];
+	private long[] streamBytes = new long[0];
+	private long[] probeNanos = new long[0];
+	private long[] probeBytes = new long[0];
+	private long[] connectNanos = new long[0];
+
+	/**
+	 * Create a tuner for one transfer
+	 *
+	 * @param discoveredServerPropertiesCache
+	 *            {@link DiscoveredServerPropertiesCache} that holds learned
+	 *            values
+	 * @param host
+	 *            {@code String} with the iRODS host
+	 * @param zone
+	 *            {@code String} with the iRODS zone
+	 * @param configuredMaxThreads
+	 *            {@code int} with the max threads from the transfer options,
+	 *            used until a value is learned, and as a ceiling. 0 or less
+	 *            defers to {@link #DEFAULT_MAX_THREADS} as the ceiling.
+	 * @param configuredBufferSize
+	 *            {@code int} with the parallel copy buffer size from the
+	 *            jargon properties, used until a value is learned, and as a
+	 *            floor
+	 * @return {@link AdaptiveParallelTransferTuner}
+	 */
+	public static AdaptiveParallelTransferTuner instance(
+			final DiscoveredServerPropertiesCache discoveredServerPropertiesCache, final String host,
+			final String zone, final int configuredMaxThreads, final int configuredBufferSize) {
+		return new AdaptiveParallelTransferTuner(discoveredServerPropertiesCache, host, zone, configuredMaxThreads,
+				configuredBufferSize);
+	}
+
+	private AdaptiveParallelTransferTuner(final DiscoveredServerPropertiesCache discoveredServerPropertiesCache,
+			final String host, final String zone, final int configuredMaxThreads, final int configuredBufferSize) {
+
+		if (discoveredServerPropertiesCache == null) {
+			throw new IllegalArgumentException("null discoveredServerPropertiesCache");
+		}
+
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+
+		if (configuredBufferSize <= 0) {
+			throw new IllegalArgumentException("configuredBufferSize must be > 0");
+		}
+
+		this.discoveredServerPropertiesCache = discoveredServerPropertiesCache;
+		this.host = host;
+		this.zone = zone == null ? "" : zone;
+		this.configuredMaxThreads = configuredMaxThreads;
+		this.configuredBufferSize = configuredBufferSize;
+	}
+
+	/**
+	 * Get the number of threads to request for this transfer
+	 *
+	 * @return {@code int} with the learned thread count, or the configured max
+	 *         threads if nothing has been learned for this host
+	 */
+	public int getRecommendedThreads() {
+		int learned = retrieveInt(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_THREADS);
+		if (learned <= 0) {
+			return configuredMaxThreads;
+		}
+		return Math.min(learned, getThreadCeiling());
+	}
+
+	/**
+	 * Get the parallel copy buffer size to use for this transfer
+	 *
+	 * @return {@code int} with the learned buffer size, or the configured size
+	 *         if nothing has been learned for this host
+	 */
+	public int getRecommendedBufferSize() {
+		int learned = retrieveInt(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_BUFFER_SIZE);
+		if (learned <= 0) {
+			return configuredBufferSize;
+		}
+		return Math.max(configuredBufferSize, Math.min(learned, MAX_BUFFER_SIZE));
+	}
+
+	/**
+	 * Size the per-stream measurements once the server has set the number of
+	 * streams. Must be called before the streams start.
+	 *
+	 * @param numberOfStreams
+	 *            {@code int} with the number of streams granted by iRODS
+	 */
+	public void startTransfer(final int numberOfStreams) {
+		if (numberOfStreams <= 0) {
+			throw new IllegalArgumentException("numberOfStreams must be > 0");
+		}
+		streamStartNanos = new long[numberOfStreams];
+		streamBytes = new long[numberOfStreams];
+		probeNanos = new long[numberOfStreams];
+		probeBytes = new long[numberOfStreams];
+		connectNanos = new long[numberOfStreams];
+	}
+
+	/**
+	 * Record the time taken to connect a stream's socket, which approximates
+	 * one network round trip
+	 *
+	 * @param streamNumber
+	 *            {@code int} with the zero-based stream number
+	 * @param nanos
+	 *            {@code long} with the connect time in nanoseconds
+	 */
+	public void recordConnectTime(final int streamNumber, final long nanos) {
+		if (isTracked(streamNumber)) {
+			connectNanos[streamNumber] = nanos;
+		}
+	}
+
+	/**
+	 * Record bytes moved by a stream. The first call starts the stream's
+	 * clock, and the probe sample is taken when {@link #PROBE_BYTES} have
+	 * been moved.
+	 *
+	 * @param streamNumber
+	 *            {@code int} with the zero-based stream number
+	 * @param bytes
+	 *            {@code long} with the bytes just moved
+	 */
+	public void recordStreamProgress(final int streamNumber, final long bytes) {
+		if (!isTracked(streamNumber)) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		if (streamStartNanos[streamNumber] == 0) {
+			streamStartNanos[streamNumber] = now;
+		}
+
+		streamBytes[streamNumber] += bytes;
+		if (probeNanos[streamNumber] == 0 && streamBytes[streamNumber] >= PROBE_BYTES) {
+			probeNanos[streamNumber] = Math.max(1, now - streamStartNanos[streamNumber]);
+			probeBytes[streamNumber] = streamBytes[streamNumber];
+		}
+	}
+
+	/**
+	 * Signal that a stream has finished, taking its probe sample from the
+	 * whole stream if it moved less than {@link #PROBE_BYTES}
+	 *
+	 * @param streamNumber
+	 *            {@code int} with the zero-based stream number
+	 */
+	public void recordStreamComplete(final int streamNumber) {
+		if (!isTracked(streamNumber) || probeNanos[streamNumber] != 0 || streamStartNanos[streamNumber] == 0) {
+			return;
+		}
+		probeNanos[streamNumber] = Math.max(1, System.nanoTime() - streamStartNanos[streamNumber]);
+		probeBytes[streamNumber] = streamBytes[streamNumber];
+	}
+
+	/**
+	 * Compute and cache new recommendations from a completed transfer
+	 *
+	 * @param requestedThreads
+	 *            {@code int} with the thread count asked of iRODS
+	 * @param grantedThreads
+	 *            {@code int} with the number of streams iRODS used
+	 * @param transferLength
+	 *            {@code long} with the bytes transferred
+	 * @param elapsedNanos
+	 *            {@code long} with the wall time of the parallel transfer
+	 */
+	public void learn(final int requestedThreads, final int grantedThreads, final long transferLength,
+			final long elapsedNanos) {
+
+		double perStreamBps = computePerStreamThroughput();
+		if (perStreamBps <= 0 || elapsedNanos <= 0 || grantedThreads <= 0) {
+			log.info("no usable throughput samples, nothing learned");
+			return;
+		}
+
+		double aggregateBps = transferLength / (elapsedNanos / 1000000000.0);
+		double rttSeconds = computeRoundTripSeconds();
+		int bufferSize = computeBufferSize(perStreamBps, rttSeconds);
+		cache(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_BUFFER_SIZE, String.valueOf(bufferSize));
+
+		log.info("perStreamBps:{}, aggregateBps:{}, rtt seconds:{}",
+				new Object[] { (long) perStreamBps, (long) aggregateBps, rttSeconds });
+
+		if (requestedThreads > 0 && grantedThreads < requestedThreads) {
+			log.info("server granted {} of {} threads, thread count not adjusted", grantedThreads,
+					requestedThreads);
+			return;
+		}
+
+		int nextThreads = computeNextThreads(grantedThreads, perStreamBps, aggregateBps);
+		cache(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_THREADS, String.valueOf(nextThreads));
+		log.info("learned threads:{} buffer size:{} for host:{}", new Object[] { nextThreads, bufferSize, host });
+	}
+
+	int computeNextThreads(final int threadsUsed, final double perStreamBps, final double aggregateBps) {
+
+		double efficiency = aggregateBps / (perStreamBps * threadsUsed);
+		int bestThreads = retrieveInt(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_BEST_THREADS);
+		long bestBps = retrieveLong(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_BEST_THROUGHPUT);
+		int nextThreads;
+
+		if (bestThreads <= 0 || aggregateBps > bestBps * IMPROVEMENT_MARGIN) {
+			// new best, keep probing upward while the streams scale
+			cacheBest(threadsUsed, aggregateBps);
+			if (efficiency >= SCALING_EFFICIENCY) {
+				nextThreads = threadsUsed + Math.max(1, threadsUsed / 2);
+			} else {
+				nextThreads = threadsUsed;
+			}
+		} else if (aggregateBps < bestBps * REGRESSION_MARGIN) {
+			if (threadsUsed != bestThreads) {
+				// the change did not help, go back
+				nextThreads = bestThreads;
+			} else {
+				// conditions changed at the best count, re-baseline
+				cacheBest(threadsUsed, aggregateBps);
+				if (efficiency < CONTENTION_EFFICIENCY) {
+					nextThreads = threadsUsed - 1;
+				} else {
+					nextThreads = threadsUsed;
+				}
+			}
+		} else {
+			nextThreads = bestThreads;
+		}
+
+		return Math.max(1, Math.min(nextThreads, getThreadCeiling()));
+	}
+
+	int computeBufferSize(final double perStreamBps, final double rttSeconds) {
+		long bandwidthDelay = (long) (perStreamBps * rttSeconds);
+		if (bandwidthDelay <= configuredBufferSize) {
+			return configuredBufferSize;
+		}
+
+		long size = Long.highestOneBit(bandwidthDelay);
+		if (size < bandwidthDelay) {
+			size <<= 1;
+		}
+		return (int) Math.min(size, MAX_BUFFER_SIZE);
+	}
+
+	private double computePerStreamThroughput() {
+		double total = 0;
+		int samples = 0;
+		for (int i = 0; i < probeNanos.length; i++) {
+			if (probeNanos[i] > 0 && probeBytes[i] > 0) {
+				total += probeBytes[i] / (probeNanos[i] / 1000000000.0);
+				samples++;
+			}
+		}
+		return samples == 0 ? 0 : total / samples;
+	}
+
+	private double computeRoundTripSeconds() {
+		long min = Long.MAX_VALUE;
+		for (long nanos : connectNanos) {
+			if (nanos > 0 && nanos < min) {
+				min = nanos;
+			}
+		}
+		return min == Long.MAX_VALUE ? 0 : min / 1000000000.0;
+	}
+
+	private int getThreadCeiling() {
+		return configuredMaxThreads > 0 ? configuredMaxThreads : DEFAULT_MAX_THREADS;
+	}
+
+	private boolean isTracked(final int streamNumber) {
+		return streamNumber >= 0 && streamNumber < streamBytes.length;
+	}
+
+	private void cacheBest(final int threads, final double aggregateBps) {
+		cache(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_BEST_THREADS, String.valueOf(threads));
+		cache(DiscoveredServerPropertiesCache.ADAPTIVE_PARALLEL_BEST_THROUGHPUT,
+				String.valueOf((long) aggregateBps));
+	}
+
+	private void cache(final String propertyName, final String value) {
+		discoveredServerPropertiesCache.cacheAProperty(host, zone, propertyName, value);
+	}
+
+	private int retrieveInt(final String propertyName) {
+		return (int) retrieveLong(propertyName);
+	}
+
+	private long retrieveLong(final String propertyName) {
+		String value = discoveredServerPropertiesCache.retrieveValue(host, zone, propertyName);
+		if (value == null || value.isEmpty()) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			log.warn("ignoring unparsable cached value for {}:{}", propertyName, value);
+			return 0;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("AdaptiveParallelTransferTuner");
+		sb.append("\n   host:");
+		sb.append(host);
+		sb.append("\n   zone:");
+		sb.append(zone);
+		sb.append("\n   configuredMaxThreads:");
+		sb.append(configuredMaxThreads);
+		sb.append("\n   configuredBufferSize:");
+		sb.append(configuredBufferSize);
+		return sb.toString();
+	}
+
+}
@@ -44,6 +44,11 @@ public class DefaultTransferControlBlock implements TransferControlBlock {
 	private TransferOptions transferOptions = null;
 	private long totalBytesTransferredSoFar = 0L;
 	private long totalBytesToTransfer = 0L;
+	/**
+	 * Byte rate limit of this transfer, unlimited by default
+	 */
+	private final TokenBucket transferTokenBucket = new TokenBucket(0L);
+	private TransferPriority transferPriority = TransferPriority.NORMAL;
 
 	/*
 	 * (non-Javadoc)
@@ -499,4 +504,70 @@ public class DefaultTransferControlBlock implements TransferControlBlock {
 		return totalFilesTransferredSoFar - totalFilesSkippedSoFar;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.core.transfer.TransferControlBlock#getMaximumBytesPerSecond
+	 * ()
+	 */
+	@Override
+	public long getMaximumBytesPerSecond() {
+		return transferTokenBucket.getBytesPerSecond();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.core.transfer.TransferControlBlock#setMaximumBytesPerSecond
+	 * (long)
+	 */
+	@Override
+	public void setMaximumBytesPerSecond(final long maximumBytesPerSecond) {
+		if (maximumBytesPerSecond < 0) {
+			throw new IllegalArgumentException("maximumBytesPerSecond < 0");
+		}
+		transferTokenBucket.setBytesPerSecond(maximumBytesPerSecond);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.core.transfer.TransferControlBlock#getTransferPriority()
+	 */
+	@Override
+	public synchronized TransferPriority getTransferPriority() {
+		return transferPriority;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.core.transfer.TransferControlBlock#setTransferPriority
+	 * (org.irods.jargon.core.transfer.TransferPriority)
+	 */
+	@Override
+	public synchronized void setTransferPriority(
+			final TransferPriority transferPriority) {
+		if (transferPriority == null) {
+			throw new IllegalArgumentException("null transferPriority");
+		}
+		this.transferPriority = transferPriority;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.core.transfer.TransferControlBlock#getTransferTokenBucket
+	 * ()
+	 */
+	@Override
+	public TokenBucket getTransferTokenBucket() {
+		return transferTokenBucket;
+	}
+
 }
@@ -0,0 +1,403 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartStatus;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restart manager that keeps each restart in a properties file in a directory,
+ * so that a long file transfer interrupted by the end of the JVM may be
+ * resumed by a later one. Restarts are cached in memory once read, and each
+ * change is written to a temporary file and moved into place, so a file holds
+ * either the old or the new restart, never a partial one.
+ * <p>
+ * Restarts are only kept when {@code transfer.long.file.restart} is set in the
+ * jargon properties. Set this manager on the {@code IRODSSession} before any
+ * transfers.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class FileBasedTransferRestartManager extends AbstractRestartManager {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(FileBasedTransferRestartManager.class);
+
+	static final String RESTART_FILE_SUFFIX = ".restart";
+
+	private final File restartDirectory;
+
+	private final ConcurrentHashMap<FileRestartInfoIdentifier, FileRestartInfo> cacheOfRestartInfo = new ConcurrentHashMap<FileRestartInfoIdentifier, FileRestartInfo>(
+			8, 0.9f, 1);
+
+	/**
+	 * Constructor with the directory to hold the restart files
+	 *
+	 * @param restartDirectory
+	 *            {@code File} with a directory for the restart files, which
+	 *            is created if it does not exist
+	 * @throws FileRestartManagementException
+	 *             if the directory cannot be created
+	 */
+	public FileBasedTransferRestartManager(final File restartDirectory)
+			throws FileRestartManagementException {
+
+		if (restartDirectory == null) {
+			throw new IllegalArgumentException("null restartDirectory");
+		}
+
+		if (!restartDirectory.isDirectory() && !restartDirectory.mkdirs()) {
+			log.error("unable to create restart directory:{}",
+					restartDirectory);
+			throw new FileRestartManagementException(
+					"unable to create restart directory");
+		}
+
+		this.restartDirectory = restartDirectory;
+		log.info("restart files kept in:{}", restartDirectory);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#storeRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfoIdentifier storeRestart(
+			final FileRestartInfo fileRestartInfo)
+					throws FileRestartManagementException {
+
+		log.info("storeRestart()");
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		FileRestartInfoIdentifier identifier;
+
+		synchronized (this) {
+			identifier = FileRestartInfoIdentifier
+					.instanceFromFileRestartInfo(fileRestartInfo);
+			writeRestartFile(identifier, fileRestartInfo);
+			cacheOfRestartInfo.put(identifier, fileRestartInfo);
+		}
+		return identifier;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#deleteRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public void deleteRestart(
+			final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+					throws FileRestartManagementException {
+
+		log.info("deleteRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+
+		synchronized (this) {
+			cacheOfRestartInfo.remove(fileRestartInfoIdentifier);
+			File restartFile = restartFileFor(fileRestartInfoIdentifier);
+			if (restartFile.exists() && !restartFile.delete()) {
+				log.error("unable to delete restart file:{}", restartFile);
+				throw new FileRestartManagementException(
+						"unable to delete restart file");
+			}
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#retrieveRestart
+	 * (org.irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public FileRestartInfo retrieveRestart(
+			final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+					throws FileRestartManagementException {
+
+		log.info("retrieveRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+
+		synchronized (this) {
+			FileRestartInfo fileRestartInfo = cacheOfRestartInfo
+					.get(fileRestartInfoIdentifier);
+			if (fileRestartInfo == null) {
+				fileRestartInfo = readRestartFile(fileRestartInfoIdentifier);
+				if (fileRestartInfo != null) {
+					cacheOfRestartInfo.put(fileRestartInfoIdentifier,
+							fileRestartInfo);
+				}
+			}
+			return fileRestartInfo;
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.transfer.AbstractRestartManager#updateSegment(org
+	 * .irods.jargon.core.transfer.FileRestartInfo,
+	 * org.irods.jargon.core.transfer.FileRestartDataSegment)
+	 */
+	@Override
+	public void updateSegment(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment)
+					throws FileRestartManagementException {
+
+		log.info("updateSegment()");
+
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		if (fileRestartDataSegment == null) {
+			throw new IllegalArgumentException("null fileRestartDataSegment");
+		}
+
+		synchronized (this) {
+			FileRestartInfo actualRestartInfo = retrieveRestart(fileRestartInfo
+					.identifierFromThisInfo());
+			if (actualRestartInfo == null
+					|| actualRestartInfo.getFileRestartDataSegments().size() <= fileRestartDataSegment
+					.getThreadNumber()) {
+				log.error(
+						"fileRestartInfo does not contain the given segment:{}",
+						fileRestartInfo);
+				throw new FileRestartManagementException(
+						"unable to find segment");
+			}
+
+			actualRestartInfo.getFileRestartDataSegments().set(
+					fileRestartDataSegment.getThreadNumber(),
+					fileRestartDataSegment);
+			storeRestart(actualRestartInfo);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#
+	 * incrementRestartAttempts(org.irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfo incrementRestartAttempts(
+			final FileRestartInfo fileRestartInfo)
+					throws RestartFailedException, FileRestartManagementException {
+
+		log.info("incrementRestartAttempts()");
+		if (fileRestartInfo == null) {
+			log.info("no restart to increment, returning null");
+			return null;
+		}
+
+		synchronized (this) {
+			FileRestartInfo actualRestartInfo = retrieveRestart(fileRestartInfo
+					.identifierFromThisInfo());
+			if (actualRestartInfo == null) {
+				log.error("nothing to increment!");
+				return null;
+			}
+			int currentRestarts = actualRestartInfo.getNumberRestarts();
+			currentRestarts++;
+			if (currentRestarts > ConnectionConstants.MAX_FILE_RESTART_ATTEMPTS) {
+				log.error("violates max restart attempts, go ahead and fail the restart attempt");
+				throw new RestartFailedException(
+						"restart failed with too many attempts");
+			}
+			actualRestartInfo.setNumberRestarts(currentRestarts);
+			storeRestart(actualRestartInfo);
+			return actualRestartInfo;
+		}
+
+	}
+
+	/**
+	 * The restart file for an identifier is named for a digest of the
+	 * identifier, as paths may be longer than a file name allows
+	 */
+	File restartFileFor(
+			final FileRestartInfoIdentifier fileRestartInfoIdentifier) {
+		StringBuilder key = new StringBuilder();
+		key.append(fileRestartInfoIdentifier.getRestartType());
+		key.append('\n');
+		key.append(fileRestartInfoIdentifier.getIrodsAccountIdentifier());
+		key.append('\n');
+		key.append(fileRestartInfoIdentifier.getAbsolutePath());
+
+		StringBuilder name = new StringBuilder();
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			for (byte b : messageDigest
+					.digest(key.toString().getBytes("UTF-8"))) {
+				name.append(String.format("%02x", b & 0xff));
+			}
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("no SHA-1 digest available", e);
+		} catch (IOException e) {
+			throw new IllegalStateException("no UTF-8 encoding available", e);
+		}
+		name.append(RESTART_FILE_SUFFIX);
+		return new File(restartDirectory, name.toString());
+	}
+
+	private void writeRestartFile(
+			final FileRestartInfoIdentifier identifier,
+			final FileRestartInfo fileRestartInfo)
+					throws FileRestartManagementException {
+
+		Properties properties = new Properties();
+		properties.setProperty("irodsAccountIdentifier",
+				fileRestartInfo.getIrodsAccountIdentifier());
+		properties.setProperty("localAbsolutePath",
+				fileRestartInfo.getLocalAbsolutePath());
+		properties.setProperty("irodsAbsolutePath",
+				fileRestartInfo.getIrodsAbsolutePath());
+		properties.setProperty("restartStatus", fileRestartInfo
+				.getRestartStatus().name());
+		properties.setProperty("restartType", fileRestartInfo
+				.getRestartType().name());
+		properties.setProperty("numberRestarts",
+				String.valueOf(fileRestartInfo.getNumberRestarts()));
+		properties.setProperty("segments", String.valueOf(fileRestartInfo
+				.getFileRestartDataSegments().size()));
+		for (FileRestartDataSegment segment : fileRestartInfo
+				.getFileRestartDataSegments()) {
+			String prefix = "segment." + segment.getThreadNumber();
+			properties.setProperty(prefix + ".offset",
+					String.valueOf(segment.getOffset()));
+			properties.setProperty(prefix + ".length",
+					String.valueOf(segment.getLength()));
+		}
+
+		File restartFile = restartFileFor(identifier);
+		File tempFile = new File(restartDirectory, restartFile.getName()
+				+ ".tmp");
+		OutputStream outputStream = null;
+		try {
+			outputStream = new FileOutputStream(tempFile);
+			properties.store(outputStream, null);
+			outputStream.close();
+			outputStream = null;
+			try {
+				Files.move(tempFile.toPath(), restartFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), restartFile.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			log.error("unable to write restart file:{}", restartFile, e);
+			throw new FileRestartManagementException(
+					"unable to write restart file", e);
+		} finally {
+			if (outputStream != null) {
+				try {
+					outputStream.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private FileRestartInfo readRestartFile(
+			final FileRestartInfoIdentifier identifier)
+					throws FileRestartManagementException {
+
+		File restartFile = restartFileFor(identifier);
+		if (!restartFile.exists()) {
+			return null;
+		}
+
+		Properties properties = new Properties();
+		InputStream inputStream = null;
+		try {
+			inputStream = new FileInputStream(restartFile);
+			properties.load(inputStream);
+		} catch (IOException e) {
+			log.error("unable to read restart file:{}", restartFile, e);
+			throw new FileRestartManagementException(
+					"unable to read restart file", e);
+		} finally {
+			if (inputStream != null) {
+				try {
+					inputStream.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+
+		try {
+			FileRestartInfo fileRestartInfo = new FileRestartInfo();
+			fileRestartInfo.setIrodsAccountIdentifier(properties
+					.getProperty("irodsAccountIdentifier"));
+			fileRestartInfo.setLocalAbsolutePath(properties
+					.getProperty("localAbsolutePath"));
+			fileRestartInfo.setIrodsAbsolutePath(properties
+					.getProperty("irodsAbsolutePath"));
+			fileRestartInfo.setRestartStatus(RestartStatus.valueOf(properties
+					.getProperty("restartStatus")));
+			fileRestartInfo.setRestartType(RestartType.valueOf(properties
+					.getProperty("restartType")));
+			fileRestartInfo.setNumberRestarts(Integer.parseInt(properties
+					.getProperty("numberRestarts")));
+			int segments = Integer.parseInt(properties.getProperty("segments"));
+			for (int i = 0; i < segments; i++) {
+				FileRestartDataSegment segment = new FileRestartDataSegment(i);
+				segment.setOffset(Long.parseLong(properties
+						.getProperty("segment." + i + ".offset")));
+				segment.setLength(Long.parseLong(properties
+						.getProperty("segment." + i + ".length")));
+				fileRestartInfo.getFileRestartDataSegments().add(segment);
+			}
+			return fileRestartInfo;
+		} catch (RuntimeException e) {
+			log.error("restart file is not valid:{}", restartFile, e);
+			throw new FileRestartManagementException(
+					"restart file is not valid", e);
+		}
+	}
+
+	public File getRestartDirectory() {
+		return restartDirectory;
+	}
+
+}
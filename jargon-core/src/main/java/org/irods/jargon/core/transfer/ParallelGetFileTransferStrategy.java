@@ -4,8 +4,12 @@
 package org.irods.jargon.core.transfer;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -159,17 +163,28 @@ public final class ParallelGetFileTransferStrategy extends
 
 	private void transferWithExecutor(final ExecutorService executor)
 			throws JargonException {
-		final List<ParallelGetTransferThread> parallelGetTransferThreads = new ArrayList<ParallelGetTransferThread>();
+		final List<Callable<ParallelTransferResult>> parallelGetTransferThreads = new ArrayList<Callable<ParallelTransferResult>>();
+		RandomAccessFile localRandomAccessFile = null;
 
 		try {
 
-			for (int i = 0; i < numberOfThreads; i++) {
-				final ParallelGetTransferThread parallelTransfer = ParallelGetTransferThread
-						.instance(this, i);
-				parallelGetTransferThreads.add(parallelTransfer);
+			if (useNIO()) {
+				log.info("using NIO transfer threads with a shared file channel");
+				localRandomAccessFile = new RandomAccessFile(localFile, "rw");
+				FileChannel localFileChannel = localRandomAccessFile
+						.getChannel();
+				for (int i = 0; i < numberOfThreads; i++) {
+					parallelGetTransferThreads.add(ParallelGetNIOTransferThread
+							.instance(this, localFileChannel, i));
+				}
+			} else {
+				for (int i = 0; i < numberOfThreads; i++) {
+					final ParallelGetTransferThread parallelTransfer = ParallelGetTransferThread
+							.instance(this, i);
+					parallelGetTransferThreads.add(parallelTransfer);
+				}
 			}
 			log.info("invoking executor threads for get");
-			log.info("invoking executor threads for put");
 			List<Future<ParallelTransferResult>> transferThreadStates = executor
 					.invokeAll(parallelGetTransferThreads);
 
@@ -189,6 +204,14 @@ public final class ParallelGetFileTransferStrategy extends
 		} catch (Exception e) {
 			log.error("an error occurred in a parallel get", e);
 			throw new JargonException(e);
+		} finally {
+			if (localRandomAccessFile != null) {
+				try {
+					localRandomAccessFile.close();
+				} catch (IOException e) {
+					log.warn("IOException closing local file - log and ignore");
+				}
+			}
 		}
 	}
 
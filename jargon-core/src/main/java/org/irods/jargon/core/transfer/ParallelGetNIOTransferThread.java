@@ -0,0 +1,237 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+
+import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handle one stream of a parallel file get using NIO. Data is read from the
+ * socket channel into a direct buffer that is reused for the whole transfer,
+ * and written with positional {@link FileChannel#write(ByteBuffer, long)}
+ * calls into a file channel shared by all streams, so there is no seek, and
+ * no per-chunk allocation or copy through the heap.
+ * <p>
+ * This is used in place of {@link ParallelGetTransferThread} when
+ * {@code transfer.use.nio.for.parallel} is set and the transfer is not
+ * encrypted. See {@link org.irods.jargon.core.pub.DataTransferOperations} for
+ * the public API to transfer files.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class ParallelGetNIOTransferThread extends
+		AbstractNIOParallelTransferThread implements
+		Callable<ParallelTransferResult> {
+
+	private final ParallelGetFileTransferStrategy parallelGetFileTransferStrategy;
+	private final FileChannel localFileChannel;
+
+	public static final Logger log = LoggerFactory
+			.getLogger(ParallelGetNIOTransferThread.class);
+
+	/**
+	 * Represents a thread used in a parallel file transfer.
+	 *
+	 * @param parallelGetFileTransferStrategy
+	 *            {@link ParallelGetFileTransferStrategy} that controls the
+	 *            transfer threads.
+	 * @param localFileChannel
+	 *            {@link FileChannel} open for write on the local file, shared
+	 *            by all of the threads, and closed by the strategy
+	 * @param threadNumber
+	 *            {@code int} with the thread number
+	 * @return {@code ParallelGetNIOTransferThread}
+	 * @throws JargonException
+	 */
+	public static ParallelGetNIOTransferThread instance(
+			final ParallelGetFileTransferStrategy parallelGetFileTransferStrategy,
+			final FileChannel localFileChannel, final int threadNumber)
+			throws JargonException {
+		return new ParallelGetNIOTransferThread(
+				parallelGetFileTransferStrategy, localFileChannel, threadNumber);
+	}
+
+	private ParallelGetNIOTransferThread(
+			final ParallelGetFileTransferStrategy parallelGetFileTransferStrategy,
+			final FileChannel localFileChannel, final int threadNumber)
+			throws JargonException {
+
+		super(threadNumber);
+		if (parallelGetFileTransferStrategy == null) {
+			throw new JargonException("parallelGetFileTransferStrategy is null");
+		}
+
+		if (localFileChannel == null) {
+			throw new JargonException("localFileChannel is null");
+		}
+
+		if (parallelGetFileTransferStrategy.doEncryption()) {
+			throw new JargonException(
+					"NIO parallel get does not support encryption");
+		}
+
+		this.parallelGetFileTransferStrategy = parallelGetFileTransferStrategy;
+		this.localFileChannel = localFileChannel;
+	}
+
+	@Override
+	public ParallelTransferResult call() throws JargonException {
+		try {
+			long connectNanos = connect(
+					parallelGetFileTransferStrategy.getHost(),
+					parallelGetFileTransferStrategy.getPort(),
+					parallelGetFileTransferStrategy.getPassword(),
+					parallelGetFileTransferStrategy.getPipelineConfiguration());
+			if (parallelGetFileTransferStrategy
+					.getAdaptiveParallelTransferTuner() != null) {
+				parallelGetFileTransferStrategy
+						.getAdaptiveParallelTransferTuner().recordConnectTime(
+								getThreadNumber(), connectNanos);
+			}
+			log.info("socket channel is open and password sent, now begin the get operation");
+
+			get();
+			ParallelTransferResult result = new ParallelTransferResult();
+			result.transferException = getExceptionInTransfer();
+			return result;
+
+		} catch (JargonException je) {
+			setExceptionInTransfer(je);
+			throw je;
+		} catch (Throwable e) {
+			log.error("unchecked exception in transfer", e);
+			setExceptionInTransfer(new JargonException(e));
+			throw new JargonException(e);
+		} finally {
+			log.info("closing socket channel, this close eats exceptions");
+			close();
+		}
+	}
+
+	private void get() throws JargonException {
+		log.info("parallel NIO transfer get");
+
+		ByteBuffer buffer = ByteBuffer
+				.allocateDirect(parallelGetFileTransferStrategy
+						.getJargonProperties().getParallelCopyBufferSize());
+
+		try {
+			while (true) {
+				int operation = readInt();
+				// flags
+				readInt();
+				long offset = readLong();
+				long length = readLong();
+
+				log.info(">>>new offset:{}", offset);
+				log.info(">>>new length:{}", length);
+
+				if (operation == DONE_OPR) {
+					if (parallelGetFileTransferStrategy
+							.getAdaptiveParallelTransferTuner() != null) {
+						parallelGetFileTransferStrategy
+								.getAdaptiveParallelTransferTuner()
+								.recordStreamComplete(getThreadNumber());
+					}
+					break;
+				}
+
+				if (operation != GET_OPR) {
+					log.error(
+							"Parallel transfer expected GET,  server requested {}",
+							operation);
+					throw new JargonException(
+							"parallel get transfer, unexpected transfer type from iRODS:"
+									+ operation);
+				}
+
+				if (offset < 0 || length < 0) {
+					String msg = "offset or length < 0 passed in header from iRODS during parallel get operation";
+					log.error(msg);
+					throw new JargonException(msg);
+				}
+
+				if (offset > 0
+						&& parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+					parallelGetFileTransferStrategy.getRestartManager()
+							.updateOffsetForSegment(
+									parallelGetFileTransferStrategy
+											.getFileRestartInfo()
+											.identifierFromThisInfo(),
+									getThreadNumber(), offset);
+				}
+
+				transferSegment(buffer, offset, length);
+
+				if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+					parallelGetFileTransferStrategy.getRestartManager()
+							.updateLengthForSegment(
+									parallelGetFileTransferStrategy
+											.getFileRestartInfo()
+											.identifierFromThisInfo(),
+									getThreadNumber(), length);
+					log.debug("signal storage of new info");
+				}
+			}
+
+		} catch (JargonException je) {
+			log.error("a jargon exception occurred in the get loop");
+			throw je;
+		} catch (IOException e) {
+			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER,
+					parallelGetFileTransferStrategy.toString());
+			throw new JargonException(
+					IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
+		}
+	}
+
+	/**
+	 * Move one header's worth of data from the socket to the file at the given
+	 * offset
+	 */
+	private void transferSegment(final ByteBuffer buffer, final long offset,
+			final long length) throws IOException {
+		long position = offset;
+		long remaining = length;
+
+		while (remaining > 0) {
+			buffer.clear();
+			if (remaining < buffer.capacity()) {
+				buffer.limit((int) remaining);
+			}
+
+			readFully(buffer);
+			buffer.flip();
+			int read = buffer.remaining();
+			parallelGetFileTransferStrategy.throttle(read);
+
+			while (buffer.hasRemaining()) {
+				position += localFileChannel.write(buffer, position);
+			}
+			remaining -= read;
+
+			if (parallelGetFileTransferStrategy
+					.getConnectionProgressStatusListener() != null) {
+				parallelGetFileTransferStrategy
+						.getConnectionProgressStatusListener()
+						.connectionProgressStatusCallback(
+								ConnectionProgressStatus
+										.instanceForReceive(read));
+			}
+
+			if (parallelGetFileTransferStrategy
+					.getAdaptiveParallelTransferTuner() != null) {
+				parallelGetFileTransferStrategy
+						.getAdaptiveParallelTransferTuner()
+						.recordStreamProgress(getThreadNumber(), read);
+			}
+		}
+	}
+
+}
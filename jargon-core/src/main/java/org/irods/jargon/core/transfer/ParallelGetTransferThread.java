@@ -123,7 +123,13 @@ public final class ParallelGetTransferThread extends
 			// assume reuse, nodelay
 			s.setReuseAddress(true);
 			s.setTcpNoDelay(false);
+			long connectStart = System.nanoTime();
 			s.connect(address);
+			if (parallelGetFileTransferStrategy.getAdaptiveParallelTransferTuner() != null) {
+				parallelGetFileTransferStrategy.getAdaptiveParallelTransferTuner()
+						.recordConnectTime(getThreadNumber(),
+								System.nanoTime() - connectStart);
+			}
 			setS(s);
 			byte[] outputBuffer = new byte[4];
 			Host.copyInt(parallelGetFileTransferStrategy.getPassword(),
@@ -298,6 +304,7 @@ public final class ParallelGetTransferThread extends
 				}
 
 				read = myRead(getIn(), buffer, newSize);
+				parallelGetFileTransferStrategy.throttle(read);
 
 				/*
 				 * If encrypted, strip off the iv and decrypt before writing
@@ -317,6 +324,7 @@ public final class ParallelGetTransferThread extends
 					if (length == 0) {
 
 						local.write(buffer, 0, read);
+						recordStreamProgress(read);
 
 						/*
 						 * Make an intra-file status call-back if a listener is
@@ -356,6 +364,12 @@ public final class ParallelGetTransferThread extends
 						log.info(">>>new length:{}", length);
 
 						if (operation == DONE_OPR) {
+							if (parallelGetFileTransferStrategy
+									.getAdaptiveParallelTransferTuner() != null) {
+								parallelGetFileTransferStrategy
+										.getAdaptiveParallelTransferTuner()
+										.recordStreamComplete(getThreadNumber());
+							}
 							break;
 						}
 
@@ -372,6 +386,7 @@ public final class ParallelGetTransferThread extends
 					} else {
 
 						local.write(buffer, 0, read);
+						recordStreamProgress(read);
 						/*
 						 * Make an intra-file status call-back if a listener is
 						 * configured
@@ -408,6 +423,13 @@ public final class ParallelGetTransferThread extends
 		}
 	}
 
+	private void recordStreamProgress(final int read) {
+		if (parallelGetFileTransferStrategy.getAdaptiveParallelTransferTuner() != null) {
+			parallelGetFileTransferStrategy.getAdaptiveParallelTransferTuner()
+					.recordStreamProgress(getThreadNumber(), read);
+		}
+	}
+
 	private int myRead(final InputStream in, final byte[] buffer,
 			final int length) throws IOException, JargonException {
 		int myLength = length;
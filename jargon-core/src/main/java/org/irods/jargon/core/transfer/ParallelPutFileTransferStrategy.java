@@ -4,8 +4,12 @@
 package org.irods.jargon.core.transfer;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -163,20 +167,33 @@ public final class ParallelPutFileTransferStrategy extends
 	private void transferWithExecutor(final ExecutorService executor)
 			throws JargonException {
 		log.info("initiating transfer for: {} without executor", toString());
-		final List<ParallelPutTransferThread> parallelPutTransferThreads = new ArrayList<ParallelPutTransferThread>();
-		localFile.length();
-		ParallelPutTransferThread parallelTransferThread;
+		final List<Callable<ParallelTransferResult>> parallelPutTransferThreads = new ArrayList<Callable<ParallelTransferResult>>();
+		RandomAccessFile localRandomAccessFile = null;
 
-		for (int i = 0; i < numberOfThreads; i++) {
+		try {
+			if (useNIO()) {
+				log.info("using NIO transfer threads with a shared file channel");
+				localRandomAccessFile = new RandomAccessFile(localFile, "r");
+				FileChannel localFileChannel = localRandomAccessFile
+						.getChannel();
+				for (int i = 0; i < numberOfThreads; i++) {
+					parallelPutTransferThreads.add(ParallelPutNIOTransferThread
+							.instance(this, localFileChannel, i));
+				}
+			} else {
+				ParallelPutTransferThread parallelTransferThread;
 
-			parallelTransferThread = ParallelPutTransferThread
-					.instance(this, i);
-			parallelPutTransferThreads.add(parallelTransferThread);
-			log.info("created transfer thread:{}", parallelTransferThread);
+				for (int i = 0; i < numberOfThreads; i++) {
 
-		}
+					parallelTransferThread = ParallelPutTransferThread
+							.instance(this, i);
+					parallelPutTransferThreads.add(parallelTransferThread);
+					log.info("created transfer thread:{}",
+							parallelTransferThread);
+
+				}
+			}
 
-		try {
 			log.info("invoking executor threads for put");
 			List<Future<ParallelTransferResult>> transferThreadStates = executor
 					.invokeAll(parallelPutTransferThreads);
@@ -193,9 +210,19 @@ public final class ParallelPutFileTransferStrategy extends
 		} catch (InterruptedException e) {
 			log.error("interrupted exception in thread", e);
 			throw new JargonException(e);
+		} catch (JargonException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("an error occurred in a parallel put", e);
 			throw new JargonException(e);
+		} finally {
+			if (localRandomAccessFile != null) {
+				try {
+					localRandomAccessFile.close();
+				} catch (IOException e) {
+					log.warn("IOException closing local file - log and ignore");
+				}
+			}
 		}
 	}
 }
@@ -0,0 +1,296 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handle one stream of a parallel file put using NIO. Data is sent from a file
+ * channel shared by all streams with positional
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * calls, which lets the platform move file data to the socket without copying
+ * it through a Java buffer. If {@code transfer.parallel.put.map.window.size}
+ * is set, each stream instead memory maps its part of the file a window at a
+ * time and writes to the socket straight from the mapping.
+ * <p>
+ * This is used in place of {@link ParallelPutTransferThread} when
+ * {@code transfer.use.nio.for.parallel} is set and the transfer is not
+ * encrypted. This is used within jargon.core, and is not meant for public API
+ * use. See {@link org.irods.jargon.core.pub.DataTransferOperations} for public
+ * API used for file transfers.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class ParallelPutNIOTransferThread extends
+		AbstractNIOParallelTransferThread implements
+		Callable<ParallelTransferResult> {
+
+	private final ParallelPutFileTransferStrategy parallelPutFileTransferStrategy;
+	private final FileChannel localFileChannel;
+	private long totalWrittenSinceLastRestartUpdate = 0;
+	/**
+	 * Set if memory mapping the local file failed, after which
+	 * {@code transferTo()} is used
+	 */
+	private boolean mappingFailed = false;
+
+	public static final Logger log = LoggerFactory
+			.getLogger(ParallelPutNIOTransferThread.class);
+
+	/**
+	 * Represents a thread used in a parallel file transfer.
+	 *
+	 * @param parallelPutFileTransferStrategy
+	 *            {@link ParallelPutFileTransferStrategy} that controls the
+	 *            transfer threads.
+	 * @param localFileChannel
+	 *            {@link FileChannel} open for read on the local file, shared by
+	 *            all of the threads, and closed by the strategy
+	 * @param threadNumber
+	 *            {@code int} with the thread number
+	 * @return {@code ParallelPutNIOTransferThread}
+	 * @throws JargonException
+	 */
+	public static ParallelPutNIOTransferThread instance(
+			final ParallelPutFileTransferStrategy parallelPutFileTransferStrategy,
+			final FileChannel localFileChannel, final int threadNumber)
+			throws JargonException {
+		return new ParallelPutNIOTransferThread(
+				parallelPutFileTransferStrategy, localFileChannel, threadNumber);
+	}
+
+	private ParallelPutNIOTransferThread(
+			final ParallelPutFileTransferStrategy parallelPutFileTransferStrategy,
+			final FileChannel localFileChannel, final int threadNumber)
+			throws JargonException {
+
+		super(threadNumber);
+
+		if (parallelPutFileTransferStrategy == null) {
+			throw new JargonException("parallelPutFileTransferStrategy is null");
+		}
+
+		if (localFileChannel == null) {
+			throw new JargonException("localFileChannel is null");
+		}
+
+		if (parallelPutFileTransferStrategy.doEncryption()) {
+			throw new JargonException(
+					"NIO parallel put does not support encryption");
+		}
+
+		this.parallelPutFileTransferStrategy = parallelPutFileTransferStrategy;
+		this.localFileChannel = localFileChannel;
+	}
+
+	@Override
+	public ParallelTransferResult call() throws JargonException {
+
+		try {
+			log.info(
+					"opening socket channel to parallel transfer (high) port at port:{}",
+					parallelPutFileTransferStrategy.getPort());
+			long connectNanos = connect(
+					parallelPutFileTransferStrategy.getHost(),
+					parallelPutFileTransferStrategy.getPort(),
+					parallelPutFileTransferStrategy.getPassword(),
+					parallelPutFileTransferStrategy.getPipelineConfiguration());
+			if (parallelPutFileTransferStrategy
+					.getAdaptiveParallelTransferTuner() != null) {
+				parallelPutFileTransferStrategy
+						.getAdaptiveParallelTransferTuner().recordConnectTime(
+								getThreadNumber(), connectNanos);
+			}
+
+			put();
+			log.debug("put operation completed");
+			return new ParallelTransferResult();
+
+		} catch (Throwable e) {
+			log.error(
+					"An exception occurred during a parallel file put operation",
+					e);
+			JargonException je = new JargonException(
+					"error during parallel file put", e);
+			setExceptionInTransfer(je);
+			throw je;
+		} finally {
+			log.info("closing socket channel, this eats any exceptions");
+			close();
+		}
+	}
+
+	private void put() throws JargonException, IOException {
+		log.info("put()..");
+
+		while (true) {
+			int operation = readInt();
+			if (operation == DONE_OPR) {
+				log.info("done received");
+				if (parallelPutFileTransferStrategy
+						.getAdaptiveParallelTransferTuner() != null) {
+					parallelPutFileTransferStrategy
+							.getAdaptiveParallelTransferTuner()
+							.recordStreamComplete(getThreadNumber());
+				}
+				break;
+			} else if (operation != PUT_OPR) {
+				throw new JargonException("unknown operation received");
+			}
+
+			// flags
+			readInt();
+			long offset = readLong();
+			long length = readLong();
+			log.info("   offset:{}", offset);
+			log.info("   length:{}", length);
+
+			if (parallelPutFileTransferStrategy.getFileRestartInfo() != null) {
+				parallelPutFileTransferStrategy.getRestartManager()
+						.updateOffsetForSegment(
+								parallelPutFileTransferStrategy
+										.getFileRestartInfo()
+										.identifierFromThisInfo(),
+								getThreadNumber(), offset);
+			}
+
+			transferSegment(offset, length);
+		}
+	}
+
+	/**
+	 * Send one header's worth of data from the file at the given offset, in
+	 * chunks of the parallel copy buffer size so that progress callbacks and
+	 * restart updates are made as they are for the stream based put
+	 */
+	private void transferSegment(final long offset, final long length)
+			throws IOException, JargonException {
+		int chunkSize = parallelPutFileTransferStrategy.getJargonProperties()
+				.getParallelCopyBufferSize();
+		int mapWindowSize = parallelPutFileTransferStrategy
+				.getJargonProperties().getParallelPutMapWindowSize();
+		long position = offset;
+		long remaining = length;
+		totalWrittenSinceLastRestartUpdate = 0;
+
+		while (remaining > 0) {
+			if (Thread.interrupted()) {
+				throw new IOException(
+						"interrupted, consider connection corrupted and return IOException to clear");
+			}
+
+			long sent;
+			if (mapWindowSize > 0 && !mappingFailed) {
+				sent = sendMappedWindow(position,
+						Math.min(mapWindowSize, remaining), chunkSize);
+			} else {
+				parallelPutFileTransferStrategy.throttle((int) Math.min(
+						chunkSize, remaining));
+				sent = localFileChannel.transferTo(position,
+						Math.min(chunkSize, remaining), getS());
+				if (sent <= 0 && position >= localFileChannel.size()) {
+					throw new JargonException(
+							"unexpected end of local file in parallel put");
+				}
+				recordSent(sent);
+			}
+
+			position += sent;
+			remaining -= sent;
+		}
+
+		if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+				&& totalWrittenSinceLastRestartUpdate > 0) {
+			updateRestartLength(totalWrittenSinceLastRestartUpdate);
+		}
+	}
+
+	/**
+	 * Memory map a window of the local file and write it to the socket
+	 * channel from the mapping, so the data is not copied into a Java buffer.
+	 * Windows are bounded by {@code transfer.parallel.put.map.window.size},
+	 * which keeps each mapping under the 2GB limit of a
+	 * {@code MappedByteBuffer}. If a mapping cannot be made, for instance when
+	 * address space is exhausted, this stream falls back to
+	 * {@code transferTo()} for the rest of the transfer.
+	 *
+	 * @return {@code long} with the bytes sent, 0 if mapping failed
+	 */
+	private long sendMappedWindow(final long position, final long windowLength,
+			final int chunkSize) throws IOException, JargonException {
+		MappedByteBuffer window;
+		try {
+			window = localFileChannel.map(FileChannel.MapMode.READ_ONLY,
+					position, windowLength);
+		} catch (IOException e) {
+			log.warn("unable to map local file at {}, falling back to transferTo",
+					position, e);
+			mappingFailed = true;
+			return 0;
+		} catch (OutOfMemoryError e) {
+			log.warn("unable to map local file at {}, falling back to transferTo",
+					position, e);
+			mappingFailed = true;
+			return 0;
+		}
+
+		while (window.hasRemaining()) {
+			int chunk = Math.min(chunkSize, window.remaining());
+			window.limit(window.position() + chunk);
+			parallelPutFileTransferStrategy.throttle(chunk);
+			writeFully(window);
+			window.limit(window.capacity());
+			recordSent(chunk);
+		}
+		return windowLength;
+	}
+
+	/**
+	 * Make progress callbacks and restart updates for data sent
+	 */
+	private void recordSent(final long sent) throws JargonException {
+		if (sent <= 0) {
+			return;
+		}
+
+		totalWrittenSinceLastRestartUpdate += sent;
+
+		if (parallelPutFileTransferStrategy
+				.getConnectionProgressStatusListener() != null) {
+			parallelPutFileTransferStrategy
+					.getConnectionProgressStatusListener()
+					.connectionProgressStatusCallback(
+							ConnectionProgressStatus.instanceForSend(sent));
+		}
+
+		if (parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner() != null) {
+			parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner()
+					.recordStreamProgress(getThreadNumber(), sent);
+		}
+
+		if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+				&& totalWrittenSinceLastRestartUpdate >= ConnectionConstants.MIN_FILE_RESTART_SIZE) {
+			updateRestartLength(totalWrittenSinceLastRestartUpdate);
+			totalWrittenSinceLastRestartUpdate = 0;
+		}
+	}
+
+	private void updateRestartLength(final long length)
+			throws JargonException {
+		parallelPutFileTransferStrategy.getRestartManager()
+				.updateLengthForSegment(
+						parallelPutFileTransferStrategy.getFileRestartInfo()
+								.identifierFromThisInfo(), getThreadNumber(),
+						length);
+		log.debug("signal storage of new info");
+	}
+
+}
@@ -111,7 +111,13 @@ Callable<ParallelTransferResult> {
 			// assume reuse, nodelay
 			s.setReuseAddress(true);
 			s.setTcpNoDelay(false);
+			long connectStart = System.nanoTime();
 			s.connect(address);
+			if (parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner() != null) {
+				parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner()
+				.recordConnectTime(getThreadNumber(),
+						System.nanoTime() - connectStart);
+			}
 			setS(s);
 			int inputBuffSize = this.parallelPutFileTransferStrategy
 					.getJargonProperties().getInternalInputStreamBufferSize();
@@ -204,6 +210,13 @@ Callable<ParallelTransferResult> {
 
 	}
 
+	private void recordStreamProgress(final int read) {
+		if (parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner() != null) {
+			parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner()
+			.recordStreamProgress(getThreadNumber(), read);
+		}
+	}
+
 	/**
 	 * @throws IOException
 	 * @throws JargonException
@@ -251,6 +264,11 @@ Callable<ParallelTransferResult> {
 					log.debug("put operation");
 				} else if (operation == AbstractParallelTransferThread.DONE_OPR) {
 					log.info("done received");
+					if (parallelPutFileTransferStrategy.getAdaptiveParallelTransferTuner() != null) {
+						parallelPutFileTransferStrategy
+						.getAdaptiveParallelTransferTuner()
+						.recordStreamComplete(getThreadNumber());
+					}
 					done = true;
 					break;
 				} else {
@@ -352,6 +370,8 @@ Callable<ParallelTransferResult> {
 							"getting ready to write to iRODS, new txfr length:{}",
 							transferLength);
 
+					parallelPutFileTransferStrategy.throttle(read);
+
 					/*
 					 * if encrypting, encrypt this buffer before sending
 					 */
@@ -399,6 +419,8 @@ Callable<ParallelTransferResult> {
 								.instanceForSend(read));
 					}
 
+					recordStreamProgress(read);
+
 					log.debug("wrote data to the buffer");
 					totalWritten += read;
 					totalWrittenSinceLastRestartUpdate += read;
@@ -0,0 +1,145 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Byte rate limit as a token bucket, holding up to one second of bytes. A
+ * caller reserves the bytes it is about to move, and waits for any shortfall
+ * to be refilled, so a read or write larger than the bucket is allowed, and
+ * paid for by the next callers.
+ * <p>
+ * The rate may be changed while transfers are in progress, and takes effect
+ * with the next reservation. A rate of 0 is unlimited.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TokenBucket {
+
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	/**
+	 * Read without the lock to pass quickly when unlimited
+	 */
+	private volatile long bytesPerSecond;
+
+	private double availableBytes;
+	private long lastRefillNanos;
+
+	/**
+	 * Create a bucket, starting full
+	 *
+	 * @param bytesPerSecond
+	 *            {@code long} with the byte rate, 0 for unlimited
+	 */
+	public TokenBucket(final long bytesPerSecond) {
+		if (bytesPerSecond < 0) {
+			throw new IllegalArgumentException("bytesPerSecond < 0");
+		}
+		this.bytesPerSecond = bytesPerSecond;
+		availableBytes = bytesPerSecond;
+		lastRefillNanos = System.nanoTime();
+	}
+
+	/**
+	 * Reserve bytes, waiting until the rate allows them
+	 *
+	 * @param bytes
+	 *            {@code long} with the number of bytes about to be moved
+	 * @throws InterruptedIOException
+	 *             if interrupted while waiting
+	 */
+	public void acquire(final long bytes) throws InterruptedIOException {
+		if (bytesPerSecond == 0) {
+			return;
+		}
+		sleepNanos(reserve(bytes, System.nanoTime()));
+	}
+
+	/**
+	 * Take bytes from the bucket, which may go into debt
+	 *
+	 * @return {@code long} with the nanos to wait before the bytes may be
+	 *         moved, 0 if there is no need to wait
+	 */
+	synchronized long reserve(final long bytes, final long nowNanos) {
+		refill(nowNanos);
+		if (bytesPerSecond == 0) {
+			return 0L;
+		}
+
+		availableBytes -= bytes;
+		if (availableBytes >= 0) {
+			return 0L;
+		}
+		return (long) (-availableBytes * NANOS_PER_SECOND / bytesPerSecond);
+	}
+
+	private void refill(final long nowNanos) {
+		long elapsed = nowNanos - lastRefillNanos;
+		lastRefillNanos = nowNanos;
+		if (elapsed > 0 && bytesPerSecond > 0) {
+			availableBytes = Math.min(bytesPerSecond, availableBytes
+					+ (double) elapsed * bytesPerSecond / NANOS_PER_SECOND);
+		}
+	}
+
+	static void sleepNanos(final long nanos) throws InterruptedIOException {
+		if (nanos <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(nanos / 1000000L, (int) (nanos % 1000000L));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"interrupted while waiting on transfer rate limit");
+		}
+	}
+
+	/**
+	 * Change the rate, effective for the next reservation
+	 *
+	 * @param bytesPerSecond
+	 *            {@code long} with the byte rate, 0 for unlimited
+	 */
+	public void setBytesPerSecond(final long bytesPerSecond) {
+		setBytesPerSecond(bytesPerSecond, System.nanoTime());
+	}
+
+	synchronized void setBytesPerSecond(final long bytesPerSecond,
+			final long nowNanos) {
+		if (bytesPerSecond < 0) {
+			throw new IllegalArgumentException("bytesPerSecond < 0");
+		}
+		refill(nowNanos);
+		if (this.bytesPerSecond == 0 || availableBytes > bytesPerSecond) {
+			availableBytes = bytesPerSecond;
+		}
+		this.bytesPerSecond = bytesPerSecond;
+	}
+
+	/**
+	 * @return {@code long} with the byte rate, 0 for unlimited
+	 */
+	public long getBytesPerSecond() {
+		return bytesPerSecond;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if a rate is set
+	 */
+	public boolean isLimited() {
+		return bytesPerSecond > 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("TokenBucket");
+		sb.append("\n   bytesPerSecond:");
+		sb.append(bytesPerSecond);
+		return sb.toString();
+	}
+
+}
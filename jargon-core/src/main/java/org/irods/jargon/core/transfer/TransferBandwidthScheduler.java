@@ -0,0 +1,195 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares the transfer bandwidth of an
+ * {@link org.irods.jargon.core.connection.IRODSSession} between the transfers
+ * running in it. Byte rate limits are kept as {@link TokenBucket}s at three
+ * levels, each of which may be left unlimited:
+ * <ul>
+ * <li>global, across every transfer of the session</li>
+ * <li>per account, by user, zone and host</li>
+ * <li>per transfer, set in the {@link TransferControlBlock}</li>
+ * </ul>
+ * The global limit is shared by {@link TransferPriority}, with waiting
+ * transfers of a higher priority going first. All limits may be changed while
+ * transfers are running.
+ * <p>
+ * Limits are enforced by a {@link TransferThrottle} in the read and write
+ * loops of connections and parallel transfer threads.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TransferBandwidthScheduler {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(TransferBandwidthScheduler.class);
+
+	private final TokenBucket globalTokenBucket = new TokenBucket(0L);
+
+	private final ConcurrentMap<String, TokenBucket> accountTokenBuckets = new ConcurrentHashMap<String, TokenBucket>();
+
+	/**
+	 * Count of transfers waiting on the global limit, by priority ordinal
+	 */
+	private final int[] waitingByPriority = new int[TransferPriority.values().length];
+
+	public TransferBandwidthScheduler() {
+	}
+
+	/**
+	 * Create a throttle for a transfer
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} doing the transfer
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} with the per transfer limit and
+	 *            priority, or {@code null} for none
+	 * @return {@link TransferThrottle}
+	 */
+	public TransferThrottle instanceTransferThrottle(
+			final IRODSAccount irodsAccount,
+			final TransferControlBlock transferControlBlock) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		return new TransferThrottle(this, getAccountTokenBucket(irodsAccount),
+				transferControlBlock);
+	}
+
+	/**
+	 * Wait for bytes from the global limit, behind any waiting transfers of a
+	 * higher priority
+	 */
+	void acquireGlobal(final TransferPriority transferPriority,
+			final long bytes) throws InterruptedIOException {
+
+		if (!globalTokenBucket.isLimited()) {
+			return;
+		}
+
+		int ordinal = transferPriority.ordinal();
+		long waitNanos;
+
+		synchronized (this) {
+			waitingByPriority[ordinal]++;
+			try {
+				while (isHigherPriorityWaiting(ordinal)) {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				releaseWaiting(ordinal);
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(
+						"interrupted while waiting on transfer priority");
+			}
+			waitNanos = globalTokenBucket.reserve(bytes, System.nanoTime());
+		}
+
+		try {
+			TokenBucket.sleepNanos(waitNanos);
+		} finally {
+			synchronized (this) {
+				releaseWaiting(ordinal);
+			}
+		}
+	}
+
+	private boolean isHigherPriorityWaiting(final int ordinal) {
+		for (int i = 0; i < ordinal; i++) {
+			if (waitingByPriority[i] > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void releaseWaiting(final int ordinal) {
+		waitingByPriority[ordinal]--;
+		notifyAll();
+	}
+
+	/**
+	 * Set the byte rate limit across every transfer of the session
+	 *
+	 * @param bytesPerSecond
+	 *            {@code long} with the byte rate, 0 for unlimited
+	 */
+	public void setGlobalBytesPerSecond(final long bytesPerSecond) {
+		log.info("setting global bytes per second:{}", bytesPerSecond);
+		globalTokenBucket.setBytesPerSecond(bytesPerSecond);
+	}
+
+	/**
+	 * @return {@code long} with the global byte rate, 0 for unlimited
+	 */
+	public long getGlobalBytesPerSecond() {
+		return globalTokenBucket.getBytesPerSecond();
+	}
+
+	/**
+	 * Set the byte rate limit across the transfers of one account
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to limit
+	 * @param bytesPerSecond
+	 *            {@code long} with the byte rate, 0 for unlimited
+	 */
+	public void setAccountBytesPerSecond(final IRODSAccount irodsAccount,
+			final long bytesPerSecond) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		log.info("setting bytes per second:{} for account:{}",
+				bytesPerSecond, buildAccountKey(irodsAccount));
+		getAccountTokenBucket(irodsAccount).setBytesPerSecond(bytesPerSecond);
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 * @return {@code long} with the byte rate of the account, 0 for unlimited
+	 */
+	public long getAccountBytesPerSecond(final IRODSAccount irodsAccount) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		TokenBucket tokenBucket = accountTokenBuckets
+				.get(buildAccountKey(irodsAccount));
+		return tokenBucket == null ? 0L : tokenBucket.getBytesPerSecond();
+	}
+
+	private TokenBucket getAccountTokenBucket(final IRODSAccount irodsAccount) {
+		String key = buildAccountKey(irodsAccount);
+		TokenBucket tokenBucket = accountTokenBuckets.get(key);
+		if (tokenBucket == null) {
+			TokenBucket newTokenBucket = new TokenBucket(0L);
+			tokenBucket = accountTokenBuckets.putIfAbsent(key, newTokenBucket);
+			if (tokenBucket == null) {
+				tokenBucket = newTokenBucket;
+			}
+		}
+		return tokenBucket;
+	}
+
+	static String buildAccountKey(final IRODSAccount irodsAccount) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getUserName());
+		sb.append('#');
+		sb.append(irodsAccount.getZone());
+		sb.append('@');
+		sb.append(irodsAccount.getHost());
+		sb.append(':');
+		sb.append(irodsAccount.getPort());
+		return sb.toString();
+	}
+
+}
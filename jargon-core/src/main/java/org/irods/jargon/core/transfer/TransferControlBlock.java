@@ -256,4 +256,45 @@ public interface TransferControlBlock {
 	 */
 	void setTotalFilesSkippedSoFar(int totalFilesSkippedSoFar);
 
+	/**
+	 * Get the byte rate limit of this transfer
+	 *
+	 * @return {@code long} with the bytes per second, 0 for unlimited
+	 */
+	long getMaximumBytesPerSecond();
+
+	/**
+	 * Set the byte rate limit of this transfer. This may be changed while the
+	 * transfer is running, and takes effect with the next buffer sent or read.
+	 *
+	 * @param maximumBytesPerSecond
+	 *            {@code long} with the bytes per second, 0 for unlimited
+	 */
+	void setMaximumBytesPerSecond(long maximumBytesPerSecond);
+
+	/**
+	 * Get the priority of this transfer in sharing a global rate limit
+	 *
+	 * @return {@link TransferPriority}
+	 */
+	TransferPriority getTransferPriority();
+
+	/**
+	 * Set the priority of this transfer in sharing a global rate limit. This
+	 * may be changed while the transfer is running.
+	 *
+	 * @param transferPriority
+	 *            {@link TransferPriority}
+	 */
+	void setTransferPriority(TransferPriority transferPriority);
+
+	/**
+	 * Get the token bucket that enforces
+	 * {@link #getMaximumBytesPerSecond()}, shared by every thread of the
+	 * transfer
+	 *
+	 * @return {@link TokenBucket}
+	 */
+	TokenBucket getTransferTokenBucket();
+
 }
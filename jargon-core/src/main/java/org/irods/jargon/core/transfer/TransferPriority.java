@@ -0,0 +1,29 @@
+package org.irods.jargon.core.transfer;
+
+/**
+ * Priority class of a transfer, used by the {@link TransferBandwidthScheduler}
+ * to share a global byte rate limit. While a transfer of a higher priority is
+ * waiting on the global limit, transfers of a lower priority wait behind it.
+ * Priority has no effect unless a global limit is set.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public enum TransferPriority {
+
+	/**
+	 * Transfers a user is waiting on, such as a single file download
+	 */
+	INTERACTIVE,
+
+	/**
+	 * The default
+	 */
+	NORMAL,
+
+	/**
+	 * Large background transfers, such as a recursive put
+	 */
+	BULK
+
+}
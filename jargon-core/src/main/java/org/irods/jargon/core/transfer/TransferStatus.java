@@ -52,6 +52,9 @@ public class TransferStatus {
 	 * skipping process and just appears to proceed normally, while apps that
 	 * have more sophisticated accounting can do the delta to get a breakout
 	 * number
+	 * <p>
+	 * Files skipped in synch mode, because they are unchanged at the target,
+	 * are counted here as well, with a state of {@code SKIPPING}
 	 *
 	 */
 	private final int totalFilesSkippedSoFar;
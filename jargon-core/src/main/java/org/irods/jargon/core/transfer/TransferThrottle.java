@@ -0,0 +1,88 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Applies the per transfer, per account and global byte rate limits of a
+ * {@link TransferBandwidthScheduler} to one transfer. Call
+ * {@link #acquire(int)} before each buffer is written, or after each buffer
+ * is read, in a transfer loop. The limit and priority of the transfer are read
+ * from its {@link TransferControlBlock} on each call, so they may be changed
+ * while it runs.
+ * <p>
+ * A throttle may be bound to the thread running a transfer, so that the
+ * connection read and write loops it calls apply the limits of that transfer.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class TransferThrottle {
+
+	private static final ThreadLocal<TransferThrottle> currentTransferThrottle = new ThreadLocal<TransferThrottle>();
+
+	private final TransferBandwidthScheduler transferBandwidthScheduler;
+	private final TokenBucket accountTokenBucket;
+	private final TransferControlBlock transferControlBlock;
+
+	TransferThrottle(
+			final TransferBandwidthScheduler transferBandwidthScheduler,
+			final TokenBucket accountTokenBucket,
+			final TransferControlBlock transferControlBlock) {
+		this.transferBandwidthScheduler = transferBandwidthScheduler;
+		this.accountTokenBucket = accountTokenBucket;
+		this.transferControlBlock = transferControlBlock;
+	}
+
+	/**
+	 * Wait until every limit allows the given bytes to be moved
+	 *
+	 * @param bytes
+	 *            {@code int} with the size of the buffer
+	 * @throws InterruptedIOException
+	 *             if interrupted while waiting
+	 */
+	public void acquire(final int bytes) throws InterruptedIOException {
+		TransferPriority transferPriority = TransferPriority.NORMAL;
+		if (transferControlBlock != null) {
+			transferControlBlock.getTransferTokenBucket().acquire(bytes);
+			transferPriority = transferControlBlock.getTransferPriority();
+		}
+		accountTokenBucket.acquire(bytes);
+		transferBandwidthScheduler.acquireGlobal(transferPriority, bytes);
+	}
+
+	/**
+	 * Bind a throttle to the current thread, for the connection loops it calls
+	 *
+	 * @param transferThrottle
+	 *            {@link TransferThrottle} to bind, or {@code null} to clear
+	 * @return {@link TransferThrottle} that was bound before, to be restored
+	 *         with this method when the transfer is done, may be {@code null}
+	 */
+	public static TransferThrottle bindToCurrentThread(
+			final TransferThrottle transferThrottle) {
+		TransferThrottle previous = currentTransferThrottle.get();
+		if (transferThrottle == null) {
+			currentTransferThrottle.remove();
+		} else {
+			currentTransferThrottle.set(transferThrottle);
+		}
+		return previous;
+	}
+
+	/**
+	 * @return {@link TransferThrottle} bound to the current thread, or
+	 *         {@code null} if none
+	 */
+	public static TransferThrottle getCurrentThreadTransferThrottle() {
+		return currentTransferThrottle.get();
+	}
+
+	/**
+	 * @return {@link TransferControlBlock} of the transfer, or {@code null}
+	 */
+	public TransferControlBlock getTransferControlBlock() {
+		return transferControlBlock;
+	}
+
+}
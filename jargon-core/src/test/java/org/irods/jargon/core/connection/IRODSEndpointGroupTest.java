@@ -0,0 +1,122 @@
+package org.irods.jargon.core.connection;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSEndpointGroup.SelectionPolicy;
+import org.junit.Test;
+
+public class IRODSEndpointGroupTest {
+
+	private static final IRODSEndpoint ENDPOINT1 = IRODSEndpoint.instance("host1", 1247);
+	private static final IRODSEndpoint ENDPOINT2 = IRODSEndpoint.instance("host2", 1247);
+	private static final IRODSEndpoint ENDPOINT3 = IRODSEndpoint.instance("host3", 1247);
+
+	private static List<IRODSEndpoint> threeEndpoints() {
+		List<IRODSEndpoint> endpoints = new ArrayList<IRODSEndpoint>();
+		endpoints.add(ENDPOINT1);
+		endpoints.add(ENDPOINT2);
+		endpoints.add(ENDPOINT3);
+		return endpoints;
+	}
+
+	@Test
+	public void testRoundRobinTakesTurns() throws Exception {
+		IRODSEndpointGroup target = IRODSEndpointGroup.instance(threeEndpoints(), SelectionPolicy.ROUND_ROBIN);
+		Assert.assertEquals(ENDPOINT1, target.selectEndpoints().get(0));
+		Assert.assertEquals(ENDPOINT2, target.selectEndpoints().get(0));
+		Assert.assertEquals(ENDPOINT3, target.selectEndpoints().get(0));
+		Assert.assertEquals(ENDPOINT1, target.selectEndpoints().get(0));
+	}
+
+	@Test
+	public void testLeastOutstandingPrefersFewestConnections() throws Exception {
+		IRODSEndpointGroup target = IRODSEndpointGroup.instance(threeEndpoints(),
+				SelectionPolicy.LEAST_OUTSTANDING_REQUESTS);
+		target.connectionOpened(ENDPOINT1);
+		target.connectionOpened(ENDPOINT1);
+		target.connectionOpened(ENDPOINT2);
+		List<IRODSEndpoint> selected = target.selectEndpoints();
+		Assert.assertEquals(ENDPOINT3, selected.get(0));
+		Assert.assertEquals(ENDPOINT2, selected.get(1));
+		Assert.assertEquals(ENDPOINT1, selected.get(2));
+
+		target.connectionClosed(ENDPOINT1);
+		target.connectionClosed(ENDPOINT1);
+		Assert.assertEquals(0, target.getOpenConnectionCount(ENDPOINT1));
+	}
+
+	@Test
+	public void testFailedEndpointTriedLast() throws Exception {
+		IRODSEndpointGroup target = IRODSEndpointGroup.instance(threeEndpoints(), SelectionPolicy.ROUND_ROBIN);
+		target.markFailed(ENDPOINT1);
+		List<IRODSEndpoint> selected = target.selectEndpoints();
+		Assert.assertEquals(3, selected.size());
+		Assert.assertEquals(ENDPOINT1, selected.get(2));
+		Assert.assertFalse(target.getAvailableEndpoints().contains(ENDPOINT1));
+	}
+
+	@Test
+	public void testBackOffExpiresAndDoubles() throws Exception {
+		IRODSEndpointGroup target = IRODSEndpointGroup.instance(threeEndpoints(), SelectionPolicy.ROUND_ROBIN);
+		target.setInitialBackOffMillis(50);
+		target.markFailed(ENDPOINT1);
+		Thread.sleep(80);
+		Assert.assertTrue(target.getAvailableEndpoints().contains(ENDPOINT1));
+
+		// second failure in a row backs off for 100 ms
+		target.markFailed(ENDPOINT1);
+		Thread.sleep(80);
+		Assert.assertFalse(target.getAvailableEndpoints().contains(ENDPOINT1));
+	}
+
+	@Test
+	public void testConnectionOpenedClearsFailure() throws Exception {
+		IRODSEndpointGroup target = IRODSEndpointGroup.instance(threeEndpoints(), SelectionPolicy.ROUND_ROBIN);
+		target.markFailed(ENDPOINT2);
+		target.connectionOpened(ENDPOINT2);
+		Assert.assertTrue(target.getAvailableEndpoints().contains(ENDPOINT2));
+	}
+
+	@Test
+	public void testProbeMarksEndpoints() throws Exception {
+		ServerSocket serverSocket = new ServerSocket(0);
+		try {
+			IRODSEndpoint listening = IRODSEndpoint.instance("localhost", serverSocket.getLocalPort());
+			ServerSocket closedSocket = new ServerSocket(0);
+			IRODSEndpoint notListening = IRODSEndpoint.instance("localhost", closedSocket.getLocalPort());
+			closedSocket.close();
+
+			List<IRODSEndpoint> endpoints = new ArrayList<IRODSEndpoint>();
+			endpoints.add(listening);
+			endpoints.add(notListening);
+			IRODSEndpointGroup target = IRODSEndpointGroup.instance(endpoints, SelectionPolicy.ROUND_ROBIN);
+			target.setInitialBackOffMillis(50);
+			target.markFailed(listening);
+			Thread.sleep(80);
+			target.setInitialBackOffMillis(60000);
+
+			target.probeEndpoints();
+			List<IRODSEndpoint> available = target.getAvailableEndpoints();
+			Assert.assertTrue(available.contains(listening));
+			Assert.assertFalse(available.contains(notListening));
+		} finally {
+			serverSocket.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownEndpoint() throws Exception {
+		IRODSEndpointGroup target = IRODSEndpointGroup.instance(threeEndpoints(), SelectionPolicy.ROUND_ROBIN);
+		target.markFailed(IRODSEndpoint.instance("other", 1247));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyEndpoints() throws Exception {
+		IRODSEndpointGroup.instance(new ArrayList<IRODSEndpoint>(), SelectionPolicy.ROUND_ROBIN);
+	}
+
+}
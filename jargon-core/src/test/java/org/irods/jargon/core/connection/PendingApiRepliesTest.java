@@ -0,0 +1,55 @@
+package org.irods.jargon.core.connection;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.NativePackTable;
+import org.irods.jargon.core.utils.IRODSConstants;
+import org.junit.Test;
+
+public class PendingApiRepliesTest {
+
+	@Test
+	public void testEachReplyTakesItsOwnRequest() throws Exception {
+		PendingApiReplies pendingApiReplies = new PendingApiReplies();
+		pendingApiReplies.requestSent(IRODSConstants.AUTH_REQUEST_AN);
+		Assert.assertEquals(IRODSConstants.AUTH_REQUEST_AN, pendingApiReplies
+				.replyReceived().intValue());
+		pendingApiReplies.requestSent(IRODSConstants.AUTH_RESPONSE_AN);
+		Assert.assertEquals(IRODSConstants.AUTH_RESPONSE_AN,
+				pendingApiReplies.replyReceived().intValue());
+		pendingApiReplies.requestSent(GenQueryInp.API_NBR);
+		Integer apiNumber = pendingApiReplies.replyReceived();
+		Assert.assertEquals(GenQueryInp.API_NBR, apiNumber.intValue());
+		Assert.assertEquals("GenQueryOut_PI",
+				NativePackTable.getOutputStructName(apiNumber));
+		Assert.assertEquals(0, pendingApiReplies.getPendingCount());
+	}
+
+	@Test
+	public void testPipelinedRepliesInOrder() throws Exception {
+		PendingApiReplies pendingApiReplies = new PendingApiReplies();
+		pendingApiReplies.requestSent(1);
+		pendingApiReplies.requestSent(2);
+		pendingApiReplies.requestSent(3);
+		Assert.assertEquals(1, pendingApiReplies.replyReceived().intValue());
+		Assert.assertEquals(2, pendingApiReplies.replyReceived().intValue());
+		Assert.assertEquals(3, pendingApiReplies.replyReceived().intValue());
+	}
+
+	@Test
+	public void testExtraReplyBelongsToLastApi() throws Exception {
+		PendingApiReplies pendingApiReplies = new PendingApiReplies();
+		pendingApiReplies.requestSent(1);
+		Assert.assertEquals(1, pendingApiReplies.replyReceived().intValue());
+		Assert.assertEquals(1, pendingApiReplies.replyReceived().intValue());
+		pendingApiReplies.requestSent(2);
+		Assert.assertEquals(2, pendingApiReplies.replyReceived().intValue());
+	}
+
+	@Test
+	public void testNoRequestSent() throws Exception {
+		Assert.assertNull(new PendingApiReplies().replyReceived());
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.irods.jargon.core.connection;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReroutedHostCacheTest {
+
+	private IRODSAccount irodsAccount;
+	private IRODSAccount otherZoneAccount;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", "");
+		otherZoneAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone2/home/test", "zone2", "");
+	}
+
+	@Test
+	public void testPutAndGetHost() throws Exception {
+		ReroutedHostCache target = new ReroutedHostCache();
+		target.putHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc1", "/zone/home/test/coll", "resc1host");
+		Assert.assertEquals("resc1host", target.getHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc1",
+				"/zone/home/test/coll", 60000));
+	}
+
+	@Test
+	public void testRouteKeptByOperationResourceAndCollection() throws Exception {
+		ReroutedHostCache target = new ReroutedHostCache();
+		target.putHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc1", "/zone/home/test/coll", "resc1host");
+		Assert.assertNull(target.getHost(irodsAccount, ReroutedHostCache.PUT_OPERATION, "resc1",
+				"/zone/home/test/coll", 60000));
+		Assert.assertNull(target.getHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc2",
+				"/zone/home/test/coll", 60000));
+		Assert.assertNull(target.getHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc1",
+				"/zone/home/test/other", 60000));
+		Assert.assertNull(target.getHost(otherZoneAccount, ReroutedHostCache.GET_OPERATION, "resc1",
+				"/zone/home/test/coll", 60000));
+	}
+
+	@Test
+	public void testExpiredRouteNotReturned() throws Exception {
+		ReroutedHostCache target = new ReroutedHostCache();
+		target.putHost(irodsAccount, ReroutedHostCache.PUT_OPERATION, "", "/zone/home/test/coll", "resc1host");
+		Thread.sleep(20);
+		Assert.assertNull(target.getHost(irodsAccount, ReroutedHostCache.PUT_OPERATION, "", "/zone/home/test/coll",
+				10));
+	}
+
+	@Test
+	public void testNullHostNotCached() throws Exception {
+		ReroutedHostCache target = new ReroutedHostCache();
+		target.putHost(irodsAccount, ReroutedHostCache.GET_OPERATION, null, "/zone/home/test/coll", null);
+		Assert.assertNull(target.getHost(irodsAccount, ReroutedHostCache.GET_OPERATION, null,
+				"/zone/home/test/coll", 60000));
+	}
+
+	@Test
+	public void testInvalidateHost() throws Exception {
+		ReroutedHostCache target = new ReroutedHostCache();
+		target.putHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc1", "/zone/home/test/coll", "resc1host");
+		target.putHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc2", "/zone/home/test/coll", "resc2host");
+		target.invalidateHost("resc1host");
+		Assert.assertNull(target.getHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc1",
+				"/zone/home/test/coll", 60000));
+		Assert.assertEquals("resc2host", target.getHost(irodsAccount, ReroutedHostCache.GET_OPERATION, "resc2",
+				"/zone/home/test/coll", 60000));
+	}
+
+}
@@ -0,0 +1,50 @@
+package org.irods.jargon.core.packinstr;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class DataObjInpForChecksumTest {
+
+	@Test
+	public final void testInstance() throws Exception {
+		ChecksumOptions checksumOptions = new ChecksumOptions();
+		checksumOptions.setForce(true);
+		checksumOptions.setChecksumAllReplicas(false);
+		checksumOptions.setVerifyChecksumInIcat(false);
+		DataObjInpForChecksum actual = DataObjInpForChecksum.instance(
+				"/zone/home/test/file.txt", "", -1, checksumOptions);
+		Assert.assertEquals("wrong api number",
+				DataObjInpForChecksum.CHECKSUM_API_NBR, actual.getApiNumber());
+		String tagOut = actual.getParsedTags();
+		Assert.assertTrue("missing path",
+				tagOut.indexOf("<objPath>/zone/home/test/file.txt</objPath>") > -1);
+		Assert.assertTrue("missing force",
+				tagOut.indexOf(DataObjInpForChecksum.FORCE_CHECKSUM_KW) > -1);
+		Assert.assertTrue("should not verify",
+				tagOut.indexOf(DataObjInpForChecksum.VERIFY_CHECKSUM_KW) == -1);
+	}
+
+	@Test
+	public final void testInstanceWithReplicaNumber() throws Exception {
+		DataObjInpForChecksum actual = DataObjInpForChecksum.instance(
+				"/zone/home/test/file.txt", "", 2, new ChecksumOptions());
+		String tagOut = actual.getParsedTags();
+		Assert.assertTrue("missing replica number keyword", tagOut.indexOf("<keyWord>"
+				+ DataObjInpForChecksum.REPL_NUM_KW + "</keyWord>") > -1);
+		Assert.assertTrue("missing replica number",
+				tagOut.indexOf("<svalue>2</svalue>") > -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInstanceNullPath() throws Exception {
+		DataObjInpForChecksum.instance(null, "", -1, new ChecksumOptions());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInstanceNullOptions() throws Exception {
+		DataObjInpForChecksum.instance("/zone/home/test/file.txt", "", -1,
+				null);
+	}
+
+}
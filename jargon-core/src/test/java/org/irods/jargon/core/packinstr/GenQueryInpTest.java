@@ -186,4 +186,40 @@ public class GenQueryInpTest {
 
 	}
 
+	@Test
+	public final void testWriteTagsSameAsGetParsedTags() throws Exception {
+		String queryString = "select "
+				+ RodsGenQueryEnum.COL_D_COLL_ID.getName() + " ,count("
+				+ RodsGenQueryEnum.COL_COLL_ACCESS_COLL_ID.getName()
+				+ ") where " + RodsGenQueryEnum.COL_COLL_ACCESS_TYPE.getName()
+				+ " = " + "'2' and "
+				+ RodsGenQueryEnum.COL_COLL_NAME.getName() + " like "
+				+ "'/zone/home/a&b<c>%'";
+
+		IRODSServerProperties props = IRODSServerProperties.instance(
+				IRODSServerProperties.IcatEnabled.ICAT_ENABLED, 100, "rods2.2",
+				"d", "zone");
+
+		IRODSGenQuery irodsQuery = IRODSGenQuery.instance(queryString, 500);
+
+		IRODSGenQueryTranslator irodsQueryTranslator = new IRODSGenQueryTranslator(
+				props);
+		TranslatedIRODSGenQuery translatedIRODSQuery = irodsQueryTranslator
+				.getTranslatedQuery(irodsQuery);
+
+		GenQueryInp[] genQueryInps = new GenQueryInp[] {
+				GenQueryInp.instance(translatedIRODSQuery, 0, null),
+				GenQueryInp.instanceWithPartialStart(translatedIRODSQuery, 10,
+						"otherZone"),
+				GenQueryInp.instanceForCloseQuery(translatedIRODSQuery, 2) };
+
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		for (GenQueryInp genQueryInp : genQueryInps) {
+			tagWriter.reset();
+			genQueryInp.writeTags(tagWriter);
+			Assert.assertEquals(genQueryInp.getParsedTags(), new String(
+					tagWriter.getBuffer(), 0, tagWriter.getLength(), "UTF-8"));
+		}
+	}
+
 }
@@ -0,0 +1,199 @@
+package org.irods.jargon.core.packinstr;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ProtocolTypeEnum;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryResultProcessingUtils;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.irods.jargon.core.utils.Base64;
+import org.junit.Test;
+
+public class NativePackerTest {
+
+	private static final String ENCODING = "UTF-8";
+
+	@Test
+	public final void testPackIntInNetworkOrder() throws Exception {
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(OperationComplete.instance(258).getTagValue());
+		Assert.assertEquals("wrong length", 4, packer.getLength());
+		Assert.assertEquals(0, packer.getBuffer()[0]);
+		Assert.assertEquals(0, packer.getBuffer()[1]);
+		Assert.assertEquals(1, packer.getBuffer()[2]);
+		Assert.assertEquals(2, packer.getBuffer()[3]);
+	}
+
+	@Test
+	public final void testPackEmptyKeyValuePairAsNullPointers() throws Exception {
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(new Tag(AbstractIRODSPackingInstruction.KEY_VAL_PAIR_PI, new Tag(
+				AbstractIRODSPackingInstruction.SS_LEN, 0)));
+
+		String nullPointer = NativePackTable.NULL_POINTER;
+		Assert.assertEquals("wrong length", 4 + 2 * (nullPointer.length() + 1), packer.getLength());
+		Assert.assertEquals("null pointer not packed", nullPointer,
+				new String(packer.getBuffer(), 4, nullPointer.length(), ENCODING));
+		Assert.assertEquals("null pointer not ended", 0, packer.getBuffer()[4 + nullPointer.length()]);
+	}
+
+	@Test
+	public final void testPackAndUnpackGenQueryInp() throws Exception {
+		String queryString = "select " + RodsGenQueryEnum.COL_D_COLL_ID.getName() + " ,"
+				+ RodsGenQueryEnum.COL_COLL_ACCESS_COLL_ID.getName() + " where "
+				+ RodsGenQueryEnum.COL_COLL_ACCESS_TYPE.getName() + " = " + "'2'";
+		IRODSServerProperties props = IRODSServerProperties.instance(IRODSServerProperties.IcatEnabled.ICAT_ENABLED,
+				100, "rods2.2", "d", "zone");
+		TranslatedIRODSGenQuery translatedIRODSQuery = new IRODSGenQueryTranslator(props)
+				.getTranslatedQuery(IRODSGenQuery.instance(queryString, 500));
+		GenQueryInp genQueryInp = GenQueryInp.instance(translatedIRODSQuery, 0, "otherZone");
+
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(genQueryInp.getTagValue());
+		Tag unpacked = NativeUnpacker.unpack(packer.getBuffer(), 0, packer.getLength(), GenQueryInp.PI_TAG,
+				ENCODING);
+
+		Assert.assertEquals("same tags not unpacked", genQueryInp.getParsedTags(), unpacked.parseTag());
+	}
+
+	@Test
+	public final void testPackAndUnpackGenQueryOut() throws Exception {
+		Tag genQueryOut = new Tag("GenQueryOut_PI", new Tag[] { new Tag(GenQueryOut.ROW_CNT, 2),
+				new Tag(GenQueryOut.ATTRIB_CNT, 2), new Tag(GenQueryOut.CONTINUE_INX, 0),
+				new Tag("totalRowCount", 0),
+				new Tag("SqlResult_PI", new Tag[] { new Tag("attriInx", 403), new Tag("reslen", 64),
+						new Tag("value", "file1"), new Tag("value", "file\u00e92") }),
+				new Tag("SqlResult_PI", new Tag[] { new Tag("attriInx", 407), new Tag("reslen", 32),
+						new Tag("value", "10"), new Tag("value", "") }) });
+
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(genQueryOut);
+		Tag unpacked = NativeUnpacker.unpack(packer.getBuffer(), 0, packer.getLength(), "GenQueryOut_PI", ENCODING);
+
+		Assert.assertEquals("all result structs should be unpacked", 4 + 50, unpacked.getTags().length);
+		List<IRODSQueryResultRow> rows = QueryResultProcessingUtils.translateResponseIntoResultSet(unpacked,
+				Arrays.asList("name", "size"), 0, 0);
+		Assert.assertEquals(2, rows.size());
+		Assert.assertEquals("file1", rows.get(0).getColumn(0));
+		Assert.assertEquals("10", rows.get(0).getColumn(1));
+		Assert.assertEquals("file\u00e92", rows.get(1).getColumn(0));
+		Assert.assertEquals("", rows.get(1).getColumn(1));
+	}
+
+	@Test
+	public final void testPackAndUnpackDataObjInp() throws Exception {
+		DataObjInp dataObjInp = DataObjInp.instanceForOpen("/zone/home/test/file.txt",
+				DataObjInp.OpenFlags.READ_WRITE);
+
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(dataObjInp.getTagValue());
+		Tag unpacked = NativeUnpacker.unpack(packer.getBuffer(), 0, packer.getLength(), DataObjInp.PI_TAG,
+				ENCODING);
+
+		Assert.assertEquals("/zone/home/test/file.txt", unpacked.getTag(DataObjInp.OBJ_PATH).getStringValue());
+		Assert.assertNull("null spec coll should be left out", unpacked.getTag("SpecColl_PI"));
+		Assert.assertNotNull(unpacked.getTag(AbstractIRODSPackingInstruction.KEY_VAL_PAIR_PI));
+	}
+
+	@Test
+	public final void testPackAndUnpackDoubleOfOpenedDataObjInp() throws Exception {
+		OpenedDataObjInp openedDataObjInp = OpenedDataObjInp.instanceForFileSeek(5000000000L, 3,
+				OpenedDataObjInp.SEEK_START);
+
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(openedDataObjInp.getTagValue());
+		Tag unpacked = NativeUnpacker.unpack(packer.getBuffer(), 0, packer.getLength(), OpenedDataObjInp.PI_TAG,
+				ENCODING);
+
+		Assert.assertEquals(3, unpacked.getTag(OpenedDataObjInp.L1_DESC_INX).getIntValue());
+		Assert.assertEquals(5000000000L, unpacked.getTag(OpenedDataObjInp.OFFSET).getLongValue());
+	}
+
+	@Test
+	public final void testPackObjStatAndUnpackReply() throws Exception {
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(DataObjInpForObjStat.instance("/zone/home/test/file.txt").getTagValue());
+		Assert.assertTrue("obj stat request not packed", packer.getLength() > 0);
+
+		String structName = NativePackTable.getOutputStructName(DataObjInpForObjStat.OBJ_STAT_API_NBR);
+		Tag objStat = new Tag(structName, new Tag[] { new Tag("objSize", 5000000000L), new Tag("objType", 1),
+				new Tag("dataMode", 0), new Tag("dataId", "10010"), new Tag("chksum", ""),
+				new Tag("ownerName", "test"), new Tag("ownerZone", "zone"), new Tag("createTime", "01400000000"),
+				new Tag("modifyTime", "01400000001"),
+				new Tag("SpecColl_PI", new Tag[] { new Tag("collClass", 0), new Tag("type", 0),
+						new Tag("collection", ""), new Tag("objPath", ""), new Tag("resource", ""),
+						new Tag("rescHier", ""), new Tag("phyPath", "/var/lib/irods/file.txt"),
+						new Tag("cacheDir", ""), new Tag("cacheDirty", 0), new Tag("replNum", 0) }),
+				new Tag("rescHier", "demoResc") });
+
+		packer.reset();
+		packer.pack(objStat);
+		Tag unpacked = NativeUnpacker.unpack(packer.getBuffer(), 0, packer.getLength(), structName, ENCODING);
+
+		Assert.assertEquals(5000000000L, unpacked.getTag("objSize").getLongValue());
+		Assert.assertEquals(10010, unpacked.getTag("dataId").getIntValue());
+		Assert.assertEquals("test", unpacked.getTag("ownerName").getStringValue());
+		Assert.assertEquals("/var/lib/irods/file.txt",
+				unpacked.getTag("SpecColl_PI").getTag("phyPath").getStringValue());
+		Assert.assertEquals("demoResc", unpacked.getTag("rescHier").getStringValue());
+	}
+
+	@Test
+	public final void testPackAndUnpackAuthResponseBinary() throws Exception {
+		byte[] response = new byte[16];
+		for (int i = 0; i < response.length; i++) {
+			response[i] = (byte) (i * 17 + 1);
+		}
+		AuthResponseInp authResponseInp = new AuthResponseInp("test", Base64.toString(response));
+
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(authResponseInp.getTagValue());
+		Assert.assertEquals("binary should be sent as is", 16 + 5, packer.getLength());
+
+		Tag unpacked = NativeUnpacker.unpack(packer.getBuffer(), 0, packer.getLength(), AuthResponseInp.PI_TAG,
+				ENCODING);
+		Assert.assertEquals(authResponseInp.getResponse(),
+				unpacked.getTag(AuthResponseInp.RESPONSE_TAG).getStringValue());
+		Assert.assertEquals("test", unpacked.getTag(AuthResponseInp.ACCOUNT_TAG).getStringValue());
+	}
+
+	@Test
+	public final void testStartupPackAsksForNativeProtocol() throws Exception {
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone",
+				"");
+		StartupPack startupPack = new StartupPack(irodsAccount, false, StartupPack.SP_OPTION_IINIT,
+				ProtocolTypeEnum.NATIVE);
+		Assert.assertEquals("0", startupPack.getTagValue().getTag("irodsProt").getStringValue());
+	}
+
+	@Test(expected = JargonException.class)
+	public final void testPackUnsupportedInstruction() throws Exception {
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(new Tag("CollInpNew_PI", new Tag("collName", "/zone/home")));
+	}
+
+	@Test(expected = JargonException.class)
+	public final void testPackStringTooLong() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 64; i++) {
+			sb.append('a');
+		}
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(new Tag("authPlugReqInp_PI", new Tag("auth_scheme_", sb.toString())));
+	}
+
+	@Test(expected = JargonException.class)
+	public final void testUnpackShortMessage() throws Exception {
+		NativeUnpacker.unpack(new byte[] { 0, 0 }, 0, 2, "fileLseekOut_PI", ENCODING);
+	}
+
+}
@@ -0,0 +1,142 @@
+package org.irods.jargon.core.packinstr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryResultProcessingUtils;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the XML and native packing protocols for a query heavy workload,
+ * packing many general query requests and reading back large general query
+ * results, as a connection does. Timings and message sizes are logged, and the
+ * rows read in each protocol are checked. No iRODS server is needed.
+ */
+public class NativePackingBenchmarkTest {
+
+	private static final String ENCODING = "UTF-8";
+	private static final int QUERIES = 20000;
+	private static final int RESULTS = 200;
+	private static final int ROWS = 500;
+	private static final int[] COLUMNS = new int[] { 403, 401, 407, 419, 420, 421 };
+	private static final int ROUNDS = 3;
+
+	private static final Logger log = LoggerFactory.getLogger(NativePackingBenchmarkTest.class);
+
+	@Test
+	public void testCompareGenQueryInpXmlAndNative() throws Exception {
+		GenQueryInp genQueryInp = buildGenQueryInp();
+		TagWriter tagWriter = new TagWriter(ENCODING);
+		NativePacker packer = new NativePacker(ENCODING);
+
+		long xmlNanos = 0;
+		long nativeNanos = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				tagWriter.reset();
+				genQueryInp.writeTags(tagWriter);
+			}
+			xmlNanos += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++) {
+				packer.reset();
+				packer.pack(genQueryInp.getTagValue());
+			}
+			nativeNanos += System.nanoTime() - start;
+		}
+
+		log.info("packed {} gen query requests, xml avg ms:{} of {} bytes each, native avg ms:{} of {} bytes each",
+				new Object[] { QUERIES, xmlNanos / ROUNDS / 1000000, tagWriter.getLength(),
+						nativeNanos / ROUNDS / 1000000, packer.getLength() });
+		Assert.assertTrue("native message should be smaller", packer.getLength() < tagWriter.getLength());
+	}
+
+	@Test
+	public void testCompareGenQueryOutXmlAndNative() throws Exception {
+		Tag genQueryOut = buildGenQueryOut();
+		List<String> columnNames = new ArrayList<String>();
+		for (int column : COLUMNS) {
+			columnNames.add(String.valueOf(column));
+		}
+
+		TagWriter tagWriter = new TagWriter(ENCODING);
+		tagWriter.writeTag(genQueryOut);
+		byte[] xmlMessage = Arrays.copyOf(tagWriter.getBuffer(), tagWriter.getLength());
+
+		NativePacker packer = new NativePacker(ENCODING);
+		packer.pack(genQueryOut);
+		byte[] nativeMessage = Arrays.copyOf(packer.getBuffer(), packer.getLength());
+
+		long xmlNanos = 0;
+		long nativeNanos = 0;
+		List<IRODSQueryResultRow> xmlRows = null;
+		List<IRODSQueryResultRow> nativeRows = null;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < RESULTS; i++) {
+				xmlRows = QueryResultProcessingUtils.translateResponseIntoResultSet(
+						Tag.readNextTag(xmlMessage, ENCODING), columnNames, 0, 0);
+			}
+			xmlNanos += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < RESULTS; i++) {
+				nativeRows = QueryResultProcessingUtils.translateResponseIntoResultSet(NativeUnpacker.unpack(
+						nativeMessage, 0, nativeMessage.length, "GenQueryOut_PI", ENCODING), columnNames, 0, 0);
+			}
+			nativeNanos += System.nanoTime() - start;
+		}
+
+		log.info("read {} gen query results of {} rows, xml avg ms:{} of {} bytes each, native avg ms:{} of {} bytes each",
+				new Object[] { RESULTS, ROWS, xmlNanos / ROUNDS / 1000000, xmlMessage.length,
+						nativeNanos / ROUNDS / 1000000, nativeMessage.length });
+
+		Assert.assertEquals(ROWS, xmlRows.size());
+		Assert.assertEquals(ROWS, nativeRows.size());
+		for (int i = 0; i < ROWS; i++) {
+			Assert.assertEquals("rows differ between protocols", xmlRows.get(i).getColumnsAsList(),
+					nativeRows.get(i).getColumnsAsList());
+		}
+	}
+
+	private GenQueryInp buildGenQueryInp() throws Exception {
+		String queryString = "select " + RodsGenQueryEnum.COL_COLL_NAME.getName() + " ,"
+				+ RodsGenQueryEnum.COL_DATA_NAME.getName() + " ," + RodsGenQueryEnum.COL_DATA_SIZE.getName()
+				+ " ," + RodsGenQueryEnum.COL_D_OWNER_NAME.getName() + " where "
+				+ RodsGenQueryEnum.COL_COLL_NAME.getName() + " = '/zone/home/test/benchmark'";
+		IRODSServerProperties props = IRODSServerProperties.instance(IRODSServerProperties.IcatEnabled.ICAT_ENABLED,
+				100, "rods4.1.0", "d", "zone");
+		TranslatedIRODSGenQuery translatedIRODSQuery = new IRODSGenQueryTranslator(props)
+				.getTranslatedQuery(IRODSGenQuery.instance(queryString, 500));
+		return GenQueryInp.instance(translatedIRODSQuery, 0, null);
+	}
+
+	private Tag buildGenQueryOut() {
+		Tag genQueryOut = new Tag("GenQueryOut_PI", new Tag[] { new Tag(GenQueryOut.ROW_CNT, ROWS),
+				new Tag(GenQueryOut.ATTRIB_CNT, COLUMNS.length), new Tag(GenQueryOut.CONTINUE_INX, 1),
+				new Tag("totalRowCount", 0) });
+		for (int column = 0; column < COLUMNS.length; column++) {
+			Tag sqlResult = new Tag("SqlResult_PI", new Tag[] { new Tag("attriInx", COLUMNS[column]),
+					new Tag("reslen", 1088) });
+			for (int row = 0; row < ROWS; row++) {
+				sqlResult.addTag(new Tag("value", column == 0 ? "/zone/home/test/benchmark/file & <" + row
+						+ ">.txt" : String.valueOf(row * 1000 + column)));
+			}
+			genQueryOut.addTag(sqlResult);
+		}
+		return genQueryOut;
+	}
+
+}
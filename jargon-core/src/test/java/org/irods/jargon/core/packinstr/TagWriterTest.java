@@ -0,0 +1,110 @@
+package org.irods.jargon.core.packinstr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TagWriterTest {
+
+	private static String written(final TagWriter tagWriter) throws Exception {
+		return new String(tagWriter.getBuffer(), 0, tagWriter.getLength(), "UTF-8");
+	}
+
+	@Test
+	public void testNestedTagSameAsParseTag() throws Exception {
+		Tag message = new Tag("outer_PI", new Tag[] { new Tag("int", -42), new Tag("long", 9876543210L),
+				new Tag("text", "a & b <c> \"d\" `e`"), new Tag("empty", ""), new Tag("none", (String) null) });
+		message.addTag(Tag.createKeyValueTag("key", "value"));
+
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		tagWriter.writeTag(message);
+		Assert.assertEquals(message.parseTag(), written(tagWriter));
+	}
+
+	@Test
+	public void testNonAsciiSameAsGetBytes() throws Exception {
+		String value = "café 日本 😀 lone\ud83d";
+		Tag tag = new Tag("value", value);
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		tagWriter.writeTag(tag);
+
+		byte[] expected = tag.parseTag().getBytes("UTF-8");
+		Assert.assertEquals(expected.length, tagWriter.getLength());
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals("byte " + i, expected[i], tagWriter.getBuffer()[i]);
+		}
+	}
+
+	@Test
+	public void testOtherEncoding() throws Exception {
+		Tag tag = new Tag("value", "café");
+		TagWriter tagWriter = new TagWriter("ISO-8859-1");
+		tagWriter.writeTag(tag);
+		Assert.assertEquals(tag.parseTag(),
+				new String(tagWriter.getBuffer(), 0, tagWriter.getLength(), "ISO-8859-1"));
+	}
+
+	@Test
+	public void testNumbers() throws Exception {
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		tagWriter.writeTag("a", 0);
+		tagWriter.writeTag("b", Integer.MAX_VALUE);
+		tagWriter.writeTag("c", Long.MIN_VALUE);
+		tagWriter.writeTag("d", Long.MAX_VALUE);
+		Assert.assertEquals("<a>0</a>\n<b>" + Integer.MAX_VALUE + "</b>\n<c>" + Long.MIN_VALUE + "</c>\n<d>"
+				+ Long.MAX_VALUE + "</d>\n", written(tagWriter));
+	}
+
+	@Test
+	public void testResetAndGrow() throws Exception {
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < TagWriter.DEFAULT_CAPACITY * 3; i++) {
+			sb.append('x');
+		}
+		tagWriter.writeTag("big", sb.toString());
+		Assert.assertEquals(TagWriter.DEFAULT_CAPACITY * 3 + 12, tagWriter.getLength());
+
+		tagWriter.reset();
+		tagWriter.writeTag("small", 1);
+		Assert.assertEquals("<small>1</small>\n", written(tagWriter));
+	}
+
+	@Test
+	public void testKeyValueAndInxValueSameAsTags() throws Exception {
+		List<KeyValuePair> kvps = new ArrayList<KeyValuePair>();
+		kvps.add(KeyValuePair.instance("dataType", "generic"));
+		kvps.add(KeyValuePair.instance("destRescName", "resc & <1>"));
+		DataObjInp dataObjInp = DataObjInp.instance("/zone/home/test/file.txt", DataObjInp.DEFAULT_CREATE_MODE,
+				DataObjInp.OpenFlags.READ, 0L, 0L, "", null);
+
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		dataObjInp.writeKeyValueTag(tagWriter, kvps);
+		Assert.assertEquals(dataObjInp.createKeyValueTag(kvps).parseTag(), written(tagWriter));
+
+		List<InxVal> ivps = new ArrayList<InxVal>();
+		ivps.add(InxVal.instance(501, "value1"));
+		ivps.add(InxVal.instance(502, "value2"));
+		tagWriter.reset();
+		dataObjInp.writeInxValueTag(tagWriter, ivps);
+		Assert.assertEquals(dataObjInp.createInxValueTag(ivps).parseTag(), written(tagWriter));
+	}
+
+	@Test
+	public void testDefaultWriteTagsSameAsParsedTags() throws Exception {
+		DataObjInp dataObjInp = DataObjInp.instance("/zone/home/test/file.txt", DataObjInp.DEFAULT_CREATE_MODE,
+				DataObjInp.OpenFlags.READ, 0L, 0L, "resc", null);
+		TagWriter tagWriter = new TagWriter("UTF-8");
+		dataObjInp.writeTags(tagWriter);
+		Assert.assertEquals(dataObjInp.getParsedTags(), written(tagWriter));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEncodingNotAsciiCompatible() throws Exception {
+		new TagWriter("UTF-16");
+	}
+
+}
@@ -46,4 +46,16 @@ public class TransferOptionsTest {
 				actual.isIntraFileStatusCallbacks());
 	}
 
+	@Test
+	public final void testCopyConstructorSynchMode() throws Exception {
+		TransferOptions expected = new TransferOptions();
+		expected.setSynchMode(true);
+		expected.setSynchCompareChecksums(true);
+		TransferOptions actual = new TransferOptions(expected);
+		Assert.assertTrue("did not properly set synchMode",
+				actual.isSynchMode());
+		Assert.assertTrue("did not properly set synchCompareChecksums",
+				actual.isSynchCompareChecksums());
+	}
+
 }
@@ -0,0 +1,176 @@
+package org.irods.jargon.core.pub;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.protovalues.FilePermissionEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.testutils.IRODSTestSetupUtilities;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.irods.jargon.testutils.filemanip.FileGenerator;
+import org.irods.jargon.testutils.filemanip.ScratchFileUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchCatalogOperationsAOImplTest {
+
+	private static Properties testingProperties = new Properties();
+	private static TestingPropertiesHelper testingPropertiesHelper = new TestingPropertiesHelper();
+	private static ScratchFileUtils scratchFileUtils = null;
+	public static final String IRODS_TEST_SUBDIR_PATH = "BatchCatalogOperationsAOImplTest";
+	private static IRODSTestSetupUtilities irodsTestSetupUtilities = null;
+	private static IRODSFileSystem irodsFileSystem;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		TestingPropertiesHelper testingPropertiesLoader = new TestingPropertiesHelper();
+		testingProperties = testingPropertiesLoader.getTestProperties();
+		scratchFileUtils = new ScratchFileUtils(testingProperties);
+		scratchFileUtils.clearAndReinitializeScratchDirectory(IRODS_TEST_SUBDIR_PATH);
+		irodsTestSetupUtilities = new IRODSTestSetupUtilities();
+		irodsTestSetupUtilities.initializeIrodsScratchDirectory();
+		irodsTestSetupUtilities.initializeDirectoryForTest(IRODS_TEST_SUBDIR_PATH);
+		irodsFileSystem = IRODSFileSystem.instance();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@After
+	public void afterEach() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@Test
+	public void testAddBulkAVUMetadataToDataObjectPipelined() throws Exception {
+		String testFileName = "testAddBulkAVUMetadataToDataObjectPipelined.txt";
+		String expectedAttribName = "testAddBulkAVUMetadataToDataObjectPipelined";
+		int count = 100;
+
+		String targetIrodsCollection = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(testingProperties, IRODS_TEST_SUBDIR_PATH);
+		String targetIrodsDataObject = targetIrodsCollection + "/" + testFileName;
+		String absPath = scratchFileUtils.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH);
+		String fileNameOrig = FileGenerator.generateFileOfFixedLengthGivenName(absPath, testFileName, 2);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper.buildIRODSAccountFromTestProperties(testingProperties);
+		IRODSFile targetIrodsFile = irodsFileSystem.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFile(targetIrodsCollection);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+		dataTransferOperationsAO.putOperation(new File(fileNameOrig), targetIrodsFile, null, null);
+
+		// small window forces several write/read rounds
+		SettableJargonProperties jargonProperties = new SettableJargonProperties(
+				irodsFileSystem.getJargonProperties());
+		jargonProperties.setPipelinedRequestWindowSize(7);
+		irodsFileSystem.getIrodsSession().setJargonProperties(jargonProperties);
+
+		List<AvuData> bulkAvuData = new ArrayList<AvuData>();
+		for (int i = 0; i < count; i++) {
+			bulkAvuData.add(AvuData.instance(expectedAttribName, "value" + i, ""));
+		}
+		// duplicate in the middle of the batch should not disrupt the rest
+		bulkAvuData.add(50, AvuData.instance(expectedAttribName, "value1", ""));
+
+		BatchCatalogOperationsAO batchCatalogOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getBatchCatalogOperationsAO(irodsAccount);
+		List<BulkAVUOperationResponse> responses = batchCatalogOperationsAO
+				.addBulkAVUMetadataToDataObject(targetIrodsDataObject, bulkAvuData);
+
+		Assert.assertEquals("did not get a response per avu", count + 1, responses.size());
+		Assert.assertEquals("should have gotten duplicate", BulkAVUOperationResponse.ResultStatus.DUPLICATE_AVU,
+				responses.get(50).getResultStatus());
+		Assert.assertEquals(BulkAVUOperationResponse.ResultStatus.OK, responses.get(51).getResultStatus());
+
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount);
+		List<MetaDataAndDomainData> metadata = dataObjectAO.findMetadataValuesForDataObject(targetIrodsDataObject);
+		Assert.assertEquals("did not find all avus", count, metadata.size());
+
+		responses = batchCatalogOperationsAO.deleteBulkAVUMetadataFromDataObject(targetIrodsDataObject,
+				bulkAvuData.subList(0, 10));
+		Assert.assertEquals(10, responses.size());
+		metadata = dataObjectAO.findMetadataValuesForDataObject(targetIrodsDataObject);
+		Assert.assertEquals("did not delete avus", count - 10, metadata.size());
+
+		irodsFileSystem.getIrodsSession().setJargonProperties(new SettableJargonProperties());
+	}
+
+	@Test
+	public void testAddBulkAVUMetadataToMissingDataObject() throws Exception {
+		String targetIrodsCollection = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(testingProperties, IRODS_TEST_SUBDIR_PATH);
+		String targetIrodsDataObject = targetIrodsCollection + "/testAddBulkAVUMetadataToMissingDataObject.txt";
+		IRODSAccount irodsAccount = testingPropertiesHelper.buildIRODSAccountFromTestProperties(testingProperties);
+
+		List<AvuData> bulkAvuData = new ArrayList<AvuData>();
+		bulkAvuData.add(AvuData.instance("testAddBulkAVUMetadataToMissingDataObject", "value", ""));
+
+		BatchCatalogOperationsAO batchCatalogOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getBatchCatalogOperationsAO(irodsAccount);
+		List<BulkAVUOperationResponse> responses = batchCatalogOperationsAO
+				.addBulkAVUMetadataToDataObject(targetIrodsDataObject, bulkAvuData);
+		Assert.assertEquals(1, responses.size());
+		Assert.assertFalse("should not be ok for missing data object",
+				responses.get(0).getResultStatus() == BulkAVUOperationResponse.ResultStatus.OK);
+	}
+
+	@Test
+	public void testSetAccessPermissionsAndDeleteDataObjects() throws Exception {
+		String testFilePrefix = "testSetAccessPermissionsAndDeleteDataObjects";
+		int count = 20;
+
+		String targetIrodsCollection = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(testingProperties, IRODS_TEST_SUBDIR_PATH);
+		String absPath = scratchFileUtils.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper.buildIRODSAccountFromTestProperties(testingProperties);
+		IRODSFile targetIrodsFile = irodsFileSystem.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFile(targetIrodsCollection);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+
+		List<String> paths = new ArrayList<String>();
+		for (int i = 0; i < count; i++) {
+			String testFileName = testFilePrefix + i + ".txt";
+			String fileNameOrig = FileGenerator.generateFileOfFixedLengthGivenName(absPath, testFileName, 2);
+			dataTransferOperationsAO.putOperation(new File(fileNameOrig), targetIrodsFile, null, null);
+			paths.add(targetIrodsCollection + "/" + testFileName);
+		}
+
+		String secondaryUser = testingProperties.getProperty(TestingPropertiesHelper.IRODS_SECONDARY_USER_KEY);
+		BatchCatalogOperationsAO batchCatalogOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getBatchCatalogOperationsAO(irodsAccount);
+		List<BatchOperationResponse> responses = batchCatalogOperationsAO.setAccessPermissions("", paths,
+				secondaryUser, FilePermissionEnum.READ, false);
+		Assert.assertEquals(count, responses.size());
+		for (BatchOperationResponse response : responses) {
+			Assert.assertEquals(BatchOperationResponse.ResultStatus.OK, response.getResultStatus());
+		}
+
+		DataObjectAO dataObjectAO = irodsFileSystem.getIRODSAccessObjectFactory().getDataObjectAO(irodsAccount);
+		Assert.assertEquals(FilePermissionEnum.READ,
+				dataObjectAO.getPermissionForDataObject(paths.get(count - 1), secondaryUser, ""));
+
+		responses = batchCatalogOperationsAO.deleteDataObjects(paths, true);
+		Assert.assertEquals(count, responses.size());
+		for (BatchOperationResponse response : responses) {
+			Assert.assertEquals(BatchOperationResponse.ResultStatus.OK, response.getResultStatus());
+		}
+
+		IRODSFile checkFile = irodsFileSystem.getIRODSFileFactory(irodsAccount).instanceIRODSFile(paths.get(0));
+		Assert.assertFalse("file should be deleted", checkFile.exists());
+	}
+
+}
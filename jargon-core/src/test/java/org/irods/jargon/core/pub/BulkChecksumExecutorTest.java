@@ -0,0 +1,54 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.checksum.BulkChecksumCallbackListener;
+import org.irods.jargon.core.checksum.BulkChecksumResult;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BulkChecksumExecutorTest {
+
+	@Test
+	public void testInterruptedCallerStopsWorkers() throws Exception {
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247, "user", "password", "", "zone", "");
+		IRODSSession irodsSession = Mockito.mock(IRODSSession.class);
+		final CountDownLatch closed = new CountDownLatch(2);
+		Mockito.doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(final InvocationOnMock invocation) {
+				closed.countDown();
+				return null;
+			}
+		}).when(irodsSession).closeSession(irodsAccount);
+
+		BulkChecksumOptions bulkChecksumOptions = new BulkChecksumOptions();
+		bulkChecksumOptions.setNumberOfThreads(2);
+		BulkChecksumExecutor bulkChecksumExecutor = BulkChecksumExecutor.instance(irodsSession, irodsAccount);
+
+		Thread.currentThread().interrupt();
+		try {
+			bulkChecksumExecutor.checksumDataObjects(new ArrayList<String>(), bulkChecksumOptions,
+					new BulkChecksumCallbackListener() {
+						@Override
+						public void checksumResultCallback(final BulkChecksumResult bulkChecksumResult) {
+						}
+					});
+			Assert.fail("should have been interrupted");
+		} catch (JargonException e) {
+			Assert.assertTrue("interrupt not kept", Thread.interrupted());
+		}
+
+		Assert.assertTrue("workers did not close their connections", closed.await(10, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,45 @@
+package org.irods.jargon.core.pub;
+
+import java.util.Date;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class BulkChecksumOptionsTest {
+
+	@Test
+	public void testNotCurrentWithoutSkipTime() throws Exception {
+		BulkChecksumOptions options = new BulkChecksumOptions();
+		Assert.assertFalse(options.isChecksumCurrent("sha2:abc", new Date()));
+	}
+
+	@Test
+	public void testCurrentWhenModifiedAfterSkipTime() throws Exception {
+		BulkChecksumOptions options = new BulkChecksumOptions();
+		options.setSkipIfChecksummedAfter(1000L);
+		Assert.assertTrue(options.isChecksumCurrent("sha2:abc", new Date(2000L)));
+		Assert.assertFalse(options.isChecksumCurrent("sha2:abc", new Date(1000L)));
+		Assert.assertFalse(options.isChecksumCurrent("sha2:abc", new Date(500L)));
+	}
+
+	@Test
+	public void testNotCurrentWithoutCatalogChecksum() throws Exception {
+		BulkChecksumOptions options = new BulkChecksumOptions();
+		options.setSkipIfChecksummedAfter(1000L);
+		Assert.assertFalse(options.isChecksumCurrent("", new Date(2000L)));
+		Assert.assertFalse(options.isChecksumCurrent(null, new Date(2000L)));
+		Assert.assertFalse(options.isChecksumCurrent("sha2:abc", null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroThreads() throws Exception {
+		new BulkChecksumOptions().setNumberOfThreads(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroPerResource() throws Exception {
+		new BulkChecksumOptions().setMaxPerResource(0);
+	}
+
+}
@@ -1,9 +1,15 @@
 package org.irods.jargon.core.pub;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import junit.framework.Assert;
 
+import org.irods.jargon.core.checksum.BulkChecksumCallbackListener;
+import org.irods.jargon.core.checksum.BulkChecksumResult;
+import org.irods.jargon.core.checksum.BulkChecksumResult.BulkChecksumStatus;
+import org.irods.jargon.core.checksum.BulkChecksumSummary;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
 import org.irods.jargon.core.connection.IRODSAccount;
@@ -254,4 +260,115 @@ public class DataObjectChecksumUtilitiesAOImplTest {
 		Assert.assertNotNull(actual);
 
 	}
+
+	@Test
+	public void testComputeChecksumsUnderCollection() throws Exception {
+		String rootCollection = "testComputeChecksumsUnderCollection";
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+
+		FileGenerator.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+				localCollectionAbsolutePath, "testComputeChecksumsUnderCollection", 2, 3, 2,
+				"testFile", ".txt", 3, 2, 1, 200);
+
+		String targetIrodsCollection = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSAccessObjectFactory accessObjectFactory = irodsFileSystem
+				.getIRODSAccessObjectFactory();
+		DataTransferOperations dto = accessObjectFactory
+				.getDataTransferOperations(irodsAccount);
+		dto.putOperation(localCollectionAbsolutePath, targetIrodsCollection,
+				testingProperties
+				.getProperty(TestingPropertiesHelper.IRODS_RESOURCE_KEY),
+				null, null);
+
+		DataObjectChecksumUtilitiesAO dataObjectChecksumUtilitiesAO = accessObjectFactory
+				.getDataObjectChecksumUtilitiesAO(irodsAccount);
+		BulkChecksumOptions bulkChecksumOptions = new BulkChecksumOptions();
+		bulkChecksumOptions.getChecksumOptions().setVerifyChecksumInIcat(false);
+		CollectingBulkChecksumCallbackListener listener = new CollectingBulkChecksumCallbackListener();
+		BulkChecksumSummary summary = dataObjectChecksumUtilitiesAO
+				.computeChecksumsUnderCollection(targetIrodsCollection + '/'
+						+ rootCollection, bulkChecksumOptions, listener);
+
+		Assert.assertTrue("no checksums computed",
+				summary.getComputedCount() > 0);
+		Assert.assertEquals("failures", 0, summary.getFailedCount());
+		Assert.assertEquals("not all results given to listener",
+				summary.getTotalCount(), listener.results.size());
+		for (BulkChecksumResult result : listener.results) {
+			Assert.assertNotNull("no checksum", result.getChecksumValue());
+		}
+
+		// every checksum is now newer than the skip time
+		bulkChecksumOptions.setSkipIfChecksummedAfter(1L);
+		CollectingBulkChecksumCallbackListener skipListener = new CollectingBulkChecksumCallbackListener();
+		BulkChecksumSummary skipSummary = dataObjectChecksumUtilitiesAO
+				.computeChecksumsUnderCollection(targetIrodsCollection + '/'
+						+ rootCollection, bulkChecksumOptions, skipListener);
+		Assert.assertEquals("should skip all", summary.getComputedCount(),
+				skipSummary.getSkippedCount());
+		Assert.assertEquals(BulkChecksumStatus.SKIPPED, skipListener.results
+				.get(0).getBulkChecksumStatus());
+	}
+
+	@Test
+	public void testComputeChecksumsForDataObjectsWithMissingFile()
+			throws Exception {
+		String testFileName = "testComputeChecksumsForDataObjectsWithMissingFile.txt";
+		String absPath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH);
+		String fileNameOrig = FileGenerator.generateFileOfFixedLengthGivenName(
+				absPath, testFileName, 2);
+
+		String targetIrodsCollection = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSAccessObjectFactory accessObjectFactory = irodsFileSystem
+				.getIRODSAccessObjectFactory();
+		DataTransferOperations dto = accessObjectFactory
+				.getDataTransferOperations(irodsAccount);
+		dto.putOperation(fileNameOrig, targetIrodsCollection, testingProperties
+				.getProperty(TestingPropertiesHelper.IRODS_RESOURCE_KEY), null,
+				null);
+
+		List<String> paths = new ArrayList<String>();
+		paths.add(targetIrodsCollection + '/' + testFileName);
+		paths.add(targetIrodsCollection + "/idontexist.txt");
+
+		BulkChecksumOptions bulkChecksumOptions = new BulkChecksumOptions();
+		bulkChecksumOptions.getChecksumOptions().setVerifyChecksumInIcat(false);
+		CollectingBulkChecksumCallbackListener listener = new CollectingBulkChecksumCallbackListener();
+		BulkChecksumSummary summary = accessObjectFactory
+				.getDataObjectChecksumUtilitiesAO(irodsAccount)
+				.computeChecksumsForDataObjects(paths, bulkChecksumOptions,
+						listener);
+
+		Assert.assertEquals("should compute one", 1,
+				summary.getComputedCount());
+		Assert.assertEquals("should fail one", 1, summary.getFailedCount());
+		Assert.assertEquals(2, listener.results.size());
+	}
+
+	private static class CollectingBulkChecksumCallbackListener implements
+	BulkChecksumCallbackListener {
+
+		final List<BulkChecksumResult> results = new ArrayList<BulkChecksumResult>();
+
+		@Override
+		public void checksumResultCallback(
+				final BulkChecksumResult bulkChecksumResult) {
+			results.add(bulkChecksumResult);
+		}
+	}
 }
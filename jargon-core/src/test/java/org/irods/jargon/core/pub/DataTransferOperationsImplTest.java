@@ -2159,6 +2159,54 @@ public class DataTransferOperationsImplTest {
 
 	}
 
+	@Test
+	public void testReplicateMultipleCollectionsConcurrentlyWithCallbacks() throws Exception {
+
+		String rootCollection = "testReplicateMultipleCollectionsConcurrentlyWithCallbacks";
+		String targetResource = testingProperties.getProperty(TestingPropertiesHelper.IRODS_SECONDARY_RESOURCE_KEY);
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH + '/' + rootCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(localCollectionAbsolutePath,
+				rootCollection, 1, 2, 2, "testFile", ".txt", 4, 2, 20, 200);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper.buildIRODSAccountFromTestProperties(testingProperties);
+
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+
+		File localFile = new File(localCollectionAbsolutePath);
+
+		IRODSFileFactory irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+		IRODSFile irodsFile = irodsFileFactory.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+
+		dataTransferOperationsAO.putOperation(localFile, irodsFile, null, null);
+
+		TransferStatusCallbackListenerTestingImplementation transferStatusCallbackListener = new TransferStatusCallbackListenerTestingImplementation();
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		TransferOptions transferOptions = irodsFileSystem.getIRODSAccessObjectFactory()
+				.buildTransferOptionsBasedOnJargonProperties();
+		transferOptions.setConcurrentReplicationThreads(4);
+		transferOptions.setConcurrentReplicationMaxPerResource(2);
+		transferControlBlock.setTransferOptions(transferOptions);
+
+		// now replicate
+		dataTransferOperationsAO.replicate(irodsCollectionRootAbsolutePath + "/" + rootCollection, targetResource,
+				transferStatusCallbackListener, transferControlBlock);
+
+		Assert.assertTrue("did not pre-count files to replicate", transferControlBlock.getTotalFilesToTransfer() > 0);
+		Assert.assertEquals("did not count files as replicated to match pre-count total",
+				transferControlBlock.getTotalFilesToTransfer(), transferControlBlock.getTotalFilesTransferredSoFar());
+		Assert.assertEquals("did not get a success callback per file", transferControlBlock.getTotalFilesToTransfer(),
+				transferStatusCallbackListener.getReplicateCallbackCtr());
+		Assert.assertEquals("did not expect exception callbacks", 0,
+				transferStatusCallbackListener.getExceptionCallbackCtr());
+	}
+
 	@Test
 	public void testReplicateWithCancel() throws Exception {
 
@@ -2807,6 +2855,59 @@ public class DataTransferOperationsImplTest {
 
 	}
 
+	/**
+	 * Copy of a collection using concurrent copy workers
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testCopyCollectionToTargetCollectionConcurrently() throws Exception {
+
+		String testOrigDirectory = "testCopyCollectionToTargetCollectionConcurrently";
+		String testTargetDirectory = "testCopyCollectionToTargetCollectionConcurrentlyTarget";
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH + '/' + testOrigDirectory);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		String irodsOriginalAbsolutePath = testingPropertiesHelper.buildIRODSCollectionAbsolutePathFromTestProperties(
+				testingProperties, IRODS_TEST_SUBDIR_PATH + "/" + testOrigDirectory);
+
+		String irodsTargetAbsolutePath = testingPropertiesHelper.buildIRODSCollectionAbsolutePathFromTestProperties(
+				testingProperties, IRODS_TEST_SUBDIR_PATH + "/" + testTargetDirectory);
+
+		FileGenerator.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(localCollectionAbsolutePath,
+				"prefixForColl", 2, 3, 2, "testFile", ".txt", 4, 2, 1, 2);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper.buildIRODSAccountFromTestProperties(testingProperties);
+
+		DataTransferOperations dataTransferOperations = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+
+		dataTransferOperations.putOperation(localCollectionAbsolutePath, irodsCollectionRootAbsolutePath, "", null,
+				null);
+
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		TransferOptions transferOptions = irodsFileSystem.getIRODSAccessObjectFactory()
+				.buildTransferOptionsBasedOnJargonProperties();
+		transferOptions.setConcurrentReplicationThreads(4);
+		transferControlBlock.setTransferOptions(transferOptions);
+
+		dataTransferOperations.copy(irodsOriginalAbsolutePath, "", irodsTargetAbsolutePath, null,
+				transferControlBlock);
+
+		File localFile = new File(localCollectionAbsolutePath);
+		IRODSFile targetFile = irodsFileSystem.getIRODSFileFactory(irodsAccount)
+				.instanceIRODSFile(irodsTargetAbsolutePath, testOrigDirectory);
+
+		assertionHelper.assertTwoFilesAreEqualByRecursiveTreeComparison(localFile, (File) targetFile);
+		Assert.assertEquals("did not count files as copied to match pre-count total",
+				transferControlBlock.getTotalFilesToTransfer(), transferControlBlock.getTotalFilesTransferredSoFar());
+
+	}
+
 	/**
 	 * Bug https://github.com/DICE-UNC/jargon/issues/151
 	 *
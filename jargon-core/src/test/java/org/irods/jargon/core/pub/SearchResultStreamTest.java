@@ -0,0 +1,154 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.junit.Test;
+
+public class SearchResultStreamTest {
+
+	@Test
+	public void testUnsortedReadsAllSubQueries() throws Exception {
+		List<BlockingQueue<Object>> queues = new ArrayList<BlockingQueue<Object>>();
+		queues.add(new ArrayBlockingQueue<Object>(4));
+		SearchResultStream stream = new SearchResultStream(queues, new int[] { 3 }, false, 0);
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 3; i++) {
+			threads.add(startSubQuery(stream, 0, "/zone/home/sub" + i, 50, null));
+		}
+
+		int count = 0;
+		while (stream.hasNext()) {
+			Assert.assertNotNull(stream.next());
+			count++;
+		}
+
+		Assert.assertEquals(150, count);
+		Assert.assertEquals(150, stream.getResultCount());
+		Assert.assertFalse(stream.isLimitReached());
+		for (Thread thread : threads) {
+			thread.join(10000);
+		}
+	}
+
+	@Test
+	public void testSortedMergesInCatalogOrder() throws Exception {
+		List<BlockingQueue<Object>> queues = new ArrayList<BlockingQueue<Object>>();
+		for (int i = 0; i < 3; i++) {
+			queues.add(new ArrayBlockingQueue<Object>(2));
+		}
+		final SearchResultStream stream = new SearchResultStream(queues, new int[] { 1, 1, 1 }, true, 0);
+
+		startSubQuery(stream, 0, "/zone/home/a", 20, null);
+		startSubQuery(stream, 1, "/zone/home/b", 20, null);
+		// collections that sort between and after the data objects
+		new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					stream.offer(2, collection("/zone/home/a"));
+					stream.offer(2, collection("/zone/home/a-b"));
+					stream.offer(2, collection("/zone/home/b"));
+					stream.offer(2, SearchResultStream.END);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}).start();
+
+		List<CollectionAndDataObjectListingEntry> entries = new ArrayList<CollectionAndDataObjectListingEntry>();
+		while (stream.hasNext()) {
+			entries.add(stream.next());
+		}
+
+		Assert.assertEquals(43, entries.size());
+		for (int i = 1; i < entries.size(); i++) {
+			Assert.assertTrue("out of order at " + i,
+					SearchResultStream.CATALOG_ORDER.compare(entries.get(i - 1), entries.get(i)) <= 0);
+		}
+		Assert.assertEquals("/zone/home/a", entries.get(0).getFormattedAbsolutePath());
+		Assert.assertTrue(entries.get(1).isDataObject());
+		Assert.assertEquals("/zone/home/a-b", entries.get(21).getFormattedAbsolutePath());
+	}
+
+	@Test
+	public void testLimitCancelsSubQueries() throws Exception {
+		List<BlockingQueue<Object>> queues = new ArrayList<BlockingQueue<Object>>();
+		queues.add(new ArrayBlockingQueue<Object>(4));
+		SearchResultStream stream = new SearchResultStream(queues, new int[] { 2 }, false, 10);
+
+		AtomicBoolean stopped = new AtomicBoolean(false);
+		Thread first = startSubQuery(stream, 0, "/zone/home/one", 100000, stopped);
+		Thread second = startSubQuery(stream, 0, "/zone/home/two", 100000, stopped);
+
+		int count = 0;
+		while (stream.hasNext()) {
+			stream.next();
+			count++;
+		}
+
+		Assert.assertEquals(10, count);
+		Assert.assertTrue(stream.isLimitReached());
+		first.join(10000);
+		second.join(10000);
+		Assert.assertFalse("sub-queries should stop", first.isAlive() || second.isAlive());
+		Assert.assertTrue("sub-query should see the stream closed", stopped.get());
+	}
+
+	@Test(expected = JargonRuntimeException.class)
+	public void testSubQueryFailureThrown() throws Exception {
+		List<BlockingQueue<Object>> queues = new ArrayList<BlockingQueue<Object>>();
+		queues.add(new ArrayBlockingQueue<Object>(4));
+		SearchResultStream stream = new SearchResultStream(queues, new int[] { 1 }, false, 0);
+		stream.offer(0, new SearchResultStream.SubQueryFailure(new JargonException("failed")));
+
+		stream.hasNext();
+	}
+
+	private static Thread startSubQuery(final SearchResultStream stream, final int queueIndex,
+			final String parentPath, final int count, final AtomicBoolean stopped) {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < count; i++) {
+						CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+						entry.setObjectType(ObjectType.DATA_OBJECT);
+						entry.setParentPath(parentPath);
+						entry.setPathOrName(String.format("file%05d", i));
+						if (!stream.offer(queueIndex, entry)) {
+							if (stopped != null) {
+								stopped.set(true);
+							}
+							return;
+						}
+					}
+					stream.offer(queueIndex, SearchResultStream.END);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static CollectionAndDataObjectListingEntry collection(final String path) {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setObjectType(ObjectType.COLLECTION);
+		entry.setParentPath("/zone/home");
+		entry.setPathOrName(path);
+		return entry;
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.irods.jargon.core.pub;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.junit.Test;
+
+public class TransferSynchHelperTest {
+
+	@Test
+	public void testNoEarlierWhenSameSecond() throws Exception {
+		Assert.assertTrue(TransferSynchHelper.isNoEarlier(10000L, 10999L));
+	}
+
+	@Test
+	public void testNoEarlierWhenTargetNewer() throws Exception {
+		Assert.assertTrue(TransferSynchHelper.isNoEarlier(20000L, 10000L));
+	}
+
+	@Test
+	public void testEarlierWhenSourceNewer() throws Exception {
+		Assert.assertFalse(TransferSynchHelper.isNoEarlier(10000L, 11000L));
+	}
+
+	@Test
+	public void testEarlierWhenTimeUnknown() throws Exception {
+		Assert.assertFalse(TransferSynchHelper.isNoEarlier(0L, 10000L));
+		Assert.assertFalse(TransferSynchHelper.isNoEarlier(10000L, 0L));
+	}
+
+	@Test
+	public void testIsSynchMode() throws Exception {
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		TransferOptions transferOptions = new TransferOptions();
+		transferControlBlock.setTransferOptions(transferOptions);
+		Assert.assertFalse(TransferOperationsHelper.isSynchMode(transferControlBlock));
+		transferOptions.setSynchMode(true);
+		Assert.assertTrue(TransferOperationsHelper.isSynchMode(transferControlBlock));
+		Assert.assertFalse(TransferOperationsHelper.isSynchMode(null));
+	}
+
+}
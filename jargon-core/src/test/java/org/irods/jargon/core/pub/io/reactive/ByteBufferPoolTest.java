@@ -0,0 +1,48 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteBufferPoolTest {
+
+	@Test
+	public void testReleasedBufferReusedCleared() {
+		ByteBufferPool pool = new ByteBufferPool(16, 2);
+		ByteBuffer buffer = pool.acquire();
+		Assert.assertEquals(16, buffer.capacity());
+		buffer.put((byte) 1).flip();
+		pool.release(buffer);
+		Assert.assertEquals(1, pool.getPooledBufferCount());
+
+		ByteBuffer reused = pool.acquire();
+		Assert.assertSame(buffer, reused);
+		Assert.assertEquals(0, reused.position());
+		Assert.assertEquals(16, reused.remaining());
+		Assert.assertEquals(0, pool.getPooledBufferCount());
+	}
+
+	@Test
+	public void testPoolBounded() {
+		ByteBufferPool pool = new ByteBufferPool(16, 2);
+		for (int i = 0; i < 3; i++) {
+			pool.release(ByteBuffer.allocate(16));
+		}
+		Assert.assertEquals(2, pool.getPooledBufferCount());
+	}
+
+	@Test
+	public void testOtherBuffersIgnored() {
+		ByteBufferPool pool = new ByteBufferPool(16, 2);
+		pool.release(ByteBuffer.allocate(8));
+		pool.release(ByteBuffer.allocateDirect(16));
+		Assert.assertEquals(0, pool.getPooledBufferCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroBufferSize() {
+		new ByteBufferPool(0, 2);
+	}
+
+}
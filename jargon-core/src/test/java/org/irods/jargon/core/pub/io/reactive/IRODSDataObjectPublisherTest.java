@@ -0,0 +1,190 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IRODSDataObjectPublisherTest {
+
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	private static final Executor DIRECT_EXECUTOR = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			command.run();
+		}
+	};
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsAccount = IRODSAccount.instance("host", 1247, "user",
+				"password", "", "zone", "");
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	/**
+	 * Reads from memory, counting the bytes read
+	 */
+	private static class TestPublisher extends IRODSDataObjectPublisher {
+		private final byte[] data;
+		int bytesRead = 0;
+		boolean closed = false;
+
+		TestPublisher(final byte[] data, final ByteBufferPool pool,
+				final int prefetch) throws Exception {
+			super(irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount,
+					"/zone/home/user/file", DIRECT_EXECUTOR, pool, prefetch);
+			this.data = data;
+		}
+
+		@Override
+		DedicatedConnection createDedicatedConnection() {
+			return null;
+		}
+
+		@Override
+		InputStream openStream() {
+			return new ByteArrayInputStream(data) {
+				@Override
+				public synchronized int read(final byte[] b, final int off,
+						final int len) {
+					int read = super.read(b, off, len);
+					if (read > 0) {
+						bytesRead += read;
+					}
+					return read;
+				}
+
+				@Override
+				public void close() throws IOException {
+					closed = true;
+				}
+			};
+		}
+	}
+
+	private static class RecordingSubscriber implements Subscriber<ByteBuffer> {
+		Subscription subscription;
+		final ByteArrayOutputStream received = new ByteArrayOutputStream();
+		int chunks = 0;
+		boolean complete = false;
+		Throwable error = null;
+		ByteBufferPool pool;
+
+		@Override
+		public void onSubscribe(final Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(final ByteBuffer item) {
+			chunks++;
+			byte[] bytes = new byte[item.remaining()];
+			item.get(bytes);
+			received.write(bytes, 0, bytes.length);
+			if (pool != null) {
+				pool.release(item);
+			}
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			complete = true;
+		}
+	}
+
+	private static byte[] buildData(final int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) i;
+		}
+		return data;
+	}
+
+	@Test
+	public void testReadsOnlyAsRequestedPlusPrefetch() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(10, 8);
+		TestPublisher publisher = new TestPublisher(buildData(100), pool, 2);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		Assert.assertEquals("nothing read before a request", 0,
+				publisher.bytesRead);
+
+		subscriber.subscription.request(1);
+		Assert.assertEquals(1, subscriber.chunks);
+		Assert.assertEquals("read one chunk and prefetched two", 30,
+				publisher.bytesRead);
+
+		subscriber.subscription.request(2);
+		Assert.assertEquals(3, subscriber.chunks);
+		Assert.assertEquals(50, publisher.bytesRead);
+		Assert.assertFalse(subscriber.complete);
+	}
+
+	@Test
+	public void testReadAll() throws Exception {
+		byte[] data = buildData(95);
+		ByteBufferPool pool = new ByteBufferPool(10, 8);
+		TestPublisher publisher = new TestPublisher(data, pool, 3);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		subscriber.pool = pool;
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		Assert.assertTrue(subscriber.complete);
+		Assert.assertNull(subscriber.error);
+		Assert.assertEquals(10, subscriber.chunks);
+		Assert.assertArrayEquals(data, subscriber.received.toByteArray());
+		Assert.assertTrue(publisher.closed);
+		Assert.assertTrue("buffers reused", pool.getPooledBufferCount() <= 4);
+	}
+
+	@Test
+	public void testCancelReleasesReadAhead() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(10, 8);
+		TestPublisher publisher = new TestPublisher(buildData(100), pool, 3);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+
+		Assert.assertTrue(publisher.closed);
+		Assert.assertEquals(3, pool.getPooledBufferCount());
+		subscriber.subscription.request(5);
+		Assert.assertEquals(1, subscriber.chunks);
+		Assert.assertFalse(subscriber.complete);
+	}
+
+	@Test
+	public void testBadRequestIsError() throws Exception {
+		TestPublisher publisher = new TestPublisher(buildData(10),
+				new ByteBufferPool(10, 2), 1);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(0);
+
+		Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+	}
+
+}
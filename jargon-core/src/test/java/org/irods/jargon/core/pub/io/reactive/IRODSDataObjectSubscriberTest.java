@@ -0,0 +1,251 @@
+package org.irods.jargon.core.pub.io.reactive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IRODSDataObjectSubscriberTest {
+
+	private static IRODSFileSystem irodsFileSystem;
+	private static IRODSAccount irodsAccount;
+
+	private static final Executor DIRECT_EXECUTOR = new Executor() {
+		@Override
+		public void execute(final Runnable command) {
+			command.run();
+		}
+	};
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		irodsFileSystem = IRODSFileSystem.instance();
+		irodsAccount = IRODSAccount.instance("host", 1247, "user",
+				"password", "", "zone", "");
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	/**
+	 * Writes to memory
+	 */
+	private static class TestSubscriber extends IRODSDataObjectSubscriber {
+		final ByteArrayOutputStream written = new ByteArrayOutputStream();
+		boolean closed = false;
+		boolean deleted = false;
+
+		TestSubscriber(final int prefetch) throws Exception {
+			this(prefetch, DIRECT_EXECUTOR);
+		}
+
+		TestSubscriber(final int prefetch, final Executor executor)
+				throws Exception {
+			super(irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount,
+					"/zone/home/user/file", executor, prefetch);
+		}
+
+		@Override
+		void deleteDataObject() {
+			deleted = true;
+		}
+
+		@Override
+		DedicatedConnection createDedicatedConnection() {
+			return null;
+		}
+
+		@Override
+		OutputStream openStream() {
+			return new OutputStream() {
+				@Override
+				public void write(final int b) {
+					written.write(b);
+				}
+
+				@Override
+				public void write(final byte[] b, final int off, final int len) {
+					written.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					closed = true;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Sends a chunk for each request, up to a count, tracking the demand
+	 */
+	private static class CountingPublisher implements Publisher<ByteBuffer> {
+		final int chunks;
+		int sent = 0;
+		long requested = 0;
+		long maxOutstanding = 0;
+		boolean cancelled = false;
+		Subscriber<? super ByteBuffer> subscriber;
+
+		CountingPublisher(final int chunks) {
+			this.chunks = chunks;
+		}
+
+		@Override
+		public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+			this.subscriber = subscriber;
+			subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void request(final long n) {
+					requested += n;
+					maxOutstanding = Math.max(maxOutstanding, requested - sent);
+				}
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+			});
+		}
+
+		/**
+		 * Send what has been asked for, as a separate event source would
+		 */
+		void pump() {
+			while (sent < requested && sent < chunks) {
+				ByteBuffer buffer = ByteBuffer.allocate(4);
+				buffer.putInt(sent++).flip();
+				subscriber.onNext(buffer);
+			}
+			if (sent == chunks) {
+				subscriber.onComplete();
+			}
+		}
+	}
+
+	@Test
+	public void testWritesAllWithBoundedDemand() throws Exception {
+		TestSubscriber subscriber = new TestSubscriber(4);
+		CountingPublisher publisher = new CountingPublisher(20);
+		publisher.subscribe(subscriber);
+		Assert.assertEquals(4, publisher.requested);
+
+		while (!subscriber.getCompletion().isDone()) {
+			publisher.pump();
+		}
+
+		Assert.assertEquals(Long.valueOf(80L), subscriber.getCompletion()
+				.get());
+		Assert.assertTrue(subscriber.closed);
+		Assert.assertTrue(publisher.maxOutstanding <= 4);
+		ByteBuffer written = ByteBuffer.wrap(subscriber.written.toByteArray());
+		for (int i = 0; i < 20; i++) {
+			Assert.assertEquals(i, written.getInt());
+		}
+		Assert.assertFalse(subscriber.deleted);
+	}
+
+	@Test
+	public void testBuffersLeftWithPublisher() throws Exception {
+		ByteBufferPool pool = new ByteBufferPool(4, 8);
+		TestSubscriber subscriber = new TestSubscriber(2);
+		new CountingPublisher(1).subscribe(subscriber);
+		ByteBuffer buffer = pool.acquire();
+		buffer.putInt(7).flip();
+		subscriber.onNext(buffer);
+		subscriber.onComplete();
+
+		Assert.assertEquals(Long.valueOf(4L), subscriber.getCompletion().get());
+		Assert.assertEquals("buffer should not be consumed", 4,
+				buffer.remaining());
+		Assert.assertEquals("buffer should not be recycled", 0,
+				pool.getPooledBufferCount());
+	}
+
+	@Test
+	public void testPublisherReusesArrayWithAsyncWrites() throws Exception {
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		final CountDownLatch release = new CountDownLatch(1);
+		executorService.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		try {
+			TestSubscriber subscriber = new TestSubscriber(8, executorService);
+			new CountingPublisher(8).subscribe(subscriber);
+			ByteBuffer buffer = ByteBuffer.allocate(4);
+			for (int i = 0; i < 8; i++) {
+				buffer.clear();
+				buffer.putInt(i).flip();
+				subscriber.onNext(buffer);
+			}
+			subscriber.onComplete();
+			release.countDown();
+
+			Assert.assertEquals(Long.valueOf(32L), subscriber.getCompletion()
+					.get(10, TimeUnit.SECONDS));
+			ByteBuffer written = ByteBuffer.wrap(subscriber.written
+					.toByteArray());
+			for (int i = 0; i < 8; i++) {
+				Assert.assertEquals(i, written.getInt());
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testPublisherError() throws Exception {
+		TestSubscriber subscriber = new TestSubscriber(2);
+		CountingPublisher publisher = new CountingPublisher(20);
+		publisher.subscribe(subscriber);
+		subscriber.onNext(ByteBuffer.wrap(new byte[] { 1, 2 }));
+		subscriber.onError(new IOException("upstream failed"));
+
+		Assert.assertTrue(subscriber.getCompletion().isCompletedExceptionally());
+		Assert.assertTrue(subscriber.closed);
+		Assert.assertEquals(2, subscriber.written.size());
+		Assert.assertTrue("partly written data object not deleted",
+				subscriber.deleted);
+		try {
+			subscriber.getCompletion().get();
+			Assert.fail("should have failed");
+		} catch (ExecutionException e) {
+			Assert.assertEquals("upstream failed", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testSecondSubscriptionCancelled() throws Exception {
+		TestSubscriber subscriber = new TestSubscriber(2);
+		new CountingPublisher(1).subscribe(subscriber);
+		CountingPublisher second = new CountingPublisher(1);
+		second.subscribe(subscriber);
+
+		Assert.assertTrue(second.cancelled);
+		Assert.assertEquals(0, second.requested);
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.irods.jargon.core.query;
+
+import java.util.Collections;
+import java.util.Date;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.pub.domain.ObjStat.SpecColType;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.junit.Test;
+
+public class CompactListingEntryListTest {
+
+	@Test
+	public void testAddAndGetKeepsValues() throws Exception {
+		Date created = new Date(1400000000000L);
+		Date modified = new Date(1500000000000L);
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setParentPath("/zone/home/test");
+		entry.setPathOrName("file1.txt");
+		entry.setObjectType(ObjectType.DATA_OBJECT);
+		entry.setSpecColType(SpecColType.LINKED_COLL);
+		entry.setCreatedAt(created);
+		entry.setModifiedAt(modified);
+		entry.setDataSize(5000000000L);
+		entry.setId(42);
+		entry.setOwnerName("test");
+		entry.setOwnerZone("zone");
+		entry.setCount(7);
+		entry.setTotalRecords(100);
+		entry.setLastResult(true);
+
+		CompactListingEntryList list = new CompactListingEntryList(0);
+		list.add(entry);
+
+		CollectionAndDataObjectListingEntry actual = list.get(0);
+		Assert.assertTrue(actual instanceof CompactCollectionAndDataObjectListingEntry);
+		Assert.assertEquals(entry, actual);
+		Assert.assertEquals("/zone/home/test/file1.txt", actual.getFormattedAbsolutePath());
+		Assert.assertEquals(ObjectType.DATA_OBJECT, actual.getObjectType());
+		Assert.assertEquals(SpecColType.LINKED_COLL, actual.getSpecColType());
+		Assert.assertEquals(created, actual.getCreatedAt());
+		Assert.assertEquals(modified.getTime(),
+				((CompactCollectionAndDataObjectListingEntry) actual).getModifiedAtMillis());
+		Assert.assertEquals(5000000000L, actual.getDataSize());
+		Assert.assertEquals(42, actual.getId());
+		Assert.assertEquals("test", actual.getOwnerName());
+		Assert.assertEquals("zone", actual.getOwnerZone());
+		Assert.assertEquals(7, actual.getCount());
+		Assert.assertEquals(100, actual.getTotalRecords());
+		Assert.assertTrue(actual.isLastResult());
+		Assert.assertTrue(actual.getUserFilePermission().isEmpty());
+	}
+
+	@Test
+	public void testMissingTimesAndTypeStayMissing() throws Exception {
+		CompactListingEntryList list = new CompactListingEntryList();
+		list.add(new CollectionAndDataObjectListingEntry());
+
+		CollectionAndDataObjectListingEntry actual = list.get(0);
+		Assert.assertNull(actual.getCreatedAt());
+		Assert.assertNull(actual.getModifiedAt());
+		Assert.assertNull(actual.getObjectType());
+		Assert.assertFalse(actual.isLastResult());
+	}
+
+	@Test
+	public void testRepeatedStringsAreShared() throws Exception {
+		CompactListingEntryList list = new CompactListingEntryList();
+		for (int i = 0; i < 1000; i++) {
+			CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+			// a new string per row, as read from a query result
+			entry.setParentPath(new String("/zone/home/test/big"));
+			entry.setPathOrName("file" + i);
+			entry.setObjectType(ObjectType.DATA_OBJECT);
+			entry.setOwnerName(new String("test"));
+			entry.setOwnerZone(new String("zone"));
+			list.add(entry);
+		}
+
+		Assert.assertEquals(1000, list.size());
+		Assert.assertEquals("parent, owner, zone and empty special path", 4, list.getInternedStringCount());
+		Assert.assertSame(list.get(0).getParentPath(), list.get(999).getParentPath());
+		Assert.assertSame(list.get(0).getOwnerName(), list.get(999).getOwnerName());
+		Assert.assertEquals("file999", list.get(999).getPathOrName());
+
+		list.trimToSize();
+		Assert.assertEquals(1000, list.size());
+		Assert.assertEquals("file500", list.get(500).getPathOrName());
+	}
+
+	@Test
+	public void testSortThroughSet() throws Exception {
+		CompactListingEntryList list = new CompactListingEntryList();
+		for (String name : new String[] { "c", "a", "b" }) {
+			CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+			entry.setParentPath("/zone/home/test");
+			entry.setPathOrName(name);
+			entry.setObjectType(ObjectType.DATA_OBJECT);
+			list.add(entry);
+		}
+
+		Collections.sort(list);
+
+		Assert.assertEquals("a", list.get(0).getPathOrName());
+		Assert.assertEquals("b", list.get(1).getPathOrName());
+		Assert.assertEquals("c", list.get(2).getPathOrName());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetPastEnd() throws Exception {
+		CompactListingEntryList list = new CompactListingEntryList();
+		list.add(new CollectionAndDataObjectListingEntry());
+		list.get(1);
+	}
+
+}
@@ -0,0 +1,125 @@
+package org.irods.jargon.core.transfer;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.junit.Test;
+
+public class AdaptiveParallelTransferTunerTest {
+
+	private static final String HOST = "host";
+	private static final String ZONE = "zone";
+	private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+
+	@Test
+	public void testConfiguredValuesWhenNothingLearned() throws Exception {
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner
+				.instance(new DiscoveredServerPropertiesCache(), HOST, ZONE, 4, BUFFER_SIZE);
+		Assert.assertEquals(4, tuner.getRecommendedThreads());
+		Assert.assertEquals(BUFFER_SIZE, tuner.getRecommendedBufferSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInstanceNullCache() throws Exception {
+		AdaptiveParallelTransferTuner.instance(null, HOST, ZONE, 4, BUFFER_SIZE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInstanceZeroBufferSize() throws Exception {
+		AdaptiveParallelTransferTuner.instance(new DiscoveredServerPropertiesCache(), HOST, ZONE, 4, 0);
+	}
+
+	@Test
+	public void testBufferSizeNotBelowConfigured() throws Exception {
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner
+				.instance(new DiscoveredServerPropertiesCache(), HOST, ZONE, 4, BUFFER_SIZE);
+		// 10 MB/s over a 1 ms round trip is well under the configured buffer
+		Assert.assertEquals(BUFFER_SIZE, tuner.computeBufferSize(10 * 1024 * 1024, 0.001));
+	}
+
+	@Test
+	public void testBufferSizeIsBandwidthDelayRoundedUp() throws Exception {
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner
+				.instance(new DiscoveredServerPropertiesCache(), HOST, ZONE, 4, BUFFER_SIZE);
+		// 100 MB/s over 60 ms is about 6 MB, which rounds to 8 MB
+		Assert.assertEquals(8 * 1024 * 1024, tuner.computeBufferSize(100 * 1024 * 1024, 0.06));
+		Assert.assertEquals(AdaptiveParallelTransferTuner.MAX_BUFFER_SIZE,
+				tuner.computeBufferSize(1024L * 1024 * 1024, 1.0));
+	}
+
+	@Test
+	public void testThreadsGrowWhileScaling() throws Exception {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 16,
+				BUFFER_SIZE);
+		Assert.assertEquals(6, tuner.computeNextThreads(4, 100, 390));
+		Assert.assertEquals(9, tuner.computeNextThreads(6, 100, 580));
+	}
+
+	@Test
+	public void testThreadsRevertOnRegression() throws Exception {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 16,
+				BUFFER_SIZE);
+		Assert.assertEquals(6, tuner.computeNextThreads(4, 100, 400));
+		Assert.assertEquals("should go back to best count", 4, tuner.computeNextThreads(6, 50, 300));
+	}
+
+	@Test
+	public void testThreadsStepDownUnderContention() throws Exception {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 16,
+				BUFFER_SIZE);
+		Assert.assertEquals(6, tuner.computeNextThreads(4, 100, 400));
+		Assert.assertEquals(3, tuner.computeNextThreads(4, 100, 150));
+	}
+
+	@Test
+	public void testThreadsClampedToConfiguredMax() throws Exception {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 5,
+				BUFFER_SIZE);
+		Assert.assertEquals(5, tuner.computeNextThreads(4, 100, 400));
+	}
+
+	@Test
+	public void testLearnAndRecommendForSameHost() throws Exception {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 8,
+				BUFFER_SIZE);
+		tuner.startTransfer(2);
+		tuner.recordConnectTime(0, 1000000);
+		tuner.recordConnectTime(1, 1000000);
+		tuner.recordStreamProgress(0, 1024);
+		tuner.recordStreamProgress(1, 1024);
+		Thread.sleep(5);
+		tuner.recordStreamComplete(0);
+		tuner.recordStreamComplete(1);
+		tuner.learn(2, 2, 2048, 5000000);
+
+		AdaptiveParallelTransferTuner nextTuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 8,
+				BUFFER_SIZE);
+		Assert.assertTrue("should have learned a thread count", nextTuner.getRecommendedThreads() >= 1);
+		Assert.assertTrue(nextTuner.getRecommendedThreads() <= 8);
+		Assert.assertEquals(BUFFER_SIZE, nextTuner.getRecommendedBufferSize());
+
+		AdaptiveParallelTransferTuner otherHostTuner = AdaptiveParallelTransferTuner.instance(cache, "otherhost",
+				ZONE, 8, BUFFER_SIZE);
+		Assert.assertEquals(8, otherHostTuner.getRecommendedThreads());
+	}
+
+	@Test
+	public void testFewerThreadsGrantedDoesNotLearnThreads() throws Exception {
+		DiscoveredServerPropertiesCache cache = new DiscoveredServerPropertiesCache();
+		AdaptiveParallelTransferTuner tuner = AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 8,
+				BUFFER_SIZE);
+		tuner.startTransfer(1);
+		tuner.recordStreamProgress(0, 1024);
+		Thread.sleep(2);
+		tuner.recordStreamComplete(0);
+		tuner.learn(8, 1, 1024, 2000000);
+		Assert.assertEquals(8, AdaptiveParallelTransferTuner.instance(cache, HOST, ZONE, 8, BUFFER_SIZE)
+				.getRecommendedThreads());
+	}
+
+}
@@ -56,4 +56,19 @@ public class DefaultTransferControlBlockTest {
 				testControlBlock.filter("bbb"));
 	}
 
+	@Test
+	public void testLiveRateAndPriority() throws Exception {
+		TransferControlBlock testControlBlock = DefaultTransferControlBlock
+				.instance();
+		Assert.assertEquals(0L, testControlBlock.getMaximumBytesPerSecond());
+		Assert.assertEquals(TransferPriority.NORMAL,
+				testControlBlock.getTransferPriority());
+		testControlBlock.setMaximumBytesPerSecond(5000L);
+		testControlBlock.setTransferPriority(TransferPriority.BULK);
+		Assert.assertEquals(5000L, testControlBlock.getTransferTokenBucket()
+				.getBytesPerSecond());
+		Assert.assertEquals(TransferPriority.BULK,
+				testControlBlock.getTransferPriority());
+	}
+
 }
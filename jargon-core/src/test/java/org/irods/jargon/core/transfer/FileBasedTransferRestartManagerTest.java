@@ -0,0 +1,105 @@
+/**
+ *
+ */
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Mike Conway - DICE
+ *
+ */
+public class FileBasedTransferRestartManagerTest {
+
+	private File restartDirectory;
+
+	@Before
+	public void setUp() throws Exception {
+		restartDirectory = File.createTempFile("restart", "");
+		restartDirectory.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteQuietly(restartDirectory);
+	}
+
+	private FileRestartInfo buildRestartInfo() throws Exception {
+		IRODSAccount account = IRODSAccount.instance("host", 1247, "user",
+				"password", "", "zone", "");
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAbsolutePath("/zone/home/user/big.dat");
+		fileRestartInfo.setLocalAbsolutePath("/local/big.dat");
+		fileRestartInfo.setRestartType(RestartType.PUT);
+		fileRestartInfo.setIrodsAccountIdentifier(account.toString());
+		fileRestartInfo.getFileRestartDataSegments().add(
+				new FileRestartDataSegment(0));
+		fileRestartInfo.getFileRestartDataSegments().add(
+				new FileRestartDataSegment(1));
+		return fileRestartInfo;
+	}
+
+	@Test
+	public void testStoreAndRetrieveInNewManager() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				restartDirectory);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo());
+		manager.updateOffsetForSegment(identifier, 1, 4000L);
+		manager.updateLengthForSegment(identifier, 1, 800L);
+		manager.incrementRestartAttempts(manager.retrieveRestart(identifier));
+
+		FileBasedTransferRestartManager afterRestart = new FileBasedTransferRestartManager(
+				restartDirectory);
+		FileRestartInfo actual = afterRestart.retrieveRestart(identifier);
+		Assert.assertNotNull("restart not kept in file", actual);
+		Assert.assertEquals("/local/big.dat", actual.getLocalAbsolutePath());
+		Assert.assertEquals(RestartType.PUT, actual.getRestartType());
+		Assert.assertEquals(1, actual.getNumberRestarts());
+		Assert.assertEquals(2, actual.getFileRestartDataSegments().size());
+		FileRestartDataSegment segment = actual.getFileRestartDataSegments()
+				.get(1);
+		Assert.assertEquals(4000L, segment.getOffset());
+		Assert.assertEquals(800L, segment.getLength());
+		Assert.assertEquals(identifier, actual.identifierFromThisInfo());
+	}
+
+	@Test
+	public void testDelete() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				restartDirectory);
+		FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildRestartInfo());
+		manager.deleteRestart(identifier);
+
+		Assert.assertNull("did not remove info",
+				manager.retrieveRestart(identifier));
+		Assert.assertNull("did not remove file",
+				new FileBasedTransferRestartManager(restartDirectory)
+						.retrieveRestart(identifier));
+		Assert.assertEquals(0, restartDirectory.list().length);
+	}
+
+	@Test
+	public void testRetrieveNotStored() throws Exception {
+		FileBasedTransferRestartManager manager = new FileBasedTransferRestartManager(
+				restartDirectory);
+		Assert.assertNull(manager.retrieveRestart(buildRestartInfo()
+				.identifierFromThisInfo()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStoreNull() throws Exception {
+		new FileBasedTransferRestartManager(restartDirectory)
+				.storeRestart(null);
+	}
+
+}
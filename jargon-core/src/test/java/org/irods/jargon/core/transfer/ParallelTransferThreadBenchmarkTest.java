@@ -0,0 +1,281 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the stream based and NIO parallel transfer threads, and memory
+ * mapped NIO puts, against an in-process stand-in for the iRODS parallel
+ * transfer listener on the loopback interface. Timings are logged, and the
+ * content of each transfer is checked. No iRODS server is needed.
+ */
+public class ParallelTransferThreadBenchmarkTest {
+
+	private static final int TRANSFER_LENGTH = 64 * 1024 * 1024;
+	private static final int NUMBER_OF_THREADS = 4;
+	private static final int ROUNDS = 3;
+	private static final int PASSWORD = 12345;
+
+	private static final Logger log = LoggerFactory.getLogger(ParallelTransferThreadBenchmarkTest.class);
+
+	private static IRODSFileSystem irodsFileSystem;
+	private static byte[] source;
+	private static File sourceFile;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		irodsFileSystem = IRODSFileSystem.instance();
+		source = new byte[TRANSFER_LENGTH];
+		new Random(42).nextBytes(source);
+		sourceFile = File.createTempFile("ParallelTransferThreadBenchmarkTest", ".src");
+		sourceFile.deleteOnExit();
+		FileOutputStream fos = new FileOutputStream(sourceFile);
+		try {
+			fos.write(source);
+		} finally {
+			fos.close();
+		}
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		irodsFileSystem.getIrodsSession().setJargonProperties(new SettableJargonProperties());
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@Test
+	public void testCompareGetStreamAndNIO() throws Exception {
+		long streamNanos = 0;
+		long nioNanos = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			streamNanos += timeGet(false);
+			nioNanos += timeGet(true);
+		}
+		log.info("parallel get of {} bytes on {} threads, stream avg ms:{}, nio avg ms:{}",
+				new Object[] { TRANSFER_LENGTH, NUMBER_OF_THREADS, streamNanos / ROUNDS / 1000000,
+						nioNanos / ROUNDS / 1000000 });
+	}
+
+	@Test
+	public void testComparePutStreamAndNIO() throws Exception {
+		long streamNanos = 0;
+		long nioNanos = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			streamNanos += timePut(false, 0);
+			nioNanos += timePut(true, 0);
+		}
+		log.info("parallel put of {} bytes on {} threads, stream avg ms:{}, nio avg ms:{}",
+				new Object[] { TRANSFER_LENGTH, NUMBER_OF_THREADS, streamNanos / ROUNDS / 1000000,
+						nioNanos / ROUNDS / 1000000 });
+	}
+
+	@Test
+	public void testComparePutTransferToAndMapped() throws Exception {
+		long transferToNanos = 0;
+		long mappedNanos = 0;
+		// window does not divide the stream segments, so partial windows are sent
+		int mapWindowSize = 5 * 1024 * 1024;
+		for (int i = 0; i < ROUNDS; i++) {
+			transferToNanos += timePut(true, 0);
+			mappedNanos += timePut(true, mapWindowSize);
+		}
+		log.info("parallel put of {} bytes on {} threads, transferTo avg ms:{}, mapped avg ms:{}",
+				new Object[] { TRANSFER_LENGTH, NUMBER_OF_THREADS, transferToNanos / ROUNDS / 1000000,
+						mappedNanos / ROUNDS / 1000000 });
+	}
+
+	private long timeGet(final boolean useNIO) throws Exception {
+		setUseNIO(useNIO, 0);
+		File localFile = File.createTempFile("ParallelTransferThreadBenchmarkTest", ".get");
+		localFile.deleteOnExit();
+		FakeParallelListener listener = new FakeParallelListener(AbstractParallelTransferThread.GET_OPR, null);
+		try {
+			ParallelGetFileTransferStrategy strategy = ParallelGetFileTransferStrategy.instance("localhost",
+					listener.getPort(), NUMBER_OF_THREADS, PASSWORD, localFile,
+					irodsFileSystem.getIRODSAccessObjectFactory(), TRANSFER_LENGTH, buildTransferControlBlock(),
+					null, null, new NegotiatedClientServerConfiguration(false));
+			long start = System.nanoTime();
+			strategy.transfer();
+			long elapsed = System.nanoTime() - start;
+			listener.join();
+
+			Assert.assertEquals("wrong local length", TRANSFER_LENGTH, localFile.length());
+			byte[] actual = new byte[TRANSFER_LENGTH];
+			RandomAccessFile raf = new RandomAccessFile(localFile, "r");
+			try {
+				raf.readFully(actual);
+			} finally {
+				raf.close();
+			}
+			Assert.assertTrue("local file content differs, nio:" + useNIO, Arrays.equals(source, actual));
+			return elapsed;
+		} finally {
+			listener.close();
+			localFile.delete();
+		}
+	}
+
+	private long timePut(final boolean useNIO, final int mapWindowSize) throws Exception {
+		setUseNIO(useNIO, mapWindowSize);
+		byte[] received = new byte[TRANSFER_LENGTH];
+		FakeParallelListener listener = new FakeParallelListener(AbstractParallelTransferThread.PUT_OPR, received);
+		try {
+			ParallelPutFileTransferStrategy strategy = ParallelPutFileTransferStrategy.instance("localhost",
+					listener.getPort(), NUMBER_OF_THREADS, PASSWORD, sourceFile,
+					irodsFileSystem.getIRODSAccessObjectFactory(), TRANSFER_LENGTH, buildTransferControlBlock(),
+					null, null, new NegotiatedClientServerConfiguration(false));
+			long start = System.nanoTime();
+			strategy.transfer();
+			long elapsed = System.nanoTime() - start;
+			listener.join();
+			Assert.assertTrue("received content differs, nio:" + useNIO, Arrays.equals(source, received));
+			return elapsed;
+		} finally {
+			listener.close();
+		}
+	}
+
+	private void setUseNIO(final boolean useNIO, final int mapWindowSize) throws Exception {
+		SettableJargonProperties jargonProperties = new SettableJargonProperties(
+				irodsFileSystem.getJargonProperties());
+		jargonProperties.setUseNIOForParallelTransfers(useNIO);
+		jargonProperties.setParallelPutMapWindowSize(mapWindowSize);
+		irodsFileSystem.getIrodsSession().setJargonProperties(jargonProperties);
+	}
+
+	private TransferControlBlock buildTransferControlBlock() throws Exception {
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		transferControlBlock.setTransferOptions(new TransferOptions());
+		return transferControlBlock;
+	}
+
+	/**
+	 * Accepts one connection per thread, checks the cookie, and sends each
+	 * stream one contiguous segment of the file in two headers, followed by
+	 * done
+	 */
+	private static class FakeParallelListener {
+
+		private final ServerSocket serverSocket;
+		private final List<Thread> streams = new ArrayList<Thread>();
+		private final List<Throwable> errors = new ArrayList<Throwable>();
+		private final Thread acceptor;
+
+		FakeParallelListener(final int operation, final byte[] received) throws IOException {
+			serverSocket = new ServerSocket(0);
+			acceptor = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					long segment = TRANSFER_LENGTH / NUMBER_OF_THREADS;
+					try {
+						for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+							final Socket socket = serverSocket.accept();
+							final long offset = segment * i;
+							final long length = i == NUMBER_OF_THREADS - 1 ? TRANSFER_LENGTH - offset : segment;
+							Thread stream = new Thread(new Runnable() {
+								@Override
+								public void run() {
+									try {
+										serve(socket, operation, offset, length, received);
+									} catch (Throwable e) {
+										synchronized (errors) {
+											errors.add(e);
+										}
+									}
+								}
+							});
+							stream.start();
+							synchronized (streams) {
+								streams.add(stream);
+							}
+						}
+					} catch (IOException e) {
+						synchronized (errors) {
+							errors.add(e);
+						}
+					}
+				}
+			});
+			acceptor.start();
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		void join() throws Exception {
+			acceptor.join();
+			for (Thread stream : streams) {
+				stream.join();
+			}
+			if (!errors.isEmpty()) {
+				throw new Exception("error in fake listener", errors.get(0));
+			}
+		}
+
+		void close() throws IOException {
+			serverSocket.close();
+		}
+
+		private void serve(final Socket socket, final int operation, final long offset, final long length,
+				final byte[] received) throws IOException {
+			try {
+				DataInputStream in = new DataInputStream(socket.getInputStream());
+				// headers go out in one write, as iRODS sends them
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				if (in.readInt() != PASSWORD) {
+					throw new IOException("bad cookie");
+				}
+				long firstLength = length / 2;
+				serveSegment(in, out, operation, offset, firstLength, received);
+				serveSegment(in, out, operation, offset + firstLength, length - firstLength, received);
+				writeHeader(out, AbstractParallelTransferThread.DONE_OPR, 0, 0);
+				out.flush();
+			} finally {
+				socket.close();
+			}
+		}
+
+		private void serveSegment(final DataInputStream in, final DataOutputStream out, final int operation,
+				final long offset, final long length, final byte[] received) throws IOException {
+			writeHeader(out, operation, offset, length);
+			if (operation == AbstractParallelTransferThread.GET_OPR) {
+				out.write(source, (int) offset, (int) length);
+			} else {
+				out.flush();
+				in.readFully(received, (int) offset, (int) length);
+			}
+		}
+
+		private void writeHeader(final DataOutputStream out, final int operation, final long offset,
+				final long length) throws IOException {
+			out.writeInt(operation);
+			out.writeInt(0);
+			out.writeLong(offset);
+			out.writeLong(length);
+		}
+	}
+
+}
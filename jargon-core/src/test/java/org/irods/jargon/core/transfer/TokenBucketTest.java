@@ -0,0 +1,54 @@
+package org.irods.jargon.core.transfer;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TokenBucketTest {
+
+	private static final long SECOND = 1000000000L;
+
+	@Test
+	public void testUnlimitedNeverWaits() throws Exception {
+		TokenBucket tokenBucket = new TokenBucket(0L);
+		Assert.assertFalse(tokenBucket.isLimited());
+		Assert.assertEquals(0L, tokenBucket.reserve(Long.MAX_VALUE / 2, 0L));
+	}
+
+	@Test
+	public void testWaitForShortfall() throws Exception {
+		TokenBucket tokenBucket = new TokenBucket(1000L);
+		long start = System.nanoTime();
+		// starts full with a second of bytes
+		Assert.assertEquals(0L, tokenBucket.reserve(1000L, start));
+		Assert.assertEquals(SECOND / 2, tokenBucket.reserve(500L, start));
+		// debt is paid off over time
+		Assert.assertEquals(0L, tokenBucket.reserve(0L, start + SECOND / 2));
+	}
+
+	@Test
+	public void testRefillCappedAtOneSecond() throws Exception {
+		TokenBucket tokenBucket = new TokenBucket(1000L);
+		long start = System.nanoTime();
+		Assert.assertEquals(0L, tokenBucket.reserve(1000L, start + 10 * SECOND));
+		Assert.assertEquals(SECOND, tokenBucket.reserve(1000L, start + 10 * SECOND));
+	}
+
+	@Test
+	public void testChangeRateWhileInUse() throws Exception {
+		TokenBucket tokenBucket = new TokenBucket(1000L);
+		long start = System.nanoTime();
+		tokenBucket.setBytesPerSecond(100L, start);
+		Assert.assertEquals(100L, tokenBucket.getBytesPerSecond());
+		Assert.assertEquals(0L, tokenBucket.reserve(100L, start));
+		Assert.assertEquals(SECOND, tokenBucket.reserve(100L, start));
+		tokenBucket.setBytesPerSecond(0L, start);
+		Assert.assertEquals(0L, tokenBucket.reserve(100L, start));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeRate() throws Exception {
+		new TokenBucket(-1L);
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.irods.jargon.core.transfer;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.junit.Test;
+
+public class TransferBandwidthSchedulerTest {
+
+	private static IRODSAccount buildAccount(final String userName) throws Exception {
+		return IRODSAccount.instance("host", 1247, userName, "test", "/zone/home/" + userName, "zone", "");
+	}
+
+	@Test
+	public void testAccountLimitsAreSeparate() throws Exception {
+		TransferBandwidthScheduler scheduler = new TransferBandwidthScheduler();
+		scheduler.setAccountBytesPerSecond(buildAccount("one"), 1000L);
+		Assert.assertEquals(1000L, scheduler.getAccountBytesPerSecond(buildAccount("one")));
+		Assert.assertEquals(0L, scheduler.getAccountBytesPerSecond(buildAccount("two")));
+	}
+
+	@Test
+	public void testUnlimitedThrottleDoesNotWait() throws Exception {
+		TransferBandwidthScheduler scheduler = new TransferBandwidthScheduler();
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		TransferThrottle transferThrottle = scheduler.instanceTransferThrottle(buildAccount("one"),
+				transferControlBlock);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 1000; i++) {
+			transferThrottle.acquire(1024 * 1024);
+		}
+		Assert.assertTrue(System.currentTimeMillis() - start < 1000L);
+	}
+
+	@Test
+	public void testTransferLimitWaits() throws Exception {
+		TransferBandwidthScheduler scheduler = new TransferBandwidthScheduler();
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		transferControlBlock.setMaximumBytesPerSecond(10000L);
+		TransferThrottle transferThrottle = scheduler.instanceTransferThrottle(buildAccount("one"),
+				transferControlBlock);
+		long start = System.currentTimeMillis();
+		transferThrottle.acquire(10000);
+		transferThrottle.acquire(2000);
+		Assert.assertTrue(System.currentTimeMillis() - start >= 150L);
+	}
+
+	@Test
+	public void testBindToCurrentThread() throws Exception {
+		TransferBandwidthScheduler scheduler = new TransferBandwidthScheduler();
+		TransferThrottle transferThrottle = scheduler.instanceTransferThrottle(buildAccount("one"), null);
+		TransferThrottle previous = TransferThrottle.bindToCurrentThread(transferThrottle);
+		try {
+			Assert.assertSame(transferThrottle, TransferThrottle.getCurrentThreadTransferThrottle());
+		} finally {
+			TransferThrottle.bindToCurrentThread(previous);
+		}
+		Assert.assertNull(TransferThrottle.getCurrentThreadTransferThrottle());
+	}
+
+}
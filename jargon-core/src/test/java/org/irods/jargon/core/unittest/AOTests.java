@@ -1,5 +1,8 @@
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.pub.BatchCatalogOperationsAOImplTest;
+import org.irods.jargon.core.pub.BulkChecksumExecutorTest;
+import org.irods.jargon.core.pub.BulkChecksumOptionsTest;
 import org.irods.jargon.core.pub.BulkFileOperationsAOImplTest;
 import org.irods.jargon.core.pub.CollectionAOImplForSoftLinkTest;
 import org.irods.jargon.core.pub.CollectionAOImplTest;
@@ -40,9 +43,11 @@ import org.irods.jargon.core.pub.ResourceAOHelperTest;
 import org.irods.jargon.core.pub.ResourceAOTest;
 import org.irods.jargon.core.pub.ResourceGroupAOImplTest;
 import org.irods.jargon.core.pub.RuleProcessingAOImplTest;
+import org.irods.jargon.core.pub.SearchResultStreamTest;
 import org.irods.jargon.core.pub.SimpleQueryExecutorAOImplTest;
 import org.irods.jargon.core.pub.SpecificQueryAOTest;
 import org.irods.jargon.core.pub.Stream2StreamAOImplTest;
+import org.irods.jargon.core.pub.TransferSynchHelperTest;
 import org.irods.jargon.core.pub.TrashOperationsAOImplTest;
 import org.irods.jargon.core.pub.TrashOperationsTest;
 import org.irods.jargon.core.pub.UserAOTest;
@@ -74,7 +79,9 @@ import org.junit.runners.Suite;
 		MountedFilesystemsDataTransferOperationsImplTest.class, MountedFilesystemCollectionAOImplTest.class,
 		IRODSFileSystemSingletonWrapperTest.class, ResourceAOHelperTest.class,
 		DataObjectChecksumUtilitiesAOImplTest.class, CollectionListingUtilsTest.class,
-		FederatedDataObjectAOImplTest.class, TrashOperationsTest.class, TrashOperationsAOImplTest.class })
+		FederatedDataObjectAOImplTest.class, TrashOperationsTest.class, TrashOperationsAOImplTest.class,
+		BatchCatalogOperationsAOImplTest.class, SearchResultStreamTest.class, BulkChecksumOptionsTest.class,
+		BulkChecksumExecutorTest.class, TransferSynchHelperTest.class })
 /**
  * Suite to run Access Object tests in org.irods.jargon.pub.*
  * <p>
@@ -7,12 +7,15 @@ import org.irods.jargon.core.connection.DefaultPropertiesJargonConfigTest;
 import org.irods.jargon.core.connection.DiscoveredServerPropertiesCacheTest;
 import org.irods.jargon.core.connection.EnvironmentalInfoAccessorTest;
 import org.irods.jargon.core.connection.IRODSAccountTest;
+import org.irods.jargon.core.connection.IRODSEndpointGroupTest;
 import org.irods.jargon.core.connection.IRODSServerPropertiesTest;
 import org.irods.jargon.core.connection.IRODSSessionTest;
 import org.irods.jargon.core.connection.IRODSSimpleConnectionTest;
 import org.irods.jargon.core.connection.IRODSSimpleProtocolManagerTest;
 import org.irods.jargon.core.connection.PAMAuthTest;
+import org.irods.jargon.core.connection.PendingApiRepliesTest;
 import org.irods.jargon.core.connection.PipelineConfigurationTest;
+import org.irods.jargon.core.connection.ReroutedHostCacheTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -26,7 +29,8 @@ import org.junit.runners.Suite;
 	DiscoveredServerPropertiesCacheTest.class, IRODSAccountTest.class,
 	ClientServerNegotationPolicyFromPropertiesBuilderTest.class,
 	ClientServerNegotiationPolicyTest.class,
-	PipelineConfigurationTest.class })
+	PipelineConfigurationTest.class, ReroutedHostCacheTest.class,
+	IRODSEndpointGroupTest.class, PendingApiRepliesTest.class })
 public class ConnectionTests {
 
 }
@@ -22,6 +22,9 @@ import org.irods.jargon.core.pub.io.PackingIrodsOutputStreamTest;
 import org.irods.jargon.core.pub.io.RemoteExecutionBinaryResultInputStreamTest;
 import org.irods.jargon.core.pub.io.SessionClosingIRODSFIleInputStreamTest;
 import org.irods.jargon.core.pub.io.SessionClosingIRODSFileOutputStreamTest;
+import org.irods.jargon.core.pub.io.reactive.ByteBufferPoolTest;
+import org.irods.jargon.core.pub.io.reactive.IRODSDataObjectPublisherTest;
+import org.irods.jargon.core.pub.io.reactive.IRODSDataObjectSubscriberTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -41,7 +44,9 @@ import org.junit.runners.Suite;
 		MountedFilesystemIRODSFileImplTest.class,
 		MountedFileSystemIRODSFileInputStreamTest.class,
 		MountedFilesystemIRODSFileOutputStreamTest.class,
-		PackingIrodsOutputStreamTest.class, PackingIrodsInputStreamTest.class })
+		PackingIrodsOutputStreamTest.class, PackingIrodsInputStreamTest.class,
+		ByteBufferPoolTest.class, IRODSDataObjectPublisherTest.class,
+		IRODSDataObjectSubscriberTest.class })
 public class FileTests {
 
 }
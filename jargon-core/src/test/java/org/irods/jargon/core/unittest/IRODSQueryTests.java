@@ -4,6 +4,7 @@
 package org.irods.jargon.core.unittest;
 
 import org.irods.jargon.core.query.AVUQueryElementTest;
+import org.irods.jargon.core.query.CompactListingEntryListTest;
 import org.irods.jargon.core.query.GenQuerySelectFieldTest;
 import org.irods.jargon.core.query.IRODSGenQueryBuilderTest;
 import org.irods.jargon.core.query.IRODSGenQueryFromBuilderTest;
@@ -20,7 +21,8 @@ import org.junit.runners.Suite;
 		GenQuerySelectFieldTest.class, TranslatedIRODSQueryTest.class,
 		AVUQueryElementTest.class, SimpleQueryTest.class,
 		IRODSSimpleQueryResultSetTest.class, UserFilePermissionTest.class,
-		IRODSGenQueryBuilderTest.class, IRODSGenQueryFromBuilderTest.class })
+		IRODSGenQueryBuilderTest.class, IRODSGenQueryFromBuilderTest.class,
+		CompactListingEntryListTest.class })
 public class IRODSQueryTests {
 
 }
@@ -4,6 +4,7 @@ import org.irods.jargon.core.packinstr.AbstractIRODSPackingInstructionTest;
 import org.irods.jargon.core.packinstr.AuthReqPluginRequestInpTest;
 import org.irods.jargon.core.packinstr.CollInpTest;
 import org.irods.jargon.core.packinstr.DataObjCopyInpTest;
+import org.irods.jargon.core.packinstr.DataObjInpForChecksumTest;
 import org.irods.jargon.core.packinstr.DataObjInpForMcollTest;
 import org.irods.jargon.core.packinstr.DataObjInpForObjStatTest;
 import org.irods.jargon.core.packinstr.DataObjInpForRegTest;
@@ -19,6 +20,8 @@ import org.irods.jargon.core.packinstr.GeneralAdminInpTest;
 import org.irods.jargon.core.packinstr.GetTempPasswordForOtherTest;
 import org.irods.jargon.core.packinstr.GetTempPasswordInTest;
 import org.irods.jargon.core.packinstr.ModAccessControlInpTest;
+import org.irods.jargon.core.packinstr.NativePackerTest;
+import org.irods.jargon.core.packinstr.NativePackingBenchmarkTest;
 import org.irods.jargon.core.packinstr.OpenedDataObjInpTest;
 import org.irods.jargon.core.packinstr.PamAuthRequestInpTest;
 import org.irods.jargon.core.packinstr.ReconnMsgTest;
@@ -27,6 +30,7 @@ import org.irods.jargon.core.packinstr.SSLStartInpTest;
 import org.irods.jargon.core.packinstr.SimpleQueryInpTest;
 import org.irods.jargon.core.packinstr.SpecificQueryInpTest;
 import org.irods.jargon.core.packinstr.StructFileExtAndRegInpTest;
+import org.irods.jargon.core.packinstr.TagWriterTest;
 import org.irods.jargon.core.packinstr.TransferOptionsTest;
 import org.irods.jargon.core.packinstr.UserAdminInpTest;
 import org.junit.runner.RunWith;
@@ -42,7 +46,8 @@ import org.junit.runners.Suite;
 		TransferOptionsTest.class, DataObjInpForObjStatTest.class, GetTempPasswordForOtherTest.class,
 		DataObjInpForRegTest.class, DataObjInpForUnregisterTest.class, DataObjInpForMcollTest.class,
 		DataObjInpForUnmountTest.class, ReconnMsgTest.class, SpecificQueryInpTest.class, PamAuthRequestInpTest.class,
-		SSLStartInpTest.class, SSLEndInpTest.class, AuthReqPluginRequestInpTest.class })
+		SSLStartInpTest.class, SSLEndInpTest.class, AuthReqPluginRequestInpTest.class, TagWriterTest.class, NativePackerTest.class, NativePackingBenchmarkTest.class,
+		DataObjInpForChecksumTest.class })
 public class PackingInstructionTests {
 
 }
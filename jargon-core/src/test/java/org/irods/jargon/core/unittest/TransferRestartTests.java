@@ -3,12 +3,14 @@
  */
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.transfer.FileBasedTransferRestartManagerTest;
 import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManagerTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ MemoryBasedTransferRestartManagerTest.class })
+@Suite.SuiteClasses({ MemoryBasedTransferRestartManagerTest.class,
+		FileBasedTransferRestartManagerTest.class })
 public class TransferRestartTests {
 
 }
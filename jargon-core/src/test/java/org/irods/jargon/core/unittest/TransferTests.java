@@ -1,6 +1,10 @@
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.transfer.AdaptiveParallelTransferTunerTest;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlockTest;
+import org.irods.jargon.core.transfer.ParallelTransferThreadBenchmarkTest;
+import org.irods.jargon.core.transfer.TokenBucketTest;
+import org.irods.jargon.core.transfer.TransferBandwidthSchedulerTest;
 import org.irods.jargon.core.transfer.TransferStatusTest;
 import org.irods.jargon.core.transfer.encrypt.AesCipherEncryptWrapperTest;
 import org.irods.jargon.core.transfer.encrypt.EncryptionWrapperFactoryTest;
@@ -10,7 +14,10 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ TransferStatusTest.class,
 	DefaultTransferControlBlockTest.class,
-	EncryptionWrapperFactoryTest.class, AesCipherEncryptWrapperTest.class })
+	EncryptionWrapperFactoryTest.class, AesCipherEncryptWrapperTest.class,
+	AdaptiveParallelTransferTunerTest.class,
+	ParallelTransferThreadBenchmarkTest.class, TokenBucketTest.class,
+	TransferBandwidthSchedulerTest.class })
 public class TransferTests {
 
 }
@@ -39,6 +39,24 @@ public class CacheServiceConfiguration {
 	 */
 	private String cacheDirPath = "cacheServiceTempDir";
 
+	/**
+	 * Most entries held in the in-memory tier of a
+	 * {@link TieredDataCacheServiceFactoryImpl}, least recently used entries
+	 * are evicted past this size
+	 */
+	private int memoryCacheMaxEntries = 1000;
+
+	/**
+	 * Time an entry is held in the in-memory tier after it is put or loaded
+	 */
+	private int memoryCacheTimeToLiveSeconds = 300;
+
+	/**
+	 * Interval between background purges of old cache files by a
+	 * {@link TieredDataCacheServiceFactoryImpl}, 0 turns off background purges
+	 */
+	private int purgeIntervalMinutes = 60;
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -49,6 +67,12 @@ public class CacheServiceConfiguration {
 		sb.append(cacheInHomeDir);
 		sb.append("\n    cacheDirPath:");
 		sb.append(cacheDirPath);
+		sb.append("\n    memoryCacheMaxEntries:");
+		sb.append(memoryCacheMaxEntries);
+		sb.append("\n    memoryCacheTimeToLiveSeconds:");
+		sb.append(memoryCacheTimeToLiveSeconds);
+		sb.append("\n    purgeIntervalMinutes:");
+		sb.append(purgeIntervalMinutes);
 		return sb.toString();
 	}
 
@@ -90,4 +114,50 @@ public class CacheServiceConfiguration {
 		this.cacheDirPath = cacheDirPath;
 	}
 
+	/**
+	 * @return the memoryCacheMaxEntries
+	 */
+	public int getMemoryCacheMaxEntries() {
+		return memoryCacheMaxEntries;
+	}
+
+	/**
+	 * @param memoryCacheMaxEntries
+	 *            the memoryCacheMaxEntries to set
+	 */
+	public void setMemoryCacheMaxEntries(final int memoryCacheMaxEntries) {
+		this.memoryCacheMaxEntries = memoryCacheMaxEntries;
+	}
+
+	/**
+	 * @return the memoryCacheTimeToLiveSeconds
+	 */
+	public int getMemoryCacheTimeToLiveSeconds() {
+		return memoryCacheTimeToLiveSeconds;
+	}
+
+	/**
+	 * @param memoryCacheTimeToLiveSeconds
+	 *            the memoryCacheTimeToLiveSeconds to set
+	 */
+	public void setMemoryCacheTimeToLiveSeconds(
+			final int memoryCacheTimeToLiveSeconds) {
+		this.memoryCacheTimeToLiveSeconds = memoryCacheTimeToLiveSeconds;
+	}
+
+	/**
+	 * @return the purgeIntervalMinutes
+	 */
+	public int getPurgeIntervalMinutes() {
+		return purgeIntervalMinutes;
+	}
+
+	/**
+	 * @param purgeIntervalMinutes
+	 *            the purgeIntervalMinutes to set
+	 */
+	public void setPurgeIntervalMinutes(final int purgeIntervalMinutes) {
+		this.purgeIntervalMinutes = purgeIntervalMinutes;
+	}
+
 }
@@ -90,13 +90,29 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 			purgeOldRequests();
 		}
 
+		return storeEncryptedBytes(stringToCache.getBytes(), key);
+
+	}
+
+	/**
+	 * Encrypt the given bytes by the key, and store them in the cache file for
+	 * the key, replacing any earlier value
+	 *
+	 * @param data
+	 *            {@code byte[]} with the data to store
+	 * @param key
+	 *            {@code String} with the key
+	 * @return {@code String} with the absolute path to the cache file
+	 * @throws JargonException
+	 */
+	String storeEncryptedBytes(final byte[] data, final String key)
+			throws JargonException {
 		int keyHash = key.hashCode();
 		log.info("generated hash for key:{}", keyHash);
-		byte[] stringData = stringToCache.getBytes();
 		log.info("encrypting...");
 
 		CacheEncryptor cacheEncryptor = new CacheEncryptor(key);
-		byte[] encrypted = cacheEncryptor.encrypt(stringData);
+		byte[] encrypted = cacheEncryptor.encrypt(data);
 		log.info("bytes now encrypted for length:{}", encrypted.length);
 		// store in file
 
@@ -153,23 +169,7 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 
 		checkContracts();
 
-		// build hash of key and look for file
-		int keyHash = key.hashCode();
-		log.info("generated hash for key:{}", keyHash);
-		String irodsFileAbsolutePath = buildIRODSFileAbsolutePath(keyHash,
-				irodsAccount.getUserName());
-		log.info("looking for cache file at path:{}", irodsFileAbsolutePath);
-		IRODSFile cacheFile = getIrodsAccessObjectFactory()
-				.getIRODSFileFactory(irodsAccount).instanceIRODSFile(
-						irodsFileAbsolutePath);
-		Stream2StreamAO stream2StreamAO = getIrodsAccessObjectFactory()
-				.getStream2StreamAO(irodsAccount);
-		byte[] fileBytes = stream2StreamAO.streamFileToByte(cacheFile);
-		log.info("decrypting data based on provided key....");
-		CacheEncryptor cacheEncryptor = new CacheEncryptor(key);
-		fileBytes = cacheEncryptor.decrypt(fileBytes);
-
-		log.info("streamed file into bytes for length of: {}", fileBytes.length);
+		byte[] fileBytes = retrieveDecryptedBytes(key);
 		log.info("deserialzing...");
 		if (getCacheServiceConfiguration().isDoCleanupDuringRequests()) {
 			purgeOldRequests();
@@ -209,36 +209,13 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 			purgeOldRequests();
 		}
 
-		int keyHash = key.hashCode();
-		log.info("generated hash for key:{}", keyHash);
-
 		// serialize and encrypt object
 		log.info("serializing object to byte buffer...");
 		byte[] serializedObject = serializeObjectToByteStream(
 				informationObject, key);
 		log.info("object serialized into:{} bytes", serializedObject.length);
 
-		log.info("encrypting...");
-
-		CacheEncryptor cacheEncryptor = new CacheEncryptor(key);
-		byte[] encrypted = cacheEncryptor.encrypt(serializedObject);
-		log.info("bytes now encrypted for length:{}", encrypted.length);
-		// store in file
-
-		String irodsFileAbsolutePath = buildIRODSFileAbsolutePath(keyHash,
-				irodsAccount.getUserName());
-		log.info("storing to file at absolute path: {}", irodsFileAbsolutePath);
-		IRODSFile cacheFile = getIrodsAccessObjectFactory()
-				.getIRODSFileFactory(irodsAccount).instanceIRODSFile(
-						irodsFileAbsolutePath);
-		createCacheFileAndCacheDir(cacheFile);
-
-		Stream2StreamAO stream2StreamAO = getIrodsAccessObjectFactory()
-				.getStream2StreamAO(irodsAccount);
-		stream2StreamAO.streamBytesToIRODSFile(encrypted, cacheFile);
-
-		log.info("done...");
-		return irodsFileAbsolutePath;
+		return storeEncryptedBytes(serializedObject, key);
 
 	}
 
@@ -269,6 +246,22 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 			purgeOldRequests();
 		}
 
+		byte[] fileBytes = retrieveDecryptedBytes(key);
+		log.info("deserialzing...");
+		return deserializeStreamToObject(fileBytes, key);
+
+	}
+
+	/**
+	 * Read the cache file for the key and decrypt it
+	 *
+	 * @param key
+	 *            {@code String} with the key used to encrypt and store the
+	 *            data
+	 * @return {@code byte[]} with the decrypted data
+	 * @throws JargonException
+	 */
+	byte[] retrieveDecryptedBytes(final String key) throws JargonException {
 		// build hash of key and look for file
 		int keyHash = key.hashCode();
 		log.info("generated hash for key:{}", keyHash);
@@ -286,9 +279,7 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 		fileBytes = cacheEncryptor.decrypt(fileBytes);
 
 		log.info("streamed file into bytes for length of: {}", fileBytes.length);
-		log.info("deserialzing...");
-		return deserializeStreamToObject(fileBytes, key);
-
+		return fileBytes;
 	}
 
 	/**
@@ -299,7 +290,7 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 	 * @param userName
 	 * @return
 	 */
-	private String buildIRODSFileAbsolutePath(final int keyHash,
+	String buildIRODSFileAbsolutePath(final int keyHash,
 			final String userName) {
 		StringBuilder sb = computeCacheDirPathFromHomeDirFromUserAndZone(userName);
 
@@ -341,7 +332,7 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 		return sb;
 	}
 
-	private byte[] serializeObjectToByteStream(final Object informationObject,
+	static byte[] serializeObjectToByteStream(final Object informationObject,
 			final String key) throws JargonException {
 
 		log.info("serialzeObjectToByteStream(");
@@ -359,7 +350,7 @@ public class DataCacheServiceImpl extends AbstractDataUtilsServiceImpl
 		return bos.toByteArray();
 	}
 
-	private Object deserializeStreamToObject(final byte[] objectBuffer,
+	static Object deserializeStreamToObject(final byte[] objectBuffer,
 			final String key) throws JargonException {
 
 		log.info("deserializeStreamToObject(");
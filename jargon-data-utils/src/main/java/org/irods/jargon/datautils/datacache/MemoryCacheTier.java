@@ -0,0 +1,150 @@
+package org.irods.jargon.datautils.datacache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory tier of a {@link TieredDataCacheServiceFactoryImpl}, holding the
+ * decrypted bytes of recently used cache entries. Entries are bounded by count,
+ * evicting the least recently used, and by a time to live from when they were
+ * put.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class MemoryCacheTier {
+
+	private final int maxEntries;
+	private final long timeToLiveMillis;
+	private final LinkedHashMap<CacheKey, CachedValue> entries;
+
+	/**
+	 * @param maxEntries
+	 *            {@code int} with the most entries held
+	 * @param timeToLiveMillis
+	 *            {@code long} with the time an entry is held after it is put
+	 */
+	MemoryCacheTier(final int maxEntries, final long timeToLiveMillis) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be >= 1");
+		}
+
+		if (timeToLiveMillis < 1) {
+			throw new IllegalArgumentException("timeToLiveMillis must be >= 1");
+		}
+
+		this.maxEntries = maxEntries;
+		this.timeToLiveMillis = timeToLiveMillis;
+		entries = new LinkedHashMap<CacheKey, CachedValue>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<CacheKey, CachedValue> eldest) {
+				return size() > MemoryCacheTier.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return {@code byte[]} held for the key, or {@code null} if there is
+	 *         none or it has expired
+	 */
+	synchronized byte[] get(final CacheKey cacheKey) {
+		CachedValue entry = entries.get(cacheKey);
+		if (entry == null) {
+			return null;
+		}
+
+		if (entry.expiresAt <= System.currentTimeMillis()) {
+			entries.remove(cacheKey);
+			return null;
+		}
+
+		return entry.data;
+	}
+
+	synchronized void put(final CacheKey cacheKey, final byte[] data) {
+		entries.put(cacheKey, new CachedValue(data, System.currentTimeMillis()
+				+ timeToLiveMillis));
+	}
+
+	synchronized void remove(final CacheKey cacheKey) {
+		entries.remove(cacheKey);
+	}
+
+	/**
+	 * Drop all expired entries
+	 *
+	 * @return {@code int} with the number of entries dropped
+	 */
+	synchronized int purgeExpired() {
+		long now = System.currentTimeMillis();
+		int purged = 0;
+		Iterator<CachedValue> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().expiresAt <= now) {
+				iterator.remove();
+				purged++;
+			}
+		}
+		return purged;
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	private static class CachedValue {
+		private final byte[] data;
+		private final long expiresAt;
+
+		CachedValue(final byte[] data, final long expiresAt) {
+			this.data = data;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Identifies an entry by the path of its iRODS cache file and the key that
+	 * encrypts it, as different keys may hash to the same file
+	 */
+	static class CacheKey {
+		private final String irodsAbsolutePath;
+		private final String key;
+
+		CacheKey(final String irodsAbsolutePath, final String key) {
+			this.irodsAbsolutePath = irodsAbsolutePath;
+			this.key = key;
+		}
+
+		@Override
+		public int hashCode() {
+			return irodsAbsolutePath.hashCode() * 31 + key.hashCode();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+
+			CacheKey other = (CacheKey) obj;
+			return irodsAbsolutePath.equals(other.irodsAbsolutePath)
+					&& key.equals(other.key);
+		}
+
+		@Override
+		public String toString() {
+			return irodsAbsolutePath;
+		}
+	}
+
+}
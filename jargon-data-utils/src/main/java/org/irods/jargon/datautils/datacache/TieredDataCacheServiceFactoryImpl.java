@@ -0,0 +1,242 @@
+package org.irods.jargon.datautils.datacache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.datautils.datacache.MemoryCacheTier.CacheKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory for {@link TieredDataCacheServiceImpl} components, which share an
+ * in-memory tier in front of the iRODS cache files. The memory tier is bounded
+ * by the {@code memoryCacheMaxEntries} and
+ * {@code memoryCacheTimeToLiveSeconds} of the
+ * {@link CacheServiceConfiguration}.
+ * <p>
+ * Puts from all services of this factory are written to iRODS in order on one
+ * write-behind thread. Expired memory entries and old cache files of every
+ * account seen by the factory are purged on a background thread every
+ * {@code purgeIntervalMinutes}, instead of during requests.
+ * <p>
+ * The factory should be shared, as a singleton in a web application, and
+ * {@link #close()} called at shutdown so that queued writes are finished.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TieredDataCacheServiceFactoryImpl implements
+		DataCacheServiceFactory {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TieredDataCacheServiceFactoryImpl.class);
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final CacheServiceConfiguration cacheServiceConfiguration;
+	private final MemoryCacheTier memoryTier;
+	private final ConcurrentHashMap<CacheKey, byte[]> pendingWrites = new ConcurrentHashMap<CacheKey, byte[]>();
+	private final ConcurrentHashMap<String, DataCacheServiceImpl> purgeTargets = new ConcurrentHashMap<String, DataCacheServiceImpl>();
+	private final ExecutorService writeBehindExecutorService;
+	private final ScheduledExecutorService purgeExecutorService;
+
+	/**
+	 * Create a factory with the default {@link CacheServiceConfiguration}
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} that can create necessary
+	 *            objects
+	 */
+	public TieredDataCacheServiceFactoryImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory) {
+		this(irodsAccessObjectFactory, new CacheServiceConfiguration());
+	}
+
+	/**
+	 * Create a factory
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} that can create necessary
+	 *            objects
+	 * @param cacheServiceConfiguration
+	 *            {@link CacheServiceConfiguration} for the services created.
+	 *            {@code doCleanupDuringRequests} is ignored, as purges are
+	 *            done in the background.
+	 */
+	public TieredDataCacheServiceFactoryImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final CacheServiceConfiguration cacheServiceConfiguration) {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException(
+					"irodsAccessObjectFactory is null");
+		}
+
+		if (cacheServiceConfiguration == null) {
+			throw new IllegalArgumentException(
+					"cacheServiceConfiguration is null");
+		}
+
+		log.info("cacheServiceConfiguration:{}", cacheServiceConfiguration);
+
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.cacheServiceConfiguration = new CacheServiceConfiguration();
+		this.cacheServiceConfiguration.setCacheDirPath(cacheServiceConfiguration
+				.getCacheDirPath());
+		this.cacheServiceConfiguration
+				.setCacheInHomeDir(cacheServiceConfiguration.isCacheInHomeDir());
+		this.cacheServiceConfiguration
+				.setLifetimeInDays(cacheServiceConfiguration
+						.getLifetimeInDays());
+		this.cacheServiceConfiguration.setDoCleanupDuringRequests(false);
+
+		memoryTier = new MemoryCacheTier(
+				cacheServiceConfiguration.getMemoryCacheMaxEntries(),
+				TimeUnit.SECONDS.toMillis(cacheServiceConfiguration
+						.getMemoryCacheTimeToLiveSeconds()));
+
+		writeBehindExecutorService = Executors
+				.newSingleThreadExecutor(new CacheThreadFactory(
+						"data-cache-write-behind"));
+		purgeExecutorService = Executors
+				.newSingleThreadScheduledExecutor(new CacheThreadFactory(
+						"data-cache-purge"));
+
+		int purgeIntervalMinutes = cacheServiceConfiguration
+				.getPurgeIntervalMinutes();
+		if (purgeIntervalMinutes > 0) {
+			purgeExecutorService.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					purgeAll();
+				}
+			}, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.datacache.DataCacheServiceFactory#
+	 * instanceDataCacheService(org.irods.jargon.core.connection.IRODSAccount)
+	 */
+	@Override
+	public DataCacheService instanceDataCacheService(
+			final IRODSAccount irodsAccount) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		DataCacheServiceImpl irodsTier = new DataCacheServiceImpl(
+				irodsAccessObjectFactory, irodsAccount);
+		irodsTier.setCacheServiceConfiguration(cacheServiceConfiguration);
+		purgeTargets.putIfAbsent(buildPurgeTargetKey(irodsAccount), irodsTier);
+
+		return new TieredDataCacheServiceImpl(irodsTier, memoryTier,
+				pendingWrites, writeBehindExecutorService);
+	}
+
+	/**
+	 * Wait for the writes queued so far to be written to iRODS
+	 *
+	 * @throws JargonException
+	 */
+	public void flush() throws JargonException {
+		try {
+			writeBehindExecutorService.submit(new Runnable() {
+				@Override
+				public void run() {
+				}
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted flushing cache writes", e);
+		} catch (ExecutionException e) {
+			throw new JargonException("error flushing cache writes",
+					e.getCause());
+		}
+	}
+
+	/**
+	 * Finish the queued writes and stop the background threads
+	 */
+	public void close() {
+		log.info("close()");
+		purgeExecutorService.shutdownNow();
+		writeBehindExecutorService.shutdown();
+		try {
+			if (!writeBehindExecutorService.awaitTermination(60,
+					TimeUnit.SECONDS)) {
+				log.warn("cache writes not finished in time, {} pending",
+						pendingWrites.size());
+				writeBehindExecutorService.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			writeBehindExecutorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Drop expired memory entries, and purge old cache files for each account
+	 * seen
+	 */
+	void purgeAll() {
+		log.info("purgeAll()");
+		int purged = memoryTier.purgeExpired();
+		log.info("purged {} expired memory entries", purged);
+		for (DataCacheServiceImpl irodsTier : purgeTargets.values()) {
+			try {
+				irodsTier.purgeOldRequests();
+			} catch (Exception e) {
+				log.error("error purging cache for account:{}",
+						irodsTier.getIrodsAccount(), e);
+			} finally {
+				irodsAccessObjectFactory.closeSessionAndEatExceptions(irodsTier
+						.getIrodsAccount());
+			}
+		}
+	}
+
+	private static String buildPurgeTargetKey(final IRODSAccount irodsAccount) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getHost());
+		sb.append(":");
+		sb.append(irodsAccount.getPort());
+		sb.append(":");
+		sb.append(irodsAccount.getZone());
+		sb.append(":");
+		sb.append(irodsAccount.getUserName());
+		return sb.toString();
+	}
+
+	/**
+	 * @return the {@link MemoryCacheTier} shared by the services
+	 */
+	MemoryCacheTier getMemoryTier() {
+		return memoryTier;
+	}
+
+	private static class CacheThreadFactory implements ThreadFactory {
+		private final String name;
+
+		CacheThreadFactory(final String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,286 @@
+package org.irods.jargon.datautils.datacache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.datautils.datacache.MemoryCacheTier.CacheKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Data cache that keeps recently used entries in memory in front of the
+ * encrypted iRODS files of a {@link DataCacheServiceImpl}. A put is held in
+ * memory and written to iRODS behind the request, and a retrieve is answered
+ * from memory when it can be, without touching iRODS.
+ * <p>
+ * Instances are created by a {@link TieredDataCacheServiceFactoryImpl}, which
+ * owns the memory tier, the write-behind thread, and the background purge
+ * shared by all of its instances. Old cache files are never purged on the
+ * request path.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TieredDataCacheServiceImpl implements DataCacheService {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TieredDataCacheServiceImpl.class);
+
+	private final DataCacheServiceImpl irodsTier;
+	private final MemoryCacheTier memoryTier;
+	private final ConcurrentHashMap<CacheKey, byte[]> pendingWrites;
+	private final ExecutorService writeBehindExecutorService;
+
+	/**
+	 * Constructor used by the {@link TieredDataCacheServiceFactoryImpl}
+	 *
+	 * @param irodsTier
+	 *            {@link DataCacheServiceImpl} that stores the encrypted files
+	 *            in iRODS
+	 * @param memoryTier
+	 *            {@link MemoryCacheTier} shared by the factory
+	 * @param pendingWrites
+	 *            {@code ConcurrentHashMap} of entries put but not yet written
+	 *            to iRODS, shared by the factory
+	 * @param writeBehindExecutorService
+	 *            single thread {@code ExecutorService} that writes to iRODS
+	 *            in the order of the puts
+	 */
+	TieredDataCacheServiceImpl(final DataCacheServiceImpl irodsTier,
+			final MemoryCacheTier memoryTier,
+			final ConcurrentHashMap<CacheKey, byte[]> pendingWrites,
+			final ExecutorService writeBehindExecutorService) {
+
+		if (irodsTier == null) {
+			throw new IllegalArgumentException("null irodsTier");
+		}
+
+		if (memoryTier == null) {
+			throw new IllegalArgumentException("null memoryTier");
+		}
+
+		if (pendingWrites == null) {
+			throw new IllegalArgumentException("null pendingWrites");
+		}
+
+		if (writeBehindExecutorService == null) {
+			throw new IllegalArgumentException(
+					"null writeBehindExecutorService");
+		}
+
+		this.irodsTier = irodsTier;
+		this.memoryTier = memoryTier;
+		this.pendingWrites = pendingWrites;
+		this.writeBehindExecutorService = writeBehindExecutorService;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.datacache.DataCacheService#
+	 * putStringValueIntoCache(java.lang.String, java.lang.String)
+	 */
+	@Override
+	public String putStringValueIntoCache(final String stringToCache,
+			final String key) throws JargonException {
+
+		if (stringToCache == null) {
+			throw new IllegalArgumentException("null stringToCache");
+		}
+
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("null key");
+		}
+
+		log.info("putStringValueIntoCache()");
+		return putBytes(stringToCache.getBytes(), key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.datacache.DataCacheService#
+	 * putSerializedEncryptedObjectIntoCache(java.lang.Object,
+	 * java.lang.String)
+	 */
+	@Override
+	public String putSerializedEncryptedObjectIntoCache(
+			final Object informationObject, final String key)
+			throws JargonException {
+
+		if (informationObject == null) {
+			throw new IllegalArgumentException("null informationObject");
+		}
+
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("null key");
+		}
+
+		log.info("putSerializedEncryptedObjectIntoCache()");
+		return putBytes(DataCacheServiceImpl.serializeObjectToByteStream(
+				informationObject, key), key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.datacache.DataCacheService#
+	 * retrieveStringValueFromCache(java.lang.String, java.lang.String)
+	 */
+	@Override
+	public String retrieveStringValueFromCache(final String userName,
+			final String key) throws JargonException {
+
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("null key");
+		}
+
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null userName");
+		}
+
+		log.info("retrieveStringValueFromCache() user name:{}", userName);
+		return new String(retrieveBytes(key));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.datacache.DataCacheService#retrieveObjectFromCache
+	 * (java.lang.String, java.lang.String)
+	 */
+	@Override
+	public Object retrieveObjectFromCache(final String userName,
+			final String key) throws JargonException {
+
+		if (key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("null key");
+		}
+
+		if (userName == null || userName.isEmpty()) {
+			throw new IllegalArgumentException("null userName");
+		}
+
+		log.info("retrieveObjectFromCache() user name:{}", userName);
+		return DataCacheServiceImpl.deserializeStreamToObject(
+				retrieveBytes(key), key);
+	}
+
+	/**
+	 * Drop expired entries from memory and purge old files from the iRODS
+	 * cache directory. The factory also does this on a schedule.
+	 */
+	@Override
+	public void purgeOldRequests() throws JargonException {
+		log.info("purgeOldRequests()");
+		memoryTier.purgeExpired();
+		irodsTier.purgeOldRequests();
+	}
+
+	/**
+	 * Hold the bytes in memory, and queue the write of the encrypted file
+	 */
+	private String putBytes(final byte[] data, final String key) {
+		final String irodsAbsolutePath = irodsTier.buildIRODSFileAbsolutePath(
+				key.hashCode(), getIrodsAccount().getUserName());
+		final CacheKey cacheKey = new CacheKey(irodsAbsolutePath, key);
+		memoryTier.put(cacheKey, data);
+		pendingWrites.put(cacheKey, data);
+
+		log.info("queueing write-behind to:{}", irodsAbsolutePath);
+		writeBehindExecutorService.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					irodsTier.storeEncryptedBytes(data, key);
+				} catch (Exception e) {
+					log.error("error in write-behind of cache file:{}",
+							irodsAbsolutePath, e);
+				} finally {
+					pendingWrites.remove(cacheKey, data);
+					/*
+					 * keep the connection for a burst of writes, close it once
+					 * the queue drains
+					 */
+					if (pendingWrites.isEmpty()) {
+						getIrodsAccessObjectFactory()
+								.closeSessionAndEatExceptions();
+					}
+				}
+			}
+		});
+
+		return irodsAbsolutePath;
+	}
+
+	/**
+	 * Look in memory, then in the writes not yet done, and only then read the
+	 * iRODS file, holding what was read in memory
+	 */
+	private byte[] retrieveBytes(final String key) throws JargonException {
+		CacheKey cacheKey = new CacheKey(irodsTier.buildIRODSFileAbsolutePath(
+				key.hashCode(), getIrodsAccount().getUserName()), key);
+
+		byte[] data = memoryTier.get(cacheKey);
+		if (data != null) {
+			log.info("memory cache hit");
+			return data;
+		}
+
+		data = pendingWrites.get(cacheKey);
+		if (data != null) {
+			log.info("hit on pending write");
+			memoryTier.put(cacheKey, data);
+			return data;
+		}
+
+		log.info("memory cache miss, reading from iRODS:{}", cacheKey);
+		data = irodsTier.retrieveDecryptedBytes(key);
+		memoryTier.put(cacheKey, data);
+		return data;
+	}
+
+	/**
+	 * @return the {@link DataCacheServiceImpl} holding the iRODS tier
+	 */
+	DataCacheServiceImpl getIrodsTier() {
+		return irodsTier;
+	}
+
+	@Override
+	public IRODSAccessObjectFactory getIrodsAccessObjectFactory() {
+		return irodsTier.getIrodsAccessObjectFactory();
+	}
+
+	@Override
+	public void setIrodsAccessObjectFactory(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory) {
+		irodsTier.setIrodsAccessObjectFactory(irodsAccessObjectFactory);
+	}
+
+	@Override
+	public IRODSAccount getIrodsAccount() {
+		return irodsTier.getIrodsAccount();
+	}
+
+	@Override
+	public void setIrodsAccount(final IRODSAccount irodsAccount) {
+		irodsTier.setIrodsAccount(irodsAccount);
+	}
+
+	@Override
+	public void setCacheServiceConfiguration(
+			final CacheServiceConfiguration cacheServiceConfiguration) {
+		irodsTier.setCacheServiceConfiguration(cacheServiceConfiguration);
+	}
+
+	@Override
+	public CacheServiceConfiguration getCacheServiceConfiguration() {
+		return irodsTier.getCacheServiceConfiguration();
+	}
+
+}
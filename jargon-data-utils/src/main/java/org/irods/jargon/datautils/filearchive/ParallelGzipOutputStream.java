@@ -0,0 +1,303 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@code OutputStream} that gzip compresses on several threads, in the
+ * manner of pigz. Written bytes are cut into blocks, and each block is
+ * deflated as a task on the given executor, primed with the last 32K of the
+ * block before it so that compression is close to that of a single thread.
+ * Blocks end on a byte boundary with a sync flush, so the compressed blocks
+ * are written out in order as one ordinary gzip member that any gzip reader
+ * can decompress.
+ * <p>
+ * The number of blocks in flight is bounded, so memory use is about
+ * {@code blockSize * maxBlocksInFlight * 2}. The CRC is computed on the
+ * writing thread as blocks are handed off. The executor is not owned by this
+ * stream and is not shut down on {@code close()}, which does close the
+ * underlying stream.
+ * <p>
+ * This stream is not thread safe.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(ParallelGzipOutputStream.class);
+
+	/**
+	 * Default size of each compressed block, as in pigz
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+	/**
+	 * Size of the deflate window, the amount of the previous block used as a
+	 * dictionary
+	 */
+	static final int DICTIONARY_SIZE = 32 * 1024;
+
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b,
+			Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private final OutputStream out;
+	private final ExecutorService executorService;
+	private final int blockSize;
+	private final int compressionLevel;
+	private final int maxBlocksInFlight;
+	private final LinkedList<Future<byte[]>> blocksInFlight = new LinkedList<Future<byte[]>>();
+	private final CRC32 crc = new CRC32();
+	private byte[] block;
+	private int blockLength = 0;
+	private byte[] dictionary = null;
+	private long totalIn = 0L;
+	private boolean closed = false;
+
+	/**
+	 * Create a parallel gzip stream with the default block size and
+	 * compression level, and two blocks in flight per processor
+	 *
+	 * @param out
+	 *            {@code OutputStream} that receives the gzip data
+	 * @param executorService
+	 *            {@code ExecutorService} that runs the compression of each
+	 *            block
+	 * @throws IOException
+	 */
+	public ParallelGzipOutputStream(final OutputStream out,
+			final ExecutorService executorService) throws IOException {
+		this(out, executorService, DEFAULT_BLOCK_SIZE,
+				Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime()
+						.availableProcessors() * 2);
+	}
+
+	/**
+	 * Create a parallel gzip stream
+	 *
+	 * @param out
+	 *            {@code OutputStream} that receives the gzip data
+	 * @param executorService
+	 *            {@code ExecutorService} that runs the compression of each
+	 *            block
+	 * @param blockSize
+	 *            {@code int} with the size of uncompressed data in each block,
+	 *            at least 32K
+	 * @param compressionLevel
+	 *            {@code int} with the {@link Deflater} compression level
+	 * @param maxBlocksInFlight
+	 *            {@code int} with the number of blocks that may be compressing
+	 *            or waiting to be written before a write blocks
+	 * @throws IOException
+	 */
+	public ParallelGzipOutputStream(final OutputStream out,
+			final ExecutorService executorService, final int blockSize,
+			final int compressionLevel, final int maxBlocksInFlight)
+			throws IOException {
+
+		if (out == null) {
+			throw new IllegalArgumentException("null out");
+		}
+
+		if (executorService == null) {
+			throw new IllegalArgumentException("null executorService");
+		}
+
+		if (blockSize < DICTIONARY_SIZE) {
+			throw new IllegalArgumentException("blockSize must be >= 32K");
+		}
+
+		if (maxBlocksInFlight < 1) {
+			throw new IllegalArgumentException("maxBlocksInFlight must be >= 1");
+		}
+
+		this.out = out;
+		this.executorService = executorService;
+		this.blockSize = blockSize;
+		this.compressionLevel = compressionLevel;
+		this.maxBlocksInFlight = maxBlocksInFlight;
+		block = new byte[blockSize];
+		out.write(GZIP_HEADER);
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+		checkOpen();
+		int offset = off;
+		int remaining = len;
+		while (remaining > 0) {
+			int toCopy = Math.min(remaining, blockSize - blockLength);
+			System.arraycopy(b, offset, block, blockLength, toCopy);
+			blockLength += toCopy;
+			offset += toCopy;
+			remaining -= toCopy;
+			if (blockLength == blockSize) {
+				submitBlock(false);
+			}
+		}
+	}
+
+	/**
+	 * Writes out the blocks that have been compressed so far, and flushes the
+	 * underlying stream. A partial block is not compressed until it fills or
+	 * the stream is closed.
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkOpen();
+		while (!blocksInFlight.isEmpty() && blocksInFlight.peek().isDone()) {
+			writeOldestBlock();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Compress the last block, write all blocks and the gzip trailer, and
+	 * close the underlying stream
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		try {
+			submitBlock(true);
+			while (!blocksInFlight.isEmpty()) {
+				writeOldestBlock();
+			}
+			writeTrailer();
+			out.flush();
+		} finally {
+			closed = true;
+			for (Future<byte[]> blockInFlight : blocksInFlight) {
+				blockInFlight.cancel(true);
+			}
+			blocksInFlight.clear();
+			out.close();
+		}
+	}
+
+	private void submitBlock(final boolean last) throws IOException {
+		if (blocksInFlight.size() >= maxBlocksInFlight) {
+			writeOldestBlock();
+		}
+
+		final byte[] input = block;
+		final int inputLength = blockLength;
+		final byte[] blockDictionary = dictionary;
+
+		crc.update(input, 0, inputLength);
+		totalIn += inputLength;
+
+		if (inputLength >= DICTIONARY_SIZE) {
+			dictionary = Arrays.copyOfRange(input, inputLength
+					- DICTIONARY_SIZE, inputLength);
+		}
+
+		blocksInFlight.add(executorService.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return deflateBlock(input, inputLength, blockDictionary, last,
+						compressionLevel);
+			}
+		}));
+
+		block = new byte[blockSize];
+		blockLength = 0;
+	}
+
+	/**
+	 * Deflate one block without a zlib wrapper. Blocks other than the last end
+	 * with a sync flush, so that they may be concatenated.
+	 */
+	static byte[] deflateBlock(final byte[] input, final int inputLength,
+			final byte[] dictionary, final boolean last,
+			final int compressionLevel) {
+		Deflater deflater = new Deflater(compressionLevel, true);
+		try {
+			if (dictionary != null) {
+				deflater.setDictionary(dictionary);
+			}
+			deflater.setInput(input, 0, inputLength);
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(
+					inputLength / 2 + 64);
+			byte[] buffer = new byte[Math.max(inputLength / 4, 8192)];
+
+			if (last) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					int count = deflater.deflate(buffer);
+					compressed.write(buffer, 0, count);
+				}
+			} else {
+				int count;
+				do {
+					count = deflater.deflate(buffer, 0, buffer.length,
+							Deflater.SYNC_FLUSH);
+					compressed.write(buffer, 0, count);
+				} while (count == buffer.length);
+			}
+			return compressed.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeOldestBlock() throws IOException {
+		Future<byte[]> oldest = blocksInFlight.removeFirst();
+		try {
+			out.write(oldest.get());
+		} catch (InterruptedException e) {
+			log.error("interrupted waiting for compressed block", e);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"interrupted waiting for compressed block");
+		} catch (ExecutionException e) {
+			log.error("error compressing block", e.getCause());
+			throw new IOException("error compressing block", e.getCause());
+		}
+	}
+
+	private void writeTrailer() throws IOException {
+		writeIntLittleEndian((int) crc.getValue());
+		writeIntLittleEndian((int) totalIn);
+	}
+
+	private void writeIntLittleEndian(final int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >> 8) & 0xff);
+		out.write((value >> 16) & 0xff);
+		out.write((value >> 24) & 0xff);
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException("stream is closed");
+		}
+	}
+
+}
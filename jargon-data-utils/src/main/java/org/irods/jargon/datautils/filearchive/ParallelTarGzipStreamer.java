@@ -0,0 +1,428 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.pub.io.IRODSFileOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates a tar, or tar.gz, of a local file or directory and streams it
+ * straight to an {@link OutputStream}, such as an
+ * {@link IRODSFileOutputStream}, so that no intermediate archive is written to
+ * local disk as with {@link LocalTarFileArchiver} and
+ * {@link LocalFileGzipCompressor}.
+ * <p>
+ * The work is pipelined across a pool of threads:
+ * <ul>
+ * <li>Small files ahead of the tar writer are read into memory in parallel,
+ * larger files are streamed from disk as they are reached.</li>
+ * <li>The tar stream is gzip compressed in parallel blocks by a
+ * {@link ParallelGzipOutputStream}.</li>
+ * </ul>
+ * Entries are named by their path relative to the parent of the source, so
+ * the archive unpacks to a directory named as the source, as
+ * {@code tar -C parent -czf archive source} would.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class ParallelTarGzipStreamer {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(ParallelTarGzipStreamer.class);
+
+	/**
+	 * Files up to this length are read ahead in parallel
+	 */
+	public static final int DEFAULT_READ_AHEAD_MAX_FILE_SIZE = 1024 * 1024;
+
+	private final int numberOfThreads;
+	private final boolean compress;
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private int blockSize = ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE;
+	private int readAheadMaxFileSize = DEFAULT_READ_AHEAD_MAX_FILE_SIZE;
+
+	/**
+	 * Create a streamer
+	 *
+	 * @param numberOfThreads
+	 *            {@code int} with the threads used to read and compress
+	 * @param compress
+	 *            {@code boolean} that is {@code true} to gzip the tar
+	 */
+	public ParallelTarGzipStreamer(final int numberOfThreads,
+			final boolean compress) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads must be >= 1");
+		}
+		this.numberOfThreads = numberOfThreads;
+		this.compress = compress;
+	}
+
+	/**
+	 * Archive a local file or directory, writing the archive to the given
+	 * stream. The stream is closed when the archive is complete, or when the
+	 * archive fails.
+	 *
+	 * @param sourceFileAbsolutePath
+	 *            {@code String} with the absolute path of a local file or
+	 *            directory
+	 * @param outputStream
+	 *            {@code OutputStream} that receives the archive
+	 * @return {@code long} with the number of files archived
+	 * @throws FileNotFoundException
+	 *             if the source does not exist
+	 * @throws JargonException
+	 */
+	public long archiveToStream(final String sourceFileAbsolutePath,
+			final OutputStream outputStream) throws FileNotFoundException,
+			JargonException {
+
+		log.info("archiveToStream()");
+
+		if (sourceFileAbsolutePath == null || sourceFileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty sourceFileAbsolutePath");
+		}
+
+		if (outputStream == null) {
+			throw new IllegalArgumentException("null outputStream");
+		}
+
+		File sourceFile = new File(sourceFileAbsolutePath);
+		if (!sourceFile.exists()) {
+			IOUtils.closeQuietly(outputStream);
+			throw new FileNotFoundException("source file does not exist");
+		}
+
+		log.info("sourceFileAbsolutePath:{}", sourceFileAbsolutePath);
+
+		ExecutorService executorService = Executors
+				.newFixedThreadPool(numberOfThreads);
+		boolean complete = false;
+		try {
+			List<File> entries = listEntries(sourceFile);
+			log.info("archiving {} entries", entries.size());
+			String baseAbsolutePath = sourceFile.getAbsoluteFile()
+					.getParentFile() == null ? "" : sourceFile
+					.getAbsoluteFile().getParentFile().getAbsolutePath();
+
+			OutputStream archiveTarget = new BufferedOutputStream(outputStream,
+					blockSize);
+			if (compress) {
+				archiveTarget = new ParallelGzipOutputStream(archiveTarget,
+						executorService, blockSize, compressionLevel,
+						numberOfThreads * 2);
+			}
+
+			TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(
+					archiveTarget);
+			tarArchiveOutputStream
+					.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+			tarArchiveOutputStream
+					.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+
+			long count;
+			boolean written = false;
+			try {
+				count = writeEntries(entries, baseAbsolutePath,
+						tarArchiveOutputStream, executorService);
+				tarArchiveOutputStream.finish();
+				tarArchiveOutputStream.close();
+				written = true;
+			} finally {
+				if (!written) {
+					// a close would finish the archive, and replace the error
+					// with one for the entry left open
+					IOUtils.closeQuietly(tarArchiveOutputStream);
+				}
+			}
+
+			log.info("done!");
+			complete = true;
+			return count;
+
+		} catch (IOException e) {
+			log.error("io exception streaming archive", e);
+			throw new JargonException("io exception streaming archive", e);
+		} finally {
+			executorService.shutdownNow();
+			if (!complete) {
+				// the tar stream may have failed before closing the target
+				IOUtils.closeQuietly(outputStream);
+			}
+		}
+	}
+
+	/**
+	 * Archive a local file or directory straight into an iRODS data object,
+	 * with no local temporary archive. If the archive fails, the partly
+	 * written data object is removed.
+	 *
+	 * @param sourceFileAbsolutePath
+	 *            {@code String} with the absolute path of a local file or
+	 *            directory
+	 * @param irodsTargetAbsolutePath
+	 *            {@code String} with the absolute path of the iRODS data object
+	 *            to create
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} for the target
+	 * @return {@code long} with the number of files archived
+	 * @throws FileNotFoundException
+	 *             if the source does not exist
+	 * @throws JargonException
+	 */
+	public long archiveToIRODS(final String sourceFileAbsolutePath,
+			final String irodsTargetAbsolutePath,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) throws FileNotFoundException,
+			JargonException {
+
+		log.info("archiveToIRODS()");
+
+		if (irodsTargetAbsolutePath == null
+				|| irodsTargetAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsTargetAbsolutePath");
+		}
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		log.info("irodsTargetAbsolutePath:{}", irodsTargetAbsolutePath);
+
+		IRODSFileFactory irodsFileFactory = irodsAccessObjectFactory
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFileOutputStream irodsFileOutputStream = irodsFileFactory
+				.instanceIRODSFileOutputStream(irodsTargetAbsolutePath);
+		boolean complete = false;
+		try {
+			long count = archiveToStream(sourceFileAbsolutePath,
+					irodsFileOutputStream);
+			complete = true;
+			return count;
+		} finally {
+			if (!complete) {
+				deletePartialTarget(irodsFileFactory, irodsTargetAbsolutePath);
+			}
+		}
+	}
+
+	private void deletePartialTarget(final IRODSFileFactory irodsFileFactory,
+			final String irodsTargetAbsolutePath) {
+		log.warn("removing partial archive:{}", irodsTargetAbsolutePath);
+		try {
+			irodsFileFactory.instanceIRODSFile(irodsTargetAbsolutePath)
+					.deleteWithForceOption();
+		} catch (Exception e) {
+			log.error("unable to remove partial archive, logged and ignored", e);
+		}
+	}
+
+	private List<File> listEntries(final File sourceFile) throws IOException {
+		final List<File> entries = new ArrayList<File>();
+		Files.walkFileTree(sourceFile.toPath(), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(final Path dir,
+					final BasicFileAttributes attrs) {
+				entries.add(dir.toFile());
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(final Path file,
+					final BasicFileAttributes attrs) {
+				if (attrs.isRegularFile()) {
+					entries.add(file.toFile());
+				} else {
+					log.warn("skipping file that is not a regular file:{}", file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return entries;
+	}
+
+	private long writeEntries(final List<File> entries,
+			final String baseAbsolutePath,
+			final TarArchiveOutputStream tarArchiveOutputStream,
+			final ExecutorService executorService) throws IOException {
+
+		List<Future<byte[]>> readAhead = new ArrayList<Future<byte[]>>(
+				entries.size());
+		int readAheadLimit = numberOfThreads * 4;
+		int nextToSubmit = 0;
+		long count = 0;
+
+		for (int i = 0; i < entries.size(); i++) {
+			while (nextToSubmit < entries.size()
+					&& nextToSubmit < i + readAheadLimit) {
+				readAhead.add(submitReadAhead(entries.get(nextToSubmit),
+						executorService));
+				nextToSubmit++;
+			}
+
+			File file = entries.get(i);
+			TarArchiveEntry entry = new TarArchiveEntry(file,
+					entryName(file, baseAbsolutePath));
+			tarArchiveOutputStream.putArchiveEntry(entry);
+
+			if (file.isFile()) {
+				Future<byte[]> contents = readAhead.get(i);
+				readAhead.set(i, null);
+				if (contents != null) {
+					tarArchiveOutputStream.write(waitForContents(contents));
+				} else {
+					InputStream fileIn = new FileInputStream(file);
+					try {
+						IOUtils.copyLarge(fileIn, tarArchiveOutputStream);
+					} finally {
+						fileIn.close();
+					}
+				}
+				count++;
+			}
+
+			tarArchiveOutputStream.closeArchiveEntry();
+		}
+
+		return count;
+	}
+
+	private Future<byte[]> submitReadAhead(final File file,
+			final ExecutorService executorService) {
+		if (!file.isFile() || file.length() > readAheadMaxFileSize) {
+			return null;
+		}
+
+		return executorService.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return Files.readAllBytes(file.toPath());
+			}
+		});
+	}
+
+	private byte[] waitForContents(final Future<byte[]> contents)
+			throws IOException {
+		try {
+			return contents.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted reading file");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("error reading file", e.getCause());
+		}
+	}
+
+	private String entryName(final File file, final String baseAbsolutePath) {
+		String name = file.getAbsolutePath()
+				.substring(baseAbsolutePath.length())
+				.replace(File.separatorChar, '/');
+		while (name.startsWith("/")) {
+			name = name.substring(1);
+		}
+		return name;
+	}
+
+	/**
+	 * @return the compressionLevel
+	 */
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * @param compressionLevel
+	 *            the {@link Deflater} compression level to set
+	 */
+	public void setCompressionLevel(final int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * @return the blockSize
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * @param blockSize
+	 *            the size of each parallel compressed block to set
+	 */
+	public void setBlockSize(final int blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * @return the readAheadMaxFileSize
+	 */
+	public int getReadAheadMaxFileSize() {
+		return readAheadMaxFileSize;
+	}
+
+	/**
+	 * @param readAheadMaxFileSize
+	 *            the largest file that is read ahead in parallel
+	 */
+	public void setReadAheadMaxFileSize(final int readAheadMaxFileSize) {
+		this.readAheadMaxFileSize = readAheadMaxFileSize;
+	}
+
+	/**
+	 * @return the numberOfThreads
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @return {@code boolean} that is {@code true} if the tar is gzipped
+	 */
+	public boolean isCompress() {
+		return compress;
+	}
+
+}
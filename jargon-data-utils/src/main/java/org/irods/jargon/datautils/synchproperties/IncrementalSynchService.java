@@ -0,0 +1,60 @@
+package org.irods.jargon.datautils.synchproperties;
+
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.datautils.DataUtilsService;
+
+/**
+ * Works out what has changed on either side of a synch since the timestamps
+ * recorded by {@link SynchPropertiesService}, so that a synch costs in
+ * proportion to the changes rather than the size of the tree. iRODS is asked
+ * for the data objects and collections modified since the last iRODS synch
+ * time, and the local side is given by a {@link LocalChangeTracker}.
+ * <p>
+ * Once the plan has been carried out, record the synch with
+ * {@link SynchPropertiesService#updateTimestampsToCurrent(String, String, String)}
+ * so that the next plan starts from there.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface IncrementalSynchService extends DataUtilsService {
+
+	/**
+	 * Build the plan for the synch configured for a user and device
+	 *
+	 * @param userName
+	 *            {@code String} with the iRODS user name for the synch
+	 * @param deviceName
+	 *            {@code String} with the given name for the device
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path to the iRODS
+	 *            collection that is the root of the synchronization
+	 * @param localChangeTracker
+	 *            {@link LocalChangeTracker} watching the local synch root, or
+	 *            {@code null} to walk the local tree
+	 * @return {@link SynchPlan} with the changes on either side
+	 * @throws DataNotFoundException
+	 *             if no synch is configured
+	 * @throws JargonException
+	 */
+	SynchPlan buildSynchPlan(String userName, String deviceName,
+			String irodsAbsolutePath, LocalChangeTracker localChangeTracker)
+			throws DataNotFoundException, JargonException;
+
+	/**
+	 * Build the plan for a synch target
+	 *
+	 * @param userSynchTarget
+	 *            {@link UserSynchTarget} with the roots and last synch
+	 *            timestamps
+	 * @param localChangeTracker
+	 *            {@link LocalChangeTracker} watching the local synch root, or
+	 *            {@code null} to walk the local tree
+	 * @return {@link SynchPlan} with the changes on either side
+	 * @throws JargonException
+	 */
+	SynchPlan buildSynchPlan(UserSynchTarget userSynchTarget,
+			LocalChangeTracker localChangeTracker) throws JargonException;
+
+}
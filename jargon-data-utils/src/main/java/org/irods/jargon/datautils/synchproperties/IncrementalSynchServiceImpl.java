@@ -0,0 +1,308 @@
+package org.irods.jargon.datautils.synchproperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.irods.jargon.datautils.AbstractDataUtilsServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds incremental synch plans from the iRODS catalog modify times and a
+ * local change tracker
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class IncrementalSynchServiceImpl extends AbstractDataUtilsServiceImpl
+		implements IncrementalSynchService {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(IncrementalSynchServiceImpl.class);
+
+	/**
+	 * Default (no-values) constructor. The account and
+	 * {@code IRODSAccessObjectFactory} need to be initialized via the setter
+	 * methods.
+	 */
+	public IncrementalSynchServiceImpl() {
+		super();
+	}
+
+	/**
+	 * Constructor initializes dependencies. These can also be set after using
+	 * the default constructor.
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that can create various
+	 *            access objects to interact with iRODS
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that describes the user and server
+	 *            to connect to
+	 */
+	public IncrementalSynchServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		super(irodsAccessObjectFactory, irodsAccount);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.synchproperties.IncrementalSynchService#
+	 * buildSynchPlan(java.lang.String, java.lang.String, java.lang.String,
+	 * org.irods.jargon.datautils.synchproperties.LocalChangeTracker)
+	 */
+	@Override
+	public SynchPlan buildSynchPlan(final String userName,
+			final String deviceName, final String irodsAbsolutePath,
+			final LocalChangeTracker localChangeTracker)
+			throws DataNotFoundException, JargonException {
+
+		checkContracts();
+
+		SynchPropertiesService synchPropertiesService = new SynchPropertiesServiceImpl(
+				irodsAccessObjectFactory, irodsAccount);
+		UserSynchTarget userSynchTarget = synchPropertiesService
+				.getUserSynchTargetForUserAndAbsolutePath(userName,
+						deviceName, irodsAbsolutePath);
+		return buildSynchPlan(userSynchTarget, localChangeTracker);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.synchproperties.IncrementalSynchService#
+	 * buildSynchPlan
+	 * (org.irods.jargon.datautils.synchproperties.UserSynchTarget,
+	 * org.irods.jargon.datautils.synchproperties.LocalChangeTracker)
+	 */
+	@Override
+	public SynchPlan buildSynchPlan(final UserSynchTarget userSynchTarget,
+			final LocalChangeTracker localChangeTracker)
+			throws JargonException {
+
+		if (userSynchTarget == null) {
+			throw new IllegalArgumentException("null userSynchTarget");
+		}
+
+		checkContracts();
+
+		log.info("buildSynchPlan for:{}", userSynchTarget);
+
+		String irodsRoot = normalizeRoot(userSynchTarget
+				.getIrodsSynchRootAbsolutePath());
+		Map<String, Boolean> irodsChanges = findIrodsChanges(irodsRoot,
+				userSynchTarget.getLastIRODSSynchTimestamp());
+		log.info("{} iRODS changes", irodsChanges.size());
+
+		Map<String, Boolean> localChanges;
+		try {
+			if (localChangeTracker == null) {
+				localChanges = LocalChangeTracker.scanForChanges(new File(
+						userSynchTarget.getLocalSynchRootAbsolutePath()),
+						userSynchTarget.getLastLocalSynchTimestamp());
+			} else {
+				localChanges = localChangeTracker
+						.collectChanges(userSynchTarget
+								.getLastLocalSynchTimestamp());
+			}
+		} catch (IOException e) {
+			log.error("io exception finding local changes", e);
+			throw new JargonException("error finding local changes", e);
+		}
+
+		SynchPlan synchPlan = buildSynchPlan(userSynchTarget, irodsChanges,
+				localChanges);
+		log.info("synch plan:{}", synchPlan);
+		return synchPlan;
+	}
+
+	/**
+	 * Pair up the changes on each side into a plan. A path changed on both
+	 * sides is a conflict, unless both are directories, as there is then
+	 * nothing to move.
+	 *
+	 * @param userSynchTarget
+	 *            {@link UserSynchTarget} with the roots of the synch
+	 * @param irodsChanges
+	 *            {@code Map} of changed relative paths in iRODS to
+	 *            {@code Boolean} that is {@code true} for a collection
+	 * @param localChanges
+	 *            {@code Map} of changed local relative paths to
+	 *            {@code Boolean} that is {@code true} for a directory
+	 * @return {@link SynchPlan}
+	 */
+	static SynchPlan buildSynchPlan(final UserSynchTarget userSynchTarget,
+			final Map<String, Boolean> irodsChanges,
+			final Map<String, Boolean> localChanges) {
+
+		String irodsRoot = normalizeRoot(userSynchTarget
+				.getIrodsSynchRootAbsolutePath());
+		File localRoot = new File(
+				userSynchTarget.getLocalSynchRootAbsolutePath());
+
+		TreeSet<String> relativePaths = new TreeSet<String>();
+		relativePaths.addAll(irodsChanges.keySet());
+		relativePaths.addAll(localChanges.keySet());
+
+		List<SynchPlanEntry> entries = new ArrayList<SynchPlanEntry>();
+		for (String relativePath : relativePaths) {
+			Boolean irodsCollection = irodsChanges.get(relativePath);
+			Boolean localDirectory = localChanges.get(relativePath);
+
+			SynchAction synchAction;
+			boolean collection;
+			if (irodsCollection != null && localDirectory != null) {
+				if (irodsCollection && localDirectory) {
+					continue;
+				}
+				synchAction = SynchAction.CONFLICT;
+				collection = false;
+			} else if (localDirectory != null) {
+				synchAction = SynchAction.UPLOAD;
+				collection = localDirectory;
+			} else {
+				synchAction = SynchAction.DOWNLOAD;
+				collection = irodsCollection;
+			}
+
+			entries.add(new SynchPlanEntry(synchAction, relativePath,
+					new File(localRoot, relativePath).getAbsolutePath(),
+					irodsRoot + "/" + relativePath, collection));
+		}
+
+		return new SynchPlan(userSynchTarget, entries);
+	}
+
+	/**
+	 * Query for the data objects and collections under the root modified at
+	 * or after the given time. The catalog keeps modify times in seconds, so
+	 * the time is rounded down, and a change in the same second as the last
+	 * synch is found again rather than missed.
+	 */
+	private Map<String, Boolean> findIrodsChanges(final String irodsRoot,
+			final long sinceIrodsTimestamp) throws JargonException {
+
+		String sinceSeconds = String.valueOf(sinceIrodsTimestamp / 1000);
+		log.info("finding iRODS changes since:{}", sinceSeconds);
+		Map<String, Boolean> changes = new TreeMap<String, Boolean>();
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_NAME,
+							QueryConditionOperators.LIKE,
+							irodsRoot + "/%")
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_MODIFY_TIME,
+							QueryConditionOperators.NUMERIC_GREATER_THAN_OR_EQUAL_TO,
+							sinceSeconds);
+			for (IRODSQueryResultRow row : executePaged(builder, irodsRoot)) {
+				addChange(changes, irodsRoot, row.getColumn(0), true);
+			}
+
+			QueryConditionOperators[] operators = {
+					QueryConditionOperators.EQUAL,
+					QueryConditionOperators.LIKE };
+			String[] values = { irodsRoot, irodsRoot + "/%" };
+
+			for (int i = 0; i < operators.length; i++) {
+				builder = new IRODSGenQueryBuilder(true, null);
+				builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+						.addSelectAsGenQueryValue(
+								RodsGenQueryEnum.COL_DATA_NAME)
+						.addConditionAsGenQueryField(
+								RodsGenQueryEnum.COL_COLL_NAME, operators[i],
+								values[i])
+						.addConditionAsGenQueryField(
+								RodsGenQueryEnum.COL_D_MODIFY_TIME,
+								QueryConditionOperators.NUMERIC_GREATER_THAN_OR_EQUAL_TO,
+								sinceSeconds);
+				for (IRODSQueryResultRow row : executePaged(builder, irodsRoot)) {
+					addChange(changes, irodsRoot,
+							MiscIRODSUtils
+									.buildAbsolutePathFromCollectionParentAndFileName(
+											row.getColumn(0),
+											row.getColumn(1)), false);
+				}
+			}
+		} catch (GenQueryBuilderException e) {
+			log.error("query exception finding iRODS changes", e);
+			throw new JargonException("error in query for iRODS changes", e);
+		}
+
+		return changes;
+	}
+
+	/**
+	 * {@code LIKE} treats {@code _} as a wildcard, so recheck that a path is
+	 * under the root
+	 */
+	private static void addChange(final Map<String, Boolean> changes,
+			final String irodsRoot, final String absolutePath,
+			final boolean collection) {
+		if (absolutePath.startsWith(irodsRoot + "/")) {
+			changes.put(absolutePath.substring(irodsRoot.length() + 1),
+					collection);
+		}
+	}
+
+	private List<IRODSQueryResultRow> executePaged(
+			final IRODSGenQueryBuilder builder, final String irodsRoot)
+			throws GenQueryBuilderException, JargonException {
+
+		String zone = MiscIRODSUtils.getZoneInPath(irodsRoot);
+		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory
+				.getIRODSGenQueryExecutor(irodsAccount);
+		IRODSGenQueryFromBuilder irodsQuery = builder
+				.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+						.getJargonProperties().getMaxFilesAndDirsQueryMax());
+
+		List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+		try {
+			IRODSQueryResultSet resultSet = irodsGenQueryExecutor
+					.executeIRODSQueryInZone(irodsQuery, 0, zone);
+			rows.addAll(resultSet.getResults());
+			while (resultSet.isHasMoreRecords()) {
+				resultSet = irodsGenQueryExecutor.getMoreResultsInZone(
+						resultSet, zone);
+				rows.addAll(resultSet.getResults());
+			}
+		} catch (JargonQueryException e) {
+			log.error("query exception finding iRODS changes", e);
+			throw new JargonException("error in query for iRODS changes", e);
+		}
+		return rows;
+	}
+
+	private static String normalizeRoot(final String irodsRoot) {
+		if (irodsRoot.length() > 1 && irodsRoot.endsWith("/")) {
+			return irodsRoot.substring(0, irodsRoot.length() - 1);
+		}
+		return irodsRoot;
+	}
+
+}
@@ -0,0 +1,292 @@
+package org.irods.jargon.datautils.synchproperties;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the files and directories changed under a local synch root, using a
+ * {@link WatchService}, so that a synch need not walk the whole tree. Create
+ * one when a synch client starts, keep it open, and collect its changes at
+ * each synch.
+ * <p>
+ * The events cover changes from when the tracker was created, or last
+ * collected. If they do not cover the time asked for, because the tracker is
+ * newer than the last synch, or events were lost to an overflow, the tree is
+ * walked instead, comparing modify times.
+ * <p>
+ * Either way, only files and directories modified at or after the time asked
+ * for are returned, so that files written by the last synch itself are not
+ * sent back. Deletes are not tracked.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class LocalChangeTracker implements Closeable {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(LocalChangeTracker.class);
+
+	private final File rootDirectory;
+	private final Path rootPath;
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+
+	/**
+	 * Relative paths seen in events since the last collection, with whether
+	 * each is a directory
+	 */
+	private final Map<String, Boolean> changedPaths = new TreeMap<String, Boolean>();
+
+	/**
+	 * Local time from which events are complete
+	 */
+	private long coveredFrom;
+
+	private boolean overflowed = false;
+
+	/**
+	 * Start watching a local directory, and every directory below it
+	 *
+	 * @param rootDirectory
+	 *            {@code File} with the local synch root directory
+	 * @throws IOException
+	 */
+	public LocalChangeTracker(final File rootDirectory) throws IOException {
+
+		if (rootDirectory == null) {
+			throw new IllegalArgumentException("null rootDirectory");
+		}
+
+		if (!rootDirectory.isDirectory()) {
+			throw new IllegalArgumentException(
+					"rootDirectory is not a directory");
+		}
+
+		this.rootDirectory = rootDirectory;
+		rootPath = rootDirectory.getAbsoluteFile().toPath();
+		coveredFrom = System.currentTimeMillis();
+		watchService = rootPath.getFileSystem().newWatchService();
+		log.info("watching for changes under:{}", rootPath);
+		registerTree(rootPath, false);
+	}
+
+	/**
+	 * Collect the files and directories changed since the given time, and
+	 * start collecting afresh
+	 *
+	 * @param sinceLocalTimestamp
+	 *            {@code long} with the local time of the last synch, in
+	 *            epoch millis
+	 * @return {@code Map} of changed relative paths, with {@code /}
+	 *         separators, to {@code Boolean} that is {@code true} for a
+	 *         directory, in path order
+	 * @throws IOException
+	 */
+	public synchronized Map<String, Boolean> collectChanges(
+			final long sinceLocalTimestamp) throws IOException {
+
+		long collectedAt = System.currentTimeMillis();
+		processEvents();
+
+		Map<String, Boolean> changes;
+		if (overflowed || sinceLocalTimestamp < coveredFrom) {
+			log.info("events do not cover changes since:{}, walking tree",
+					sinceLocalTimestamp);
+			changes = scanForChanges(rootDirectory, sinceLocalTimestamp);
+		} else {
+			changes = new TreeMap<String, Boolean>();
+			for (Map.Entry<String, Boolean> entry : changedPaths.entrySet()) {
+				File changed = new File(rootDirectory, entry.getKey());
+				if (changed.exists()
+						&& changed.lastModified() >= sinceLocalTimestamp) {
+					changes.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		changedPaths.clear();
+		overflowed = false;
+		coveredFrom = collectedAt;
+		log.info("{} local changes", changes.size());
+		return changes;
+	}
+
+	/**
+	 * Walk a local tree for the files and directories modified since the given
+	 * time, for use without a tracker
+	 *
+	 * @param rootDirectory
+	 *            {@code File} with the local synch root directory
+	 * @param sinceLocalTimestamp
+	 *            {@code long} with the local time of the last synch, in
+	 *            epoch millis
+	 * @return {@code Map} of changed relative paths, with {@code /}
+	 *         separators, to {@code Boolean} that is {@code true} for a
+	 *         directory, in path order
+	 * @throws IOException
+	 */
+	public static Map<String, Boolean> scanForChanges(
+			final File rootDirectory, final long sinceLocalTimestamp)
+			throws IOException {
+
+		if (rootDirectory == null) {
+			throw new IllegalArgumentException("null rootDirectory");
+		}
+
+		final Path root = rootDirectory.getAbsoluteFile().toPath();
+		final Map<String, Boolean> changes = new TreeMap<String, Boolean>();
+
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(final Path dir,
+					final BasicFileAttributes attrs) throws IOException {
+				if (!dir.equals(root)
+						&& attrs.lastModifiedTime().toMillis() >= sinceLocalTimestamp) {
+					changes.put(relativePath(root, dir), Boolean.TRUE);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(final Path file,
+					final BasicFileAttributes attrs) throws IOException {
+				if (attrs.isRegularFile()
+						&& attrs.lastModifiedTime().toMillis() >= sinceLocalTimestamp) {
+					changes.put(relativePath(root, file), Boolean.FALSE);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(final Path file,
+					final IOException exc) throws IOException {
+				log.warn("unable to read, skipped:{}", file);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		return changes;
+	}
+
+	/**
+	 * Drain the queued events into the changed paths, without waiting
+	 */
+	private void processEvents() throws IOException {
+		WatchKey key;
+		while ((key = watchService.poll()) != null) {
+			Path dir = watchedDirectories.get(key);
+
+			for (WatchEvent<?> event : key.pollEvents()) {
+				WatchEvent.Kind<?> kind = event.kind();
+				if (kind == StandardWatchEventKinds.OVERFLOW) {
+					log.warn("watch events overflowed");
+					overflowed = true;
+					continue;
+				}
+
+				if (dir == null) {
+					continue;
+				}
+
+				Path child = dir.resolve((Path) event.context());
+				String relative = relativePath(rootPath, child);
+
+				if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+					changedPaths.remove(relative);
+				} else if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+					// a modify of a directory is a change to its entries
+					if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+						registerTree(child, true);
+					}
+				} else {
+					changedPaths.put(relative, Boolean.FALSE);
+				}
+			}
+
+			if (!key.reset()) {
+				watchedDirectories.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Watch a directory and those below it. A new directory may be filled
+	 * before it is watched, so its contents are recorded as changed.
+	 */
+	private void registerTree(final Path start, final boolean recordContents)
+			throws IOException {
+
+		Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(final Path dir,
+					final BasicFileAttributes attrs) throws IOException {
+				WatchKey key = dir.register(watchService,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_DELETE);
+				watchedDirectories.put(key, dir);
+				if (recordContents) {
+					changedPaths.put(relativePath(rootPath, dir), Boolean.TRUE);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(final Path file,
+					final BasicFileAttributes attrs) throws IOException {
+				if (recordContents && attrs.isRegularFile()) {
+					changedPaths.put(relativePath(rootPath, file),
+							Boolean.FALSE);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(final Path file,
+					final IOException exc) throws IOException {
+				log.warn("unable to watch, skipped:{}", file);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	static String relativePath(final Path root, final Path path) {
+		return root.relativize(path).toString()
+				.replace(File.separatorChar, '/');
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		log.info("closing change tracker for:{}", rootPath);
+		watchService.close();
+	}
+
+	public File getRootDirectory() {
+		return rootDirectory;
+	}
+
+}
@@ -0,0 +1,27 @@
+package org.irods.jargon.datautils.synchproperties;
+
+/**
+ * What an incremental synch should do with a changed file or collection
+ * 
+ * @author Mike Conway - DICE (www.irods.org)
+ * 
+ */
+public enum SynchAction {
+
+	/**
+	 * Changed locally since the last synch, put to iRODS
+	 */
+	UPLOAD,
+
+	/**
+	 * Changed in iRODS since the last synch, get to the local file system
+	 */
+	DOWNLOAD,
+
+	/**
+	 * Changed on both sides since the last synch, left to the caller to
+	 * resolve
+	 */
+	CONFLICT
+
+}
@@ -0,0 +1,94 @@
+package org.irods.jargon.datautils.synchproperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The files and collections changed on either side of a synch since the last
+ * synch, and what to do with each. Entries are ordered by relative path, so a
+ * new collection comes before its contents.
+ * <p>
+ * Deletes are not included, as they leave no modify time to find.
+ * 
+ * @author Mike Conway - DICE (www.irods.org)
+ * 
+ */
+public final class SynchPlan {
+
+	private final UserSynchTarget userSynchTarget;
+
+	private final List<SynchPlanEntry> synchPlanEntries;
+
+	public SynchPlan(final UserSynchTarget userSynchTarget,
+			final List<SynchPlanEntry> synchPlanEntries) {
+
+		if (userSynchTarget == null) {
+			throw new IllegalArgumentException("null userSynchTarget");
+		}
+
+		if (synchPlanEntries == null) {
+			throw new IllegalArgumentException("null synchPlanEntries");
+		}
+
+		this.userSynchTarget = userSynchTarget;
+		this.synchPlanEntries = Collections
+				.unmodifiableList(new ArrayList<SynchPlanEntry>(
+						synchPlanEntries));
+	}
+
+	/**
+	 * Get the entries with the given action, in relative path order
+	 * 
+	 * @param synchAction
+	 *            {@link SynchAction} to select
+	 * @return {@code List} of {@link SynchPlanEntry}
+	 */
+	public List<SynchPlanEntry> getSynchPlanEntries(
+			final SynchAction synchAction) {
+
+		if (synchAction == null) {
+			throw new IllegalArgumentException("null synchAction");
+		}
+
+		List<SynchPlanEntry> entries = new ArrayList<SynchPlanEntry>();
+		for (SynchPlanEntry entry : synchPlanEntries) {
+			if (entry.getSynchAction() == synchAction) {
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if nothing changed on either
+	 *         side
+	 */
+	public boolean isEmpty() {
+		return synchPlanEntries.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SynchPlan");
+		sb.append("\n   userSynchTarget:");
+		sb.append(userSynchTarget);
+		sb.append("\n   entries:");
+		sb.append(synchPlanEntries.size());
+		return sb.toString();
+	}
+
+	public UserSynchTarget getUserSynchTarget() {
+		return userSynchTarget;
+	}
+
+	/**
+	 * @return unmodifiable {@code List} of every {@link SynchPlanEntry}, in
+	 *         relative path order
+	 */
+	public List<SynchPlanEntry> getSynchPlanEntries() {
+		return synchPlanEntries;
+	}
+
+}
@@ -0,0 +1,90 @@
+package org.irods.jargon.datautils.synchproperties;
+
+/**
+ * One file or collection to be synchronized, as part of a {@link SynchPlan}
+ * 
+ * @author Mike Conway - DICE (www.irods.org)
+ * 
+ */
+public final class SynchPlanEntry {
+
+	private final SynchAction synchAction;
+
+	/**
+	 * Path below the synch root, with {@code /} separators
+	 */
+	private final String relativePath;
+
+	private final String localAbsolutePath;
+
+	private final String irodsAbsolutePath;
+
+	private final boolean collection;
+
+	public SynchPlanEntry(final SynchAction synchAction,
+			final String relativePath, final String localAbsolutePath,
+			final String irodsAbsolutePath, final boolean collection) {
+
+		if (synchAction == null) {
+			throw new IllegalArgumentException("null synchAction");
+		}
+
+		if (relativePath == null || relativePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty relativePath");
+		}
+
+		if (localAbsolutePath == null || localAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty localAbsolutePath");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		this.synchAction = synchAction;
+		this.relativePath = relativePath;
+		this.localAbsolutePath = localAbsolutePath;
+		this.irodsAbsolutePath = irodsAbsolutePath;
+		this.collection = collection;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SynchPlanEntry");
+		sb.append("\n   synchAction:");
+		sb.append(synchAction);
+		sb.append("\n   relativePath:");
+		sb.append(relativePath);
+		sb.append("\n   collection:");
+		sb.append(collection);
+		return sb.toString();
+	}
+
+	public SynchAction getSynchAction() {
+		return synchAction;
+	}
+
+	public String getRelativePath() {
+		return relativePath;
+	}
+
+	public String getLocalAbsolutePath() {
+		return localAbsolutePath;
+	}
+
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if this is a directory or
+	 *         collection, which need only be created on the other side
+	 */
+	public boolean isCollection() {
+		return collection;
+	}
+
+}
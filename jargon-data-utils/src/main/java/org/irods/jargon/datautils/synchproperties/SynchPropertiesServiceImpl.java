@@ -37,7 +37,7 @@ public class SynchPropertiesServiceImpl extends AbstractDataUtilsServiceImpl
 	 * 
 	 * in synch root dir
 	 * 
-	 * [user name]:[device] | [lastLocalSynch | lastIrodsSynch | localAbsPath] |
+	 * [user name]:[device] | [lastIrodsSynch ~ lastLocalSynch ~ localAbsPath] |
 	 * iRODSSynch:userSynchDir
 	 */
 
@@ -317,8 +317,8 @@ public class SynchPropertiesServiceImpl extends AbstractDataUtilsServiceImpl
 				.getCollectionAO(getIrodsAccount());
 		String attrib = buildAvuAttribForSynchUtilTarget(userName, deviceName);
 		String value = buildAvuValueForSynchUtilTarget(
-				synchTimestamps.getLocalSynchTimestamp(),
 				synchTimestamps.getIrodsSynchTimestamp(),
+				synchTimestamps.getLocalSynchTimestamp(),
 				existingUserSynchTarget.getLocalSynchRootAbsolutePath());
 		AvuData avuData = AvuData.instance(attrib, value,
 				SynchPropertiesService.USER_SYNCH_DIR_TAG);
@@ -532,14 +532,18 @@ public class SynchPropertiesServiceImpl extends AbstractDataUtilsServiceImpl
 		return userDevAttrib.toString();
 	}
 
+	/**
+	 * Build the AVU value in the order read by
+	 * {@link #buildUserSynchTargetFromMetaDataAndDomainData(MetaDataAndDomainData)}
+	 */
 	private String buildAvuValueForSynchUtilTarget(
-			final long localLastSynchTimestamp,
-			final long irodsLastSynchTimestamp, final String localAbsolutePath) {
+			final long irodsLastSynchTimestamp,
+			final long localLastSynchTimestamp, final String localAbsolutePath) {
 		StringBuilder sb = new StringBuilder();
-		sb.append(localLastSynchTimestamp);
-		sb.append(SEPARATOR);
 		sb.append(irodsLastSynchTimestamp);
 		sb.append(SEPARATOR);
+		sb.append(localLastSynchTimestamp);
+		sb.append(SEPARATOR);
 		sb.append(localAbsolutePath);
 		return sb.toString();
 	}
@@ -1,6 +1,8 @@
 /**
  * This utility package provides facilities to maintain information on a client devices synchronizing with iRODS.  This is meant to abstract out standard metadata
  * about the status of client->iRODS applications for general purposes. 
+ * <p>
+ * {@link org.irods.jargon.datautils.synchproperties.IncrementalSynchService} uses the recorded timestamps to plan a synch from only what has changed since.
  */
 package org.irods.jargon.datautils.synchproperties;
 
@@ -0,0 +1,213 @@
+package org.irods.jargon.datautils.transferqueue;
+
+/**
+ * A transfer held in a {@link TransferQueueManager}, with its progress through
+ * the queue. Instances handed out by the manager are copies, and do not change
+ * as the transfer proceeds.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class QueuedTransfer {
+
+	public enum TransferType {
+		PUT, GET
+	}
+
+	public enum QueueStatus {
+		QUEUED, RUNNING, COMPLETE, FAILED, CANCELLED
+	}
+
+	private long id = 0L;
+	private TransferType transferType = TransferType.PUT;
+	private QueueStatus queueStatus = QueueStatus.QUEUED;
+	private String localAbsolutePath = "";
+	private String irodsAbsolutePath = "";
+	private String resourceName = "";
+
+	/**
+	 * Identifies the account of the transfer, without the password, so that
+	 * the account can be matched again after a restart
+	 */
+	private String accountKey = "";
+
+	/**
+	 * iRODS host of the account, for the concurrency limit
+	 */
+	private String host = "";
+
+	/**
+	 * Attempts started, including one in progress
+	 */
+	private int attempts = 0;
+
+	private long enqueuedAt = 0L;
+
+	/**
+	 * Time before which the transfer is not tried again, after a failure
+	 */
+	private long nextAttemptAt = 0L;
+
+	private String lastErrorMessage = "";
+
+	public QueuedTransfer() {
+	}
+
+	/**
+	 * Copy constructor
+	 *
+	 * @param queuedTransfer
+	 *            {@link QueuedTransfer} to copy
+	 */
+	public QueuedTransfer(final QueuedTransfer queuedTransfer) {
+		if (queuedTransfer == null) {
+			throw new IllegalArgumentException("null queuedTransfer");
+		}
+		id = queuedTransfer.id;
+		transferType = queuedTransfer.transferType;
+		queueStatus = queuedTransfer.queueStatus;
+		localAbsolutePath = queuedTransfer.localAbsolutePath;
+		irodsAbsolutePath = queuedTransfer.irodsAbsolutePath;
+		resourceName = queuedTransfer.resourceName;
+		accountKey = queuedTransfer.accountKey;
+		host = queuedTransfer.host;
+		attempts = queuedTransfer.attempts;
+		enqueuedAt = queuedTransfer.enqueuedAt;
+		nextAttemptAt = queuedTransfer.nextAttemptAt;
+		lastErrorMessage = queuedTransfer.lastErrorMessage;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if the transfer will not run
+	 *         again
+	 */
+	public boolean isFinished() {
+		return queueStatus == QueueStatus.COMPLETE
+				|| queueStatus == QueueStatus.FAILED
+				|| queueStatus == QueueStatus.CANCELLED;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(final long id) {
+		this.id = id;
+	}
+
+	public TransferType getTransferType() {
+		return transferType;
+	}
+
+	public void setTransferType(final TransferType transferType) {
+		this.transferType = transferType;
+	}
+
+	public QueueStatus getQueueStatus() {
+		return queueStatus;
+	}
+
+	public void setQueueStatus(final QueueStatus queueStatus) {
+		this.queueStatus = queueStatus;
+	}
+
+	public String getLocalAbsolutePath() {
+		return localAbsolutePath;
+	}
+
+	public void setLocalAbsolutePath(final String localAbsolutePath) {
+		this.localAbsolutePath = localAbsolutePath;
+	}
+
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	public void setIrodsAbsolutePath(final String irodsAbsolutePath) {
+		this.irodsAbsolutePath = irodsAbsolutePath;
+	}
+
+	public String getResourceName() {
+		return resourceName;
+	}
+
+	public void setResourceName(final String resourceName) {
+		this.resourceName = resourceName;
+	}
+
+	public String getAccountKey() {
+		return accountKey;
+	}
+
+	public void setAccountKey(final String accountKey) {
+		this.accountKey = accountKey;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public void setHost(final String host) {
+		this.host = host;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(final int attempts) {
+		this.attempts = attempts;
+	}
+
+	public long getEnqueuedAt() {
+		return enqueuedAt;
+	}
+
+	public void setEnqueuedAt(final long enqueuedAt) {
+		this.enqueuedAt = enqueuedAt;
+	}
+
+	public long getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public void setNextAttemptAt(final long nextAttemptAt) {
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+	public String getLastErrorMessage() {
+		return lastErrorMessage;
+	}
+
+	public void setLastErrorMessage(final String lastErrorMessage) {
+		this.lastErrorMessage = lastErrorMessage;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("QueuedTransfer");
+		sb.append("\n   id:");
+		sb.append(id);
+		sb.append("\n   transferType:");
+		sb.append(transferType);
+		sb.append("\n   queueStatus:");
+		sb.append(queueStatus);
+		sb.append("\n   localAbsolutePath:");
+		sb.append(localAbsolutePath);
+		sb.append("\n   irodsAbsolutePath:");
+		sb.append(irodsAbsolutePath);
+		sb.append("\n   resourceName:");
+		sb.append(resourceName);
+		sb.append("\n   accountKey:");
+		sb.append(accountKey);
+		sb.append("\n   attempts:");
+		sb.append(attempts);
+		sb.append("\n   nextAttemptAt:");
+		sb.append(nextAttemptAt);
+		sb.append("\n   lastErrorMessage:");
+		sb.append(lastErrorMessage);
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,220 @@
+package org.irods.jargon.datautils.transferqueue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.irods.jargon.core.transfer.TransferPriority;
+
+/**
+ * Settings for a {@link TransferQueueManager}. Set these before the manager is
+ * created.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TransferQueueConfiguration {
+
+	/**
+	 * File holding the journal of queued transfers, required
+	 */
+	private File journalFile = null;
+
+	/**
+	 * Directory to keep long file restarts in, so that a transfer interrupted
+	 * by the end of the JVM resumes where it left off. If {@code null}, the
+	 * restart manager of the session is left as it is.
+	 */
+	private File restartDirectory = null;
+
+	private int numberOfWorkers = 4;
+
+	/**
+	 * Transfers run at once against one iRODS host, unless set for the host in
+	 * {@link #setMaxTransfersForHost(String, int)}
+	 */
+	private int maxTransfersPerHost = 2;
+
+	private final Map<String, Integer> maxTransfersByHost = new HashMap<String, Integer>();
+
+	/**
+	 * Attempts at a transfer before it is failed
+	 */
+	private int maxAttempts = 5;
+
+	/**
+	 * Wait after the first failed attempt, doubled after each further one
+	 */
+	private long initialBackoffMillis = 1000L;
+
+	private long maxBackoffMillis = 5L * 60L * 1000L;
+
+	/**
+	 * Force each journal record to disk before going on
+	 */
+	private boolean syncJournal = true;
+
+	/**
+	 * Records written to the journal before it is rewritten without the
+	 * finished transfers
+	 */
+	private int journalCompactionThreshold = 1000;
+
+	/**
+	 * Replace existing targets. A transfer that fails part way leaves a
+	 * partial target, so without this a retry may fail as an overwrite.
+	 */
+	private boolean forceOverwrite = true;
+
+	private TransferPriority transferPriority = TransferPriority.BULK;
+
+	/**
+	 * Maximum transfers run at once against the given host
+	 *
+	 * @param host
+	 *            {@code String} with the iRODS host name
+	 * @return {@code int} with the limit for the host
+	 */
+	public synchronized int getMaxTransfersForHost(final String host) {
+		Integer max = maxTransfersByHost.get(host);
+		return max == null ? maxTransfersPerHost : max;
+	}
+
+	/**
+	 * Set the maximum transfers run at once against one host, in place of
+	 * {@link #getMaxTransfersPerHost()}
+	 *
+	 * @param host
+	 *            {@code String} with the iRODS host name
+	 * @param maxTransfers
+	 *            {@code int} with the limit for the host
+	 */
+	public synchronized void setMaxTransfersForHost(final String host,
+			final int maxTransfers) {
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("null or empty host");
+		}
+		if (maxTransfers < 1) {
+			throw new IllegalArgumentException("maxTransfers must be at least 1");
+		}
+		maxTransfersByHost.put(host, maxTransfers);
+	}
+
+	public File getJournalFile() {
+		return journalFile;
+	}
+
+	public void setJournalFile(final File journalFile) {
+		this.journalFile = journalFile;
+	}
+
+	public File getRestartDirectory() {
+		return restartDirectory;
+	}
+
+	public void setRestartDirectory(final File restartDirectory) {
+		this.restartDirectory = restartDirectory;
+	}
+
+	public int getNumberOfWorkers() {
+		return numberOfWorkers;
+	}
+
+	public void setNumberOfWorkers(final int numberOfWorkers) {
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	public synchronized int getMaxTransfersPerHost() {
+		return maxTransfersPerHost;
+	}
+
+	public synchronized void setMaxTransfersPerHost(
+			final int maxTransfersPerHost) {
+		this.maxTransfersPerHost = maxTransfersPerHost;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts(final int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getInitialBackoffMillis() {
+		return initialBackoffMillis;
+	}
+
+	public void setInitialBackoffMillis(final long initialBackoffMillis) {
+		this.initialBackoffMillis = initialBackoffMillis;
+	}
+
+	public long getMaxBackoffMillis() {
+		return maxBackoffMillis;
+	}
+
+	public void setMaxBackoffMillis(final long maxBackoffMillis) {
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	public boolean isSyncJournal() {
+		return syncJournal;
+	}
+
+	public void setSyncJournal(final boolean syncJournal) {
+		this.syncJournal = syncJournal;
+	}
+
+	public int getJournalCompactionThreshold() {
+		return journalCompactionThreshold;
+	}
+
+	public void setJournalCompactionThreshold(
+			final int journalCompactionThreshold) {
+		this.journalCompactionThreshold = journalCompactionThreshold;
+	}
+
+	public boolean isForceOverwrite() {
+		return forceOverwrite;
+	}
+
+	public void setForceOverwrite(final boolean forceOverwrite) {
+		this.forceOverwrite = forceOverwrite;
+	}
+
+	public TransferPriority getTransferPriority() {
+		return transferPriority;
+	}
+
+	public void setTransferPriority(final TransferPriority transferPriority) {
+		this.transferPriority = transferPriority;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("TransferQueueConfiguration");
+		sb.append("\n   journalFile:");
+		sb.append(journalFile);
+		sb.append("\n   restartDirectory:");
+		sb.append(restartDirectory);
+		sb.append("\n   numberOfWorkers:");
+		sb.append(numberOfWorkers);
+		sb.append("\n   maxTransfersPerHost:");
+		sb.append(maxTransfersPerHost);
+		sb.append("\n   maxAttempts:");
+		sb.append(maxAttempts);
+		sb.append("\n   initialBackoffMillis:");
+		sb.append(initialBackoffMillis);
+		sb.append("\n   maxBackoffMillis:");
+		sb.append(maxBackoffMillis);
+		sb.append("\n   syncJournal:");
+		sb.append(syncJournal);
+		sb.append("\n   forceOverwrite:");
+		sb.append(forceOverwrite);
+		sb.append("\n   transferPriority:");
+		sb.append(transferPriority);
+		return sb.toString();
+	}
+
+}
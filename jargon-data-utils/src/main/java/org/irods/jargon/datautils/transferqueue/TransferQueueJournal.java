@@ -0,0 +1,281 @@
+package org.irods.jargon.datautils.transferqueue;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.QueueStatus;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.TransferType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only journal of the queued transfers. Each change to a transfer is
+ * written as a line holding the whole transfer, and replaying the file keeps
+ * the last line for each transfer. A line cut short by a crash is skipped,
+ * and cut from the end of the file so later records start on a line of their
+ * own.
+ * <p>
+ * Once enough lines are written the journal is rewritten with only the
+ * transfers still to run, or failed, into a temporary file that is moved over
+ * the journal.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class TransferQueueJournal implements Closeable {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TransferQueueJournal.class);
+
+	static final String RECORD_VERSION = "1";
+	private static final int FIELD_COUNT = 13;
+	private static final String ENCODING = "UTF-8";
+
+	private final File journalFile;
+	private final boolean syncJournal;
+	private FileOutputStream outputStream = null;
+	private int recordCount = 0;
+
+	TransferQueueJournal(final File journalFile, final boolean syncJournal) {
+		if (journalFile == null) {
+			throw new IllegalArgumentException("null journalFile");
+		}
+		this.journalFile = journalFile;
+		this.syncJournal = syncJournal;
+	}
+
+	/**
+	 * Read back the transfers in the journal
+	 *
+	 * @return {@code Map} of the last state of each transfer by id
+	 * @throws IOException
+	 */
+	synchronized Map<Long, QueuedTransfer> replay() throws IOException {
+		Map<Long, QueuedTransfer> transfers = new TreeMap<Long, QueuedTransfer>();
+		recordCount = 0;
+		if (!journalFile.exists()) {
+			log.info("no journal yet at:{}", journalFile);
+			return transfers;
+		}
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(journalFile), ENCODING));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				QueuedTransfer queuedTransfer = decode(line);
+				if (queuedTransfer == null) {
+					log.warn("skipping journal record that is not valid:{}",
+							line);
+					continue;
+				}
+				transfers.put(queuedTransfer.getId(), queuedTransfer);
+				recordCount++;
+			}
+		} finally {
+			reader.close();
+		}
+
+		truncateAfterLastNewline();
+
+		log.info("replayed {} records into {} transfers", recordCount,
+				transfers.size());
+		return transfers;
+	}
+
+	/**
+	 * Write the current state of a transfer
+	 *
+	 * @param queuedTransfer
+	 *            {@link QueuedTransfer} to record
+	 * @throws IOException
+	 */
+	synchronized void append(final QueuedTransfer queuedTransfer)
+			throws IOException {
+		if (outputStream == null) {
+			File parent = journalFile.getAbsoluteFile().getParentFile();
+			if (parent != null && !parent.isDirectory()) {
+				parent.mkdirs();
+			}
+			outputStream = new FileOutputStream(journalFile, true);
+		}
+		write(outputStream, queuedTransfer);
+		recordCount++;
+	}
+
+	/**
+	 * Rewrite the journal with only the given transfers
+	 *
+	 * @param queuedTransfers
+	 *            {@code Collection} of {@link QueuedTransfer} to keep
+	 * @throws IOException
+	 */
+	synchronized void compact(final Collection<QueuedTransfer> queuedTransfers)
+			throws IOException {
+		log.info("compacting journal to {} transfers", queuedTransfers.size());
+		close();
+
+		File tempFile = new File(journalFile.getAbsolutePath() + ".tmp");
+		FileOutputStream tempStream = new FileOutputStream(tempFile);
+		try {
+			for (QueuedTransfer queuedTransfer : queuedTransfers) {
+				write(tempStream, queuedTransfer);
+			}
+		} finally {
+			tempStream.close();
+		}
+
+		try {
+			Files.move(tempFile.toPath(), journalFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), journalFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+		recordCount = queuedTransfers.size();
+	}
+
+	/**
+	 * Cut a partial last line, left by a crash during a write, so the next
+	 * append does not run on from it
+	 *
+	 * @throws IOException
+	 */
+	private void truncateAfterLastNewline() throws IOException {
+		RandomAccessFile file = new RandomAccessFile(journalFile, "rw");
+		try {
+			long length = file.length();
+			long position = length;
+			while (position > 0) {
+				file.seek(position - 1);
+				if (file.read() == '\n') {
+					break;
+				}
+				position--;
+			}
+			if (position < length) {
+				log.warn("truncating partial record at end of journal from:{}",
+						position);
+				file.setLength(position);
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	private void write(final FileOutputStream stream,
+			final QueuedTransfer queuedTransfer) throws IOException {
+		stream.write((encode(queuedTransfer) + "\n").getBytes(ENCODING));
+		if (syncJournal) {
+			stream.getFD().sync();
+		}
+	}
+
+	static String encode(final QueuedTransfer queuedTransfer)
+			throws UnsupportedEncodingException {
+		String[] fields = { RECORD_VERSION,
+				String.valueOf(queuedTransfer.getId()),
+				queuedTransfer.getTransferType().name(),
+				queuedTransfer.getQueueStatus().name(),
+				String.valueOf(queuedTransfer.getAttempts()),
+				String.valueOf(queuedTransfer.getEnqueuedAt()),
+				String.valueOf(queuedTransfer.getNextAttemptAt()),
+				queuedTransfer.getHost(), queuedTransfer.getAccountKey(),
+				queuedTransfer.getLocalAbsolutePath(),
+				queuedTransfer.getIrodsAbsolutePath(),
+				queuedTransfer.getResourceName(),
+				queuedTransfer.getLastErrorMessage() };
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				sb.append('\t');
+			}
+			sb.append(URLEncoder.encode(fields[i] == null ? "" : fields[i],
+					ENCODING));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return {@link QueuedTransfer} from the line, or {@code null} if the
+	 *         line is not a whole record
+	 */
+	static QueuedTransfer decode(final String line) {
+		String[] fields = line.split("\t", -1);
+		if (fields.length != FIELD_COUNT || !RECORD_VERSION.equals(fields[0])) {
+			return null;
+		}
+
+		try {
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = URLDecoder.decode(fields[i], ENCODING);
+			}
+			QueuedTransfer queuedTransfer = new QueuedTransfer();
+			queuedTransfer.setId(Long.parseLong(fields[1]));
+			queuedTransfer.setTransferType(TransferType.valueOf(fields[2]));
+			queuedTransfer.setQueueStatus(QueueStatus.valueOf(fields[3]));
+			queuedTransfer.setAttempts(Integer.parseInt(fields[4]));
+			queuedTransfer.setEnqueuedAt(Long.parseLong(fields[5]));
+			queuedTransfer.setNextAttemptAt(Long.parseLong(fields[6]));
+			queuedTransfer.setHost(fields[7]);
+			queuedTransfer.setAccountKey(fields[8]);
+			queuedTransfer.setLocalAbsolutePath(fields[9]);
+			queuedTransfer.setIrodsAbsolutePath(fields[10]);
+			queuedTransfer.setResourceName(fields[11]);
+			queuedTransfer.setLastErrorMessage(fields[12]);
+			return queuedTransfer;
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException("no UTF-8 encoding available", e);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return {@code int} with the records in the journal file
+	 */
+	synchronized int getRecordCount() {
+		return recordCount;
+	}
+
+	File getJournalFile() {
+		return journalFile;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (outputStream != null) {
+			try {
+				outputStream.close();
+			} finally {
+				outputStream = null;
+			}
+		}
+	}
+
+}
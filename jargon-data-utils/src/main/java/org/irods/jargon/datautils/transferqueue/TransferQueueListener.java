@@ -0,0 +1,20 @@
+package org.irods.jargon.datautils.transferqueue;
+
+/**
+ * Told of each change in the status of a queued transfer. Called from the
+ * worker threads of the {@link TransferQueueManager}, so return promptly.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface TransferQueueListener {
+
+	/**
+	 * A transfer was queued, started, finished, or scheduled for a retry
+	 *
+	 * @param queuedTransfer
+	 *            {@link QueuedTransfer} copy of the transfer as it now is
+	 */
+	void queuedTransferStatusChanged(QueuedTransfer queuedTransfer);
+
+}
@@ -0,0 +1,747 @@
+package org.irods.jargon.datautils.transferqueue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.OverwriteException;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.packinstr.TransferOptions.ForceOption;
+import org.irods.jargon.core.pub.DataTransferOperations;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.FileBasedTransferRestartManager;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.QueueStatus;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.TransferType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of puts and gets run by a pool of worker threads, kept in a journal
+ * file so that the queue survives the end of the JVM.
+ * <p>
+ * Transfers are started in the order queued, with no more running at once
+ * against an iRODS host than configured for it. A transfer that fails with a
+ * {@link JargonException} is tried again after a wait that doubles with each
+ * attempt, up to the maximum attempts. An {@link OverwriteException} or
+ * {@link FileNotFoundException} fails the transfer at once, as would any
+ * retry.
+ * <p>
+ * Passwords are not journaled. After a restart, transfers wait until their
+ * account is given again to {@link #addIrodsAccount(IRODSAccount)}, or by
+ * queueing a transfer with it. Transfers that were running when the JVM ended
+ * are queued again, and with a restart directory configured, and
+ * {@code transfer.long.file.restart} set in the jargon properties, a long file
+ * picks up where it left off through the restart manager.
+ * <p>
+ * Completed and cancelled transfers are dropped when the journal is compacted.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TransferQueueManager {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TransferQueueManager.class);
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final TransferQueueConfiguration transferQueueConfiguration;
+	private final TransferQueueJournal transferQueueJournal;
+
+	/**
+	 * Transfers by id, which is the order they were queued
+	 */
+	private final Map<Long, QueuedTransfer> queuedTransfers;
+	private final Map<String, IRODSAccount> irodsAccounts = new HashMap<String, IRODSAccount>();
+	private final Map<String, Integer> runningByHost = new HashMap<String, Integer>();
+	private final Map<Long, TransferControlBlock> runningControlBlocks = new HashMap<Long, TransferControlBlock>();
+	private final Set<Long> cancelRequests = new HashSet<Long>();
+	private long nextId = 1L;
+	private ExecutorService executorService = null;
+	private boolean running = false;
+	private volatile TransferQueueListener transferQueueListener = null;
+
+	/**
+	 * Open the queue, reading back the journal. Call {@link #start()} to begin
+	 * running transfers.
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} to run the transfers
+	 * @param transferQueueConfiguration
+	 *            {@link TransferQueueConfiguration} with the journal file and
+	 *            limits
+	 * @throws JargonException
+	 */
+	public TransferQueueManager(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final TransferQueueConfiguration transferQueueConfiguration)
+			throws JargonException {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (transferQueueConfiguration == null) {
+			throw new IllegalArgumentException(
+					"null transferQueueConfiguration");
+		}
+
+		if (transferQueueConfiguration.getJournalFile() == null) {
+			throw new IllegalArgumentException("null journalFile");
+		}
+
+		if (transferQueueConfiguration.getNumberOfWorkers() < 1) {
+			throw new IllegalArgumentException(
+					"numberOfWorkers must be at least 1");
+		}
+
+		if (transferQueueConfiguration.getMaxAttempts() < 1) {
+			throw new IllegalArgumentException("maxAttempts must be at least 1");
+		}
+
+		log.info("transferQueueConfiguration:{}", transferQueueConfiguration);
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.transferQueueConfiguration = transferQueueConfiguration;
+		transferQueueJournal = new TransferQueueJournal(
+				transferQueueConfiguration.getJournalFile(),
+				transferQueueConfiguration.isSyncJournal());
+
+		try {
+			queuedTransfers = transferQueueJournal.replay();
+		} catch (IOException e) {
+			log.error("unable to read transfer queue journal", e);
+			throw new JargonException("unable to read transfer queue journal",
+					e);
+		}
+
+		List<QueuedTransfer> interrupted = new ArrayList<QueuedTransfer>();
+		for (QueuedTransfer queuedTransfer : queuedTransfers.values()) {
+			nextId = Math.max(nextId, queuedTransfer.getId() + 1);
+			if (queuedTransfer.getQueueStatus() == QueueStatus.RUNNING) {
+				interrupted.add(queuedTransfer);
+			}
+		}
+
+		for (QueuedTransfer queuedTransfer : interrupted) {
+			log.info("resuming interrupted transfer:{}", queuedTransfer);
+			queuedTransfer.setQueueStatus(QueueStatus.QUEUED);
+			queuedTransfer.setNextAttemptAt(0L);
+			record(queuedTransfer);
+		}
+
+		if (transferQueueConfiguration.getRestartDirectory() != null) {
+			if (!irodsAccessObjectFactory.getJargonProperties()
+					.isLongTransferRestart()) {
+				log.warn("restart directory given, but long file restart is not on in the jargon properties");
+			}
+			irodsAccessObjectFactory.getIrodsSession().setRestartManager(
+					new FileBasedTransferRestartManager(
+							transferQueueConfiguration.getRestartDirectory()));
+		}
+	}
+
+	/**
+	 * Start the worker threads. Transfers may be queued before or after.
+	 */
+	public synchronized void start() {
+		if (running) {
+			log.info("already started");
+			return;
+		}
+
+		log.info("starting {} workers",
+				transferQueueConfiguration.getNumberOfWorkers());
+		running = true;
+		executorService = Executors.newFixedThreadPool(
+				transferQueueConfiguration.getNumberOfWorkers(),
+				new WorkerThreadFactory());
+		for (int i = 0; i < transferQueueConfiguration.getNumberOfWorkers(); i++) {
+			executorService.execute(new TransferWorker());
+		}
+	}
+
+	/**
+	 * Stop the workers and close the journal. Running transfers are cancelled
+	 * and left queued, to be run again when the queue is next started.
+	 *
+	 * @param timeoutMillis
+	 *            {@code long} with the time to wait for the running transfers
+	 *            to stop
+	 * @throws JargonException
+	 */
+	public void shutdown(final long timeoutMillis) throws JargonException {
+		log.info("shutdown()");
+		ExecutorService toStop;
+		synchronized (this) {
+			running = false;
+			for (TransferControlBlock transferControlBlock : runningControlBlocks
+					.values()) {
+				transferControlBlock.setCancelled(true);
+			}
+			notifyAll();
+			toStop = executorService;
+			executorService = null;
+		}
+
+		if (toStop != null) {
+			toStop.shutdown();
+			try {
+				if (!toStop.awaitTermination(timeoutMillis,
+						TimeUnit.MILLISECONDS)) {
+					log.warn("workers still running after timeout");
+					toStop.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				toStop.shutdownNow();
+			}
+		}
+
+		try {
+			transferQueueJournal.close();
+		} catch (IOException e) {
+			log.error("unable to close transfer queue journal", e);
+			throw new JargonException(
+					"unable to close transfer queue journal", e);
+		}
+	}
+
+	/**
+	 * Give the account for transfers queued before a restart. Passwords are
+	 * not kept in the journal.
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run transfers queued with it
+	 */
+	public synchronized void addIrodsAccount(final IRODSAccount irodsAccount) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		irodsAccounts.put(buildAccountKey(irodsAccount), irodsAccount);
+		notifyAll();
+	}
+
+	/**
+	 * Queue a put of a local file or directory
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to transfer as
+	 * @param localAbsolutePath
+	 *            {@code String} with the local source
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the iRODS target
+	 * @param resourceName
+	 *            {@code String} with the target resource, blank or
+	 *            {@code null} for the default
+	 * @return {@link QueuedTransfer} as queued
+	 * @throws JargonException
+	 */
+	public QueuedTransfer enqueuePut(final IRODSAccount irodsAccount,
+			final String localAbsolutePath, final String irodsAbsolutePath,
+			final String resourceName) throws JargonException {
+		return enqueue(TransferType.PUT, irodsAccount, localAbsolutePath,
+				irodsAbsolutePath, resourceName);
+	}
+
+	/**
+	 * Queue a get of a data object or collection
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to transfer as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the iRODS source
+	 * @param localAbsolutePath
+	 *            {@code String} with the local target
+	 * @param resourceName
+	 *            {@code String} with the source resource, blank or
+	 *            {@code null} for any
+	 * @return {@link QueuedTransfer} as queued
+	 * @throws JargonException
+	 */
+	public QueuedTransfer enqueueGet(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath, final String localAbsolutePath,
+			final String resourceName) throws JargonException {
+		return enqueue(TransferType.GET, irodsAccount, localAbsolutePath,
+				irodsAbsolutePath, resourceName);
+	}
+
+	private QueuedTransfer enqueue(final TransferType transferType,
+			final IRODSAccount irodsAccount, final String localAbsolutePath,
+			final String irodsAbsolutePath, final String resourceName)
+			throws JargonException {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (localAbsolutePath == null || localAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty localAbsolutePath");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		QueuedTransfer copy;
+		synchronized (this) {
+			addIrodsAccount(irodsAccount);
+			QueuedTransfer queuedTransfer = new QueuedTransfer();
+			queuedTransfer.setId(nextId++);
+			queuedTransfer.setTransferType(transferType);
+			queuedTransfer.setLocalAbsolutePath(localAbsolutePath);
+			queuedTransfer.setIrodsAbsolutePath(irodsAbsolutePath);
+			queuedTransfer.setResourceName(resourceName == null ? ""
+					: resourceName);
+			queuedTransfer.setAccountKey(buildAccountKey(irodsAccount));
+			queuedTransfer.setHost(irodsAccount.getHost());
+			queuedTransfer.setEnqueuedAt(System.currentTimeMillis());
+			queuedTransfers.put(queuedTransfer.getId(), queuedTransfer);
+			try {
+				record(queuedTransfer);
+			} catch (JargonException e) {
+				queuedTransfers.remove(queuedTransfer.getId());
+				throw e;
+			}
+			log.info("queued:{}", queuedTransfer);
+			notifyAll();
+			copy = new QueuedTransfer(queuedTransfer);
+		}
+		notifyListener(copy);
+		return copy;
+	}
+
+	/**
+	 * Cancel a transfer that has not finished
+	 *
+	 * @param id
+	 *            {@code long} with the id of the transfer
+	 * @return {@code boolean} of {@code true} if the transfer was cancelled,
+	 *         or will be once it stops running
+	 * @throws JargonException
+	 */
+	public boolean cancel(final long id) throws JargonException {
+		QueuedTransfer copy;
+		synchronized (this) {
+			QueuedTransfer queuedTransfer = queuedTransfers.get(id);
+			if (queuedTransfer == null || queuedTransfer.isFinished()) {
+				return false;
+			}
+
+			if (queuedTransfer.getQueueStatus() == QueueStatus.RUNNING) {
+				log.info("cancelling running transfer:{}", id);
+				cancelRequests.add(id);
+				TransferControlBlock transferControlBlock = runningControlBlocks
+						.get(id);
+				if (transferControlBlock != null) {
+					transferControlBlock.setCancelled(true);
+				}
+				return true;
+			}
+
+			queuedTransfer.setQueueStatus(QueueStatus.CANCELLED);
+			record(queuedTransfer);
+			copy = new QueuedTransfer(queuedTransfer);
+		}
+		notifyListener(copy);
+		return true;
+	}
+
+	/**
+	 * Queue a failed or cancelled transfer again, with its attempts reset
+	 *
+	 * @param id
+	 *            {@code long} with the id of the transfer
+	 * @return {@code boolean} of {@code true} if the transfer was queued again
+	 * @throws JargonException
+	 */
+	public boolean retry(final long id) throws JargonException {
+		QueuedTransfer copy;
+		synchronized (this) {
+			QueuedTransfer queuedTransfer = queuedTransfers.get(id);
+			if (queuedTransfer == null
+					|| (queuedTransfer.getQueueStatus() != QueueStatus.FAILED && queuedTransfer
+							.getQueueStatus() != QueueStatus.CANCELLED)) {
+				return false;
+			}
+
+			queuedTransfer.setQueueStatus(QueueStatus.QUEUED);
+			queuedTransfer.setAttempts(0);
+			queuedTransfer.setNextAttemptAt(0L);
+			record(queuedTransfer);
+			notifyAll();
+			copy = new QueuedTransfer(queuedTransfer);
+		}
+		notifyListener(copy);
+		return true;
+	}
+
+	/**
+	 * @return {@code List} of {@link QueuedTransfer} copies, in the order
+	 *         queued
+	 */
+	public synchronized List<QueuedTransfer> listQueuedTransfers() {
+		List<QueuedTransfer> copies = new ArrayList<QueuedTransfer>(
+				queuedTransfers.size());
+		for (QueuedTransfer queuedTransfer : queuedTransfers.values()) {
+			copies.add(new QueuedTransfer(queuedTransfer));
+		}
+		return copies;
+	}
+
+	/**
+	 * @param id
+	 *            {@code long} with the id of the transfer
+	 * @return {@link QueuedTransfer} copy, or {@code null} if there is no
+	 *         such transfer
+	 */
+	public synchronized QueuedTransfer findQueuedTransfer(final long id) {
+		QueuedTransfer queuedTransfer = queuedTransfers.get(id);
+		return queuedTransfer == null ? null : new QueuedTransfer(
+				queuedTransfer);
+	}
+
+	/**
+	 * Wait before the next attempt, after the given number of failed attempts
+	 *
+	 * @param failedAttempts
+	 *            {@code int} with the attempts so far, at least 1
+	 * @param initialBackoffMillis
+	 *            {@code long} with the wait after the first failure
+	 * @param maxBackoffMillis
+	 *            {@code long} with the longest wait
+	 * @return {@code long} with the wait in millis
+	 */
+	static long computeBackoffMillis(final int failedAttempts,
+			final long initialBackoffMillis, final long maxBackoffMillis) {
+		if (failedAttempts < 1 || initialBackoffMillis <= 0L) {
+			return 0L;
+		}
+		long backoff = initialBackoffMillis;
+		for (int i = 1; i < failedAttempts && backoff < maxBackoffMillis; i++) {
+			backoff *= 2;
+		}
+		return Math.min(backoff, maxBackoffMillis);
+	}
+
+	/**
+	 * Identify an account without its password
+	 */
+	static String buildAccountKey(final IRODSAccount irodsAccount) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getUserName());
+		sb.append('#');
+		sb.append(irodsAccount.getZone());
+		sb.append('@');
+		sb.append(irodsAccount.getHost());
+		sb.append(':');
+		sb.append(irodsAccount.getPort());
+		return sb.toString();
+	}
+
+	/**
+	 * Journal a change to a transfer, compacting the journal once it is long
+	 * enough. Hold the lock.
+	 */
+	private void record(final QueuedTransfer queuedTransfer)
+			throws JargonException {
+		try {
+			transferQueueJournal.append(queuedTransfer);
+
+			if (transferQueueJournal.getRecordCount() >= transferQueueConfiguration
+					.getJournalCompactionThreshold()) {
+				List<QueuedTransfer> kept = new ArrayList<QueuedTransfer>();
+				for (QueuedTransfer candidate : queuedTransfers.values()) {
+					if (candidate.getQueueStatus() != QueueStatus.COMPLETE
+							&& candidate.getQueueStatus() != QueueStatus.CANCELLED) {
+						kept.add(candidate);
+					}
+				}
+				if (transferQueueJournal.getRecordCount() >= 2 * kept.size()) {
+					transferQueueJournal.compact(kept);
+					Iterator<QueuedTransfer> iterator = queuedTransfers
+							.values().iterator();
+					while (iterator.hasNext()) {
+						QueueStatus queueStatus = iterator.next()
+								.getQueueStatus();
+						if (queueStatus == QueueStatus.COMPLETE
+								|| queueStatus == QueueStatus.CANCELLED) {
+							iterator.remove();
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			log.error("unable to write transfer queue journal", e);
+			throw new JargonException(
+					"unable to write transfer queue journal", e);
+		}
+	}
+
+	/**
+	 * Journal from a worker, where the transfer goes on even if the journal
+	 * cannot be written
+	 */
+	private void recordFromWorker(final QueuedTransfer queuedTransfer) {
+		try {
+			record(queuedTransfer);
+		} catch (JargonException e) {
+			log.error("transfer state not journaled:{}", queuedTransfer, e);
+		}
+	}
+
+	private void notifyListener(final QueuedTransfer queuedTransfer) {
+		TransferQueueListener listener = transferQueueListener;
+		if (listener != null) {
+			try {
+				listener.queuedTransferStatusChanged(queuedTransfer);
+			} catch (RuntimeException e) {
+				log.error("exception in transfer queue listener", e);
+			}
+		}
+	}
+
+	private int runningOnHost(final String host) {
+		Integer count = runningByHost.get(host);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Wait for the first queued transfer that is due, whose account is known,
+	 * and whose host has room, and mark it running. Hold the lock.
+	 *
+	 * @return {@link QueuedTransfer} to run, or {@code null} once stopped
+	 */
+	private QueuedTransfer takeNextTransfer() {
+		while (running) {
+			long now = System.currentTimeMillis();
+			long wakeAt = Long.MAX_VALUE;
+
+			for (QueuedTransfer queuedTransfer : queuedTransfers.values()) {
+				if (queuedTransfer.getQueueStatus() != QueueStatus.QUEUED
+						|| !irodsAccounts.containsKey(queuedTransfer
+								.getAccountKey())) {
+					continue;
+				}
+
+				String host = queuedTransfer.getHost();
+				if (runningOnHost(host) >= transferQueueConfiguration
+						.getMaxTransfersForHost(host)) {
+					continue;
+				}
+
+				if (queuedTransfer.getNextAttemptAt() > now) {
+					wakeAt = Math.min(wakeAt,
+							queuedTransfer.getNextAttemptAt());
+					continue;
+				}
+
+				queuedTransfer.setQueueStatus(QueueStatus.RUNNING);
+				queuedTransfer.setAttempts(queuedTransfer.getAttempts() + 1);
+				runningByHost.put(host, runningOnHost(host) + 1);
+				recordFromWorker(queuedTransfer);
+				return queuedTransfer;
+			}
+
+			try {
+				wait(wakeAt == Long.MAX_VALUE ? 0L : wakeAt - now);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private TransferControlBlock buildTransferControlBlock()
+			throws JargonException {
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock
+				.instance();
+		TransferOptions transferOptions = irodsAccessObjectFactory
+				.buildTransferOptionsBasedOnJargonProperties();
+		if (transferQueueConfiguration.isForceOverwrite()) {
+			transferOptions.setForceOption(ForceOption.USE_FORCE);
+		} else {
+			transferOptions.setForceOption(ForceOption.NO_FORCE);
+		}
+		transferControlBlock.setTransferOptions(transferOptions);
+		transferControlBlock.setTransferPriority(transferQueueConfiguration
+				.getTransferPriority());
+		return transferControlBlock;
+	}
+
+	/**
+	 * Run one attempt at a transfer and settle what happens to it next
+	 */
+	private void runTransfer(final QueuedTransfer queuedTransfer,
+			final IRODSAccount irodsAccount) {
+
+		log.info("running:{}", queuedTransfer);
+		TransferControlBlock transferControlBlock = null;
+		JargonException failure = null;
+		boolean retryable = true;
+
+		try {
+			transferControlBlock = buildTransferControlBlock();
+			synchronized (this) {
+				runningControlBlocks.put(queuedTransfer.getId(),
+						transferControlBlock);
+				if (!running
+						|| cancelRequests.contains(queuedTransfer.getId())) {
+					transferControlBlock.setCancelled(true);
+				}
+			}
+
+			DataTransferOperations dataTransferOperations = irodsAccessObjectFactory
+					.getDataTransferOperations(irodsAccount);
+			if (!transferControlBlock.isCancelled()) {
+				if (queuedTransfer.getTransferType() == TransferType.PUT) {
+					dataTransferOperations.putOperation(
+							queuedTransfer.getLocalAbsolutePath(),
+							queuedTransfer.getIrodsAbsolutePath(),
+							queuedTransfer.getResourceName(), null,
+							transferControlBlock);
+				} else {
+					dataTransferOperations.getOperation(
+							queuedTransfer.getIrodsAbsolutePath(),
+							queuedTransfer.getLocalAbsolutePath(),
+							queuedTransfer.getResourceName(), null,
+							transferControlBlock);
+				}
+			}
+
+			if (transferControlBlock.getErrorCount() > 0) {
+				failure = new JargonException("errors in transfer:"
+						+ transferControlBlock.getErrorCount());
+			}
+		} catch (OverwriteException e) {
+			failure = e;
+			retryable = false;
+		} catch (FileNotFoundException e) {
+			failure = e;
+			retryable = false;
+		} catch (JargonException e) {
+			failure = e;
+			// the connection may be broken, so start the next attempt afresh
+			irodsAccessObjectFactory.closeSessionAndEatExceptions(irodsAccount);
+		} catch (RuntimeException e) {
+			log.error("unexpected exception in transfer", e);
+			failure = new JargonException(e.getMessage(), e);
+			retryable = false;
+		}
+
+		QueuedTransfer copy;
+		synchronized (this) {
+			runningControlBlocks.remove(queuedTransfer.getId());
+			String host = queuedTransfer.getHost();
+			runningByHost.put(host, runningOnHost(host) - 1);
+
+			if (cancelRequests.remove(queuedTransfer.getId())) {
+				queuedTransfer.setQueueStatus(QueueStatus.CANCELLED);
+			} else if (transferControlBlock != null
+					&& transferControlBlock.isCancelled()) {
+				// stopped by shutdown, to be run again on the next start
+				queuedTransfer.setQueueStatus(QueueStatus.QUEUED);
+				queuedTransfer.setAttempts(queuedTransfer.getAttempts() - 1);
+			} else if (failure == null) {
+				queuedTransfer.setQueueStatus(QueueStatus.COMPLETE);
+				queuedTransfer.setLastErrorMessage("");
+			} else {
+				log.warn("transfer failed:{}", queuedTransfer, failure);
+				queuedTransfer.setLastErrorMessage(String.valueOf(failure
+						.getMessage()));
+				if (retryable
+						&& queuedTransfer.getAttempts() < transferQueueConfiguration
+								.getMaxAttempts()) {
+					queuedTransfer.setQueueStatus(QueueStatus.QUEUED);
+					queuedTransfer.setNextAttemptAt(System.currentTimeMillis()
+							+ computeBackoffMillis(
+									queuedTransfer.getAttempts(),
+									transferQueueConfiguration
+											.getInitialBackoffMillis(),
+									transferQueueConfiguration
+											.getMaxBackoffMillis()));
+				} else {
+					queuedTransfer.setQueueStatus(QueueStatus.FAILED);
+				}
+			}
+
+			log.info("transfer now:{}", queuedTransfer);
+			recordFromWorker(queuedTransfer);
+			notifyAll();
+			copy = new QueuedTransfer(queuedTransfer);
+		}
+		notifyListener(copy);
+	}
+
+	/**
+	 * Takes and runs transfers until the queue is shut down
+	 */
+	private class TransferWorker implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					QueuedTransfer queuedTransfer;
+					IRODSAccount irodsAccount;
+					QueuedTransfer copy;
+					synchronized (TransferQueueManager.this) {
+						queuedTransfer = takeNextTransfer();
+						if (queuedTransfer == null) {
+							return;
+						}
+						irodsAccount = irodsAccounts.get(queuedTransfer
+								.getAccountKey());
+						copy = new QueuedTransfer(queuedTransfer);
+					}
+					notifyListener(copy);
+					runTransfer(queuedTransfer, irodsAccount);
+				}
+			} finally {
+				irodsAccessObjectFactory.closeSessionAndEatExceptions();
+			}
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, "transfer-queue-worker-"
+					+ count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	public TransferQueueConfiguration getTransferQueueConfiguration() {
+		return transferQueueConfiguration;
+	}
+
+	public TransferQueueListener getTransferQueueListener() {
+		return transferQueueListener;
+	}
+
+	public void setTransferQueueListener(
+			final TransferQueueListener transferQueueListener) {
+		this.transferQueueListener = transferQueueListener;
+	}
+
+}
@@ -0,0 +1,9 @@
+/**
+ * A durable queue of transfers, run by a pool of worker threads with a limit on
+ * the transfers to each iRODS host, and retried with back-off on failure.
+ * <p>
+ * {@link org.irods.jargon.datautils.transferqueue.TransferQueueManager} keeps
+ * the queue in a journal file, so that queued and interrupted transfers are run
+ * again after a restart.
+ */
+package org.irods.jargon.datautils.transferqueue;
@@ -0,0 +1,818 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+import org.irods.jargon.core.checksum.ChecksumManager;
+import org.irods.jargon.core.checksum.ChecksumManagerImpl;
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.irods.jargon.datautils.AbstractDataUtilsServiceImpl;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Diff of a local tree against an iRODS tree that is built for large trees. It
+ * gives the same {@link FileTreeModel} as {@link FileTreeDiffUtilityImpl}, but
+ * rather than listing each collection, and asking iRODS for each checksum,
+ * one data object at a time:
+ * <ul>
+ * <li>The whole iRODS subtree (path, size, modify time and checksum) is pulled
+ * in three paged GenQueries, one for collections and two for data objects.</li>
+ * <li>At the same time, the local tree is walked in parallel, with
+ * {@code Files.walkFileTree} on each directory in a fork/join pool.</li>
+ * <li>Both listings are sorted by relative path in depth first order, and
+ * matched with a single merge join pass that builds the diff tree.</li>
+ * <li>Local checksums, needed only for files of the same length, are computed
+ * in parallel and compared to the catalog checksum.</li>
+ * </ul>
+ * A data object with no checksum in the catalog is checksummed by iRODS, as
+ * {@link FileTreeDiffUtilityImpl} does. Both listings are held in memory, at a
+ * few hundred bytes per entry.
+ * <p>
+ * Note that this method will be passed an {@code IRODSAccessObjectFactory} ,
+ * and this class assumes that the underlying iRODS connection will be closed
+ * outside of the scope of this object.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkFileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl
+		implements FileTreeDiffUtility {
+
+	private static Logger log = LoggerFactory
+			.getLogger(BulkFileTreeDiffUtilityImpl.class);
+
+	/**
+	 * Optional field allows communication with diff processor
+	 */
+	private final TransferControlBlock transferControlBlock;
+
+	/**
+	 * Threads used to walk the local tree and compute local checksums
+	 */
+	private final int parallelism;
+
+	/**
+	 * Default constructor
+	 *
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that is used to connect to the compared
+	 *            iRODS file system
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that is used to obtain
+	 *            objects needed to work with iRODS data
+	 */
+	public BulkFileTreeDiffUtilityImpl(final IRODSAccount irodsAccount,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory) {
+		this(irodsAccount, irodsAccessObjectFactory, null, Runtime
+				.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor with a transfer control block and the local parallelism
+	 *
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that is used to connect to the compared
+	 *            iRODS file system
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that is used to obtain
+	 *            objects needed to work with iRODS data
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} or {@code null}. The transfer
+	 *            control block allows signalling of a cancellation of the diff
+	 *            process.
+	 * @param parallelism
+	 *            {@code int} with the number of threads that walk the local
+	 *            tree and compute local checksums
+	 */
+	public BulkFileTreeDiffUtilityImpl(final IRODSAccount irodsAccount,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final TransferControlBlock transferControlBlock,
+			final int parallelism) {
+
+		super(irodsAccessObjectFactory, irodsAccount);
+
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be >= 1");
+		}
+
+		this.transferControlBlock = transferControlBlock;
+		this.parallelism = parallelism;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.tree.FileTreeDiffUtility#
+	 * verifyLocalAndIRODSTreesMatch(java.io.File, java.lang.String, long, long)
+	 */
+	@Override
+	public boolean verifyLocalAndIRODSTreesMatch(final File localFileRoot,
+			final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide)
+			throws JargonException {
+
+		log.info("verifyLocalAndIRODSTreesMatch");
+
+		FileTreeModel diffModel = generateDiffLocalToIRODS(localFileRoot,
+				irodsAbsolutePath, timestampForLastSynchLeftHandSide,
+				timestampForLastSynchRightHandSide);
+
+		return diffModel != null
+				&& noDiffsInTree((FileTreeNode) diffModel.getRoot());
+	}
+
+	private boolean noDiffsInTree(final FileTreeNode fileTreeNode) {
+		FileTreeDiffEntry entry = (FileTreeDiffEntry) fileTreeNode
+				.getUserObject();
+		if (entry.getDiffType() != DiffType.DIRECTORY_NO_DIFF) {
+			log.warn("diff found when not expected:{}", entry);
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		Enumeration<FileTreeNode> children = fileTreeNode.children();
+		while (children.hasMoreElements()) {
+			if (!noDiffsInTree(children.nextElement())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.datautils.tree.FileTreeDiffUtility#generateDiffLocalToIRODS
+	 * (java.io.File, java.lang.String, long, long)
+	 */
+	@Override
+	public FileTreeModel generateDiffLocalToIRODS(final File localFileRoot,
+			final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide,
+			final long timestampForLastSynchRightHandSide)
+			throws JargonException {
+
+		if (localFileRoot == null) {
+			throw new IllegalArgumentException("null LocalFileRoot");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		if (timestampForLastSynchLeftHandSide < 0) {
+			throw new IllegalArgumentException(
+					"timestampForLastSynchLeftHandSide is less than zero");
+		}
+
+		if (timestampForLastSynchRightHandSide < 0) {
+			throw new IllegalArgumentException(
+					"timestampForLastSynchRightHandSide is less than zero");
+		}
+
+		if (!localFileRoot.exists()) {
+			throw new JargonException("localFileRoot does not exist");
+		}
+
+		if (!localFileRoot.isDirectory()) {
+			throw new JargonException(
+					"localFileRoot is not a directory, cannot do a diff");
+		}
+
+		log.info("generateDiffLocalToIRODS() for localFileRoot:{}",
+				localFileRoot.getAbsolutePath());
+		log.info("irodsAbsolutePath for iRODS root:{}", irodsAbsolutePath);
+
+		IRODSFile rootIRODSFile = irodsAccessObjectFactory.getIRODSFileFactory(
+				irodsAccount).instanceIRODSFile(irodsAbsolutePath);
+
+		if (!rootIRODSFile.exists()) {
+			throw new JargonException(
+					"root iRODS file does not exist, cannot do a diff");
+		}
+
+		if (!rootIRODSFile.isDirectory()) {
+			throw new JargonException(
+					"irodsFile is not a directory, cannot do a diff");
+		}
+
+		String localRootPath = LocalFileUtils.normalizePath(localFileRoot
+				.getAbsolutePath());
+		String irodsRootPath = rootIRODSFile.getAbsolutePath();
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			// walk the local tree while the catalog is queried
+			Queue<TreeListingEntry> localListing = new ConcurrentLinkedQueue<TreeListingEntry>();
+			ForkJoinTask<Void> localWalk = pool.submit(new LocalDirectoryWalk(
+					localFileRoot.toPath(), localRootPath, "", localListing));
+
+			List<TreeListingEntry> irodsEntries = listIRODSTree(irodsRootPath);
+
+			try {
+				localWalk.get();
+			} catch (ExecutionException e) {
+				log.error("error walking local tree", e.getCause());
+				throw new JargonException("error walking local tree",
+						e.getCause());
+			}
+
+			if (isCancelled()) {
+				return null;
+			}
+
+			List<TreeListingEntry> localEntries = new ArrayList<TreeListingEntry>(
+					localListing);
+			Collections.sort(localEntries, TreeListingEntry.PATH_ORDER);
+			Collections.sort(irodsEntries, TreeListingEntry.PATH_ORDER);
+			irodsEntries = collapseReplicas(irodsEntries);
+
+			log.info("merging {} local and {} iRODS entries",
+					localEntries.size(), irodsEntries.size());
+
+			CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+			entry.setCreatedAt(new Date(localFileRoot.lastModified()));
+			entry.setModifiedAt(entry.getCreatedAt());
+			entry.setObjectType(ObjectType.COLLECTION);
+			entry.setParentPath(LocalFileUtils.normalizePath(localFileRoot
+					.getParent()));
+			entry.setPathOrName(localRootPath);
+			FileTreeNode rootNode = new FileTreeNode(FileTreeDiffEntry.instance(
+					DiffType.DIRECTORY_NO_DIFF, entry, irodsRootPath));
+
+			List<PendingChecksumCompare> pendingChecksums = mergeJoin(rootNode,
+					localEntries, irodsEntries, localRootPath, irodsRootPath,
+					pool);
+
+			if (pendingChecksums == null) {
+				return null;
+			}
+
+			compareChecksums(pendingChecksums);
+
+			if (isCancelled()) {
+				return null;
+			}
+
+			return new FileTreeModel(rootNode);
+
+		} catch (InterruptedException e) {
+			log.error("interrupted during diff", e);
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted during diff", e);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Match the two sorted listings and build the diff tree below the root
+	 * node. Unmatched directories are reported once, without their contents.
+	 *
+	 * @return {@code List} of matched files of equal length that still need a
+	 *         checksum compare, or {@code null} if cancelled
+	 */
+	List<PendingChecksumCompare> mergeJoin(final FileTreeNode rootNode,
+			final List<TreeListingEntry> localEntries,
+			final List<TreeListingEntry> irodsEntries,
+			final String localRootPath, final String irodsRootPath,
+			final ForkJoinPool pool) {
+
+		List<PendingChecksumCompare> pendingChecksums = new ArrayList<PendingChecksumCompare>();
+		LinkedList<TreeListingEntry> dirStack = new LinkedList<TreeListingEntry>();
+		LinkedList<FileTreeNode> nodeStack = new LinkedList<FileTreeNode>();
+
+		int i = 0;
+		int j = 0;
+
+		while (i < localEntries.size() || j < irodsEntries.size()) {
+
+			if (isCancelled()) {
+				return null;
+			}
+
+			TreeListingEntry lhs = i < localEntries.size() ? localEntries
+					.get(i) : null;
+			TreeListingEntry rhs = j < irodsEntries.size() ? irodsEntries
+					.get(j) : null;
+
+			int compValue;
+			if (lhs == null) {
+				compValue = 1;
+			} else if (rhs == null) {
+				compValue = -1;
+			} else {
+				compValue = TreeListingEntry.comparePaths(lhs.relativePath,
+						rhs.relativePath);
+			}
+
+			TreeListingEntry current = compValue <= 0 ? lhs : rhs;
+			while (!dirStack.isEmpty()
+					&& !dirStack.peek().isAncestorOf(current.relativePath)) {
+				dirStack.pop();
+				nodeStack.pop();
+			}
+			FileTreeNode parentNode = nodeStack.isEmpty() ? rootNode
+					: nodeStack.peek();
+
+			if (compValue < 0) {
+				log.debug("left hand plus:{}", lhs.relativePath);
+				parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(lhs,
+						DiffType.LEFT_HAND_PLUS, irodsRootPath
+								+ lhs.relativePath, 0, 0, "", "")));
+				i = lhs.directory ? skipDescendants(localEntries, i) : i + 1;
+			} else if (compValue > 0) {
+				log.debug("right hand plus:{}", rhs.relativePath);
+				parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(rhs,
+						DiffType.RIGHT_HAND_PLUS, localRootPath
+								+ rhs.relativePath, 0, 0, "", "")));
+				j = rhs.directory ? skipDescendants(irodsEntries, j) : j + 1;
+			} else if (lhs.directory && rhs.directory) {
+				FileTreeNode dirNode = new FileTreeNode(buildFileTreeDiffEntry(
+						lhs, DiffType.DIRECTORY_NO_DIFF, rhs.absolutePath, 0,
+						0, "", ""));
+				parentNode.add(dirNode);
+				dirStack.push(lhs);
+				nodeStack.push(dirNode);
+				i++;
+				j++;
+			} else if (lhs.directory != rhs.directory) {
+				log.warn("a file is being compared to a directory of the same name:{}",
+						lhs.relativePath);
+				parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(lhs,
+						DiffType.FILE_NAME_DIR_NAME_COLLISION,
+						rhs.absolutePath, rhs.length, rhs.modifiedMillis, "",
+						"")));
+				i = lhs.directory ? skipDescendants(localEntries, i) : i + 1;
+				j = rhs.directory ? skipDescendants(irodsEntries, j) : j + 1;
+			} else {
+				if (lhs.length != rhs.length) {
+					log.debug("files differ on length:{}", lhs.relativePath);
+					parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(lhs,
+							DiffType.FILE_OUT_OF_SYNCH, rhs.absolutePath,
+							rhs.length, rhs.modifiedMillis, "", "")));
+				} else {
+					pendingChecksums.add(new PendingChecksumCompare(
+							parentNode, lhs, rhs, submitLocalChecksum(pool,
+									lhs, rhs)));
+				}
+				i++;
+				j++;
+			}
+		}
+
+		return pendingChecksums;
+	}
+
+	private static int skipDescendants(final List<TreeListingEntry> entries,
+			final int index) {
+		TreeListingEntry directory = entries.get(index);
+		int next = index + 1;
+		while (next < entries.size()
+				&& directory.isAncestorOf(entries.get(next).relativePath)) {
+			next++;
+		}
+		return next;
+	}
+
+	/**
+	 * Data objects are listed once per replica, keep one entry per path,
+	 * preferring one that has a checksum
+	 */
+	private static List<TreeListingEntry> collapseReplicas(
+			final List<TreeListingEntry> sortedEntries) {
+		List<TreeListingEntry> collapsed = new ArrayList<TreeListingEntry>(
+				sortedEntries.size());
+		TreeListingEntry previous = null;
+		for (TreeListingEntry entry : sortedEntries) {
+			if (previous != null
+					&& previous.relativePath.equals(entry.relativePath)
+					&& previous.directory == entry.directory) {
+				if (previous.checksum.isEmpty() && !entry.checksum.isEmpty()) {
+					collapsed.set(collapsed.size() - 1, entry);
+					previous = entry;
+				}
+				continue;
+			}
+			collapsed.add(entry);
+			previous = entry;
+		}
+		return collapsed;
+	}
+
+	private Future<ChecksumValue> submitLocalChecksum(final ForkJoinPool pool,
+			final TreeListingEntry lhs, final TreeListingEntry rhs) {
+		if (rhs.checksum.isEmpty()) {
+			return null;
+		}
+
+		return pool.submit(new Callable<ChecksumValue>() {
+			@Override
+			public ChecksumValue call() throws Exception {
+				ChecksumValue rhsChecksum = getChecksumManager()
+						.determineChecksumEncodingFromIrodsData(rhs.checksum);
+				return computeLocalChecksum(lhs,
+						rhsChecksum.getChecksumEncoding());
+			}
+		});
+	}
+
+	private ChecksumValue computeLocalChecksum(final TreeListingEntry lhs,
+			final ChecksumEncodingEnum checksumEncoding)
+			throws JargonException {
+		try {
+			return irodsAccessObjectFactory.getIrodsSession()
+					.getLocalChecksumComputerFactory()
+					.instance(checksumEncoding)
+					.computeChecksumValueForLocalFile(lhs.absolutePath);
+		} catch (FileNotFoundException e) {
+			log.error("file not found computing checksum", e);
+			throw new JargonException(
+					"data error while synchronizing, cannot find local file for checksum",
+					e);
+		}
+	}
+
+	/**
+	 * Wait for the local checksums and add a node for each file that differs.
+	 * Data objects with no catalog checksum are checksummed by iRODS here, one
+	 * at a time, on the caller's connection.
+	 */
+	private void compareChecksums(
+			final List<PendingChecksumCompare> pendingChecksums)
+			throws JargonException, InterruptedException {
+
+		for (PendingChecksumCompare pending : pendingChecksums) {
+
+			if (isCancelled()) {
+				return;
+			}
+
+			ChecksumValue rhsChecksum;
+			ChecksumValue lhsChecksum;
+
+			if (pending.localChecksum == null) {
+				log.info("no catalog checksum, computing for:{}",
+						pending.rhs.absolutePath);
+				IRODSFile irodsFile = irodsAccessObjectFactory
+						.getIRODSFileFactory(irodsAccount).instanceIRODSFile(
+								pending.rhs.absolutePath);
+				rhsChecksum = irodsAccessObjectFactory.getDataObjectAO(
+						irodsAccount).computeChecksumOnDataObject(irodsFile);
+				lhsChecksum = computeLocalChecksum(pending.lhs,
+						rhsChecksum.getChecksumEncoding());
+			} else {
+				rhsChecksum = getChecksumManager()
+						.determineChecksumEncodingFromIrodsData(
+								pending.rhs.checksum);
+				try {
+					lhsChecksum = pending.localChecksum.get();
+				} catch (ExecutionException e) {
+					log.error("error computing local checksum", e.getCause());
+					throw new JargonException(
+							"error computing local checksum", e.getCause());
+				}
+			}
+
+			if (lhsChecksum.getChecksumStringValue().equals(
+					rhsChecksum.getChecksumStringValue())) {
+				log.debug("checksum match, files are same");
+			} else {
+				FileTreeDiffEntry entry = buildFileTreeDiffEntry(pending.lhs,
+						DiffType.FILE_OUT_OF_SYNCH, pending.rhs.absolutePath,
+						pending.rhs.length, pending.rhs.modifiedMillis,
+						lhsChecksum.getChecksumStringValue(),
+						rhsChecksum.getChecksumStringValue());
+				log.debug("files differ on checksum:{}", entry);
+				pending.parentNode.add(new FileTreeNode(entry));
+			}
+		}
+	}
+
+	/**
+	 * List every collection and data object beneath the given collection with
+	 * paged GenQueries
+	 */
+	private List<TreeListingEntry> listIRODSTree(final String irodsRootPath)
+			throws JargonException {
+
+		String prefix = irodsRootPath.endsWith("/") ? irodsRootPath
+				: irodsRootPath + "/";
+		int rootLength = prefix.length() - 1;
+		String zone = MiscIRODSUtils.getZoneInPath(irodsRootPath);
+		List<TreeListingEntry> entries = new ArrayList<TreeListingEntry>();
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_MODIFY_TIME)
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_COLL_NAME,
+							QueryConditionOperators.LIKE, prefix + "%");
+
+			for (IRODSQueryResultRow row : executePaged(builder, zone)) {
+				String collName = row.getColumn(0);
+				// like treats _ as a wildcard, recheck the prefix
+				if (!collName.startsWith(prefix)) {
+					continue;
+				}
+				entries.add(new TreeListingEntry(collName
+						.substring(rootLength), collName, true, 0, row
+						.getColumnAsDateOrNull(1).getTime(), ""));
+			}
+
+			builder = buildDataObjectQuery().addConditionAsGenQueryField(
+					RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.EQUAL, irodsRootPath);
+			addDataObjectEntries(executePaged(builder, zone), prefix,
+					rootLength, entries);
+
+			builder = buildDataObjectQuery().addConditionAsGenQueryField(
+					RodsGenQueryEnum.COL_COLL_NAME,
+					QueryConditionOperators.LIKE, prefix + "%");
+			addDataObjectEntries(executePaged(builder, zone), prefix,
+					rootLength, entries);
+
+		} catch (GenQueryBuilderException e) {
+			log.error("query exception listing iRODS tree", e);
+			throw new JargonException("error in query listing iRODS tree", e);
+		} catch (JargonQueryException e) {
+			log.error("query exception listing iRODS tree", e);
+			throw new JargonException("error in query listing iRODS tree", e);
+		}
+
+		return entries;
+	}
+
+	private IRODSGenQueryBuilder buildDataObjectQuery()
+			throws GenQueryBuilderException {
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_CHECKSUM);
+		return builder;
+	}
+
+	private void addDataObjectEntries(final List<IRODSQueryResultRow> rows,
+			final String prefix, final int rootLength,
+			final List<TreeListingEntry> entries) throws JargonException {
+		for (IRODSQueryResultRow row : rows) {
+			String collName = row.getColumn(0);
+			if (collName.length() > rootLength
+					&& !collName.startsWith(prefix)) {
+				continue;
+			}
+			StringBuilder sb = new StringBuilder(collName);
+			if (!collName.endsWith("/")) {
+				sb.append('/');
+			}
+			sb.append(row.getColumn(1));
+			String absolutePath = sb.toString();
+			entries.add(new TreeListingEntry(absolutePath
+					.substring(rootLength), absolutePath, false, row
+					.getColumnAsLongOrZero(2), row.getColumnAsDateOrNull(3)
+					.getTime(), row.getColumn(4)));
+		}
+	}
+
+	private List<IRODSQueryResultRow> executePaged(
+			final IRODSGenQueryBuilder builder, final String zone)
+			throws GenQueryBuilderException, JargonException,
+			JargonQueryException {
+
+		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory
+				.getIRODSGenQueryExecutor(irodsAccount);
+		IRODSGenQueryFromBuilder irodsQuery = builder
+				.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+						.getJargonProperties().getMaxFilesAndDirsQueryMax());
+
+		List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+		IRODSQueryResultSet resultSet = irodsGenQueryExecutor
+				.executeIRODSQueryInZone(irodsQuery, 0, zone);
+		rows.addAll(resultSet.getResults());
+		while (resultSet.isHasMoreRecords()) {
+			if (isCancelled()) {
+				irodsGenQueryExecutor.closeResults(resultSet);
+				break;
+			}
+			resultSet = irodsGenQueryExecutor.getMoreResultsInZone(resultSet,
+					zone);
+			rows.addAll(resultSet.getResults());
+		}
+		log.info("query returned {} rows", rows.size());
+		return rows;
+	}
+
+	private FileTreeDiffEntry buildFileTreeDiffEntry(
+			final TreeListingEntry diffFile, final DiffType diffType,
+			final String absolutePathOppositeFile,
+			final long lengthOppositeSide, final long timestampOppositeSide,
+			final String checksumThisFile, final String checksumOppositeFile) {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setCreatedAt(new Date(diffFile.modifiedMillis));
+		entry.setModifiedAt(entry.getCreatedAt());
+		entry.setDataSize(diffFile.length);
+		entry.setParentPath(diffFile.getParentAbsolutePath());
+
+		if (diffFile.directory) {
+			entry.setObjectType(ObjectType.COLLECTION);
+			entry.setPathOrName(diffFile.absolutePath);
+			return FileTreeDiffEntry.instance(diffType, entry,
+					absolutePathOppositeFile, lengthOppositeSide,
+					timestampOppositeSide);
+		} else {
+			entry.setObjectType(ObjectType.DATA_OBJECT);
+			entry.setPathOrName(diffFile.getName());
+			return FileTreeDiffEntry.instanceForFileDiff(diffType, entry,
+					absolutePathOppositeFile, lengthOppositeSide,
+					timestampOppositeSide, checksumThisFile,
+					checksumOppositeFile);
+		}
+	}
+
+	private ChecksumManager getChecksumManager() {
+		return new ChecksumManagerImpl(irodsAccount, irodsAccessObjectFactory);
+	}
+
+	/**
+	 * @return the transferControlBlock
+	 */
+	public TransferControlBlock getTransferControlBlock() {
+		return transferControlBlock;
+	}
+
+	public boolean isCancelled() {
+		boolean cancelled = false;
+		if (transferControlBlock != null) {
+			cancelled = (transferControlBlock.isCancelled() || transferControlBlock
+					.isPaused());
+		}
+		return cancelled;
+	}
+
+	/**
+	 * Matched files of equal length waiting on a checksum compare
+	 */
+	static class PendingChecksumCompare {
+		final FileTreeNode parentNode;
+		final TreeListingEntry lhs;
+		final TreeListingEntry rhs;
+		/**
+		 * Local checksum, or {@code null} if there is no catalog checksum
+		 */
+		final Future<ChecksumValue> localChecksum;
+
+		PendingChecksumCompare(final FileTreeNode parentNode,
+				final TreeListingEntry lhs, final TreeListingEntry rhs,
+				final Future<ChecksumValue> localChecksum) {
+			this.parentNode = parentNode;
+			this.lhs = lhs;
+			this.rhs = rhs;
+			this.localChecksum = localChecksum;
+		}
+	}
+
+	/**
+	 * Lists one local directory with {@code Files.walkFileTree} to a depth of
+	 * one, and forks a walk for each subdirectory. Links to directories are not
+	 * followed, so that a cycle cannot recurse forever.
+	 */
+	private class LocalDirectoryWalk extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final Path directory;
+		private final String absolutePath;
+		private final String relativePath;
+		private final Queue<TreeListingEntry> listing;
+
+		LocalDirectoryWalk(final Path directory, final String absolutePath,
+				final String relativePath, final Queue<TreeListingEntry> listing) {
+			this.directory = directory;
+			this.absolutePath = absolutePath;
+			this.relativePath = relativePath;
+			this.listing = listing;
+		}
+
+		@Override
+		protected void compute() {
+			if (isCancelled()) {
+				return;
+			}
+
+			final List<LocalDirectoryWalk> subdirectories = new ArrayList<LocalDirectoryWalk>();
+			try {
+				Files.walkFileTree(directory,
+						EnumSet.noneOf(FileVisitOption.class), 1,
+						new SimpleFileVisitor<Path>() {
+
+							@Override
+							public FileVisitResult visitFile(final Path file,
+									final BasicFileAttributes attrs)
+									throws IOException {
+								BasicFileAttributes targetAttrs = attrs;
+								if (attrs.isSymbolicLink()) {
+									try {
+										targetAttrs = Files.readAttributes(
+												file, BasicFileAttributes.class);
+									} catch (IOException e) {
+										log.warn("skipping broken link:{}", file);
+										return FileVisitResult.CONTINUE;
+									}
+									if (targetAttrs.isDirectory()) {
+										log.info("not following link to directory:{}",
+												file);
+										return FileVisitResult.CONTINUE;
+									}
+								}
+
+								String name = file.getFileName().toString();
+								String childAbsolutePath = absolutePath + "/"
+										+ name;
+								String childRelativePath = relativePath + "/"
+										+ name;
+								if (targetAttrs.isDirectory()) {
+									listing.add(new TreeListingEntry(
+											childRelativePath,
+											childAbsolutePath, true, 0,
+											targetAttrs.lastModifiedTime()
+													.toMillis(), ""));
+									subdirectories.add(new LocalDirectoryWalk(
+											file, childAbsolutePath,
+											childRelativePath, listing));
+								} else if (targetAttrs.isRegularFile()) {
+									listing.add(new TreeListingEntry(
+											childRelativePath,
+											childAbsolutePath, false,
+											targetAttrs.size(), targetAttrs
+													.lastModifiedTime()
+													.toMillis(), ""));
+								}
+								return FileVisitResult.CONTINUE;
+							}
+
+							@Override
+							public FileVisitResult visitFileFailed(
+									final Path file, final IOException exc) {
+								log.warn("unable to read local file:{}", file,
+										exc);
+								return FileVisitResult.CONTINUE;
+							}
+						});
+			} catch (IOException e) {
+				log.warn("unable to walk local directory:{}", directory, e);
+			}
+
+			invokeAll(subdirectories);
+		}
+	}
+
+}
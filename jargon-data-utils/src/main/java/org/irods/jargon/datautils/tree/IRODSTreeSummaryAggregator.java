@@ -0,0 +1,503 @@
+package org.irods.jargon.datautils.tree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes a {@link TreeSummary} for an iRODS tree from catalog aggregates,
+ * rather than by visiting each file. Counts, sizes and the size histogram come
+ * from {@code COUNT}, {@code SUM}, {@code MIN} and {@code MAX} queries grouped
+ * by collection, so the rows returned, and the round trips, grow with the number
+ * of collections. The catalog has no way to group on a file extension, so
+ * extension counts come from one paged query of data object names, which is
+ * still far fewer round trips than listing each collection.
+ * <p>
+ * Only replica number 0 of each data object is counted, as in
+ * {@code CollectionAndDataObjectListAndSearchAO.countDataObjectsUnderPath()}.
+ * <p>
+ * The summary keeps the totals for each collection, so that it may be
+ * refreshed: the per-collection totals are queried again, and the histogram
+ * and extension counts are recomputed only for collections whose totals
+ * changed or that hold data modified since the last summary. Internal to
+ * {@link TreeSummarizingServiceImpl}.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+class IRODSTreeSummaryAggregator {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(IRODSTreeSummaryAggregator.class);
+
+	/**
+	 * Number of collection names in each {@code IN} condition when
+	 * recomputing changed collections
+	 */
+	static final int COLLECTION_BATCH_SIZE = 50;
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+
+	IRODSTreeSummaryAggregator(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+	}
+
+	/**
+	 * Summarize the tree below the given collection
+	 *
+	 * @param rootPath
+	 *            {@code String} with the absolute path of an existing
+	 *            collection
+	 * @return {@link TreeSummary}
+	 * @throws JargonException
+	 */
+	TreeSummary summarize(final String rootPath) throws JargonException {
+		log.info("summarize() for:{}", rootPath);
+		long summaryTime = System.currentTimeMillis();
+
+		List<CollectionCondition> treeConditions = buildTreeConditions(rootPath);
+		Map<String, long[]> collectionTotals = queryCollectionTotals(rootPath,
+				treeConditions);
+		addLengthRanges(rootPath, treeConditions, collectionTotals);
+		Map<String, TreeSummary> collectionSummaries = buildCollectionSummaries(
+				rootPath, collectionTotals, collectionTotals.keySet());
+		addSizeBucketCounts(rootPath, treeConditions, collectionSummaries);
+		addExtensionCounts(rootPath, treeConditions, collectionSummaries);
+
+		return buildTreeSummary(rootPath, summaryTime, collectionSummaries);
+	}
+
+	/**
+	 * Bring a summary computed by this class up to date
+	 *
+	 * @param previous
+	 *            {@link TreeSummary} from {@code summarize()} or
+	 *            {@code refresh()}
+	 * @return new {@link TreeSummary}, {@code previous} is not changed
+	 * @throws JargonException
+	 */
+	TreeSummary refresh(final TreeSummary previous) throws JargonException {
+		String rootPath = previous.getRootPath();
+		log.info("refresh() for:{}", rootPath);
+		long summaryTime = System.currentTimeMillis();
+
+		List<CollectionCondition> treeConditions = buildTreeConditions(rootPath);
+		Map<String, long[]> collectionTotals = queryCollectionTotals(rootPath,
+				treeConditions);
+		Set<String> modifiedCollections = queryCollectionsModifiedSince(
+				rootPath, treeConditions, previous.getSummaryTime());
+
+		Map<String, TreeSummary> previousSummaries = previous
+				.getCollectionSummaries();
+		Map<String, TreeSummary> collectionSummaries = new HashMap<String, TreeSummary>();
+		List<String> changedCollections = new ArrayList<String>();
+		for (Map.Entry<String, long[]> entry : collectionTotals.entrySet()) {
+			TreeSummary previousSummary = previousSummaries.get(entry.getKey());
+			if (previousSummary != null
+					&& !modifiedCollections.contains(entry.getKey())
+					&& previousSummary.getTotalFiles() == entry.getValue()[0]
+					&& previousSummary.getTotalBytes() == entry.getValue()[1]) {
+				collectionSummaries.put(entry.getKey(), previousSummary);
+			} else {
+				changedCollections.add(entry.getKey());
+			}
+		}
+
+		log.info("{} of {} collections changed", changedCollections.size(),
+				collectionTotals.size());
+
+		Collections.sort(changedCollections);
+		for (int i = 0; i < changedCollections.size(); i += COLLECTION_BATCH_SIZE) {
+			List<String> batch = changedCollections.subList(i,
+					Math.min(i + COLLECTION_BATCH_SIZE, changedCollections.size()));
+			List<CollectionCondition> batchConditions = Collections
+					.singletonList(new CollectionCondition(
+							QueryConditionOperators.IN, null,
+							new ArrayList<String>(batch)));
+			addLengthRanges(rootPath, batchConditions, collectionTotals);
+			Map<String, TreeSummary> batchSummaries = buildCollectionSummaries(
+					rootPath, collectionTotals, batch);
+			addSizeBucketCounts(rootPath, batchConditions, batchSummaries);
+			addExtensionCounts(rootPath, batchConditions, batchSummaries);
+			collectionSummaries.putAll(batchSummaries);
+		}
+
+		return buildTreeSummary(rootPath, summaryTime, collectionSummaries);
+	}
+
+	private TreeSummary buildTreeSummary(final String rootPath,
+			final long summaryTime,
+			final Map<String, TreeSummary> collectionSummaries) {
+		TreeSummary treeSummary = new TreeSummary();
+		for (TreeSummary collectionSummary : collectionSummaries.values()) {
+			treeSummary.merge(collectionSummary);
+		}
+		treeSummary.setRootPath(rootPath);
+		treeSummary.setSummaryTime(summaryTime);
+		treeSummary.setCollectionSummaries(collectionSummaries);
+		return treeSummary;
+	}
+
+	private static Map<String, TreeSummary> buildCollectionSummaries(
+			final String rootPath, final Map<String, long[]> collectionTotals,
+			final Collection<String> collNames) {
+		Map<String, TreeSummary> collectionSummaries = new HashMap<String, TreeSummary>();
+		for (String collName : collNames) {
+			long[] totals = collectionTotals.get(collName);
+			TreeSummary collectionSummary = new TreeSummary();
+			collectionSummary.addFileTotals(totals[0], totals[1], totals[2],
+					totals[3]);
+			collectionSummary
+					.recordDepth(depthBelowRoot(rootPath, collName) + 1);
+			collectionSummaries.put(collName, collectionSummary);
+		}
+		return collectionSummaries;
+	}
+
+	/**
+	 * Query the count and bytes of the data objects in each collection
+	 *
+	 * @return {@code Map} of collection name to an array of count, bytes, and
+	 *         the min and max length, which are filled in by
+	 *         {@code addLengthRanges()}
+	 */
+	private Map<String, long[]> queryCollectionTotals(final String rootPath,
+			final List<CollectionCondition> collectionConditions)
+			throws JargonException {
+
+		Map<String, long[]> collectionTotals = new HashMap<String, long[]>();
+
+		for (CollectionCondition collectionCondition : collectionConditions) {
+			try {
+				IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true,
+						null);
+				builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+						.addSelectAsAgregateGenQueryValue(
+								RodsGenQueryEnum.COL_D_DATA_ID,
+								SelectFieldTypes.COUNT)
+						.addSelectAsAgregateGenQueryValue(
+								RodsGenQueryEnum.COL_DATA_SIZE,
+								SelectFieldTypes.SUM);
+				addReplicaCondition(builder);
+				collectionCondition.addTo(builder);
+
+				for (IRODSQueryResultRow row : executePaged(builder, rootPath)) {
+					String collName = row.getColumn(0);
+					if (!isInTree(rootPath, collName)) {
+						continue;
+					}
+					long files = row.getColumnAsLongOrZero(1);
+					if (files == 0) {
+						continue;
+					}
+					collectionTotals.put(collName, new long[] { files,
+							row.getColumnAsLongOrZero(2), 0L, 0L });
+				}
+			} catch (GenQueryBuilderException e) {
+				log.error("query exception for collection totals", e);
+				throw new JargonException(
+						"error in query for collection totals", e);
+			}
+		}
+
+		return collectionTotals;
+	}
+
+	/**
+	 * Query the min and max data object length in each collection. A select
+	 * may only aggregate a column once, so these are a query each.
+	 */
+	private void addLengthRanges(final String rootPath,
+			final List<CollectionCondition> collectionConditions,
+			final Map<String, long[]> collectionTotals) throws JargonException {
+
+		SelectFieldTypes[] aggregates = { SelectFieldTypes.MIN,
+				SelectFieldTypes.MAX };
+
+		for (int i = 0; i < aggregates.length; i++) {
+			for (CollectionCondition collectionCondition : collectionConditions) {
+				try {
+					IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(
+							true, null);
+					builder.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_NAME)
+							.addSelectAsAgregateGenQueryValue(
+									RodsGenQueryEnum.COL_DATA_SIZE,
+									aggregates[i]);
+					addReplicaCondition(builder);
+					collectionCondition.addTo(builder);
+
+					for (IRODSQueryResultRow row : executePaged(builder,
+							rootPath)) {
+						long[] totals = collectionTotals.get(row.getColumn(0));
+						if (totals != null) {
+							totals[2 + i] = row.getColumnAsLongOrZero(1);
+						}
+					}
+				} catch (GenQueryBuilderException e) {
+					log.error("query exception for length range", e);
+					throw new JargonException(
+							"error in query for length range", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Query a count for each collection and size bucket, with one query per
+	 * bucket
+	 */
+	private void addSizeBucketCounts(final String rootPath,
+			final List<CollectionCondition> collectionConditions,
+			final Map<String, TreeSummary> collectionSummaries)
+			throws JargonException {
+
+		for (int i = 0; i < TreeSummary.SIZE_BUCKETS.length; i++) {
+			for (CollectionCondition collectionCondition : collectionConditions) {
+				try {
+					IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(
+							true, null);
+					builder.addSelectAsGenQueryValue(
+							RodsGenQueryEnum.COL_COLL_NAME)
+							.addSelectAsAgregateGenQueryValue(
+									RodsGenQueryEnum.COL_D_DATA_ID,
+									SelectFieldTypes.COUNT);
+					if (i > 0) {
+						builder.addConditionAsGenQueryField(
+								RodsGenQueryEnum.COL_DATA_SIZE,
+								QueryConditionOperators.NUMERIC_GREATER_THAN_OR_EQUAL_TO,
+								String.valueOf(TreeSummary.SIZE_BUCKET_LIMITS[i - 1]));
+					}
+					if (i < TreeSummary.SIZE_BUCKET_LIMITS.length) {
+						builder.addConditionAsGenQueryField(
+								RodsGenQueryEnum.COL_DATA_SIZE,
+								QueryConditionOperators.NUMERIC_LESS_THAN,
+								String.valueOf(TreeSummary.SIZE_BUCKET_LIMITS[i]));
+					}
+					addReplicaCondition(builder);
+					collectionCondition.addTo(builder);
+
+					for (IRODSQueryResultRow row : executePaged(builder,
+							rootPath)) {
+						TreeSummary collectionSummary = collectionSummaries
+								.get(row.getColumn(0));
+						if (collectionSummary != null) {
+							collectionSummary.addToSizeBucketCount(
+									TreeSummary.SIZE_BUCKETS[i],
+									row.getColumnAsLongOrZero(1));
+						}
+					}
+				} catch (GenQueryBuilderException e) {
+					log.error("query exception for size buckets", e);
+					throw new JargonException(
+							"error in query for size buckets", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Count file extensions for each collection from a paged query of data
+	 * object names
+	 */
+	private void addExtensionCounts(final String rootPath,
+			final List<CollectionCondition> collectionConditions,
+			final Map<String, TreeSummary> collectionSummaries)
+			throws JargonException {
+
+		for (CollectionCondition collectionCondition : collectionConditions) {
+			try {
+				IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true,
+						null);
+				builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+						.addSelectAsGenQueryValue(
+								RodsGenQueryEnum.COL_DATA_NAME);
+				addReplicaCondition(builder);
+				collectionCondition.addTo(builder);
+
+				for (IRODSQueryResultRow row : executePaged(builder, rootPath)) {
+					TreeSummary collectionSummary = collectionSummaries.get(row
+							.getColumn(0));
+					if (collectionSummary != null) {
+						collectionSummary.addToExtensionCount(
+								LocalFileUtils
+										.getFileExtension(row.getColumn(1)
+												.toLowerCase()), 1);
+					}
+				}
+			} catch (GenQueryBuilderException e) {
+				log.error("query exception for data object names", e);
+				throw new JargonException(
+						"error in query for data object names", e);
+			}
+		}
+	}
+
+	/**
+	 * Find collections holding data objects modified at or after the given
+	 * time
+	 */
+	private Set<String> queryCollectionsModifiedSince(final String rootPath,
+			final List<CollectionCondition> collectionConditions,
+			final long sinceMillis) throws JargonException {
+
+		Set<String> modifiedCollections = new HashSet<String>();
+
+		for (CollectionCondition collectionCondition : collectionConditions) {
+			try {
+				IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true,
+						null);
+				builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+						.addSelectAsAgregateGenQueryValue(
+								RodsGenQueryEnum.COL_D_DATA_ID,
+								SelectFieldTypes.COUNT)
+						.addConditionAsGenQueryField(
+								RodsGenQueryEnum.COL_D_MODIFY_TIME,
+								QueryConditionOperators.NUMERIC_GREATER_THAN_OR_EQUAL_TO,
+								String.valueOf(sinceMillis / 1000));
+				collectionCondition.addTo(builder);
+
+				for (IRODSQueryResultRow row : executePaged(builder, rootPath)) {
+					modifiedCollections.add(row.getColumn(0));
+				}
+			} catch (GenQueryBuilderException e) {
+				log.error("query exception for modified collections", e);
+				throw new JargonException(
+						"error in query for modified collections", e);
+			}
+		}
+
+		return modifiedCollections;
+	}
+
+	private List<IRODSQueryResultRow> executePaged(
+			final IRODSGenQueryBuilder builder, final String rootPath)
+			throws GenQueryBuilderException, JargonException {
+
+		String zone = MiscIRODSUtils.getZoneInPath(rootPath);
+		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory
+				.getIRODSGenQueryExecutor(irodsAccount);
+		IRODSGenQueryFromBuilder irodsQuery = builder
+				.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+						.getJargonProperties().getMaxFilesAndDirsQueryMax());
+
+		List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+		try {
+			IRODSQueryResultSet resultSet = irodsGenQueryExecutor
+					.executeIRODSQueryInZone(irodsQuery, 0, zone);
+			rows.addAll(resultSet.getResults());
+			while (resultSet.isHasMoreRecords()) {
+				resultSet = irodsGenQueryExecutor.getMoreResultsInZone(
+						resultSet, zone);
+				rows.addAll(resultSet.getResults());
+			}
+		} catch (JargonQueryException e) {
+			log.error("query exception summarizing tree", e);
+			throw new JargonException("error in query summarizing tree", e);
+		}
+		return rows;
+	}
+
+	private static void addReplicaCondition(final IRODSGenQueryBuilder builder) {
+		builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_DATA_REPL_NUM,
+				QueryConditionOperators.EQUAL, "0");
+	}
+
+	/**
+	 * Conditions that select the root collection and all collections below it
+	 */
+	private static List<CollectionCondition> buildTreeConditions(
+			final String rootPath) {
+		List<CollectionCondition> conditions = new ArrayList<CollectionCondition>();
+		conditions.add(new CollectionCondition(QueryConditionOperators.EQUAL,
+				rootPath, null));
+		conditions.add(new CollectionCondition(QueryConditionOperators.LIKE,
+				treePrefix(rootPath) + "%", null));
+		return conditions;
+	}
+
+	private static String treePrefix(final String rootPath) {
+		return rootPath.endsWith("/") ? rootPath : rootPath + "/";
+	}
+
+	/**
+	 * {@code LIKE} treats {@code _} as a wildcard, so recheck that a
+	 * collection is in the tree
+	 */
+	static boolean isInTree(final String rootPath, final String collName) {
+		return collName.equals(rootPath)
+				|| collName.startsWith(treePrefix(rootPath));
+	}
+
+	/**
+	 * @return {@code int} with the number of collections between the root and
+	 *         the given collection, 0 for the root itself
+	 */
+	static int depthBelowRoot(final String rootPath, final String collName) {
+		int depth = 0;
+		for (int i = rootPath.length(); i < collName.length(); i++) {
+			if (collName.charAt(i) == '/') {
+				depth++;
+			}
+		}
+		if (rootPath.endsWith("/") && collName.length() > rootPath.length()) {
+			depth++;
+		}
+		return depth;
+	}
+
+	/**
+	 * A condition on {@code COLL_NAME}, either a single value or a list for
+	 * {@code IN}
+	 */
+	static class CollectionCondition {
+		private final QueryConditionOperators operator;
+		private final String value;
+		private final List<String> values;
+
+		CollectionCondition(final QueryConditionOperators operator,
+				final String value, final List<String> values) {
+			this.operator = operator;
+			this.value = value;
+			this.values = values;
+		}
+
+		void addTo(final IRODSGenQueryBuilder builder) {
+			if (values != null) {
+				builder.addConditionAsMultiValueCondition(
+						RodsGenQueryEnum.COL_COLL_NAME, operator, values);
+			} else {
+				builder.addConditionAsGenQueryField(
+						RodsGenQueryEnum.COL_COLL_NAME, operator, value);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+package org.irods.jargon.datautils.tree;
+
+import java.util.Comparator;
+
+/**
+ * One file or directory found listing a local or iRODS tree for a bulk diff,
+ * with its path relative to the root of the tree. Internal to
+ * {@link BulkFileTreeDiffUtilityImpl}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class TreeListingEntry {
+
+	/**
+	 * Orders relative paths as a depth first walk of the tree, so that the
+	 * children of a directory directly follow it. This is string order with the
+	 * path separator sorting before any other character, otherwise
+	 * {@code /a/b-c} would fall between {@code /a/b} and {@code /a/b/c}.
+	 */
+	static final Comparator<TreeListingEntry> PATH_ORDER = new Comparator<TreeListingEntry>() {
+		@Override
+		public int compare(final TreeListingEntry o1, final TreeListingEntry o2) {
+			return comparePaths(o1.relativePath, o2.relativePath);
+		}
+	};
+
+	final String relativePath;
+	final String absolutePath;
+	final boolean directory;
+	final long length;
+	final long modifiedMillis;
+	final String checksum;
+
+	TreeListingEntry(final String relativePath, final String absolutePath,
+			final boolean directory, final long length,
+			final long modifiedMillis, final String checksum) {
+		this.relativePath = relativePath;
+		this.absolutePath = absolutePath;
+		this.directory = directory;
+		this.length = length;
+		this.modifiedMillis = modifiedMillis;
+		this.checksum = checksum == null ? "" : checksum;
+	}
+
+	static int comparePaths(final String path1, final String path2) {
+		int len = Math.min(path1.length(), path2.length());
+		for (int i = 0; i < len; i++) {
+			char c1 = path1.charAt(i);
+			char c2 = path2.charAt(i);
+			if (c1 != c2) {
+				if (c1 == '/') {
+					return -1;
+				}
+				if (c2 == '/') {
+					return 1;
+				}
+				return c1 - c2;
+			}
+		}
+		return path1.length() - path2.length();
+	}
+
+	/**
+	 * @return {@code true} if the given relative path is beneath this entry
+	 */
+	boolean isAncestorOf(final String otherRelativePath) {
+		return otherRelativePath.length() > relativePath.length()
+				&& otherRelativePath.charAt(relativePath.length()) == '/'
+				&& otherRelativePath.startsWith(relativePath);
+	}
+
+	String getName() {
+		return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+	}
+
+	String getParentAbsolutePath() {
+		int idx = absolutePath.lastIndexOf('/');
+		return idx <= 0 ? "/" : absolutePath.substring(0, idx);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("TreeListingEntry");
+		sb.append("\n   relativePath:");
+		sb.append(relativePath);
+		sb.append("\n   directory:");
+		sb.append(directory);
+		sb.append("\n   length:");
+		sb.append(length);
+		return sb.toString();
+	}
+
+}
@@ -40,4 +40,40 @@ public interface TreeSummarizingService {
 	TreeSummary generateTreeSummaryForLocalFileTree(String localFilePath)
 			throws FileNotFoundException, JargonException;
 
-}
\ No newline at end of file
+	/**
+	 * Create a summary describing the contents of an iRODS file tree using
+	 * catalog aggregates grouped by collection, rather than by visiting each
+	 * file. This gives the same {@link TreeSummary} as
+	 * {@link #generateTreeSummaryForIrodsFileTree(String)}, counting replica 0
+	 * of each data object, with round trips that grow with the number of
+	 * collections rather than the number of files. The summary may be brought
+	 * up to date later with {@link #refreshTreeSummaryForIrodsFileTree(TreeSummary)}.
+	 *
+	 * @param irodsFilePath
+	 *            {@code String} with an absolute path to an iRODS collection
+	 * @return {@link TreeSummary}
+	 * @throws FileNotFoundException
+	 * @throws JargonException
+	 */
+	TreeSummary generateTreeSummaryForIrodsFileTreeUsingAggregates(
+			String irodsFilePath) throws FileNotFoundException,
+			JargonException;
+
+	/**
+	 * Refresh a summary made by
+	 * {@link #generateTreeSummaryForIrodsFileTreeUsingAggregates(String)},
+	 * recomputing the details only for collections that changed since that
+	 * summary was made
+	 *
+	 * @param treeSummary
+	 *            {@link TreeSummary} computed with catalog aggregates, which is
+	 *            not changed
+	 * @return new {@link TreeSummary} for the same tree
+	 * @throws FileNotFoundException
+	 *             if the tree no longer exists
+	 * @throws JargonException
+	 */
+	TreeSummary refreshTreeSummaryForIrodsFileTree(TreeSummary treeSummary)
+			throws FileNotFoundException, JargonException;
+
+}
@@ -9,6 +9,7 @@ import java.io.FileNotFoundException;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.io.IRODSFile;
 import org.irods.jargon.core.service.AbstractJargonService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +21,8 @@ import org.slf4j.LoggerFactory;
  * relative frequency of each size, and a table that gives counts by file
  * extension.
  * <p>
- * This service handles both local and iRODS directories
+ * This service handles both local and iRODS directories. An iRODS tree may also
+ * be summarized from catalog aggregates, which avoids a round trip per file.
  * 
  * @author Mike Conway - DICE
  * 
@@ -65,7 +67,8 @@ public class TreeSummarizingServiceImpl extends AbstractJargonService implements
 			throw new FileNotFoundException("cannot find local file");
 		}
 
-		TreeSummarizingVisitor fileTreeIteratorVisitor = new TreeSummarizingVisitor();
+		TreeSummarizingVisitor fileTreeIteratorVisitor = new TreeSummarizingVisitor(
+				irodsFile.getAbsolutePath());
 		FileTreeIteratorVisitorInvoker invoker = new FileTreeIteratorVisitorInvoker(
 				getIrodsAccessObjectFactory(), getIrodsAccount(),
 				fileTreeIteratorVisitor, irodsFile);
@@ -79,6 +82,76 @@ public class TreeSummarizingServiceImpl extends AbstractJargonService implements
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.datautils.tree.TreeSummarizingService#
+	 * generateTreeSummaryForIrodsFileTreeUsingAggregates(java.lang.String)
+	 */
+	@Override
+	public TreeSummary generateTreeSummaryForIrodsFileTreeUsingAggregates(
+			final String irodsFilePath) throws FileNotFoundException,
+			JargonException {
+		log.info("generateTreeSummaryForIrodsFileTreeUsingAggregates()");
+
+		if (irodsFilePath == null || irodsFilePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsFilePath");
+		}
+
+		String rootPath = checkIrodsCollection(irodsFilePath);
+		TreeSummary summary = new IRODSTreeSummaryAggregator(
+				getIrodsAccessObjectFactory(), getIrodsAccount())
+				.summarize(rootPath);
+		log.info("...done");
+		return summary;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.datautils.tree.TreeSummarizingService#
+	 * refreshTreeSummaryForIrodsFileTree
+	 * (org.irods.jargon.datautils.tree.TreeSummary)
+	 */
+	@Override
+	public TreeSummary refreshTreeSummaryForIrodsFileTree(
+			final TreeSummary treeSummary) throws FileNotFoundException,
+			JargonException {
+		log.info("refreshTreeSummaryForIrodsFileTree()");
+
+		if (treeSummary == null) {
+			throw new IllegalArgumentException("null treeSummary");
+		}
+
+		if (treeSummary.getCollectionSummaries() == null) {
+			throw new IllegalArgumentException(
+					"treeSummary was not computed with catalog aggregates");
+		}
+
+		checkIrodsCollection(treeSummary.getRootPath());
+		TreeSummary summary = new IRODSTreeSummaryAggregator(
+				getIrodsAccessObjectFactory(), getIrodsAccount())
+				.refresh(treeSummary);
+		log.info("...done");
+		return summary;
+	}
+
+	private String checkIrodsCollection(final String irodsFilePath)
+			throws FileNotFoundException, JargonException {
+		IRODSFile irodsFile = getIrodsAccessObjectFactory()
+				.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(
+						irodsFilePath);
+		if (!irodsFile.exists()) {
+			throw new FileNotFoundException("cannot find iRODS collection");
+		}
+
+		if (!irodsFile.isDirectory()) {
+			throw new JargonException("irodsFilePath is not a collection");
+		}
+
+		return irodsFile.getAbsolutePath();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -101,7 +174,8 @@ public class TreeSummarizingServiceImpl extends AbstractJargonService implements
 			throw new FileNotFoundException("cannot find local file");
 		}
 
-		TreeSummarizingVisitor fileTreeIteratorVisitor = new TreeSummarizingVisitor();
+		TreeSummarizingVisitor fileTreeIteratorVisitor = new TreeSummarizingVisitor(
+				localPathFile.getAbsolutePath());
 		FileTreeIteratorVisitorInvoker invoker = new FileTreeIteratorVisitorInvoker(
 				getIrodsAccessObjectFactory(), getIrodsAccount(),
 				fileTreeIteratorVisitor, localPathFile);
@@ -22,15 +22,48 @@ public class TreeSummarizingVisitor extends AbstractIRODSVisitor<File> {
 
 	private final TreeSummary treeSummary = new TreeSummary();
 
+	/**
+	 * Absolute path of the tree root, used to find the depth of each file, may
+	 * be {@code null} if depth is not tracked
+	 */
+	private final String rootPath;
+
+	public TreeSummarizingVisitor() {
+		this(null);
+	}
+
+	/**
+	 * @param rootPath
+	 *            {@code String} with the absolute path of the root of the
+	 *            visited tree, so that the maximum depth is computed
+	 */
+	public TreeSummarizingVisitor(final String rootPath) {
+		this.rootPath = rootPath;
+	}
+
 	@Override
 	public VisitorDesiredAction invoke(final File visited,
 			final AbstractIRODSVisitorInvoker<File> abstractIRODSVisitorInvoker)
 			throws JargonException {
 
 		treeSummary.processFileInfo(visited);
+		if (rootPath != null) {
+			treeSummary.recordDepth(depthBelowRoot(visited.getAbsolutePath()));
+		}
 		return VisitorDesiredAction.CONTINUE;
 	}
 
+	private int depthBelowRoot(final String absolutePath) {
+		int depth = 0;
+		for (int i = rootPath.length(); i < absolutePath.length(); i++) {
+			char c = absolutePath.charAt(i);
+			if (c == '/' || c == File.separatorChar) {
+				depth++;
+			}
+		}
+		return depth;
+	}
+
 	@Override
 	public void complete() throws JargonException {
 
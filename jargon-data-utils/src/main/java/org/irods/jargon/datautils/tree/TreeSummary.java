@@ -4,6 +4,7 @@
 package org.irods.jargon.datautils.tree;
 
 import java.io.File;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -28,6 +29,22 @@ public class TreeSummary {
 	public static final String SIZE_100GB = "100GB";
 	public static final String SIZE_GT_100GB = "> 100 GB";
 
+	/**
+	 * Size bucket names, in order of the upper bounds in
+	 * {@code SIZE_BUCKET_LIMITS}, the last bucket has no upper bound
+	 */
+	static final String[] SIZE_BUCKETS = { SIZE_10K, SIZE_100K, SIZE_1M,
+			SIZE_32M, SIZE_100M, SIZE_1GB, SIZE_10GB, SIZE_100GB,
+			SIZE_GT_100GB };
+
+	/**
+	 * Exclusive upper bound in bytes of each size bucket but the last
+	 */
+	static final long[] SIZE_BUCKET_LIMITS = { 10L * 1024, 100L * 1024,
+			1024L * 1024, 32L * 1024 * 1024, 100L * 1024 * 1024,
+			1024L * 1024 * 1024, 10L * 1024 * 1024 * 1024,
+			100L * 1024 * 1024 * 1024 };
+
 	private ConcurrentMap<String, AtomicLong> fileSizeSummaryMap = new ConcurrentHashMap<String, AtomicLong>();
 	private final ConcurrentMap<String, AtomicLong> fileExtensionSummaryMap = new ConcurrentHashMap<String, AtomicLong>();
 
@@ -35,19 +52,33 @@ public class TreeSummary {
 	private long totalFiles = 0L;
 	private long minLength = 0L;
 	private long maxLength = 0L;
+	private int maxDepth = 0;
+
+	/**
+	 * Absolute path of the summarized tree, set for summaries computed with
+	 * catalog aggregates
+	 */
+	private String rootPath = "";
+
+	/**
+	 * Time, in epoch millis, that the catalog was queried for this summary, set
+	 * for summaries computed with catalog aggregates
+	 */
+	private long summaryTime = 0L;
+
+	/**
+	 * Summary of the files directly in each collection, by absolute path, kept
+	 * so that a summary computed with catalog aggregates can be refreshed one
+	 * collection at a time
+	 */
+	private Map<String, TreeSummary> collectionSummaries = null;
 
 	public TreeSummary() {
 
 		// init file size summary
-		fileSizeSummaryMap.put(SIZE_10K, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_100K, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_1M, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_32M, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_100M, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_1GB, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_10GB, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_100GB, new AtomicLong(0L));
-		fileSizeSummaryMap.put(SIZE_GT_100GB, new AtomicLong(0L));
+		for (String sizeBucket : SIZE_BUCKETS) {
+			fileSizeSummaryMap.put(sizeBucket, new AtomicLong(0L));
+		}
 
 	}
 
@@ -59,46 +90,111 @@ public class TreeSummary {
 	}
 
 	public void processFileInfo(final File file) {
+		processFileInfo(file.getName(), file.length());
+	}
 
-		long length = file.length();
-		String extension = LocalFileUtils.getFileExtension(file.getName()
+	/**
+	 * Add one file to the summary
+	 *
+	 * @param fileName
+	 *            {@code String} with the name of the file, used for the
+	 *            extension count
+	 * @param length
+	 *            {@code long} with the length of the file
+	 */
+	public void processFileInfo(final String fileName, final long length) {
+
+		String extension = LocalFileUtils.getFileExtension(fileName
 				.toLowerCase());
 
-		totalBytes += length;
-		totalFiles++;
+		addFileTotals(1, length, length, length);
+		addToExtensionCount(extension, 1);
+		addToSizeBucketCount(sizeBucketForLength(length), 1);
+
+	}
+
+	/**
+	 * Find the size bucket for a file length
+	 *
+	 * @param length
+	 *            {@code long} with the file length
+	 * @return {@code String} with the bucket name, one of the {@code SIZE_}
+	 *         constants
+	 */
+	public static String sizeBucketForLength(final long length) {
+		for (int i = 0; i < SIZE_BUCKET_LIMITS.length; i++) {
+			if (length < SIZE_BUCKET_LIMITS[i]) {
+				return SIZE_BUCKETS[i];
+			}
+		}
+		return SIZE_GT_100GB;
+	}
+
+	/**
+	 * Add totals for a number of files, as given by catalog aggregates
+	 */
+	void addFileTotals(final long files, final long bytes,
+			final long minFileLength, final long maxFileLength) {
+		if (files <= 0) {
+			return;
+		}
 
-		if (minLength == 0) {
-			minLength = length;
+		if (totalFiles == 0 || minFileLength < minLength) {
+			minLength = minFileLength;
 		}
 
-		if (length > maxLength) {
-			maxLength = length;
+		if (maxFileLength > maxLength) {
+			maxLength = maxFileLength;
 		}
 
+		totalBytes += bytes;
+		totalFiles += files;
+	}
+
+	void addToExtensionCount(final String extension, final long count) {
 		fileExtensionSummaryMap.putIfAbsent(extension, new AtomicLong(0));
-		fileExtensionSummaryMap.get(extension).incrementAndGet();
-
-		// classify length
-		if (length < 10 * 1024) {
-			fileSizeSummaryMap.get(SIZE_10K).incrementAndGet();
-		} else if (length < 100 * 1024) {
-			fileSizeSummaryMap.get(SIZE_100K).incrementAndGet();
-		} else if (length < 1 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_1M).incrementAndGet();
-		} else if (length < 32 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_32M).incrementAndGet();
-		} else if (length < 100 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_100M).incrementAndGet();
-		} else if (length < 1 * 1024 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_1GB).incrementAndGet();
-		} else if (length < 10 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_10GB).incrementAndGet();
-		} else if (length < 100 * 1024 * 1024 * 1024) {
-			fileSizeSummaryMap.get(SIZE_100GB).incrementAndGet();
-		} else {
-			fileSizeSummaryMap.get(SIZE_GT_100GB).incrementAndGet();
+		fileExtensionSummaryMap.get(extension).addAndGet(count);
+	}
+
+	void addToSizeBucketCount(final String sizeBucket, final long count) {
+		fileSizeSummaryMap.putIfAbsent(sizeBucket, new AtomicLong(0));
+		fileSizeSummaryMap.get(sizeBucket).addAndGet(count);
+	}
+
+	/**
+	 * Note the depth of a file below the root of the tree, where a file
+	 * directly in the root is at depth 1
+	 */
+	void recordDepth(final int depth) {
+		if (depth > maxDepth) {
+			maxDepth = depth;
+		}
+	}
+
+	/**
+	 * Add the counts of another summary to this one
+	 *
+	 * @param other
+	 *            {@link TreeSummary} to add
+	 */
+	public void merge(final TreeSummary other) {
+		if (other == null) {
+			throw new IllegalArgumentException("null other");
+		}
+
+		addFileTotals(other.totalFiles, other.totalBytes, other.minLength,
+				other.maxLength);
+		recordDepth(other.maxDepth);
+
+		for (Map.Entry<String, AtomicLong> entry : other.fileExtensionSummaryMap
+				.entrySet()) {
+			addToExtensionCount(entry.getKey(), entry.getValue().get());
 		}
 
+		for (Map.Entry<String, AtomicLong> entry : other.fileSizeSummaryMap
+				.entrySet()) {
+			addToSizeBucketCount(entry.getKey(), entry.getValue().get());
+		}
 	}
 
 	/**
@@ -215,4 +311,51 @@ public class TreeSummary {
 		return maxLength;
 	}
 
+	/**
+	 * @return the maxDepth, the deepest level of a file below the root, where
+	 *         files directly in the root are at depth 1
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return the rootPath
+	 */
+	public String getRootPath() {
+		return rootPath;
+	}
+
+	/**
+	 * @param rootPath
+	 *            the rootPath to set
+	 */
+	void setRootPath(final String rootPath) {
+		this.rootPath = rootPath;
+	}
+
+	/**
+	 * @return the summaryTime
+	 */
+	public long getSummaryTime() {
+		return summaryTime;
+	}
+
+	/**
+	 * @param summaryTime
+	 *            the summaryTime to set
+	 */
+	void setSummaryTime(final long summaryTime) {
+		this.summaryTime = summaryTime;
+	}
+
+	Map<String, TreeSummary> getCollectionSummaries() {
+		return collectionSummaries;
+	}
+
+	void setCollectionSummaries(
+			final Map<String, TreeSummary> collectionSummaries) {
+		this.collectionSummaries = collectionSummaries;
+	}
+
 }
@@ -0,0 +1,175 @@
+package org.irods.jargon.datautils.datacache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.datautils.datacache.MemoryCacheTier.CacheKey;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TieredDataCacheServiceImplTest {
+
+	private IRODSFileSystem irodsFileSystem;
+	private RecordingDataCacheService irodsTier;
+	private ExecutorService writeBehindExecutorService;
+	private ConcurrentHashMap<CacheKey, byte[]> pendingWrites;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsFileSystem = IRODSFileSystem.instance();
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247,
+				"test", "test", "/zone/home/test", "zone", "");
+		irodsTier = new RecordingDataCacheService(irodsFileSystem, irodsAccount);
+		writeBehindExecutorService = Executors.newSingleThreadExecutor();
+		pendingWrites = new ConcurrentHashMap<CacheKey, byte[]>();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		writeBehindExecutorService.shutdownNow();
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@Test
+	public void testPutIsWrittenBehindAndHitInMemory() throws Exception {
+		TieredDataCacheServiceImpl cacheService = new TieredDataCacheServiceImpl(
+				irodsTier, new MemoryCacheTier(10, 60000), pendingWrites,
+				writeBehindExecutorService);
+		String path = cacheService.putStringValueIntoCache("value", "key");
+		Assert.assertEquals("/zone/home/test/cacheServiceTempDir/test-"
+				+ "key".hashCode() + ".dat", path);
+
+		drainWrites();
+		Assert.assertEquals(1, irodsTier.stores.size());
+		Assert.assertEquals("value", new String(irodsTier.stores.get(0)));
+		Assert.assertTrue(pendingWrites.isEmpty());
+
+		Assert.assertEquals("value",
+				cacheService.retrieveStringValueFromCache("test", "key"));
+		Assert.assertEquals("hit should not read iRODS", 0, irodsTier.reads);
+	}
+
+	@Test
+	public void testRetrievePendingWriteAfterEviction() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		writeBehindExecutorService.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		TieredDataCacheServiceImpl cacheService = new TieredDataCacheServiceImpl(
+				irodsTier, new MemoryCacheTier(1, 60000), pendingWrites,
+				writeBehindExecutorService);
+		cacheService.putSerializedEncryptedObjectIntoCache("first", "key1");
+		cacheService.putStringValueIntoCache("second", "key2");
+
+		Assert.assertEquals("first",
+				cacheService.retrieveObjectFromCache("test", "key1"));
+		Assert.assertEquals(0, irodsTier.reads);
+
+		release.countDown();
+		drainWrites();
+		Assert.assertEquals(2, irodsTier.stores.size());
+	}
+
+	@Test
+	public void testMissReadsIRODSThenHits() throws Exception {
+		irodsTier.readValue = "from irods".getBytes();
+		TieredDataCacheServiceImpl cacheService = new TieredDataCacheServiceImpl(
+				irodsTier, new MemoryCacheTier(10, 60000), pendingWrites,
+				writeBehindExecutorService);
+		Assert.assertEquals("from irods",
+				cacheService.retrieveStringValueFromCache("test", "key"));
+		Assert.assertEquals("from irods",
+				cacheService.retrieveStringValueFromCache("test", "key"));
+		Assert.assertEquals(1, irodsTier.reads);
+	}
+
+	@Test
+	public void testMemoryTierEvictsLeastRecentlyUsed() throws Exception {
+		MemoryCacheTier memoryTier = new MemoryCacheTier(2, 60000);
+		CacheKey a = new CacheKey("/a", "k");
+		CacheKey b = new CacheKey("/b", "k");
+		CacheKey c = new CacheKey("/c", "k");
+		memoryTier.put(a, new byte[1]);
+		memoryTier.put(b, new byte[1]);
+		Assert.assertNotNull(memoryTier.get(a));
+		memoryTier.put(c, new byte[1]);
+		Assert.assertNotNull(memoryTier.get(a));
+		Assert.assertNull("b least recently used", memoryTier.get(b));
+		Assert.assertNotNull(memoryTier.get(c));
+	}
+
+	@Test
+	public void testMemoryTierExpires() throws Exception {
+		MemoryCacheTier memoryTier = new MemoryCacheTier(10, 1);
+		memoryTier.put(new CacheKey("/a", "k"), new byte[1]);
+		memoryTier.put(new CacheKey("/b", "k"), new byte[1]);
+		Thread.sleep(10);
+		Assert.assertEquals(2, memoryTier.purgeExpired());
+		Assert.assertEquals(0, memoryTier.size());
+	}
+
+	@Test
+	public void testMemoryTierKeyIncludesEncryptionKey() throws Exception {
+		MemoryCacheTier memoryTier = new MemoryCacheTier(10, 60000);
+		memoryTier.put(new CacheKey("/a", "right"), new byte[1]);
+		Assert.assertNull(memoryTier.get(new CacheKey("/a", "wrong")));
+	}
+
+	private void drainWrites() throws Exception {
+		writeBehindExecutorService.submit(new Runnable() {
+			@Override
+			public void run() {
+			}
+		}).get(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * iRODS tier that records stores and serves a fixed value instead of
+	 * touching iRODS
+	 */
+	private static class RecordingDataCacheService extends DataCacheServiceImpl {
+		private final List<byte[]> stores = new ArrayList<byte[]>();
+		private volatile int reads = 0;
+		private byte[] readValue = new byte[0];
+
+		RecordingDataCacheService(final IRODSFileSystem irodsFileSystem,
+				final IRODSAccount irodsAccount) throws JargonException {
+			super(irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount);
+		}
+
+		@Override
+		String storeEncryptedBytes(final byte[] data, final String key) {
+			synchronized (stores) {
+				stores.add(data);
+			}
+			return buildIRODSFileAbsolutePath(key.hashCode(), getIrodsAccount()
+					.getUserName());
+		}
+
+		@Override
+		byte[] retrieveDecryptedBytes(final String key) {
+			reads++;
+			return readValue;
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelGzipOutputStreamTest {
+
+	private static final int BLOCK_SIZE = 32 * 1024;
+	private static ExecutorService executorService;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		executorService = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testCompressManyBlocks() throws Exception {
+		byte[] data = buildCompressibleData(BLOCK_SIZE * 10 + 123);
+		byte[] compressed = compress(data, BLOCK_SIZE, 2);
+		Assert.assertTrue("did not compress", compressed.length < data.length);
+		Assert.assertTrue("data differs after round trip",
+				Arrays.equals(data, uncompress(compressed)));
+	}
+
+	@Test
+	public void testCompressExactBlocks() throws Exception {
+		byte[] data = buildCompressibleData(BLOCK_SIZE * 3);
+		Assert.assertTrue("data differs after round trip",
+				Arrays.equals(data, uncompress(compress(data, BLOCK_SIZE, 1))));
+	}
+
+	@Test
+	public void testCompressRandomData() throws Exception {
+		byte[] data = new byte[BLOCK_SIZE * 5 + 7];
+		new Random(42).nextBytes(data);
+		Assert.assertTrue("data differs after round trip",
+				Arrays.equals(data, uncompress(compress(data, BLOCK_SIZE, 3))));
+	}
+
+	@Test
+	public void testCompressEmpty() throws Exception {
+		byte[] compressed = compress(new byte[0], BLOCK_SIZE, 2);
+		Assert.assertEquals(0, uncompress(compressed).length);
+	}
+
+	@Test
+	public void testSingleByteWrites() throws Exception {
+		byte[] data = buildCompressibleData(BLOCK_SIZE + 10);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzOut = new ParallelGzipOutputStream(target,
+				executorService, BLOCK_SIZE, Deflater.BEST_SPEED, 2);
+		for (byte b : data) {
+			gzOut.write(b);
+		}
+		gzOut.close();
+		Assert.assertTrue("data differs after round trip",
+				Arrays.equals(data, uncompress(target.toByteArray())));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSmallBlockSize() throws Exception {
+		new ParallelGzipOutputStream(new ByteArrayOutputStream(),
+				executorService, 1024, Deflater.DEFAULT_COMPRESSION, 2);
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteAfterClose() throws Exception {
+		ParallelGzipOutputStream gzOut = new ParallelGzipOutputStream(
+				new ByteArrayOutputStream(), executorService);
+		gzOut.close();
+		gzOut.write(1);
+	}
+
+	private byte[] compress(final byte[] data, final int blockSize,
+			final int maxBlocksInFlight) throws IOException {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		ParallelGzipOutputStream gzOut = new ParallelGzipOutputStream(target,
+				executorService, blockSize, Deflater.DEFAULT_COMPRESSION,
+				maxBlocksInFlight);
+		// uneven writes cross block boundaries
+		int offset = 0;
+		while (offset < data.length) {
+			int len = Math.min(5000, data.length - offset);
+			gzOut.write(data, offset, len);
+			offset += len;
+		}
+		gzOut.close();
+		return target.toByteArray();
+	}
+
+	private byte[] uncompress(final byte[] compressed) throws IOException {
+		GZIPInputStream gzIn = new GZIPInputStream(new ByteArrayInputStream(
+				compressed));
+		try {
+			return IOUtils.toByteArray(gzIn);
+		} finally {
+			gzIn.close();
+		}
+	}
+
+	private byte[] buildCompressibleData(final int length) {
+		byte[] data = new byte[length];
+		Random random = new Random(7);
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) ('a' + random.nextInt(6));
+		}
+		return data;
+	}
+
+}
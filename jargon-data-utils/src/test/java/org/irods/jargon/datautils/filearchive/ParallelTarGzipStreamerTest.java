@@ -0,0 +1,148 @@
+package org.irods.jargon.datautils.filearchive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.irods.jargon.core.exception.JargonException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelTarGzipStreamerTest {
+
+	private static File sourceDir;
+	private static final Map<String, byte[]> expected = new HashMap<String, byte[]>();
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		File parent = File.createTempFile("ParallelTarGzipStreamerTest", "");
+		parent.delete();
+		parent.mkdirs();
+		sourceDir = new File(parent, "source");
+		Random random = new Random(42);
+		// mix of files read ahead and files streamed from disk
+		int[] lengths = { 0, 10, 40 * 1024, 300 * 1024, 3 * 1024 * 1024 };
+		for (int i = 0; i < lengths.length; i++) {
+			File dir = new File(sourceDir, "dir" + (i % 2) + "/sub" + i);
+			dir.mkdirs();
+			byte[] data = new byte[lengths[i]];
+			random.nextBytes(data);
+			File file = new File(dir, "file" + i + ".dat");
+			FileOutputStream fos = new FileOutputStream(file);
+			try {
+				fos.write(data);
+			} finally {
+				fos.close();
+			}
+			expected.put("source/dir" + (i % 2) + "/sub" + i + "/file" + i
+					+ ".dat", data);
+		}
+		new File(sourceDir, "emptyDir").mkdirs();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		FileUtils.deleteDirectory(sourceDir.getParentFile());
+	}
+
+	@Test
+	public void testArchiveToStreamCompressed() throws Exception {
+		ParallelTarGzipStreamer streamer = new ParallelTarGzipStreamer(4, true);
+		streamer.setReadAheadMaxFileSize(100 * 1024);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		long count = streamer.archiveToStream(sourceDir.getAbsolutePath(),
+				target);
+		Assert.assertEquals(expected.size(), count);
+		verifyArchive(new GzipCompressorInputStream(new ByteArrayInputStream(
+				target.toByteArray())));
+	}
+
+	@Test
+	public void testArchiveToStreamTarOnly() throws Exception {
+		ParallelTarGzipStreamer streamer = new ParallelTarGzipStreamer(2,
+				false);
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		streamer.archiveToStream(sourceDir.getAbsolutePath(), target);
+		verifyArchive(new ByteArrayInputStream(target.toByteArray()));
+	}
+
+	@Test
+	public void testTargetClosedWhenArchiveFails() throws Exception {
+		final boolean[] closed = new boolean[1];
+		OutputStream failingTarget = new OutputStream() {
+			@Override
+			public void write(final int b) throws IOException {
+				throw new IOException("target failed");
+			}
+
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+
+		ParallelTarGzipStreamer streamer = new ParallelTarGzipStreamer(2,
+				false);
+		try {
+			streamer.archiveToStream(sourceDir.getAbsolutePath(),
+					failingTarget);
+			Assert.fail("archive should have failed");
+		} catch (JargonException e) {
+			Assert.assertEquals("original error not reported", "target failed",
+					e.getCause().getMessage());
+		}
+		Assert.assertTrue("target not closed", closed[0]);
+	}
+
+	@Test(expected = java.io.FileNotFoundException.class)
+	public void testArchiveMissingSource() throws Exception {
+		new ParallelTarGzipStreamer(2, true).archiveToStream(
+				new File(sourceDir, "nothere").getAbsolutePath(),
+				new ByteArrayOutputStream());
+	}
+
+	private void verifyArchive(final InputStream archive) throws Exception {
+		TarArchiveInputStream tarIn = new TarArchiveInputStream(archive);
+		Map<String, byte[]> found = new HashMap<String, byte[]>();
+		boolean foundEmptyDir = false;
+		try {
+			TarArchiveEntry entry;
+			while ((entry = tarIn.getNextTarEntry()) != null) {
+				if (entry.isDirectory()) {
+					if (entry.getName().equals("source/emptyDir/")) {
+						foundEmptyDir = true;
+					}
+				} else {
+					found.put(entry.getName(), IOUtils.toByteArray(tarIn));
+				}
+			}
+		} finally {
+			tarIn.close();
+		}
+
+		Assert.assertTrue("empty dir not archived", foundEmptyDir);
+		Assert.assertEquals("wrong number of files", expected.size(),
+				found.size());
+		for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+			Assert.assertTrue("file differs:" + entry.getKey(), Arrays.equals(
+					entry.getValue(), found.get(entry.getKey())));
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package org.irods.jargon.datautils.synchproperties;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class IncrementalSynchServiceImplTest {
+
+	private static UserSynchTarget buildUserSynchTarget() {
+		UserSynchTarget userSynchTarget = new UserSynchTarget();
+		userSynchTarget.setUserName("user");
+		userSynchTarget.setDeviceName("laptop");
+		userSynchTarget.setIrodsSynchRootAbsolutePath("/zone/home/user/synch/");
+		userSynchTarget.setLocalSynchRootAbsolutePath("/tmp/synch");
+		return userSynchTarget;
+	}
+
+	@Test
+	public void testBuildSynchPlan() throws Exception {
+		Map<String, Boolean> irodsChanges = new TreeMap<String, Boolean>();
+		irodsChanges.put("remote", true);
+		irodsChanges.put("remote/a.txt", false);
+		irodsChanges.put("both.txt", false);
+		irodsChanges.put("dir", true);
+
+		Map<String, Boolean> localChanges = new TreeMap<String, Boolean>();
+		localChanges.put("local.txt", false);
+		localChanges.put("both.txt", false);
+		localChanges.put("dir", true);
+
+		SynchPlan synchPlan = IncrementalSynchServiceImpl.buildSynchPlan(
+				buildUserSynchTarget(), irodsChanges, localChanges);
+
+		List<SynchPlanEntry> entries = synchPlan.getSynchPlanEntries();
+		Assert.assertEquals(4, entries.size());
+		Assert.assertEquals("both.txt", entries.get(0).getRelativePath());
+		Assert.assertEquals(SynchAction.CONFLICT, entries.get(0)
+				.getSynchAction());
+		Assert.assertEquals(SynchAction.UPLOAD, entries.get(1)
+				.getSynchAction());
+		Assert.assertEquals("/zone/home/user/synch/local.txt", entries.get(1)
+				.getIrodsAbsolutePath());
+		Assert.assertEquals("remote", entries.get(2).getRelativePath());
+		Assert.assertTrue(entries.get(2).isCollection());
+		Assert.assertEquals(SynchAction.DOWNLOAD, entries.get(3)
+				.getSynchAction());
+		Assert.assertEquals(2,
+				synchPlan.getSynchPlanEntries(SynchAction.DOWNLOAD).size());
+	}
+
+	@Test
+	public void testBuildSynchPlanNoChanges() throws Exception {
+		SynchPlan synchPlan = IncrementalSynchServiceImpl.buildSynchPlan(
+				buildUserSynchTarget(), new TreeMap<String, Boolean>(),
+				new TreeMap<String, Boolean>());
+		Assert.assertTrue(synchPlan.isEmpty());
+	}
+
+}
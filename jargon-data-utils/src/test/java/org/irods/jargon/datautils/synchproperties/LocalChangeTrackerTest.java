@@ -0,0 +1,97 @@
+package org.irods.jargon.datautils.synchproperties;
+
+import java.io.File;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalChangeTrackerTest {
+
+	private File rootDir;
+
+	@Before
+	public void setUp() throws Exception {
+		rootDir = File.createTempFile("LocalChangeTrackerTest", "");
+		rootDir.delete();
+		rootDir.mkdirs();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteDirectory(rootDir);
+	}
+
+	@Test
+	public void testScanForChangesSinceTime() throws Exception {
+		File oldFile = new File(rootDir, "old.txt");
+		FileUtils.writeStringToFile(oldFile, "old");
+		oldFile.setLastModified(1000L);
+		File subDir = new File(rootDir, "sub");
+		subDir.mkdirs();
+		FileUtils.writeStringToFile(new File(subDir, "new.txt"), "new");
+		subDir.setLastModified(1000L);
+
+		Map<String, Boolean> changes = LocalChangeTracker.scanForChanges(
+				rootDir, 5000L);
+		Assert.assertEquals(1, changes.size());
+		Assert.assertEquals(Boolean.FALSE, changes.get("sub/new.txt"));
+	}
+
+	@Test
+	public void testCollectWalksWhenOlderThanTracker() throws Exception {
+		FileUtils.writeStringToFile(new File(rootDir, "before.txt"), "before");
+		LocalChangeTracker tracker = new LocalChangeTracker(rootDir);
+		try {
+			Map<String, Boolean> changes = tracker.collectChanges(0L);
+			Assert.assertTrue(changes.containsKey("before.txt"));
+		} finally {
+			tracker.close();
+		}
+	}
+
+	@Test
+	public void testCollectFromEvents() throws Exception {
+		File unchanged = new File(rootDir, "unchanged.txt");
+		FileUtils.writeStringToFile(unchanged, "unchanged");
+		LocalChangeTracker tracker = new LocalChangeTracker(rootDir);
+		try {
+			long since = System.currentTimeMillis() + 60000L;
+			// first collection walks, later ones use events
+			tracker.collectChanges(0L);
+			File newDir = new File(rootDir, "newDir");
+			newDir.mkdirs();
+			File newFile = new File(newDir, "new.txt");
+			FileUtils.writeStringToFile(newFile, "new");
+			newFile.setLastModified(since);
+			newDir.setLastModified(since);
+
+			Map<String, Boolean> changes = null;
+			for (int i = 0; i < 100; i++) {
+				changes = tracker.collectChanges(since);
+				if (!changes.isEmpty()) {
+					break;
+				}
+				Thread.sleep(100);
+			}
+
+			Assert.assertEquals(Boolean.TRUE, changes.get("newDir"));
+			Assert.assertEquals(Boolean.FALSE, changes.get("newDir/new.txt"));
+			Assert.assertFalse(changes.containsKey("unchanged.txt"));
+		} finally {
+			tracker.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTrackerNotDirectory() throws Exception {
+		File file = new File(rootDir, "file.txt");
+		FileUtils.writeStringToFile(file, "file");
+		new LocalChangeTracker(file);
+	}
+
+}
@@ -0,0 +1,137 @@
+package org.irods.jargon.datautils.transferqueue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.QueueStatus;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.TransferType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransferQueueJournalTest {
+
+	private File journalDirectory;
+	private File journalFile;
+
+	@Before
+	public void setUp() throws Exception {
+		journalDirectory = File.createTempFile("journal", "");
+		journalDirectory.delete();
+		journalDirectory.mkdirs();
+		journalFile = new File(journalDirectory, "queue.journal");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteQuietly(journalDirectory);
+	}
+
+	private QueuedTransfer buildTransfer(final long id) {
+		QueuedTransfer queuedTransfer = new QueuedTransfer();
+		queuedTransfer.setId(id);
+		queuedTransfer.setTransferType(TransferType.GET);
+		queuedTransfer.setLocalAbsolutePath("/local/with\ttab\nand newline");
+		queuedTransfer.setIrodsAbsolutePath("/zone/home/user/file " + id);
+		queuedTransfer.setAccountKey("user#zone@host:1247");
+		queuedTransfer.setHost("host");
+		queuedTransfer.setEnqueuedAt(1000L);
+		return queuedTransfer;
+	}
+
+	@Test
+	public void testEncodeDecode() throws Exception {
+		QueuedTransfer queuedTransfer = buildTransfer(3L);
+		queuedTransfer.setAttempts(2);
+		queuedTransfer.setNextAttemptAt(5000L);
+		queuedTransfer.setLastErrorMessage("failed: 100% broken");
+
+		QueuedTransfer actual = TransferQueueJournal
+				.decode(TransferQueueJournal.encode(queuedTransfer));
+		Assert.assertNotNull(actual);
+		Assert.assertEquals(3L, actual.getId());
+		Assert.assertEquals(TransferType.GET, actual.getTransferType());
+		Assert.assertEquals(QueueStatus.QUEUED, actual.getQueueStatus());
+		Assert.assertEquals(queuedTransfer.getLocalAbsolutePath(),
+				actual.getLocalAbsolutePath());
+		Assert.assertEquals(queuedTransfer.getIrodsAbsolutePath(),
+				actual.getIrodsAbsolutePath());
+		Assert.assertEquals("", actual.getResourceName());
+		Assert.assertEquals(2, actual.getAttempts());
+		Assert.assertEquals(5000L, actual.getNextAttemptAt());
+		Assert.assertEquals("failed: 100% broken",
+				actual.getLastErrorMessage());
+	}
+
+	@Test
+	public void testReplayKeepsLastRecordAndSkipsPartialLine()
+			throws Exception {
+		TransferQueueJournal journal = new TransferQueueJournal(journalFile,
+				true);
+		QueuedTransfer first = buildTransfer(1L);
+		journal.append(first);
+		journal.append(buildTransfer(2L));
+		first.setQueueStatus(QueueStatus.COMPLETE);
+		journal.append(first);
+		journal.close();
+
+		FileOutputStream outputStream = new FileOutputStream(journalFile,
+				true);
+		outputStream.write("1\t3\tPUT\tQUE".getBytes("UTF-8"));
+		outputStream.close();
+
+		TransferQueueJournal reopened = new TransferQueueJournal(journalFile,
+				true);
+		Map<Long, QueuedTransfer> actual = reopened.replay();
+		Assert.assertEquals(2, actual.size());
+		Assert.assertEquals(QueueStatus.COMPLETE, actual.get(1L)
+				.getQueueStatus());
+		Assert.assertEquals(QueueStatus.QUEUED, actual.get(2L)
+				.getQueueStatus());
+		Assert.assertEquals(3, reopened.getRecordCount());
+
+		reopened.append(buildTransfer(3L));
+		reopened.close();
+
+		actual = new TransferQueueJournal(journalFile, true).replay();
+		Assert.assertEquals(3, actual.size());
+		Assert.assertEquals(QueueStatus.QUEUED, actual.get(3L)
+				.getQueueStatus());
+	}
+
+	@Test
+	public void testCompact() throws Exception {
+		TransferQueueJournal journal = new TransferQueueJournal(journalFile,
+				false);
+		for (long i = 1; i <= 10; i++) {
+			journal.append(buildTransfer(i));
+		}
+
+		List<QueuedTransfer> kept = new ArrayList<QueuedTransfer>();
+		kept.add(buildTransfer(7L));
+		journal.compact(kept);
+		journal.append(buildTransfer(11L));
+		journal.close();
+
+		Map<Long, QueuedTransfer> actual = new TransferQueueJournal(
+				journalFile, false).replay();
+		Assert.assertEquals(2, actual.size());
+		Assert.assertTrue(actual.containsKey(7L));
+		Assert.assertTrue(actual.containsKey(11L));
+		Assert.assertFalse(new File(journalFile.getAbsolutePath() + ".tmp")
+				.exists());
+	}
+
+	@Test
+	public void testReplayNoJournal() throws Exception {
+		Assert.assertTrue(new TransferQueueJournal(journalFile, true).replay()
+				.isEmpty());
+	}
+
+}
@@ -0,0 +1,169 @@
+package org.irods.jargon.datautils.transferqueue;
+
+import java.io.File;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.QueueStatus;
+import org.irods.jargon.datautils.transferqueue.QueuedTransfer.TransferType;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TransferQueueManagerTest {
+
+	private static IRODSFileSystem irodsFileSystem;
+	private File journalDirectory;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		irodsFileSystem = IRODSFileSystem.instance();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		journalDirectory = File.createTempFile("queue", "");
+		journalDirectory.delete();
+		journalDirectory.mkdirs();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteQuietly(journalDirectory);
+	}
+
+	private TransferQueueConfiguration buildConfiguration() {
+		TransferQueueConfiguration configuration = new TransferQueueConfiguration();
+		configuration.setJournalFile(new File(journalDirectory,
+				"queue.journal"));
+		return configuration;
+	}
+
+	private IRODSAccount buildAccount() throws Exception {
+		return IRODSAccount.instance("host", 1247, "user", "password", "",
+				"zone", "");
+	}
+
+	@Test
+	public void testComputeBackoffMillis() {
+		Assert.assertEquals(1000L,
+				TransferQueueManager.computeBackoffMillis(1, 1000L, 60000L));
+		Assert.assertEquals(2000L,
+				TransferQueueManager.computeBackoffMillis(2, 1000L, 60000L));
+		Assert.assertEquals(8000L,
+				TransferQueueManager.computeBackoffMillis(4, 1000L, 60000L));
+		Assert.assertEquals(60000L,
+				TransferQueueManager.computeBackoffMillis(40, 1000L, 60000L));
+		Assert.assertEquals(0L,
+				TransferQueueManager.computeBackoffMillis(0, 1000L, 60000L));
+	}
+
+	@Test
+	public void testBuildAccountKeyWithoutPassword() throws Exception {
+		Assert.assertEquals("user#zone@host:1247",
+				TransferQueueManager.buildAccountKey(buildAccount()));
+	}
+
+	@Test
+	public void testEnqueueSurvivesReopen() throws Exception {
+		TransferQueueManager manager = new TransferQueueManager(
+				irodsFileSystem.getIRODSAccessObjectFactory(),
+				buildConfiguration());
+		QueuedTransfer put = manager.enqueuePut(buildAccount(), "/local/a",
+				"/zone/home/user/a", null);
+		QueuedTransfer get = manager.enqueueGet(buildAccount(),
+				"/zone/home/user/b", "/local/b", "resc");
+		Assert.assertEquals(QueueStatus.QUEUED, put.getQueueStatus());
+		Assert.assertTrue(manager.cancel(put.getId()));
+		manager.shutdown(1000L);
+
+		TransferQueueManager reopened = new TransferQueueManager(
+				irodsFileSystem.getIRODSAccessObjectFactory(),
+				buildConfiguration());
+		List<QueuedTransfer> actual = reopened.listQueuedTransfers();
+		Assert.assertEquals(2, actual.size());
+		Assert.assertEquals(QueueStatus.CANCELLED, actual.get(0)
+				.getQueueStatus());
+		Assert.assertEquals(TransferType.GET, actual.get(1).getTransferType());
+		Assert.assertEquals("resc", actual.get(1).getResourceName());
+
+		Assert.assertTrue(reopened.retry(put.getId()));
+		Assert.assertEquals(QueueStatus.QUEUED,
+				reopened.findQueuedTransfer(put.getId()).getQueueStatus());
+		QueuedTransfer next = reopened.enqueuePut(buildAccount(), "/local/c",
+				"/zone/home/user/c", "");
+		Assert.assertTrue(next.getId() > get.getId());
+		reopened.shutdown(1000L);
+	}
+
+	@Test
+	public void testInterruptedTransferQueuedAgain() throws Exception {
+		TransferQueueConfiguration configuration = buildConfiguration();
+		TransferQueueJournal journal = new TransferQueueJournal(
+				configuration.getJournalFile(), true);
+		QueuedTransfer interrupted = new QueuedTransfer();
+		interrupted.setId(5L);
+		interrupted.setQueueStatus(QueueStatus.RUNNING);
+		interrupted.setAttempts(1);
+		interrupted.setLocalAbsolutePath("/local/big");
+		interrupted.setIrodsAbsolutePath("/zone/home/user/big");
+		journal.append(interrupted);
+		journal.close();
+
+		TransferQueueManager manager = new TransferQueueManager(
+				irodsFileSystem.getIRODSAccessObjectFactory(), configuration);
+		QueuedTransfer actual = manager.findQueuedTransfer(5L);
+		Assert.assertEquals(QueueStatus.QUEUED, actual.getQueueStatus());
+		Assert.assertEquals(1, actual.getAttempts());
+		Assert.assertFalse(manager.cancel(99L));
+		manager.shutdown(1000L);
+	}
+
+	@Test
+	public void testRetriedWithBackoffThenFailed() throws Exception {
+		TransferQueueConfiguration configuration = buildConfiguration();
+		configuration.setMaxAttempts(2);
+		configuration.setInitialBackoffMillis(10L);
+		TransferQueueManager manager = new TransferQueueManager(
+				irodsFileSystem.getIRODSAccessObjectFactory(), configuration);
+		File localFile = new File(journalDirectory, "local.txt");
+		FileUtils.writeStringToFile(localFile, "data");
+		IRODSAccount unreachable = IRODSAccount.instance("127.0.0.1", 1,
+				"user", "password", "", "zone", "");
+		QueuedTransfer put = manager.enqueuePut(unreachable,
+				localFile.getAbsolutePath(), "/zone/home/user/local.txt", "");
+		manager.start();
+
+		QueuedTransfer actual = null;
+		for (int i = 0; i < 500; i++) {
+			actual = manager.findQueuedTransfer(put.getId());
+			if (actual.isFinished()) {
+				break;
+			}
+			Thread.sleep(20L);
+		}
+		manager.shutdown(1000L);
+
+		Assert.assertEquals(QueueStatus.FAILED, actual.getQueueStatus());
+		Assert.assertEquals(2, actual.getAttempts());
+		Assert.assertFalse(actual.getLastErrorMessage().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoJournalFile() throws Exception {
+		new TransferQueueManager(irodsFileSystem.getIRODSAccessObjectFactory(),
+				new TransferQueueConfiguration());
+	}
+
+}
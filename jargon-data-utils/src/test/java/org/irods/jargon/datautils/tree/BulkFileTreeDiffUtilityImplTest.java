@@ -0,0 +1,153 @@
+package org.irods.jargon.datautils.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
+import org.junit.Test;
+
+public class BulkFileTreeDiffUtilityImplTest {
+
+	private static final String LOCAL_ROOT = "/local/root";
+	private static final String IRODS_ROOT = "/zone/home/test/root";
+
+	@Test
+	public void testPathOrderIsDepthFirst() throws Exception {
+		List<TreeListingEntry> entries = new ArrayList<TreeListingEntry>();
+		entries.add(localFile("/a/b-c", 1));
+		entries.add(localDir("/a/b"));
+		entries.add(localFile("/a/b/c", 1));
+		entries.add(localDir("/a"));
+		Collections.sort(entries, TreeListingEntry.PATH_ORDER);
+		Assert.assertEquals("/a", entries.get(0).relativePath);
+		Assert.assertEquals("/a/b", entries.get(1).relativePath);
+		Assert.assertEquals("/a/b/c", entries.get(2).relativePath);
+		Assert.assertEquals("/a/b-c", entries.get(3).relativePath);
+	}
+
+	@Test
+	public void testMergeJoinNoDiff() throws Exception {
+		List<TreeListingEntry> local = new ArrayList<TreeListingEntry>();
+		local.add(localDir("/a"));
+		local.add(localFile("/a/file1", 10));
+		List<TreeListingEntry> irods = new ArrayList<TreeListingEntry>();
+		irods.add(irodsDir("/a"));
+		irods.add(irodsFile("/a/file1", 10, ""));
+
+		FileTreeNode root = buildRoot();
+		List<BulkFileTreeDiffUtilityImpl.PendingChecksumCompare> pending = mergeJoin(
+				root, local, irods);
+
+		Assert.assertEquals("should be one matched dir", 1,
+				root.getChildCount());
+		FileTreeNode dirNode = (FileTreeNode) root.getChildAt(0);
+		Assert.assertEquals(DiffType.DIRECTORY_NO_DIFF,
+				((FileTreeDiffEntry) dirNode.getUserObject()).getDiffType());
+		Assert.assertEquals("file is not added until checksum compare", 0,
+				dirNode.getChildCount());
+		Assert.assertEquals("file should await checksum", 1, pending.size());
+		Assert.assertSame(dirNode, pending.get(0).parentNode);
+		Assert.assertNull("no catalog checksum, iRODS should compute",
+				pending.get(0).localChecksum);
+	}
+
+	@Test
+	public void testMergeJoinPlusAndCollision() throws Exception {
+		List<TreeListingEntry> local = new ArrayList<TreeListingEntry>();
+		local.add(localDir("/onlyLocal"));
+		local.add(localFile("/onlyLocal/child", 1));
+		local.add(localFile("/same", 1));
+		local.add(localFile("/sized", 5));
+		List<TreeListingEntry> irods = new ArrayList<TreeListingEntry>();
+		irods.add(irodsFile("/onlyIrods", 1, ""));
+		irods.add(irodsDir("/same"));
+		irods.add(irodsFile("/same/child", 1, ""));
+		irods.add(irodsFile("/sized", 6, ""));
+		Collections.sort(irods, TreeListingEntry.PATH_ORDER);
+
+		FileTreeNode root = buildRoot();
+		List<BulkFileTreeDiffUtilityImpl.PendingChecksumCompare> pending = mergeJoin(
+				root, local, irods);
+
+		Assert.assertEquals(0, pending.size());
+		Assert.assertEquals(4, root.getChildCount());
+
+		FileTreeDiffEntry entry = (FileTreeDiffEntry) ((FileTreeNode) root
+				.getChildAt(0)).getUserObject();
+		Assert.assertEquals(DiffType.RIGHT_HAND_PLUS, entry.getDiffType());
+		Assert.assertEquals(LOCAL_ROOT + "/onlyIrods",
+				entry.getAbsPathOppositeFile());
+
+		entry = (FileTreeDiffEntry) ((FileTreeNode) root.getChildAt(1))
+				.getUserObject();
+		Assert.assertEquals(DiffType.LEFT_HAND_PLUS, entry.getDiffType());
+		Assert.assertEquals(IRODS_ROOT + "/onlyLocal",
+				entry.getAbsPathOppositeFile());
+		Assert.assertEquals("children of unmatched dir not listed", 0,
+				root.getChildAt(1).getChildCount());
+
+		entry = (FileTreeDiffEntry) ((FileTreeNode) root.getChildAt(2))
+				.getUserObject();
+		Assert.assertEquals(DiffType.FILE_NAME_DIR_NAME_COLLISION,
+				entry.getDiffType());
+
+		entry = (FileTreeDiffEntry) ((FileTreeNode) root.getChildAt(3))
+				.getUserObject();
+		Assert.assertEquals(DiffType.FILE_OUT_OF_SYNCH, entry.getDiffType());
+		Assert.assertEquals(6, entry.getLengthOppositeFile());
+	}
+
+	private List<BulkFileTreeDiffUtilityImpl.PendingChecksumCompare> mergeJoin(
+			final FileTreeNode root, final List<TreeListingEntry> local,
+			final List<TreeListingEntry> irods) throws Exception {
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247,
+				"test", "test", "/zone/home/test", "zone", "");
+		IRODSFileSystem irodsFileSystem = IRODSFileSystem.instance();
+		BulkFileTreeDiffUtilityImpl diffUtility = new BulkFileTreeDiffUtilityImpl(
+				irodsAccount, irodsFileSystem.getIRODSAccessObjectFactory());
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			return diffUtility.mergeJoin(root, local, irods, LOCAL_ROOT,
+					IRODS_ROOT, pool);
+		} finally {
+			pool.shutdownNow();
+			irodsFileSystem.closeAndEatExceptions();
+		}
+	}
+
+	private FileTreeNode buildRoot() {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		return new FileTreeNode(FileTreeDiffEntry.instance(
+				DiffType.DIRECTORY_NO_DIFF, entry, IRODS_ROOT));
+	}
+
+	private TreeListingEntry localDir(final String relativePath) {
+		return new TreeListingEntry(relativePath, LOCAL_ROOT + relativePath,
+				true, 0, 0, "");
+	}
+
+	private TreeListingEntry localFile(final String relativePath,
+			final long length) {
+		return new TreeListingEntry(relativePath, LOCAL_ROOT + relativePath,
+				false, length, 0, "");
+	}
+
+	private TreeListingEntry irodsDir(final String relativePath) {
+		return new TreeListingEntry(relativePath, IRODS_ROOT + relativePath,
+				true, 0, 0, "");
+	}
+
+	private TreeListingEntry irodsFile(final String relativePath,
+			final long length, final String checksum) {
+		return new TreeListingEntry(relativePath, IRODS_ROOT + relativePath,
+				false, length, 0, checksum);
+	}
+
+}
@@ -148,4 +148,89 @@ public class TreeSummarizingServiceImplTest {
 		Assert.assertTrue("did not compute an average", avgLength > 0);
 
 	}
+
+	@Test
+	public void testIrodsTreeAggregatesMatchVisitor() throws Exception {
+
+		String rootCollection = "testIrodsTreeAggregatesMatchVisitor";
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH
+						+ '/' + rootCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(
+						testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator
+				.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(
+						localCollectionAbsolutePath, rootCollection, 2, 3, 2,
+						"testFile", ".txt", 3, 2, 20, 200 * 1024);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper
+				.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSFileFactory irodsFileFactory = irodsFileSystem
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile destFile = irodsFileFactory
+				.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem
+				.getIRODSAccessObjectFactory().getDataTransferOperations(
+						irodsAccount);
+		File localFile = new File(localCollectionAbsolutePath);
+
+		dataTransferOperationsAO.putOperation(localFile, destFile, null, null);
+		String treeRootAbsolutePath = irodsCollectionRootAbsolutePath + '/'
+				+ rootCollection;
+
+		TreeSummarizingService service = new TreeSummarizingServiceImpl(
+				irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount);
+
+		TreeSummary visitorSummary = service
+				.generateTreeSummaryForIrodsFileTree(treeRootAbsolutePath);
+		TreeSummary aggregateSummary = service
+				.generateTreeSummaryForIrodsFileTreeUsingAggregates(treeRootAbsolutePath);
+
+		Assert.assertEquals("total files differ",
+				visitorSummary.getTotalFiles(), aggregateSummary.getTotalFiles());
+		Assert.assertEquals("total bytes differ",
+				visitorSummary.getTotalBytes(), aggregateSummary.getTotalBytes());
+		Assert.assertEquals("min length differs",
+				visitorSummary.getMinLength(), aggregateSummary.getMinLength());
+		Assert.assertEquals("max length differs",
+				visitorSummary.getMaxLength(), aggregateSummary.getMaxLength());
+		Assert.assertEquals("max depth differs", visitorSummary.getMaxDepth(),
+				aggregateSummary.getMaxDepth());
+		Assert.assertEquals("txt count differs", visitorSummary
+				.getFileExtensionSummaryMap().get(".txt").get(),
+				aggregateSummary.getFileExtensionSummaryMap().get(".txt").get());
+		for (String sizeBucket : TreeSummary.SIZE_BUCKETS) {
+			Assert.assertEquals("size bucket differs:" + sizeBucket,
+					visitorSummary.getFileSizeSummaryMap().get(sizeBucket)
+							.get(), aggregateSummary.getFileSizeSummaryMap()
+							.get(sizeBucket).get());
+		}
+
+		// add a file and refresh
+
+		String newFileName = "testIrodsTreeAggregatesMatchVisitorNew.dat";
+		String localNewFile = FileGenerator
+				.generateFileOfFixedLengthGivenName(localCollectionAbsolutePath,
+						newFileName, 300 * 1024);
+		dataTransferOperationsAO.putOperation(new File(localNewFile),
+				irodsFileFactory.instanceIRODSFile(treeRootAbsolutePath), null,
+				null);
+
+		TreeSummary refreshedSummary = service
+				.refreshTreeSummaryForIrodsFileTree(aggregateSummary);
+		Assert.assertEquals("refresh did not add file",
+				aggregateSummary.getTotalFiles() + 1,
+				refreshedSummary.getTotalFiles());
+		Assert.assertEquals("refresh did not add bytes",
+				aggregateSummary.getTotalBytes() + 300 * 1024,
+				refreshedSummary.getTotalBytes());
+		Assert.assertEquals("refresh did not count extension", 1,
+				refreshedSummary.getFileExtensionSummaryMap().get(".dat").get());
+
+	}
 }
@@ -0,0 +1,96 @@
+package org.irods.jargon.datautils.tree;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class TreeSummaryTest {
+
+	@Test
+	public void testSizeBucketForLength() throws Exception {
+		Assert.assertEquals(TreeSummary.SIZE_10K,
+				TreeSummary.sizeBucketForLength(0));
+		Assert.assertEquals(TreeSummary.SIZE_100K,
+				TreeSummary.sizeBucketForLength(10 * 1024));
+		Assert.assertEquals(TreeSummary.SIZE_1GB,
+				TreeSummary.sizeBucketForLength(1024L * 1024 * 1024 - 1));
+		Assert.assertEquals(TreeSummary.SIZE_10GB,
+				TreeSummary.sizeBucketForLength(2L * 1024 * 1024 * 1024));
+		Assert.assertEquals(TreeSummary.SIZE_100GB,
+				TreeSummary.sizeBucketForLength(50L * 1024 * 1024 * 1024));
+		Assert.assertEquals(TreeSummary.SIZE_GT_100GB,
+				TreeSummary.sizeBucketForLength(100L * 1024 * 1024 * 1024));
+	}
+
+	@Test
+	public void testProcessFileInfoMinAndMax() throws Exception {
+		TreeSummary treeSummary = new TreeSummary();
+		treeSummary.processFileInfo("b.TXT", 200);
+		treeSummary.processFileInfo("a.txt", 100);
+		treeSummary.processFileInfo("c", 300);
+		Assert.assertEquals(3, treeSummary.getTotalFiles());
+		Assert.assertEquals(600, treeSummary.getTotalBytes());
+		Assert.assertEquals(100, treeSummary.getMinLength());
+		Assert.assertEquals(300, treeSummary.getMaxLength());
+		Assert.assertEquals(200, treeSummary.calculateAverageLength());
+		Assert.assertEquals(2, treeSummary.getFileExtensionSummaryMap()
+				.get(".txt").get());
+		Assert.assertEquals(1, treeSummary.getFileExtensionSummaryMap()
+				.get("").get());
+		Assert.assertEquals(3,
+				treeSummary.getFileSizeSummaryMap().get(TreeSummary.SIZE_10K)
+						.get());
+	}
+
+	@Test
+	public void testMerge() throws Exception {
+		TreeSummary first = new TreeSummary();
+		first.processFileInfo("a.txt", 50);
+		first.recordDepth(1);
+		TreeSummary second = new TreeSummary();
+		second.processFileInfo("b.txt", 20);
+		second.processFileInfo("c.dat", 200 * 1024);
+		second.recordDepth(3);
+
+		TreeSummary merged = new TreeSummary();
+		merged.merge(first);
+		merged.merge(second);
+
+		Assert.assertEquals(3, merged.getTotalFiles());
+		Assert.assertEquals(50 + 20 + 200 * 1024, merged.getTotalBytes());
+		Assert.assertEquals(20, merged.getMinLength());
+		Assert.assertEquals(200 * 1024, merged.getMaxLength());
+		Assert.assertEquals(3, merged.getMaxDepth());
+		Assert.assertEquals(2, merged.getFileExtensionSummaryMap().get(".txt")
+				.get());
+		Assert.assertEquals(1,
+				merged.getFileSizeSummaryMap().get(TreeSummary.SIZE_1M).get());
+	}
+
+	@Test
+	public void testMergeEmpty() throws Exception {
+		TreeSummary first = new TreeSummary();
+		first.processFileInfo("a.txt", 50);
+		first.merge(new TreeSummary());
+		Assert.assertEquals(50, first.getMinLength());
+		Assert.assertEquals(1, first.getTotalFiles());
+	}
+
+	@Test
+	public void testAggregatorTreePaths() throws Exception {
+		String root = "/zone/home/test/a_b";
+		Assert.assertTrue(IRODSTreeSummaryAggregator.isInTree(root, root));
+		Assert.assertTrue(IRODSTreeSummaryAggregator.isInTree(root, root
+				+ "/c"));
+		Assert.assertFalse("like wildcard should be rechecked",
+				IRODSTreeSummaryAggregator.isInTree(root,
+						"/zone/home/test/aXb/c"));
+		Assert.assertEquals(0,
+				IRODSTreeSummaryAggregator.depthBelowRoot(root, root));
+		Assert.assertEquals(2, IRODSTreeSummaryAggregator.depthBelowRoot(
+				root, root + "/c/d"));
+		Assert.assertEquals(1,
+				IRODSTreeSummaryAggregator.depthBelowRoot("/", "/zone"));
+	}
+
+}
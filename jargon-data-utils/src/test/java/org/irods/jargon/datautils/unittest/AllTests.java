@@ -4,8 +4,11 @@ import org.irods.jargon.datautils.connection.ConnectionCreatingPoolableObjectFac
 import org.irods.jargon.datautils.connection.TempPasswordCachingProtocolManagerTest;
 import org.irods.jargon.datautils.connectiontester.ConnectionTesterImplTest;
 import org.irods.jargon.datautils.datacache.DataCacheServiceImplTest;
+import org.irods.jargon.datautils.datacache.TieredDataCacheServiceImplTest;
 import org.irods.jargon.datautils.filearchive.LocalFileGzipCompressorTest;
 import org.irods.jargon.datautils.filearchive.LocalTarFileArchiverTest;
+import org.irods.jargon.datautils.filearchive.ParallelGzipOutputStreamTest;
+import org.irods.jargon.datautils.filearchive.ParallelTarGzipStreamerTest;
 import org.irods.jargon.datautils.image.ImageServiceFactoryImplTest;
 import org.irods.jargon.datautils.image.MediaHandlingUtilsTest;
 import org.irods.jargon.datautils.image.ThumbnailServiceImplTest;
@@ -13,13 +16,19 @@ import org.irods.jargon.datautils.sharing.AnonymousAccessServiceImplTest;
 import org.irods.jargon.datautils.shoppingcart.FileShoppingCartTest;
 import org.irods.jargon.datautils.shoppingcart.ShoppingCartEntryTest;
 import org.irods.jargon.datautils.shoppingcart.ShoppingCartServiceImplTest;
+import org.irods.jargon.datautils.synchproperties.IncrementalSynchServiceImplTest;
+import org.irods.jargon.datautils.synchproperties.LocalChangeTrackerTest;
 import org.irods.jargon.datautils.synchproperties.SynchPropertiesServiceImplTest;
+import org.irods.jargon.datautils.transferqueue.TransferQueueJournalTest;
+import org.irods.jargon.datautils.transferqueue.TransferQueueManagerTest;
+import org.irods.jargon.datautils.tree.BulkFileTreeDiffUtilityImplTest;
 import org.irods.jargon.datautils.tree.DiffTreePostProcessorTest;
 import org.irods.jargon.datautils.tree.FileTreeDiffEntryTest;
 import org.irods.jargon.datautils.tree.FileTreeDiffUtilityTest;
 import org.irods.jargon.datautils.tree.FileTreeIteratorVisitorInvokerTest;
 import org.irods.jargon.datautils.tree.FileTreeNodeTest;
 import org.irods.jargon.datautils.tree.TreeSummarizingServiceImplTest;
+import org.irods.jargon.datautils.tree.TreeSummaryTest;
 import org.irods.jargon.datautils.uploads.UploadsServiceImplTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -37,7 +46,12 @@ import org.junit.runners.Suite;
 		DiffTreePostProcessorTest.class,
 		FileTreeIteratorVisitorInvokerTest.class,
 		TreeSummarizingServiceImplTest.class, LocalTarFileArchiverTest.class,
-		LocalFileGzipCompressorTest.class, ConnectionTesterImplTest.class })
+		LocalFileGzipCompressorTest.class, ConnectionTesterImplTest.class,
+		BulkFileTreeDiffUtilityImplTest.class, TreeSummaryTest.class,
+		ParallelGzipOutputStreamTest.class, ParallelTarGzipStreamerTest.class,
+		TieredDataCacheServiceImplTest.class,
+		IncrementalSynchServiceImplTest.class, LocalChangeTrackerTest.class,
+		TransferQueueJournalTest.class, TransferQueueManagerTest.class })
 public class AllTests {
 
 }
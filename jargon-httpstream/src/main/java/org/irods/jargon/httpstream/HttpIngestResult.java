@@ -0,0 +1,139 @@
+package org.irods.jargon.httpstream;
+
+/**
+ * Outcome of ingesting one URL into iRODS, as returned by the
+ * {@link HttpIngestService}. A failed ingest carries the exception that
+ * stopped it rather than throwing it, so that one bad URL in a batch does not
+ * hide the results of the others.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class HttpIngestResult {
+
+	private String sourceURL = "";
+	private String irodsAbsolutePath = "";
+	private long length = 0L;
+	private int segmentCount = 0;
+	private long elapsedMillis = 0L;
+	private Exception exception = null;
+
+	/**
+	 * @return {@code boolean} that is {@code true} if the URL was ingested
+	 *         without error
+	 */
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("HttpIngestResult:");
+		sb.append("\n   sourceURL:");
+		sb.append(sourceURL);
+		sb.append("\n   irodsAbsolutePath:");
+		sb.append(irodsAbsolutePath);
+		sb.append("\n   length:");
+		sb.append(length);
+		sb.append("\n   segmentCount:");
+		sb.append(segmentCount);
+		sb.append("\n   elapsedMillis:");
+		sb.append(elapsedMillis);
+		sb.append("\n   exception:");
+		sb.append(exception);
+		return sb.toString();
+	}
+
+	/**
+	 * @return the sourceURL
+	 */
+	public String getSourceURL() {
+		return sourceURL;
+	}
+
+	/**
+	 * @param sourceURL
+	 *            the sourceURL to set
+	 */
+	public void setSourceURL(final String sourceURL) {
+		this.sourceURL = sourceURL;
+	}
+
+	/**
+	 * @return the irodsAbsolutePath of the data object written
+	 */
+	public String getIrodsAbsolutePath() {
+		return irodsAbsolutePath;
+	}
+
+	/**
+	 * @param irodsAbsolutePath
+	 *            the irodsAbsolutePath to set
+	 */
+	public void setIrodsAbsolutePath(final String irodsAbsolutePath) {
+		this.irodsAbsolutePath = irodsAbsolutePath;
+	}
+
+	/**
+	 * @return the length in bytes of the URL contents, or -1 if the server did
+	 *         not report it
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * @param length
+	 *            the length to set
+	 */
+	public void setLength(final long length) {
+		this.length = length;
+	}
+
+	/**
+	 * @return the number of range requests used, 1 for a single streamed get
+	 */
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+
+	/**
+	 * @param segmentCount
+	 *            the segmentCount to set
+	 */
+	public void setSegmentCount(final int segmentCount) {
+		this.segmentCount = segmentCount;
+	}
+
+	/**
+	 * @return the elapsedMillis for the ingest
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @param elapsedMillis
+	 *            the elapsedMillis to set
+	 */
+	public void setElapsedMillis(final long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * @return the exception that caused the ingest to fail, or {@code null}
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * @param exception
+	 *            the exception to set
+	 */
+	public void setException(final Exception exception) {
+		this.exception = exception;
+	}
+
+}
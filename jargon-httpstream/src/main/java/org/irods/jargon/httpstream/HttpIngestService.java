@@ -0,0 +1,63 @@
+package org.irods.jargon.httpstream;
+
+import java.util.List;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.io.IRODSFile;
+
+/**
+ * Service to pull the contents of HTTP URLs into iRODS data objects without
+ * spooling them to local disk. Large URLs served with byte range support are
+ * fetched as several concurrent range requests, each written straight to its
+ * offset in the target data object.
+ * <p>
+ * Implementations hold a pooled HTTP client and threads, so an instance should
+ * be shared and {@link #close()} called when it is no longer needed.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface HttpIngestService {
+
+	/**
+	 * Ingest the contents of one URL into iRODS
+	 *
+	 * @param sourceURL
+	 *            {@code String} with the HTTP url to read
+	 * @param irodsTargetFile
+	 *            {@link IRODSFile} that is either an existing collection, in
+	 *            which case the last path segment of the URL names the data
+	 *            object, or the data object to create or overwrite
+	 * @return {@link HttpIngestResult} describing the ingested data object
+	 * @throws JargonException
+	 *             for errors occurring within iRODS during the operation
+	 * @throws HttpStreamingException
+	 *             for errors occuring in the HTTP protocol operation
+	 */
+	HttpIngestResult ingestUrl(String sourceURL, IRODSFile irodsTargetFile)
+			throws JargonException, HttpStreamingException;
+
+	/**
+	 * Ingest a list of URLs concurrently into one iRODS collection. Errors are
+	 * not thrown for individual URLs, but are reported in the result for each
+	 * URL.
+	 *
+	 * @param sourceURLs
+	 *            {@code List<String>} with the HTTP urls to read
+	 * @param irodsTargetCollection
+	 *            {@link IRODSFile} that is an existing collection to hold the
+	 *            data objects, each named after the last path segment of its
+	 *            URL
+	 * @return {@code List} of {@link HttpIngestResult}, in the same order as
+	 *         {@code sourceURLs}
+	 * @throws JargonException
+	 */
+	List<HttpIngestResult> ingestUrls(List<String> sourceURLs,
+			IRODSFile irodsTargetCollection) throws JargonException;
+
+	/**
+	 * Stop the ingest threads and release the pooled HTTP connections
+	 */
+	void close();
+
+}
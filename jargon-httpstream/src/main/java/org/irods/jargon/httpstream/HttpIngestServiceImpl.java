@@ -0,0 +1,764 @@
+package org.irods.jargon.httpstream;
+
+import java.io.BufferedInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.util.EntityUtils;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInp.OpenFlags;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.pub.io.IRODSRandomAccessFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ingest engine that pulls HTTP URLs into iRODS over a shared, pooled HTTP
+ * client.
+ * <p>
+ * Each URL is first probed with a HEAD request. When the server reports a
+ * length of at least {@code minimumSegmentedLength} and accepts byte ranges,
+ * the target data object is created empty and the URL is split into up to
+ * {@code segmentsPerUrl} ranges. Each range is fetched on its own thread and
+ * written through its own {@link IRODSRandomAccessFile}, positioned at the
+ * range offset, so that no segment is spooled to local disk. Other URLs are
+ * streamed with a single get.
+ * <p>
+ * Every segment copies through one buffer of {@code bufferSize} bytes, so
+ * memory in use is bounded by
+ * {@code bufferSize * segmentsPerUrl * urlConcurrency}. iRODS connections are
+ * per thread, and each segment closes the connection of its thread when done.
+ * <p>
+ * This class is thread safe, and is meant to be shared. Call {@link #close()}
+ * to release the threads and HTTP connections.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class HttpIngestServiceImpl implements HttpIngestService {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(HttpIngestServiceImpl.class);
+
+	public static final int DEFAULT_SEGMENTS_PER_URL = 4;
+	public static final int DEFAULT_URL_CONCURRENCY = 4;
+	public static final long DEFAULT_MINIMUM_SEGMENTED_LENGTH = 16 * 1024 * 1024;
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+	private final int segmentsPerUrl;
+	private final int urlConcurrency;
+	private final ThreadSafeClientConnManager connectionManager;
+	private final DefaultHttpClient httpClient;
+	private final ExecutorService segmentExecutorService;
+	private final ExecutorService urlExecutorService;
+	private volatile long minimumSegmentedLength = DEFAULT_MINIMUM_SEGMENTED_LENGTH;
+	private volatile int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	/**
+	 * Create an ingest service with the default number of segments per URL and
+	 * URLs ingested at once
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} that can create various
+	 *            access objects
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} with login information for the target
+	 *            grid
+	 */
+	public HttpIngestServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		this(irodsAccessObjectFactory, irodsAccount, DEFAULT_SEGMENTS_PER_URL,
+				DEFAULT_URL_CONCURRENCY);
+	}
+
+	/**
+	 * Create an ingest service
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} that can create various
+	 *            access objects
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} with login information for the target
+	 *            grid
+	 * @param segmentsPerUrl
+	 *            {@code int} with the most range requests made at once for
+	 *            one URL
+	 * @param urlConcurrency
+	 *            {@code int} with the most URLs ingested at once by
+	 *            {@link #ingestUrls(List, IRODSFile)}
+	 */
+	public HttpIngestServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final int segmentsPerUrl,
+			final int urlConcurrency) {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (segmentsPerUrl < 1) {
+			throw new IllegalArgumentException("segmentsPerUrl must be >= 1");
+		}
+
+		if (urlConcurrency < 1) {
+			throw new IllegalArgumentException("urlConcurrency must be >= 1");
+		}
+
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+		this.segmentsPerUrl = segmentsPerUrl;
+		this.urlConcurrency = urlConcurrency;
+
+		int maxConnections = segmentsPerUrl * urlConcurrency;
+		connectionManager = new ThreadSafeClientConnManager();
+		connectionManager.setMaxTotal(maxConnections + urlConcurrency);
+		connectionManager.setDefaultMaxPerRoute(maxConnections
+				+ urlConcurrency);
+		httpClient = new DefaultHttpClient(connectionManager);
+
+		/*
+		 * URL tasks wait on segment tasks, so they run on separate pools to
+		 * avoid starving the segments
+		 */
+		segmentExecutorService = Executors.newFixedThreadPool(maxConnections,
+				new IngestThreadFactory("http-ingest-segment-"));
+		urlExecutorService = Executors.newFixedThreadPool(urlConcurrency,
+				new IngestThreadFactory("http-ingest-url-"));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.httpstream.HttpIngestService#ingestUrl(java.lang.String,
+	 * org.irods.jargon.core.pub.io.IRODSFile)
+	 */
+	@Override
+	public HttpIngestResult ingestUrl(final String sourceURL,
+			final IRODSFile irodsTargetFile) throws JargonException,
+			HttpStreamingException {
+
+		log.info("ingestUrl()");
+
+		if (sourceURL == null || sourceURL.isEmpty()) {
+			throw new IllegalArgumentException("null sourceURL");
+		}
+
+		if (irodsTargetFile == null) {
+			throw new IllegalArgumentException("irodsTargetFile is null");
+		}
+
+		log.info("sourceURL:{}", sourceURL);
+		log.info("irodsTargetFile:{}", irodsTargetFile);
+
+		long startTime = System.currentTimeMillis();
+		IRODSFileFactory irodsFileFactory = irodsAccessObjectFactory
+				.getIRODSFileFactory(irodsAccount);
+		IRODSFile targetFile = irodsFileFactory
+				.instanceIRODSFile(resolveTargetPath(sourceURL, irodsTargetFile));
+		targetFile.setResource(irodsTargetFile.getResource());
+		log.info("ingesting to:{}", targetFile.getAbsolutePath());
+
+		UrlProbe urlProbe = probeUrl(sourceURL);
+		List<Segment> segments = planSegments(urlProbe.length,
+				urlProbe.acceptsRanges, segmentsPerUrl, minimumSegmentedLength);
+
+		if (segments.size() > 1) {
+			try {
+				ingestSegments(sourceURL, targetFile, segments);
+			} catch (JargonException e) {
+				deletePartialTarget(targetFile);
+				throw e;
+			} catch (HttpStreamingException e) {
+				deletePartialTarget(targetFile);
+				throw e;
+			} catch (RuntimeException e) {
+				deletePartialTarget(targetFile);
+				throw e;
+			}
+		} else {
+			ingestWhole(sourceURL, targetFile);
+		}
+
+		HttpIngestResult result = new HttpIngestResult();
+		result.setSourceURL(sourceURL);
+		result.setIrodsAbsolutePath(targetFile.getAbsolutePath());
+		result.setLength(urlProbe.length);
+		result.setSegmentCount(Math.max(segments.size(), 1));
+		result.setElapsedMillis(System.currentTimeMillis() - startTime);
+		log.info("ingest complete:{}", result);
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.httpstream.HttpIngestService#ingestUrls(java.util
+	 * .List, org.irods.jargon.core.pub.io.IRODSFile)
+	 */
+	@Override
+	public List<HttpIngestResult> ingestUrls(final List<String> sourceURLs,
+			final IRODSFile irodsTargetCollection) throws JargonException {
+
+		log.info("ingestUrls()");
+
+		if (sourceURLs == null) {
+			throw new IllegalArgumentException("null sourceURLs");
+		}
+
+		if (irodsTargetCollection == null) {
+			throw new IllegalArgumentException("null irodsTargetCollection");
+		}
+
+		final IRODSFileFactory irodsFileFactory = irodsAccessObjectFactory
+				.getIRODSFileFactory(irodsAccount);
+		final String targetCollectionPath = irodsTargetCollection
+				.getAbsolutePath();
+		final String targetResource = irodsTargetCollection.getResource();
+		if (!irodsFileFactory.instanceIRODSFile(targetCollectionPath)
+				.isDirectory()) {
+			throw new JargonException(
+					"irodsTargetCollection is not an existing collection");
+		}
+
+		log.info("ingesting {} urls to:{}", sourceURLs.size(),
+				targetCollectionPath);
+
+		List<Future<HttpIngestResult>> futures = new ArrayList<Future<HttpIngestResult>>(
+				sourceURLs.size());
+		for (final String sourceURL : sourceURLs) {
+			futures.add(urlExecutorService
+					.submit(new Callable<HttpIngestResult>() {
+						@Override
+						public HttpIngestResult call() {
+							try {
+								// each task has its own file, as IRODSFile
+								// is not shared across threads
+								IRODSFile taskTargetCollection = irodsFileFactory
+										.instanceIRODSFile(targetCollectionPath);
+								taskTargetCollection
+										.setResource(targetResource);
+								return ingestUrl(sourceURL,
+										taskTargetCollection);
+							} catch (Exception e) {
+								log.error("error ingesting url:{}", sourceURL,
+										e);
+								HttpIngestResult result = new HttpIngestResult();
+								result.setSourceURL(sourceURL);
+								result.setException(e);
+								return result;
+							} finally {
+								irodsAccessObjectFactory
+										.closeSessionAndEatExceptions(irodsAccount);
+							}
+						}
+					}));
+		}
+
+		List<HttpIngestResult> results = new ArrayList<HttpIngestResult>(
+				futures.size());
+		try {
+			for (Future<HttpIngestResult> future : futures) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			log.error("interrupted waiting for url ingest", e);
+			Thread.currentThread().interrupt();
+			cancelAll(futures);
+			throw new JargonException("interrupted waiting for url ingest", e);
+		} catch (ExecutionException e) {
+			log.error("unexpected error in url ingest", e.getCause());
+			cancelAll(futures);
+			throw new JargonException("unexpected error in url ingest",
+					e.getCause());
+		}
+
+		return results;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.httpstream.HttpIngestService#close()
+	 */
+	@Override
+	public void close() {
+		log.info("close()");
+		urlExecutorService.shutdownNow();
+		segmentExecutorService.shutdownNow();
+		connectionManager.shutdown();
+	}
+
+	/**
+	 * Create the target empty, then fetch each segment concurrently, writing it
+	 * at its offset
+	 */
+	private void ingestSegments(final String sourceURL,
+			final IRODSFile targetFile, final List<Segment> segments)
+			throws JargonException, HttpStreamingException {
+
+		log.info("ingesting in {} segments", segments.size());
+		createEmptyTarget(targetFile);
+
+		final String targetPath = targetFile.getAbsolutePath();
+		List<Future<Long>> futures = new ArrayList<Future<Long>>(
+				segments.size());
+		for (final Segment segment : segments) {
+			futures.add(segmentExecutorService.submit(new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					return writeSegment(sourceURL, targetPath, segment);
+				}
+			}));
+		}
+
+		try {
+			for (Future<Long> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			log.error("interrupted waiting for segments", e);
+			Thread.currentThread().interrupt();
+			cancelAll(futures);
+			throw new JargonException("interrupted waiting for segments", e);
+		} catch (ExecutionException e) {
+			log.error("error ingesting segment", e.getCause());
+			cancelAll(futures);
+			if (e.getCause() instanceof HttpStreamingException) {
+				throw (HttpStreamingException) e.getCause();
+			} else if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonException("error ingesting segment", e.getCause());
+		}
+	}
+
+	/**
+	 * Fetch one range and write it through a random access file of its own,
+	 * on the calling (segment) thread
+	 */
+	private long writeSegment(final String sourceURL, final String targetPath,
+			final Segment segment) throws JargonException,
+			HttpStreamingException, IOException {
+
+		log.debug("writing segment:{}", segment);
+		IRODSRandomAccessFile irodsRandomAccessFile = null;
+		try {
+			irodsRandomAccessFile = irodsAccessObjectFactory
+					.getIRODSFileFactory(irodsAccount)
+					.instanceIRODSRandomAccessFile(targetPath,
+							OpenFlags.READ_WRITE);
+			irodsRandomAccessFile.seek(segment.start,
+					SeekWhenceType.SEEK_START);
+			return copyRange(sourceURL, segment, irodsRandomAccessFile,
+					new byte[bufferSize]);
+		} finally {
+			if (irodsRandomAccessFile != null) {
+				try {
+					irodsRandomAccessFile.close();
+				} catch (IOException e) {
+					log.warn("error closing segment file, logged and ignored",
+							e);
+				}
+			}
+			irodsAccessObjectFactory.closeSessionAndEatExceptions(irodsAccount);
+		}
+	}
+
+	/**
+	 * Get the bytes of one segment with a range request and copy them to the
+	 * given output through {@code buffer}
+	 *
+	 * @return {@code long} with the number of bytes copied, which is the
+	 *         segment length
+	 */
+	long copyRange(final String sourceURL, final Segment segment,
+			final DataOutput dataOutput, final byte[] buffer)
+			throws HttpStreamingException, IOException {
+
+		HttpGet httpGet = new HttpGet(sourceURL);
+		httpGet.addHeader("Range", "bytes=" + segment.start + "-"
+				+ segment.end);
+		HttpEntity entity = executeForEntity(httpGet,
+				HttpStatus.SC_PARTIAL_CONTENT);
+
+		long expected = segment.getLength();
+		long copied = 0L;
+		InputStream instream = null;
+		try {
+			instream = entity.getContent();
+			int count;
+			while (copied < expected
+					&& (count = instream.read(buffer, 0,
+							(int) Math.min(buffer.length, expected - copied))) != -1) {
+				dataOutput.write(buffer, 0, count);
+				copied += count;
+			}
+		} catch (IOException e) {
+			httpGet.abort();
+			throw e;
+		} finally {
+			if (instream != null) {
+				try {
+					instream.close();
+				} catch (IOException e) {
+					log.warn("IOException in close of HTTP input stream, logged and ignored");
+				}
+			}
+		}
+
+		if (copied != expected) {
+			log.error("segment {} short, read {} bytes", segment, copied);
+			throw new HttpStreamingException("segment " + segment
+					+ " ended after " + copied + " bytes");
+		}
+
+		return copied;
+	}
+
+	/**
+	 * Stream a URL that cannot be split with a single get
+	 */
+	private void ingestWhole(final String sourceURL, final IRODSFile targetFile)
+			throws JargonException, HttpStreamingException {
+
+		log.info("ingesting as a single stream");
+		HttpGet httpGet = new HttpGet(sourceURL);
+		HttpEntity entity = executeForEntity(httpGet, HttpStatus.SC_OK);
+
+		InputStream instream = null;
+		try {
+			instream = new BufferedInputStream(entity.getContent(), bufferSize);
+			irodsAccessObjectFactory.getStream2StreamAO(irodsAccount)
+					.transferStreamToFileUsingIOStreams(instream,
+							(File) targetFile, entity.getContentLength(),
+							bufferSize);
+		} catch (IOException e) {
+			httpGet.abort();
+			log.error("IOException ocurred in streaming", e);
+			throw new HttpStreamingException(e);
+		} catch (JargonException e) {
+			httpGet.abort();
+			throw e;
+		} finally {
+			if (instream != null) {
+				try {
+					instream.close();
+				} catch (IOException e) {
+					log.warn("IOException in close of HTTP input stream, logged and ignored");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Issue a HEAD request for the length and range support of a URL. A server
+	 * that refuses HEAD is treated as unsized, so the URL is streamed whole.
+	 */
+	UrlProbe probeUrl(final String sourceURL) throws HttpStreamingException {
+		HttpHead httpHead = new HttpHead(sourceURL);
+		HttpResponse response = execute(httpHead);
+		try {
+			EntityUtils.consume(response.getEntity());
+		} catch (IOException e) {
+			log.warn("error releasing HEAD response, logged and ignored", e);
+		}
+
+		int statusCode = response.getStatusLine().getStatusCode();
+		log.info("status from HEAD:{}", response.getStatusLine());
+		if (statusCode == HttpStatus.SC_NOT_FOUND) {
+			throw new HttpStreamingException("404 not found for URL");
+		}
+
+		UrlProbe urlProbe = new UrlProbe();
+		if (statusCode != HttpStatus.SC_OK) {
+			return urlProbe;
+		}
+
+		Header lengthHeader = response.getFirstHeader("Content-Length");
+		if (lengthHeader != null) {
+			try {
+				urlProbe.length = Long.parseLong(lengthHeader.getValue()
+						.trim());
+			} catch (NumberFormatException e) {
+				log.warn("unparsable Content-Length:{}", lengthHeader.getValue());
+			}
+		}
+
+		Header rangesHeader = response.getFirstHeader("Accept-Ranges");
+		urlProbe.acceptsRanges = rangesHeader != null
+				&& rangesHeader.getValue().trim().equalsIgnoreCase("bytes");
+		log.info("probed url:{}", urlProbe);
+		return urlProbe;
+	}
+
+	/**
+	 * Split a URL of the given length into segments. A URL that is unsized,
+	 * does not accept ranges, or is shorter than
+	 * {@code minimumSegmentedLength} gets a single segment. Segments are
+	 * never shorter than half of {@code minimumSegmentedLength}.
+	 */
+	static List<Segment> planSegments(final long length,
+			final boolean acceptsRanges, final int segmentsPerUrl,
+			final long minimumSegmentedLength) {
+
+		List<Segment> segments = new ArrayList<Segment>();
+		if (length <= 0) {
+			return segments;
+		}
+
+		if (!acceptsRanges || segmentsPerUrl < 2
+				|| length < minimumSegmentedLength) {
+			segments.add(new Segment(0, length - 1));
+			return segments;
+		}
+
+		long minimumSegmentLength = Math.max(minimumSegmentedLength / 2, 1);
+		long segmentCount = Math.min(segmentsPerUrl,
+				Math.max(length / minimumSegmentLength, 1));
+		long segmentLength = length / segmentCount;
+		long start = 0;
+		for (int i = 0; i < segmentCount; i++) {
+			long end = (i == segmentCount - 1) ? length - 1 : start
+					+ segmentLength - 1;
+			segments.add(new Segment(start, end));
+			start = end + 1;
+		}
+		return segments;
+	}
+
+	/**
+	 * Name the target as the streaming service does: under an existing
+	 * collection, use the last path segment of the URL, otherwise use the
+	 * target path itself
+	 */
+	private String resolveTargetPath(final String sourceURL,
+			final IRODSFile irodsTargetFile) throws JargonException {
+		if (irodsTargetFile.exists() && irodsTargetFile.isDirectory()) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(irodsTargetFile.getAbsolutePath());
+			sb.append("/");
+			sb.append(sourceURL.substring(sourceURL.lastIndexOf('/') + 1));
+			return sb.toString();
+		}
+
+		File parent = irodsTargetFile.getParentFile();
+		if (parent == null || !parent.isDirectory()) {
+			log.error("parent of target is not a collection:{}",
+					irodsTargetFile.getAbsolutePath());
+			throw new JargonException(
+					"parent of irodsTargetFile is not an existing collection");
+		}
+		return irodsTargetFile.getAbsolutePath();
+	}
+
+	private void createEmptyTarget(final IRODSFile targetFile)
+			throws JargonException {
+		if (targetFile.exists()) {
+			log.info("deleting existing target before segmented ingest");
+			targetFile.deleteWithForceOption();
+		}
+
+		try {
+			targetFile.createNewFile();
+		} catch (IOException e) {
+			log.error("unable to create target data object", e);
+			throw new JargonException("unable to create target data object", e);
+		}
+		// the segments are written through handles of their own
+		targetFile.close();
+	}
+
+	/**
+	 * A failed segmented ingest leaves holes where segments were not written,
+	 * so the target is removed rather than left looking complete
+	 */
+	private void deletePartialTarget(final IRODSFile targetFile) {
+		log.warn("removing partial target of failed ingest:{}",
+				targetFile.getAbsolutePath());
+		try {
+			irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)
+					.instanceIRODSFile(targetFile.getAbsolutePath())
+					.deleteWithForceOption();
+		} catch (Exception e) {
+			log.error("unable to remove partial target, logged and ignored", e);
+		}
+	}
+
+	private HttpEntity executeForEntity(final HttpRequestBase request,
+			final int expectedStatusCode) throws HttpStreamingException {
+		HttpResponse response = execute(request);
+		int statusCode = response.getStatusLine().getStatusCode();
+		HttpEntity entity = response.getEntity();
+
+		if (statusCode != expectedStatusCode || entity == null) {
+			request.abort();
+			log.error("invalid status from HTTP operation:{}",
+					response.getStatusLine());
+			if (statusCode == HttpStatus.SC_NOT_FOUND) {
+				throw new HttpStreamingException("404 not found for URL");
+			}
+			throw new HttpStreamingException(
+					"invalid status from HTTP operation:" + statusCode);
+		}
+		return entity;
+	}
+
+	private HttpResponse execute(final HttpRequestBase request)
+			throws HttpStreamingException {
+		try {
+			return httpClient.execute(request);
+		} catch (IOException e) {
+			request.abort();
+			log.error("IOException ocurred in HTTP request", e);
+			throw new HttpStreamingException(e);
+		} catch (RuntimeException e) {
+			request.abort();
+			log.error("exception ocurred in HTTP request", e);
+			throw new HttpStreamingException(e);
+		}
+	}
+
+	private static void cancelAll(final List<? extends Future<?>> futures) {
+		for (Future<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * @return the minimum length of a URL that is fetched in segments
+	 */
+	public long getMinimumSegmentedLength() {
+		return minimumSegmentedLength;
+	}
+
+	/**
+	 * @param minimumSegmentedLength
+	 *            the minimum length of a URL that is fetched in segments
+	 */
+	public void setMinimumSegmentedLength(final long minimumSegmentedLength) {
+		this.minimumSegmentedLength = minimumSegmentedLength;
+	}
+
+	/**
+	 * @return the size of the copy buffer used by each segment
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @param bufferSize
+	 *            the size of the copy buffer used by each segment
+	 */
+	public void setBufferSize(final int bufferSize) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be >= 1");
+		}
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * @return the segmentsPerUrl
+	 */
+	public int getSegmentsPerUrl() {
+		return segmentsPerUrl;
+	}
+
+	/**
+	 * @return the urlConcurrency
+	 */
+	public int getUrlConcurrency() {
+		return urlConcurrency;
+	}
+
+	/**
+	 * Length and range support reported by a HEAD request
+	 */
+	static class UrlProbe {
+		long length = -1L;
+		boolean acceptsRanges = false;
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("UrlProbe:");
+			sb.append("\n   length:");
+			sb.append(length);
+			sb.append("\n   acceptsRanges:");
+			sb.append(acceptsRanges);
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Inclusive byte range of a URL
+	 */
+	static class Segment {
+		final long start;
+		final long end;
+
+		Segment(final long start, final long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		long getLength() {
+			return end - start + 1;
+		}
+
+		@Override
+		public String toString() {
+			return start + "-" + end;
+		}
+	}
+
+	private static class IngestThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		IngestThreadFactory(final String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix
+					+ threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
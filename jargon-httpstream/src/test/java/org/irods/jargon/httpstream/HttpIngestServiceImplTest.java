@@ -0,0 +1,168 @@
+package org.irods.jargon.httpstream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.httpstream.HttpIngestServiceImpl.Segment;
+import org.irods.jargon.httpstream.HttpIngestServiceImpl.UrlProbe;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpIngestServiceImplTest {
+
+	private static final byte[] CONTENT = new byte[100000];
+	private static HttpServer httpServer = null;
+	private static String baseUrl = null;
+	private static IRODSFileSystem irodsFileSystem = null;
+	private static HttpIngestServiceImpl httpIngestService = null;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		new Random(42).nextBytes(CONTENT);
+		httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0),
+				0);
+		httpServer.createContext("/ranged", new ContentHandler(true));
+		httpServer.createContext("/unranged", new ContentHandler(false));
+		httpServer.start();
+		baseUrl = "http://127.0.0.1:" + httpServer.getAddress().getPort();
+
+		irodsFileSystem = IRODSFileSystem.instance();
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247,
+				"test", "test", "/zone/home/test", "zone", "");
+		httpIngestService = new HttpIngestServiceImpl(
+				irodsFileSystem.getIRODSAccessObjectFactory(), irodsAccount);
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		httpIngestService.close();
+		httpServer.stop(0);
+		irodsFileSystem.closeAndEatExceptions();
+	}
+
+	@Test
+	public void testPlanSegmentsCoversLength() throws Exception {
+		List<Segment> segments = HttpIngestServiceImpl.planSegments(1003,
+				true, 4, 100);
+		Assert.assertEquals(4, segments.size());
+		long expectedStart = 0;
+		for (Segment segment : segments) {
+			Assert.assertEquals(expectedStart, segment.start);
+			expectedStart = segment.end + 1;
+		}
+		Assert.assertEquals(1003, expectedStart);
+	}
+
+	@Test
+	public void testPlanSegmentsLimitedByMinimumLength() throws Exception {
+		List<Segment> segments = HttpIngestServiceImpl.planSegments(250, true,
+				8, 200);
+		Assert.assertEquals("segments at least half the minimum", 2,
+				segments.size());
+	}
+
+	@Test
+	public void testPlanSegmentsSingleWhenSmallOrUnranged() throws Exception {
+		Assert.assertEquals(1,
+				HttpIngestServiceImpl.planSegments(99, true, 4, 100).size());
+		Assert.assertEquals(1,
+				HttpIngestServiceImpl.planSegments(1000, false, 4, 100).size());
+		Assert.assertEquals(0,
+				HttpIngestServiceImpl.planSegments(-1, true, 4, 100).size());
+	}
+
+	@Test
+	public void testProbeRangedUrl() throws Exception {
+		UrlProbe urlProbe = httpIngestService.probeUrl(baseUrl + "/ranged");
+		Assert.assertEquals(CONTENT.length, urlProbe.length);
+		Assert.assertTrue(urlProbe.acceptsRanges);
+	}
+
+	@Test
+	public void testProbeUnrangedUrl() throws Exception {
+		UrlProbe urlProbe = httpIngestService.probeUrl(baseUrl + "/unranged");
+		Assert.assertFalse(urlProbe.acceptsRanges);
+	}
+
+	@Test
+	public void testCopySegmentsReassembleContent() throws Exception {
+		List<Segment> segments = HttpIngestServiceImpl.planSegments(
+				CONTENT.length, true, 3, 1000);
+		ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1000];
+		for (Segment segment : segments) {
+			long copied = httpIngestService.copyRange(baseUrl + "/ranged",
+					segment, new DataOutputStream(reassembled), buffer);
+			Assert.assertEquals(segment.getLength(), copied);
+		}
+		Assert.assertTrue(Arrays.equals(CONTENT, reassembled.toByteArray()));
+	}
+
+	@Test(expected = HttpStreamingException.class)
+	public void testCopyRangeFromUnrangedServer() throws Exception {
+		httpIngestService.copyRange(baseUrl + "/unranged", new Segment(10, 20),
+				new DataOutputStream(new ByteArrayOutputStream()),
+				new byte[100]);
+	}
+
+	/**
+	 * Serves {@code CONTENT}, honoring a single byte range if ranged
+	 */
+	private static class ContentHandler implements HttpHandler {
+		private final boolean ranged;
+
+		ContentHandler(final boolean ranged) {
+			this.ranged = ranged;
+		}
+
+		@Override
+		public void handle(final HttpExchange exchange) throws IOException {
+			int start = 0;
+			int end = CONTENT.length - 1;
+			int status = 200;
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			if (ranged) {
+				exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+				if (range != null) {
+					String[] bounds = range.substring("bytes=".length()).split(
+							"-");
+					start = Integer.parseInt(bounds[0]);
+					end = Integer.parseInt(bounds[1]);
+					status = 206;
+					exchange.getResponseHeaders().add("Content-Range",
+							"bytes " + start + "-" + end + "/" + CONTENT.length);
+				}
+			}
+
+			int length = end - start + 1;
+			if ("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().add("Content-Length",
+						String.valueOf(length));
+				exchange.sendResponseHeaders(status, -1);
+				exchange.close();
+				return;
+			}
+
+			exchange.sendResponseHeaders(status, length);
+			OutputStream out = exchange.getResponseBody();
+			out.write(CONTENT, start, length);
+			out.close();
+		}
+	}
+
+}
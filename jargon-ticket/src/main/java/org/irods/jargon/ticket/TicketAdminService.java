@@ -46,9 +46,10 @@ public interface TicketAdminService {
 	boolean deleteTicket(String ticketId) throws JargonException;
 
 	/**
-	 * Generate a list of all tickets for data objects (files). Note that, for a
-	 * regular user, this will be tickets for that user. For a rodsadmin, this
-	 * will be all tickets.
+	 * Get the ticket with the given ticket string. If the service was created
+	 * with a {@link TicketCache}, a recently read ticket is returned from the
+	 * cache, so that its use counts may lag the server by up to the time to
+	 * live of the cache.
 	 * 
 	 * @param ticketId
 	 *            - string used to identify the ticket
@@ -101,6 +102,41 @@ public interface TicketAdminService {
 	 */
 	List<Ticket> listAllTickets(int partialStartIndex) throws JargonException;
 
+	/**
+	 * Iterate over all tickets for data objects (files), as
+	 * {@link #listAllTicketsForDataObjects(int)} does, reading further pages
+	 * from iRODS as the iteration proceeds instead of paging by index
+	 * 
+	 * @return {@link TicketListingIterator} over {@link Ticket} objects for
+	 *         data objects, which must be closed if not read to the end
+	 * @throws JargonException
+	 */
+	TicketListingIterator iterateAllTicketsForDataObjects()
+			throws JargonException;
+
+	/**
+	 * Iterate over all tickets for collections (directories), as
+	 * {@link #listAllTicketsForCollections(int)} does, reading further pages
+	 * from iRODS as the iteration proceeds instead of paging by index
+	 * 
+	 * @return {@link TicketListingIterator} over {@link Ticket} objects for
+	 *         collections, which must be closed if not read to the end
+	 * @throws JargonException
+	 */
+	TicketListingIterator iterateAllTicketsForCollections()
+			throws JargonException;
+
+	/**
+	 * Iterate over all tickets, as {@link #listAllTickets(int)} does, reading
+	 * further pages from iRODS as the iteration proceeds instead of paging by
+	 * index
+	 * 
+	 * @return {@link TicketListingIterator} over {@link Ticket} objects, which
+	 *         must be closed if not read to the end
+	 * @throws JargonException
+	 */
+	TicketListingIterator iterateAllTickets() throws JargonException;
+
 	/**
 	 * Modify the uses limit of a ticket for access to iRODS
 	 * 
@@ -388,6 +424,40 @@ public interface TicketAdminService {
 			int partialStartIndex) throws FileNotFoundException,
 			JargonException;
 
+	/**
+	 * Iterate over the tickets in effect for a given collection, as
+	 * {@link #listAllTicketsForGivenCollection(String, int)} does, reading
+	 * further pages from iRODS as the iteration proceeds
+	 * 
+	 * @param irodsAbsolutePath
+	 *            {@code String} with an iRODS absolute path for a
+	 *            collection
+	 * @return {@link TicketListingIterator} over {@link Ticket} objects for
+	 *         the collection, which must be closed if not read to the end
+	 * @throws FileNotFoundException
+	 * @throws JargonException
+	 */
+	TicketListingIterator iterateAllTicketsForGivenCollection(
+			String irodsAbsolutePath) throws FileNotFoundException,
+			JargonException;
+
+	/**
+	 * Iterate over the tickets in effect for a given data object, as
+	 * {@link #listAllTicketsForGivenDataObject(String, int)} does, reading
+	 * further pages from iRODS as the iteration proceeds
+	 * 
+	 * @param irodsAbsolutePath
+	 *            {@code String} with an iRODS absolute path for a data
+	 *            object
+	 * @return {@link TicketListingIterator} over {@link Ticket} objects for
+	 *         the data object, which must be closed if not read to the end
+	 * @throws FileNotFoundException
+	 * @throws JargonException
+	 */
+	TicketListingIterator iterateAllTicketsForGivenDataObject(
+			String irodsAbsolutePath) throws FileNotFoundException,
+			JargonException;
+
 	/**
 	 * This is a 'meta' method that can manage the creation of iRODS tickets,
 	 * and the simultaneous setting of the various limits. This convenience
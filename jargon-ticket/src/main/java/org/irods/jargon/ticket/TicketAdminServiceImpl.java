@@ -18,6 +18,7 @@ import org.irods.jargon.core.pub.ProtocolExtensionPoint;
 import org.irods.jargon.core.pub.UserAO;
 import org.irods.jargon.core.pub.domain.ObjStat;
 import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.query.AbstractIRODSGenQuery;
 import org.irods.jargon.core.query.AbstractIRODSQueryResultSet;
 import org.irods.jargon.core.query.GenQueryBuilderException;
 import org.irods.jargon.core.query.IRODSGenQuery;
@@ -47,6 +48,8 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 	public static final Logger log = LoggerFactory
 			.getLogger(TicketAdminServiceImpl.class);
 
+	private final TicketCache ticketCache;
+
 	/**
 	 * Default constructor takes the objects necessary to communicate with iRODS
 	 * via Access Objects
@@ -62,8 +65,31 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 	TicketAdminServiceImpl(
 			final IRODSAccessObjectFactory irodsAccessObjectFactory,
 			final IRODSAccount irodsAccount) throws JargonException {
+		this(irodsAccessObjectFactory, irodsAccount, null);
+	}
+
+	/**
+	 * Constructor with a cache of ticket metadata
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} that can create various
+	 *            access objects
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} with login information for the target
+	 *            grid
+	 * @param ticketCache
+	 *            {@link TicketCache} for tickets and restriction lists, shared
+	 *            with the other services that modify the tickets, or
+	 *            {@code null} to always query iRODS
+	 * @throws JargonException
+	 */
+	TicketAdminServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final TicketCache ticketCache)
+			throws JargonException {
 		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
 		this.irodsAccount = irodsAccount;
+		this.ticketCache = ticketCache;
 	}
 
 	/*
@@ -107,7 +133,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 
 		try {
 			TicketServiceFactory delegateServiceFactory = new TicketServiceFactoryImpl(
-					irodsAccessObjectFactory);
+					irodsAccessObjectFactory, ticketCache);
 			TicketAdminService delegateService = delegateServiceFactory
 					.instanceTicketAdminService(tempUserAccount);
 			log.info("delegating call to create ticket");
@@ -252,6 +278,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 		ProtocolExtensionPoint pep = irodsAccessObjectFactory
 				.getProtocolExtensionPoint(irodsAccount);
 		Tag ticketOperationResponse = pep.irodsFunction(ticketPI);
+		invalidateCachedTicket(myTicketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -291,6 +318,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				response = false;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -639,6 +667,170 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.ticket.TicketAdminService#iterateAllTicketsForDataObjects
+	 * ()
+	 */
+	@Override
+	public TicketListingIterator iterateAllTicketsForDataObjects()
+			throws JargonException {
+		log.info("iterateAllTicketsForDataObjects()");
+		return buildTicketListingIterator(
+				IRODSGenQuery.instance(
+						buildQuerySelectForLSAllTicketsForDataObjects(),
+						irodsAccessObjectFactory.getJargonProperties()
+								.getMaxFilesAndDirsQueryMax()),
+				new DataObjectTicketRowMapper());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.irods.jargon.ticket.TicketAdminService#iterateAllTicketsForCollections
+	 * ()
+	 */
+	@Override
+	public TicketListingIterator iterateAllTicketsForCollections()
+			throws JargonException {
+		log.info("iterateAllTicketsForCollections()");
+		return buildTicketListingIterator(
+				IRODSGenQuery.instance(
+						buildQuerySelectForLSAllTicketsForCollections(),
+						irodsAccessObjectFactory.getJargonProperties()
+								.getMaxFilesAndDirsQueryMax()),
+				new CollectionTicketRowMapper());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.ticket.TicketAdminService#iterateAllTickets()
+	 */
+	@Override
+	public TicketListingIterator iterateAllTickets() throws JargonException {
+		log.info("iterateAllTickets()");
+		return buildTicketListingIterator(
+				IRODSGenQuery.instance(buildQuerySelectForTicketsCommon(),
+						irodsAccessObjectFactory.getJargonProperties()
+								.getMaxFilesAndDirsQueryMax()),
+				new CommonTicketRowMapper());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.ticket.TicketAdminService#
+	 * iterateAllTicketsForGivenCollection(java.lang.String)
+	 */
+	@Override
+	public TicketListingIterator iterateAllTicketsForGivenCollection(
+			final String irodsAbsolutePath) throws FileNotFoundException,
+			JargonException {
+
+		log.info("iterateAllTicketsForGivenCollection()");
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		log.info("irodsAbsolutePath:{}", irodsAbsolutePath);
+
+		ObjStat objStat = irodsAccessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(getIrodsAccount())
+				.retrieveObjectStatForPath(irodsAbsolutePath);
+
+		if (!objStat.isSomeTypeOfCollection()) {
+			log.error(
+					"ObjStat indicates that this is not some type of collection:{}",
+					objStat);
+			throw new JargonException("path is not a collection");
+		}
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForTicketsCommonToQueryBuilder(builder);
+			addQuerySelectsForListAllTicketsForCollections(builder);
+			builder.addConditionAsGenQueryField(
+					RodsGenQueryEnum.COL_TICKET_COLL_NAME,
+					QueryConditionOperators.EQUAL, irodsAbsolutePath);
+			return buildTicketListingIterator(
+					builder.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+							.getJargonProperties().getMaxFilesAndDirsQueryMax()),
+					new CollectionTicketRowMapper());
+		} catch (GenQueryBuilderException e) {
+			log.error("query exception for ticket query", e);
+			throw new JargonException(ERROR_IN_TICKET_QUERY, e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.ticket.TicketAdminService#
+	 * iterateAllTicketsForGivenDataObject(java.lang.String)
+	 */
+	@Override
+	public TicketListingIterator iterateAllTicketsForGivenDataObject(
+			final String irodsAbsolutePath) throws FileNotFoundException,
+			JargonException {
+
+		log.info("iterateAllTicketsForGivenDataObject()");
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		log.info("irodsAbsolutePath:{}", irodsAbsolutePath);
+
+		ObjStat objStat = irodsAccessObjectFactory
+				.getCollectionAndDataObjectListAndSearchAO(getIrodsAccount())
+				.retrieveObjectStatForPath(irodsAbsolutePath);
+
+		if (objStat.isSomeTypeOfCollection()) {
+			log.error(
+					"ObjStat indicates that this is not some type of data object:{}",
+					objStat);
+			throw new JargonException("path is not a data object");
+		}
+
+		IRODSFile dataFile = irodsAccessObjectFactory.getIRODSFileFactory(
+				getIrodsAccount()).instanceIRODSFile(irodsAbsolutePath);
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			addSelectsForTicketsCommonToQueryBuilder(builder);
+			addQuerySelectsForListAllTicketsForDataObjects(builder);
+			builder.addConditionAsGenQueryField(
+					RodsGenQueryEnum.COL_TICKET_DATA_NAME,
+					QueryConditionOperators.EQUAL, dataFile.getName())
+					.addConditionAsGenQueryField(
+							RodsGenQueryEnum.COL_TICKET_DATA_COLL_NAME,
+							QueryConditionOperators.EQUAL, dataFile.getParent());
+			return buildTicketListingIterator(
+					builder.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+							.getJargonProperties().getMaxFilesAndDirsQueryMax()),
+					new DataObjectTicketRowMapper());
+		} catch (GenQueryBuilderException e) {
+			log.error("query exception for ticket query", e);
+			throw new JargonException(ERROR_IN_TICKET_QUERY, e);
+		}
+	}
+
+	private TicketListingIterator buildTicketListingIterator(
+			final AbstractIRODSGenQuery irodsQuery,
+			final TicketListingIterator.TicketRowMapper ticketRowMapper)
+			throws JargonException {
+		return new TicketListingIterator(
+				irodsAccessObjectFactory.getIRODSGenQueryExecutor(irodsAccount),
+				irodsQuery, ticketRowMapper);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -650,6 +842,33 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 	public Ticket getTicketForSpecifiedTicketString(final String ticketId)
 			throws DataNotFoundException, JargonException {
 
+		if ((ticketId == null) || (ticketId.isEmpty())) {
+			throw new IllegalArgumentException("illegal ticket id");
+		}
+
+		if (ticketCache == null) {
+			return queryTicketForSpecifiedTicketString(ticketId);
+		}
+
+		Ticket ticket = ticketCache.getTicket(irodsAccount, ticketId);
+		if (ticket != null) {
+			log.debug("ticket found in cache:{}", ticketId);
+			return ticket;
+		}
+
+		long readAtVersion = ticketCache.currentVersion();
+		ticket = queryTicketForSpecifiedTicketString(ticketId);
+		ticketCache.putTicket(irodsAccount, ticketId, ticket, readAtVersion);
+		return ticket;
+	}
+
+	/**
+	 * Query iRODS for the ticket with the given string, first finding whether
+	 * it is for a data object or a collection
+	 */
+	private Ticket queryTicketForSpecifiedTicketString(final String ticketId)
+			throws DataNotFoundException, JargonException {
+
 		Ticket ticket = null;
 		IRODSQueryResultSetInterface resultSet = null;
 		String queryCommon = null;
@@ -790,6 +1009,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				response = false;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -838,6 +1058,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				response = false;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -886,6 +1107,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				response = false;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -929,6 +1151,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				response = false;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -980,6 +1203,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				throw e;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -1031,6 +1255,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				throw e;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -1082,6 +1307,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				throw e;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -1133,6 +1359,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				throw e;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -1184,6 +1411,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				throw e;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -1235,6 +1463,7 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				throw e;
 			}
 		}
+		invalidateCachedTicket(ticketId);
 
 		log.info("received response from ticket operation:{}",
 				ticketOperationResponse);
@@ -1255,19 +1484,30 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 
 		boolean returnVal = false;
 
-		List<Ticket> tickets = listAllTickets(0);
-
-		for (Ticket ticket : tickets) {
-			// TODO: the following is an overhead that might be removable later-
-			// MCC
-			if (ticket.getTicketString().isEmpty()) {
-				log.warn("unable to delete a ticket with an empty string:{}",
-						ticket);
-				continue;
+		/*
+		 * read all of the ticket strings before deleting, so the deletes do not
+		 * shift the rows of the listing under the query
+		 */
+		List<String> ticketStrings = new ArrayList<String>();
+		TicketListingIterator tickets = iterateAllTickets();
+		try {
+			while (tickets.hasNext()) {
+				Ticket ticket = tickets.next();
+				if (ticket.getTicketString().isEmpty()) {
+					log.warn(
+							"unable to delete a ticket with an empty string:{}",
+							ticket);
+					continue;
+				}
+				ticketStrings.add(ticket.getTicketString());
 			}
+		} finally {
+			tickets.close();
+		}
+
+		for (String ticketString : ticketStrings) {
 			returnVal = true;
-			deleteTicket(ticket.getTicketString());
-			tickets = listAllTickets(tickets.size());
+			deleteTicket(ticketString);
 		}
 
 		return returnVal;
@@ -1482,10 +1722,36 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_TICKET_EXPIRY_TS);
 	}
 
+	/**
+	 * List the restrictions of a ticket, using the cache for the first page
+	 */
 	private List<String> listRestrictionsForSpecifiedTicketCommon(
 			final String ticketId, final RodsGenQueryEnum col,
 			final int partialStartIndex) throws JargonException {
 
+		if (ticketCache == null || partialStartIndex != 0) {
+			return queryRestrictionsForSpecifiedTicket(ticketId, col,
+					partialStartIndex);
+		}
+
+		List<String> restrictions = ticketCache.getRestrictions(irodsAccount,
+				ticketId, col);
+		if (restrictions != null) {
+			log.debug("restrictions found in cache for ticket:{}", ticketId);
+			return restrictions;
+		}
+
+		long readAtVersion = ticketCache.currentVersion();
+		restrictions = queryRestrictionsForSpecifiedTicket(ticketId, col, 0);
+		ticketCache.putRestrictions(irodsAccount, ticketId, col, restrictions,
+				readAtVersion);
+		return restrictions;
+	}
+
+	private List<String> queryRestrictionsForSpecifiedTicket(
+			final String ticketId, final RodsGenQueryEnum col,
+			final int partialStartIndex) throws JargonException {
+
 		IRODSGenQuery irodsQuery = null;
 		List<String> restrictions = new ArrayList<String>();
 
@@ -1714,4 +1980,62 @@ public final class TicketAdminServiceImpl extends AbstractTicketService
 		return same;
 	}
 
+	/**
+	 * Maps rows of the common ticket selects
+	 */
+	private class CommonTicketRowMapper implements
+			TicketListingIterator.TicketRowMapper {
+		@Override
+		public Ticket mapRow(final IRODSQueryResultRow row)
+				throws JargonException {
+			Ticket ticket = new Ticket();
+			putResultDataIntoTicketCommonValues(ticket, row);
+			return ticket;
+		}
+	}
+
+	/**
+	 * Maps rows of the collection ticket selects, adding the collection path
+	 */
+	private class CollectionTicketRowMapper implements
+			TicketListingIterator.TicketRowMapper {
+		@Override
+		public Ticket mapRow(final IRODSQueryResultRow row)
+				throws JargonException {
+			Ticket ticket = new Ticket();
+			putResultDataIntoTicketCommonValues(ticket, row);
+			ticket.setIrodsAbsolutePath(row.getColumn(13));
+			return ticket;
+		}
+	}
+
+	/**
+	 * Maps rows of the data object ticket selects, adding the data object path
+	 */
+	private class DataObjectTicketRowMapper implements
+			TicketListingIterator.TicketRowMapper {
+		@Override
+		public Ticket mapRow(final IRODSQueryResultRow row)
+				throws JargonException {
+			Ticket ticket = new Ticket();
+			putResultDataIntoTicketCommonValues(ticket, row);
+			StringBuilder absPathBuilder = new StringBuilder();
+			absPathBuilder.append(row.getColumn(14));
+			absPathBuilder.append('/');
+			absPathBuilder.append(row.getColumn(13));
+			ticket.setIrodsAbsolutePath(absPathBuilder.toString());
+			return ticket;
+		}
+	}
+
+	/**
+	 * Drop the cached data of a ticket after it is created, modified, or
+	 * deleted
+	 */
+	private void invalidateCachedTicket(final String ticketId) {
+		if (ticketCache != null) {
+			ticketCache.invalidate(irodsAccount, ticketId);
+		}
+	}
+
 }
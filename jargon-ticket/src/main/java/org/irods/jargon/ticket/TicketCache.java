@@ -0,0 +1,239 @@
+package org.irods.jargon.ticket;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory cache of ticket metadata and restriction lists, used by the
+ * {@link TicketAdminService} so that a ticket checked over and over is not
+ * queried from the iCAT each time. Entries are kept per ticket and per user
+ * asking, as iRODS decides which tickets a user may see.
+ * <p>
+ * The admin service drops the entries of a ticket when it deletes or modifies
+ * it. Changes made by other processes, including the uses count of a ticket
+ * as it is redeemed, are not seen until an entry is older than
+ * {@code timeToLiveMillis}. A cache is shared by giving it to a
+ * {@link TicketServiceFactoryImpl}, so that all services of the factory see
+ * the same invalidations.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class TicketCache {
+
+	public static final Logger log = LoggerFactory.getLogger(TicketCache.class);
+
+	/**
+	 * Default time that a cached ticket or restriction list is used before it
+	 * is read again
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 30 * 1000;
+
+	private static final String TICKET_PART = "ticket";
+
+	private final long timeToLiveMillis;
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, CachedValue>> entries = new ConcurrentHashMap<String, ConcurrentHashMap<String, CachedValue>>();
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Create a cache with the {@link #DEFAULT_TIME_TO_LIVE_MILLIS}
+	 */
+	public TicketCache() {
+		this(DEFAULT_TIME_TO_LIVE_MILLIS);
+	}
+
+	/**
+	 * Create a cache
+	 *
+	 * @param timeToLiveMillis
+	 *            {@code long} with the time a cached value is used before it
+	 *            is read again
+	 */
+	public TicketCache(final long timeToLiveMillis) {
+		if (timeToLiveMillis < 1) {
+			throw new IllegalArgumentException("timeToLiveMillis must be >= 1");
+		}
+		this.timeToLiveMillis = timeToLiveMillis;
+	}
+
+	/**
+	 * Drop everything cached for a ticket, for all users
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} for the grid
+	 * @param ticketString
+	 *            {@code String} with the ticket
+	 */
+	public void invalidate(final IRODSAccount irodsAccount,
+			final String ticketString) {
+		version.incrementAndGet();
+		entries.remove(buildTicketKey(irodsAccount, ticketString));
+	}
+
+	/**
+	 * Drop everything cached
+	 */
+	public void clear() {
+		version.incrementAndGet();
+		entries.clear();
+	}
+
+	/**
+	 * @return {@code long} to pass to a put, so that values read before an
+	 *         invalidation are not cached after it
+	 */
+	long currentVersion() {
+		return version.get();
+	}
+
+	/**
+	 * @return copy of the cached {@link Ticket}, or {@code null} if none or
+	 *         expired
+	 */
+	Ticket getTicket(final IRODSAccount irodsAccount, final String ticketString) {
+		Ticket ticket = (Ticket) get(irodsAccount, ticketString, TICKET_PART);
+		return ticket == null ? null : copyTicket(ticket);
+	}
+
+	void putTicket(final IRODSAccount irodsAccount, final String ticketString,
+			final Ticket ticket, final long readAtVersion) {
+		put(irodsAccount, ticketString, TICKET_PART, copyTicket(ticket),
+				readAtVersion);
+	}
+
+	/**
+	 * @return copy of the cached restrictions in the given column, or
+	 *         {@code null} if none or expired
+	 */
+	@SuppressWarnings("unchecked")
+	List<String> getRestrictions(final IRODSAccount irodsAccount,
+			final String ticketString, final RodsGenQueryEnum restrictionColumn) {
+		List<String> restrictions = (List<String>) get(irodsAccount,
+				ticketString, restrictionColumn.getName());
+		return restrictions == null ? null : new ArrayList<String>(
+				restrictions);
+	}
+
+	void putRestrictions(final IRODSAccount irodsAccount,
+			final String ticketString,
+			final RodsGenQueryEnum restrictionColumn,
+			final List<String> restrictions, final long readAtVersion) {
+		put(irodsAccount, ticketString, restrictionColumn.getName(),
+				new ArrayList<String>(restrictions), readAtVersion);
+	}
+
+	private Object get(final IRODSAccount irodsAccount,
+			final String ticketString, final String part) {
+		ConcurrentHashMap<String, CachedValue> ticketEntries = entries
+				.get(buildTicketKey(irodsAccount, ticketString));
+		if (ticketEntries == null) {
+			return null;
+		}
+
+		String partKey = buildPartKey(irodsAccount, part);
+		CachedValue cachedValue = ticketEntries.get(partKey);
+		if (cachedValue == null) {
+			return null;
+		}
+
+		if (System.currentTimeMillis() - cachedValue.loadedAt > timeToLiveMillis) {
+			log.debug("cached {} expired for ticket:{}", part, ticketString);
+			ticketEntries.remove(partKey, cachedValue);
+			return null;
+		}
+
+		return cachedValue.value;
+	}
+
+	private void put(final IRODSAccount irodsAccount,
+			final String ticketString, final String part, final Object value,
+			final long readAtVersion) {
+		String ticketKey = buildTicketKey(irodsAccount, ticketString);
+		ConcurrentHashMap<String, CachedValue> ticketEntries = entries
+				.get(ticketKey);
+		if (ticketEntries == null) {
+			ConcurrentHashMap<String, CachedValue> newEntries = new ConcurrentHashMap<String, CachedValue>();
+			ticketEntries = entries.putIfAbsent(ticketKey, newEntries);
+			if (ticketEntries == null) {
+				ticketEntries = newEntries;
+			}
+		}
+
+		ticketEntries.put(buildPartKey(irodsAccount, part), new CachedValue(
+				value));
+
+		/*
+		 * an invalidation may have raced the read, in which case what was read
+		 * may be stale and is dropped again
+		 */
+		if (version.get() != readAtVersion) {
+			log.debug("ticket invalidated during read, not cached:{}",
+					ticketString);
+			ticketEntries.remove(buildPartKey(irodsAccount, part));
+		}
+	}
+
+	private static String buildTicketKey(final IRODSAccount irodsAccount,
+			final String ticketString) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getHost());
+		sb.append(':');
+		sb.append(irodsAccount.getPort());
+		sb.append(':');
+		sb.append(irodsAccount.getZone());
+		sb.append(':');
+		sb.append(ticketString);
+		return sb.toString();
+	}
+
+	private static String buildPartKey(final IRODSAccount irodsAccount,
+			final String part) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getUserName());
+		sb.append('#');
+		sb.append(irodsAccount.getZone());
+		sb.append(':');
+		sb.append(part);
+		return sb.toString();
+	}
+
+	private static Ticket copyTicket(final Ticket ticket) {
+		Ticket copy = new Ticket();
+		copy.setTicketId(ticket.getTicketId());
+		copy.setTicketString(ticket.getTicketString());
+		copy.setType(ticket.getType());
+		copy.setObjectType(ticket.getObjectType());
+		copy.setOwnerName(ticket.getOwnerName());
+		copy.setOwnerZone(ticket.getOwnerZone());
+		copy.setUsesCount(ticket.getUsesCount());
+		copy.setUsesLimit(ticket.getUsesLimit());
+		copy.setWriteFileCount(ticket.getWriteFileCount());
+		copy.setWriteFileLimit(ticket.getWriteFileLimit());
+		copy.setWriteByteCount(ticket.getWriteByteCount());
+		copy.setWriteByteLimit(ticket.getWriteByteLimit());
+		copy.setExpireTime(ticket.getExpireTime() == null ? null
+				: new Date(ticket.getExpireTime().getTime()));
+		copy.setIrodsAbsolutePath(ticket.getIrodsAbsolutePath());
+		return copy;
+	}
+
+	private static class CachedValue {
+		private final Object value;
+		private final long loadedAt = System.currentTimeMillis();
+
+		CachedValue(final Object value) {
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+package org.irods.jargon.ticket;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over the tickets found by a query, reading the next page of results
+ * from iRODS only as the current one is used up. The query stays open on the
+ * server between pages, so unlike the {@code partialStartIndex} listing
+ * methods it is neither run again per page nor subject to rows shifting
+ * between calls.
+ * <p>
+ * The query is closed once the last ticket is read. A caller that stops early
+ * must call {@link #close()}. Errors reading a page are thrown as
+ * {@link JargonRuntimeException} from {@link #hasNext()}, as the
+ * {@code Iterator} contract has no checked exceptions.
+ * <p>
+ * This class is not thread safe, and is used on the thread that created it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TicketListingIterator implements Iterator<Ticket>, Closeable {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TicketListingIterator.class);
+
+	private final IRODSGenQueryExecutor irodsGenQueryExecutor;
+	private final AbstractIRODSGenQuery irodsQuery;
+	private final TicketRowMapper ticketRowMapper;
+	private IRODSQueryResultSet resultSet = null;
+	private Iterator<IRODSQueryResultRow> rows = null;
+	private boolean closed = false;
+
+	/**
+	 * Turns a row of a ticket query into a {@link Ticket}
+	 */
+	interface TicketRowMapper {
+		Ticket mapRow(IRODSQueryResultRow row) throws JargonException;
+	}
+
+	/**
+	 * Constructor used by the {@link TicketAdminServiceImpl}, the query is not
+	 * run until the first call to {@link #hasNext()}
+	 */
+	TicketListingIterator(final IRODSGenQueryExecutor irodsGenQueryExecutor,
+			final AbstractIRODSGenQuery irodsQuery,
+			final TicketRowMapper ticketRowMapper) {
+
+		if (irodsGenQueryExecutor == null) {
+			throw new IllegalArgumentException("null irodsGenQueryExecutor");
+		}
+
+		if (irodsQuery == null) {
+			throw new IllegalArgumentException("null irodsQuery");
+		}
+
+		if (ticketRowMapper == null) {
+			throw new IllegalArgumentException("null ticketRowMapper");
+		}
+
+		this.irodsGenQueryExecutor = irodsGenQueryExecutor;
+		this.irodsQuery = irodsQuery;
+		this.ticketRowMapper = ticketRowMapper;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+
+		try {
+			if (resultSet == null) {
+				log.info("running ticket query:{}", irodsQuery);
+				resultSet = irodsGenQueryExecutor.executeIRODSQuery(irodsQuery,
+						0);
+				rows = resultSet.getResults().iterator();
+			}
+
+			while (!rows.hasNext()) {
+				if (!resultSet.isHasMoreRecords()) {
+					closed = true;
+					return false;
+				}
+				log.debug("reading next page of tickets");
+				resultSet = irodsGenQueryExecutor.getMoreResults(resultSet);
+				rows = resultSet.getResults().iterator();
+			}
+
+			return true;
+
+		} catch (JargonQueryException e) {
+			log.error("query exception for ticket query:{}", irodsQuery, e);
+			closeAfterError();
+			throw new JargonRuntimeException("error in ticket query", e);
+		} catch (JargonException e) {
+			log.error("error reading tickets", e);
+			closeAfterError();
+			throw new JargonRuntimeException("error reading tickets", e);
+		}
+	}
+
+	@Override
+	public Ticket next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		try {
+			return ticketRowMapper.mapRow(rows.next());
+		} catch (JargonException e) {
+			log.error("error reading ticket from row", e);
+			closeAfterError();
+			throw new JargonRuntimeException("error reading ticket from row", e);
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("remove not supported");
+	}
+
+	/**
+	 * Close the query on the server if it has more results, the iRODS session
+	 * itself is left open
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		if (resultSet != null && resultSet.isHasMoreRecords()) {
+			try {
+				irodsGenQueryExecutor.closeResults(resultSet);
+			} catch (JargonException e) {
+				log.warn("error closing ticket query results, ignored", e);
+			}
+		}
+	}
+
+	private void closeAfterError() {
+		try {
+			close();
+		} catch (Exception e) {
+			log.warn("error closing after error, ignored", e);
+		}
+	}
+
+}
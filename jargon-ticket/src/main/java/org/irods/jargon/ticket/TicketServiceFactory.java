@@ -61,4 +61,19 @@ public interface TicketServiceFactory {
 			TicketDistributionContext ticketDistributionContext)
 			throws JargonException;
 
+	/**
+	 * Create a new instance of the {@code TicketStreamingService} that can
+	 * stream data objects and byte ranges of them under a ticket. The service
+	 * pools ticket sessions, so the instance should be kept and shared rather
+	 * than created per request.
+	 * 
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} that describes the server and connection
+	 *            info, typically anonymous
+	 * @return {@link TicketStreamingService} object to stream data by ticket
+	 * @throws JargonException
+	 */
+	TicketStreamingService instanceTicketStreamingService(
+			IRODSAccount irodsAccount) throws JargonException;
+
 }
@@ -13,15 +13,33 @@ import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 public class TicketServiceFactoryImpl implements TicketServiceFactory {
 
 	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final TicketCache ticketCache;
 
 	public TicketServiceFactoryImpl(
 			final IRODSAccessObjectFactory irodsAccessObjectFactory) {
+		this(irodsAccessObjectFactory, null);
+	}
+
+	/**
+	 * Create a factory whose admin services share a cache of ticket metadata
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} that can create various
+	 *            access objects
+	 * @param ticketCache
+	 *            {@link TicketCache} shared by the services of this factory,
+	 *            or {@code null} to always query iRODS
+	 */
+	public TicketServiceFactoryImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final TicketCache ticketCache) {
 		if (irodsAccessObjectFactory == null) {
 			throw new IllegalArgumentException(
 					"irodsAccessObjectFactory is null");
 		}
 
 		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.ticketCache = ticketCache;
 
 	}
 
@@ -43,7 +61,7 @@ public class TicketServiceFactoryImpl implements TicketServiceFactory {
 		}
 
 		return new TicketAdminServiceImpl(irodsAccessObjectFactory,
-				irodsAccount);
+				irodsAccount, ticketCache);
 
 	}
 
@@ -90,6 +108,28 @@ public class TicketServiceFactoryImpl implements TicketServiceFactory {
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.irods.jargon.ticket.TicketServiceFactory#
+	 * instanceTicketStreamingService
+	 * (org.irods.jargon.core.connection.IRODSAccount)
+	 */
+	@Override
+	public TicketStreamingService instanceTicketStreamingService(
+			final IRODSAccount irodsAccount) throws JargonException {
+
+		checkDependencies();
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		return new TicketStreamingServiceImpl(irodsAccessObjectFactory,
+				irodsAccount);
+
+	}
+
 	void checkDependencies() {
 		if (irodsAccessObjectFactory == null) {
 			throw new IllegalArgumentException(
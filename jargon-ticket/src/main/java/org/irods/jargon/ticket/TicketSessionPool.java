@@ -0,0 +1,198 @@
+package org.irods.jargon.ticket;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Idle iRODS connections whose session has already been initialized with a
+ * ticket, kept by ticket string so that later requests for the same ticket
+ * skip the connect, login and ticket calls. Connections idle past the timeout
+ * are disconnected when next seen.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class TicketSessionPool {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TicketSessionPool.class);
+
+	private final int maxIdleSessions;
+	private final int maxIdleSessionsPerTicket;
+	private final long idleTimeoutMillis;
+	private final Map<String, LinkedList<IdleSession>> idleSessions = new HashMap<String, LinkedList<IdleSession>>();
+	private int idleCount = 0;
+
+	/**
+	 * @param maxIdleSessions
+	 *            {@code int} with the most idle connections kept over all
+	 *            tickets
+	 * @param maxIdleSessionsPerTicket
+	 *            {@code int} with the most idle connections kept for one
+	 *            ticket
+	 * @param idleTimeoutMillis
+	 *            {@code long} with the time an idle connection is kept
+	 */
+	TicketSessionPool(final int maxIdleSessions,
+			final int maxIdleSessionsPerTicket, final long idleTimeoutMillis) {
+
+		if (maxIdleSessions < 0) {
+			throw new IllegalArgumentException("maxIdleSessions must be >= 0");
+		}
+
+		if (maxIdleSessionsPerTicket < 0) {
+			throw new IllegalArgumentException(
+					"maxIdleSessionsPerTicket must be >= 0");
+		}
+
+		if (idleTimeoutMillis < 1) {
+			throw new IllegalArgumentException(
+					"idleTimeoutMillis must be >= 1");
+		}
+
+		this.maxIdleSessions = maxIdleSessions;
+		this.maxIdleSessionsPerTicket = maxIdleSessionsPerTicket;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+	}
+
+	/**
+	 * Take an idle connection for the ticket, most recently used first
+	 *
+	 * @return {@link AbstractIRODSMidLevelProtocol} with the ticket set, or
+	 *         {@code null} if there is none
+	 */
+	AbstractIRODSMidLevelProtocol checkOut(final String ticketString) {
+		List<AbstractIRODSMidLevelProtocol> expired = new ArrayList<AbstractIRODSMidLevelProtocol>();
+		AbstractIRODSMidLevelProtocol found = null;
+		long now = System.currentTimeMillis();
+
+		synchronized (this) {
+			LinkedList<IdleSession> sessions = idleSessions.get(ticketString);
+			while (sessions != null && !sessions.isEmpty()) {
+				IdleSession idleSession = sessions.removeFirst();
+				idleCount--;
+				if (now - idleSession.idleSince > idleTimeoutMillis
+						|| !idleSession.irodsProtocol.isConnected()) {
+					expired.add(idleSession.irodsProtocol);
+				} else {
+					found = idleSession.irodsProtocol;
+					break;
+				}
+			}
+
+			if (sessions != null && sessions.isEmpty()) {
+				idleSessions.remove(ticketString);
+			}
+		}
+
+		disconnectAll(expired);
+		return found;
+	}
+
+	/**
+	 * Keep a connection for reuse with the ticket
+	 *
+	 * @return {@code true} if the connection is kept, {@code false} if the
+	 *         pool is full and the caller should close the connection
+	 */
+	boolean checkIn(final String ticketString,
+			final AbstractIRODSMidLevelProtocol irodsProtocol) {
+		List<AbstractIRODSMidLevelProtocol> expired = new ArrayList<AbstractIRODSMidLevelProtocol>();
+		boolean kept = false;
+
+		synchronized (this) {
+			if (idleCount >= maxIdleSessions) {
+				removeExpired(expired);
+			}
+
+			LinkedList<IdleSession> sessions = idleSessions.get(ticketString);
+			int forTicket = sessions == null ? 0 : sessions.size();
+			if (idleCount < maxIdleSessions
+					&& forTicket < maxIdleSessionsPerTicket) {
+				if (sessions == null) {
+					sessions = new LinkedList<IdleSession>();
+					idleSessions.put(ticketString, sessions);
+				}
+				sessions.addFirst(new IdleSession(irodsProtocol));
+				idleCount++;
+				kept = true;
+			}
+		}
+
+		disconnectAll(expired);
+		return kept;
+	}
+
+	/**
+	 * Disconnect all idle connections
+	 */
+	void clear() {
+		List<AbstractIRODSMidLevelProtocol> all = new ArrayList<AbstractIRODSMidLevelProtocol>();
+		synchronized (this) {
+			for (LinkedList<IdleSession> sessions : idleSessions.values()) {
+				for (IdleSession idleSession : sessions) {
+					all.add(idleSession.irodsProtocol);
+				}
+			}
+			idleSessions.clear();
+			idleCount = 0;
+		}
+		disconnectAll(all);
+	}
+
+	synchronized int getIdleCount() {
+		return idleCount;
+	}
+
+	private void removeExpired(final List<AbstractIRODSMidLevelProtocol> expired) {
+		long now = System.currentTimeMillis();
+		Iterator<LinkedList<IdleSession>> ticketIterator = idleSessions
+				.values().iterator();
+		while (ticketIterator.hasNext()) {
+			LinkedList<IdleSession> sessions = ticketIterator.next();
+			Iterator<IdleSession> sessionIterator = sessions.iterator();
+			while (sessionIterator.hasNext()) {
+				IdleSession idleSession = sessionIterator.next();
+				if (now - idleSession.idleSince > idleTimeoutMillis) {
+					expired.add(idleSession.irodsProtocol);
+					sessionIterator.remove();
+					idleCount--;
+				}
+			}
+			if (sessions.isEmpty()) {
+				ticketIterator.remove();
+			}
+		}
+	}
+
+	private static void disconnectAll(
+			final List<AbstractIRODSMidLevelProtocol> irodsProtocols) {
+		for (AbstractIRODSMidLevelProtocol irodsProtocol : irodsProtocols) {
+			try {
+				irodsProtocol.disconnect();
+			} catch (Exception e) {
+				log.warn("error disconnecting idle ticket session, ignored", e);
+			}
+		}
+	}
+
+	private static class IdleSession {
+		private final AbstractIRODSMidLevelProtocol irodsProtocol;
+		private final long idleSince = System.currentTimeMillis();
+
+		IdleSession(final AbstractIRODSMidLevelProtocol irodsProtocol) {
+			this.irodsProtocol = irodsProtocol;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.irods.jargon.ticket;
+
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.ticket.io.RangeNotSatisfiableException;
+import org.irods.jargon.ticket.io.RangeStreamAndInfo;
+
+/**
+ * Streams data objects, or byte ranges of them, directly from iRODS under a
+ * ticket, for gateways that serve many anonymous downloads. Nothing is copied
+ * to local disk, and the connections used, with their ticket already set, are
+ * pooled for the next request that presents the same ticket.
+ * <p>
+ * An instance holds the pool, and so should be created once and shared, with
+ * {@link #close()} called at shutdown.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface TicketStreamingService {
+
+	/**
+	 * Redeem a ticket and open a stream of a data object, or of the range of it
+	 * given by an HTTP {@code Range} header. The stream must be closed to free
+	 * the connection for reuse.
+	 *
+	 * @param ticketString
+	 *            {@code String} with the unique ticket id
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path of the data object
+	 * @param rangeHeader
+	 *            {@code String} with the value of an HTTP {@code Range}
+	 *            header, such as {@code bytes=1000-}, or {@code null} to
+	 *            stream the whole object. Only single ranges are honored.
+	 * @return {@link RangeStreamAndInfo} with the stream and the range it
+	 *         covers
+	 * @throws FileNotFoundException
+	 *             if the data object is not found
+	 * @throws RangeNotSatisfiableException
+	 *             if the range does not overlap the data object
+	 * @throws JargonException
+	 */
+	RangeStreamAndInfo redeemTicketAndStreamDataObject(String ticketString,
+			String irodsAbsolutePath, String rangeHeader)
+			throws FileNotFoundException, RangeNotSatisfiableException,
+			JargonException;
+
+	/**
+	 * Disconnect the pooled connections
+	 */
+	void close();
+
+}
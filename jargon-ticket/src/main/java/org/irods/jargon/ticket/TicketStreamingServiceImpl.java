@@ -0,0 +1,436 @@
+package org.irods.jargon.ticket;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.irods.jargon.core.connection.AbstractIRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInp.OpenFlags;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.irods.jargon.core.pub.io.IRODSRandomAccessFile;
+import org.irods.jargon.ticket.io.ByteRange;
+import org.irods.jargon.ticket.io.RangeNotSatisfiableException;
+import org.irods.jargon.ticket.io.RangeStreamAndInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams data objects and byte ranges of them under a ticket, reading
+ * directly from an iRODS file opened on a ticket enabled session. The range is
+ * served by a seek to its start, so a player or download manager can resume or
+ * jump within a large object without the whole object being read.
+ * <p>
+ * iRODS connections are held per thread by the {@link IRODSSession}. A
+ * connection taken from the pool is placed in the session of the calling
+ * thread for the life of the stream, and when the stream is closed it is
+ * taken back into the pool, still carrying its ticket. If the calling thread
+ * already holds a connection for the account, that connection is used as is
+ * and left to its owner.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class TicketStreamingServiceImpl extends AbstractTicketService
+		implements TicketStreamingService {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TicketStreamingServiceImpl.class);
+
+	/**
+	 * Default for the most idle ticket sessions kept
+	 */
+	public static final int DEFAULT_MAX_IDLE_SESSIONS = 16;
+
+	/**
+	 * Default for the most idle ticket sessions kept for one ticket
+	 */
+	public static final int DEFAULT_MAX_IDLE_SESSIONS_PER_TICKET = 4;
+
+	/**
+	 * Default time an idle ticket session is kept, below the usual server side
+	 * idle timeouts
+	 */
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60 * 1000;
+
+	/**
+	 * Default size of the buffer in front of the iRODS reads
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	private final TicketClientSupport ticketClientSupport;
+	private final TicketSessionPool ticketSessionPool;
+	private final int bufferSize;
+
+	/**
+	 * Create a service with the default pool and buffer settings
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} for managing connections to
+	 *            iRODS
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}, typically anonymous, that connects
+	 *            before the ticket is presented
+	 */
+	public TicketStreamingServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		this(irodsAccessObjectFactory, irodsAccount, DEFAULT_MAX_IDLE_SESSIONS,
+				DEFAULT_MAX_IDLE_SESSIONS_PER_TICKET,
+				DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create a service
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} for managing connections to
+	 *            iRODS
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}, typically anonymous, that connects
+	 *            before the ticket is presented
+	 * @param maxIdleSessions
+	 *            {@code int} with the most idle ticket sessions kept, 0 to
+	 *            close each connection after use
+	 * @param maxIdleSessionsPerTicket
+	 *            {@code int} with the most idle sessions kept for one ticket
+	 * @param idleTimeoutMillis
+	 *            {@code long} with the time an idle session is kept
+	 * @param bufferSize
+	 *            {@code int} with the size of the buffer in front of the
+	 *            iRODS reads, and so the size of each read from iRODS
+	 */
+	public TicketStreamingServiceImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final int maxIdleSessions,
+			final int maxIdleSessionsPerTicket, final long idleTimeoutMillis,
+			final int bufferSize) {
+
+		super(irodsAccessObjectFactory, irodsAccount);
+
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be >= 1");
+		}
+
+		ticketClientSupport = new TicketClientSupport(irodsAccessObjectFactory,
+				irodsAccount);
+		ticketSessionPool = new TicketSessionPool(maxIdleSessions,
+				maxIdleSessionsPerTicket, idleTimeoutMillis);
+		this.bufferSize = bufferSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.ticket.TicketStreamingService#
+	 * redeemTicketAndStreamDataObject(java.lang.String, java.lang.String,
+	 * java.lang.String)
+	 */
+	@Override
+	public RangeStreamAndInfo redeemTicketAndStreamDataObject(
+			final String ticketString, final String irodsAbsolutePath,
+			final String rangeHeader) throws FileNotFoundException,
+			RangeNotSatisfiableException, JargonException {
+
+		log.info("redeemTicketAndStreamDataObject()");
+
+		if (ticketString == null || ticketString.isEmpty()) {
+			throw new IllegalArgumentException("null or empty ticketString");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException(
+					"null or empty irodsAbsolutePath");
+		}
+
+		log.info("irodsAbsolutePath:{}", irodsAbsolutePath);
+		log.info("rangeHeader:{}", rangeHeader);
+
+		Map<String, AbstractIRODSMidLevelProtocol> threadSessions = irodsAccessObjectFactory
+				.getIrodsSession().getIRODSCommandsMap();
+		if (threadSessions != null
+				&& threadSessions.containsKey(irodsAccount.toString())) {
+			log.info("thread already holds a connection, using it without pooling");
+			ticketClientSupport.initializeSessionWithTicket(ticketString);
+			return openStream(ticketString, irodsAbsolutePath, rangeHeader,
+					false);
+		}
+
+		AbstractIRODSMidLevelProtocol pooledSession = ticketSessionPool
+				.checkOut(ticketString);
+		if (pooledSession != null) {
+			log.info("reusing pooled ticket session");
+			attachToThread(pooledSession);
+			try {
+				return openStream(ticketString, irodsAbsolutePath,
+						rangeHeader, true);
+			} catch (FileNotFoundException e) {
+				throw e;
+			} catch (RangeNotSatisfiableException e) {
+				throw e;
+			} catch (JargonException e) {
+				log.warn(
+						"pooled ticket session failed, retrying on a new connection",
+						e);
+			}
+		}
+
+		log.info("initializing new session with ticket");
+		try {
+			ticketClientSupport.initializeSessionWithTicket(ticketString);
+		} catch (JargonException e) {
+			irodsAccessObjectFactory.closeSessionAndEatExceptions(irodsAccount);
+			throw e;
+		}
+
+		return openStream(ticketString, irodsAbsolutePath, rangeHeader, true);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.ticket.TicketStreamingService#close()
+	 */
+	@Override
+	public void close() {
+		log.info("close()");
+		ticketSessionPool.clear();
+	}
+
+	/**
+	 * Stat the object, resolve the range, and open the file at the start of
+	 * the range on the ticket enabled session of this thread. On error the
+	 * session is released, or discarded if it may be broken.
+	 */
+	private RangeStreamAndInfo openStream(final String ticketString,
+			final String irodsAbsolutePath, final String rangeHeader,
+			final boolean owned) throws FileNotFoundException,
+			RangeNotSatisfiableException, JargonException {
+
+		IRODSRandomAccessFile irodsRandomAccessFile = null;
+		try {
+			ObjStat objStat = irodsAccessObjectFactory
+					.getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+					.retrieveObjectStatForPath(irodsAbsolutePath);
+			if (objStat.isSomeTypeOfCollection()) {
+				throw new FileNotFoundException("no data object at path:"
+						+ irodsAbsolutePath);
+			}
+
+			ByteRange byteRange = ByteRange.instanceFromRangeHeader(
+					rangeHeader, objStat.getObjSize());
+			log.info("streaming range:{}", byteRange);
+
+			if (byteRange.getLength() > 0) {
+				irodsRandomAccessFile = irodsAccessObjectFactory
+						.getIRODSFileFactory(irodsAccount)
+						.instanceIRODSRandomAccessFile(irodsAbsolutePath,
+								OpenFlags.READ);
+				if (byteRange.getStart() > 0) {
+					irodsRandomAccessFile.seek(byteRange.getStart(),
+							SeekWhenceType.SEEK_START);
+				}
+			}
+
+			InputStream rangeInputStream = new RangeInputStream(
+					irodsRandomAccessFile, byteRange.getLength(),
+					ticketString, owned);
+			return new RangeStreamAndInfo(new BufferedInputStream(
+					rangeInputStream, bufferSize), byteRange);
+
+		} catch (FileNotFoundException e) {
+			releaseSession(ticketString, owned);
+			throw e;
+		} catch (RangeNotSatisfiableException e) {
+			releaseSession(ticketString, owned);
+			throw e;
+		} catch (JargonException e) {
+			log.error("error opening ticket stream", e);
+			closeQuietly(irodsRandomAccessFile);
+			discardSession(owned);
+			throw e;
+		} catch (IOException e) {
+			log.error("error seeking to start of range", e);
+			closeQuietly(irodsRandomAccessFile);
+			discardSession(owned);
+			throw new JargonException("error seeking to start of range", e);
+		}
+	}
+
+	/**
+	 * Place a pooled connection in the session of this thread
+	 */
+	private void attachToThread(final AbstractIRODSMidLevelProtocol irodsProtocol) {
+		Map<String, AbstractIRODSMidLevelProtocol> threadSessions = IRODSSession.sessionMap
+				.get();
+		if (threadSessions == null) {
+			threadSessions = new HashMap<String, AbstractIRODSMidLevelProtocol>();
+			IRODSSession.sessionMap.set(threadSessions);
+		}
+		threadSessions.put(irodsAccount.toString(), irodsProtocol);
+	}
+
+	/**
+	 * Take the connection of this thread back into the pool, or close it if
+	 * the pool is full
+	 */
+	private void releaseSession(final String ticketString, final boolean owned) {
+		if (!owned) {
+			return;
+		}
+
+		Map<String, AbstractIRODSMidLevelProtocol> threadSessions = IRODSSession.sessionMap
+				.get();
+		AbstractIRODSMidLevelProtocol irodsProtocol = threadSessions == null ? null
+				: threadSessions.get(irodsAccount.toString());
+		if (irodsProtocol == null) {
+			return;
+		}
+
+		if (irodsProtocol.isConnected()
+				&& ticketSessionPool.checkIn(ticketString, irodsProtocol)) {
+			log.debug("ticket session returned to pool");
+			threadSessions.remove(irodsAccount.toString());
+			if (threadSessions.isEmpty()) {
+				IRODSSession.sessionMap.set(null);
+			}
+		} else {
+			irodsAccessObjectFactory.closeSessionAndEatExceptions(irodsAccount);
+		}
+	}
+
+	private void discardSession(final boolean owned) {
+		if (owned) {
+			irodsAccessObjectFactory.getIrodsSession().discardSessionForErrors(
+					irodsAccount);
+		}
+	}
+
+	private static void closeQuietly(
+			final IRODSRandomAccessFile irodsRandomAccessFile) {
+		if (irodsRandomAccessFile == null) {
+			return;
+		}
+		try {
+			irodsRandomAccessFile.close();
+		} catch (IOException e) {
+			log.warn("error closing iRODS file, ignored", e);
+		}
+	}
+
+	/**
+	 * @return the number of idle ticket sessions in the pool
+	 */
+	int getIdleSessionCount() {
+		return ticketSessionPool.getIdleCount();
+	}
+
+	/**
+	 * Stream of exactly the bytes of a range, read from an iRODS file already
+	 * positioned at its start. Closing the stream closes the file and releases
+	 * the session.
+	 */
+	private class RangeInputStream extends InputStream {
+		private final IRODSRandomAccessFile irodsRandomAccessFile;
+		private final String ticketString;
+		private final boolean owned;
+		private long remaining;
+		private boolean closed = false;
+
+		RangeInputStream(final IRODSRandomAccessFile irodsRandomAccessFile,
+				final long length, final String ticketString,
+				final boolean owned) {
+			this.irodsRandomAccessFile = irodsRandomAccessFile;
+			remaining = length;
+			this.ticketString = ticketString;
+			this.owned = owned;
+		}
+
+		@Override
+		public int read() throws IOException {
+			checkOpen();
+			if (remaining <= 0) {
+				return -1;
+			}
+
+			int b = irodsRandomAccessFile.read();
+			if (b == -1) {
+				remaining = 0;
+				return -1;
+			}
+
+			remaining--;
+			return b;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len)
+				throws IOException {
+			checkOpen();
+			if (len == 0) {
+				return 0;
+			}
+
+			if (remaining <= 0) {
+				return -1;
+			}
+
+			int read = irodsRandomAccessFile.read(b, off,
+					(int) Math.min(len, remaining));
+			if (read <= 0) {
+				remaining = 0;
+				return -1;
+			}
+
+			remaining -= read;
+			return read;
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			checkOpen();
+			long toSkip = Math.min(n, remaining);
+			if (toSkip <= 0) {
+				return 0;
+			}
+
+			irodsRandomAccessFile.seek(toSkip, SeekWhenceType.SEEK_CURRENT);
+			remaining -= toSkip;
+			return toSkip;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+
+			if (irodsRandomAccessFile != null) {
+				try {
+					irodsRandomAccessFile.close();
+				} catch (IOException e) {
+					log.error("error closing iRODS file, discarding session", e);
+					discardSession(owned);
+					throw e;
+				}
+			}
+
+			releaseSession(ticketString, owned);
+		}
+
+		private void checkOpen() throws IOException {
+			if (closed) {
+				throw new IOException("stream is closed");
+			}
+		}
+	}
+
+}
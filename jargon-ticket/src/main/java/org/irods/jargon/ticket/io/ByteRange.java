@@ -0,0 +1,225 @@
+package org.irods.jargon.ticket.io;
+
+/**
+ * Immutable range of bytes of a data object to be streamed, resolved against
+ * the length of the object. Ranges follow the HTTP conventions, with an
+ * inclusive end, so that a gateway can copy {@link #getContentRange()} into
+ * its response.
+ * <p>
+ * Only a single range is supported. Headers that ask for several ranges, or
+ * that cannot be parsed, resolve to the whole object, as HTTP allows a server
+ * to ignore such a {@code Range} header.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class ByteRange {
+
+	private static final String BYTES_UNIT = "bytes=";
+
+	private final long start;
+	private final long end;
+	private final long totalLength;
+	private final boolean partial;
+
+	/**
+	 * Get a range covering the whole object
+	 *
+	 * @param totalLength
+	 *            {@code long} with the length of the data object
+	 * @return {@link ByteRange} of all bytes of the object
+	 */
+	public static ByteRange instanceForWholeObject(final long totalLength) {
+		if (totalLength < 0) {
+			throw new IllegalArgumentException("totalLength must be >= 0");
+		}
+
+		return new ByteRange(0, totalLength - 1, totalLength, false);
+	}
+
+	/**
+	 * Get a range from explicit positions
+	 *
+	 * @param start
+	 *            {@code long} with the first byte to stream
+	 * @param end
+	 *            {@code long} with the last byte to stream, inclusive, or -1
+	 *            to stream to the end of the object. An end past the object is
+	 *            cut back to its last byte.
+	 * @param totalLength
+	 *            {@code long} with the length of the data object
+	 * @return {@link ByteRange} of the bytes asked for
+	 * @throws RangeNotSatisfiableException
+	 *             if {@code start} is past the end of the object
+	 */
+	public static ByteRange instance(final long start, final long end,
+			final long totalLength) throws RangeNotSatisfiableException {
+
+		if (start < 0) {
+			throw new IllegalArgumentException("start must be >= 0");
+		}
+
+		if (end < -1) {
+			throw new IllegalArgumentException("end must be >= -1");
+		}
+
+		if (end != -1 && end < start) {
+			throw new IllegalArgumentException("end must not be before start");
+		}
+
+		if (totalLength < 0) {
+			throw new IllegalArgumentException("totalLength must be >= 0");
+		}
+
+		if (start >= totalLength) {
+			throw new RangeNotSatisfiableException("range start " + start
+					+ " is not within length " + totalLength, totalLength);
+		}
+
+		long lastByte = totalLength - 1;
+		if (end == -1 || end > lastByte) {
+			return new ByteRange(start, lastByte, totalLength, true);
+		}
+
+		return new ByteRange(start, end, totalLength, true);
+	}
+
+	/**
+	 * Get a range from the value of an HTTP {@code Range} header, such as
+	 * {@code bytes=0-499}, {@code bytes=500-}, or the suffix form
+	 * {@code bytes=-500} for the last 500 bytes
+	 *
+	 * @param rangeHeader
+	 *            {@code String} with the header value. If {@code null} or
+	 *            blank, the whole object is streamed.
+	 * @param totalLength
+	 *            {@code long} with the length of the data object
+	 * @return {@link ByteRange} of the bytes asked for
+	 * @throws RangeNotSatisfiableException
+	 *             if the range does not overlap the object
+	 */
+	public static ByteRange instanceFromRangeHeader(final String rangeHeader,
+			final long totalLength) throws RangeNotSatisfiableException {
+
+		if (totalLength < 0) {
+			throw new IllegalArgumentException("totalLength must be >= 0");
+		}
+
+		if (rangeHeader == null || rangeHeader.trim().isEmpty()) {
+			return instanceForWholeObject(totalLength);
+		}
+
+		String spec = rangeHeader.trim();
+		if (!spec.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+			return instanceForWholeObject(totalLength);
+		}
+
+		spec = spec.substring(BYTES_UNIT.length()).trim();
+		int dash = spec.indexOf('-');
+		if (spec.indexOf(',') != -1 || dash == -1) {
+			return instanceForWholeObject(totalLength);
+		}
+
+		String first = spec.substring(0, dash).trim();
+		String last = spec.substring(dash + 1).trim();
+
+		try {
+			if (first.isEmpty()) {
+				long suffixLength = Long.parseLong(last);
+				if (suffixLength <= 0 || totalLength == 0) {
+					throw new RangeNotSatisfiableException(
+							"empty suffix range:" + rangeHeader, totalLength);
+				}
+				return instance(Math.max(0, totalLength - suffixLength),
+						-1, totalLength);
+			}
+
+			long start = Long.parseLong(first);
+			long end = last.isEmpty() ? -1 : Long.parseLong(last);
+			if (start < 0 || end < -1 || (end != -1 && end < start)) {
+				return instanceForWholeObject(totalLength);
+			}
+			return instance(start, end, totalLength);
+		} catch (NumberFormatException e) {
+			return instanceForWholeObject(totalLength);
+		}
+	}
+
+	private ByteRange(final long start, final long end,
+			final long totalLength, final boolean partial) {
+		this.start = start;
+		this.end = end;
+		this.totalLength = totalLength;
+		this.partial = partial;
+	}
+
+	/**
+	 * @return the first byte to stream
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the last byte to stream, inclusive. This is -1 for the whole of
+	 *         an empty object.
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the number of bytes to stream
+	 */
+	public long getLength() {
+		return end - start + 1;
+	}
+
+	/**
+	 * @return the length of the data object
+	 */
+	public long getTotalLength() {
+		return totalLength;
+	}
+
+	/**
+	 * @return {@code true} if a range was asked for, so that a gateway would
+	 *         answer with an HTTP 206, even if the range covers the whole
+	 *         object
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+
+	/**
+	 * @return {@code String} with the value of an HTTP
+	 *         {@code Content-Range} header for this range, such as
+	 *         {@code bytes 0-499/1000}
+	 */
+	public String getContentRange() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("bytes ");
+		sb.append(start);
+		sb.append("-");
+		sb.append(end);
+		sb.append("/");
+		sb.append(totalLength);
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("ByteRange");
+		sb.append("\n   start:");
+		sb.append(start);
+		sb.append("\n   end:");
+		sb.append(end);
+		sb.append("\n   totalLength:");
+		sb.append(totalLength);
+		sb.append("\n   partial:");
+		sb.append(partial);
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,50 @@
+package org.irods.jargon.ticket.io;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * The byte range asked for does not overlap the data object, so that none of
+ * it can be streamed. A gateway would answer with an HTTP 416 and the
+ * {@link #getContentRange()} of this exception.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class RangeNotSatisfiableException extends JargonException {
+
+	private static final long serialVersionUID = -5284407616214271862L;
+
+	private final long totalLength;
+
+	/**
+	 * @param message
+	 *            {@code String} with the reason
+	 * @param totalLength
+	 *            {@code long} with the length of the data object
+	 */
+	public RangeNotSatisfiableException(final String message,
+			final long totalLength) {
+		super(message);
+		this.totalLength = totalLength;
+	}
+
+	/**
+	 * @return the length of the data object
+	 */
+	public long getTotalLength() {
+		return totalLength;
+	}
+
+	/**
+	 * @return {@code String} with the value of an HTTP
+	 *         {@code Content-Range} header for an unsatisfiable range, such
+	 *         as {@code bytes *}{@code /1000}
+	 */
+	public String getContentRange() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("bytes */");
+		sb.append(totalLength);
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,68 @@
+package org.irods.jargon.ticket.io;
+
+import java.io.InputStream;
+
+/**
+ * Value object holds an {@code InputStream} of a range of a data object,
+ * read directly from iRODS under a ticket, with the {@link ByteRange} that it
+ * covers. Unlike the {@link FileStreamAndInfo}, no intermediate copy of the
+ * data is made.
+ * <p>
+ * The stream must be closed, which frees the iRODS file and the connection it
+ * is read over. As with other iRODS streams, it is read on the thread that
+ * opened it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class RangeStreamAndInfo {
+	private final InputStream inputStream;
+	private final ByteRange byteRange;
+
+	/**
+	 * Constructor with an input stream and the range it covers
+	 *
+	 * @param inputStream
+	 *            {@code InputStream} that returns exactly the bytes of the
+	 *            range, and is already buffered
+	 * @param byteRange
+	 *            {@link ByteRange} covered by the stream
+	 */
+	public RangeStreamAndInfo(final InputStream inputStream,
+			final ByteRange byteRange) {
+
+		if (inputStream == null) {
+			throw new IllegalArgumentException("null inputStream");
+		}
+
+		if (byteRange == null) {
+			throw new IllegalArgumentException("null byteRange");
+		}
+
+		this.inputStream = inputStream;
+		this.byteRange = byteRange;
+	}
+
+	/**
+	 * @return the inputStream that is pre-buffered, and will free the iRODS
+	 *         connection when closed
+	 */
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+
+	/**
+	 * @return the range of the data object covered by the stream
+	 */
+	public ByteRange getByteRange() {
+		return byteRange;
+	}
+
+	/**
+	 * @return the number of bytes to be streamed
+	 */
+	public long getLength() {
+		return byteRange.getLength();
+	}
+
+}
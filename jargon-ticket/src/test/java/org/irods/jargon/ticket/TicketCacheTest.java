@@ -0,0 +1,113 @@
+package org.irods.jargon.ticket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TicketCacheTest {
+
+	private IRODSAccount irodsAccount;
+	private IRODSAccount otherAccount;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test",
+				"/zone/home/test", "zone", "");
+		otherAccount = IRODSAccount.instance("host", 1247, "other", "test",
+				"/zone/home/other", "zone", "");
+	}
+
+	@Test
+	public void testPutThenGetReturnsCopy() throws Exception {
+		TicketCache ticketCache = new TicketCache(60000);
+		Ticket ticket = buildTicket("abc", 5);
+		ticketCache.putTicket(irodsAccount, "abc", ticket,
+				ticketCache.currentVersion());
+		ticket.setUsesLimit(99);
+
+		Ticket cached = ticketCache.getTicket(irodsAccount, "abc");
+		Assert.assertEquals(5, cached.getUsesLimit());
+		cached.setUsesLimit(42);
+		Assert.assertEquals(5, ticketCache.getTicket(irodsAccount, "abc")
+				.getUsesLimit());
+	}
+
+	@Test
+	public void testEntriesAreKeptPerUser() throws Exception {
+		TicketCache ticketCache = new TicketCache(60000);
+		ticketCache.putTicket(irodsAccount, "abc", buildTicket("abc", 5),
+				ticketCache.currentVersion());
+		Assert.assertNull(ticketCache.getTicket(otherAccount, "abc"));
+	}
+
+	@Test
+	public void testInvalidateDropsAllUsersAndRestrictions() throws Exception {
+		TicketCache ticketCache = new TicketCache(60000);
+		List<String> hosts = new ArrayList<String>();
+		hosts.add("www.irods.org");
+		ticketCache.putTicket(irodsAccount, "abc", buildTicket("abc", 5),
+				ticketCache.currentVersion());
+		ticketCache.putTicket(otherAccount, "abc", buildTicket("abc", 5),
+				ticketCache.currentVersion());
+		ticketCache.putRestrictions(irodsAccount, "abc",
+				RodsGenQueryEnum.COL_TICKET_ALLOWED_HOST, hosts,
+				ticketCache.currentVersion());
+		ticketCache.putTicket(irodsAccount, "def", buildTicket("def", 1),
+				ticketCache.currentVersion());
+
+		ticketCache.invalidate(irodsAccount, "abc");
+
+		Assert.assertNull(ticketCache.getTicket(irodsAccount, "abc"));
+		Assert.assertNull(ticketCache.getTicket(otherAccount, "abc"));
+		Assert.assertNull(ticketCache.getRestrictions(irodsAccount, "abc",
+				RodsGenQueryEnum.COL_TICKET_ALLOWED_HOST));
+		Assert.assertNotNull(ticketCache.getTicket(irodsAccount, "def"));
+	}
+
+	@Test
+	public void testRestrictionsKeptPerColumn() throws Exception {
+		TicketCache ticketCache = new TicketCache(60000);
+		List<String> users = new ArrayList<String>();
+		users.add("me");
+		ticketCache.putRestrictions(irodsAccount, "abc",
+				RodsGenQueryEnum.COL_TICKET_ALLOWED_USER_NAME, users,
+				ticketCache.currentVersion());
+		Assert.assertEquals(users, ticketCache.getRestrictions(irodsAccount,
+				"abc", RodsGenQueryEnum.COL_TICKET_ALLOWED_USER_NAME));
+		Assert.assertNull(ticketCache.getRestrictions(irodsAccount, "abc",
+				RodsGenQueryEnum.COL_TICKET_ALLOWED_GROUP_NAME));
+	}
+
+	@Test
+	public void testReadRacingInvalidationIsNotCached() throws Exception {
+		TicketCache ticketCache = new TicketCache(60000);
+		long readAtVersion = ticketCache.currentVersion();
+		ticketCache.invalidate(irodsAccount, "abc");
+		ticketCache.putTicket(irodsAccount, "abc", buildTicket("abc", 5),
+				readAtVersion);
+		Assert.assertNull(ticketCache.getTicket(irodsAccount, "abc"));
+	}
+
+	@Test
+	public void testExpires() throws Exception {
+		TicketCache ticketCache = new TicketCache(1);
+		ticketCache.putTicket(irodsAccount, "abc", buildTicket("abc", 5),
+				ticketCache.currentVersion());
+		Thread.sleep(10);
+		Assert.assertNull(ticketCache.getTicket(irodsAccount, "abc"));
+	}
+
+	private Ticket buildTicket(final String ticketString, final int usesLimit) {
+		Ticket ticket = new Ticket();
+		ticket.setTicketString(ticketString);
+		ticket.setUsesLimit(usesLimit);
+		return ticket;
+	}
+
+}
@@ -0,0 +1,112 @@
+package org.irods.jargon.ticket.io;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+public class ByteRangeTest {
+
+	@Test
+	public void testNoHeaderIsWholeObject() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader(null, 1000);
+		Assert.assertFalse(byteRange.isPartial());
+		Assert.assertEquals(0, byteRange.getStart());
+		Assert.assertEquals(999, byteRange.getEnd());
+		Assert.assertEquals(1000, byteRange.getLength());
+	}
+
+	@Test
+	public void testClosedRange() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader(
+				"bytes=100-199", 1000);
+		Assert.assertTrue(byteRange.isPartial());
+		Assert.assertEquals(100, byteRange.getStart());
+		Assert.assertEquals(199, byteRange.getEnd());
+		Assert.assertEquals(100, byteRange.getLength());
+		Assert.assertEquals("bytes 100-199/1000", byteRange.getContentRange());
+	}
+
+	@Test
+	public void testOpenEndedRange() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader("bytes=900-",
+				1000);
+		Assert.assertEquals(900, byteRange.getStart());
+		Assert.assertEquals(999, byteRange.getEnd());
+	}
+
+	@Test
+	public void testEndPastObjectIsCut() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader(
+				"bytes=500-5000", 1000);
+		Assert.assertEquals(999, byteRange.getEnd());
+		Assert.assertEquals(500, byteRange.getLength());
+	}
+
+	@Test
+	public void testSuffixRange() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader("bytes=-100",
+				1000);
+		Assert.assertEquals(900, byteRange.getStart());
+		Assert.assertEquals(999, byteRange.getEnd());
+	}
+
+	@Test
+	public void testSuffixLongerThanObject() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader(
+				"bytes=-5000", 1000);
+		Assert.assertTrue(byteRange.isPartial());
+		Assert.assertEquals(0, byteRange.getStart());
+		Assert.assertEquals(1000, byteRange.getLength());
+	}
+
+	@Test
+	public void testMultipleRangesIgnored() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader(
+				"bytes=0-9,20-29", 1000);
+		Assert.assertFalse(byteRange.isPartial());
+		Assert.assertEquals(1000, byteRange.getLength());
+	}
+
+	@Test
+	public void testInvalidHeaderIgnored() throws Exception {
+		Assert.assertFalse(ByteRange.instanceFromRangeHeader("bytes=a-b",
+				1000).isPartial());
+		Assert.assertFalse(ByteRange.instanceFromRangeHeader("bytes=20-10",
+				1000).isPartial());
+		Assert.assertFalse(ByteRange.instanceFromRangeHeader("items=0-10",
+				1000).isPartial());
+	}
+
+	@Test
+	public void testStartPastObjectNotSatisfiable() throws Exception {
+		try {
+			ByteRange.instanceFromRangeHeader("bytes=1000-", 1000);
+			Assert.fail("expected RangeNotSatisfiableException");
+		} catch (RangeNotSatisfiableException e) {
+			Assert.assertEquals(1000, e.getTotalLength());
+			Assert.assertEquals("bytes */1000", e.getContentRange());
+		}
+	}
+
+	@Test(expected = RangeNotSatisfiableException.class)
+	public void testZeroSuffixNotSatisfiable() throws Exception {
+		ByteRange.instanceFromRangeHeader("bytes=-0", 1000);
+	}
+
+	@Test
+	public void testEmptyObjectWhole() throws Exception {
+		ByteRange byteRange = ByteRange.instanceFromRangeHeader(null, 0);
+		Assert.assertEquals(0, byteRange.getLength());
+	}
+
+	@Test(expected = RangeNotSatisfiableException.class)
+	public void testEmptyObjectRangeNotSatisfiable() throws Exception {
+		ByteRange.instanceFromRangeHeader("bytes=0-", 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExplicitEndBeforeStart() throws Exception {
+		ByteRange.instance(10, 5, 1000);
+	}
+
+}
@@ -77,6 +77,28 @@ public final class FreeTaggingServiceImpl extends AbstractIRODSTaggingService
 				irodsAccount, null);
 	}
 
+	/**
+	 * Static initializer that initializes the service with a default tagging
+	 * service that keeps the tag counts in the given index current.
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that can create various
+	 *            iRODS Access Objects.
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that describes the target server and
+	 *            credentials.
+	 * @param tagCloudIndex
+	 *            {@link TagCloudIndex} that holds the tag counts of each user
+	 * @return {@code FreeTaggingService} implementation instance.
+	 */
+	public static FreeTaggingService instance(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final TagCloudIndex tagCloudIndex) {
+		return new FreeTaggingServiceImpl(irodsAccessObjectFactory,
+				irodsAccount, IRODSTaggingServiceImpl.instance(
+						irodsAccessObjectFactory, irodsAccount, tagCloudIndex));
+	}
+
 	/**
 	 * Static initializer that allows a {@code IRODSTaggingService}
 	 * implementation to be passed in at construction time. Otherwise a new,
@@ -53,6 +53,8 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 	public static final Logger log = LoggerFactory
 			.getLogger(IRODSTaggingServiceImpl.class);
 
+	private final TagCloudIndex tagCloudIndex;
+
 	/**
 	 * Static initializer used to create instances of the service.
 	 * 
@@ -69,7 +71,29 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 			final IRODSAccessObjectFactory irodsAccessObjectFactory,
 			final IRODSAccount irodsAccount) {
 		return new IRODSTaggingServiceImpl(irodsAccessObjectFactory,
-				irodsAccount);
+				irodsAccount, TagCloudIndex.getDefaultInstance());
+	}
+
+	/**
+	 * Static initializer used to create instances of the service that keep
+	 * the tag counts in the given index current as tags are added and
+	 * deleted.
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that can create various
+	 *            iRODS Access Objects.
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that describes the target server and
+	 *            credentials.
+	 * @param tagCloudIndex
+	 *            {@link TagCloudIndex} that holds the tag counts of each user
+	 * @return instance of the {@code IRODSTaggingServiceImpl}
+	 */
+	public static IRODSTaggingService instance(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final TagCloudIndex tagCloudIndex) {
+		return new IRODSTaggingServiceImpl(irodsAccessObjectFactory,
+				irodsAccount, tagCloudIndex);
 	}
 
 	/**
@@ -82,14 +106,22 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 	 * @param irodsAccount
 	 *            {@code IRODSAccount} that describes the target server and
 	 *            credentials.
+	 * @param tagCloudIndex
+	 *            {@link TagCloudIndex} that holds the tag counts of each user
 	 * @throws JargonException
 	 */
 	private IRODSTaggingServiceImpl(
 			final IRODSAccessObjectFactory irodsAccessObjectFactory,
-			final IRODSAccount irodsAccount) {
+			final IRODSAccount irodsAccount, final TagCloudIndex tagCloudIndex) {
 
 		super(irodsAccessObjectFactory, irodsAccount);
 
+		if (tagCloudIndex == null) {
+			throw new IllegalArgumentException("null tagCloudIndex");
+		}
+
+		this.tagCloudIndex = tagCloudIndex;
+
 	}
 
 	/*
@@ -127,6 +159,8 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 			throw new DataNotFoundException(
 					"did not find data object in query", fnf);
 		}
+		tagCloudIndex.tagAdded(irodsAccount, irodsTagValue,
+				MetadataDomain.DATA);
 		log.debug("tag added successfully");
 
 	}
@@ -343,6 +377,8 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 
 		try {
 			dataObjectAO.deleteAVUMetadata(dataObjectAbsolutePath, avuData);
+			tagCloudIndex.tagRemoved(irodsAccount, irodsTagValue,
+					MetadataDomain.DATA);
 		} catch (FileNotFoundException fnf) {
 			log.warn("tag AVU missing when deleting, silently ignore");
 		} catch (DataNotFoundException dnf) {
@@ -653,6 +689,8 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 		CollectionAO collectionAO = irodsAccessObjectFactory
 				.getCollectionAO(irodsAccount);
 		collectionAO.addAVUMetadata(collectionAbsolutePath, avuData);
+		tagCloudIndex.tagAdded(irodsAccount, irodsTagValue,
+				MetadataDomain.COLLECTION);
 		log.debug("tag added successfully");
 
 	}
@@ -814,6 +852,8 @@ public final class IRODSTaggingServiceImpl extends AbstractIRODSTaggingService
 		CollectionAO collectionAO = irodsAccessObjectFactory
 				.getCollectionAO(irodsAccount);
 		collectionAO.deleteAVUMetadata(irodsAbsolutePath, avuData);
+		tagCloudIndex.tagRemoved(irodsAccount, irodsTagValue,
+				MetadataDomain.COLLECTION);
 		log.debug("tag removed successfully");
 
 	}
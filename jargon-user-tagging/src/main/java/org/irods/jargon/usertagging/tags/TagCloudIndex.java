@@ -0,0 +1,212 @@
+package org.irods.jargon.usertagging.tags;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.query.MetaDataAndDomainData.MetadataDomain;
+import org.irods.jargon.usertagging.domain.IRODSTagValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of tag counts per user, used by the
+ * {@link UserTagCloudService} to answer tag cloud requests without querying
+ * iRODS each time. A user's counts are loaded from server side aggregate
+ * queries on first use, then kept current by the add and delete operations of
+ * the {@link IRODSTaggingService} (and so the {@link FreeTaggingService}).
+ * <p>
+ * Tags changed by other processes are not seen until the counts of a user
+ * expire and are reloaded, after {@code timeToLiveMillis}. Services created
+ * without an index share the {@link #getDefaultInstance()} for the JVM.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class TagCloudIndex {
+
+	public static final Logger log = LoggerFactory
+			.getLogger(TagCloudIndex.class);
+
+	/**
+	 * Default time that the loaded counts of a user are used before reloading
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000;
+
+	private static final TagCloudIndex DEFAULT_INSTANCE = new TagCloudIndex(
+			DEFAULT_TIME_TO_LIVE_MILLIS);
+
+	private final long timeToLiveMillis;
+	private final ConcurrentHashMap<String, UserTagCounts> userTagCounts = new ConcurrentHashMap<String, UserTagCounts>();
+
+	/**
+	 * Get the index shared by services that are not given one
+	 *
+	 * @return {@link TagCloudIndex} shared in this JVM
+	 */
+	public static TagCloudIndex getDefaultInstance() {
+		return DEFAULT_INSTANCE;
+	}
+
+	/**
+	 * Create an index
+	 *
+	 * @param timeToLiveMillis
+	 *            {@code long} with the time the loaded counts of a user are
+	 *            used before reloading
+	 */
+	public TagCloudIndex(final long timeToLiveMillis) {
+		if (timeToLiveMillis < 1) {
+			throw new IllegalArgumentException("timeToLiveMillis must be >= 1");
+		}
+		this.timeToLiveMillis = timeToLiveMillis;
+	}
+
+	/**
+	 * Drop the counts of a user, so that they are reloaded on next use
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} for the grid
+	 * @param userName
+	 *            {@code String} with the user who owns the tags
+	 */
+	public void invalidate(final IRODSAccount irodsAccount,
+			final String userName) {
+		userTagCounts.remove(buildUserKey(irodsAccount, userName));
+	}
+
+	/**
+	 * Drop the counts of all users
+	 */
+	public void clear() {
+		userTagCounts.clear();
+	}
+
+	/**
+	 * @return {@link UserTagCounts} for the user, or {@code null} if not
+	 *         loaded or expired
+	 */
+	UserTagCounts get(final IRODSAccount irodsAccount, final String userName) {
+		String userKey = buildUserKey(irodsAccount, userName);
+		UserTagCounts counts = userTagCounts.get(userKey);
+		if (counts == null) {
+			return null;
+		}
+
+		if (System.currentTimeMillis() - counts.loadedAt > timeToLiveMillis) {
+			log.info("tag counts expired for:{}", userKey);
+			userTagCounts.remove(userKey, counts);
+			return null;
+		}
+
+		return counts;
+	}
+
+	void put(final IRODSAccount irodsAccount, final String userName,
+			final UserTagCounts counts) {
+		userTagCounts.put(buildUserKey(irodsAccount, userName), counts);
+	}
+
+	/**
+	 * Count a tag added to a collection or data object, if the counts of the
+	 * tag user are loaded
+	 */
+	void tagAdded(final IRODSAccount irodsAccount,
+			final IRODSTagValue irodsTagValue,
+			final MetadataDomain metadataDomain) {
+		adjust(irodsAccount, irodsTagValue, metadataDomain, 1);
+	}
+
+	/**
+	 * Uncount a tag removed from a collection or data object, if the counts of
+	 * the tag user are loaded
+	 */
+	void tagRemoved(final IRODSAccount irodsAccount,
+			final IRODSTagValue irodsTagValue,
+			final MetadataDomain metadataDomain) {
+		adjust(irodsAccount, irodsTagValue, metadataDomain, -1);
+	}
+
+	private void adjust(final IRODSAccount irodsAccount,
+			final IRODSTagValue irodsTagValue,
+			final MetadataDomain metadataDomain, final int delta) {
+		UserTagCounts counts = userTagCounts.get(buildUserKey(irodsAccount,
+				irodsTagValue.getTagUser()));
+		if (counts == null) {
+			return;
+		}
+
+		if (metadataDomain == MetadataDomain.COLLECTION) {
+			counts.adjustCollectionCount(irodsTagValue.getTagData(), delta);
+		} else if (metadataDomain == MetadataDomain.DATA) {
+			counts.adjustFileCount(irodsTagValue.getTagData(), delta);
+		}
+	}
+
+	private static String buildUserKey(final IRODSAccount irodsAccount,
+			final String userName) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(irodsAccount.getHost());
+		sb.append(':');
+		sb.append(irodsAccount.getPort());
+		sb.append(':');
+		sb.append(irodsAccount.getZone());
+		sb.append(':');
+		sb.append(userName);
+		return sb.toString();
+	}
+
+	/**
+	 * Counts of files and collections carrying each tag of one user. Counts
+	 * that fall to zero are kept, and skipped when a cloud is built.
+	 */
+	static final class UserTagCounts {
+		private final long loadedAt = System.currentTimeMillis();
+		private final ConcurrentHashMap<String, AtomicInteger> fileCounts = new ConcurrentHashMap<String, AtomicInteger>();
+		private final ConcurrentHashMap<String, AtomicInteger> collectionCounts = new ConcurrentHashMap<String, AtomicInteger>();
+
+		void adjustFileCount(final String tag, final int delta) {
+			adjust(fileCounts, tag, delta);
+		}
+
+		void adjustCollectionCount(final String tag, final int delta) {
+			adjust(collectionCounts, tag, delta);
+		}
+
+		Map<String, AtomicInteger> getFileCounts() {
+			return fileCounts;
+		}
+
+		Map<String, AtomicInteger> getCollectionCounts() {
+			return collectionCounts;
+		}
+
+		private static void adjust(
+				final ConcurrentHashMap<String, AtomicInteger> counts,
+				final String tag, final int delta) {
+			AtomicInteger count = counts.get(tag);
+			if (count == null) {
+				if (delta < 0) {
+					return;
+				}
+				AtomicInteger newCount = new AtomicInteger();
+				count = counts.putIfAbsent(tag, newCount);
+				if (count == null) {
+					count = newCount;
+				}
+			}
+
+			int current;
+			do {
+				current = count.get();
+				if (current + delta < 0) {
+					return;
+				}
+			} while (!count.compareAndSet(current, current + delta));
+		}
+	}
+
+}
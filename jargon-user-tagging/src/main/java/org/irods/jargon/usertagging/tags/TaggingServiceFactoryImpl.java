@@ -12,15 +12,44 @@ import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 public class TaggingServiceFactoryImpl implements TaggingServiceFactory {
 
 	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final TagCloudIndex tagCloudIndex;
 
+	/**
+	 * Create a factory whose services share the
+	 * {@link TagCloudIndex#getDefaultInstance()}
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that can create various
+	 *            iRODS Access Objects.
+	 */
 	public TaggingServiceFactoryImpl(
 			final IRODSAccessObjectFactory irodsAccessObjectFactory) {
+		this(irodsAccessObjectFactory, TagCloudIndex.getDefaultInstance());
+	}
+
+	/**
+	 * Create a factory whose services share the given index of tag counts
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that can create various
+	 *            iRODS Access Objects.
+	 * @param tagCloudIndex
+	 *            {@link TagCloudIndex} that holds the tag counts of each user
+	 */
+	public TaggingServiceFactoryImpl(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final TagCloudIndex tagCloudIndex) {
 		if (irodsAccessObjectFactory == null) {
 			throw new IllegalArgumentException(
 					"irodsAccessObjectFactory is null");
 		}
 
+		if (tagCloudIndex == null) {
+			throw new IllegalArgumentException("tagCloudIndex is null");
+		}
+
 		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.tagCloudIndex = tagCloudIndex;
 
 	}
 
@@ -42,7 +71,7 @@ public class TaggingServiceFactoryImpl implements TaggingServiceFactory {
 		}
 
 		return FreeTaggingServiceImpl.instance(irodsAccessObjectFactory,
-				irodsAccount);
+				irodsAccount, tagCloudIndex);
 
 	}
 
@@ -64,7 +93,7 @@ public class TaggingServiceFactoryImpl implements TaggingServiceFactory {
 		}
 
 		return IRODSTaggingServiceImpl.instance(irodsAccessObjectFactory,
-				irodsAccount);
+				irodsAccount, tagCloudIndex);
 
 	}
 
@@ -86,7 +115,7 @@ public class TaggingServiceFactoryImpl implements TaggingServiceFactory {
 		}
 
 		return UserTagCloudServiceImpl.instance(irodsAccessObjectFactory,
-				irodsAccount);
+				irodsAccount, tagCloudIndex);
 
 	}
 
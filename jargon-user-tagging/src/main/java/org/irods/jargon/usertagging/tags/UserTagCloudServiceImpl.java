@@ -5,26 +5,36 @@ package org.irods.jargon.usertagging.tags;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
-import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
 import org.irods.jargon.core.query.IRODSQueryResultRow;
-import org.irods.jargon.core.query.IRODSQueryResultSetInterface;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
 import org.irods.jargon.core.query.RodsGenQueryEnum;
 import org.irods.jargon.core.utils.IRODSDataConversionUtil;
 import org.irods.jargon.usertagging.AbstractIRODSTaggingService;
 import org.irods.jargon.usertagging.domain.IRODSTagValue;
 import org.irods.jargon.usertagging.domain.TagCloudEntry;
 import org.irods.jargon.usertagging.domain.UserTagCloudView;
+import org.irods.jargon.usertagging.tags.TagCloudIndex.UserTagCounts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Service for query and processing of a user tag cloud.
+ * Service for query and processing of a user tag cloud. Tags are counted by
+ * GenQuery {@code COUNT} aggregates grouped by tag on the server, and the
+ * counts are held per user in a {@link TagCloudIndex} that tag add and delete
+ * operations keep current, so that most requests do not query iRODS.
  * 
  * @author Mike Conway - DICE (www.irods.org)
  * 
@@ -41,8 +51,11 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 	public static final String AND = " AND ";
 	public static final String QUOTE = "'";
 
+	private final TagCloudIndex tagCloudIndex;
+
 	/**
-	 * Static initializer used to create instances of the service.
+	 * Static initializer used to create instances of the service. The service
+	 * uses the shared {@link TagCloudIndex#getDefaultInstance()}.
 	 * 
 	 * @param irodsAccessObjectFactory
 	 *            {@code IRODSAccessObjectFactory} that can create various
@@ -56,7 +69,28 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 			final IRODSAccessObjectFactory irodsAccessObjectFactory,
 			final IRODSAccount irodsAccount) {
 		return new UserTagCloudServiceImpl(irodsAccessObjectFactory,
-				irodsAccount);
+				irodsAccount, TagCloudIndex.getDefaultInstance());
+	}
+
+	/**
+	 * Static initializer used to create instances of the service that cache
+	 * tag counts in the given index.
+	 * 
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that can create various
+	 *            iRODS Access Objects.
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that describes the target server and
+	 *            credentials.
+	 * @param tagCloudIndex
+	 *            {@link TagCloudIndex} that holds the tag counts of each user
+	 * @return instance of the {@code IRODSTaggingServiceImpl}
+	 */
+	public static UserTagCloudService instance(
+			final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount, final TagCloudIndex tagCloudIndex) {
+		return new UserTagCloudServiceImpl(irodsAccessObjectFactory,
+				irodsAccount, tagCloudIndex);
 	}
 
 	/**
@@ -69,11 +103,19 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 	 * @param irodsAccount
 	 *            {@code IRODSAccount} that describes the target server and
 	 *            credentials.
+	 * @param tagCloudIndex
+	 *            {@link TagCloudIndex} that holds the tag counts of each user
 	 */
 	private UserTagCloudServiceImpl(
 			final IRODSAccessObjectFactory irodsAccessObjectFactory,
-			final IRODSAccount irodsAccount) {
+			final IRODSAccount irodsAccount, final TagCloudIndex tagCloudIndex) {
 		super(irodsAccessObjectFactory, irodsAccount);
+
+		if (tagCloudIndex == null) {
+			throw new IllegalArgumentException("null tagCloudIndex");
+		}
+
+		this.tagCloudIndex = tagCloudIndex;
 	}
 
 	/*
@@ -83,10 +125,11 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 	 */
 	@Override
 	public UserTagCloudView getTagCloud() throws JargonException {
+		UserTagCounts counts = getUserTagCounts();
 		UserTagCloudView userTagCloudView = UserTagCloudView.instance(
 				irodsAccount.getUserName(),
-				buildTagCloudEntryListForDataObjects(""),
-				buildTagCloudEntryListForCollections(""));
+				buildTagCloudEntryList(counts.getFileCounts(), "", true),
+				buildTagCloudEntryList(counts.getCollectionCounts(), "", false));
 		return userTagCloudView;
 	}
 
@@ -103,8 +146,8 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 		log.info("getTagCloudForDataObjects");
 		UserTagCloudView userTagCloudView = UserTagCloudView.instance(
 				irodsAccount.getUserName(),
-				buildTagCloudEntryListForDataObjects(""),
-				new ArrayList<TagCloudEntry>());
+				buildTagCloudEntryList(getUserTagCounts().getFileCounts(), "",
+						true), new ArrayList<TagCloudEntry>());
 		return userTagCloudView;
 
 	}
@@ -120,7 +163,8 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 	public UserTagCloudView getTagCloudForCollections() throws JargonException {
 
 		log.info("getTagCloudForCollections");
-		List<TagCloudEntry> collectionTagCloudEntries = buildTagCloudEntryListForCollections("");
+		List<TagCloudEntry> collectionTagCloudEntries = buildTagCloudEntryList(
+				getUserTagCounts().getCollectionCounts(), "", false);
 		UserTagCloudView userTagCloudView = UserTagCloudView.instance(
 				irodsAccount.getUserName(), new ArrayList<TagCloudEntry>(),
 				collectionTagCloudEntries);
@@ -129,160 +173,142 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 	}
 
 	/**
-	 * Shared method to build a tag cloud list for collections. This will
-	 * default to the user name in the given iRODS account
+	 * Get the tag counts of the logged in user from the index, loading them
+	 * from iRODS if they are not held or have expired
 	 * 
-	 * @return
+	 * @return {@link UserTagCounts} for the user
 	 * @throws JargonException
 	 */
-	private List<TagCloudEntry> buildTagCloudEntryListForCollections(
-			final String searchTagName) throws JargonException {
-		log.info("buildTagCloudEntryListForCollections, user={}",
+	private UserTagCounts getUserTagCounts() throws JargonException {
+		UserTagCounts counts = tagCloudIndex.get(irodsAccount,
 				irodsAccount.getUserName());
-
-		if (searchTagName == null) {
-			throw new IllegalArgumentException("null searchTagName");
+		if (counts != null) {
+			log.info("tag counts found in index");
+			return counts;
 		}
 
-		// create a GenQuery to get the cloud info
-		StringBuilder sb = new StringBuilder();
-		sb.append("SELECT COUNT(");
-		sb.append(RodsGenQueryEnum.COL_COLL_NAME.getName());
-		sb.append(")");
-		sb.append(COMMA_SPACE);
-		sb.append(RodsGenQueryEnum.COL_META_COLL_ATTR_NAME.getName());
-		sb.append(" WHERE ");
-		sb.append(RodsGenQueryEnum.COL_META_COLL_ATTR_UNITS.getName());
-		sb.append(EQUAL_QUOTE);
-		sb.append(UserTaggingConstants.TAG_AVU_UNIT);
-		sb.append(QUOTE_SPACE);
-		sb.append(AND);
-		sb.append(RodsGenQueryEnum.COL_META_COLL_ATTR_VALUE.getName());
-		sb.append(EQUAL_QUOTE);
-		sb.append(irodsAccount.getUserName());
-		sb.append(QUOTE);
-
-		if (!searchTagName.isEmpty()) {
-			sb.append(' ');
-			sb.append(AND);
-			sb.append(RodsGenQueryEnum.COL_META_COLL_ATTR_NAME.getName());
-			sb.append(" LIKE '%");
-			sb.append(searchTagName);
-			sb.append("%'");
-		}
+		log.info("loading tag counts for user:{}", irodsAccount.getUserName());
+		counts = new UserTagCounts();
+		queryTagCounts(counts, RodsGenQueryEnum.COL_D_DATA_ID,
+				RodsGenQueryEnum.COL_META_DATA_ATTR_NAME,
+				RodsGenQueryEnum.COL_META_DATA_ATTR_VALUE,
+				RodsGenQueryEnum.COL_META_DATA_ATTR_UNITS, true);
+		queryTagCounts(counts, RodsGenQueryEnum.COL_COLL_ID,
+				RodsGenQueryEnum.COL_META_COLL_ATTR_NAME,
+				RodsGenQueryEnum.COL_META_COLL_ATTR_VALUE,
+				RodsGenQueryEnum.COL_META_COLL_ATTR_UNITS, false);
+		tagCloudIndex.put(irodsAccount, irodsAccount.getUserName(), counts);
+		return counts;
+	}
 
-		String cloudQuery = sb.toString();
-		log.debug("cloud tag query:{}", cloudQuery);
+	/**
+	 * Count the tagged data objects or collections of the logged in user,
+	 * grouped by tag, on the server. Only the first replica of a data object
+	 * is counted.
+	 * 
+	 * @throws JargonException
+	 */
+	private void queryTagCounts(final UserTagCounts counts,
+			final RodsGenQueryEnum idColumn, final RodsGenQueryEnum nameColumn,
+			final RodsGenQueryEnum valueColumn,
+			final RodsGenQueryEnum unitsColumn, final boolean dataObjects)
+			throws JargonException {
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		IRODSGenQueryFromBuilder irodsQuery;
+		try {
+			builder.addSelectAsAgregateGenQueryValue(idColumn,
+					SelectFieldTypes.COUNT)
+					.addSelectAsGenQueryValue(nameColumn)
+					.addConditionAsGenQueryField(unitsColumn,
+							QueryConditionOperators.EQUAL,
+							UserTaggingConstants.TAG_AVU_UNIT)
+					.addConditionAsGenQueryField(valueColumn,
+							QueryConditionOperators.EQUAL,
+							irodsAccount.getUserName());
+			if (dataObjects) {
+				builder.addConditionAsGenQueryField(
+						RodsGenQueryEnum.COL_DATA_REPL_NUM,
+						QueryConditionOperators.EQUAL, "0");
+			}
+			irodsQuery = builder
+					.exportIRODSQueryFromBuilder(irodsAccessObjectFactory
+							.getJargonProperties().getMaxFilesAndDirsQueryMax());
+		} catch (GenQueryBuilderException e) {
+			log.error("query builder error", e);
+			throw new JargonException("error building tag cloud query", e);
+		}
 
-		IRODSGenQuery irodsQuery = IRODSGenQuery.instance(cloudQuery, 2000);
 		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory
 				.getIRODSGenQueryExecutor(irodsAccount);
-		IRODSQueryResultSetInterface resultSet;
 
 		try {
-			resultSet = irodsGenQueryExecutor.executeIRODSQuery(irodsQuery, 0);
+			IRODSQueryResultSet resultSet = irodsGenQueryExecutor
+					.executeIRODSQueryInZone(irodsQuery, 0,
+							irodsAccount.getZone());
+			addTagCounts(counts, resultSet, dataObjects);
+			while (resultSet.isHasMoreRecords()) {
+				resultSet = irodsGenQueryExecutor.getMoreResultsInZone(
+						resultSet, irodsAccount.getZone());
+				addTagCounts(counts, resultSet, dataObjects);
+			}
 		} catch (JargonQueryException e) {
 			log.error("irods query error", e);
 			throw new JargonException(e);
 		}
+	}
 
-		List<TagCloudEntry> tagCloudEntries = new ArrayList<TagCloudEntry>();
-
-		IRODSTagValue irodsTagValue;
-
+	private void addTagCounts(final UserTagCounts counts,
+			final IRODSQueryResultSet resultSet, final boolean dataObjects)
+			throws JargonException {
 		for (IRODSQueryResultRow resultRow : resultSet.getResults()) {
-			log.debug("count coll:{}", resultRow.getColumn(0));
+			log.debug("count:{}", resultRow.getColumn(0));
 			log.debug("tag name:{}", resultRow.getColumn(1));
-			irodsTagValue = new IRODSTagValue(resultRow.getColumn(1),
-					irodsAccount.getUserName());
-			tagCloudEntries
-					.add(new TagCloudEntry(irodsTagValue, 0,
-							IRODSDataConversionUtil
-									.getIntOrZeroFromIRODSValue(resultRow
-											.getColumn(0))));
+			int count = IRODSDataConversionUtil
+					.getIntOrZeroFromIRODSValue(resultRow.getColumn(0));
+			if (dataObjects) {
+				counts.adjustFileCount(resultRow.getColumn(1), count);
+			} else {
+				counts.adjustCollectionCount(resultRow.getColumn(1), count);
+			}
 		}
-
-		return tagCloudEntries;
-
 	}
 
 	/**
-	 * Shared method to build a tag cloud list for data objects. This will
-	 * default to the user name in the given iRODS account
+	 * Build cloud entries from held tag counts, for tags containing the
+	 * search term
 	 * 
-	 * @return
+	 * @return {@code List} of {@link TagCloudEntry}
 	 * @throws JargonException
 	 */
-	private List<TagCloudEntry> buildTagCloudEntryListForDataObjects(
-			final String searchTagName) throws JargonException {
+	private List<TagCloudEntry> buildTagCloudEntryList(
+			final Map<String, AtomicInteger> tagCounts,
+			final String searchTagName, final boolean dataObjects)
+			throws JargonException {
 
 		if (searchTagName == null) {
 			throw new IllegalArgumentException("null searchTagName");
 		}
 
-		log.info("buildTagCloudEntryListForDataObjects, user={}",
-				irodsAccount.getUserName());
-
-		// create a GenQuery to get the cloud info
-		StringBuilder sb = new StringBuilder();
-		sb.append("SELECT COUNT(");
-		sb.append(RodsGenQueryEnum.COL_DATA_NAME.getName());
-		sb.append(')');
-		sb.append(COMMA_SPACE);
-		sb.append("COUNT(");
-		sb.append(RodsGenQueryEnum.COL_COLL_NAME.getName());
-		sb.append(")");
-		sb.append(COMMA_SPACE);
-		sb.append(RodsGenQueryEnum.COL_META_DATA_ATTR_NAME.getName());
-		sb.append(" WHERE ");
-		sb.append(RodsGenQueryEnum.COL_META_DATA_ATTR_UNITS.getName());
-		sb.append(EQUAL_QUOTE);
-		sb.append(UserTaggingConstants.TAG_AVU_UNIT);
-		sb.append(QUOTE_SPACE);
-		sb.append(AND);
-		sb.append(RodsGenQueryEnum.COL_META_DATA_ATTR_VALUE.getName());
-		sb.append(EQUAL_QUOTE);
-		sb.append(irodsAccount.getUserName());
-		sb.append(QUOTE);
-
-		if (!searchTagName.isEmpty()) {
-			sb.append(' ');
-			sb.append(AND);
-			sb.append(RodsGenQueryEnum.COL_META_DATA_ATTR_NAME.getName());
-			sb.append(" LIKE '%");
-			sb.append(searchTagName);
-			sb.append("%'");
-		}
-
-		String cloudQuery = sb.toString();
-		log.debug("cloud tag query:{}", cloudQuery);
-
-		IRODSGenQuery irodsQuery = IRODSGenQuery.instance(cloudQuery, 2000);
-		IRODSGenQueryExecutor irodsGenQueryExecutor = irodsAccessObjectFactory
-				.getIRODSGenQueryExecutor(irodsAccount);
-		IRODSQueryResultSetInterface resultSet;
-
-		try {
-			resultSet = irodsGenQueryExecutor.executeIRODSQuery(irodsQuery, 0);
-		} catch (JargonQueryException e) {
-			log.error("irods query error", e);
-			throw new JargonException(e);
-		}
-
 		List<TagCloudEntry> tagCloudEntries = new ArrayList<TagCloudEntry>();
-		IRODSTagValue irodsTagValue;
-
-		for (IRODSQueryResultRow resultRow : resultSet.getResults()) {
-			log.debug("count data:{}", resultRow.getColumn(0));
-			log.debug("count coll:{}", resultRow.getColumn(1));
-			log.debug("tag name:{}", resultRow.getColumn(2));
-			irodsTagValue = new IRODSTagValue(resultRow.getColumn(2),
+		for (Map.Entry<String, AtomicInteger> tagCount : tagCounts.entrySet()) {
+			int count = tagCount.getValue().get();
+			if (count == 0) {
+				continue;
+			}
+
+			if (!searchTagName.isEmpty()
+					&& !tagCount.getKey().contains(searchTagName)) {
+				continue;
+			}
+
+			IRODSTagValue irodsTagValue = new IRODSTagValue(tagCount.getKey(),
 					irodsAccount.getUserName());
-			tagCloudEntries
-					.add(new TagCloudEntry(irodsTagValue,
-							IRODSDataConversionUtil
-									.getIntOrZeroFromIRODSValue(resultRow
-											.getColumn(0)), 0));
+			if (dataObjects) {
+				tagCloudEntries.add(new TagCloudEntry(irodsTagValue, count, 0));
+			} else {
+				tagCloudEntries.add(new TagCloudEntry(irodsTagValue, 0, count));
+			}
 		}
 
 		return tagCloudEntries;
@@ -304,10 +330,17 @@ public final class UserTagCloudServiceImpl extends AbstractIRODSTaggingService
 				irodsAccount.getUserName());
 		log.info("tag search term:{}", tagSearchTerm);
 
+		if (tagSearchTerm == null) {
+			throw new IllegalArgumentException("null tagSearchTerm");
+		}
+
+		UserTagCounts counts = getUserTagCounts();
 		UserTagCloudView userTagCloudView = UserTagCloudView.instance(
 				irodsAccount.getUserName(),
-				buildTagCloudEntryListForDataObjects(tagSearchTerm),
-				buildTagCloudEntryListForCollections(tagSearchTerm));
+				buildTagCloudEntryList(counts.getFileCounts(), tagSearchTerm,
+						true),
+				buildTagCloudEntryList(counts.getCollectionCounts(),
+						tagSearchTerm, false));
 		return userTagCloudView;
 
 	}
@@ -0,0 +1,83 @@
+package org.irods.jargon.usertagging.tags;
+
+import junit.framework.Assert;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.query.MetaDataAndDomainData.MetadataDomain;
+import org.irods.jargon.usertagging.domain.IRODSTagValue;
+import org.irods.jargon.usertagging.tags.TagCloudIndex.UserTagCounts;
+import org.junit.Test;
+
+public class TagCloudIndexTest {
+
+	private final IRODSAccount irodsAccount = buildAccount();
+
+	@Test
+	public void testUpdateIgnoredWhenUserNotLoaded() throws Exception {
+		TagCloudIndex tagCloudIndex = new TagCloudIndex(60000);
+		tagCloudIndex.tagAdded(irodsAccount, new IRODSTagValue("tag", "test"),
+				MetadataDomain.DATA);
+		Assert.assertNull(tagCloudIndex.get(irodsAccount, "test"));
+	}
+
+	@Test
+	public void testAddAndRemoveAdjustCounts() throws Exception {
+		TagCloudIndex tagCloudIndex = new TagCloudIndex(60000);
+		UserTagCounts counts = new UserTagCounts();
+		counts.adjustFileCount("tag", 2);
+		tagCloudIndex.put(irodsAccount, "test", counts);
+
+		tagCloudIndex.tagAdded(irodsAccount, new IRODSTagValue("tag", "test"),
+				MetadataDomain.DATA);
+		tagCloudIndex.tagAdded(irodsAccount, new IRODSTagValue("new", "test"),
+				MetadataDomain.COLLECTION);
+		tagCloudIndex.tagRemoved(irodsAccount,
+				new IRODSTagValue("new", "test"), MetadataDomain.COLLECTION);
+		tagCloudIndex.tagRemoved(irodsAccount,
+				new IRODSTagValue("new", "test"), MetadataDomain.COLLECTION);
+
+		UserTagCounts found = tagCloudIndex.get(irodsAccount, "test");
+		Assert.assertEquals(3, found.getFileCounts().get("tag").get());
+		Assert.assertEquals("count should not go below zero", 0, found
+				.getCollectionCounts().get("new").get());
+	}
+
+	@Test
+	public void testUpdateAppliesToTagUser() throws Exception {
+		TagCloudIndex tagCloudIndex = new TagCloudIndex(60000);
+		tagCloudIndex.put(irodsAccount, "test", new UserTagCounts());
+		tagCloudIndex.put(irodsAccount, "other", new UserTagCounts());
+		tagCloudIndex.tagAdded(irodsAccount,
+				new IRODSTagValue("tag", "other"), MetadataDomain.DATA);
+		Assert.assertNull(tagCloudIndex.get(irodsAccount, "test")
+				.getFileCounts().get("tag"));
+		Assert.assertEquals(1, tagCloudIndex.get(irodsAccount, "other")
+				.getFileCounts().get("tag").get());
+	}
+
+	@Test
+	public void testCountsExpire() throws Exception {
+		TagCloudIndex tagCloudIndex = new TagCloudIndex(1);
+		tagCloudIndex.put(irodsAccount, "test", new UserTagCounts());
+		Thread.sleep(10);
+		Assert.assertNull(tagCloudIndex.get(irodsAccount, "test"));
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		TagCloudIndex tagCloudIndex = new TagCloudIndex(60000);
+		tagCloudIndex.put(irodsAccount, "test", new UserTagCounts());
+		tagCloudIndex.invalidate(irodsAccount, "test");
+		Assert.assertNull(tagCloudIndex.get(irodsAccount, "test"));
+	}
+
+	private static IRODSAccount buildAccount() {
+		try {
+			return IRODSAccount.instance("host", 1247, "test", "test",
+					"/zone/home/test", "zone", "");
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
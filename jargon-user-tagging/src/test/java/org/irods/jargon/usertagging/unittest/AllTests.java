@@ -11,6 +11,7 @@ import org.irods.jargon.usertagging.domain.TagQuerySearchResultTest;
 import org.irods.jargon.usertagging.domain.UserTagCloudViewTest;
 import org.irods.jargon.usertagging.sharing.IRODSSharingServiceImplTest;
 import org.irods.jargon.usertagging.starring.IRODSStarringServiceImplTest;
+import org.irods.jargon.usertagging.tags.TagCloudIndexTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -20,7 +21,8 @@ import org.junit.runners.Suite;
 		TagCloudEntryTest.class, UserTagCloudViewTest.class,
 		UserTagCloudServiceImplTest.class, TagQuerySearchResultTest.class,
 		TaggingServiceFactoryImplTest.class,
-		IRODSStarringServiceImplTest.class, IRODSSharingServiceImplTest.class })
+		IRODSStarringServiceImplTest.class, IRODSSharingServiceImplTest.class,
+		TagCloudIndexTest.class })
 public class AllTests {
 
 }